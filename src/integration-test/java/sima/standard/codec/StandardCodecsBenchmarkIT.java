@@ -0,0 +1,110 @@
+package sima.standard.codec;
+
+import org.junit.jupiter.api.*;
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.event.Event;
+import sima.core.environment.event.codec.CodecRegistry;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.standard.broadcast.basic.BroadcastMessage;
+import sima.standard.broadcast.reliable.ReliableBroadcast;
+import sima.standard.broadcast.reliable.ReliableBroadcastMessage;
+import sima.standard.environment.message.Message;
+import sima.standard.environment.message.StringMessage;
+import sima.standard.environment.message.event.physical.PhysicalMessageReceptionEvent;
+import sima.standard.transport.message.SimpleMessageSenderProtocol;
+
+import java.io.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sima.core.simulation.SimaSimulation.SimaLog;
+
+/**
+ * Compares the {@link StandardCodecs} with Java serialization on a reliable broadcast message received through the transport, the most frequent
+ * event of the broadcast simulations. Logs the size and the mean time of an encode plus a decode for both formats.
+ */
+public class StandardCodecsBenchmarkIT {
+
+    // Static.
+
+    private static final int NB_WARMUP_ITERATIONS = 20_000;
+    private static final int NB_ITERATIONS = 100_000;
+
+    // Variables.
+
+    private final AgentIdentifier sender = new AgentIdentifier("SENDER", 1, 1);
+
+    private final ProtocolIdentifier transportProtocol = new ProtocolIdentifier(SimpleMessageSenderProtocol.class, "TRANSPORT");
+
+    private final ProtocolIdentifier reliableProtocol = new ProtocolIdentifier(ReliableBroadcast.class, "RELIABLE");
+
+    private final Event event = new PhysicalMessageReceptionEvent(
+            new Message(new ReliableBroadcastMessage(1234L, sender, new StringMessage("payload", reliableProtocol), reliableProtocol),
+                        transportProtocol), transportProtocol);
+
+    // Methods.
+
+    private static byte[] serialize(Event event) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(event);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Event deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Event) in.readObject();
+        }
+    }
+
+    private long measureSerialization(int nbIterations) throws IOException, ClassNotFoundException {
+        long start = System.nanoTime();
+        for (int i = 0; i < nbIterations; i++)
+            assertThat(deserialize(serialize(event))).isNotNull();
+        return System.nanoTime() - start;
+    }
+
+    private long measureCodec(CodecRegistry registry, int nbIterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < nbIterations; i++)
+            assertThat(registry.decode(registry.encode(event))).isNotNull();
+        return System.nanoTime() - start;
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("StandardCodecs.benchmark")
+    @DisplayName("StandardCodecs benchmark against Java serialization")
+    class BenchmarkTest {
+
+        @Test
+        @DisplayName("Benchmark the encode and decode of a reliable broadcast message with the codecs and with Java serialization")
+        void benchmarkAgainstSerialization() throws IOException, ClassNotFoundException {
+            var inlineRegistry = StandardCodecs.registerAll(new CodecRegistry());
+            var denseRegistry = StandardCodecs.registerAll(new CodecRegistry());
+            denseRegistry.registerAgent(sender);
+            denseRegistry.registerProtocol(transportProtocol);
+            denseRegistry.registerProtocol(reliableProtocol);
+
+            measureSerialization(NB_WARMUP_ITERATIONS);
+            measureCodec(inlineRegistry, NB_WARMUP_ITERATIONS);
+            measureCodec(denseRegistry, NB_WARMUP_ITERATIONS);
+
+            int serializedSize = serialize(event).length;
+            int inlineSize = inlineRegistry.encode(event).length;
+            int denseSize = denseRegistry.encode(event).length;
+            double serializationNs = (double) measureSerialization(NB_ITERATIONS) / NB_ITERATIONS;
+            double inlineNs = (double) measureCodec(inlineRegistry, NB_ITERATIONS) / NB_ITERATIONS;
+            double denseNs = (double) measureCodec(denseRegistry, NB_ITERATIONS) / NB_ITERATIONS;
+
+            SimaLog.info(String.format("Java serialization: %d bytes, %.0f ns per encode and decode", serializedSize, serializationNs));
+            SimaLog.info(String.format("Codecs with inline identifiers: %d bytes, %.0f ns per encode and decode", inlineSize, inlineNs));
+            SimaLog.info(String.format("Codecs with dense identifiers: %d bytes, %.0f ns per encode and decode", denseSize, denseNs));
+
+            assertThat(denseSize).isLessThan(inlineSize).isLessThan(serializedSize);
+            assertThat(inlineRegistry.decode(inlineRegistry.encode(event))).isEqualTo(event);
+        }
+
+    }
+}
@@ -0,0 +1,159 @@
+package sima.core.agent;
+
+import sima.core.exception.AgentMaterializationException;
+import sima.core.exception.ConfigurationException;
+import sima.core.exception.FailInstantiationException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static sima.core.utils.Utils.instantiate;
+
+/**
+ * The description of a {@link SimaAgent} which is not instantiated yet: its {@link AgentIdentifier}, its class, its args and the names of the
+ * environments where it evolves. The membership of the agent in its environments only needs the {@link AgentIdentifier}, therefore a descriptor can
+ * be registered in the simulation and receive events without instance.
+ * <p>
+ * The agent is instantiated by {@link #materialize()}, which then gives it to the {@link AgentWiring} to add its behaviors and its protocols. The
+ * agent is created only once, the next calls return the same instance. The materialized agent has an {@link AgentIdentifier} equal to the one of the
+ * descriptor and bound to the same agent handle.
+ */
+public final class AgentDescriptor {
+
+    // Variables.
+
+    private final AgentIdentifier agentIdentifier;
+
+    private final Class<? extends SimaAgent> agentClass;
+
+    private final Map<String, String> args;
+
+    private final List<String> environments;
+
+    private final AgentWiring agentWiring;
+
+    private volatile SimaAgent agent;
+
+    // Constructors.
+
+    /**
+     * @param agentIdentifier the identifier of the agent
+     * @param agentClass      the class of the agent, must have the constructor (String, int, int, Map)
+     * @param args            the args of the agent, can be null
+     * @param environments    the names of the environments where the agent evolves, can be null
+     * @param agentWiring     adds the behaviors and the protocols to the instantiated agent, can be null
+     *
+     * @throws IllegalArgumentException if the agentIdentifier or the agentClass is null
+     */
+    public AgentDescriptor(AgentIdentifier agentIdentifier, Class<? extends SimaAgent> agentClass, Map<String, String> args,
+                           List<String> environments, AgentWiring agentWiring) {
+        this.agentIdentifier = Optional.ofNullable(agentIdentifier).orElseThrow(
+                () -> new IllegalArgumentException("The agentIdentifier cannot be null"));
+        this.agentClass = Optional.ofNullable(agentClass).orElseThrow(() -> new IllegalArgumentException("The agentClass cannot be null"));
+        this.args = args;
+        this.environments = Optional.ofNullable(environments).map(Collections::unmodifiableList).orElse(Collections.emptyList());
+        this.agentWiring = agentWiring;
+    }
+
+    // Methods.
+
+    @Override
+    public String toString() {
+        return "[AgentDescriptor - agentIdentifier=" + agentIdentifier + ", agentClass=" + agentClass.getName() + ", materialized=" + isMaterialized()
+                + "]";
+    }
+
+    /**
+     * Instantiates and wires the agent if it is not already done. The agent is not started.
+     *
+     * @return the agent described by the descriptor, always the same instance.
+     *
+     * @throws AgentMaterializationException if the agent cannot be instantiated, if its identifier is not equal to the identifier of the descriptor
+     *                                       or if the wiring fails
+     */
+    public synchronized SimaAgent materialize() {
+        if (agent == null) {
+            SimaAgent created = instantiateAgent();
+            if (!agentIdentifier.equals(created.getAgentIdentifier()))
+                throw new AgentMaterializationException("The agent " + created + " has not the identifier of the descriptor " + this);
+
+            if (agentIdentifier.hasAgentHandle())
+                created.getAgentIdentifier().setAgentHandle(agentIdentifier.getAgentHandle());
+
+            wire(created);
+            agent = created;
+        }
+
+        return agent;
+    }
+
+    private SimaAgent instantiateAgent() {
+        try {
+            return instantiate(agentClass, new Class[]{String.class, int.class, int.class, Map.class}, agentIdentifier.getAgentName(),
+                               agentIdentifier.getAgentSequenceId(), agentIdentifier.getAgentUniqueId(), args);
+        } catch (FailInstantiationException e) {
+            throw new AgentMaterializationException("Fail to instantiate the agent of " + this, e);
+        }
+    }
+
+    private void wire(SimaAgent created) {
+        if (agentWiring != null)
+            try {
+                agentWiring.wire(created);
+            } catch (ConfigurationException | ClassNotFoundException | NoSuchMethodException e) {
+                throw new AgentMaterializationException("Fail to wire the agent of " + this, e);
+            }
+    }
+
+    /**
+     * @return true if the agent has been instantiated, else false.
+     */
+    public boolean isMaterialized() {
+        return agent != null;
+    }
+
+    // Getters.
+
+    public AgentIdentifier getAgentIdentifier() {
+        return agentIdentifier;
+    }
+
+    public Class<? extends SimaAgent> getAgentClass() {
+        return agentClass;
+    }
+
+    public Map<String, String> getArgs() {
+        return args;
+    }
+
+    public List<String> getEnvironments() {
+        return environments;
+    }
+
+    public AgentWiring getAgentWiring() {
+        return agentWiring;
+    }
+
+    /**
+     * @return the materialized agent, null if the agent has not been materialized.
+     */
+    public SimaAgent getAgent() {
+        return agent;
+    }
+
+    // Inner classes.
+
+    /**
+     * Adds the behaviors and the protocols to an agent just after its instantiation.
+     */
+    @FunctionalInterface
+    public interface AgentWiring {
+
+        /**
+         * @param agent the instantiated agent
+         */
+        void wire(SimaAgent agent) throws ConfigurationException, ClassNotFoundException, NoSuchMethodException;
+    }
+}
@@ -0,0 +1,55 @@
+package sima.core.agent;
+
+import sima.core.simulation.AgentManager;
+
+/**
+ * Binds the {@link AgentIdentifier} to their agent handle. The agent handles are assigned by the {@link AgentManager}, therefore only the classes
+ * which implement {@link AgentManager} can get the binder. An agent or a protocol cannot rebind an identifier to the handle of another agent.
+ * <p>
+ * The caller is checked once in {@link #getInstance()}, the implementations keep the binder in a static field.
+ */
+public final class AgentHandleBinder {
+
+    // Static.
+
+    private static final AgentHandleBinder INSTANCE = new AgentHandleBinder();
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    // Constructors.
+
+    private AgentHandleBinder() {
+    }
+
+    // Methods.
+
+    /**
+     * @return the binder.
+     *
+     * @throws IllegalCallerException if the caller does not implement {@link AgentManager}
+     */
+    public static AgentHandleBinder getInstance() {
+        Class<?> caller = STACK_WALKER.getCallerClass();
+        if (!AgentManager.class.isAssignableFrom(caller))
+            throw new IllegalCallerException("Only an AgentManager can bind the agent handles, not " + caller.getName());
+
+        return INSTANCE;
+    }
+
+    /**
+     * @param agentIdentifier the agent identifier
+     * @param agentHandle     the agent handle
+     *
+     * @throws IllegalArgumentException if the agentHandle is less than 0 and is not {@link AgentIdentifier#NO_HANDLE}
+     */
+    public void bind(AgentIdentifier agentIdentifier, int agentHandle) {
+        agentIdentifier.setAgentHandle(agentHandle);
+    }
+
+    /**
+     * @param agentIdentifier the agent identifier which is not bound to an agent handle anymore
+     */
+    public void unbind(AgentIdentifier agentIdentifier) {
+        agentIdentifier.setAgentHandle(AgentIdentifier.NO_HANDLE);
+    }
+}
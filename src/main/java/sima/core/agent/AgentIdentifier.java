@@ -1,7 +1,8 @@
 package sima.core.agent;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -11,9 +12,21 @@ import java.util.Optional;
  * agent.
  * <p>
  * This class contains only {@link SimaAgent#getAgentName()}, {@link SimaAgent#getSequenceId()} and {@link SimaAgent#getUniqueId()} fields.
+ * <p>
+ * In addition to these fields, an {@code AgentIdentifier} can carry an agent handle. The agent handle is a dense int assigned by the {@link
+ * sima.core.simulation.AgentManager} when the agent is registered in the simulation. It allows hot paths (agent lookup, environment membership,
+ * event scheduling) to use array indexing instead of hashing. The agent handle is not part of the identity of the agent, it is not used in {@link
+ * #equals(Object)} and {@link #hashCode()} and it is not serialized.
  */
 public class AgentIdentifier implements Serializable {
-    
+
+    // Static.
+
+    /**
+     * Value of the agent handle when the {@link AgentIdentifier} is not bound to an agent handle.
+     */
+    public static final int NO_HANDLE = -1;
+
     // Variables.
 
     private final String agentName;
@@ -22,8 +35,18 @@ public class AgentIdentifier implements Serializable {
 
     private final int agentUniqueId;
 
+    /**
+     * The hash code of the {@link AgentIdentifier}. All fields are final, therefore the hash code is computed once in the constructor.
+     */
+    private final int hashCode;
+
+    /**
+     * The dense agent handle assigned during the registration of the agent. Equal to {@link #NO_HANDLE} if the agent has not been registered.
+     */
+    private transient volatile int agentHandle = NO_HANDLE;
+
     // Constructors.
-    
+
     /**
      * @param agentName       the agent name
      * @param agentSequenceId the agent sequence id
@@ -36,18 +59,36 @@ public class AgentIdentifier implements Serializable {
         this.agentName = Optional.of(agentName).get();
         if (this.agentName.isEmpty())
             throw new IllegalArgumentException("The agentName cannot be empty.");
-        
+
         this.agentSequenceId = agentSequenceId;
         if (this.agentSequenceId < 0)
             throw new IllegalArgumentException("The agentSequenceId cannot be less than 0.");
-        
+
         this.agentUniqueId = agentUniqueId;
         if (this.agentUniqueId < 0)
             throw new IllegalArgumentException("The agentUniqueId cannot be less than 0.");
+
+        this.hashCode = computeHashCode(agentName, agentSequenceId, agentUniqueId);
     }
-    
+
     // Methods.
-    
+
+    /**
+     * Computes the same value as {@code Objects.hash(agentName, agentSequenceId, agentUniqueId)} without boxing the int fields and without
+     * allocating the varargs array.
+     *
+     * @param agentName       the agent name
+     * @param agentSequenceId the agent sequence id
+     * @param agentUniqueId   the agent unique id
+     *
+     * @return the hash code of the {@link AgentIdentifier}.
+     */
+    private static int computeHashCode(String agentName, int agentSequenceId, int agentUniqueId) {
+        int result = 31 + agentName.hashCode();
+        result = 31 * result + agentSequenceId;
+        return 31 * result + agentUniqueId;
+    }
+
     @Override
     public String toString() {
         return "[AgentIdentifier - " +
@@ -55,17 +96,31 @@ public class AgentIdentifier implements Serializable {
                 ", agentSequenceId=" + agentSequenceId +
                 ", agentUniqueId=" + agentUniqueId + "]";
     }
-    
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof AgentIdentifier that)) return false;
-        return agentName.equals(that.agentName) && agentUniqueId == that.agentUniqueId && agentSequenceId == that.agentSequenceId;
+        // Compare int fields first, the String comparison is only done if all others fields are equal.
+        return hashCode == that.hashCode && agentUniqueId == that.agentUniqueId && agentSequenceId == that.agentSequenceId &&
+                agentName.equals(that.agentName);
     }
-    
+
     @Override
     public int hashCode() {
-        return Objects.hash(agentName, agentSequenceId, agentUniqueId);
+        return hashCode;
+    }
+
+    /**
+     * @return true if the {@link AgentIdentifier} is bound to an agent handle, else false.
+     */
+    public boolean hasAgentHandle() {
+        return agentHandle != NO_HANDLE;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        agentHandle = NO_HANDLE;
     }
 
     // Getters.
@@ -81,4 +136,26 @@ public class AgentIdentifier implements Serializable {
     public int getAgentUniqueId() {
         return agentUniqueId;
     }
+
+    /**
+     * @return the agent handle of the agent, {@link #NO_HANDLE} if the agent has not been registered.
+     */
+    public int getAgentHandle() {
+        return agentHandle;
+    }
+
+    /**
+     * Bind the {@link AgentIdentifier} to the specified agent handle. The {@link sima.core.simulation.AgentManager} binds the agent during its
+     * registration through the {@link AgentHandleBinder}.
+     *
+     * @param agentHandle the agent handle
+     *
+     * @throws IllegalArgumentException if the agentHandle is less than 0 and is not {@link #NO_HANDLE}
+     */
+    void setAgentHandle(int agentHandle) {
+        if (agentHandle < 0 && agentHandle != NO_HANDLE)
+            throw new IllegalArgumentException("The agentHandle must be greater or equal to 0 or equal to NO_HANDLE");
+
+        this.agentHandle = agentHandle;
+    }
 }
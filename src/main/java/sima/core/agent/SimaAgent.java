@@ -9,9 +9,11 @@ import sima.core.exception.*;
 import sima.core.protocol.IntendedToProtocol;
 import sima.core.protocol.Protocol;
 import sima.core.protocol.ProtocolIdentifier;
+import sima.core.protocol.ProtocolSlots;
 import sima.core.simulation.SimaSimulation;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static sima.core.simulation.SimaSimulation.SimaLog;
 import static sima.core.utils.Utils.instantiate;
@@ -55,6 +57,12 @@ public class SimaAgent implements EventProcessor {
      */
     private final Map<ProtocolIdentifier, Protocol> mapProtocol;
 
+    /**
+     * The dispatch table of the {@link SimaAgent}. Associate the slot of the {@link ProtocolIdentifier} (see {@link ProtocolSlots}) and the instance
+     * of the {@link Protocol}. Filled at the same time as {@link #mapProtocol}.
+     */
+    private Protocol[] protocolsBySlot;
+
     /**
      * True if the {@link SimaAgent} is started, else false.
      */
@@ -65,6 +73,22 @@ public class SimaAgent implements EventProcessor {
      */
     private boolean isKilled = false;
 
+    /**
+     * True if the {@link SimaAgent} has been passivated, else false. A passivated instance is not started anymore and cannot be started again, the
+     * agent lives on in a new instance materialized from its passivated state.
+     */
+    private volatile boolean isPassivated = false;
+
+    /**
+     * The number of events processed by the {@link SimaAgent}. Only written with the lock of the agent.
+     */
+    private volatile long nbProcessedEvents = 0L;
+
+    /**
+     * The number of events and executables scheduled for the {@link SimaAgent} which reference this instance and have not been executed yet.
+     */
+    private final AtomicInteger nbPendingTasks = new AtomicInteger();
+
     // Constructors.
 
     /**
@@ -93,6 +117,7 @@ public class SimaAgent implements EventProcessor {
         agentIdentifier = new AgentIdentifier(agentName, sequenceId, uniqueId);
         mapBehaviors = new HashMap<>();
         mapProtocol = new HashMap<>();
+        protocolsBySlot = new Protocol[0];
 
         SimaLog.info(String.format("CREATED %s", this));
     }
@@ -141,21 +166,36 @@ public class SimaAgent implements EventProcessor {
      * @throws AlreadyStartedAgentException if the {@link SimaAgent} have already been started
      */
     public final synchronized void start() {
-        if (!isKilled && !isStarted) {
-            setStarted();
-            onStart();
-        } else {
-            if (isKilled)
-                throw new KilledAgentException();
-            else
-                throw new AlreadyStartedAgentException();
-        }
+        verifyCanBeStarted();
+        setStarted();
+        onStart();
+    }
+
+    /**
+     * Starts the {@link SimaAgent} without calling {@link #onStart()}. Used for a new instance of a passivated agent whose state has been restored:
+     * the agent and its protocols have already been started before the passivation.
+     *
+     * @throws KilledAgentException         if the {@link SimaAgent} is killed
+     * @throws AlreadyStartedAgentException if the {@link SimaAgent} have already been started
+     */
+    public final synchronized void resume() {
+        verifyCanBeStarted();
+        setStarted();
+    }
+
+    private void verifyCanBeStarted() {
+        if (isKilled)
+            throw new KilledAgentException();
+        else if (isPassivated)
+            throw new PassivatedAgentException("The agent " + agentIdentifier + " is passivated, it cannot be started again");
+        else if (isStarted)
+            throw new AlreadyStartedAgentException();
     }
 
     private void setStarted() {
         isStarted = true;
 
-        SimaLog.info(String.format("STARTED %s", this));
+        SimaLog.info("STARTED %s", this);
     }
 
     /**
@@ -175,7 +215,7 @@ public class SimaAgent implements EventProcessor {
      * Kill the {@link SimaAgent}. When a {@link SimaAgent} is killed, it cannot be restarted.
      * <p>
      * When a {@link SimaAgent} is killed, it stops to play all its behaviors, leaves all the environments where it was evolving and call the method
-     * {@link #onKill()}.
+     * {@link #onKill()}. After that, the agent is removed from the running simulation (see {@link SimaSimulation#reclaimAgent(SimaAgent)}).
      *
      * @throws AlreadyKilledAgentException if the {@link SimaAgent} have already been killed
      */
@@ -185,6 +225,7 @@ public class SimaAgent implements EventProcessor {
             stopPlayingAllBehaviors();
             leaveAllEnvironments();
             onKill();
+            SimaSimulation.reclaimAgent(this);
         } else
             throw new AlreadyKilledAgentException();
     }
@@ -210,6 +251,28 @@ public class SimaAgent implements EventProcessor {
         }
     }
 
+    /**
+     * Passivates the {@link SimaAgent}: the instance stops to be started and cannot be started again. The events given to the instance after this
+     * call throw a {@link PassivatedAgentException}. The agent must not play any behavior.
+     * <p>
+     * This method is called by the {@link sima.core.simulation.AgentManager} once the state of the agent has been saved. It does not stop the
+     * protocols, their state is the one which has been saved.
+     *
+     * @throws KilledAgentException     if the {@link SimaAgent} is killed
+     * @throws AgentNotStartedException if the {@link SimaAgent} is not started
+     */
+    public final synchronized void passivate() {
+        if (isKilled)
+            throw new KilledAgentException();
+        if (!isStarted)
+            throw new AgentNotStartedException("The agent " + agentIdentifier + " is not started, cannot be passivated");
+
+        isStarted = false;
+        isPassivated = true;
+
+        SimaLog.info("PASSIVATED %s", this);
+    }
+
     /**
      * Method call when the {@link SimaAgent} is killed in the method {@link #kill()}
      */
@@ -417,6 +480,11 @@ public class SimaAgent implements EventProcessor {
     private void mapProtocol(ProtocolIdentifier protocolIdentifier, Protocol protocol) {
         mapProtocol.put(protocolIdentifier, protocol);
 
+        int protocolSlot = protocol.getProtocolSlot();
+        if (protocolSlot >= protocolsBySlot.length)
+            protocolsBySlot = Arrays.copyOf(protocolsBySlot, protocolSlot + 1);
+        protocolsBySlot[protocolSlot] = protocol;
+
         SimaLog.info(String.format("AGENT %s ADD PROTOCOL %s", this, protocol));
     }
 
@@ -452,6 +520,20 @@ public class SimaAgent implements EventProcessor {
         return mapProtocol.get(protocolIdentifier);
     }
 
+    /**
+     * @param protocolSlot the slot of the {@link ProtocolIdentifier} of the {@link Protocol}, see {@link ProtocolSlots}
+     *
+     * @return the {@link Protocol} associated to the slot, if no {@link Protocol} is associated to this slot, return null.
+     */
+    public synchronized Protocol getProtocol(int protocolSlot) {
+        return findProtocol(protocolSlot);
+    }
+
+    private Protocol findProtocol(int protocolSlot) {
+        Protocol[] protocols = protocolsBySlot;
+        return protocolSlot > ProtocolSlots.NO_SLOT && protocolSlot < protocols.length ? protocols[protocolSlot] : null;
+    }
+
     /**
      * Method called by an {@link Environment} when an event occurs and that the receiver is the {@link SimaAgent}. This method is here to allow the
      * {@link SimaAgent} to manage how the event must be treated.
@@ -467,19 +549,84 @@ public class SimaAgent implements EventProcessor {
      */
     @Override
     public final synchronized void processEvent(Event event) {
-        if (isStarted)
-            inProcessEvent(event);
-        else
+        verifyCanProcessEvents();
+        nbProcessedEvents++;
+        inProcessEvent(event);
+    }
+
+    /**
+     * @throws PassivatedAgentException if the agent is passivated
+     * @throws AgentNotStartedException if the agent is not started
+     */
+    private void verifyCanProcessEvents() {
+        if (isPassivated)
+            throw new PassivatedAgentException("The agent " + agentIdentifier + " is passivated, cannot process Event.");
+        if (!isStarted)
             throw new AgentNotStartedException("The agent " + agentIdentifier + " is not started, cannot " +
                                                        "process Event.");
     }
 
+    /**
+     * Same as {@link #processEvent(Event)} but for a batch of {@link Event} which occurred at the same time. Called by the {@link
+     * sima.core.scheduler.Scheduler} in the mode {@link sima.core.scheduler.Scheduler.EventDeliveryMode#BATCHED}.
+     * <p>
+     * To manage the treatment of the batch, you must override the method {@link #inProcessEvents(List)}.
+     *
+     * @param events the events received
+     *
+     * @throws AgentNotStartedException if the agent is not started
+     * @see #inProcessEvents(List)
+     */
+    @Override
+    public final synchronized void processEvents(List<Event> events) {
+        verifyCanProcessEvents();
+        nbProcessedEvents += events.size();
+        inProcessEvents(events);
+    }
+
+    /**
+     * This method is called in the method {@link #processEvents(List)}.
+     * <p>
+     * Consecutive events intended to the same {@link Protocol} are given together to {@link Protocol#processEvents(List)}, in that way a {@code
+     * Protocol} can treat a whole batch at once. Other events are given to {@link #inProcessEvent(Event)}. Inherited classes which override {@link
+     * #inProcessEvent(Event)} should also override this method.
+     *
+     * @param events the events to process
+     *
+     * @throws IllegalArgumentException if one event has a protocol targeted which is not added in the agent
+     */
+    protected void inProcessEvents(List<Event> events) {
+        var i = 0;
+        while (i < events.size()) {
+            var event = events.get(i);
+            if (event instanceof IntendedToProtocol intendedToProtocol) {
+                int protocolSlot = resolveProtocolSlot(intendedToProtocol);
+                var j = i + 1;
+                while (j < events.size() && events.get(j) instanceof IntendedToProtocol other && resolveProtocolSlot(other) == protocolSlot)
+                    j++;
+
+                var intendedProtocol = findProtocol(protocolSlot);
+                if (intendedProtocol == null)
+                    throw new IllegalArgumentException(intendedToProtocol.getIntendedProtocol() + " is not added in the agent");
+
+                if (j - i == 1)
+                    intendedProtocol.processEvent(event);
+                else
+                    intendedProtocol.processEvents(events.subList(i, j));
+                i = j;
+            } else {
+                inProcessEvent(event);
+                i++;
+            }
+        }
+    }
+
     /**
      * This method is called in the method {@link #processEvent(Event)}. In that way this method is not synchronized and the user must not have to be
      * preoccupied by synchronisation and multi threading. This method is called by {@link #processEvent(Event)} only if the agent is started.
      * <p>
-     * This method take all {@link Protocol} added in the agent and call the method {@link Protocol#processEvent(Event)}. Each protocol which think
-     * that the {@link Event} must be treated by him treats the {@link Event}.
+     * This method searches the intended {@link Protocol} of the {@link Event} in the dispatch table of the agent with the slot carried by the event
+     * (see {@link IntendedToProtocol#getIntendedProtocolSlot()}) and call the method {@link Protocol#processEvent(Event)}.
      *
      * @param event the event to process
      *
@@ -487,7 +634,7 @@ public class SimaAgent implements EventProcessor {
      */
     protected void inProcessEvent(Event event) {
         if (event instanceof IntendedToProtocol intendedToProtocol) {
-            var intendedProtocol = getProtocol(intendedToProtocol.getIntendedProtocol());
+            var intendedProtocol = findProtocol(resolveProtocolSlot(intendedToProtocol));
             if (intendedProtocol != null) {
                 intendedProtocol.processEvent(event);
             } else {
@@ -497,6 +644,16 @@ public class SimaAgent implements EventProcessor {
             throw new UnsupportedOperationException("The agent " + this + " cannot process event like " + event.getClass());
     }
 
+    /**
+     * @param intendedToProtocol the event
+     *
+     * @return the slot carried by the event, or the slot of its intended {@link ProtocolIdentifier} if the event does not carry a resolved slot.
+     */
+    private static int resolveProtocolSlot(IntendedToProtocol intendedToProtocol) {
+        int protocolSlot = intendedToProtocol.getIntendedProtocolSlot();
+        return protocolSlot != ProtocolSlots.NO_SLOT ? protocolSlot : ProtocolSlots.slotOf(intendedToProtocol.getIntendedProtocol());
+    }
+
     public AgentIdentifier getAgentIdentifier() {
         return agentIdentifier;
     }
@@ -552,4 +709,37 @@ public class SimaAgent implements EventProcessor {
     public boolean isKilled() {
         return isKilled;
     }
+
+    public boolean isPassivated() {
+        return isPassivated;
+    }
+
+    /**
+     * @return the number of events which have been given to the agent while it was started.
+     */
+    public long getNbProcessedEvents() {
+        return nbProcessedEvents;
+    }
+
+    /**
+     * Records that an event or an executable which references this instance has been scheduled. The agent is not passivated until the task is
+     * removed with {@link #removePendingTask()}.
+     */
+    public void addPendingTask() {
+        nbPendingTasks.incrementAndGet();
+    }
+
+    /**
+     * Records that a task added with {@link #addPendingTask()} has been executed or dropped.
+     */
+    public void removePendingTask() {
+        nbPendingTasks.decrementAndGet();
+    }
+
+    /**
+     * @return true if an event or an executable which references this instance is scheduled and has not been executed yet, else false.
+     */
+    public boolean hasPendingTasks() {
+        return nbPendingTasks.get() > 0;
+    }
 }
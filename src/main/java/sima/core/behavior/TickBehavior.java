@@ -0,0 +1,110 @@
+package sima.core.behavior;
+
+import sima.core.agent.SimaAgent;
+import sima.core.exception.BehaviorCannotBePlayedByAgentException;
+import sima.core.simulation.SimaSimulation;
+
+import java.util.Map;
+
+/**
+ * A {@link Behavior} which acts every {@link #getTickPeriod()} steps while it is played. The behavior does not schedule anything itself: when it
+ * starts playing, it is registered in the {@link TickEngine} of the scheduler of the simulation, which calls {@link #onTick(long)} on all behaviors
+ * of the same period with one loop.
+ * <p>
+ * The method {@link #onTick(long)} is called with the lock of the agent, as {@link SimaAgent#processEvent(sima.core.environment.event.Event)}. It
+ * can be called on a thread which is not an executor thread of the scheduler, therefore it must not wait on a {@link
+ * sima.core.scheduler.Scheduler.Condition}.
+ */
+public abstract class TickBehavior extends Behavior {
+
+    // Static.
+
+    public static final String TICK_PERIOD_ARGS = "tickPeriod";
+
+    public static final long DEFAULT_TICK_PERIOD = 1L;
+
+    // Variables.
+
+    private final long tickPeriod;
+
+    /**
+     * True while the behavior must be ticked by the {@link TickEngine}. Read by the threads of the tick loop.
+     */
+    volatile boolean ticking;
+
+    /**
+     * The index of the behavior in its group of the {@link TickEngine}, -1 if it is not in a group. Guarded by the lock of the group.
+     */
+    int tickIndex = -1;
+
+    // Constructors.
+
+    /**
+     * @param agent the {@link SimaAgent} which play the {@link Behavior}
+     * @param args  arguments map, can be null
+     *
+     * @throws NullPointerException                   if the {@link SimaAgent} is null
+     * @throws IllegalArgumentException               if the argument {@link #TICK_PERIOD_ARGS} is not a number greater or equal to 1
+     * @throws BehaviorCannotBePlayedByAgentException if the {@link Behavior} cannot be played by the {@link SimaAgent}
+     */
+    protected TickBehavior(SimaAgent agent, Map<String, String> args) throws BehaviorCannotBePlayedByAgentException {
+        super(agent, args);
+        tickPeriod = parseTickPeriod(args != null ? args.get(TICK_PERIOD_ARGS) : null);
+    }
+
+    // Methods.
+
+    private static long parseTickPeriod(String value) {
+        if (value == null)
+            return DEFAULT_TICK_PERIOD;
+
+        try {
+            long parsed = Long.parseLong(value);
+            if (parsed < 1)
+                throw new IllegalArgumentException("The argument " + TICK_PERIOD_ARGS + " must be greater or equal to 1: " + value);
+
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The argument " + TICK_PERIOD_ARGS + " is not a number: " + value, e);
+        }
+    }
+
+    @Override
+    public final void onStartPlaying() {
+        onStartTicking();
+        TickEngine.of(SimaSimulation.getScheduler()).register(this);
+    }
+
+    @Override
+    public final void onStopPlaying() {
+        TickEngine.of(SimaSimulation.getScheduler()).unregister(this);
+        onStopTicking();
+    }
+
+    /**
+     * Called when the behavior starts playing, before its first tick. Does nothing by default.
+     */
+    protected void onStartTicking() {
+        // Nothing.
+    }
+
+    /**
+     * Called when the behavior stops playing, after its last tick. Does nothing by default.
+     */
+    protected void onStopTicking() {
+        // Nothing.
+    }
+
+    /**
+     * Called every {@link #getTickPeriod()} steps while the behavior is played.
+     *
+     * @param time the current time of the simulation
+     */
+    public abstract void onTick(long time);
+
+    // Getters.
+
+    public long getTickPeriod() {
+        return tickPeriod;
+    }
+}
@@ -0,0 +1,258 @@
+package sima.core.behavior;
+
+import sima.core.scheduler.Scheduler;
+import sima.core.scheduler.executor.Executable;
+import sima.core.utils.ParallelRanges;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static sima.core.simulation.SimaSimulation.SimaLog;
+
+/**
+ * Ticks the {@link TickBehavior} which are played. There is one {@link TickEngine} per {@link Scheduler} (see {@link #of(Scheduler)}), it does not
+ * keep the {@link Scheduler} alive.
+ * <p>
+ * The behaviors are grouped by tick period and each group keeps its behaviors in a dense array. A group is one {@link Executable} scheduled one
+ * time per tick, whatever the number of its behaviors, instead of one {@link Executable} per behavior re-inserted in the {@link Scheduler} at each
+ * step. A group with more than {@link #CHUNK_SIZE} behaviors is ticked by chunks in the common {@link ForkJoinPool}. A group without behavior is
+ * not scheduled anymore until a behavior joins it.
+ * <p>
+ * The behaviors which start or stop playing during a tick of their group join or leave the array after the tick. A behavior which stops playing is
+ * not ticked anymore, even in the current tick if it has not been reached yet.
+ */
+public final class TickEngine {
+
+    // Static.
+
+    /**
+     * The number of behaviors ticked sequentially by one task.
+     */
+    static final int CHUNK_SIZE = 256;
+
+    /**
+     * The engine of each scheduler. The engine only keeps a weak reference to its scheduler, otherwise the value would keep its key alive and the
+     * entry would never be removed.
+     */
+    private static final Map<Scheduler, TickEngine> ENGINES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Variables.
+
+    private final WeakReference<Scheduler> scheduler;
+
+    private final Map<Long, TickGroup> groups;
+
+    // Constructors.
+
+    private TickEngine(Scheduler scheduler) {
+        this.scheduler = new WeakReference<>(scheduler);
+        groups = new HashMap<>();
+    }
+
+    // Methods.
+
+    /**
+     * @param scheduler the scheduler
+     *
+     * @return the {@link TickEngine} of the scheduler, created if it does not exist yet.
+     *
+     * @throws IllegalArgumentException if the scheduler is null
+     */
+    public static TickEngine of(Scheduler scheduler) {
+        scheduler = Optional.ofNullable(scheduler).orElseThrow(() -> new IllegalArgumentException("The scheduler cannot be null"));
+        return ENGINES.computeIfAbsent(scheduler, TickEngine::new);
+    }
+
+    void register(TickBehavior behavior) {
+        groupOf(behavior.getTickPeriod()).add(behavior);
+    }
+
+    void unregister(TickBehavior behavior) {
+        groupOf(behavior.getTickPeriod()).remove(behavior);
+    }
+
+    private synchronized TickGroup groupOf(long tickPeriod) {
+        return groups.computeIfAbsent(tickPeriod, TickGroup::new);
+    }
+
+    /**
+     * Schedules the {@link Executable} in the scheduler of the engine, does nothing if the scheduler has been garbage collected.
+     */
+    private void schedule(Executable executable, long waitingTime) {
+        var currentScheduler = scheduler.get();
+        if (currentScheduler != null)
+            currentScheduler.scheduleExecutableOnce(executable, waitingTime);
+    }
+
+    private static void tick(TickBehavior behavior, long time) {
+        if (!behavior.ticking)
+            return;
+
+        try {
+            synchronized (behavior.getAgent()) {
+                if (behavior.ticking)
+                    behavior.onTick(time);
+            }
+        } catch (RuntimeException e) {
+            SimaLog.error("Fail to tick " + behavior, e);
+        }
+    }
+
+    // Getters.
+
+    /**
+     * @return the number of behaviors which are ticked, all periods included.
+     */
+    public synchronized int getNbTickingBehaviors() {
+        int nbBehaviors = 0;
+        for (TickGroup group : groups.values())
+            nbBehaviors += group.size();
+        return nbBehaviors;
+    }
+
+    /**
+     * @param tickPeriod the tick period
+     *
+     * @return true if the group of the tick period is scheduled, else false.
+     */
+    public synchronized boolean isScheduled(long tickPeriod) {
+        var group = groups.get(tickPeriod);
+        return group != null && group.isScheduled();
+    }
+
+    // Inner classes.
+
+    /**
+     * The behaviors of one tick period.
+     */
+    private class TickGroup implements Executable {
+
+        // Variables.
+
+        private final long tickPeriod;
+
+        private TickBehavior[] behaviors;
+
+        private int size;
+
+        private boolean scheduled;
+
+        /**
+         * True while the behaviors of the group are ticked, the array must not be modified.
+         */
+        private boolean inTick;
+
+        /**
+         * The behaviors which have started or stopped playing during the current tick.
+         */
+        private final List<TickBehavior> pendingBehaviors;
+
+        // Constructors.
+
+        private TickGroup(long tickPeriod) {
+            this.tickPeriod = tickPeriod;
+            behaviors = new TickBehavior[16];
+            size = 0;
+            pendingBehaviors = new ArrayList<>();
+        }
+
+        // Methods.
+
+        private synchronized void add(TickBehavior behavior) {
+            behavior.ticking = true;
+            if (inTick)
+                pendingBehaviors.add(behavior);
+            else
+                insert(behavior);
+
+            if (!scheduled) {
+                scheduled = true;
+                schedule(this, Scheduler.NOW);
+            }
+        }
+
+        private synchronized void remove(TickBehavior behavior) {
+            behavior.ticking = false;
+            if (inTick)
+                pendingBehaviors.add(behavior);
+            else
+                delete(behavior);
+        }
+
+        private void insert(TickBehavior behavior) {
+            if (behavior.tickIndex >= 0)
+                return;
+
+            if (size == behaviors.length)
+                behaviors = Arrays.copyOf(behaviors, size << 1);
+            behavior.tickIndex = size;
+            behaviors[size++] = behavior;
+        }
+
+        /**
+         * Replaces the behavior by the last behavior of the array.
+         */
+        private void delete(TickBehavior behavior) {
+            int index = behavior.tickIndex;
+            if (index < 0)
+                return;
+
+            var last = behaviors[--size];
+            behaviors[index] = last;
+            last.tickIndex = index;
+            behaviors[size] = null;
+            behavior.tickIndex = -1;
+        }
+
+        @Override
+        public void execute() {
+            TickBehavior[] toTick;
+            int nbToTick;
+            synchronized (this) {
+                if (size == 0) {
+                    scheduled = false;
+                    return;
+                }
+
+                inTick = true;
+                toTick = behaviors;
+                nbToTick = size;
+            }
+
+            try {
+                // The scheduler which executes the group is alive.
+                long time = Objects.requireNonNull(scheduler.get()).getCurrentTime();
+                ParallelRanges.forEachRange(ForkJoinPool.commonPool(), 0, nbToTick, CHUNK_SIZE, (from, to) -> {
+                    for (int i = from; i < to; i++)
+                        tick(toTick[i], time);
+                });
+            } finally {
+                endTick();
+            }
+        }
+
+        private synchronized void endTick() {
+            inTick = false;
+            for (TickBehavior behavior : pendingBehaviors)
+                if (behavior.ticking)
+                    insert(behavior);
+                else
+                    delete(behavior);
+            pendingBehaviors.clear();
+
+            if (size > 0)
+                schedule(this, tickPeriod);
+            else
+                scheduled = false;
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized boolean isScheduled() {
+            return scheduled;
+        }
+    }
+}
@@ -10,9 +10,9 @@ import sima.core.exception.KilledAgentException;
 import sima.core.exception.NotEvolvingAgentInEnvironmentException;
 
 import java.util.*;
+import java.util.function.ToLongFunction;
 
-import static sima.core.simulation.SimaSimulation.SimaLog;
-import static sima.core.simulation.SimaSimulation.getAgent;
+import static sima.core.simulation.SimaSimulation.*;
 
 /**
  * Represents an {@code Environment} where {@link SimaAgent} evolves. An {@code Environment} can be the representation of the physic layer of the
@@ -33,9 +33,32 @@ public abstract class Environment implements EventAssignor {
     private final String environmentName;
 
     /**
-     * The set of evolving {@link SimaAgent}.
+     * The evolving {@link SimaAgent} mapped to their index in {@link #evolvingAgentList}.
      */
-    private final Set<AgentIdentifier> evolvingAgents;
+    private final Map<AgentIdentifier, Integer> evolvingAgents;
+
+    /**
+     * The evolving {@link SimaAgent} in an array list to sample random agents in O(1). A leaving agent is replaced by the last agent of the list.
+     */
+    private final List<AgentIdentifier> evolvingAgentList;
+
+    /**
+     * Incremented each time an agent joins or leaves the {@link Environment}. Written only with the lock of the {@link Environment}.
+     */
+    private volatile long membershipVersion;
+
+    /**
+     * An immutable copy of {@link #evolvingAgentList} used to sample agents without the lock of the {@link Environment}. Rebuilt at the first sample
+     * after a change of the membership.
+     */
+    private volatile MembershipSnapshot membershipSnapshot;
+
+    /**
+     * The agent handles of the evolving {@link SimaAgent} which are bound to an agent handle. A set bit always means that the agent is in {@link
+     * #evolvingAgents}, the reverse is not true because an agent can join the {@link Environment} before being registered in the simulation. Missing
+     * bits are set the first time the membership of the agent is verified.
+     */
+    private final BitSet evolvingAgentHandles;
 
     /**
      * The map of {@link PhysicalConnectionLayer}.
@@ -57,7 +80,10 @@ public abstract class Environment implements EventAssignor {
     protected Environment(String environmentName, Map<String, String> args) {
         this.environmentName = Optional.ofNullable(environmentName).orElseThrow(() -> new IllegalArgumentException("The environmentName " +
                                                                                                                            "cannot be null"));
-        evolvingAgents = new HashSet<>();
+        evolvingAgents = new HashMap<>();
+        evolvingAgentList = new ArrayList<>();
+        evolvingAgentHandles = new BitSet();
+        membershipSnapshot = new MembershipSnapshot(new AgentIdentifier[0], 0L);
         physicalConnectionLayers = new HashMap<>();
     }
 
@@ -98,9 +124,15 @@ public abstract class Environment implements EventAssignor {
     public synchronized boolean acceptAgent(AgentIdentifier agentIdentifier) {
         if (agentIdentifier != null && !isEvolving(agentIdentifier) &&
                 agentCanBeAccepted(agentIdentifier)) {
-            boolean added = evolvingAgents.add(agentIdentifier);
+            boolean added = evolvingAgents.putIfAbsent(agentIdentifier, evolvingAgentList.size()) == null;
+            if (added) {
+                evolvingAgentList.add(agentIdentifier);
+                membershipVersion++;
+            }
+            if (added && agentIdentifier.hasAgentHandle())
+                evolvingAgentHandles.set(agentIdentifier.getAgentHandle());
             if (added)
-                SimaLog.info("Agent with identifier = " + agentIdentifier + " JOIN " + this);
+                SimaLog.info("Agent with identifier = %s JOIN %s", agentIdentifier, this);
 
             return added;
         } else {
@@ -132,7 +164,9 @@ public abstract class Environment implements EventAssignor {
     public synchronized void leave(AgentIdentifier leavingAgentIdentifier) {
         if (isEvolving(leavingAgentIdentifier)) {
             agentIsLeaving(leavingAgentIdentifier);
-            evolvingAgents.remove(leavingAgentIdentifier);
+            removeEvolvingAgent(leavingAgentIdentifier);
+            if (leavingAgentIdentifier.hasAgentHandle())
+                evolvingAgentHandles.clear(leavingAgentIdentifier.getAgentHandle());
         }
     }
 
@@ -156,7 +190,56 @@ public abstract class Environment implements EventAssignor {
      * @see #getEvolvingAgentIdentifiers()
      */
     public synchronized boolean isEvolving(AgentIdentifier agent) {
-        return agent != null && evolvingAgents.contains(agent);
+        if (agent == null)
+            return false;
+
+        if (agent.hasAgentHandle()) {
+            if (evolvingAgentHandles.get(agent.getAgentHandle()))
+                return true;
+
+            if (evolvingAgents.containsKey(agent)) {
+                evolvingAgentHandles.set(agent.getAgentHandle());
+                return true;
+            } else
+                return false;
+        }
+
+        return evolvingAgents.containsKey(agent);
+    }
+
+    /**
+     * Verifies if the agent which has the specified agent handle is evolving in the {@link Environment}.
+     * <p>
+     * If the agent handle is not already known by the {@code Environment}, the agent is searched in the {@link sima.core.simulation.SimaSimulation},
+     * therefore this method must be called during a running simulation.
+     *
+     * @param agentHandle the agent handle of the agent to verify
+     *
+     * @return true if the agent is evolving in the {@code Environment}, else false.
+     *
+     * @see AgentIdentifier#getAgentHandle()
+     */
+    public synchronized boolean isEvolving(int agentHandle) {
+        if (agentHandle < 0)
+            return false;
+
+        if (evolvingAgentHandles.get(agentHandle))
+            return true;
+
+        SimaAgent agent = getAgentByHandle(agentHandle);
+        return agent != null && isEvolving(agent.getAgentIdentifier());
+    }
+
+    /**
+     * Binds all evolving agents which have been registered in the simulation after having joined the {@link Environment} to their agent handle. After
+     * this call, {@link #isEvolving(int)} never has to search the agent in the simulation for these agents.
+     * <p>
+     * This method is called by the {@link sima.core.simulation.SimaSimulation} during its bootstrap, after the registration of all agents.
+     */
+    public synchronized void bindAgentHandles() {
+        for (AgentIdentifier agentIdentifier : evolvingAgentList)
+            if (agentIdentifier.hasAgentHandle())
+                evolvingAgentHandles.set(agentIdentifier.getAgentHandle());
     }
 
     /**
@@ -164,7 +247,110 @@ public abstract class Environment implements EventAssignor {
      * empty list but never null.
      */
     public synchronized List<AgentIdentifier> getEvolvingAgentIdentifiers() {
-        return evolvingAgents.stream().collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        return new ArrayList<>(evolvingAgentList);
+    }
+
+    /**
+     * @return the number of agents evolving in the {@link Environment}.
+     */
+    public synchronized int getNbEvolvingAgents() {
+        return evolvingAgentList.size();
+    }
+
+    /**
+     * @return a number which changes each time an agent joins or leaves the {@link Environment}. Used to know if a structure built over the
+     * membership must be rebuilt.
+     */
+    public long getMembershipVersion() {
+        return membershipVersion;
+    }
+
+    /**
+     * Samples distinct evolving agents uniformly at random. The agents are sampled from an immutable snapshot of the membership, therefore this
+     * method does not take the lock of the {@link Environment}: the lock is only taken to build the snapshot at the first sample after a change of
+     * the membership. The sample can miss the changes done concurrently.
+     * <p>
+     * If there are less evolving agents than nbAgents (the excluded agent apart), returns all of them. The cost is O(nbAgents) in average when
+     * nbAgents is small in front of the number of evolving agents, which is the case for the peer sampling of gossip protocols.
+     *
+     * @param nbAgents the number of agents to sample
+     * @param excluded an agent which must not be sampled, can be null
+     * @param random   the random stream to use
+     *
+     * @return a list of at most nbAgents distinct evolving agents which does not contain the excluded agent.
+     *
+     * @throws IllegalArgumentException if nbAgents is negative or if random is null
+     */
+    public List<AgentIdentifier> sampleEvolvingAgents(int nbAgents, AgentIdentifier excluded, SplittableRandom random) {
+        if (nbAgents < 0)
+            throw new IllegalArgumentException("The nbAgents cannot be negative");
+        random = Optional.ofNullable(random).orElseThrow(() -> new IllegalArgumentException("The random cannot be null"));
+
+        var agents = currentMembershipSnapshot().agents();
+        int size = agents.length;
+        // Without searching the excluded agent, the number of candidates is at least minCandidates.
+        int minCandidates = excluded != null ? size - 1 : size;
+        if (nbAgents >= minCandidates || 2 * nbAgents > minCandidates)
+            return sampleByShuffle(agents, nbAgents, excluded, random);
+
+        // Rejection sampling, at least half of the candidates are never chosen, therefore less than 2 draws per agent in average.
+        Set<Integer> chosenIndexes = new HashSet<>();
+        List<AgentIdentifier> sample = new ArrayList<>(nbAgents);
+        while (sample.size() < nbAgents) {
+            int index = random.nextInt(size);
+            if (!agents[index].equals(excluded) && chosenIndexes.add(index))
+                sample.add(agents[index]);
+        }
+        return sample;
+    }
+
+    /**
+     * @return the snapshot of the current membership, built if the membership has changed since the last snapshot.
+     */
+    private MembershipSnapshot currentMembershipSnapshot() {
+        var snapshot = membershipSnapshot;
+        if (snapshot.version() == membershipVersion)
+            return snapshot;
+
+        synchronized (this) {
+            snapshot = membershipSnapshot;
+            if (snapshot.version() != membershipVersion) {
+                snapshot = new MembershipSnapshot(evolvingAgentList.toArray(new AgentIdentifier[0]), membershipVersion);
+                membershipSnapshot = snapshot;
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Partial Fisher-Yates shuffle of the candidates, O(number of evolving agents). Returns all candidates if there are not more than nbAgents.
+     */
+    private static List<AgentIdentifier> sampleByShuffle(AgentIdentifier[] agents, int nbAgents, AgentIdentifier excluded,
+                                                         SplittableRandom random) {
+        List<AgentIdentifier> candidates = new ArrayList<>(agents.length);
+        for (AgentIdentifier agent : agents)
+            if (!agent.equals(excluded))
+                candidates.add(agent);
+
+        if (nbAgents >= candidates.size())
+            return candidates;
+
+        for (int i = 0; i < nbAgents; i++)
+            Collections.swap(candidates, i, i + random.nextInt(candidates.size() - i));
+
+        return new ArrayList<>(candidates.subList(0, nbAgents));
+    }
+
+    private void removeEvolvingAgent(AgentIdentifier agentIdentifier) {
+        Integer index = evolvingAgents.remove(agentIdentifier);
+        if (index != null) {
+            membershipVersion++;
+            var last = evolvingAgentList.remove(evolvingAgentList.size() - 1);
+            if (index < evolvingAgentList.size()) {
+                evolvingAgentList.set(index, last);
+                evolvingAgents.put(last, index);
+            }
+        }
     }
 
     /**
@@ -196,6 +382,55 @@ public abstract class Environment implements EventAssignor {
                     "The initiator " + initiator + " or the target " + target + " is not evolving in the environment" + this);
     }
 
+    /**
+     * Same as {@link #assignEventOn(AgentIdentifier, AgentIdentifier, Event, long)} but for several targets. The {@link Environment} is locked only
+     * one time and the initiator is verified only one time. Targets bound to an agent handle are scheduled with {@link #scheduleEventProcess(int,
+     * Event, long)}.
+     * <p>
+     * Each target is verified independently: a target which is not evolving in the {@link Environment} is skipped and the other targets are still
+     * scheduled. All targets receive the same event instance.
+     *
+     * @param initiator     the agent which initiate the event
+     * @param targets       the agents targeted
+     * @param event         the event to process
+     * @param delayOfTarget gives the delay of a target, called one time per scheduled target with this target
+     *
+     * @return the number of scheduled targets.
+     *
+     * @throws NotEvolvingAgentInEnvironmentException if the initiator is not evolving in the {@link Environment}.
+     * @throws IllegalArgumentException               if the initiator, targets, one target, the event or the delayOfTarget is null
+     */
+    public synchronized int assignEventOn(AgentIdentifier initiator, Collection<AgentIdentifier> targets, Event event,
+                                          ToLongFunction<AgentIdentifier> delayOfTarget) {
+        initiator = Optional.ofNullable(initiator).orElseThrow(() -> new IllegalArgumentException("Initiator must be not null"));
+        targets = Optional.ofNullable(targets).orElseThrow(() -> new IllegalArgumentException("Targets must be not null"));
+        event = Optional.ofNullable(event).orElseThrow(() -> new IllegalArgumentException("Event must be not null"));
+        delayOfTarget = Optional.ofNullable(delayOfTarget).orElseThrow(() -> new IllegalArgumentException("DelayOfTarget must be not null"));
+
+        if (!isEvolving(initiator))
+            throw new NotEvolvingAgentInEnvironmentException("The initiator " + initiator + " is not evolving in the environment" + this);
+
+        for (AgentIdentifier target : targets)
+            if (target == null)
+                throw new IllegalArgumentException("Target must be not null");
+
+        if (getAgent(initiator).isKilled())
+            throw new KilledAgentException("A killed agent cannot initiates " + Event.class);
+
+        int nbScheduled = 0;
+        for (AgentIdentifier target : targets) {
+            if (!isEvolving(target))
+                continue;
+
+            if (target.hasAgentHandle())
+                scheduleEventProcess(target.getAgentHandle(), event, delayOfTarget.applyAsLong(target));
+            else
+                scheduleEventProcess(target, event, delayOfTarget.applyAsLong(target));
+            nbScheduled++;
+        }
+        return nbScheduled;
+    }
+
     /**
      * Schedules the moment when the {@link SimaAgent} receiver will receive the event. In other words, schedules the moment when the {@link
      * SimaAgent} receiver will call the method {@link SimaAgent#processEvent(Event)}.
@@ -208,6 +443,51 @@ public abstract class Environment implements EventAssignor {
      */
     protected abstract void scheduleEventProcess(AgentIdentifier receiver, Event event, long delay);
 
+    /**
+     * Same as {@link #assignEventOn(AgentIdentifier, AgentIdentifier, Event, long)} but with the agent handles of the initiator and the target. The
+     * agents are never searched with their {@link AgentIdentifier}.
+     * <p>
+     * This method must be called during a running simulation.
+     *
+     * @param initiatorHandle the agent handle of the agent which initiate the event
+     * @param targetHandle    the agent handle of the agent targeted
+     * @param event           the event to process
+     * @param delay           the delay to wait before call the method processEvent
+     *
+     * @throws NotEvolvingAgentInEnvironmentException if the sender and/or the receiver agent are not evolving in the {@link Environment}.
+     * @throws IllegalArgumentException               if the event is null
+     * @see AgentIdentifier#getAgentHandle()
+     */
+    public synchronized void assignEventOn(int initiatorHandle, int targetHandle, Event event, long delay) {
+        event = Optional.ofNullable(event).orElseThrow(() -> new IllegalArgumentException("Event must be not null"));
+
+        if (isEvolving(initiatorHandle) && isEvolving(targetHandle)) {
+            if (getAgentByHandle(initiatorHandle).isKilled())
+                throw new KilledAgentException("A killed agent cannot initiates " + Event.class);
+
+            scheduleEventProcess(targetHandle, event, delay);
+        } else
+            throw new NotEvolvingAgentInEnvironmentException(
+                    "The initiator handle " + initiatorHandle + " or the target handle " + targetHandle + " is not evolving in the environment" +
+                            this);
+    }
+
+    /**
+     * Same as {@link #scheduleEventProcess(AgentIdentifier, Event, long)} but with the agent handle of the receiver.
+     * <p>
+     * The default implementation searches the {@link AgentIdentifier} of the receiver and calls {@link #scheduleEventProcess(AgentIdentifier, Event,
+     * long)}. Inherited classes can override this method to directly use the agent handle.
+     *
+     * @param receiverHandle the agent handle of the {@link SimaAgent} receiver
+     * @param event          the event to send to the receiver
+     * @param delay          the delay before the method processEvent is called
+     *
+     * @throws IllegalArgumentException if the delay is less than {@link sima.core.scheduler.Scheduler#NOW}
+     */
+    protected void scheduleEventProcess(int receiverHandle, Event event, long delay) {
+        scheduleEventProcess(getAgentByHandle(receiverHandle).getAgentIdentifier(), event, delay);
+    }
+
     /**
      * Try to map the specified {@link PhysicalConnectionLayer} with the specified name. If there is already a {@link PhysicalConnectionLayer} mapped
      * with the specified name, do nothing and returns false.
@@ -244,4 +524,13 @@ public abstract class Environment implements EventAssignor {
     public String getEnvironmentName() {
         return environmentName;
     }
-}
\ No newline at end of file
+
+    // Inner classes.
+
+    /**
+     * @param agents  the evolving agents
+     * @param version the {@link #membershipVersion} of the agents
+     */
+    private record MembershipSnapshot(AgentIdentifier[] agents, long version) {
+    }
+}
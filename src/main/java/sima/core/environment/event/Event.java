@@ -5,6 +5,8 @@ import sima.core.utils.Box;
 import sima.core.utils.Duplicable;
 
 import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.Objects;
 
 /**
@@ -18,9 +20,23 @@ import java.util.Objects;
  * <p>
  * An Event is {@link Serializable}. Therefore, all subclasses must have attribute {@link Serializable} attributes or using the key word
  * <i>transient</i>.
+ * <p>
+ * An {@link Event} which implements {@link ImmutableEvent} is shared without copy, its method {@link #duplicate()} returns itself.
  */
 public abstract class Event implements Serializable, Duplicable<Event>, Box<Event> {
 
+    // Static.
+
+    /**
+     * The result of the verification of each {@link ImmutableEvent} class, computed one time per class.
+     */
+    private static final ClassValue<Boolean> VERIFIED_IMMUTABLE_CLASSES = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return ImmutableEvent.class.isAssignableFrom(type) && verifyFinalFields(type);
+        }
+    };
+
     // Variables.
 
     private final Event content;
@@ -36,6 +52,33 @@ public abstract class Event implements Serializable, Duplicable<Event>, Box<Even
 
     // Methods.
 
+    /**
+     * Verifies if the event can be shared without copy. The class of the event is verified at its first check: if it implements {@link
+     * ImmutableEvent}, all its fields and the fields of its super classes must be final or transient.
+     *
+     * @param event the event, can be null
+     *
+     * @return true if the event is not null and implements {@link ImmutableEvent}, else false.
+     *
+     * @throws IllegalStateException if the class of the event implements {@link ImmutableEvent} but has a field which is not final
+     */
+    public static boolean isImmutable(Event event) {
+        return event != null && VERIFIED_IMMUTABLE_CLASSES.get(event.getClass());
+    }
+
+    private static boolean verifyFinalFields(Class<?> type) {
+        for (Class<?> ite = type; ite != null && ite != Object.class; ite = ite.getSuperclass())
+            for (Field field : ite.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !Modifier.isTransient(modifiers))
+                    throw new IllegalStateException(
+                            type + " is an " + ImmutableEvent.class.getSimpleName() + " but its field " + ite.getSimpleName() + "." + field.getName() +
+                                    " is not final");
+            }
+
+        return true;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
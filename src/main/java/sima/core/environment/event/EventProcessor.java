@@ -1,5 +1,7 @@
 package sima.core.environment.event;
 
+import java.util.List;
+
 /**
  * Interface which allow processing of {@link Event}.
  */
@@ -12,4 +14,17 @@ public interface EventProcessor {
      */
     void processEvent(Event event);
     
+    /**
+     * Method called when several {@link Event} occurred at the same time. It allows to treat the whole batch at once, for example to deduplicate or
+     * aggregate events.
+     * <p>
+     * The default implementation calls {@link #processEvent(Event)} for each event in the order of the list.
+     *
+     * @param events the occurred events
+     */
+    default void processEvents(List<Event> events) {
+        for (Event event : events)
+            processEvent(event);
+    }
+    
 }
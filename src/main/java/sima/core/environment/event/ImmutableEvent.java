@@ -0,0 +1,15 @@
+package sima.core.environment.event;
+
+/**
+ * Marks an {@link Event} which can never be modified after its construction, content included. An immutable event can be shared by any number of
+ * receivers without copy, therefore its method {@link Event#duplicate()} must return the event itself.
+ * <p>
+ * The fields of the class and of its super classes must be final, only transient fields like caches can be modified. The class is verified at its
+ * first check by {@link Event#isImmutable(Event)}. The values of the final fields must also be immutable, this cannot be verified and stays the
+ * responsibility of the class.
+ * <p>
+ * The {@link Event} which only contains other events, like {@link sima.standard.environment.message.Message}, are not marked but their method
+ * {@link Event#duplicate()} shares their content if it is immutable and returns the event itself.
+ */
+public interface ImmutableEvent {
+}
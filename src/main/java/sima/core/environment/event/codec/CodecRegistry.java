@@ -0,0 +1,445 @@
+package sima.core.environment.event.codec;
+
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.event.Event;
+import sima.core.exception.EventCodecException;
+import sima.core.protocol.Protocol;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.core.simulation.AgentManager;
+
+import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+import static sima.core.environment.event.codec.Codecs.*;
+
+/**
+ * Encodes and decodes {@link Event} in a compact binary form with the {@link EventCodec} registered for their class.
+ * <p>
+ * An event is written as the type id of its class followed by the fields written by its codec. The type ids are dense and allocated in the order
+ * of the registrations, therefore two registries can exchange events only if they have registered the same classes in the same order. An event
+ * whose class has no codec is written with Java serialization, therefore all events can be encoded but only the registered ones are compact.
+ * <p>
+ * In the same way, the {@link AgentIdentifier} and the {@link ProtocolIdentifier} registered with {@link #registerAgent(AgentIdentifier)} and
+ * {@link #registerProtocol(ProtocolIdentifier)} are written as dense ids, the other ones are written with all their fields. A registry created
+ * with {@link #CodecRegistry(AgentManager)} is only for the events which stay in the process of this {@link AgentManager}: it also writes an
+ * {@link AgentIdentifier} bound to an agent handle as its agent handle and its unique id, and reads it back as the identifier of the agent which
+ * has this handle in the {@link AgentManager}. The events encoded by it cannot be decoded in another process or after the end of the simulation.
+ * <p>
+ * The registrations must be done before encoding or decoding events, they are not thread safe. After them, encoding and decoding are thread
+ * safe.
+ */
+public final class CodecRegistry {
+    
+    // Static.
+    
+    /**
+     * The type id of a null event.
+     */
+    public static final int NULL_TYPE_ID = 0;
+    
+    /**
+     * The type id of an event whose class has no codec, it is written with Java serialization.
+     */
+    public static final int SERIALIZED_TYPE_ID = 1;
+    
+    private static final int FIRST_TYPE_ID = 2;
+    
+    /**
+     * An identifier reference is 0 for null, 1 for an identifier written with all its fields, 2 for an agent identifier written as its agent
+     * handle, or the dense id of a registered identifier plus 3.
+     */
+    private static final int NULL_REFERENCE = 0;
+    private static final int INLINE_REFERENCE = 1;
+    private static final int HANDLE_REFERENCE = 2;
+    private static final int FIRST_REFERENCE = 3;
+    
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    
+    /**
+     * The buffer of each thread used by {@link #encode(Event)}, enlarged when an event does not fit in it.
+     */
+    private static final ThreadLocal<ByteBuffer> ENCODE_BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_BUFFER_SIZE));
+    
+    // Variables.
+    
+    private final Map<Class<? extends Event>, Registration<?>> registrationsByClass;
+    
+    private final List<Registration<?>> registrationsById;
+    
+    private final Map<AgentIdentifier, Integer> agentIds;
+    
+    private final List<AgentIdentifier> agents;
+    
+    private final Map<ProtocolIdentifier, Integer> protocolIds;
+    
+    private final List<ProtocolIdentifier> protocols;
+    
+    /**
+     * The protocol classes of the inline {@link ProtocolIdentifier} already read, to look up a class name only one time.
+     */
+    private final Map<String, Class<? extends Protocol>> protocolClasses;
+    
+    /**
+     * Finds the agent of an agent handle read by {@link #readAgentIdentifier(ByteBuffer)}, null if the agent identifiers are not written as
+     * their agent handle.
+     */
+    private final IntFunction<SimaAgent> agentByHandle;
+    
+    // Constructors.
+    
+    /**
+     * Creates a registry whose encoded events can be decoded by another registry with the same registrations, in any process.
+     */
+    public CodecRegistry() {
+        this((IntFunction<SimaAgent>) null);
+    }
+    
+    /**
+     * Creates a registry which writes the agent identifiers bound to an agent handle as their agent handle. The events encoded by it can only be
+     * decoded in the same process while the agents are in the agentManager.
+     *
+     * @param agentManager the {@link AgentManager} where the agents of the agent handles are found
+     *
+     * @throws IllegalArgumentException if the agentManager is null
+     */
+    public CodecRegistry(AgentManager agentManager) {
+        this(Optional.ofNullable(agentManager).orElseThrow(() -> new IllegalArgumentException("The agentManager cannot be null"))::getAgentByHandle);
+    }
+    
+    private CodecRegistry(IntFunction<SimaAgent> agentByHandle) {
+        this.agentByHandle = agentByHandle;
+        registrationsByClass = new HashMap<>();
+        registrationsById = new ArrayList<>();
+        agentIds = new HashMap<>();
+        agents = new ArrayList<>();
+        protocolIds = new HashMap<>();
+        protocols = new ArrayList<>();
+        protocolClasses = new ConcurrentHashMap<>();
+    }
+    
+    // Methods.
+    
+    /**
+     * Registers the codec of an {@link Event} class. The codec is used only for the events of this exact class, not for its subclasses.
+     *
+     * @param eventClass the event class
+     * @param codec      the codec of the class
+     * @param <E>        the type of the event
+     *
+     * @return the type id of the class.
+     *
+     * @throws IllegalArgumentException if eventClass or codec is null or if the class already has a codec
+     */
+    public <E extends Event> int register(Class<E> eventClass, EventCodec<E> codec) {
+        eventClass = Optional.ofNullable(eventClass).orElseThrow(() -> new IllegalArgumentException("The event class cannot be null"));
+        codec = Optional.ofNullable(codec).orElseThrow(() -> new IllegalArgumentException("The codec cannot be null"));
+        if (registrationsByClass.containsKey(eventClass))
+            throw new IllegalArgumentException("The class " + eventClass + " already has a codec");
+        
+        var registration = new Registration<>(FIRST_TYPE_ID + registrationsById.size(), codec);
+        registrationsByClass.put(eventClass, registration);
+        registrationsById.add(registration);
+        return registration.typeId();
+    }
+    
+    /**
+     * @param agent the agent identifier
+     *
+     * @return the dense id of the agent, the same id if the agent is already registered.
+     *
+     * @throws IllegalArgumentException if the agent is null
+     */
+    public int registerAgent(AgentIdentifier agent) {
+        agent = Optional.ofNullable(agent).orElseThrow(() -> new IllegalArgumentException("The agent cannot be null"));
+        return register(agent, agentIds, agents);
+    }
+    
+    /**
+     * @param protocol the protocol identifier
+     *
+     * @return the dense id of the protocol, the same id if the protocol is already registered.
+     *
+     * @throws IllegalArgumentException if the protocol is null
+     */
+    public int registerProtocol(ProtocolIdentifier protocol) {
+        protocol = Optional.ofNullable(protocol).orElseThrow(() -> new IllegalArgumentException("The protocol cannot be null"));
+        return register(protocol, protocolIds, protocols);
+    }
+    
+    private static <T> int register(T value, Map<T, Integer> ids, List<T> values) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+    
+    /**
+     * Writes the event with the codec of its class, or with Java serialization if its class has no codec.
+     *
+     * @param event  the event, can be null
+     * @param buffer the buffer
+     *
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     * @throws EventCodecException              if the event has no codec and cannot be serialized
+     */
+    public void writeEvent(Event event, ByteBuffer buffer) {
+        if (event == null) {
+            writeVarInt(buffer, NULL_TYPE_ID);
+            return;
+        }
+        
+        var registration = registrationsByClass.get(event.getClass());
+        if (registration != null) {
+            writeVarInt(buffer, registration.typeId());
+            registration.encode(event, buffer, this);
+        } else {
+            byte[] bytes = serialize(event);
+            writeVarInt(buffer, SERIALIZED_TYPE_ID);
+            writeVarInt(buffer, bytes.length);
+            buffer.put(bytes);
+        }
+    }
+    
+    /**
+     * @param buffer the buffer
+     *
+     * @return the event written by {@link #writeEvent(Event, ByteBuffer)}, can be null.
+     *
+     * @throws java.nio.BufferUnderflowException if the buffer does not contain the whole event
+     * @throws EventCodecException               if the type id is not known or the serialized event cannot be read
+     */
+    public Event readEvent(ByteBuffer buffer) {
+        int typeId = readVarInt(buffer);
+        if (typeId == NULL_TYPE_ID)
+            return null;
+        
+        if (typeId == SERIALIZED_TYPE_ID) {
+            byte[] bytes = new byte[readVarInt(buffer)];
+            buffer.get(bytes);
+            return deserialize(bytes);
+        }
+        
+        int index = typeId - FIRST_TYPE_ID;
+        if (index < 0 || index >= registrationsById.size())
+            throw new EventCodecException("Unknown type id " + typeId);
+        
+        return registrationsById.get(index).codec().decode(buffer, this);
+    }
+    
+    /**
+     * Encodes the event in a new array which has the exact size of the encoded event. The event is first written in a buffer reused by the thread.
+     *
+     * @param event the event, can be null
+     *
+     * @return the encoded event.
+     *
+     * @throws EventCodecException if the event has no codec and cannot be serialized
+     */
+    public byte[] encode(Event event) {
+        var buffer = ENCODE_BUFFERS.get();
+        while (true) {
+            buffer.clear();
+            try {
+                writeEvent(event, buffer);
+                return Arrays.copyOf(buffer.array(), buffer.position());
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() << 1);
+                ENCODE_BUFFERS.set(buffer);
+            }
+        }
+    }
+    
+    /**
+     * @param bytes the bytes returned by {@link #encode(Event)}
+     *
+     * @return the decoded event, can be null.
+     *
+     * @throws IllegalArgumentException if bytes is null
+     * @throws EventCodecException      if the bytes are not a whole encoded event
+     */
+    public Event decode(byte[] bytes) {
+        if (bytes == null)
+            throw new IllegalArgumentException("The bytes cannot be null");
+        
+        var buffer = ByteBuffer.wrap(bytes);
+        try {
+            var event = readEvent(buffer);
+            if (buffer.hasRemaining())
+                throw new EventCodecException(buffer.remaining() + " bytes remain after the event");
+            
+            return event;
+        } catch (BufferUnderflowException e) {
+            throw new EventCodecException("The bytes do not contain a whole event", e);
+        }
+    }
+    
+    /**
+     * @param agent  the agent identifier, can be null
+     * @param buffer the buffer
+     */
+    public void writeAgentIdentifier(AgentIdentifier agent, ByteBuffer buffer) {
+        if (agent == null) {
+            writeVarInt(buffer, NULL_REFERENCE);
+            return;
+        }
+        
+        Integer id = agentIds.get(agent);
+        if (id != null)
+            writeVarInt(buffer, FIRST_REFERENCE + id);
+        else if (agentByHandle != null && agent.hasAgentHandle()) {
+            writeVarInt(buffer, HANDLE_REFERENCE);
+            writeVarInt(buffer, agent.getAgentHandle());
+            writeVarInt(buffer, agent.getAgentUniqueId());
+        } else {
+            writeVarInt(buffer, INLINE_REFERENCE);
+            writeString(buffer, agent.getAgentName());
+            writeVarInt(buffer, agent.getAgentSequenceId());
+            writeVarInt(buffer, agent.getAgentUniqueId());
+        }
+    }
+    
+    /**
+     * @param buffer the buffer
+     *
+     * @return the agent identifier written by {@link #writeAgentIdentifier(AgentIdentifier, ByteBuffer)}, can be null.
+     *
+     * @throws EventCodecException if the dense id is not registered, if the agent handle cannot be read by this registry or if the agent handle
+     *                             is not the one of an agent with the written unique id
+     */
+    public AgentIdentifier readAgentIdentifier(ByteBuffer buffer) {
+        int reference = readVarInt(buffer);
+        if (reference == NULL_REFERENCE)
+            return null;
+        if (reference == INLINE_REFERENCE)
+            return new AgentIdentifier(readString(buffer), readVarInt(buffer), readVarInt(buffer));
+        if (reference == HANDLE_REFERENCE)
+            return readAgentHandle(buffer);
+        
+        return resolve(reference, agents, "agent");
+    }
+    
+    private AgentIdentifier readAgentHandle(ByteBuffer buffer) {
+        int agentHandle = readVarInt(buffer);
+        int agentUniqueId = readVarInt(buffer);
+        if (agentByHandle == null)
+            throw new EventCodecException("The agent handle " + agentHandle + " cannot be read without an AgentManager");
+        
+        var agent = agentByHandle.apply(agentHandle);
+        if (agent == null || agent.getAgentIdentifier().getAgentUniqueId() != agentUniqueId)
+            throw new EventCodecException("No agent with the agent handle " + agentHandle + " and the unique id " + agentUniqueId);
+        return agent.getAgentIdentifier();
+    }
+    
+    /**
+     * @param protocol the protocol identifier, can be null
+     * @param buffer   the buffer
+     */
+    public void writeProtocolIdentifier(ProtocolIdentifier protocol, ByteBuffer buffer) {
+        if (protocol == null) {
+            writeVarInt(buffer, NULL_REFERENCE);
+            return;
+        }
+        
+        Integer id = protocolIds.get(protocol);
+        if (id != null)
+            writeVarInt(buffer, FIRST_REFERENCE + id);
+        else {
+            writeVarInt(buffer, INLINE_REFERENCE);
+            writeString(buffer, protocol.protocolClass().getName());
+            writeString(buffer, protocol.protocolTag());
+        }
+    }
+    
+    /**
+     * @param buffer the buffer
+     *
+     * @return the protocol identifier written by {@link #writeProtocolIdentifier(ProtocolIdentifier, ByteBuffer)}, can be null.
+     *
+     * @throws EventCodecException if the dense id is not registered or if the protocol class is not found
+     */
+    public ProtocolIdentifier readProtocolIdentifier(ByteBuffer buffer) {
+        int reference = readVarInt(buffer);
+        if (reference == NULL_REFERENCE)
+            return null;
+        if (reference == INLINE_REFERENCE) {
+            var className = readString(buffer);
+            if (className == null)
+                throw new EventCodecException("The protocol class name cannot be null");
+            
+            var protocolClass = protocolClasses.computeIfAbsent(className, CodecRegistry::findProtocolClass);
+            return new ProtocolIdentifier(protocolClass, readString(buffer));
+        }
+        
+        return resolve(reference, protocols, "protocol");
+    }
+    
+    private static Class<? extends Protocol> findProtocolClass(String className) {
+        try {
+            return Class.forName(className).asSubclass(Protocol.class);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new EventCodecException("Unknown protocol class " + className, e);
+        }
+    }
+    
+    private static <T> T resolve(int reference, List<T> values, String kind) {
+        int id = reference - FIRST_REFERENCE;
+        if (id < 0 || id >= values.size())
+            throw new EventCodecException("Unknown " + kind + " id " + id);
+        return values.get(id);
+    }
+    
+    private static byte[] serialize(Event event) {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(event);
+        } catch (IOException e) {
+            throw new EventCodecException("Cannot serialize " + event, e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static Event deserialize(byte[] bytes) {
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Event) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            throw new EventCodecException("Cannot deserialize an event", e);
+        }
+    }
+    
+    // Getters.
+    
+    /**
+     * @param eventClass the event class
+     *
+     * @return true if the class has a codec, else false.
+     */
+    public boolean hasCodec(Class<? extends Event> eventClass) {
+        return registrationsByClass.containsKey(eventClass);
+    }
+    
+    /**
+     * @return the number of registered codecs.
+     */
+    public int getNbCodecs() {
+        return registrationsById.size();
+    }
+    
+    // Inner classes.
+    
+    private record Registration<E extends Event>(int typeId, EventCodec<E> codec) {
+        
+        @SuppressWarnings("unchecked")
+        void encode(Event event, ByteBuffer buffer, CodecRegistry registry) {
+            codec.encode((E) event, buffer, registry);
+        }
+    }
+}
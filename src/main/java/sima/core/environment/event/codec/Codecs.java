@@ -0,0 +1,139 @@
+package sima.core.environment.event.codec;
+
+import sima.core.exception.EventCodecException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads and writes the primitive values of an {@link EventCodec} in a {@link ByteBuffer}.
+ * <p>
+ * The integers are written as variable length integers: 7 bits per byte, the high bit marks that another byte follows. A small value, like a dense
+ * id, takes one byte. The signed values are zigzag encoded to keep small negative values small.
+ */
+public final class Codecs {
+    
+    // Static.
+    
+    private static final int MAX_VAR_INT_BYTES = 5;
+    
+    private static final int MAX_VAR_LONG_BYTES = 10;
+    
+    // Constructors.
+    
+    private Codecs() {
+        throw new UnsupportedOperationException();
+    }
+    
+    // Methods.
+    
+    /**
+     * @param buffer the buffer
+     * @param value  the value, written as unsigned
+     */
+    public static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    /**
+     * @param buffer the buffer
+     *
+     * @return the value written by {@link #writeVarInt(ByteBuffer, int)}.
+     *
+     * @throws EventCodecException if the value takes more than 5 bytes
+     */
+    public static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int i = 0; i < MAX_VAR_INT_BYTES; i++) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << (7 * i);
+            if (b >= 0)
+                return value;
+        }
+        throw new EventCodecException("Malformed variable length int");
+    }
+    
+    /**
+     * @param buffer the buffer
+     * @param value  the value, written as unsigned
+     */
+    public static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    /**
+     * @param buffer the buffer
+     *
+     * @return the value written by {@link #writeVarLong(ByteBuffer, long)}.
+     *
+     * @throws EventCodecException if the value takes more than 10 bytes
+     */
+    public static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int i = 0; i < MAX_VAR_LONG_BYTES; i++) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << (7 * i);
+            if (b >= 0)
+                return value;
+        }
+        throw new EventCodecException("Malformed variable length long");
+    }
+    
+    /**
+     * @param buffer the buffer
+     * @param value  the signed value, zigzag encoded
+     */
+    public static void writeSignedVarLong(ByteBuffer buffer, long value) {
+        writeVarLong(buffer, (value << 1) ^ (value >> 63));
+    }
+    
+    /**
+     * @param buffer the buffer
+     *
+     * @return the value written by {@link #writeSignedVarLong(ByteBuffer, long)}.
+     */
+    public static long readSignedVarLong(ByteBuffer buffer) {
+        long value = readVarLong(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    /**
+     * Writes the length plus one, 0 for null, and the UTF-8 bytes of the string.
+     *
+     * @param buffer the buffer
+     * @param value  the string, can be null
+     */
+    public static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            writeVarInt(buffer, 0);
+            return;
+        }
+        
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(buffer, bytes.length + 1);
+        buffer.put(bytes);
+    }
+    
+    /**
+     * @param buffer the buffer
+     *
+     * @return the string written by {@link #writeString(ByteBuffer, String)}, can be null.
+     */
+    public static String readString(ByteBuffer buffer) {
+        int length = readVarInt(buffer) - 1;
+        if (length < 0)
+            return null;
+        
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,37 @@
+package sima.core.environment.event.codec;
+
+import sima.core.environment.event.Event;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes one {@link Event} class in a compact binary form, without Java serialization and without reflection.
+ * <p>
+ * The codec writes only the fields of the event. The nested content and the identifiers are written with the methods of the {@link CodecRegistry}
+ * (see {@link CodecRegistry#writeEvent(Event, ByteBuffer)}, {@link CodecRegistry#writeAgentIdentifier(sima.core.agent.AgentIdentifier,
+ * ByteBuffer)} and {@link CodecRegistry#writeProtocolIdentifier(sima.core.protocol.ProtocolIdentifier, ByteBuffer)}) and the primitive values with
+ * {@link Codecs}. The method {@link #decode(ByteBuffer, CodecRegistry)} must read the values in the same order.
+ *
+ * @param <E> the type of the encoded event
+ */
+public interface EventCodec<E extends Event> {
+    
+    /**
+     * @param event    the event to encode, never null
+     * @param buffer   the buffer where the event is written
+     * @param registry the registry which encodes the nested content
+     *
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    void encode(E event, ByteBuffer buffer, CodecRegistry registry);
+    
+    /**
+     * @param buffer   the buffer where the event is read
+     * @param registry the registry which decodes the nested content
+     *
+     * @return the decoded event.
+     *
+     * @throws java.nio.BufferUnderflowException if the buffer does not contain the whole event
+     */
+    E decode(ByteBuffer buffer, CodecRegistry registry);
+}
@@ -0,0 +1,24 @@
+package sima.core.environment.physical;
+
+import sima.core.simulation.SimaSimulationUtils;
+
+/**
+ * Models the delay of a {@link PhysicalEvent} sent from an agent to another by a {@link PhysicalConnectionLayer}.
+ * <p>
+ * The agents are designed by their {@link sima.core.agent.AgentIdentifier#getAgentUniqueId()}, this way a model can be used for direct sends and for
+ * each hop of a routed send. The random draw is given by the caller, it is in general a draw keyed by the send (see {@link SendSequences}),
+ * therefore the sampled delays do not depend on the thread of the send and no random is allocated for a send. Implementations must be thread safe,
+ * must only use the given draw and the draws which follow it (see {@link SimaSimulationUtils#nextDraw(long)}) and should sample a delay in O(1).
+ */
+@FunctionalInterface
+public interface DelayModel {
+
+    /**
+     * @param from   the unique id of the sender
+     * @param to     the unique id of the receiver
+     * @param draw   a uniform random long, the first draw of the stream to use
+     *
+     * @return a delay greater or equal to {@link sima.core.scheduler.Scheduler#NOW}.
+     */
+    long sampleDelay(int from, int to, long draw);
+}
@@ -5,8 +5,14 @@ import sima.core.agent.AgentIdentifier;
 import sima.core.environment.Environment;
 import sima.core.environment.event.Event;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static sima.core.simulation.SimaSimulation.getAgentByHandle;
 
 /**
  * Represent the physical connection layer in an {@link Environment}. An {@link Environment} can have several {@link PhysicalConnectionLayer} to
@@ -16,6 +22,14 @@ import java.util.Optional;
  */
 public abstract class PhysicalConnectionLayer {
 
+    // Static.
+
+    /**
+     * Incremented each time a chain of {@link PhysicalConnectionLayer} is modified with {@link #setNext(PhysicalConnectionLayer)}. Used by {@link
+     * PhysicalConnectionLayerPipeline#isUpToDate()}.
+     */
+    private static final AtomicLong CHAIN_VERSION = new AtomicLong();
+
     // Variables.
 
     private final Environment environment;
@@ -82,6 +96,100 @@ public abstract class PhysicalConnectionLayer {
         // else stop the chain.
     }
 
+    /**
+     * Same as {@link #send(AgentIdentifier, AgentIdentifier, PhysicalEvent)} but the initiator and the target are identified by their agent handles.
+     * The {@link AgentIdentifier} are found with an array access in the {@link sima.core.simulation.AgentManager} of the running simulation and
+     * are bound to their agent handle, therefore the rest of the chain does not need to hash them.
+     *
+     * @param initiatorHandle the agent handle of the initiator of the {@link PhysicalEvent}
+     * @param targetHandle    the agent handle of the target of the {@link PhysicalEvent}
+     * @param physicalEvent   the {@link PhysicalEvent}
+     *
+     * @throws IllegalArgumentException if the initiator or the target is not found or if the physicalEvent is null
+     * @see AgentIdentifier#getAgentHandle()
+     */
+    public void send(int initiatorHandle, int targetHandle, PhysicalEvent physicalEvent) {
+        var initiator = Optional.ofNullable(getAgentByHandle(initiatorHandle))
+                .orElseThrow(() -> new IllegalArgumentException("No initiator found for the agent handle " + initiatorHandle));
+        var target = Optional.ofNullable(getAgentByHandle(targetHandle))
+                .orElseThrow(() -> new IllegalArgumentException("No target found for the agent handle " + targetHandle));
+        send(initiator.getAgentIdentifier(), target.getAgentIdentifier(), physicalEvent);
+    }
+
+    /**
+     * Try to send the {@link PhysicalEvent} from the initiator agent to all the targets.
+     * <p>
+     * Works like {@link #send(AgentIdentifier, AgentIdentifier, PhysicalEvent)} but for a batch of targets: each {@link PhysicalConnectionLayer} of
+     * the chain decorates the {@link PhysicalEvent} only one time for all targets and filters the targets with the method {@link
+     * #filterTargets(AgentIdentifier, List, PhysicalEvent)}. Only targets which pass the filter are given to the next, and the last {@link
+     * PhysicalConnectionLayer} of the chain schedules the {@link PhysicalEvent} for all remaining targets with the method {@link
+     * #scheduleInEnvironment(AgentIdentifier, List, PhysicalEvent)}. All targets receive the same decorated {@link PhysicalEvent} instance.
+     *
+     * <pre>{@code
+     * public void sendMulticast(initiator, targets, physicalEvent) {
+     *      PhysicalEvent decoratedPhysicalEvent = decoratePhysicalEvent(physicalEvent);
+     *      List<AgentIdentifier> reachableTargets = filterTargets(initiator, targets, decoratedPhysicalEvent);
+     *      if (reachableTargets.isEmpty())
+     *          return; // stop the chain.
+     *      if (hasNext())
+     *          next.sendMulticast(initiator, reachableTargets, decoratedPhysicalEvent);
+     *      else
+     *          scheduleInEnvironment(initiator, reachableTargets, decoratedPhysicalEvent);
+     * }
+     * }</pre>
+     *
+     * @param initiator     the initiator of the {@link PhysicalEvent}
+     * @param targets       the targets of the {@link PhysicalEvent}
+     * @param physicalEvent the {@link PhysicalEvent}
+     *
+     * @throws IllegalArgumentException if the initiator, targets, one target or physicalEvent is null
+     */
+    public void sendMulticast(AgentIdentifier initiator, Collection<AgentIdentifier> targets, PhysicalEvent physicalEvent) {
+        initiator = Optional.ofNullable(initiator).orElseThrow(() -> new IllegalArgumentException("The initiator cannot be null"));
+        targets = Optional.ofNullable(targets).orElseThrow(() -> new IllegalArgumentException("The targets cannot be null"));
+        physicalEvent = Optional.ofNullable(physicalEvent).orElseThrow(() -> new IllegalArgumentException("The physicalEvent cannot be null"));
+
+        List<AgentIdentifier> targetList = targets instanceof List<AgentIdentifier> list ? list : new ArrayList<>(targets);
+        for (AgentIdentifier target : targetList)
+            if (target == null)
+                throw new IllegalArgumentException("A target cannot be null");
+
+        if (targetList.isEmpty())
+            return;
+
+        var decoratedPhysicalEvent = decoratePhysicalEvent(physicalEvent);
+        List<AgentIdentifier> reachableTargets = filterTargets(initiator, targetList, decoratedPhysicalEvent);
+        if (reachableTargets.isEmpty())
+            return; // Stop the chain.
+
+        if (hasNext())
+            next.sendMulticast(initiator, reachableTargets, decoratedPhysicalEvent);
+        else
+            scheduleInEnvironment(initiator, reachableTargets, decoratedPhysicalEvent);
+    }
+
+    /**
+     * Filters the targets to which the {@link PhysicalEvent} can be sent. This method is called in {@link #sendMulticast(AgentIdentifier,
+     * Collection, PhysicalEvent)}.
+     * <p>
+     * The default implementation keeps the targets for which {@link #canBeSent(AgentIdentifier, AgentIdentifier, PhysicalEvent)} returns true.
+     * Inherited classes can override this method to filter the whole batch at once.
+     *
+     * @param initiator     the initiator of the {@link PhysicalEvent}
+     * @param targets       the targets of the {@link PhysicalEvent}, never empty
+     * @param physicalEvent the decorated {@link PhysicalEvent}
+     *
+     * @return the list of targets to which the {@link PhysicalEvent} can be sent. Can be the specified list if all targets are kept.
+     */
+    protected @NotNull List<AgentIdentifier> filterTargets(AgentIdentifier initiator, List<AgentIdentifier> targets, PhysicalEvent physicalEvent) {
+        List<AgentIdentifier> reachableTargets = new ArrayList<>(targets.size());
+        for (AgentIdentifier target : targets)
+            if (canBeSent(initiator, target, physicalEvent))
+                reachableTargets.add(target);
+
+        return reachableTargets.size() == targets.size() ? targets : reachableTargets;
+    }
+
     /**
      * Allow the user to decorate the {@link PhysicalEvent} specified in the method {@link #send(AgentIdentifier, AgentIdentifier, PhysicalEvent)}.
      *
@@ -91,6 +199,19 @@ public abstract class PhysicalConnectionLayer {
      */
     protected abstract @NotNull PhysicalEvent decoratePhysicalEvent(PhysicalEvent physicalEvent);
 
+    /**
+     * Declares if the {@link PhysicalConnectionLayer} decorates the {@link PhysicalEvent} in {@link #decoratePhysicalEvent(PhysicalEvent)}. A
+     * {@link PhysicalConnectionLayerPipeline} does not call {@link #decoratePhysicalEvent(PhysicalEvent)} on the stages which return false.
+     * <p>
+     * The default implementation returns true. Inherited classes whose {@link #decoratePhysicalEvent(PhysicalEvent)} always returns the specified
+     * {@link PhysicalEvent} should override this method to return false.
+     *
+     * @return true if the {@link PhysicalConnectionLayer} decorates the {@link PhysicalEvent}, else false.
+     */
+    protected boolean decoratesPhysicalEvent() {
+        return true;
+    }
+
     /**
      * @return true if the {@link PhysicalConnectionLayer} has a next. (if next is not null).
      */
@@ -98,6 +219,15 @@ public abstract class PhysicalConnectionLayer {
         return next != null;
     }
 
+    /**
+     * @return a new {@link PhysicalConnectionLayerPipeline} compiled from the chain which begins with this {@link PhysicalConnectionLayer}.
+     *
+     * @see PhysicalConnectionLayerPipeline#compile(PhysicalConnectionLayer)
+     */
+    public @NotNull PhysicalConnectionLayerPipeline compile() {
+        return PhysicalConnectionLayerPipeline.compile(this);
+    }
+
     /**
      * @param a1 the agent a1
      * @param a2 the agent a2
@@ -131,6 +261,23 @@ public abstract class PhysicalConnectionLayer {
      */
     protected abstract void scheduleInEnvironment(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent);
 
+    /**
+     * Schedule the {@link PhysicalEvent} for all targets. This method is called by the last {@link PhysicalConnectionLayer} of the chain in {@link
+     * #sendMulticast(AgentIdentifier, Collection, PhysicalEvent)}.
+     * <p>
+     * The default implementation calls {@link #scheduleInEnvironment(AgentIdentifier, AgentIdentifier, PhysicalEvent)} for each target. Inherited
+     * classes can override this method to schedule all targets with one call like {@link Environment#assignEventOn(AgentIdentifier, Collection,
+     * Event, java.util.function.ToLongFunction)}.
+     *
+     * @param initiator     the agent which initiates the event
+     * @param targets       the agents which must receive the {@link PhysicalEvent}, never empty
+     * @param physicalEvent the {@link PhysicalEvent}
+     */
+    protected void scheduleInEnvironment(AgentIdentifier initiator, List<AgentIdentifier> targets, PhysicalEvent physicalEvent) {
+        for (AgentIdentifier target : targets)
+            scheduleInEnvironment(initiator, target, physicalEvent);
+    }
+
     // Getters and Setters.
 
     public Environment getEnvironment() {
@@ -143,5 +290,13 @@ public abstract class PhysicalConnectionLayer {
 
     public void setNext(PhysicalConnectionLayer next) {
         this.next = next;
+        CHAIN_VERSION.incrementAndGet();
+    }
+
+    /**
+     * @return the current version of the chains of {@link PhysicalConnectionLayer}, changes each time a chain is modified.
+     */
+    static long getChainVersion() {
+        return CHAIN_VERSION.get();
     }
 }
@@ -0,0 +1,236 @@
+package sima.core.environment.physical;
+
+import org.jetbrains.annotations.NotNull;
+import sima.core.agent.AgentIdentifier;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static sima.core.simulation.SimaSimulation.getAgentByHandle;
+
+/**
+ * A flat and pre-resolved version of a {@link PhysicalConnectionLayer} chain.
+ * <p>
+ * The chain is browsed only one time during the compilation and each {@link PhysicalConnectionLayer} becomes a stage of the pipeline. A send
+ * through the pipeline verifies the arguments only one time at the entry point and then runs all stages in a loop instead of recursing through
+ * {@link PhysicalConnectionLayer#getNext()}. The stages which declare that they do not decorate the {@link PhysicalEvent} (see {@link
+ * PhysicalConnectionLayer#decoratesPhysicalEvent()}) are not asked to decorate it.
+ * <p>
+ * A {@link PhysicalConnectionLayer} which overrides {@link PhysicalConnectionLayer#send(AgentIdentifier, AgentIdentifier, PhysicalEvent)},
+ * {@link PhysicalConnectionLayer#send(int, int, PhysicalEvent)} or {@link PhysicalConnectionLayer#sendMulticast(AgentIdentifier, Collection,
+ * PhysicalEvent)} cannot be flattened: the corresponding send of the pipeline then calls the method of the head of the chain, therefore the
+ * overridden behaviour is never bypassed.
+ * <p>
+ * The pipeline is a snapshot of the chain at the moment of its compilation. If a chain is modified with {@link
+ * PhysicalConnectionLayer#setNext(PhysicalConnectionLayer)} after the compilation, {@link #isUpToDate()} returns false and the pipeline must be
+ * compiled again.
+ */
+public final class PhysicalConnectionLayerPipeline {
+
+    // Variables.
+
+    private final PhysicalConnectionLayer[] stages;
+
+    private final boolean[] decoratingStages;
+
+    private final PhysicalConnectionLayer lastStage;
+
+    private final long chainVersion;
+
+    /**
+     * True if a stage overrides {@link PhysicalConnectionLayer#send(AgentIdentifier, AgentIdentifier, PhysicalEvent)}.
+     */
+    private final boolean overriddenSend;
+
+    /**
+     * True if the head overrides {@link PhysicalConnectionLayer#send(int, int, PhysicalEvent)}.
+     */
+    private final boolean overriddenHandleSend;
+
+    /**
+     * True if a stage overrides {@link PhysicalConnectionLayer#sendMulticast(AgentIdentifier, Collection, PhysicalEvent)}.
+     */
+    private final boolean overriddenSendMulticast;
+
+    // Constructors.
+
+    private PhysicalConnectionLayerPipeline(List<PhysicalConnectionLayer> stages, long chainVersion) {
+        this.stages = stages.toArray(new PhysicalConnectionLayer[0]);
+        this.decoratingStages = new boolean[this.stages.length];
+        boolean send = false;
+        boolean sendMulticast = false;
+        for (int i = 0; i < this.stages.length; i++) {
+            decoratingStages[i] = this.stages[i].decoratesPhysicalEvent();
+            send |= overrides(this.stages[i], "send", AgentIdentifier.class, AgentIdentifier.class, PhysicalEvent.class);
+            sendMulticast |= overrides(this.stages[i], "sendMulticast", AgentIdentifier.class, Collection.class, PhysicalEvent.class);
+        }
+        this.lastStage = this.stages[this.stages.length - 1];
+        this.chainVersion = chainVersion;
+        this.overriddenSend = send;
+        this.overriddenHandleSend = overrides(this.stages[0], "send", int.class, int.class, PhysicalEvent.class);
+        this.overriddenSendMulticast = sendMulticast;
+    }
+
+    // Methods.
+
+    /**
+     * Compiles the {@link PhysicalConnectionLayer} chain which begins with the specified head.
+     *
+     * @param head the head of the chain
+     *
+     * @return a new {@link PhysicalConnectionLayerPipeline} which has one stage for each {@link PhysicalConnectionLayer} of the chain.
+     *
+     * @throws IllegalArgumentException if the head is null or if the chain contains a cycle
+     */
+    public static @NotNull PhysicalConnectionLayerPipeline compile(PhysicalConnectionLayer head) {
+        if (head == null)
+            throw new IllegalArgumentException("The head of the chain cannot be null");
+
+        long chainVersion = PhysicalConnectionLayer.getChainVersion();
+        List<PhysicalConnectionLayer> stages = new ArrayList<>();
+        Set<PhysicalConnectionLayer> alreadySeen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (PhysicalConnectionLayer ite = head; ite != null; ite = ite.getNext()) {
+            if (!alreadySeen.add(ite))
+                throw new IllegalArgumentException("The chain of " + PhysicalConnectionLayer.class + " contains a cycle");
+            stages.add(ite);
+        }
+
+        return new PhysicalConnectionLayerPipeline(stages, chainVersion);
+    }
+
+    private static boolean overrides(PhysicalConnectionLayer layer, String methodName, Class<?>... parameterTypes) {
+        try {
+            return layer.getClass().getMethod(methodName, parameterTypes).getDeclaringClass() != PhysicalConnectionLayer.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("The method " + methodName + " is not found in " + PhysicalConnectionLayer.class, e);
+        }
+    }
+
+    /**
+     * @return true if no chain of {@link PhysicalConnectionLayer} has been modified since the compilation of the pipeline, else false.
+     */
+    public boolean isUpToDate() {
+        return chainVersion == PhysicalConnectionLayer.getChainVersion();
+    }
+
+    /**
+     * Does the same thing as {@link PhysicalConnectionLayer#send(AgentIdentifier, AgentIdentifier, PhysicalEvent)} called on the head of the
+     * compiled chain.
+     *
+     * @param initiator     the initiator of the {@link PhysicalEvent}
+     * @param target        the target of the {@link PhysicalEvent}
+     * @param physicalEvent the {@link PhysicalEvent}
+     *
+     * @throws IllegalArgumentException if the initiator, target or physicalEvent is null
+     */
+    public void send(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent) {
+        if (initiator == null)
+            throw new IllegalArgumentException("The initiator cannot be null");
+        if (target == null)
+            throw new IllegalArgumentException("The target cannot be null");
+        if (physicalEvent == null)
+            throw new IllegalArgumentException("The physicalEvent cannot be null");
+
+        if (overriddenSend) {
+            stages[0].send(initiator, target, physicalEvent);
+            return;
+        }
+
+        for (int i = 0; i < stages.length; i++) {
+            if (decoratingStages[i])
+                physicalEvent = stages[i].decoratePhysicalEvent(physicalEvent);
+            if (!stages[i].canBeSent(initiator, target, physicalEvent))
+                return; // Stop the chain.
+        }
+
+        lastStage.scheduleInEnvironment(initiator, target, physicalEvent);
+    }
+
+    /**
+     * Same as {@link #send(AgentIdentifier, AgentIdentifier, PhysicalEvent)} but the initiator and the target are identified by their agent
+     * handles.
+     *
+     * @param initiatorHandle the agent handle of the initiator of the {@link PhysicalEvent}
+     * @param targetHandle    the agent handle of the target of the {@link PhysicalEvent}
+     * @param physicalEvent   the {@link PhysicalEvent}
+     *
+     * @throws IllegalArgumentException if the initiator or the target is not found or if the physicalEvent is null
+     * @see PhysicalConnectionLayer#send(int, int, PhysicalEvent)
+     */
+    public void send(int initiatorHandle, int targetHandle, PhysicalEvent physicalEvent) {
+        if (overriddenHandleSend) {
+            stages[0].send(initiatorHandle, targetHandle, physicalEvent);
+            return;
+        }
+
+        var initiator = getAgentByHandle(initiatorHandle);
+        if (initiator == null)
+            throw new IllegalArgumentException("No initiator found for the agent handle " + initiatorHandle);
+
+        var target = getAgentByHandle(targetHandle);
+        if (target == null)
+            throw new IllegalArgumentException("No target found for the agent handle " + targetHandle);
+
+        send(initiator.getAgentIdentifier(), target.getAgentIdentifier(), physicalEvent);
+    }
+
+    /**
+     * Does the same thing as {@link PhysicalConnectionLayer#sendMulticast(AgentIdentifier, Collection, PhysicalEvent)} called on the head of the
+     * compiled chain.
+     *
+     * @param initiator     the initiator of the {@link PhysicalEvent}
+     * @param targets       the targets of the {@link PhysicalEvent}
+     * @param physicalEvent the {@link PhysicalEvent}
+     *
+     * @throws IllegalArgumentException if the initiator, targets, one target or physicalEvent is null
+     */
+    public void sendMulticast(AgentIdentifier initiator, Collection<AgentIdentifier> targets, PhysicalEvent physicalEvent) {
+        if (initiator == null)
+            throw new IllegalArgumentException("The initiator cannot be null");
+        if (targets == null)
+            throw new IllegalArgumentException("The targets cannot be null");
+        if (physicalEvent == null)
+            throw new IllegalArgumentException("The physicalEvent cannot be null");
+
+        List<AgentIdentifier> reachableTargets = targets instanceof List<AgentIdentifier> list ? list : new ArrayList<>(targets);
+        for (AgentIdentifier target : reachableTargets)
+            if (target == null)
+                throw new IllegalArgumentException("A target cannot be null");
+
+        if (overriddenSendMulticast) {
+            stages[0].sendMulticast(initiator, reachableTargets, physicalEvent);
+            return;
+        }
+
+        for (int i = 0; i < stages.length; i++) {
+            if (reachableTargets.isEmpty())
+                return; // Stop the chain.
+            if (decoratingStages[i])
+                physicalEvent = stages[i].decoratePhysicalEvent(physicalEvent);
+            reachableTargets = stages[i].filterTargets(initiator, reachableTargets, physicalEvent);
+        }
+
+        if (!reachableTargets.isEmpty())
+            lastStage.scheduleInEnvironment(initiator, reachableTargets, physicalEvent);
+    }
+
+    // Getters.
+
+    /**
+     * @return the {@link PhysicalConnectionLayer} which was the head of the chain during the compilation.
+     */
+    public PhysicalConnectionLayer getHead() {
+        return stages[0];
+    }
+
+    /**
+     * @return the number of stages of the pipeline.
+     */
+    public int getNbStages() {
+        return stages.length;
+    }
+}
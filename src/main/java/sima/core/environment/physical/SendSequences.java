@@ -0,0 +1,82 @@
+package sima.core.environment.physical;
+
+import sima.core.simulation.SimaSimulationUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the {@link PhysicalEvent} sent by each agent to give to each send a random draw which does not depend on the thread of the send (see
+ * {@link SimaSimulationUtils#keyedDraw(long, long)}). The delays sampled with these draws are the same at each run with the same seed as long as
+ * each agent sends its events in the same order.
+ * <p>
+ * The agents are designed by their {@link sima.core.agent.AgentIdentifier#getAgentUniqueId()}. The counters are stored in chunks which are never
+ * moved, therefore the increment of a counter never takes a lock and the lock is only taken to add a chunk.
+ * <p>
+ * This class is thread safe.
+ */
+public final class SendSequences {
+
+    // Static.
+
+    private static final int CHUNK_SHIFT = 10;
+
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    // Variables.
+
+    private volatile AtomicLongArray[] chunks;
+
+    // Constructors.
+
+    public SendSequences() {
+        chunks = new AtomicLongArray[1];
+    }
+
+    // Methods.
+
+    /**
+     * @param sender the unique id of the sender
+     *
+     * @return the sequence number of the next send of the sender, 0 for its first send.
+     *
+     * @throws IllegalArgumentException if the sender is negative
+     */
+    public long next(int sender) {
+        if (sender < 0)
+            throw new IllegalArgumentException("The sender cannot be negative");
+
+        return chunkOf(sender >>> CHUNK_SHIFT).getAndIncrement(sender & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * @param sender the unique id of the sender
+     *
+     * @return a uniform random long for the next send of the sender.
+     *
+     * @throws IllegalArgumentException if the sender is negative
+     * @see SimaSimulationUtils#keyedDraw(long, long)
+     */
+    public long nextDraw(int sender) {
+        return SimaSimulationUtils.keyedDraw(sender, next(sender));
+    }
+
+    private AtomicLongArray chunkOf(int index) {
+        var current = chunks;
+        if (index < current.length && current[index] != null)
+            return current[index];
+
+        return addChunk(index);
+    }
+
+    private synchronized AtomicLongArray addChunk(int index) {
+        var current = chunks;
+        if (index >= current.length)
+            current = Arrays.copyOf(current, Math.max(index + 1, current.length << 1));
+        if (current[index] == null)
+            current[index] = new AtomicLongArray(CHUNK_SIZE);
+
+        chunks = current;
+        return current[index];
+    }
+}
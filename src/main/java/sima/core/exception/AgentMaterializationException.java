@@ -0,0 +1,14 @@
+package sima.core.exception;
+
+public class AgentMaterializationException extends RuntimeException {
+
+    // Constructors.
+
+    public AgentMaterializationException(String message) {
+        super(message);
+    }
+
+    public AgentMaterializationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package sima.core.exception;
+
+public class EventCodecException extends RuntimeException {
+    
+    // Constructors.
+    
+    public EventCodecException(String message) {
+        super(message);
+    }
+    
+    public EventCodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package sima.core.exception;
+
+public class InboxOverflowException extends RuntimeException {
+    
+    // Constructors.
+    
+    public InboxOverflowException() {
+        super();
+    }
+    
+    public InboxOverflowException(String message) {
+        super(message);
+    }
+}
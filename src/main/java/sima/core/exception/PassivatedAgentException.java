@@ -0,0 +1,14 @@
+package sima.core.exception;
+
+/**
+ * Thrown when an event is given to an instance of agent which has been passivated. The agent must be searched again in the simulation to get its
+ * reactivated instance.
+ */
+public class PassivatedAgentException extends AgentNotStartedException {
+
+    // Constructors.
+
+    public PassivatedAgentException(String message) {
+        super(message);
+    }
+}
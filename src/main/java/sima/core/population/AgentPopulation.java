@@ -0,0 +1,296 @@
+package sima.core.population;
+
+import sima.core.utils.ParallelRanges;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A fixed number of homogeneous agents whose state is stored column-wise. Each field of the {@link PopulationSchema} is a column with one value per
+ * member, the members are the ints in [0; {@link #getSize()}[. A member is not an object, it costs only {@link PopulationSchema#getMemberSize()}
+ * bytes, therefore a population can have millions of members where a {@link sima.core.agent.SimaAgent} per member would not fit in memory.
+ * <p>
+ * The columns are on the heap or off the heap (see {@link Storage}). The logic of a step is a {@link RangeKernel} applied on ranges of members with
+ * {@link #forEachRange(RangeKernel)}:
+ *
+ * <pre>{@code
+ * DoubleBuffer energy = population.doubleColumn(energyField);
+ * population.forEachRange((from, to) -> {
+ *     for (int member = from; member < to; member++)
+ *         energy.put(member, energy.get(member) * 0.99);
+ * });
+ * }</pre>
+ * <p>
+ * The population is seen by the rest of the simulation through a {@link PopulationAgent}. This class is not thread safe, except that kernels can
+ * write the members of their range in parallel.
+ */
+public final class AgentPopulation {
+
+    // Static.
+
+    /**
+     * The number of members given to one task by {@link #forEachRange(RangeKernel)}.
+     */
+    static final int CHUNK_SIZE = 4096;
+
+    // Variables.
+
+    private final PopulationSchema schema;
+
+    private final int size;
+
+    private final Storage storage;
+
+    /**
+     * The columns indexed by the index of their field, null if the field has another type.
+     */
+    private final IntBuffer[] intColumns;
+    private final LongBuffer[] longColumns;
+    private final DoubleBuffer[] doubleColumns;
+
+    // Constructors.
+
+    /**
+     * @param schema  the fields of the members
+     * @param size    the number of members
+     * @param storage where the columns are allocated
+     *
+     * @throws IllegalArgumentException if the schema or the storage is null, if size is negative or if a column would have more than {@link
+     *                                  Integer#MAX_VALUE} bytes off the heap
+     */
+    public AgentPopulation(PopulationSchema schema, int size, Storage storage) {
+        this.schema = Optional.ofNullable(schema).orElseThrow(() -> new IllegalArgumentException("The schema cannot be null"));
+        this.storage = Optional.ofNullable(storage).orElseThrow(() -> new IllegalArgumentException("The storage cannot be null"));
+        if (size < 0)
+            throw new IllegalArgumentException("The size cannot be negative");
+
+        this.size = size;
+        int nbFields = schema.getFields().size();
+        intColumns = new IntBuffer[nbFields];
+        longColumns = new LongBuffer[nbFields];
+        doubleColumns = new DoubleBuffer[nbFields];
+        for (PopulationSchema.Field field : schema.getFields())
+            allocateColumn(field);
+    }
+
+    // Methods.
+
+    private void allocateColumn(PopulationSchema.Field field) {
+        int index = field.index();
+        if (storage == Storage.HEAP)
+            switch (field.type()) {
+                case INT -> intColumns[index] = IntBuffer.wrap(new int[size]);
+                case LONG -> longColumns[index] = LongBuffer.wrap(new long[size]);
+                case DOUBLE -> doubleColumns[index] = DoubleBuffer.wrap(new double[size]);
+            }
+        else {
+            long nbBytes = (long) size * field.type().getSize();
+            if (nbBytes > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("The column " + field + " is too large to be off the heap: " + nbBytes + " bytes");
+
+            var buffer = ByteBuffer.allocateDirect((int) nbBytes).order(ByteOrder.nativeOrder());
+            switch (field.type()) {
+                case INT -> intColumns[index] = buffer.asIntBuffer();
+                case LONG -> longColumns[index] = buffer.asLongBuffer();
+                case DOUBLE -> doubleColumns[index] = buffer.asDoubleBuffer();
+            }
+        }
+    }
+
+    private int verifyField(PopulationSchema.Field field, PopulationSchema.Type type) {
+        if (!schema.contains(field))
+            throw new IllegalArgumentException("The field " + field + " is not a field of the population");
+        if (field.type() != type)
+            throw new IllegalArgumentException("The field " + field + " is not a " + type + " field");
+
+        return field.index();
+    }
+
+    /**
+     * @param field the field
+     *
+     * @return a view of the column of the field, the value of a member is at the index of the member. The view shares the values with the
+     * population and has its own position.
+     *
+     * @throws IllegalArgumentException if the field is not an {@link PopulationSchema.Type#INT} field of the schema
+     */
+    public IntBuffer intColumn(PopulationSchema.Field field) {
+        return intColumns[verifyField(field, PopulationSchema.Type.INT)].duplicate();
+    }
+
+    /**
+     * @param field the field
+     *
+     * @return a view of the column of the field, see {@link #intColumn(PopulationSchema.Field)}.
+     *
+     * @throws IllegalArgumentException if the field is not a {@link PopulationSchema.Type#LONG} field of the schema
+     */
+    public LongBuffer longColumn(PopulationSchema.Field field) {
+        return longColumns[verifyField(field, PopulationSchema.Type.LONG)].duplicate();
+    }
+
+    /**
+     * @param field the field
+     *
+     * @return a view of the column of the field, see {@link #intColumn(PopulationSchema.Field)}.
+     *
+     * @throws IllegalArgumentException if the field is not a {@link PopulationSchema.Type#DOUBLE} field of the schema
+     */
+    public DoubleBuffer doubleColumn(PopulationSchema.Field field) {
+        return doubleColumns[verifyField(field, PopulationSchema.Type.DOUBLE)].duplicate();
+    }
+
+    /**
+     * @param field  the field
+     * @param member the member
+     *
+     * @return the value of the field for the member.
+     *
+     * @throws IllegalArgumentException  if the field is not an {@link PopulationSchema.Type#INT} field of the schema
+     * @throws IndexOutOfBoundsException if the member is not in the population
+     */
+    public int getInt(PopulationSchema.Field field, int member) {
+        return intColumns[verifyField(field, PopulationSchema.Type.INT)].get(member);
+    }
+
+    /**
+     * @param field  the field
+     * @param member the member
+     * @param value  the new value of the field for the member
+     *
+     * @throws IllegalArgumentException  if the field is not an {@link PopulationSchema.Type#INT} field of the schema
+     * @throws IndexOutOfBoundsException if the member is not in the population
+     */
+    public void setInt(PopulationSchema.Field field, int member, int value) {
+        intColumns[verifyField(field, PopulationSchema.Type.INT)].put(member, value);
+    }
+
+    /**
+     * @param field  the field
+     * @param member the member
+     *
+     * @return the value of the field for the member.
+     *
+     * @throws IllegalArgumentException  if the field is not a {@link PopulationSchema.Type#LONG} field of the schema
+     * @throws IndexOutOfBoundsException if the member is not in the population
+     */
+    public long getLong(PopulationSchema.Field field, int member) {
+        return longColumns[verifyField(field, PopulationSchema.Type.LONG)].get(member);
+    }
+
+    /**
+     * @param field  the field
+     * @param member the member
+     * @param value  the new value of the field for the member
+     *
+     * @throws IllegalArgumentException  if the field is not a {@link PopulationSchema.Type#LONG} field of the schema
+     * @throws IndexOutOfBoundsException if the member is not in the population
+     */
+    public void setLong(PopulationSchema.Field field, int member, long value) {
+        longColumns[verifyField(field, PopulationSchema.Type.LONG)].put(member, value);
+    }
+
+    /**
+     * @param field  the field
+     * @param member the member
+     *
+     * @return the value of the field for the member.
+     *
+     * @throws IllegalArgumentException  if the field is not a {@link PopulationSchema.Type#DOUBLE} field of the schema
+     * @throws IndexOutOfBoundsException if the member is not in the population
+     */
+    public double getDouble(PopulationSchema.Field field, int member) {
+        return doubleColumns[verifyField(field, PopulationSchema.Type.DOUBLE)].get(member);
+    }
+
+    /**
+     * @param field  the field
+     * @param member the member
+     * @param value  the new value of the field for the member
+     *
+     * @throws IllegalArgumentException  if the field is not a {@link PopulationSchema.Type#DOUBLE} field of the schema
+     * @throws IndexOutOfBoundsException if the member is not in the population
+     */
+    public void setDouble(PopulationSchema.Field field, int member, double value) {
+        doubleColumns[verifyField(field, PopulationSchema.Type.DOUBLE)].put(member, value);
+    }
+
+    /**
+     * @param member the member
+     *
+     * @return true if the member is in [0; {@link #getSize()}[, else false.
+     */
+    public boolean containsMember(int member) {
+        return member >= 0 && member < size;
+    }
+
+    /**
+     * Applies the kernel on disjoint ranges which cover all members. The ranges are applied in parallel in the common {@link ForkJoinPool} if the
+     * population has more than {@link #CHUNK_SIZE} members. The method returns when the kernel has been applied on all ranges, a {@link
+     * RuntimeException} thrown by the kernel is rethrown.
+     *
+     * @param kernel the kernel
+     *
+     * @throws IllegalArgumentException if the kernel is null
+     */
+    public void forEachRange(RangeKernel kernel) {
+        kernel = Optional.ofNullable(kernel).orElseThrow(() -> new IllegalArgumentException("The kernel cannot be null"));
+        ParallelRanges.forEachRange(ForkJoinPool.commonPool(), 0, size, CHUNK_SIZE, kernel::apply);
+    }
+
+    @Override
+    public String toString() {
+        return "[AgentPopulation - size=" + size + ", storage=" + storage + ", schema=" + schema + "]";
+    }
+
+    // Getters.
+
+    public PopulationSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return the number of members.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    // Inner classes.
+
+    /**
+     * Where the columns of an {@link AgentPopulation} are allocated.
+     * <ul>
+     *     <li>{@link #HEAP}: in primitive arrays</li>
+     *     <li>{@link #OFF_HEAP}: in direct buffers, which are not scanned nor moved by the garbage collector</li>
+     * </ul>
+     */
+    public enum Storage {
+        HEAP, OFF_HEAP
+    }
+
+    /**
+     * The logic applied on a range of members.
+     */
+    @FunctionalInterface
+    public interface RangeKernel {
+
+        /**
+         * Applies the logic on the members in [from; to[. Only the values of these members must be written, other ranges can be applied at the
+         * same time.
+         *
+         * @param from the first member (include)
+         * @param to   the last member (exclude)
+         */
+        void apply(int from, int to);
+    }
+}
@@ -0,0 +1,65 @@
+package sima.core.population;
+
+import org.jetbrains.annotations.NotNull;
+import sima.core.environment.event.Event;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An {@link Event} for one member of an {@link AgentPopulation}. It is sent to the {@link PopulationAgent} of the population like any event, and
+ * the agent gives its content to the {@link PopulationAgent.MemberEventHandler} with the member.
+ */
+public class MemberEvent extends Event {
+
+    // Variables.
+
+    private final int member;
+
+    // Constructors.
+
+    /**
+     * @param member the member
+     * @param event  the event for the member
+     *
+     * @throws IllegalArgumentException if the member is negative or if the event is null
+     */
+    public MemberEvent(int member, Event event) {
+        super(Optional.ofNullable(event).orElseThrow(() -> new IllegalArgumentException("The event cannot be null")));
+        if (member < 0)
+            throw new IllegalArgumentException("The member cannot be negative");
+
+        this.member = member;
+    }
+
+    // Methods.
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MemberEvent that)) return false;
+        if (!super.equals(o)) return false;
+        return member == that.member;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), member);
+    }
+
+    @Override
+    public @NotNull MemberEvent duplicate() {
+        return isImmutable(getContent()) ? this : new MemberEvent(member, getContent().duplicate());
+    }
+
+    @Override
+    public String toString() {
+        return "[MemberEvent - member=" + member + ", content=" + getContent() + "]";
+    }
+
+    // Getters.
+
+    public int getMember() {
+        return member;
+    }
+}
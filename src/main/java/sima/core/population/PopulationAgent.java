@@ -0,0 +1,156 @@
+package sima.core.population;
+
+import sima.core.agent.SimaAgent;
+import sima.core.environment.Environment;
+import sima.core.environment.event.Event;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@link SimaAgent} which represents an {@link AgentPopulation} in the simulation. The members are not agents: the {@link PopulationAgent} is
+ * the one which joins the {@link Environment}, is bound to an agent handle and receives the events, and it plays the behaviors which apply the
+ * kernels of the population (for example a {@link sima.core.behavior.TickBehavior}).
+ * <p>
+ * A member is addressed with a member handle, a long which packs the agent handle of its {@link PopulationAgent} and its index in the population
+ * (see {@link #memberHandle(int, int)}). An event sent to a member with {@link #sendToMember(Environment, int, long, Event, long)} goes through the
+ * usual path of the {@link Environment} in a {@link MemberEvent}, and is given to the {@link MemberEventHandler} of the population agent. The other
+ * events are processed as in a {@link SimaAgent}.
+ */
+public class PopulationAgent extends SimaAgent {
+
+    // Variables.
+
+    private final AgentPopulation population;
+
+    private MemberEventHandler memberEventHandler;
+
+    // Constructors.
+
+    /**
+     * @param agentName  the name of the agent
+     * @param sequenceId the sequence id of the agent
+     * @param uniqueId   the unique id of the agent
+     * @param args       the arguments of the agent, can be null
+     * @param population the population represented by the agent
+     *
+     * @throws IllegalArgumentException if the population is null
+     */
+    public PopulationAgent(String agentName, int sequenceId, int uniqueId, Map<String, String> args, AgentPopulation population) {
+        super(agentName, sequenceId, uniqueId, args);
+        this.population = Optional.ofNullable(population).orElseThrow(() -> new IllegalArgumentException("The population cannot be null"));
+    }
+
+    // Methods.
+
+    /**
+     * @param agentHandle the agent handle of the {@link PopulationAgent}
+     * @param member      the member
+     *
+     * @return the member handle of the member.
+     */
+    public static long memberHandle(int agentHandle, int member) {
+        return ((long) agentHandle << Integer.SIZE) | (member & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param memberHandle the member handle
+     *
+     * @return the agent handle of the {@link PopulationAgent} of the member.
+     */
+    public static int agentHandleOf(long memberHandle) {
+        return (int) (memberHandle >>> Integer.SIZE);
+    }
+
+    /**
+     * @param memberHandle the member handle
+     *
+     * @return the index of the member in its population.
+     */
+    public static int memberOf(long memberHandle) {
+        return (int) memberHandle;
+    }
+
+    /**
+     * Sends the event to a member with {@link Environment#assignEventOn(int, int, Event, long)}.
+     *
+     * @param environment     the environment where the initiator and the population agent evolve
+     * @param initiatorHandle the agent handle of the initiator
+     * @param memberHandle    the member handle of the target
+     * @param event           the event
+     * @param delay           the delay before the event is processed
+     *
+     * @throws IllegalArgumentException if the environment or the event is null
+     */
+    public static void sendToMember(Environment environment, int initiatorHandle, long memberHandle, Event event, long delay) {
+        environment = Optional.ofNullable(environment).orElseThrow(() -> new IllegalArgumentException("The environment cannot be null"));
+        environment.assignEventOn(initiatorHandle, agentHandleOf(memberHandle), new MemberEvent(memberOf(memberHandle), event), delay);
+    }
+
+    /**
+     * @param member the member
+     *
+     * @return the member handle of the member of the population.
+     *
+     * @throws IllegalArgumentException if the member is not in the population
+     * @throws IllegalStateException    if the agent is not bound to an agent handle
+     */
+    public long memberHandle(int member) {
+        if (!population.containsMember(member))
+            throw new IllegalArgumentException("The member " + member + " is not in the population");
+
+        var agentIdentifier = getAgentIdentifier();
+        if (!agentIdentifier.hasAgentHandle())
+            throw new IllegalStateException("The agent " + agentIdentifier + " is not bound to an agent handle");
+
+        return memberHandle(agentIdentifier.getAgentHandle(), member);
+    }
+
+    @Override
+    protected void inProcessEvent(Event event) {
+        if (event instanceof MemberEvent memberEvent)
+            processMemberEvent(memberEvent);
+        else
+            super.inProcessEvent(event);
+    }
+
+    private void processMemberEvent(MemberEvent memberEvent) {
+        if (!population.containsMember(memberEvent.getMember()))
+            throw new IllegalArgumentException("The member " + memberEvent.getMember() + " is not in the population of " + this);
+        if (memberEventHandler == null)
+            throw new UnsupportedOperationException("The agent " + this + " has no " + MemberEventHandler.class.getSimpleName());
+
+        memberEventHandler.handleMemberEvent(memberEvent.getMember(), memberEvent.getContent());
+    }
+
+    // Getters and setters.
+
+    public AgentPopulation getPopulation() {
+        return population;
+    }
+
+    public MemberEventHandler getMemberEventHandler() {
+        return memberEventHandler;
+    }
+
+    public void setMemberEventHandler(MemberEventHandler memberEventHandler) {
+        this.memberEventHandler = memberEventHandler;
+    }
+
+    // Inner classes.
+
+    /**
+     * Processes the events sent to the members of a population.
+     */
+    @FunctionalInterface
+    public interface MemberEventHandler {
+
+        /**
+         * Called with the lock of the {@link PopulationAgent}.
+         *
+         * @param member the member
+         * @param event  the event for the member
+         */
+        void handleMemberEvent(int member, Event event);
+    }
+}
@@ -0,0 +1,193 @@
+package sima.core.population;
+
+import java.util.*;
+
+/**
+ * The primitive state fields of the members of an {@link AgentPopulation}. A field is stored in one column of the population, therefore the state of
+ * a member costs only the size of its fields, there is no object per member.
+ * <p>
+ * Instances are created with a {@link Builder}:
+ *
+ * <pre>{@code
+ * PopulationSchema schema = new PopulationSchema.Builder()
+ *         .intField("opinion")
+ *         .doubleField("energy")
+ *         .build();
+ * PopulationSchema.Field energy = schema.getField("energy");
+ * }</pre>
+ */
+public final class PopulationSchema {
+
+    // Variables.
+
+    private final List<Field> fields;
+
+    private final Map<String, Field> fieldsByName;
+
+    // Constructors.
+
+    private PopulationSchema(List<Field> fields) {
+        this.fields = Collections.unmodifiableList(fields);
+        fieldsByName = new HashMap<>(fields.size() * 2);
+        for (Field field : fields)
+            fieldsByName.put(field.name(), field);
+    }
+
+    // Methods.
+
+    /**
+     * @param name the name of the field
+     *
+     * @return the field with the name.
+     *
+     * @throws IllegalArgumentException if there is no field with the name in the schema
+     */
+    public Field getField(String name) {
+        var field = fieldsByName.get(name);
+        if (field == null)
+            throw new IllegalArgumentException("There is no field " + name + " in the schema");
+
+        return field;
+    }
+
+    /**
+     * @param field the field
+     *
+     * @return true if the field has been created by this schema, else false.
+     */
+    public boolean contains(Field field) {
+        return field != null && field.index() < fields.size() && fields.get(field.index()) == field;
+    }
+
+    /**
+     * @return the number of bytes used by the fields of one member.
+     */
+    public int getMemberSize() {
+        int memberSize = 0;
+        for (Field field : fields)
+            memberSize += field.type().getSize();
+        return memberSize;
+    }
+
+    @Override
+    public String toString() {
+        return "[PopulationSchema - fields=" + fields + "]";
+    }
+
+    // Getters.
+
+    /**
+     * @return the fields in their declaration order, the list cannot be modified.
+     */
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    // Inner classes.
+
+    /**
+     * A field of a {@link PopulationSchema}.
+     *
+     * @param name  the name of the field
+     * @param type  the type of the field
+     * @param index the index of the field in the schema
+     */
+    public record Field(String name, Type type, int index) {
+
+        @Override
+        public String toString() {
+            return name + ":" + type;
+        }
+    }
+
+    public enum Type {
+        INT(Integer.BYTES), LONG(Long.BYTES), DOUBLE(Double.BYTES);
+
+        // Variables.
+
+        private final int size;
+
+        // Constructors.
+
+        Type(int size) {
+            this.size = size;
+        }
+
+        // Getters.
+
+        /**
+         * @return the number of bytes of a value of this type.
+         */
+        public int getSize() {
+            return size;
+        }
+    }
+
+    public static final class Builder {
+
+        // Variables.
+
+        private final List<Field> fields;
+
+        private final Set<String> names;
+
+        // Constructors.
+
+        public Builder() {
+            fields = new ArrayList<>();
+            names = new HashSet<>();
+        }
+
+        // Methods.
+
+        /**
+         * @param name the name of the field
+         *
+         * @return this builder.
+         *
+         * @throws IllegalArgumentException if the name is null or if there is already a field with the name
+         */
+        public Builder intField(String name) {
+            return field(name, Type.INT);
+        }
+
+        /**
+         * @param name the name of the field
+         *
+         * @return this builder.
+         *
+         * @throws IllegalArgumentException if the name is null or if there is already a field with the name
+         */
+        public Builder longField(String name) {
+            return field(name, Type.LONG);
+        }
+
+        /**
+         * @param name the name of the field
+         *
+         * @return this builder.
+         *
+         * @throws IllegalArgumentException if the name is null or if there is already a field with the name
+         */
+        public Builder doubleField(String name) {
+            return field(name, Type.DOUBLE);
+        }
+
+        private Builder field(String name, Type type) {
+            if (name == null)
+                throw new IllegalArgumentException("The name of a field cannot be null");
+            if (!names.add(name))
+                throw new IllegalArgumentException("There is already a field " + name);
+
+            fields.add(new Field(name, type, fields.size()));
+            return this;
+        }
+
+        /**
+         * @return a new {@link PopulationSchema} with all fields added.
+         */
+        public PopulationSchema build() {
+            return new PopulationSchema(new ArrayList<>(fields));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package sima.core.protocol;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a {@link Protocol} as a typed handler of {@link sima.core.environment.event.Event}.
+ * <p>
+ * The annotated method must have only one parameter which is a subclass of {@link sima.core.environment.event.Event} and must not declare checked
+ * exceptions. {@link Protocol#dispatchToEventHandler(sima.core.environment.event.Event)} dispatches an event to the handler which has the most
+ * specific parameter type for the class of the event.
+ * <p>
+ * Handlers are resolved in {@link java.lang.invoke.MethodHandle} once per {@link Protocol} class and per {@code Event} class.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface EventHandler {
+}
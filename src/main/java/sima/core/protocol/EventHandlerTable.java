@@ -0,0 +1,130 @@
+package sima.core.protocol;
+
+import sima.core.environment.event.Event;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The table of all methods annotated with {@link EventHandler} of a {@link Protocol} class. The table is built once per {@link Protocol} class and
+ * the handler of an {@link Event} class is resolved once and cached.
+ */
+final class EventHandlerTable {
+
+    // Static.
+
+    private static final ClassValue<EventHandlerTable> TABLES = new ClassValue<>() {
+        @Override
+        protected EventHandlerTable computeValue(Class<?> protocolClass) {
+            return new EventHandlerTable(protocolClass);
+        }
+    };
+
+    private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Protocol.class, Event.class);
+
+    /**
+     * Marker for {@link Event} classes which have no handler. A {@link ConcurrentHashMap} cannot contain null values.
+     */
+    private static final MethodHandle NO_HANDLER = MethodHandles.empty(HANDLER_TYPE);
+
+    // Variables.
+
+    /**
+     * Map the parameter type of the declared handlers with the handler.
+     */
+    private final Map<Class<?>, MethodHandle> declaredHandlers;
+
+    /**
+     * Map an {@link Event} class with its resolved handler or {@link #NO_HANDLER}.
+     */
+    private final Map<Class<?>, MethodHandle> resolvedHandlers;
+
+    // Constructors.
+
+    private EventHandlerTable(Class<?> protocolClass) {
+        declaredHandlers = new HashMap<>();
+        resolvedHandlers = new ConcurrentHashMap<>();
+        for (Class<?> c = protocolClass; c != null && c != Object.class; c = c.getSuperclass())
+            for (Method method : c.getDeclaredMethods())
+                if (method.isAnnotationPresent(EventHandler.class))
+                    declaredHandlers.putIfAbsent(verifyHandler(method), unreflect(method));
+    }
+
+    // Methods.
+
+    /**
+     * @param protocolClass the protocol class
+     *
+     * @return the {@link EventHandlerTable} of the protocol class.
+     *
+     * @throws IllegalStateException if one annotated method is not a correct handler
+     */
+    static EventHandlerTable of(Class<? extends Protocol> protocolClass) {
+        return TABLES.get(protocolClass);
+    }
+
+    private static Class<?> verifyHandler(Method method) {
+        if (method.getParameterCount() != 1 || !Event.class.isAssignableFrom(method.getParameterTypes()[0]))
+            throw new IllegalStateException("The EventHandler " + method + " must have only one parameter which is an " + Event.class);
+
+        for (Class<?> exceptionType : method.getExceptionTypes())
+            if (!RuntimeException.class.isAssignableFrom(exceptionType) && !Error.class.isAssignableFrom(exceptionType))
+                throw new IllegalStateException("The EventHandler " + method + " must not declare checked exceptions");
+
+        return method.getParameterTypes()[0];
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            method.setAccessible(true);
+            return MethodHandles.dropReturn(MethodHandles.lookup().unreflect(method)).asType(HANDLER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalStateException("Unable to access the EventHandler " + method, e);
+        }
+    }
+
+    /**
+     * @return true if the table has at least one handler, else false.
+     */
+    boolean isEmpty() {
+        return declaredHandlers.isEmpty();
+    }
+
+    /**
+     * Calls the handler of the {@link Event} class on the specified {@link Protocol}.
+     *
+     * @param protocol the protocol
+     * @param event    the event to handle
+     *
+     * @return true if a handler has been found and called, else false.
+     */
+    boolean handle(Protocol protocol, Event event) {
+        MethodHandle handler = resolvedHandlers.computeIfAbsent(event.getClass(), this::resolve);
+        if (handler == NO_HANDLER)
+            return false;
+
+        try {
+            handler.invokeExact(protocol, event);
+            return true;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private MethodHandle resolve(Class<?> eventClass) {
+        for (Class<?> c = eventClass; c != null; c = c.getSuperclass()) {
+            MethodHandle handler = declaredHandlers.get(c);
+            if (handler != null)
+                return handler;
+        }
+
+        return NO_HANDLER;
+    }
+}
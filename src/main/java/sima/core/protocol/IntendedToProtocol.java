@@ -6,4 +6,14 @@ public interface IntendedToProtocol {
     
     @NotNull ProtocolIdentifier getIntendedProtocol();
     
+    /**
+     * Returns the slot of the intended {@link ProtocolIdentifier}. Classes should cache the slot to avoid hashing the {@link ProtocolIdentifier} at
+     * each call, the default implementation does not.
+     *
+     * @return the slot of the intended {@link Protocol}, see {@link ProtocolSlots#slotOf(ProtocolIdentifier)}.
+     */
+    default int getIntendedProtocolSlot() {
+        return ProtocolSlots.slotOf(getIntendedProtocol());
+    }
+    
 }
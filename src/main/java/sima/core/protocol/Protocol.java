@@ -2,7 +2,11 @@ package sima.core.protocol;
 
 import sima.core.agent.SimaAgent;
 import sima.core.behavior.Behavior;
+import sima.core.environment.event.Event;
 import sima.core.environment.event.EventProcessor;
+import sima.core.scheduler.executor.CancellableExecutable;
+import sima.core.scheduler.executor.Executable;
+import sima.core.simulation.SimaSimulation;
 
 import java.util.Map;
 import java.util.Optional;
@@ -24,6 +28,11 @@ public abstract class Protocol implements EventProcessor {
      */
     private ProtocolIdentifier protocolIdentifier;
 
+    /**
+     * The slot of the {@link #protocolIdentifier}, see {@link ProtocolSlots}.
+     */
+    private int protocolSlot = ProtocolSlots.NO_SLOT;
+
     // Variables.
 
     /**
@@ -109,6 +118,31 @@ public abstract class Protocol implements EventProcessor {
         return protocolIdentifier;
     }
 
+    /**
+     * @return the slot of the {@link ProtocolIdentifier} of the {@link Protocol}, see {@link ProtocolSlots#slotOf(ProtocolIdentifier)}.
+     */
+    public int getProtocolSlot() {
+        if (protocolSlot == ProtocolSlots.NO_SLOT)
+            protocolSlot = ProtocolSlots.slotOf(getIdentifier());
+
+        return protocolSlot;
+    }
+
+    /**
+     * Dispatches the {@link Event} to the method annotated with {@link EventHandler} which has the most specific parameter type for the class of the
+     * event. Handlers are resolved once per {@link Protocol} class and per {@link Event} class.
+     * <p>
+     * A protocol which declares handlers calls this method from its {@link #processEvent(Event)}.
+     *
+     * @param event the event to dispatch
+     *
+     * @throws UnsupportedOperationException if there is no handler for the event
+     */
+    protected final void dispatchToEventHandler(Event event) {
+        if (!EventHandlerTable.of(getClass()).handle(this, event))
+            throw new UnsupportedOperationException(getClass() + " has no " + EventHandler.class.getSimpleName() + " for " + event.getClass());
+    }
+
     /**
      * Returns the default {@link Protocol} manipulator of the {@link Protocol}. This method never returns null. If the implementation is not correct
      * and this method returns null, the risk is that some methods throw a {@link NullPointerException}.
@@ -138,6 +172,37 @@ public abstract class Protocol implements EventProcessor {
         return getAgentOwner().isKilled();
     }
 
+    /**
+     * Schedules an {@link Executable} of the protocol once with the {@link sima.core.scheduler.Scheduler} of the simulation. Until its execution, the
+     * executable is a pending task of the agent owner (see {@link SimaAgent#hasPendingTasks()}), therefore the owner is not passivated while the
+     * executable references this instance of the protocol. If the executable is cancelled before its execution, it is released at once and is no
+     * longer a pending task.
+     *
+     * @param executable  the executable to schedule
+     * @param waitingTime the time to wait before the execution
+     *
+     * @return the scheduled executable, which can be cancelled.
+     *
+     * @see sima.core.scheduler.Scheduler#scheduleExecutableOnce(Executable, long)
+     */
+    protected CancellableExecutable scheduleExecutableOnce(Executable executable, long waitingTime) {
+        agentOwner.addPendingTask();
+        var cancellable = new CancellableExecutable(() -> {
+            try {
+                executable.execute();
+            } finally {
+                agentOwner.removePendingTask();
+            }
+        }, agentOwner::removePendingTask);
+        try {
+            SimaSimulation.getScheduler().scheduleExecutableOnce(cancellable, waitingTime);
+        } catch (RuntimeException e) {
+            cancellable.cancel();
+            throw e;
+        }
+        return cancellable;
+    }
+
     // Getters and Setters.
 
     public String getProtocolTag() {
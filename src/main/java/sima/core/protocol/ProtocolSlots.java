@@ -0,0 +1,59 @@
+package sima.core.protocol;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns {@link ProtocolIdentifier} to small integer slots. Two equal {@link ProtocolIdentifier} always have the same slot, therefore a slot
+ * identifies a {@link Protocol} in all {@link sima.core.agent.SimaAgent} as a {@link ProtocolIdentifier} does.
+ * <p>
+ * Slots are allocated in a dense way from 1, the value {@link #NO_SLOT} is never allocated and means that the slot is not resolved yet. An agent can
+ * therefore store its protocols in an array indexed by slot and an {@link sima.core.environment.event.Event} can carry the slot of its intended
+ * protocol to avoid hashing the {@link ProtocolIdentifier} during the dispatch.
+ * <p>
+ * This class is thread safe.
+ */
+public final class ProtocolSlots {
+
+    // Static.
+
+    /**
+     * Value which means that the slot has not been resolved.
+     */
+    public static final int NO_SLOT = 0;
+
+    private static final Map<ProtocolIdentifier, Integer> SLOTS = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger(NO_SLOT + 1);
+
+    // Constructors.
+
+    private ProtocolSlots() {
+        throw new UnsupportedOperationException();
+    }
+
+    // Methods.
+
+    /**
+     * Returns the slot of the specified {@link ProtocolIdentifier}. If the {@code ProtocolIdentifier} has not already a slot, a new slot is
+     * allocated.
+     *
+     * @param protocolIdentifier the protocol identifier
+     *
+     * @return the slot of the {@link ProtocolIdentifier}, never {@link #NO_SLOT}.
+     *
+     * @throws NullPointerException if the protocolIdentifier is null
+     */
+    public static int slotOf(ProtocolIdentifier protocolIdentifier) {
+        return SLOTS.computeIfAbsent(Optional.of(protocolIdentifier).get(), pI -> NEXT_SLOT.getAndIncrement());
+    }
+
+    /**
+     * @return the number of allocated slots plus one. All allocated slots are less than the returned value.
+     */
+    public static int slotBound() {
+        return NEXT_SLOT.get();
+    }
+}
@@ -1,14 +1,21 @@
 package sima.core.scheduler;
 
+import org.jetbrains.annotations.NotNull;
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.event.Event;
 import sima.core.exception.ForcedWakeUpException;
+import sima.core.exception.InboxOverflowException;
 import sima.core.exception.NotCorrectContextException;
 import sima.core.exception.NotScheduleTimeException;
+import sima.core.exception.PassivatedAgentException;
 import sima.core.scheduler.executor.Executable;
 import sima.core.scheduler.executor.MultiThreadExecutor;
+import sima.core.simulation.SimaSimulation;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.Vector;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static sima.core.simulation.SimaSimulation.SimaLog;
 
@@ -36,6 +43,51 @@ public abstract class AbstractScheduler implements Scheduler {
      */
     private final List<SchedulerWatcher> schedulerWatchers;
 
+    /**
+     * The {@link sima.core.scheduler.Scheduler.EventDeliveryMode} used by the methods scheduleEvent.
+     */
+    private EventDeliveryMode eventDeliveryMode;
+
+    /**
+     * The inboxes of agents which have events to process at a given time. Only used in {@link EventDeliveryMode#BATCHED}.
+     */
+    private final Map<InboxKey, AgentInbox> agentInboxes;
+
+    /**
+     * The number of events which have been dropped because their receiver has been killed before their delivery.
+     */
+    private final AtomicLong nbPurgedEvents;
+
+    /**
+     * The max number of pending events of an agent, {@link #UNBOUNDED_INBOX} if there is no limit.
+     */
+    private int inboxCapacity;
+
+    private InboxOverflowPolicy inboxOverflowPolicy;
+
+    /**
+     * The pending events of each agent which has received an event while the inbox capacity is bounded. Not used if the inbox capacity is {@link
+     * #UNBOUNDED_INBOX}. The inbox of an agent is removed when the agent is released (see {@link #releaseAgent(SimaAgent)}), the other ones are kept
+     * when the {@link Scheduler} is killed to read the drop counters of agents after the simulation.
+     */
+    private final Map<AgentIdentifier, BoundedInbox> boundedInboxes;
+
+    /**
+     * The events delayed to the next step by {@link InboxOverflowPolicy#DELAY_TO_NEXT_STEP}, by receiver. An entry is removed when its events are
+     * scheduled again.
+     */
+    private final Map<AgentIdentifier, DelayedEvents> delayedEvents;
+
+    /**
+     * The number of events which have been dropped or refused because the inbox of their receiver was full.
+     */
+    private final AtomicLong nbDroppedEvents;
+
+    /**
+     * The number of times an event has been delayed to the next step because the inbox of its receiver was full.
+     */
+    private final AtomicLong nbDelayedEvents;
+
     // Constructors.
 
     protected AbstractScheduler(long endSimulation) {
@@ -44,6 +96,15 @@ public abstract class AbstractScheduler implements Scheduler {
             throw new IllegalArgumentException("The end simulation time must be greater or equal to 1.");
 
         schedulerWatchers = new Vector<>();
+        eventDeliveryMode = EventDeliveryMode.PER_EVENT;
+        agentInboxes = new ConcurrentHashMap<>();
+        nbPurgedEvents = new AtomicLong();
+        inboxCapacity = UNBOUNDED_INBOX;
+        inboxOverflowPolicy = InboxOverflowPolicy.DROP_NEWEST;
+        boundedInboxes = new ConcurrentHashMap<>();
+        delayedEvents = new ConcurrentHashMap<>();
+        nbDroppedEvents = new AtomicLong();
+        nbDelayedEvents = new AtomicLong();
     }
 
     // Methods.
@@ -85,6 +146,180 @@ public abstract class AbstractScheduler implements Scheduler {
             addExecutableAtTime(executable, simulationSpecificTime);
     }
 
+    /**
+     * If the target is an agent which is not materialized yet, the agent is not materialized: only its identifier is kept and the agent is
+     * searched, and therefore materialized, at the delivery of the event. An identifier which is not bound to an agent handle is always resolved at
+     * once.
+     */
+    @Override
+    public void scheduleEvent(AgentIdentifier target, Event event, long waitingTime) {
+        event = Optional.of(event).get();
+        target = Optional.of(target).get();
+        if (target.hasAgentHandle() && target.equals(SimaSimulation.getLazyAgentIdentifier(target.getAgentHandle()))) {
+            scheduleEvent(target, null, event, waitingTime);
+            return;
+        }
+
+        SimaAgent receiver = SimaSimulation.getAgent(target);
+        if (receiver == null)
+            throw new IllegalArgumentException("SimaAgent identify by " + target + " has not been found");
+
+        scheduleEvent(target, receiver, event, waitingTime);
+    }
+
+    /**
+     * If the target is an agent which is not materialized yet, the agent is not materialized: only its identifier is kept and the agent is
+     * searched, and therefore materialized, at the delivery of the event.
+     */
+    @Override
+    public void scheduleEvent(int targetHandle, Event event, long waitingTime) {
+        event = Optional.of(event).get();
+        AgentIdentifier lazyTarget = SimaSimulation.getLazyAgentIdentifier(targetHandle);
+        if (lazyTarget != null) {
+            scheduleEvent(lazyTarget, null, event, waitingTime);
+            return;
+        }
+
+        SimaAgent receiver = SimaSimulation.getAgentByHandle(targetHandle);
+        if (receiver == null)
+            throw new IllegalArgumentException("SimaAgent with the agent handle " + targetHandle + " has not been found");
+
+        scheduleEvent(receiver.getAgentIdentifier(), receiver, event, waitingTime);
+    }
+
+    /**
+     * @param target      the identifier of the receiver
+     * @param receiver    the receiver, null if it must be searched with the target at the delivery
+     * @param event       the event
+     * @param waitingTime the time to wait before the event is delivered
+     */
+    private void scheduleEvent(AgentIdentifier target, SimaAgent receiver, Event event, long waitingTime) {
+        if (waitingTime < NOW)
+            throw new IllegalArgumentException("Waiting time cannot be less than 1.");
+
+        InboxSlot slot = null;
+        if (inboxCapacity != UNBOUNDED_INBOX && !isKilled()) {
+            slot = takeInboxSlot(target, receiver, event, waitingTime);
+            if (slot == null)
+                return;
+        }
+
+        if (eventDeliveryMode == EventDeliveryMode.BATCHED)
+            scheduleEventInInbox(target, receiver, event, slot, waitingTime);
+        else
+            scheduleExecutableOnce(new EventExecutable(target, receiver, event, slot), waitingTime);
+    }
+
+    /**
+     * Takes a slot in the {@link BoundedInbox} of the receiver. If the inbox is full, applies the {@link InboxOverflowPolicy}. An event for a killed
+     * receiver is dropped at once and counted as purged, therefore the inbox of a released agent is never created again.
+     *
+     * @param target      the identifier of the receiver
+     * @param receiver    the receiver, null if it is not materialized
+     * @param event       the event
+     * @param waitingTime the time to wait before the event is delivered
+     *
+     * @return the slot of the event, null if the event must not be scheduled now.
+     *
+     * @throws InboxOverflowException if the inbox is full and the policy is {@link InboxOverflowPolicy#FAIL_SENDER}
+     */
+    private InboxSlot takeInboxSlot(AgentIdentifier target, SimaAgent receiver, Event event, long waitingTime) {
+        if (receiver != null && receiver.isKilled()) {
+            nbPurgedEvents.incrementAndGet();
+            return null;
+        }
+
+        var boundedInbox = boundedInboxes.computeIfAbsent(target, t -> new BoundedInbox());
+        var policy = inboxOverflowPolicy;
+        synchronized (boundedInbox) {
+            if (boundedInbox.size() < inboxCapacity)
+                return boundedInbox.take(event);
+
+            if (policy == InboxOverflowPolicy.DROP_OLDEST) {
+                boundedInbox.dropOldest();
+                nbDroppedEvents.incrementAndGet();
+                return boundedInbox.take(event);
+            } else if (policy != InboxOverflowPolicy.DELAY_TO_NEXT_STEP) {
+                boundedInbox.nbDroppedEvents++;
+                nbDroppedEvents.incrementAndGet();
+            }
+        }
+
+        if (policy == InboxOverflowPolicy.DELAY_TO_NEXT_STEP) {
+            nbDelayedEvents.incrementAndGet();
+            delayToNextStep(target, receiver, event, waitingTime);
+        } else if (policy == InboxOverflowPolicy.FAIL_SENDER)
+            throw new InboxOverflowException("The inbox of " + target + " is full, capacity = " + inboxCapacity);
+
+        return null;
+    }
+
+    /**
+     * Adds the {@link Event} in the {@link DelayedEvents} of the receiver. The first event added schedules the {@code DelayedEvents} at the next
+     * step, the next ones are only accumulated.
+     *
+     * @param target      the identifier of the receiver
+     * @param receiver    the receiver, null if it is not materialized
+     * @param event       the event
+     * @param waitingTime the waiting time of the event when it is scheduled again
+     */
+    private void delayToNextStep(AgentIdentifier target, SimaAgent receiver, Event event, long waitingTime) {
+        while (true) {
+            var delayed = delayedEvents.computeIfAbsent(target, DelayedEvents::new);
+            delayed.setReceiver(receiver);
+            int added = delayed.add(event, waitingTime);
+            if (added == 1) {
+                scheduleExecutableOnce(delayed, NOW);
+                return;
+            } else if (added > 1)
+                return;
+            else
+                // The events have already been scheduled again, a new DelayedEvents must be created.
+                delayedEvents.remove(target, delayed);
+        }
+    }
+
+    /**
+     * Forgets the {@link BoundedInbox} of the agent. Its pending events are still delivered or purged, but the slots of the next events are taken in
+     * a new inbox.
+     *
+     * @param agent the removed or passivated agent
+     */
+    @Override
+    public void releaseAgent(SimaAgent agent) {
+        if (agent != null && agent.getAgentIdentifier() != null)
+            boundedInboxes.remove(agent.getAgentIdentifier());
+    }
+
+    /**
+     * Adds the {@link Event} in the inbox of the receiver for the time {@code getCurrentTime() + waitingTime}. The first event added in an inbox
+     * schedules the inbox, the next ones are only accumulated.
+     *
+     * @param target      the identifier of the receiver
+     * @param receiver    the receiver, null if it must be searched with the target at the delivery
+     * @param event       the event
+     * @param slot        the slot of the event in the {@link BoundedInbox} of the receiver, null if the inbox capacity is unbounded
+     * @param waitingTime the time to wait before the inbox is processed
+     */
+    private void scheduleEventInInbox(AgentIdentifier target, SimaAgent receiver, Event event, InboxSlot slot, long waitingTime) {
+        if (isKilled())
+            return;
+
+        var inboxKey = new InboxKey(target, getCurrentTime() + waitingTime);
+        while (true) {
+            AgentInbox inbox = agentInboxes.computeIfAbsent(inboxKey, AgentInbox::new);
+            int added = inbox.add(receiver, event, slot);
+            if (added == 1) {
+                addExecutableAtTime(inbox, inboxKey.deliveryTime());
+                return;
+            } else if (added > 1)
+                return;
+            else
+                // The inbox is already processed, a new one must be created.
+                agentInboxes.remove(inboxKey, inbox);
+        }
+    }
+
     @Override
     public synchronized boolean addSchedulerWatcher(SchedulerWatcher schedulerWatcher) {
         if (schedulerWatcher == null)
@@ -161,6 +396,7 @@ public abstract class AbstractScheduler implements Scheduler {
     protected void setKilled() {
         isStarted = false;
         isKilled = true;
+        agentInboxes.clear();
         SimaLog.info(this + " KILLED");
     }
 
@@ -228,6 +464,115 @@ public abstract class AbstractScheduler implements Scheduler {
         return endSimulation;
     }
 
+    @Override
+    public @NotNull EventDeliveryMode getEventDeliveryMode() {
+        return eventDeliveryMode;
+    }
+
+    /**
+     * @param eventDeliveryMode the {@link sima.core.scheduler.Scheduler.EventDeliveryMode} to use in the methods scheduleEvent
+     *
+     * @throws NullPointerException if eventDeliveryMode is null
+     */
+    public void setEventDeliveryMode(EventDeliveryMode eventDeliveryMode) {
+        this.eventDeliveryMode = Optional.of(eventDeliveryMode).get();
+    }
+
+    @Override
+    public long getNbPurgedEvents() {
+        return nbPurgedEvents.get();
+    }
+
+    @Override
+    public int getInboxCapacity() {
+        return inboxCapacity;
+    }
+
+    /**
+     * Bounds the number of events scheduled with the methods scheduleEvent which can be pending for one agent. The events already scheduled are
+     * not counted, the capacity must be set before the simulation starts.
+     *
+     * @param inboxCapacity the max number of pending events of an agent, {@link #UNBOUNDED_INBOX} if there is no limit
+     *
+     * @throws IllegalArgumentException if inboxCapacity is negative
+     */
+    public void setInboxCapacity(int inboxCapacity) {
+        if (inboxCapacity < UNBOUNDED_INBOX)
+            throw new IllegalArgumentException("The inbox capacity cannot be negative");
+
+        this.inboxCapacity = inboxCapacity;
+    }
+
+    @Override
+    public @NotNull InboxOverflowPolicy getInboxOverflowPolicy() {
+        return inboxOverflowPolicy;
+    }
+
+    /**
+     * @param inboxOverflowPolicy the {@link sima.core.scheduler.Scheduler.InboxOverflowPolicy} applied when the inbox of an agent is full
+     *
+     * @throws NullPointerException if inboxOverflowPolicy is null
+     */
+    public void setInboxOverflowPolicy(InboxOverflowPolicy inboxOverflowPolicy) {
+        this.inboxOverflowPolicy = Optional.of(inboxOverflowPolicy).get();
+    }
+
+    @Override
+    public long getNbDroppedEvents() {
+        return nbDroppedEvents.get();
+    }
+
+    /**
+     * @param agent the agent
+     *
+     * @return the number of events for the agent which have been dropped or refused because its inbox was full.
+     */
+    public long getNbDroppedEvents(SimaAgent agent) {
+        var boundedInbox = boundedInboxOf(agent);
+        if (boundedInbox == null)
+            return 0L;
+
+        synchronized (boundedInbox) {
+            return boundedInbox.nbDroppedEvents;
+        }
+    }
+
+    /**
+     * @param agent the agent
+     *
+     * @return the number of events for the agent which are scheduled and not yet delivered, only counted if the inbox capacity is bounded.
+     */
+    public int getNbPendingEvents(SimaAgent agent) {
+        var boundedInbox = boundedInboxOf(agent);
+        if (boundedInbox == null)
+            return 0;
+
+        synchronized (boundedInbox) {
+            return boundedInbox.size();
+        }
+    }
+
+    private BoundedInbox boundedInboxOf(SimaAgent agent) {
+        return agent != null && agent.getAgentIdentifier() != null ? boundedInboxes.get(agent.getAgentIdentifier()) : null;
+    }
+
+    @Override
+    public long getNbDelayedEvents() {
+        return nbDelayedEvents.get();
+    }
+
+    /**
+     * Searches the current instance of an agent which was not materialized or which has been passivated when an event has been scheduled for it. The
+     * search materializes or reactivates the agent.
+     *
+     * @param target the identifier of the agent
+     *
+     * @return the current instance of the agent, null if the agent is not in the simulation anymore.
+     */
+    private static SimaAgent resolve(AgentIdentifier target) {
+        return SimaSimulation.getAgent(target);
+    }
+
     // Inner classes.
 
     /**
@@ -254,6 +599,375 @@ public abstract class AbstractScheduler implements Scheduler {
         }
     }
 
+    /**
+     * Delivers one {@link Event} to its receiver. If the receiver has been killed before the delivery, the event is dropped and counted as purged.
+     * If the event has been dropped from the {@link BoundedInbox} of the receiver, nothing is done. If the receiver was not materialized at the
+     * schedule, it is searched at the delivery. If the receiver has been passivated, the event is delivered to its reactivated instance.
+     * <p>
+     * Until its execution, the executable is a pending task of the receiver which it references (see {@link SimaAgent#hasPendingTasks()}).
+     */
+    private class EventExecutable implements Executable {
+
+        // Variables.
+
+        private final AgentIdentifier target;
+
+        /**
+         * The receiver, null until the delivery if it was not materialized at the schedule.
+         */
+        private volatile SimaAgent receiver;
+
+        /**
+         * The event if it has no slot, else null: the event is kept by its slot and is released when the slot is dropped.
+         */
+        private final Event event;
+
+        private final InboxSlot slot;
+
+        // Constructors.
+
+        private EventExecutable(AgentIdentifier target, SimaAgent receiver, Event event, InboxSlot slot) {
+            this.target = target;
+            this.receiver = receiver;
+            this.event = slot == null ? event : null;
+            this.slot = slot;
+            if (receiver != null)
+                receiver.addPendingTask();
+        }
+
+        // Methods.
+
+        @Override
+        public void execute() {
+            SimaAgent scheduledReceiver = receiver;
+            try {
+                deliver();
+            } finally {
+                if (scheduledReceiver != null)
+                    scheduledReceiver.removePendingTask();
+            }
+        }
+
+        private void deliver() {
+            Event event = slot != null ? slot.release() : this.event;
+            if (event == null)
+                return;
+
+            SimaAgent current = receiver != null ? receiver : resolve(target);
+            while (true)
+                try {
+                    receiver = current;
+                    if (current == null || current.isKilled())
+                        nbPurgedEvents.incrementAndGet();
+                    else
+                        current.processEvent(event);
+                    return;
+                } catch (PassivatedAgentException e) {
+                    current = resolve(target);
+                }
+        }
+
+        /**
+         * @return the receiver, null if it has not been searched yet.
+         */
+        @Override
+        public Object getLockMonitor() {
+            return receiver;
+        }
+    }
+
+    private record InboxKey(AgentIdentifier target, long deliveryTime) {
+    }
+
+    /**
+     * The inbox of an agent for one time of the simulation. Accumulates all {@link Event} for the agent at this time and calls only one time the
+     * method {@link SimaAgent#processEvents(List)} when it is executed. Until its execution, the inbox is a pending task of the receiver which it
+     * references.
+     */
+    protected class AgentInbox implements Executable {
+
+        // Variables.
+
+        private final InboxKey inboxKey;
+
+        /**
+         * The receiver, null until the delivery if it was not materialized when the events have been scheduled.
+         */
+        private volatile SimaAgent receiver;
+
+        /**
+         * The events which have no slot.
+         */
+        private List<Event> events;
+
+        /**
+         * The slots of the events in the {@link BoundedInbox} of the receiver, which keep their events. Null if no event has a slot.
+         */
+        private List<InboxSlot> slots;
+
+        // Constructors.
+
+        private AgentInbox(InboxKey inboxKey) {
+            this.inboxKey = inboxKey;
+            this.events = new ArrayList<>();
+        }
+
+        // Methods.
+
+        /**
+         * @param receiver the receiver, can be null if it is not materialized
+         * @param event    the event to add
+         * @param slot     the slot of the event, can be null
+         *
+         * @return the number of events in the inbox after the add, 0 if the inbox has already been processed and the event has not been added.
+         */
+        private synchronized int add(SimaAgent receiver, Event event, InboxSlot slot) {
+            if (events == null)
+                return 0;
+
+            if (this.receiver == null && receiver != null) {
+                this.receiver = receiver;
+                receiver.addPendingTask();
+            }
+
+            if (slot == null)
+                events.add(event);
+            else {
+                if (slots == null)
+                    slots = new ArrayList<>();
+                slots.add(slot);
+            }
+            return events.size() + (slots != null ? slots.size() : 0);
+        }
+
+        /**
+         * @return the events to process, without the events which have been dropped from the {@link BoundedInbox} of the receiver.
+         */
+        private synchronized List<Event> close() {
+            List<Event> toProcess = events;
+            events = null;
+            if (slots != null) {
+                for (InboxSlot slot : slots) {
+                    var event = slot.release();
+                    if (event != null)
+                        toProcess.add(event);
+                }
+                slots = null;
+            }
+            return toProcess;
+        }
+
+        @Override
+        public void execute() {
+            agentInboxes.remove(inboxKey, this);
+            List<Event> toProcess = close();
+            SimaAgent scheduledReceiver = receiver;
+            try {
+                deliver(toProcess);
+            } finally {
+                if (scheduledReceiver != null)
+                    scheduledReceiver.removePendingTask();
+            }
+        }
+
+        private void deliver(List<Event> toProcess) {
+            if (toProcess.isEmpty())
+                return;
+
+            SimaAgent current = receiver != null ? receiver : resolve(inboxKey.target());
+            while (true)
+                try {
+                    receiver = current;
+                    if (current == null || current.isKilled())
+                        nbPurgedEvents.addAndGet(toProcess.size());
+                    else if (toProcess.size() == 1)
+                        current.processEvent(toProcess.get(0));
+                    else
+                        current.processEvents(toProcess);
+                    return;
+                } catch (PassivatedAgentException e) {
+                    current = resolve(inboxKey.target());
+                }
+        }
+
+        /**
+         * @return the receiver, null if it has not been searched yet.
+         */
+        @Override
+        public Object getLockMonitor() {
+            return receiver;
+        }
+    }
+
+    /**
+     * The events of an agent delayed to the next step because its inbox was full. All the events delayed for the agent during a step are scheduled
+     * again by only one {@link Executable} at the next step.
+     */
+    private class DelayedEvents implements Executable {
+
+        // Variables.
+
+        private final AgentIdentifier target;
+
+        /**
+         * The receiver, null if it was not materialized when the events have been delayed.
+         */
+        private SimaAgent receiver;
+
+        /**
+         * The delayed events, null when they have been scheduled again.
+         */
+        private List<Event> events;
+
+        /**
+         * The waiting time of each event, in the same order as the events.
+         */
+        private long[] waitingTimes;
+
+        // Constructors.
+
+        private DelayedEvents(AgentIdentifier target) {
+            this.target = target;
+            this.events = new ArrayList<>();
+            this.waitingTimes = new long[1];
+        }
+
+        // Methods.
+
+        /**
+         * Sets the receiver if it is not set yet and registers a pending task on it until the events are scheduled again.
+         *
+         * @param receiver the receiver, null if it is not materialized
+         */
+        private synchronized void setReceiver(SimaAgent receiver) {
+            if (this.receiver == null && receiver != null && events != null) {
+                this.receiver = receiver;
+                receiver.addPendingTask();
+            }
+        }
+
+        /**
+         * @param event       the event to delay
+         * @param waitingTime the waiting time of the event when it is scheduled again
+         *
+         * @return the number of delayed events after the add, 0 if the events have already been scheduled again and the event has not been added.
+         */
+        private synchronized int add(Event event, long waitingTime) {
+            if (events == null)
+                return 0;
+
+            if (events.size() == waitingTimes.length)
+                waitingTimes = Arrays.copyOf(waitingTimes, waitingTimes.length * 2);
+            waitingTimes[events.size()] = waitingTime;
+            events.add(event);
+            return events.size();
+        }
+
+        @Override
+        public void execute() {
+            delayedEvents.remove(target, this);
+            List<Event> toSchedule;
+            long[] toScheduleWaitingTimes;
+            SimaAgent current;
+            synchronized (this) {
+                toSchedule = events;
+                toScheduleWaitingTimes = waitingTimes;
+                current = receiver;
+                events = null;
+                waitingTimes = null;
+            }
+
+            try {
+                // A passivated receiver is searched again at the delivery.
+                SimaAgent toReceive = current != null && current.isPassivated() ? null : current;
+                for (int i = 0; i < toSchedule.size(); i++)
+                    scheduleEvent(target, toReceive, toSchedule.get(i), toScheduleWaitingTimes[i]);
+            } finally {
+                if (current != null)
+                    current.removePendingTask();
+            }
+        }
+    }
+
+    /**
+     * The pending events of an agent when the inbox capacity is bounded. Each scheduled event takes an {@link InboxSlot} which keeps the event until
+     * it is delivered or dropped. The slots are kept in the order in which they have been taken, the first one is the oldest pending event.
+     */
+    private static class BoundedInbox {
+
+        // Variables.
+
+        private final Set<InboxSlot> slots = new LinkedHashSet<>();
+
+        /**
+         * The number of events for the agent which have been dropped or refused. Guarded by the lock of the {@link BoundedInbox}.
+         */
+        private long nbDroppedEvents;
+
+        // Methods.
+
+        private InboxSlot take(Event event) {
+            var slot = new InboxSlot(this, event);
+            slots.add(slot);
+            return slot;
+        }
+
+        /**
+         * Drops the oldest pending event. The event is released from its slot, therefore the {@link Executable} which delivers it does not keep it
+         * until its delivery time.
+         */
+        private void dropOldest() {
+            Iterator<InboxSlot> iterator = slots.iterator();
+            iterator.next().event = null;
+            iterator.remove();
+            nbDroppedEvents++;
+        }
+
+        private synchronized Event release(InboxSlot slot) {
+            if (!slots.remove(slot))
+                return null;
+
+            var event = slot.event;
+            slot.event = null;
+            return event;
+        }
+
+        private int size() {
+            return slots.size();
+        }
+    }
+
+    /**
+     * The place of one pending event in a {@link BoundedInbox}. The identity of the slot matters, two slots are never equal.
+     */
+    private static final class InboxSlot {
+
+        // Variables.
+
+        private final BoundedInbox boundedInbox;
+
+        /**
+         * The pending event, null when it has been delivered or dropped. Guarded by the lock of the {@link #boundedInbox}.
+         */
+        private Event event;
+
+        // Constructors.
+
+        private InboxSlot(BoundedInbox boundedInbox, Event event) {
+            this.boundedInbox = boundedInbox;
+            this.event = event;
+        }
+
+        // Methods.
+
+        /**
+         * @return the event of the slot, null if the event has already been dropped.
+         */
+        private Event release() {
+            return boundedInbox.release(this);
+        }
+    }
+
     protected abstract class LoopExecutable implements Executable {
 
         // Variables.
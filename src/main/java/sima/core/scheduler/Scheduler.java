@@ -21,6 +21,11 @@ public interface Scheduler {
      */
     long NOW = 1;
 
+    /**
+     * The inbox capacity for which the number of pending events of an agent is not limited.
+     */
+    int UNBOUNDED_INBOX = 0;
+
     /**
      * Add the scheduler watcher. If the scheduler watcher is already added, nothing is done and returns false.
      * <p>
@@ -204,27 +209,62 @@ public interface Scheduler {
      *
      * @throws NullPointerException     if the event or the target is null.
      * @throws IllegalArgumentException if the waitingTime is less than {@link #NOW} or the target is not found in the simulation
+     * @throws InboxOverflowException   if the inbox of the target is full and the {@link InboxOverflowPolicy} is {@link
+     *                                  InboxOverflowPolicy#FAIL_SENDER}
      */
     default void scheduleEvent(AgentIdentifier target, Event event, long waitingTime) {
-        scheduleExecutableOnce(createExecutableFromEvent(Optional.of(target).get(), Optional.of(event).get()), waitingTime);
+        event = Optional.of(event).get();
+        SimaAgent receiver = SimaSimulation.getAgent(Optional.of(target).get());
+        if (receiver == null)
+            throw new IllegalArgumentException("SimaAgent identify by " + target + " has not been found");
+
+        scheduleExecutableOnce(createExecutableFromEvent(receiver, event), waitingTime);
+    }
+
+    /**
+     * Same as {@link #scheduleEvent(AgentIdentifier, Event, long)} but the target is identified by its agent handle. The agent is found with an
+     * array access in the {@link sima.core.simulation.AgentManager}.
+     *
+     * @param targetHandle the agent handle of the agent target
+     * @param event        the event to schedule
+     * @param waitingTime  the time to wait before send the event (greater or equal to {@link #NOW} if in repeated mod)
+     *
+     * @throws NullPointerException     if the event is null.
+     * @throws IllegalArgumentException if the waitingTime is less than {@link #NOW} or the target is not found in the simulation
+     * @throws InboxOverflowException   if the inbox of the target is full and the {@link InboxOverflowPolicy} is {@link
+     *                                  InboxOverflowPolicy#FAIL_SENDER}
+     * @see AgentIdentifier#getAgentHandle()
+     */
+    default void scheduleEvent(int targetHandle, Event event, long waitingTime) {
+        event = Optional.of(event).get();
+        SimaAgent receiver = SimaSimulation.getAgentByHandle(targetHandle);
+        if (receiver == null)
+            throw new IllegalArgumentException("SimaAgent with the agent handle " + targetHandle + " has not been found");
+
+        scheduleExecutableOnce(createExecutableFromEvent(receiver, event), waitingTime);
     }
 
-    private @NotNull Executable createExecutableFromEvent(AgentIdentifier target, Event event) {
-        final SimaAgent receiver = SimaSimulation.getAgent(target);
-        if (receiver != null) {
-            return new Executable() {
-                @Override
-                public void execute() {
+    /**
+     * The created {@link Executable} does not deliver the event if the receiver has been killed before the delivery time.
+     *
+     * @param receiver the agent receiver
+     * @param event    the event
+     *
+     * @return the {@link Executable} which delivers the event.
+     */
+    private @NotNull Executable createExecutableFromEvent(SimaAgent receiver, Event event) {
+        return new Executable() {
+            @Override
+            public void execute() {
+                if (!receiver.isKilled())
                     receiver.processEvent(event);
-                }
-
-                @Override
-                public Object getLockMonitor() {
-                    return receiver;
-                }
-            };
-        } else
-            throw new IllegalArgumentException("SimaAgent identify by " + target + " has not been found");
+            }
+
+            @Override
+            public Object getLockMonitor() {
+                return receiver;
+            }
+        };
     }
 
     /**
@@ -311,6 +351,63 @@ public interface Scheduler {
      */
     @NotNull SchedulerType getSchedulerType();
 
+    /**
+     * @return the {@link EventDeliveryMode} used by the methods scheduleEvent. The default implementation returns {@link
+     * EventDeliveryMode#PER_EVENT}.
+     */
+    default @NotNull EventDeliveryMode getEventDeliveryMode() {
+        return EventDeliveryMode.PER_EVENT;
+    }
+
+    /**
+     * @return the number of events scheduled with the methods scheduleEvent which have been dropped because their receiver has been killed before
+     * their delivery. The default implementation returns 0.
+     */
+    default long getNbPurgedEvents() {
+        return 0L;
+    }
+
+    /**
+     * @return the max number of events scheduled with the methods scheduleEvent which can be pending for one agent, {@link #UNBOUNDED_INBOX} if
+     * there is no limit. The default implementation returns {@link #UNBOUNDED_INBOX}.
+     */
+    default int getInboxCapacity() {
+        return UNBOUNDED_INBOX;
+    }
+
+    /**
+     * @return the {@link InboxOverflowPolicy} applied when an event is scheduled for an agent whose inbox is full. The default implementation returns
+     * {@link InboxOverflowPolicy#DROP_NEWEST}.
+     */
+    default @NotNull InboxOverflowPolicy getInboxOverflowPolicy() {
+        return InboxOverflowPolicy.DROP_NEWEST;
+    }
+
+    /**
+     * @return the number of events which have been dropped or refused because the inbox of their receiver was full. The default implementation
+     * returns 0.
+     */
+    default long getNbDroppedEvents() {
+        return 0L;
+    }
+
+    /**
+     * @return the number of times an event has been delayed to the next step because the inbox of its receiver was full. The default implementation
+     * returns 0.
+     */
+    default long getNbDelayedEvents() {
+        return 0L;
+    }
+
+    /**
+     * Called when the agent is removed from the simulation or passivated, the {@link Scheduler} forgets the state that it keeps for this instance of
+     * the agent. The events already scheduled for the agent are not cancelled. The default implementation does nothing.
+     *
+     * @param agent the removed or passivated agent
+     */
+    default void releaseAgent(SimaAgent agent) {
+    }
+
     // Inner classes.
 
     /**
@@ -334,6 +431,32 @@ public interface Scheduler {
         MULTI_THREAD, MONO_THREAD
     }
 
+    /**
+     * How {@link Event} scheduled with the methods scheduleEvent are delivered.
+     * <ul>
+     *     <li>{@link #PER_EVENT}: one {@link Executable} per {@code Event} which calls {@link SimaAgent#processEvent(Event)}</li>
+     *     <li>{@link #BATCHED}: all {@code Event} for the same agent at the same time are accumulated in an inbox, and only one {@code Executable}
+     *     calls {@link SimaAgent#processEvents(java.util.List)} with all of them</li>
+     * </ul>
+     */
+    enum EventDeliveryMode {
+        PER_EVENT, BATCHED
+    }
+
+    /**
+     * What is done when an {@link Event} is scheduled with the methods scheduleEvent for an agent which has already {@link #getInboxCapacity()}
+     * pending events.
+     * <ul>
+     *     <li>{@link #DROP_NEWEST}: the new {@code Event} is dropped</li>
+     *     <li>{@link #DROP_OLDEST}: the oldest pending {@code Event} of the agent is dropped to make room for the new one</li>
+     *     <li>{@link #DELAY_TO_NEXT_STEP}: the new {@code Event} is scheduled again at the next step, with the same waiting time</li>
+     *     <li>{@link #FAIL_SENDER}: the method scheduleEvent throws an {@link InboxOverflowException} to the sender</li>
+     * </ul>
+     */
+    enum InboxOverflowPolicy {
+        DROP_NEWEST, DROP_OLDEST, DELAY_TO_NEXT_STEP, FAIL_SENDER
+    }
+
     interface SchedulerWatcher {
 
         /**
@@ -357,6 +480,20 @@ public interface Scheduler {
         void noExecutableToExecute();
     }
 
+    /**
+     * Notified by a discrete time {@link Scheduler} at the barrier between two steps: all {@link Executable} of the finished step have been executed
+     * and none of the next step has started. The listener is called by only one thread and the changes it makes are visible by the {@link
+     * Executable} of the next step.
+     */
+    @FunctionalInterface
+    interface StepBarrierListener {
+
+        /**
+         * @param finishedStep the time of the step which is finished
+         */
+        void onStepBarrier(long finishedStep);
+    }
+
     class Condition {
 
         // Variables.
@@ -0,0 +1,96 @@
+package sima.core.scheduler.executor;
+
+import java.util.Optional;
+
+/**
+ * An {@link Executable} which can be cancelled before its execution, for example a timer which is no longer needed. A cancelled executable releases
+ * the executable which it wraps, therefore only this small wrapper stays in the scheduler until its time, and the scheduler skips it without giving
+ * it to its executor.
+ * <p>
+ * This class is thread safe.
+ */
+public final class CancellableExecutable implements Executable {
+
+    // Variables.
+
+    /**
+     * The executable to execute, null once it has been executed or cancelled. Guarded by the lock of this instance.
+     */
+    private Executable executable;
+
+    /**
+     * Called once if the executable is cancelled before its execution, can be null. Guarded by the lock of this instance.
+     */
+    private Runnable onCancel;
+
+    private volatile boolean cancelled;
+
+    // Constructors.
+
+    /**
+     * @param executable the executable to execute
+     *
+     * @throws IllegalArgumentException if the executable is null
+     */
+    public CancellableExecutable(Executable executable) {
+        this(executable, null);
+    }
+
+    /**
+     * @param executable the executable to execute
+     * @param onCancel   called once if the executable is cancelled before its execution, can be null
+     *
+     * @throws IllegalArgumentException if the executable is null
+     */
+    public CancellableExecutable(Executable executable, Runnable onCancel) {
+        this.executable = Optional.ofNullable(executable).orElseThrow(() -> new IllegalArgumentException("The executable cannot be null"));
+        this.onCancel = onCancel;
+        cancelled = false;
+    }
+
+    // Methods.
+
+    /**
+     * Executes the wrapped executable if it has not been cancelled and not already executed.
+     */
+    @Override
+    public void execute() {
+        Executable toExecute;
+        synchronized (this) {
+            toExecute = executable;
+            executable = null;
+            onCancel = null;
+        }
+
+        if (toExecute != null)
+            toExecute.execute();
+    }
+
+    /**
+     * Cancels the executable if it has not been executed yet. The wrapped executable is released and will never be executed.
+     *
+     * @return true if the executable has been cancelled by this call, false if it has already been executed or cancelled.
+     */
+    public boolean cancel() {
+        Runnable toRun;
+        synchronized (this) {
+            if (executable == null)
+                return false;
+
+            toRun = onCancel;
+            executable = null;
+            onCancel = null;
+            cancelled = true;
+        }
+
+        if (toRun != null)
+            toRun.run();
+        return true;
+    }
+
+    // Getters.
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
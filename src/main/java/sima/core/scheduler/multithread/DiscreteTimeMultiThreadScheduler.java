@@ -2,11 +2,13 @@ package sima.core.scheduler.multithread;
 
 import org.jetbrains.annotations.NotNull;
 import sima.core.scheduler.Scheduler;
+import sima.core.scheduler.executor.CancellableExecutable;
 import sima.core.scheduler.executor.Executable;
 import sima.core.scheduler.executor.MultiThreadExecutor;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class DiscreteTimeMultiThreadScheduler extends MultiThreadScheduler {
 
@@ -28,6 +30,11 @@ public class DiscreteTimeMultiThreadScheduler extends MultiThreadScheduler {
      */
     private StepFinishWatcher stepFinishWatcher;
 
+    /**
+     * Notified between two steps, before the time passes to the next step.
+     */
+    private final CopyOnWriteArrayList<StepBarrierListener> stepBarrierListeners;
+
     // Constructors.
 
     /**
@@ -39,6 +46,7 @@ public class DiscreteTimeMultiThreadScheduler extends MultiThreadScheduler {
     public DiscreteTimeMultiThreadScheduler(long endSimulation, int nbExecutorThread) {
         super(endSimulation, nbExecutorThread);
         mapExecutable = new ConcurrentHashMap<>();
+        stepBarrierListeners = new CopyOnWriteArrayList<>();
         currentTime = 0;
     }
 
@@ -105,6 +113,9 @@ public class DiscreteTimeMultiThreadScheduler extends MultiThreadScheduler {
      * This method is not thread safe, however, it is never called in parallel way.
      */
     private void executeNextStep() {
+        if (currentTime > 0)
+            notifyOnStepBarrier(currentTime);
+
         TreeSet<Long> sortedStepTimeSet = getSortedStepTimeSet();
         if (sortedStepTimeSet.isEmpty()) {
             endByNoExecutableToExecution();
@@ -122,6 +133,27 @@ public class DiscreteTimeMultiThreadScheduler extends MultiThreadScheduler {
         }
     }
 
+    private void notifyOnStepBarrier(long finishedStep) {
+        for (StepBarrierListener stepBarrierListener : stepBarrierListeners)
+            stepBarrierListener.onStepBarrier(finishedStep);
+    }
+
+    /**
+     * Adds the {@link sima.core.scheduler.Scheduler.StepBarrierListener}. It is notified at the end of each step, after the executables of the step
+     * and before the executables of the next step. If the listener is already added, nothing is done and returns false.
+     *
+     * @param stepBarrierListener the listener
+     *
+     * @return true if the listener has been added, else false.
+     */
+    public boolean addStepBarrierListener(StepBarrierListener stepBarrierListener) {
+        return stepBarrierListener != null && stepBarrierListeners.addIfAbsent(stepBarrierListener);
+    }
+
+    public void removeStepBarrierListener(StepBarrierListener stepBarrierListener) {
+        stepBarrierListeners.remove(stepBarrierListener);
+    }
+
     private @NotNull TreeSet<Long> getSortedStepTimeSet() {
         Set<Long> setStepTimeSet = mapExecutable.keySet();
         return new TreeSet<>(setStepTimeSet);
@@ -137,10 +169,13 @@ public class DiscreteTimeMultiThreadScheduler extends MultiThreadScheduler {
     }
 
     /**
-     * Give to the {@link #executor} all {@link Executable}s in the list map with the {@link #currentTime} in the map {@link #mapExecutable}.
+     * Give to the {@link #executor} all {@link Executable}s in the list map with the {@link #currentTime} in the map {@link #mapExecutable}. The
+     * cancelled {@link CancellableExecutable}s are dropped without being given to the executor.
      */
     private void executeAllExecutables(List<Executable> toExecute) {
-        toExecute.forEach(executable -> executor.execute(executable));
+        for (Executable executable : toExecute)
+            if (!(executable instanceof CancellableExecutable cancellable) || !cancellable.isCancelled())
+                executor.execute(executable);
     }
 
     private @NotNull List<Executable> getExecutableAtTime(long time) {
@@ -221,7 +256,7 @@ public class DiscreteTimeMultiThreadScheduler extends MultiThreadScheduler {
 
         private volatile boolean stopped = false;
 
-        private Thread stepFinisherThread;
+        private volatile Thread stepFinisherThread;
 
         // Constructors.
 
@@ -254,7 +289,10 @@ public class DiscreteTimeMultiThreadScheduler extends MultiThreadScheduler {
          */
         public void kill() {
             stopped = true;
-            stepFinisherThread.interrupt();
+            // The thread can be not yet started if the kill happens just after the start of the scheduler.
+            Thread thread = stepFinisherThread;
+            if (thread != null)
+                thread.interrupt();
         }
     }
 }
@@ -1,8 +1,13 @@
 package sima.core.simulation;
 
+import sima.core.agent.AgentDescriptor;
+import sima.core.agent.AgentHandleBinder;
 import sima.core.agent.AgentIdentifier;
 import sima.core.agent.SimaAgent;
+import sima.core.simulation.passivation.AgentStateCodec;
+import sima.core.simulation.passivation.PassivationStore;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface AgentManager {
@@ -16,6 +21,102 @@ public interface AgentManager {
      */
     boolean addAgent(SimaAgent agent);
 
+    /**
+     * Add all {@link SimaAgent} of the collection to the {@link AgentManager}. Agents already in the {@code AgentManager} are ignored.
+     * <p>
+     * The default implementation calls {@link #addAgent(SimaAgent)} for each agent.
+     *
+     * @param agents the agents to add
+     *
+     * @return the number of agents which have been added.
+     *
+     * @throws NullPointerException if the collection is null
+     */
+    default int addAllAgents(Collection<? extends SimaAgent> agents) {
+        var nbAdded = 0;
+        for (SimaAgent agent : agents)
+            if (addAgent(agent))
+                nbAdded++;
+
+        return nbAdded;
+    }
+
+    /**
+     * Registers the agent described by the {@link AgentDescriptor} without instantiating it: the {@link AgentIdentifier} of the descriptor is bound
+     * to an agent handle, and the agent is materialized and started the first time it is searched with {@link #getAgent(AgentIdentifier)}, {@link
+     * #getAgent(long)} or {@link #getAgentByHandle(int)}. {@link #getAllAgents()} only returns the materialized agents.
+     * <p>
+     * The default implementation does not support lazy agents: it materializes the agent, adds it with {@link #addAgent(SimaAgent)} and binds the
+     * identifier of the descriptor to the agent handle of the agent.
+     *
+     * @param agentDescriptor the descriptor of the agent to add
+     *
+     * @return true if the agent has been added, else false.
+     *
+     * @throws sima.core.exception.AgentMaterializationException if the agent is materialized and its materialization fails
+     */
+    default boolean addAgentDescriptor(AgentDescriptor agentDescriptor) {
+        if (agentDescriptor == null)
+            return false;
+
+        SimaAgent agent = agentDescriptor.materialize();
+        if (!addAgent(agent))
+            return false;
+
+        if (agent.getAgentIdentifier().hasAgentHandle())
+            AgentHandleBinder.getInstance().bind(agentDescriptor.getAgentIdentifier(), agent.getAgentIdentifier().getAgentHandle());
+        return true;
+    }
+
+    /**
+     * Calls {@link #addAgentDescriptor(AgentDescriptor)} for each descriptor of the collection.
+     *
+     * @param agentDescriptors the descriptors of the agents to add
+     *
+     * @return the number of agents which have been added.
+     *
+     * @throws NullPointerException if the collection is null
+     */
+    default int addAllAgentDescriptors(Collection<AgentDescriptor> agentDescriptors) {
+        var nbAdded = 0;
+        for (AgentDescriptor agentDescriptor : agentDescriptors)
+            if (addAgentDescriptor(agentDescriptor))
+                nbAdded++;
+
+        return nbAdded;
+    }
+
+    /**
+     * Passivates the agent: its state is saved in the store with the codec, the agent is passivated (see {@link SimaAgent#passivate()}) and
+     * replaced by an {@link AgentDescriptor}. The next search of the agent materializes a new instance of the agent whose state is restored with the
+     * codec. The agent keeps its agent handle and stays in its environments.
+     * <p>
+     * The default implementation does not support the passivation and returns false.
+     *
+     * @param agent           the agent to passivate
+     * @param agentStateCodec the codec of the state of the agent
+     * @param store           the store of the state
+     *
+     * @return true if the agent has been passivated, else false.
+     */
+    default boolean passivateAgent(SimaAgent agent, AgentStateCodec agentStateCodec, PassivationStore store) {
+        return false;
+    }
+
+    /**
+     * Remove the {@link SimaAgent} from the {@link AgentManager}. After this call, the agent cannot be found anymore with the {@code AgentManager} and
+     * its agent handle is not bound anymore. The agent handle is not reused for another agent.
+     * <p>
+     * The default implementation does not support the removal of agents and returns false.
+     *
+     * @param agent the agent to remove
+     *
+     * @return true if the agent has been removed, else false.
+     */
+    default boolean removeAgent(SimaAgent agent) {
+        return false;
+    }
+
     /**
      * Returns the list of all agents managed by the {@link AgentManager}. If these methods is called after the start of the simulation, therefore
      * these methods returns all agents in the simulation.
@@ -75,4 +176,40 @@ public interface AgentManager {
 
         return res;
     }
+
+    /**
+     * Searches the {@link SimaAgent} which has the specified agent handle. The agent handle is assigned by the {@link AgentManager} when the agent is
+     * added, see {@link AgentIdentifier#getAgentHandle()}.
+     * <p>
+     * This interface method has a not efficient default implementation. The default implementation browses the list of all agents returned by the
+     * method {@link #getAllAgents()} and search if a {@link SimaAgent} has the specified agent handle.
+     *
+     * @param agentHandle the agent handle of a {@link SimaAgent}
+     *
+     * @return the agent which has the specified agent handle if it exists, else null.
+     */
+    default SimaAgent getAgentByHandle(int agentHandle) {
+        if (agentHandle < 0)
+            return null;
+
+        for (SimaAgent agent : getAllAgents())
+            if (agent.getAgentIdentifier().getAgentHandle() == agentHandle)
+                return agent;
+
+        return null;
+    }
+
+    /**
+     * Searches if the agent at the agent handle is registered with an {@link AgentDescriptor} and is not materialized yet, without materializing it.
+     * It allows to keep only the identifier of the agent until it is really needed.
+     * <p>
+     * The default implementation does not support lazy agents and returns null.
+     *
+     * @param agentHandle the agent handle of a {@link SimaAgent}
+     *
+     * @return the identifier of the agent registered at the agent handle if it is not materialized, else null.
+     */
+    default AgentIdentifier getLazyAgentIdentifier(int agentHandle) {
+        return null;
+    }
 }
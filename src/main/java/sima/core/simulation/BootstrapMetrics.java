@@ -0,0 +1,124 @@
+package sima.core.simulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup-time report of a {@link SimaSimulation}. It contains the duration of each {@link Phase} of the bootstrap made in {@link
+ * SimaSimulation#runSimulation(sima.core.scheduler.Scheduler, java.util.Set, java.util.Set, SimulationSetup, SimaSimulation.SimaWatcher, int)}.
+ * <p>
+ * This class is not thread safe, it is only filled by the thread which runs the simulation.
+ */
+public final class BootstrapMetrics {
+
+    // Variables.
+
+    private final int parallelism;
+
+    private final Map<Phase, Long> phaseDurations;
+
+    private int nbAgents;
+
+    // Constructors.
+
+    /**
+     * @param parallelism the number of threads used during the bootstrap
+     */
+    public BootstrapMetrics(int parallelism) {
+        this.parallelism = parallelism;
+        this.phaseDurations = new EnumMap<>(Phase.class);
+        this.nbAgents = 0;
+    }
+
+    // Methods.
+
+    /**
+     * Adds the specified duration to the duration of the phase.
+     *
+     * @param phase         the phase
+     * @param durationNanos the duration in nanoseconds
+     *
+     * @throws NullPointerException     if the phase is null
+     * @throws IllegalArgumentException if the duration is less than 0
+     */
+    public void record(Phase phase, long durationNanos) {
+        phase = Optional.of(phase).get();
+        if (durationNanos < 0)
+            throw new IllegalArgumentException("The duration cannot be less than 0");
+
+        phaseDurations.merge(phase, durationNanos, Long::sum);
+    }
+
+    @Override
+    public String toString() {
+        var builder = new StringBuilder("[BootstrapMetrics - nbAgents=").append(nbAgents).append(", parallelism=").append(parallelism);
+        for (Phase phase : Phase.values())
+            builder.append(", ").append(phase).append("=").append(TimeUnit.NANOSECONDS.toMillis(getPhaseDuration(phase))).append("ms");
+        return builder.append(", TOTAL=").append(TimeUnit.NANOSECONDS.toMillis(getTotalDuration())).append("ms]").toString();
+    }
+
+    // Getters.
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getNbAgents() {
+        return nbAgents;
+    }
+
+    public void setNbAgents(int nbAgents) {
+        this.nbAgents = nbAgents;
+    }
+
+    /**
+     * @param phase the phase
+     *
+     * @return the duration in nanoseconds of the phase, 0 if the phase has not been recorded.
+     */
+    public long getPhaseDuration(@NotNull Phase phase) {
+        return phaseDurations.getOrDefault(phase, 0L);
+    }
+
+    /**
+     * @return the sum of the durations in nanoseconds of all phases.
+     */
+    public long getTotalDuration() {
+        long total = 0L;
+        for (long duration : phaseDurations.values())
+            total += duration;
+        return total;
+    }
+
+    // Inner classes.
+
+    /**
+     * The different phases of the bootstrap of a {@link SimaSimulation}.
+     */
+    public enum Phase {
+        /**
+         * Registration of all agents in the {@link AgentManager}, which assigns the agent handles.
+         */
+        AGENT_REGISTRATION,
+        /**
+         * Registration of all environments in the simulation.
+         */
+        ENVIRONMENT_REGISTRATION,
+        /**
+         * Binding of the agents which have joined environments before their registration to their agent handle in each environment.
+         */
+        ENVIRONMENT_BINDING,
+        /**
+         * Start of all agents and therefore the call of {@link sima.core.protocol.Protocol#onOwnerStart()} of all their protocols.
+         */
+        AGENT_START,
+        /**
+         * Execution of the {@link SimulationSetup}.
+         */
+        SIMULATION_SETUP
+    }
+}
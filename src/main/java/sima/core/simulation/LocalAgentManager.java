@@ -1,19 +1,43 @@
 package sima.core.simulation;
 
 import org.jetbrains.annotations.NotNull;
+import sima.core.agent.AgentDescriptor;
+import sima.core.agent.AgentHandleBinder;
+import sima.core.agent.AgentIdentifier;
 import sima.core.agent.SimaAgent;
+import sima.core.behavior.Behavior;
+import sima.core.exception.AgentMaterializationException;
+import sima.core.simulation.passivation.AgentStateCodec;
+import sima.core.simulation.passivation.PassivationStore;
+import sima.core.utils.LongHashMap;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class is an implementation of the interface {@link AgentManager} for a {@link SimaSimulation} running on a one process simulation. All
  * instances of {@link SimaAgent} in the simulation are in the same process and JVM.
+ * <p>
+ * Each added {@link SimaAgent} receives a dense agent handle which is its index in an internal array. The {@link AgentIdentifier} of the agent is
+ * bound to this handle, therefore {@link #getAgent(AgentIdentifier)} and {@link #getAgentByHandle(int)} are array accesses and do not browse the
+ * list of all agents.
+ * <p>
+ * An agent registered with an {@link AgentDescriptor} receives its agent handle at the registration, but it is only instantiated, wired and started
+ * the first time it is searched. The instantiation is done with the lock of the descriptor, therefore an agent is materialized only once even if
+ * several threads search it at the same time. The agent is then published and started with its own lock: a search during its start finds it
+ * without waiting, therefore agents can search each other in their start, and an event for the agent waits for the end of its start.
+ * <p>
+ * An agent materialized from an {@link AgentDescriptor} can be passivated: the manager keeps the first descriptor of each agent to instantiate and
+ * wire the agent again, and the passivated agent is replaced by a descriptor which also restores its state.
  */
 public class LocalAgentManager implements AgentManager {
 
+    // Static.
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private static final AgentHandleBinder HANDLE_BINDER = AgentHandleBinder.getInstance();
+
     // Variables.
 
     /**
@@ -21,23 +45,490 @@ public class LocalAgentManager implements AgentManager {
      */
     private final Set<SimaAgent> managedAgents;
 
+    /**
+     * Map {@link AgentIdentifier} to the {@link SimaAgent}. Used for identifiers which are not bound to an agent handle.
+     */
+    private final Map<AgentIdentifier, SimaAgent> mapAgents;
+
+    /**
+     * Agents indexed by their agent handle. Only written under the lock of the manager, the array reference is volatile and is written after each
+     * write in the array, therefore a reader which reads the reference sees all agents added before.
+     */
+    private volatile SimaAgent[] agentsByHandle;
+
+    /**
+     * Map {@link AgentIdentifier} to the {@link AgentDescriptor} of the agents which are not materialized.
+     */
+    private final Map<AgentIdentifier, AgentDescriptor> mapDescriptors;
+
+    /**
+     * Descriptors of the agents which are not materialized indexed by their agent handle. Has the same length as {@link #agentsByHandle} and is
+     * published in the same way. The slot of a descriptor is cleared after the publication of the materialized agent in {@link #agentsByHandle}.
+     */
+    private volatile AgentDescriptor[] descriptorsByHandle;
+
+    /**
+     * The first descriptor of each agent materialized from an {@link AgentDescriptor}, used to materialize the agent again after a passivation.
+     */
+    private final Map<AgentIdentifier, AgentDescriptor> originDescriptors;
+
+    /**
+     * The {@link AgentIdentifier} of the agents and of the descriptors indexed by their unique id. Guarded by the lock of the manager.
+     */
+    private final LongHashMap<AgentIdentifier> agentIdentifiersByUniqueId;
+
+    /**
+     * The number of passivations since the creation of the manager.
+     */
+    private long nbPassivations;
+
+    private int nbAgents;
+
     // Constructors.
 
     public LocalAgentManager() {
         this.managedAgents = new HashSet<>();
+        this.mapAgents = new ConcurrentHashMap<>();
+        this.agentsByHandle = new SimaAgent[DEFAULT_CAPACITY];
+        this.mapDescriptors = new ConcurrentHashMap<>();
+        this.descriptorsByHandle = new AgentDescriptor[DEFAULT_CAPACITY];
+        this.originDescriptors = new ConcurrentHashMap<>();
+        this.agentIdentifiersByUniqueId = new LongHashMap<>(DEFAULT_CAPACITY);
+        this.nbAgents = 0;
     }
 
     // Methods.
 
     @Override
-    public boolean addAgent(SimaAgent agent) {
+    public synchronized boolean addAgent(SimaAgent agent) {
         if (agent == null)
             return false;
-        return this.managedAgents.add(agent);
+
+        if (!this.managedAgents.add(agent))
+            return false;
+
+        SimaAgent[] agents = agentsByHandle;
+        if (nbAgents >= agents.length)
+            agents = grow(agents, agents.length * 2);
+        bindAgent(agents, agent);
+        agentsByHandle = agents;
+
+        return true;
     }
 
+    /**
+     * Grows the array of agents once for the whole collection and publishes it once, instead of once per agent.
+     *
+     * @param agents the agents to add
+     *
+     * @return the number of agents which have been added.
+     */
     @Override
-    public @NotNull List<SimaAgent> getAllAgents() {
-        return new ArrayList<>(this.managedAgents);
+    public synchronized int addAllAgents(Collection<? extends SimaAgent> agents) {
+        SimaAgent[] agentArray = agentsByHandle;
+        int required = nbAgents + agents.size();
+        if (required > agentArray.length)
+            agentArray = grow(agentArray, Math.max(required, agentArray.length * 2));
+
+        var nbAdded = 0;
+        for (SimaAgent agent : agents)
+            if (agent != null && this.managedAgents.add(agent)) {
+                bindAgent(agentArray, agent);
+                nbAdded++;
+            }
+
+        agentsByHandle = agentArray;
+        return nbAdded;
+    }
+
+    /**
+     * Grows the array of descriptors to the capacity and returns a copy of the array of agents with the same capacity. The caller publishes the
+     * returned array.
+     *
+     * @param agents   the current array of agents
+     * @param capacity the new capacity
+     *
+     * @return a copy of the array of agents with the new capacity.
+     */
+    private SimaAgent[] grow(SimaAgent[] agents, int capacity) {
+        descriptorsByHandle = Arrays.copyOf(descriptorsByHandle, capacity);
+        return Arrays.copyOf(agents, capacity);
+    }
+
+    /**
+     * Binds the identifier of the descriptor to the next agent handle without instantiating the agent. If the identifier is already registered,
+     * nothing is done and returns false. If the agent of the descriptor is already materialized, the agent is added with {@link
+     * #addAgent(SimaAgent)}.
+     *
+     * @param agentDescriptor the descriptor of the agent to add
+     *
+     * @return true if the agent has been added, else false.
+     */
+    @Override
+    public synchronized boolean addAgentDescriptor(AgentDescriptor agentDescriptor) {
+        if (agentDescriptor == null)
+            return false;
+
+        AgentIdentifier agentIdentifier = agentDescriptor.getAgentIdentifier();
+        if (mapDescriptors.containsKey(agentIdentifier) || mapAgents.containsKey(agentIdentifier))
+            return false;
+
+        if (agentDescriptor.isMaterialized())
+            return AgentManager.super.addAgentDescriptor(agentDescriptor);
+
+        SimaAgent[] agents = agentsByHandle;
+        if (nbAgents >= agents.length)
+            agentsByHandle = grow(agents, agents.length * 2);
+
+        AgentDescriptor[] descriptors = descriptorsByHandle;
+        int agentHandle = nbAgents++;
+        descriptors[agentHandle] = agentDescriptor;
+        HANDLE_BINDER.bind(agentIdentifier, agentHandle);
+        mapDescriptors.put(agentIdentifier, agentDescriptor);
+        agentIdentifiersByUniqueId.put(agentIdentifier.getAgentUniqueId(), agentIdentifier);
+        descriptorsByHandle = descriptors;
+
+        return true;
+    }
+
+    /**
+     * Materializes the agent of the descriptor if no other thread has done it, publishes it and starts it. An agent materialized again after a
+     * passivation is resumed (see {@link SimaAgent#resume()}): its start is not replayed. Only the instantiation and the wiring are
+     * done with the lock of the descriptor. The publication and the start are done with the lock of the agent: a thread which searches the agent
+     * during its start finds it without taking any lock, and a thread which finds the agent in the descriptor before its publication waits for the
+     * end of its start.
+     *
+     * @param agentDescriptor the descriptor
+     *
+     * @return the agent of the descriptor.
+     *
+     * @throws sima.core.exception.AgentMaterializationException if the materialization fails, the descriptor stays registered
+     */
+    private SimaAgent materialize(AgentDescriptor agentDescriptor) {
+        SimaAgent agent = agentDescriptor.materialize();
+        synchronized (agent) {
+            if (!agent.isStarted() && !agent.isKilled() && !agent.isPassivated()) {
+                boolean reactivated = isReactivation(agentDescriptor);
+                if (!publishMaterializedAgent(agentDescriptor, agent))
+                    return agent;
+
+                if (reactivated)
+                    agent.resume();
+                else
+                    agent.start();
+            }
+        }
+
+        return agent;
+    }
+
+    /**
+     * @return true if the descriptor materializes again an agent which has been passivated, its restored state has already been started.
+     */
+    private boolean isReactivation(AgentDescriptor agentDescriptor) {
+        AgentDescriptor origin = originDescriptors.get(agentDescriptor.getAgentIdentifier());
+        return origin != null && origin != agentDescriptor;
+    }
+
+    /**
+     * Replaces the descriptor by the agent at its agent handle. The agent is published before the descriptor is cleared, therefore a reader which
+     * does not find the descriptor finds the agent. If the agent has been killed, its agent handle is tombstoned.
+     *
+     * @param agentDescriptor the descriptor
+     * @param agent           the materialized agent
+     *
+     * @return true if the agent has been published, false if the descriptor is not registered anymore or if the agent has been killed.
+     */
+    private synchronized boolean publishMaterializedAgent(AgentDescriptor agentDescriptor, SimaAgent agent) {
+        AgentIdentifier agentIdentifier = agentDescriptor.getAgentIdentifier();
+        int agentHandle = agentIdentifier.getAgentHandle();
+        AgentDescriptor[] descriptors = descriptorsByHandle;
+        if (agentHandle < 0 || agentHandle >= nbAgents || descriptors[agentHandle] != agentDescriptor)
+            return false;
+
+        boolean published = !agent.isKilled() && managedAgents.add(agent);
+        if (published) {
+            SimaAgent[] agents = agentsByHandle;
+            agents[agentHandle] = agent;
+            mapAgents.put(agent.getAgentIdentifier(), agent);
+            originDescriptors.putIfAbsent(agentIdentifier, agentDescriptor);
+            agentsByHandle = agents;
+        } else {
+            HANDLE_BINDER.unbind(agent.getAgentIdentifier());
+            agentIdentifiersByUniqueId.remove(agentIdentifier.getAgentUniqueId());
+        }
+
+        descriptors[agentHandle] = null;
+        mapDescriptors.remove(agentIdentifier);
+        descriptorsByHandle = descriptors;
+        return published;
+    }
+
+    /**
+     * Passivates the agent if it has been materialized from an {@link AgentDescriptor}, if it is started, does not play any behavior, has no pending
+     * task (see {@link SimaAgent#hasPendingTasks()}) and if the codec can encode its state. The agent is passivated with its lock, therefore no event
+     * is processed during its passivation and an event given to the passivated instance after it throws a {@link
+     * sima.core.exception.PassivatedAgentException}.
+     *
+     * @param agent           the agent to passivate
+     * @param agentStateCodec the codec of the state of the agent
+     * @param store           the store of the state
+     *
+     * @return true if the agent has been passivated, else false.
+     */
+    @Override
+    public boolean passivateAgent(SimaAgent agent, AgentStateCodec agentStateCodec, PassivationStore store) {
+        if (agent == null || agentStateCodec == null || store == null)
+            return false;
+
+        synchronized (agent) {
+            AgentIdentifier agentIdentifier = agent.getAgentIdentifier();
+            AgentDescriptor origin = originDescriptors.get(agentIdentifier);
+            if (origin == null || !agent.isStarted() || !isManagedAt(agent, agentIdentifier.getAgentHandle()) || isPlayingBehavior(agent)
+                    || agent.hasPendingTasks())
+                return false;
+
+            byte[] state = agentStateCodec.encode(agent);
+            if (state == null)
+                return false;
+
+            int agentHandle = agentIdentifier.getAgentHandle();
+            store.put(agentHandle, state);
+            agent.passivate();
+            replaceByDescriptor(agent, new AgentDescriptor(origin.getAgentIdentifier(), origin.getAgentClass(), origin.getArgs(),
+                                                           origin.getEnvironments(), restoringWiring(origin, agentHandle, agentStateCodec, store)));
+            return true;
+        }
+    }
+
+    private boolean isManagedAt(SimaAgent agent, int agentHandle) {
+        SimaAgent[] agents = agentsByHandle;
+        return agentHandle >= 0 && agentHandle < agents.length && agents[agentHandle] == agent;
+    }
+
+    private static boolean isPlayingBehavior(SimaAgent agent) {
+        for (Behavior behavior : agent.getBehaviorList())
+            if (behavior.isPlaying())
+                return true;
+
+        return false;
+    }
+
+    /**
+     * @return a wiring which wires the agent as its first materialization and then restores its state from the store. The state is removed from the
+     * store once it has been restored.
+     */
+    private static AgentDescriptor.AgentWiring restoringWiring(AgentDescriptor origin, int agentHandle, AgentStateCodec agentStateCodec,
+                                                               PassivationStore store) {
+        return agent -> {
+            if (origin.getAgentWiring() != null)
+                origin.getAgentWiring().wire(agent);
+
+            byte[] state = store.get(agentHandle);
+            if (state == null)
+                throw new AgentMaterializationException("No passivated state for the agent " + agent.getAgentIdentifier());
+
+            agentStateCodec.decode(agent, state);
+            store.remove(agentHandle);
+        };
+    }
+
+    /**
+     * Publishes the descriptor at the agent handle of the agent before the agent is removed, therefore a reader which does not find the agent finds
+     * the descriptor.
+     *
+     * @param agent           the passivated agent
+     * @param agentDescriptor the descriptor which materializes the agent again
+     */
+    private synchronized void replaceByDescriptor(SimaAgent agent, AgentDescriptor agentDescriptor) {
+        AgentIdentifier agentIdentifier = agentDescriptor.getAgentIdentifier();
+        int agentHandle = agentIdentifier.getAgentHandle();
+
+        AgentDescriptor[] descriptors = descriptorsByHandle;
+        descriptors[agentHandle] = agentDescriptor;
+        mapDescriptors.put(agentIdentifier, agentDescriptor);
+        descriptorsByHandle = descriptors;
+
+        SimaAgent[] agents = agentsByHandle;
+        agents[agentHandle] = null;
+        managedAgents.remove(agent);
+        mapAgents.remove(agentIdentifier);
+        agentsByHandle = agents;
+
+        nbPassivations++;
+    }
+
+    /**
+     * Stores the agent in the array at the next agent handle and binds its {@link AgentIdentifier} to this handle. The array must have enough
+     * capacity.
+     *
+     * @param agents the array of agents
+     * @param agent  the agent to bind
+     */
+    private void bindAgent(SimaAgent[] agents, SimaAgent agent) {
+        int agentHandle = nbAgents++;
+        agents[agentHandle] = agent;
+
+        AgentIdentifier agentIdentifier = agent.getAgentIdentifier();
+        if (agentIdentifier != null) {
+            HANDLE_BINDER.bind(agentIdentifier, agentHandle);
+            mapAgents.put(agentIdentifier, agent);
+            agentIdentifiersByUniqueId.put(agentIdentifier.getAgentUniqueId(), agentIdentifier);
+        }
+    }
+
+    /**
+     * Tombstones the agent handle of the agent: the slot of the agent in the array is set to null and the handle is never reused, therefore a stale
+     * handle can never designate another agent.
+     *
+     * @param agent the agent to remove
+     *
+     * @return true if the agent has been removed, else false.
+     */
+    @Override
+    public synchronized boolean removeAgent(SimaAgent agent) {
+        if (agent == null || !this.managedAgents.remove(agent))
+            return false;
+
+        if (agent.getAgentIdentifier() != null)
+            originDescriptors.remove(agent.getAgentIdentifier());
+
+        SimaAgent[] agents = agentsByHandle;
+        AgentIdentifier agentIdentifier = agent.getAgentIdentifier();
+        if (agentIdentifier != null) {
+            mapAgents.remove(agentIdentifier);
+            agentIdentifiersByUniqueId.remove(agentIdentifier.getAgentUniqueId());
+            if (agentIdentifier.hasAgentHandle()) {
+                int agentHandle = agentIdentifier.getAgentHandle();
+                if (agentHandle < nbAgents && agents[agentHandle] == agent)
+                    agents[agentHandle] = null;
+                HANDLE_BINDER.unbind(agentIdentifier);
+            }
+        } else
+            for (int i = 0; i < nbAgents; i++)
+                if (agents[i] == agent)
+                    agents[i] = null;
+
+        agentsByHandle = agents;
+        return true;
+    }
+
+    @Override
+    public synchronized @NotNull List<SimaAgent> getAllAgents() {
+        List<SimaAgent> agents = new ArrayList<>(managedAgents.size());
+        SimaAgent[] agentArray = agentsByHandle;
+        for (int i = 0; i < nbAgents; i++)
+            if (agentArray[i] != null)
+                agents.add(agentArray[i]);
+
+        return agents;
+    }
+
+    /**
+     * Uses the agent handle of the {@link AgentIdentifier} if it is bound, else searches in a map. Never browses the list of all agents. Materializes
+     * the agent if it is not already done.
+     *
+     * @param agentIdentifier the agent identifier
+     *
+     * @return the agent which is associated to the {@link AgentIdentifier} if it exists, else null.
+     */
+    @Override
+    public SimaAgent getAgent(AgentIdentifier agentIdentifier) {
+        if (agentIdentifier == null)
+            return null;
+
+        if (agentIdentifier.hasAgentHandle()) {
+            SimaAgent agent = getAgentByHandle(agentIdentifier.getAgentHandle());
+            if (agent != null && agentIdentifier.equals(agent.getAgentIdentifier()))
+                return agent;
+        }
+
+        SimaAgent agent = mapAgents.get(agentIdentifier);
+        if (agent != null)
+            return agent;
+
+        AgentDescriptor agentDescriptor = mapDescriptors.get(agentIdentifier);
+        if (agentDescriptor != null)
+            return materialize(agentDescriptor);
+
+        // The agent is published before its descriptor is removed.
+        return mapAgents.get(agentIdentifier);
+    }
+
+    /**
+     * Finds the {@link AgentIdentifier} of the agent in an index by unique id and then searches the agent with it, never browses the agents.
+     * Materializes the agent if it is not already done.
+     *
+     * @param uniqueId the unique id of a {@link SimaAgent}
+     *
+     * @return the agent which has the specified unique id if it exists, else null.
+     */
+    @Override
+    public SimaAgent getAgent(long uniqueId) {
+        if (uniqueId < 0)
+            return null;
+
+        AgentIdentifier agentIdentifier;
+        synchronized (this) {
+            agentIdentifier = agentIdentifiersByUniqueId.get(uniqueId);
+        }
+
+        return agentIdentifier != null ? getAgent(agentIdentifier) : null;
+    }
+
+    /**
+     * Materializes the agent if it is not already done.
+     *
+     * @param agentHandle the agent handle of a {@link SimaAgent}
+     *
+     * @return the agent which has the specified agent handle if it exists, else null.
+     */
+    @Override
+    public SimaAgent getAgentByHandle(int agentHandle) {
+        SimaAgent[] agents = agentsByHandle;
+        if (agentHandle < 0 || agentHandle >= agents.length)
+            return null;
+
+        SimaAgent agent = agents[agentHandle];
+        if (agent != null)
+            return agent;
+
+        AgentDescriptor[] descriptors = descriptorsByHandle;
+        if (agentHandle < descriptors.length && descriptors[agentHandle] != null)
+            return materialize(descriptors[agentHandle]);
+
+        // The agent is published before its descriptor is cleared.
+        return agentsByHandle[agentHandle];
+    }
+
+    /**
+     * Does not materialize the agent.
+     *
+     * @param agentHandle the agent handle of a {@link SimaAgent}
+     *
+     * @return the identifier of the agent registered at the agent handle if it is not materialized, else null.
+     */
+    @Override
+    public AgentIdentifier getLazyAgentIdentifier(int agentHandle) {
+        AgentDescriptor[] descriptors = descriptorsByHandle;
+        if (agentHandle < 0 || agentHandle >= descriptors.length)
+            return null;
+
+        AgentDescriptor agentDescriptor = descriptors[agentHandle];
+        return agentDescriptor != null ? agentDescriptor.getAgentIdentifier() : null;
+    }
+
+    /**
+     * @return the number of agents registered with an {@link AgentDescriptor} which are not materialized.
+     */
+    public int getNbLazyAgents() {
+        return mapDescriptors.size();
+    }
+
+    /**
+     * @return the number of passivations since the creation of the manager, an agent passivated several times is counted several times.
+     */
+    public synchronized long getNbPassivations() {
+        return nbPassivations;
     }
 }
@@ -0,0 +1,62 @@
+package sima.core.simulation;
+
+import sima.core.utils.ParallelRanges;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Applies an action on all elements of a list by partitioning the list across a {@link ForkJoinPool}. Used by {@link SimaSimulation} to bootstrap
+ * a large number of agents.
+ * <p>
+ * If the parallelism is equal to 1, the action is applied sequentially on the caller thread in the order of the list.
+ */
+final class ParallelBootstrap {
+
+    // Static.
+
+    /**
+     * Number of partitions created per thread. More partitions than threads allow the pool to balance actions which have not the same cost.
+     */
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    // Constructors.
+
+    private ParallelBootstrap() {
+    }
+
+    // Methods.
+
+    /**
+     * Applies the action on all elements of the list. The method returns when the action has been applied on all elements. If the action throws a
+     * {@link RuntimeException}, the exception is rethrown by this method.
+     *
+     * @param elements    the elements
+     * @param parallelism the number of threads to use
+     * @param action      the action to apply on each element
+     * @param <T>         the type of elements
+     *
+     * @throws IllegalArgumentException if the parallelism is less than 1
+     */
+    static <T> void forEach(List<T> elements, int parallelism, Consumer<? super T> action) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be greater or equal to 1");
+
+        if (parallelism == 1 || elements.size() <= 1) {
+            elements.forEach(action);
+            return;
+        }
+
+        int threshold = Math.max(1, elements.size() / (parallelism * PARTITIONS_PER_THREAD));
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            ParallelRanges.forEachRange(pool, 0, elements.size(), threshold, (from, to) -> {
+                for (int i = from; i < to; i++)
+                    action.accept(elements.get(i));
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package sima.core.simulation;
 
 import org.jetbrains.annotations.NotNull;
+import sima.core.agent.AgentDescriptor;
 import sima.core.agent.AgentIdentifier;
 import sima.core.agent.SimaAgent;
 import sima.core.environment.Environment;
@@ -9,9 +10,12 @@ import sima.core.exception.SimaSimulationFailToStartRunningException;
 import sima.core.exception.SimaSimulationIsNotRunningException;
 import sima.core.scheduler.Scheduler;
 import sima.core.simulation.configuration.parser.ConfigurationParser;
+import sima.core.simulation.passivation.AgentStateCodec;
+import sima.core.simulation.passivation.PassivationStore;
 import sima.core.utils.SimaLogger;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class SimaSimulation {
 
@@ -19,7 +23,7 @@ public final class SimaSimulation {
 
     private static final Object LOCK = new Object();
     public static final SimaLogger SimaLog = new SimaLogger(SimaSimulation.class);
-    private static SimaSimulation simaSimulation;
+    private static volatile SimaSimulation simaSimulation;
 
     // Variables
 
@@ -32,9 +36,17 @@ public final class SimaSimulation {
 
     private SimaSimulationWatcher simaWatcher;
 
+    private BootstrapMetrics bootstrapMetrics;
+
+    /**
+     * The number of killed agents which have been removed from the simulation.
+     */
+    private final AtomicLong nbReclaimedAgents;
+
     // Constructors.
 
     private SimaSimulation() {
+        nbReclaimedAgents = new AtomicLong();
     }
 
     // Methods.
@@ -49,8 +61,8 @@ public final class SimaSimulation {
             var configurationParser = new ConfigurationParser(configurationJsonPath);
             ConfigurationParser.ConfigurationBundle bundle;
             bundle = configurationParser.parseSimulation();
-            runSimulation(bundle.getScheduler(), bundle.getAllAgents(), bundle.getAllEnvironments(), bundle.getSimulationSetup(),
-                          bundle.getSimaWatcher());
+            runSimulation(bundle.getScheduler(), bundle.getAllAgents(), bundle.getAllAgentDescriptors(), bundle.getAllEnvironments(),
+                          bundle.getSimulationSetup(), bundle.getSimaWatcher(), bundle.getBootstrapParallelism());
         } catch (Exception e) {
             throw new SimaSimulationFailToStartRunningException(
                     "Fail parse SimaSimulation Json configuration file : " + configurationJsonPath, e);
@@ -80,30 +92,135 @@ public final class SimaSimulation {
     public static void runSimulation(Scheduler scheduler, Set<SimaAgent> allAgents, Set<Environment> allEnvironments, SimulationSetup simulationSetup,
                                      SimaWatcher simaWatcher)
             throws SimaSimulationFailToStartRunningException {
+        runSimulation(scheduler, allAgents, allEnvironments, simulationSetup, simaWatcher, 1);
+    }
+
+    /**
+     * Same as {@link #runSimulation(Scheduler, Set, Set, SimulationSetup, SimaWatcher)} but the binding of agents in environments and the start of
+     * agents are partitioned across {@code bootstrapParallelism} threads. Agents are started concurrently, therefore the {@link
+     * sima.core.protocol.Protocol#onOwnerStart()} of protocols of different agents must not share not thread safe state. With a {@code
+     * bootstrapParallelism} equal to 1, the bootstrap is sequential. The agents are started without the lock of the simulation, therefore their start
+     * can call the methods of {@link SimaSimulation} which take it, as {@link #simaSimulationIsRunning()} or {@link #killSimulation()}.
+     * <p>
+     * The duration of each phase of the bootstrap is available with {@link #getBootstrapMetrics()} and is logged at the end of the bootstrap.
+     *
+     * @param scheduler            the scheduler of the simulation
+     * @param allAgents            the set of all instances of agents in the simulation
+     * @param allEnvironments      the set of all instances of environments in the simulation
+     * @param simulationSetup      the {@link SimulationSetup}
+     * @param simaWatcher          the simulation watcher
+     * @param bootstrapParallelism the number of threads used to bootstrap the simulation
+     *
+     * @throws SimaSimulationFailToStartRunningException if exception is thrown during the start of the simulation or if the bootstrapParallelism is
+     *                                                   less than 1
+     */
+    public static void runSimulation(Scheduler scheduler, Set<SimaAgent> allAgents, Set<Environment> allEnvironments, SimulationSetup simulationSetup,
+                                     SimaWatcher simaWatcher, int bootstrapParallelism)
+            throws SimaSimulationFailToStartRunningException {
+        runSimulation(scheduler, allAgents, null, allEnvironments, simulationSetup, simaWatcher, bootstrapParallelism);
+    }
+
+    /**
+     * Same as {@link #runSimulation(Scheduler, Set, Set, SimulationSetup, SimaWatcher, int)} but some agents are only described by an {@link
+     * AgentDescriptor}. They are registered in the {@link AgentManager} with {@link AgentManager#addAgentDescriptor(AgentDescriptor)} and are
+     * instantiated and started the first time they are searched in the simulation, for example when an event is scheduled for them. The environments
+     * must already know the identifiers of the descriptors.
+     *
+     * @param scheduler            the scheduler of the simulation
+     * @param allAgents            the set of all instances of agents in the simulation
+     * @param allAgentDescriptors  the set of descriptors of the agents which are not instantiated, can be null
+     * @param allEnvironments      the set of all instances of environments in the simulation
+     * @param simulationSetup      the {@link SimulationSetup}
+     * @param simaWatcher          the simulation watcher
+     * @param bootstrapParallelism the number of threads used to bootstrap the simulation
+     *
+     * @throws SimaSimulationFailToStartRunningException if exception is thrown during the start of the simulation or if the bootstrapParallelism is
+     *                                                   less than 1
+     */
+    public static void runSimulation(Scheduler scheduler, Set<SimaAgent> allAgents, Set<AgentDescriptor> allAgentDescriptors,
+                                     Set<Environment> allEnvironments, SimulationSetup simulationSetup, SimaWatcher simaWatcher,
+                                     int bootstrapParallelism)
+            throws SimaSimulationFailToStartRunningException {
+        SimaSimulation bootstrapped;
+        BootstrapMetrics metrics;
         synchronized (LOCK) {
-            if (!simaSimulationIsRunning())
-                try {
-                    createNewSimaSimulationSingletonInstance();
-                    simaSimulationAddSimaWatcher(simaWatcher);
-                    simaSimulationSetScheduler(scheduler);
-                    simaSimulationAddAllAgents(allAgents);
-                    simaSimulationAddEnvironments(allEnvironments);
-                    simaSimulationStartAllAgents();
-                    simaSimulationExecuteSimulationSetup(simulationSetup);
-                    simaSimulationNotifyOnSimulationStarted();
-                    simaSimulationStartScheduler();
-                    SimaLog.info("SimaSimulation RUN");
-                } catch (Exception e) {
-                    killSimulation();
-                    throw new SimaSimulationFailToStartRunningException(e);
-                }
-            else {
+            if (simaSimulationIsRunning()) {
                 SimaLog.error("Simulation already running");
                 throw new SimaSimulationFailToStartRunningException(new SimaSimulationAlreadyRunningException());
             }
+
+            try {
+                if (bootstrapParallelism < 1)
+                    throw new IllegalArgumentException("The bootstrapParallelism must be greater or equal to 1");
+
+                createNewSimaSimulationSingletonInstance();
+                bootstrapped = simaSimulation;
+                metrics = new BootstrapMetrics(bootstrapParallelism);
+                simaSimulation.bootstrapMetrics = metrics;
+                simaSimulationAddSimaWatcher(simaWatcher);
+                simaSimulationSetScheduler(scheduler);
+                timePhase(metrics, BootstrapMetrics.Phase.AGENT_REGISTRATION, () -> simaSimulationAddAllAgents(allAgents, allAgentDescriptors));
+                timePhase(metrics, BootstrapMetrics.Phase.ENVIRONMENT_REGISTRATION, () -> simaSimulationAddEnvironments(allEnvironments));
+                timePhase(metrics, BootstrapMetrics.Phase.ENVIRONMENT_BINDING, () -> simaSimulationBindEnvironments(bootstrapParallelism));
+            } catch (Exception e) {
+                killSimulation();
+                throw new SimaSimulationFailToStartRunningException(e);
+            }
+        }
+
+        // The agents are started without the lock: the start of an agent runs on a worker thread and can call a method synchronized on the lock.
+        try {
+            timePhase(metrics, BootstrapMetrics.Phase.AGENT_START, () -> startAllAgents(bootstrapped.agentManager, bootstrapParallelism));
+        } catch (Exception e) {
+            killSimulationIfCurrent(bootstrapped);
+            throw new SimaSimulationFailToStartRunningException(e);
+        }
+
+        synchronized (LOCK) {
+            if (simaSimulation != bootstrapped) {
+                SimaLog.info("SimaSimulation KILLED during the start of the agents");
+                return;
+            }
+
+            try {
+                timePhase(metrics, BootstrapMetrics.Phase.SIMULATION_SETUP, () -> simaSimulationExecuteSimulationSetup(simulationSetup));
+                metrics.setNbAgents(simaSimulation.agentManager.getAllAgents().size());
+                SimaLog.info("SimaSimulation BOOTSTRAPPED " + metrics);
+                simaSimulationNotifyOnSimulationStarted();
+                simaSimulationStartScheduler();
+                SimaLog.info("SimaSimulation RUN");
+            } catch (Exception e) {
+                killSimulation();
+                throw new SimaSimulationFailToStartRunningException(e);
+            }
+        }
+    }
+
+    /**
+     * Kills the simulation only if it is still the specified one, a simulation started after it is not killed.
+     *
+     * @param bootstrapped the simulation to kill
+     */
+    private static void killSimulationIfCurrent(SimaSimulation bootstrapped) {
+        synchronized (LOCK) {
+            if (simaSimulation == bootstrapped)
+                killSimulation();
         }
     }
 
+    /**
+     * Executes the phase and records its duration in the metrics.
+     *
+     * @param metrics the bootstrap metrics
+     * @param phase   the phase
+     * @param action  the phase to execute
+     */
+    private static void timePhase(BootstrapMetrics metrics, BootstrapMetrics.Phase phase, Runnable action) {
+        long begin = System.nanoTime();
+        action.run();
+        metrics.record(phase, System.nanoTime() - begin);
+    }
+
     /**
      * Create a new instance of {@link SimaSimulation} only if there is no instance of it.
      * <p>
@@ -140,14 +257,19 @@ public final class SimaSimulation {
      * <p>
      * This method must be called even if allAgents is null are empty because this method create a new instance of {@link #agentManager}.
      *
-     * @param allAgents the set of agents to add.
+     * @param allAgents           the set of agents to add.
+     * @param allAgentDescriptors the set of descriptors of the lazy agents to add, can be null
      *
      * @throws NullPointerException if one agent is null.
      */
-    private static void simaSimulationAddAllAgents(Set<SimaAgent> allAgents) {
+    private static void simaSimulationAddAllAgents(Set<SimaAgent> allAgents, Set<AgentDescriptor> allAgentDescriptors) {
         createNewAgentManager();
         if (allAgents != null && !allAgents.isEmpty())
             addAllAgents(allAgents);
+        if (allAgentDescriptors != null && !allAgentDescriptors.isEmpty()) {
+            int nbAdded = simaSimulation.agentManager.addAllAgentDescriptors(allAgentDescriptors);
+            SimaLog.info(nbAdded + " lazy agents ADDED in SimaSimulation");
+        }
     }
 
     private static void createNewAgentManager() {
@@ -155,10 +277,19 @@ public final class SimaSimulation {
             simaSimulation.agentManager = new LocalAgentManager();
     }
 
+    /**
+     * Registers all agents at once in the {@link #agentManager}. Only one log is done for all agents.
+     *
+     * @param allAgents the set of agents to add
+     *
+     * @throws NullPointerException if one agent is null.
+     */
     private static void addAllAgents(Set<SimaAgent> allAgents) {
-        for (SimaAgent agent : allAgents) {
-            addAgent(Optional.of(agent).get());
-        }
+        if (allAgents.stream().anyMatch(Objects::isNull))
+            throw new NullPointerException("An agent cannot be null");
+
+        int nbAdded = simaSimulation.agentManager.addAllAgents(allAgents);
+        SimaLog.info(nbAdded + " agents ADDED in SimaSimulation");
     }
 
     /**
@@ -205,13 +336,26 @@ public final class SimaSimulation {
     }
 
     /**
-     * Start all agents in managed by {@link #agentManager}.
+     * Binds in each environment the agents which have joined it before their registration to their agent handle. Environments are partitioned across
+     * the specified number of threads.
+     *
+     * @param parallelism the number of threads
      */
-    private static void simaSimulationStartAllAgents() {
-        for (SimaAgent agent : simaSimulation.agentManager.getAllAgents()) {
+    private static void simaSimulationBindEnvironments(int parallelism) {
+        ParallelBootstrap.forEach(new ArrayList<>(simaSimulation.environments.values()), parallelism, Environment::bindAgentHandles);
+    }
+
+    /**
+     * Start all agents managed by the {@link AgentManager}. Agents are partitioned across the specified number of threads.
+     *
+     * @param agentManager the agent manager of the bootstrapped simulation
+     * @param parallelism  the number of threads
+     */
+    private static void startAllAgents(AgentManager agentManager, int parallelism) {
+        ParallelBootstrap.forEach(agentManager.getAllAgents(), parallelism, agent -> {
             if (!agent.isStarted())
                 agent.start();
-        }
+        });
     }
 
     private static void simaSimulationNotifyOnSimulationStarted() {
@@ -243,7 +387,9 @@ public final class SimaSimulation {
 
     private static void destroySimaSimulationSingleton() {
         if (simaSimulation != null)
-            SimaLog.info("SimaSimulation KILLED");
+            SimaLog.info("SimaSimulation KILLED - " + simaSimulation.nbReclaimedAgents.get() + " killed agents reclaimed, " +
+                                 (simaSimulation.scheduler != null ? simaSimulation.scheduler.getNbPurgedEvents() : 0L) +
+                                 " pending events purged");
 
         simaSimulation = null;
     }
@@ -310,6 +456,71 @@ public final class SimaSimulation {
             SimaLog.info(agent + " ADDED in SimaSimulation");
     }
 
+    /**
+     * Removes the killed agent from the {@link #agentManager} and from all environments of the simulation, in that way the agent can be garbage
+     * collected. The agent handle of the agent is tombstoned and is never reused. Events already scheduled for the agent are dropped by the scheduler
+     * when their delivery time comes (see {@link Scheduler#getNbPurgedEvents()}).
+     * <p>
+     * This method is called by {@link SimaAgent#kill()}. It does nothing if the simulation is not running or if the agent is not killed. It does not
+     * take the lock {@link #LOCK} because it can be called by an agent during the kill of the simulation.
+     *
+     * @param agent the killed agent
+     */
+    public static void reclaimAgent(SimaAgent agent) {
+        SimaSimulation current = simaSimulation;
+        if (current == null || current.agentManager == null || agent == null || !agent.isKilled())
+            return;
+
+        if (current.environments != null)
+            for (Environment environment : current.environments.values())
+                environment.leave(agent.getAgentIdentifier());
+
+        if (current.agentManager.removeAgent(agent)) {
+            if (current.scheduler != null)
+                current.scheduler.releaseAgent(agent);
+            current.nbReclaimedAgents.incrementAndGet();
+            SimaLog.info("%s RECLAIMED from SimaSimulation", agent);
+        }
+    }
+
+    /**
+     * Passivates the agent with {@link AgentManager#passivateAgent(SimaAgent, AgentStateCodec, PassivationStore)}. The agent is reactivated the next
+     * time it is searched in the simulation, in particular when an event is scheduled or delivered for it.
+     *
+     * @param agent           the agent to passivate
+     * @param agentStateCodec the codec of the state of the agent
+     * @param store           the store of the state
+     *
+     * @return true if the agent has been passivated, else false.
+     */
+    public static boolean passivateAgent(SimaAgent agent, AgentStateCodec agentStateCodec, PassivationStore store) {
+        verifySimaSimulationIsRunning();
+        if (!simaSimulation.agentManager.passivateAgent(agent, agentStateCodec, store))
+            return false;
+
+        simaSimulation.scheduler.releaseAgent(agent);
+        return true;
+    }
+
+    /**
+     * @return the list of the agents of the simulation which are instantiated, the lazy and passivated agents are not in the list. Never returns
+     * null.
+     */
+    public static @NotNull List<SimaAgent> getAllAgents() {
+        verifySimaSimulationIsRunning();
+        return simaSimulation.agentManager.getAllAgents();
+    }
+
+    /**
+     * @return the number of killed agents which have been removed from the running simulation.
+     *
+     * @see #reclaimAgent(SimaAgent)
+     */
+    public static long getNbReclaimedAgents() {
+        verifySimaSimulationIsRunning();
+        return simaSimulation.nbReclaimedAgents.get();
+    }
+
     /**
      * Finds in the {@link #agentManager} the agent which as the same {@link AgentIdentifier} than the specified agent identifier.
      *
@@ -329,6 +540,34 @@ public final class SimaSimulation {
         return simaSimulation.findAgent(uniqueId);
     }
 
+    /**
+     * Finds in the {@link #agentManager} the agent which has the specified agent handle.
+     *
+     * @param agentHandle the agent handle of the wanted agent
+     *
+     * @return the agent which has the agent handle, returns null if the agent is not found.
+     *
+     * @see AgentIdentifier#getAgentHandle()
+     */
+    public static SimaAgent getAgentByHandle(int agentHandle) {
+        verifySimaSimulationIsRunning();
+        return simaSimulation.agentManager.getAgentByHandle(agentHandle);
+    }
+
+    /**
+     * Searches in the {@link #agentManager} if the agent at the agent handle is not materialized yet, without materializing it.
+     *
+     * @param agentHandle the agent handle of the wanted agent
+     *
+     * @return the identifier of the agent at the agent handle if it is not materialized, else null.
+     *
+     * @see AgentManager#getLazyAgentIdentifier(int)
+     */
+    public static AgentIdentifier getLazyAgentIdentifier(int agentHandle) {
+        verifySimaSimulationIsRunning();
+        return simaSimulation.agentManager.getLazyAgentIdentifier(agentHandle);
+    }
+
     /**
      * Verifies if the environment name is not already know by the simulation. If it not the case, add the environment in the simulation and returns
      * true, else do nothing and returns false.
@@ -410,11 +649,21 @@ public final class SimaSimulation {
         return simaSimulation.scheduler.getSchedulerType();
     }
 
+    /**
+     * @return the startup-time report of the running simulation. Never returns null.
+     */
+    public static @NotNull BootstrapMetrics getBootstrapMetrics() {
+        verifySimaSimulationIsRunning();
+        return simaSimulation.bootstrapMetrics;
+    }
+
     /**
      * Verifies if the SimaSimulation is running, if it is not the case, throws a {@link SimaSimulationIsNotRunningException}.
+     * <p>
+     * This method is called by all getters of the simulation, it reads the volatile singleton without taking the lock {@link #LOCK}.
      */
     private static void verifySimaSimulationIsRunning() {
-        if (!simaSimulationIsRunning())
+        if (simaSimulation == null)
             throw new SimaSimulationIsNotRunningException();
     }
 
@@ -1,6 +1,7 @@
 package sima.core.simulation;
 
 import java.util.Random;
+import java.util.SplittableRandom;
 
 public class SimaSimulationUtils {
     
@@ -8,6 +9,25 @@ public class SimaSimulationUtils {
     
     private static Random random = createRandom();
     
+    /**
+     * The stream from which the stream of each thread is split. Guarded by the class lock.
+     */
+    private static SplittableRandom rootStream = new SplittableRandom();
+    
+    /**
+     * Incremented each time the {@link #rootStream} is replaced, a thread whose stream comes from an older generation splits a new stream.
+     */
+    private static volatile long streamGeneration = 0L;
+    
+    private static final ThreadLocal<ThreadStream> THREAD_STREAMS = new ThreadLocal<>();
+    
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    
+    /**
+     * The seed of the streams given by {@link #keyedRandom(long, long)}, replaced by {@link #resetRandom()} and {@link #setRandomSeed(long)}.
+     */
+    private static volatile long keyedSeed = new SplittableRandom().nextLong();
+    
     // Constructors.
     
     private SimaSimulationUtils() {
@@ -24,6 +44,7 @@ public class SimaSimulationUtils {
      */
     public static void resetRandom() {
         random = createRandom();
+        resetStreams(new SplittableRandom());
     }
     
     /**
@@ -33,6 +54,121 @@ public class SimaSimulationUtils {
      */
     public static void setRandomSeed(long seed) {
         random.setSeed(seed);
+        resetStreams(new SplittableRandom(seed));
+    }
+    
+    private static synchronized void resetStreams(SplittableRandom newRootStream) {
+        keyedSeed = newRootStream.split().nextLong();
+        rootStream = newRootStream;
+        streamGeneration++;
+    }
+    
+    private static synchronized SplittableRandom splitRootStream() {
+        return rootStream.split();
+    }
+    
+    /**
+     * Returns the random stream of the current thread. Each thread has its own {@link SplittableRandom} split from a root stream, therefore
+     * threads never share a seed and the draws are not contended. The root stream is reset by {@link #resetRandom()} and {@link
+     * #setRandomSeed(long)}, after that each thread splits a new stream at its next call.
+     * <p>
+     * The returned {@link SplittableRandom} must not be given to another thread.
+     *
+     * @return the random stream of the current thread.
+     */
+    public static SplittableRandom threadRandom() {
+        var stream = THREAD_STREAMS.get();
+        long generation = streamGeneration;
+        if (stream == null || stream.generation != generation) {
+            stream = new ThreadStream(generation, splitRootStream());
+            THREAD_STREAMS.set(stream);
+        }
+        
+        return stream.random;
+    }
+    
+    /**
+     * Returns a new random stream which only depends on the seed set with {@link #setRandomSeed(long)} and on the key and the sequence. Unlike
+     * {@link #threadRandom()}, the stream does not depend on the thread which calls this method, therefore the draws done with it are the same
+     * at each run with the same seed, whatever the interleaving of the threads. The key and the sequence must identify what is drawn, for example
+     * the unique id of the sender of an event and the sequence number of the event for this sender.
+     *
+     * @param key      the key of the stream
+     * @param sequence the sequence number of the stream for this key
+     *
+     * @return a new random stream for the key and the sequence.
+     */
+    public static SplittableRandom keyedRandom(long key, long sequence) {
+        return new SplittableRandom(keyedDraw(key, sequence));
+    }
+
+    /**
+     * Returns a uniform random long which only depends on the seed set with {@link #setRandomSeed(long)} and on the key and the sequence, like the
+     * stream of {@link #keyedRandom(long, long)} but without allocation. The next draws of the same stream are given by {@link #nextDraw(long)}.
+     *
+     * @param key      the key of the draw
+     * @param sequence the sequence number of the draw for this key
+     *
+     * @return a uniform random long for the key and the sequence.
+     */
+    public static long keyedDraw(long key, long sequence) {
+        return mix64(keyedSeed + mix64(key + GOLDEN_GAMMA) + sequence * GOLDEN_GAMMA);
+    }
+
+    /**
+     * @param draw a uniform random long
+     *
+     * @return the uniform random long which follows the draw in a SplitMix64 stream.
+     */
+    public static long nextDraw(long draw) {
+        return mix64(draw + GOLDEN_GAMMA);
+    }
+
+    /**
+     * @param draw a uniform random long
+     *
+     * @return a uniform double in [0; 1[ made of the 53 high bits of the draw.
+     */
+    public static double unitDouble(long draw) {
+        return (draw >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Unbiased draw in [origin; bound[ with the rejection method of {@link SplittableRandom#nextLong(long, long)}, the draw is replaced by its next
+     * draw until it is accepted.
+     *
+     * @param draw   a uniform random long
+     * @param origin the min value (include)
+     * @param bound  the max value (exclude), greater than origin
+     *
+     * @return a uniform long in [origin; bound[.
+     */
+    public static long boundedDraw(long draw, long origin, long bound) {
+        long range = bound - origin;
+        if (range > 0L) {
+            long u = draw >>> 1;
+            long r = u % range;
+            while (u + (range - 1L) - r < 0L) {
+                draw = nextDraw(draw);
+                u = draw >>> 1;
+                r = u % range;
+            }
+            return origin + r;
+        }
+
+        // The range overflows, the draw is rejected until it is in the bounds.
+        while (draw < origin || draw >= bound)
+            draw = nextDraw(draw);
+        return draw;
+    }
+    
+    /**
+     * The finalizer of SplitMix64.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
     
     /**
@@ -96,4 +232,22 @@ public class SimaSimulationUtils {
         return random.nextInt();
     }
     
+    // Inner classes.
+    
+    private static final class ThreadStream {
+        
+        // Variables.
+        
+        private final long generation;
+        
+        private final SplittableRandom random;
+        
+        // Constructors.
+        
+        ThreadStream(long generation, SplittableRandom random) {
+            this.generation = generation;
+            this.random = random;
+        }
+    }
+    
 }
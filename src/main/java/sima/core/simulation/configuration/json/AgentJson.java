@@ -14,6 +14,11 @@ public class AgentJson implements ArgumentativeObjectJson {
     private List<String> environments;
     private List<List<String>> args;
 
+    /**
+     * If true, the agents are only described at the parsing and are instantiated the first time they are searched in the simulation.
+     */
+    private boolean lazy;
+
     // Methods.
 
     /**
@@ -60,4 +65,8 @@ public class AgentJson implements ArgumentativeObjectJson {
     public List<List<String>> getArgs() {
         return args;
     }
+
+    public boolean isLazy() {
+        return lazy;
+    }
 }
@@ -16,6 +16,11 @@ public class SimaSimulationJson {
     private int nbThreads;
     private String timeMode;
     private String schedulerType;
+    private String eventDeliveryMode;
+    private int inboxCapacity;
+    private String inboxOverflowPolicy;
+
+    private int bootstrapParallelism;
     private String simulationSetupClass;
     private String schedulerWatcherClass;
     private String simaWatcherClass;
@@ -98,6 +103,22 @@ public class SimaSimulationJson {
         return schedulerType;
     }
 
+    public String getEventDeliveryMode() {
+        return eventDeliveryMode;
+    }
+
+    public int getInboxCapacity() {
+        return inboxCapacity;
+    }
+
+    public String getInboxOverflowPolicy() {
+        return inboxOverflowPolicy;
+    }
+
+    public int getBootstrapParallelism() {
+        return bootstrapParallelism;
+    }
+
     public String getSimulationSetupClass() {
         return simulationSetupClass;
     }
@@ -1,6 +1,8 @@
 package sima.core.simulation.configuration.parser;
 
 import org.jetbrains.annotations.NotNull;
+import sima.core.agent.AgentDescriptor;
+import sima.core.agent.AgentIdentifier;
 import sima.core.agent.SimaAgent;
 import sima.core.environment.Environment;
 import sima.core.exception.ConfigurationException;
@@ -12,6 +14,7 @@ import sima.core.simulation.configuration.json.ProtocolJson;
 import sima.core.simulation.configuration.json.SimaSimulationJson;
 
 import java.beans.Statement;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -32,6 +35,8 @@ public class AgentParser {
 
     private final Set<SimaAgent> allAgents;
 
+    private final Set<AgentDescriptor> allAgentDescriptors;
+
     private int agentCounter;
 
     // Constructors.
@@ -44,6 +49,7 @@ public class AgentParser {
         protocolParser = new ProtocolParser(this.simaSimulationJson);
 
         allAgents = new HashSet<>();
+        allAgentDescriptors = new HashSet<>();
 
         agentCounter = 0;
     }
@@ -52,6 +58,7 @@ public class AgentParser {
 
     public void parseAgents() throws ConfigurationException, FailInstantiationException, ClassNotFoundException, NoSuchMethodException {
         allAgents.clear();
+        allAgentDescriptors.clear();
         parseEnvironment();
         parseBehavior();
         parseProtocol();
@@ -79,11 +86,18 @@ public class AgentParser {
 
 
     /**
+     * If the agents are lazy, only creates their {@link AgentDescriptor}, see {@link #createAllAgentDescriptors(AgentJson)}.
+     *
      * @param agentJson the json agent configuration
      */
     private void createAllAgents(AgentJson agentJson)
             throws ConfigurationException, FailInstantiationException, ClassNotFoundException, NoSuchMethodException {
         verifyAgentNumberToCreate(agentJson.getNumberToCreate());
+        if (agentJson.isLazy()) {
+            createAllAgentDescriptors(agentJson);
+            return;
+        }
+
         for (var i = 0; i < agentJson.getNumberToCreate(); i++) {
             SimaAgent agent = createAgent(agentJson, i);
             associateAgentAndEnvironments(agent, agentJson);
@@ -92,6 +106,51 @@ public class AgentParser {
         }
     }
 
+    /**
+     * Creates one {@link AgentDescriptor} per agent to create and makes its {@link AgentIdentifier} join the environments of the agents. The
+     * behaviors and the protocols are added to an agent when it is materialized, however their ids are verified here so that a wrong configuration
+     * fails at the parsing. The args are parsed once and shared by all the agents of the configuration.
+     *
+     * @param agentJson the json agent configuration
+     */
+    private void createAllAgentDescriptors(AgentJson agentJson) throws ConfigurationException, ClassNotFoundException {
+        verifyBehaviorAndProtocolIds(agentJson);
+        Class<? extends SimaAgent> agentClass = extractClassForName(agentJson.getAgentClass());
+        Map<String, String> agentArgs = Collections.unmodifiableMap(parseArgs(agentJson));
+        AgentDescriptor.AgentWiring agentWiring = agent -> {
+            associateAgentAndBehaviors(agent, agentJson);
+            associateAgentAndProtocol(agent, agentJson);
+        };
+
+        for (var i = 0; i < agentJson.getNumberToCreate(); i++) {
+            var agentIdentifier = new AgentIdentifier(String.format(agentJson.getNamePattern(), i), i, agentCounter++);
+            var agentDescriptor = new AgentDescriptor(agentIdentifier, agentClass, agentArgs, agentJson.getEnvironments(), agentWiring);
+            allAgentDescriptors.add(agentDescriptor);
+            associateAgentDescriptorAndEnvironments(agentDescriptor);
+        }
+    }
+
+    private void verifyBehaviorAndProtocolIds(AgentJson agentJson) throws ConfigurationException {
+        if (agentJson.hasBehavior())
+            for (String behaviorId : agentJson.getBehaviors())
+                if (!behaviorParser.getMapBehaviors().containsKey(behaviorId))
+                    throw new ConfigurationException("BehaviorId " + behaviorId + " not exists");
+
+        if (agentJson.getProtocols() != null)
+            for (String protocolId : agentJson.getProtocols())
+                if (!protocolParser.getMapProtocols().containsKey(protocolId))
+                    throw new ConfigurationException("ProtocolId " + protocolId + " not found");
+    }
+
+    private void associateAgentDescriptorAndEnvironments(AgentDescriptor agentDescriptor) throws ConfigurationException {
+        for (String environmentId : agentDescriptor.getEnvironments()) {
+            var mapEnv = envParser.getMapEnvironments();
+            var env = notNullOrThrows(mapEnv.get(environmentId), new ConfigurationException("EnvironmentId " + environmentId + " not found"));
+            if (!env.acceptAgent(agentDescriptor.getAgentIdentifier()))
+                throw new ConfigurationException("Agent " + agentDescriptor + " unable to join the Environment " + env);
+        }
+    }
+
     /**
      * Verifies if the numberToCreate specified is greater or equal to 1. If it is not the case, throws an {@link ConfigurationException}, else
      * nothing is done.
@@ -221,6 +280,13 @@ public class AgentParser {
         return allAgents;
     }
 
+    /**
+     * @return the descriptors of the lazy agents.
+     */
+    public Set<AgentDescriptor> getAllAgentDescriptors() {
+        return allAgentDescriptors;
+    }
+
     public Set<Environment> getAllEnvironments() {
         return envParser.getAllEnvironments();
     }
@@ -5,6 +5,7 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.stream.JsonReader;
 import org.jetbrains.annotations.NotNull;
+import sima.core.agent.AgentDescriptor;
 import sima.core.agent.SimaAgent;
 import sima.core.environment.Environment;
 import sima.core.exception.ConfigurationException;
@@ -62,6 +63,23 @@ public class ConfigurationParser {
         fillBundle(schedulerParser.getScheduler(), agentParser.getAllAgents(), agentParser.getAllEnvironments(),
                    simulationSetupParser.getSimulationSetup(),
                    simaWatcherParser.getSimaWatcher());
+        configurationBundle.setAllAgentDescriptors(agentParser.getAllAgentDescriptors());
+        configurationBundle.setBootstrapParallelism(parseBootstrapParallelism(simaSimulationJson));
+    }
+
+    /**
+     * @param simaSimulationJson the simulation configuration
+     *
+     * @return the bootstrap parallelism of the configuration, 1 if it is not specified.
+     *
+     * @throws ConfigurationException if the bootstrap parallelism is less than 0
+     */
+    private int parseBootstrapParallelism(SimaSimulationJson simaSimulationJson) throws ConfigurationException {
+        int bootstrapParallelism = simaSimulationJson.getBootstrapParallelism();
+        if (bootstrapParallelism < 0)
+            throw new ConfigurationException("The bootstrapParallelism cannot be less than 0");
+
+        return Math.max(1, bootstrapParallelism);
     }
 
     private void fillBundle(Scheduler scheduler, Set<SimaAgent> allAgents, Set<Environment> allEnvironments, SimulationSetup simulationSetupClass,
@@ -133,12 +151,16 @@ public class ConfigurationParser {
 
         private Set<SimaAgent> allAgents;
 
+        private Set<AgentDescriptor> allAgentDescriptors;
+
         private Set<Environment> allEnvironments;
 
         private SimulationSetup simulationSetup;
 
         private SimaSimulation.SimaWatcher simaWatcher;
 
+        private int bootstrapParallelism = 1;
+
         // Getters and Setters.
 
         public Scheduler getScheduler() {
@@ -157,6 +179,14 @@ public class ConfigurationParser {
             this.allAgents = allAgents;
         }
 
+        public Set<AgentDescriptor> getAllAgentDescriptors() {
+            return allAgentDescriptors;
+        }
+
+        public void setAllAgentDescriptors(Set<AgentDescriptor> allAgentDescriptors) {
+            this.allAgentDescriptors = allAgentDescriptors;
+        }
+
         public Set<Environment> getAllEnvironments() {
             return allEnvironments;
         }
@@ -180,5 +210,13 @@ public class ConfigurationParser {
         public void setSimaWatcher(SimaSimulation.SimaWatcher simaWatcher) {
             this.simaWatcher = simaWatcher;
         }
+
+        public int getBootstrapParallelism() {
+            return bootstrapParallelism;
+        }
+
+        public void setBootstrapParallelism(int bootstrapParallelism) {
+            this.bootstrapParallelism = bootstrapParallelism;
+        }
     }
 }
@@ -2,6 +2,7 @@ package sima.core.simulation.configuration.parser;
 
 import org.jetbrains.annotations.NotNull;
 import sima.core.exception.FailInstantiationException;
+import sima.core.scheduler.AbstractScheduler;
 import sima.core.scheduler.Scheduler;
 import sima.core.scheduler.multithread.DiscreteTimeMultiThreadScheduler;
 import sima.core.simulation.configuration.json.SimaSimulationJson;
@@ -29,6 +30,8 @@ public class SchedulerParser {
     public void parseScheduler() throws FailInstantiationException, ClassNotFoundException {
         scheduler = null;
         createScheduler();
+        setEventDeliveryMode();
+        setInboxBound();
         addSchedulerWatcher();
     }
 
@@ -53,6 +56,28 @@ public class SchedulerParser {
         return new DiscreteTimeMultiThreadScheduler(endSimulation, nbExecutorThread);
     }
 
+    /**
+     * Set the {@link Scheduler.EventDeliveryMode} if it is specified in the configuration, else the scheduler keeps its default mode.
+     */
+    private void setEventDeliveryMode() {
+        String eventDeliveryMode = simaSimulationJson.getEventDeliveryMode();
+        if (eventDeliveryMode != null && !eventDeliveryMode.isEmpty() && scheduler instanceof AbstractScheduler abstractScheduler)
+            abstractScheduler.setEventDeliveryMode(Scheduler.EventDeliveryMode.valueOf(eventDeliveryMode));
+    }
+
+    /**
+     * Set the inbox capacity and the {@link Scheduler.InboxOverflowPolicy} if they are specified in the configuration, else the inboxes of agents
+     * stay unbounded.
+     */
+    private void setInboxBound() {
+        if (scheduler instanceof AbstractScheduler abstractScheduler) {
+            abstractScheduler.setInboxCapacity(simaSimulationJson.getInboxCapacity());
+            String inboxOverflowPolicy = simaSimulationJson.getInboxOverflowPolicy();
+            if (inboxOverflowPolicy != null && !inboxOverflowPolicy.isEmpty())
+                abstractScheduler.setInboxOverflowPolicy(Scheduler.InboxOverflowPolicy.valueOf(inboxOverflowPolicy));
+        }
+    }
+
     private void addSchedulerWatcher() throws FailInstantiationException, ClassNotFoundException {
         Scheduler.SchedulerWatcher schedulerWatcher = createSchedulerWatcher(simaSimulationJson.getSchedulerWatcherClass());
         if (schedulerWatcher != null)
@@ -0,0 +1,202 @@
+package sima.core.simulation.passivation;
+
+import sima.core.agent.SimaAgent;
+import sima.core.exception.FailInstantiationException;
+import sima.core.scheduler.Controller;
+import sima.core.simulation.SimaSimulation;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+import static sima.core.simulation.SimaSimulation.SimaLog;
+import static sima.core.utils.Utils.extractClassForName;
+import static sima.core.utils.Utils.instantiate;
+
+/**
+ * A {@link Controller} which passivates the agents which have not processed any event during the idle period. It must be scheduled repeatedly, each
+ * execution compares the number of processed events of each agent with the one of the previous execution: an agent whose number has not changed
+ * since {@code idlePeriod} is passivated with {@link SimaSimulation#passivateAgent(SimaAgent, AgentStateCodec, PassivationStore)}.
+ * <p>
+ * The arguments are {@link #IDLE_PERIOD_ARGS}, {@link #CODEC_CLASS_ARGS} (required), {@link #STORAGE_ARGS} and {@link #STORE_FILE_ARGS}. Without
+ * store file, a mapped file store uses a temporary file which is deleted when the store is closed.
+ */
+public class AgentPassivationController implements Controller {
+
+    // Static.
+
+    public static final String IDLE_PERIOD_ARGS = "idlePeriod";
+    public static final String CODEC_CLASS_ARGS = "codecClass";
+    public static final String STORAGE_ARGS = "storage";
+    public static final String STORE_FILE_ARGS = "storeFile";
+
+    public static final long DEFAULT_IDLE_PERIOD = 1000L;
+
+    private static final long NEVER_SEEN = -1L;
+
+    /**
+     * The max number of bytes moved by the compaction of the store at each execution.
+     */
+    public static final long COMPACTION_BUDGET = 1L << 20;
+
+    // Variables.
+
+    private final long idlePeriod;
+
+    private final AgentStateCodec agentStateCodec;
+
+    private final PassivationStore store;
+
+    /**
+     * The number of processed events of each agent at the last execution, indexed by agent handle.
+     */
+    private long[] lastNbProcessedEvents;
+
+    /**
+     * The last time at which each agent has been seen active, indexed by agent handle.
+     */
+    private long[] lastActivityTimes;
+
+    // Constructors.
+
+    /**
+     * @param args the arguments of the controller
+     *
+     * @throws IllegalArgumentException if the args are null, if the idle period is not a number greater or equal to 1, if the codec class is missing
+     *                                  or cannot be instantiated or if the storage is unknown
+     * @throws UncheckedIOException     if the file of the store cannot be created
+     */
+    public AgentPassivationController(Map<String, String> args) {
+        this(parseIdlePeriod(Optional.ofNullable(args).orElseThrow(() -> new IllegalArgumentException("The args cannot be null"))
+                                     .get(IDLE_PERIOD_ARGS)), instantiateCodec(args.get(CODEC_CLASS_ARGS)),
+             createStore(args.get(STORAGE_ARGS), args.get(STORE_FILE_ARGS)));
+    }
+
+    /**
+     * @param idlePeriod      the time without processed event after which an agent is passivated
+     * @param agentStateCodec the codec of the state of the agents
+     * @param store           the store of the states
+     *
+     * @throws IllegalArgumentException if the idlePeriod is less than 1 or if the codec or the store is null
+     */
+    public AgentPassivationController(long idlePeriod, AgentStateCodec agentStateCodec, PassivationStore store) {
+        if (idlePeriod < 1)
+            throw new IllegalArgumentException("The idlePeriod must be greater or equal to 1");
+
+        this.idlePeriod = idlePeriod;
+        this.agentStateCodec = Optional.ofNullable(agentStateCodec).orElseThrow(
+                () -> new IllegalArgumentException("The agentStateCodec cannot be null"));
+        this.store = Optional.ofNullable(store).orElseThrow(() -> new IllegalArgumentException("The store cannot be null"));
+        lastNbProcessedEvents = new long[0];
+        lastActivityTimes = new long[0];
+    }
+
+    // Methods.
+
+    private static long parseIdlePeriod(String value) {
+        if (value == null)
+            return DEFAULT_IDLE_PERIOD;
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The argument " + IDLE_PERIOD_ARGS + " must be a number: " + value, e);
+        }
+    }
+
+    private static AgentStateCodec instantiateCodec(String codecClassName) {
+        if (codecClassName == null)
+            throw new IllegalArgumentException("The argument " + CODEC_CLASS_ARGS + " is required");
+
+        try {
+            Class<? extends AgentStateCodec> codecClass = extractClassForName(codecClassName);
+            return instantiate(codecClass);
+        } catch (ClassNotFoundException | FailInstantiationException e) {
+            throw new IllegalArgumentException("The codec " + codecClassName + " cannot be instantiated", e);
+        }
+    }
+
+    private static PassivationStore createStore(String storage, String storeFile) {
+        var passivationStorage = storage != null ? Storage.valueOf(storage) : Storage.OFF_HEAP;
+        if (passivationStorage == Storage.OFF_HEAP)
+            return new OffHeapPassivationStore();
+
+        return storeFile != null ? new MappedFilePassivationStore(Path.of(storeFile)) : MappedFilePassivationStore.createTemporary();
+    }
+
+    /**
+     * Passivates the agents which have not processed any event since {@code idlePeriod}. An agent seen for the first time, or seen again after its
+     * reactivation, is considered active at the current time. An idle agent which still has pending events or executables is not passivated (see
+     * {@link SimaAgent#hasPendingTasks()}). Then continues the compaction of the store, out of the lock of any agent.
+     */
+    @Override
+    public synchronized void execute() {
+        long now = SimaSimulation.getCurrentTime();
+        var nbPassivated = 0;
+        for (SimaAgent agent : SimaSimulation.getAllAgents()) {
+            var agentIdentifier = agent.getAgentIdentifier();
+            if (!agentIdentifier.hasAgentHandle())
+                continue;
+
+            int agentHandle = agentIdentifier.getAgentHandle();
+            ensureCapacity(agentHandle);
+            long nbProcessedEvents = agent.getNbProcessedEvents();
+            if (lastActivityTimes[agentHandle] == NEVER_SEEN || nbProcessedEvents != lastNbProcessedEvents[agentHandle]) {
+                lastNbProcessedEvents[agentHandle] = nbProcessedEvents;
+                lastActivityTimes[agentHandle] = now;
+            } else if (now - lastActivityTimes[agentHandle] >= idlePeriod && SimaSimulation.passivateAgent(agent, agentStateCodec, store)) {
+                lastActivityTimes[agentHandle] = NEVER_SEEN;
+                nbPassivated++;
+            }
+        }
+
+        if (nbPassivated > 0)
+            SimaLog.info("%d agents PASSIVATED, %d states in the passivation store", nbPassivated, store.size());
+
+        store.compact(COMPACTION_BUDGET);
+    }
+
+    private void ensureCapacity(int agentHandle) {
+        if (agentHandle >= lastActivityTimes.length) {
+            int capacity = Math.max(agentHandle + 1, lastActivityTimes.length * 2);
+            int oldCapacity = lastActivityTimes.length;
+            lastNbProcessedEvents = Arrays.copyOf(lastNbProcessedEvents, capacity);
+            lastActivityTimes = Arrays.copyOf(lastActivityTimes, capacity);
+            Arrays.fill(lastActivityTimes, oldCapacity, capacity, NEVER_SEEN);
+        }
+    }
+
+    // Getters.
+
+    public long getIdlePeriod() {
+        return idlePeriod;
+    }
+
+    public AgentStateCodec getAgentStateCodec() {
+        return agentStateCodec;
+    }
+
+    public PassivationStore getStore() {
+        return store;
+    }
+
+    // Inner classes.
+
+    /**
+     * Where the states of the passivated agents are stored.
+     */
+    public enum Storage {
+
+        /**
+         * In direct buffers, see {@link OffHeapPassivationStore}.
+         */
+        OFF_HEAP,
+
+        /**
+         * In a memory-mapped file, see {@link MappedFilePassivationStore}.
+         */
+        MAPPED_FILE
+    }
+}
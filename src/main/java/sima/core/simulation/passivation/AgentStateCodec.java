@@ -0,0 +1,31 @@
+package sima.core.simulation.passivation;
+
+import sima.core.agent.SimaAgent;
+
+/**
+ * Saves and restores the state of a {@link SimaAgent} which is passivated. The object graph of an agent (its protocols, its behaviors, the
+ * references they hold) is specific to each model, therefore the codec only saves what the agent needs to continue: the agent is instantiated again
+ * with its behaviors and its protocols before {@link #decode(SimaAgent, byte[])} is called.
+ * <p>
+ * Implementations must have a constructor without argument to be used by the {@link AgentPassivationController}.
+ */
+public interface AgentStateCodec {
+
+    /**
+     * Called with the lock of the agent.
+     *
+     * @param agent the agent to passivate
+     *
+     * @return the state of the agent, null if the agent cannot be passivated now (for example if one of its protocols waits for a scheduled
+     * executable).
+     */
+    byte[] encode(SimaAgent agent);
+
+    /**
+     * Restores the state in a new instance of the agent which has been wired and is not started.
+     *
+     * @param agent the new instance of the agent
+     * @param state the state returned by {@link #encode(SimaAgent)} for the passivated instance
+     */
+    void decode(SimaAgent agent, byte[] state);
+}
@@ -0,0 +1,296 @@
+package sima.core.simulation.passivation;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link PassivationStore} which appends the states in a sequence of fixed size {@link ByteBuffer} chunks. Only two arrays indexed by agent handle
+ * stay on the heap: the position and the length of the state of each agent, plus a log of the written states in the order of their position.
+ * <p>
+ * The space of a removed or replaced state is not reused immediately. When more than half of the written bytes are dead and that they represent more
+ * than one chunk, {@link #compact(long)} moves the live states to the beginning of the chunks in the order of their position, a few bytes at each
+ * call. At the end of a compaction, the chunks after the last live state are released.
+ */
+public abstract class ChunkedPassivationStore implements PassivationStore {
+
+    // Static.
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 24;
+
+    private static final long NO_POSITION = -1L;
+
+    /**
+     * The number of dead entries in the log after which a compaction is needed even if the dead states are small.
+     */
+    private static final int MAX_DEAD_ENTRIES = 1024;
+
+    // Variables.
+
+    private final int chunkSize;
+
+    private final List<ByteBuffer> chunks;
+
+    private long[] positions;
+
+    private int[] lengths;
+
+    /**
+     * The position after the last written state.
+     */
+    private long end;
+
+    private long nbStoredBytes;
+
+    private int size;
+
+    /**
+     * The agent handles of the written states in the order of their position. An entry is dead if the agent has no state anymore at the position
+     * of the entry. The states of length 0 are not logged.
+     */
+    private int[] logHandles;
+
+    /**
+     * The position of the state of each entry of the log.
+     */
+    private long[] logPositions;
+
+    private int logSize;
+
+    /**
+     * True if a compaction has begun and is not finished.
+     */
+    private boolean compacting;
+
+    /**
+     * The index of the next entry of the log to compact.
+     */
+    private int nextEntry;
+
+    /**
+     * The number of entries of the log already compacted, they are rewritten at the beginning of the log.
+     */
+    private int nbCompactedEntries;
+
+    /**
+     * The position after the last compacted state.
+     */
+    private long compactedEnd;
+
+    // Constructors.
+
+    /**
+     * @param chunkSize the size in bytes of a chunk
+     *
+     * @throws IllegalArgumentException if the chunkSize is less than 1
+     */
+    protected ChunkedPassivationStore(int chunkSize) {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("The chunkSize must be greater or equal to 1");
+
+        this.chunkSize = chunkSize;
+        chunks = new ArrayList<>();
+        positions = new long[0];
+        lengths = new int[0];
+        logHandles = new int[0];
+        logPositions = new long[0];
+    }
+
+    // Methods.
+
+    /**
+     * @param chunkIndex the index of the new chunk
+     *
+     * @return a new chunk of {@link #getChunkSize()} bytes.
+     */
+    protected abstract ByteBuffer allocateChunk(int chunkIndex);
+
+    /**
+     * Called when the last chunks are released, after that the store does not reference them anymore. The default implementation does nothing.
+     *
+     * @param nbChunks the number of chunks which are kept
+     */
+    protected void releaseChunks(int nbChunks) {
+    }
+
+    @Override
+    public synchronized void put(int agentHandle, byte[] state) {
+        if (agentHandle < 0)
+            throw new IllegalArgumentException("The agentHandle cannot be negative");
+        if (state == null)
+            throw new IllegalArgumentException("The state cannot be null");
+
+        remove(agentHandle);
+        ensureCapacity(agentHandle);
+        write(end, state);
+        if (state.length > 0)
+            log(agentHandle, end);
+        positions[agentHandle] = end;
+        lengths[agentHandle] = state.length;
+        end += state.length;
+        nbStoredBytes += state.length;
+        size++;
+    }
+
+    @Override
+    public synchronized byte[] get(int agentHandle) {
+        if (agentHandle < 0 || agentHandle >= positions.length || positions[agentHandle] == NO_POSITION)
+            return null;
+
+        return read(positions[agentHandle], lengths[agentHandle]);
+    }
+
+    @Override
+    public synchronized void remove(int agentHandle) {
+        if (agentHandle < 0 || agentHandle >= positions.length || positions[agentHandle] == NO_POSITION)
+            return;
+
+        positions[agentHandle] = NO_POSITION;
+        nbStoredBytes -= lengths[agentHandle];
+        lengths[agentHandle] = 0;
+        size--;
+    }
+
+    private void ensureCapacity(int agentHandle) {
+        if (agentHandle >= positions.length) {
+            int capacity = Math.max(agentHandle + 1, positions.length * 2);
+            int oldCapacity = positions.length;
+            positions = Arrays.copyOf(positions, capacity);
+            Arrays.fill(positions, oldCapacity, capacity, NO_POSITION);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+    }
+
+    private void log(int agentHandle, long position) {
+        if (logSize == logHandles.length) {
+            int capacity = Math.max(16, logSize * 2);
+            logHandles = Arrays.copyOf(logHandles, capacity);
+            logPositions = Arrays.copyOf(logPositions, capacity);
+        }
+        logHandles[logSize] = agentHandle;
+        logPositions[logSize] = position;
+        logSize++;
+    }
+
+    /**
+     * @return true if more than half of the written bytes are dead and that they represent more than one chunk, or if the log has too many dead
+     * entries.
+     */
+    private boolean needsCompaction() {
+        return (end - nbStoredBytes > chunkSize && nbStoredBytes < end / 2) || logSize - size > Math.max(size, MAX_DEAD_ENTRIES);
+    }
+
+    /**
+     * Continues the compaction, or begins one if it is needed. The live states are moved to the beginning of the chunks in the order of the log,
+     * which is the order of their position: a state is never moved after its position, therefore it is never overwritten before having been moved.
+     * The states written during a compaction are appended after all the others and are compacted with them. At the end of the compaction, the
+     * chunks after the last live state are released.
+     *
+     * @param maxMovedBytes the max number of bytes moved by this call, at least one state is moved
+     *
+     * @return true if a compaction is still in progress after this call, else false.
+     */
+    @Override
+    public synchronized boolean compact(long maxMovedBytes) {
+        if (!compacting) {
+            if (!needsCompaction())
+                return false;
+
+            compacting = true;
+            nextEntry = 0;
+            nbCompactedEntries = 0;
+            compactedEnd = 0L;
+        }
+
+        long nbMovedBytes = 0L;
+        while (nextEntry < logSize && nbMovedBytes < Math.max(1L, maxMovedBytes)) {
+            int agentHandle = logHandles[nextEntry];
+            long position = logPositions[nextEntry];
+            nextEntry++;
+            if (positions[agentHandle] != position)
+                continue;
+
+            if (position != compactedEnd) {
+                write(compactedEnd, read(position, lengths[agentHandle]));
+                positions[agentHandle] = compactedEnd;
+                nbMovedBytes += lengths[agentHandle];
+            }
+            logHandles[nbCompactedEntries] = agentHandle;
+            logPositions[nbCompactedEntries] = compactedEnd;
+            nbCompactedEntries++;
+            compactedEnd += lengths[agentHandle];
+        }
+
+        if (nextEntry < logSize)
+            return true;
+
+        end = compactedEnd;
+        logSize = nbCompactedEntries;
+        compacting = false;
+        releaseTrailingChunks();
+        return false;
+    }
+
+    private void releaseTrailingChunks() {
+        int nbChunks = (int) ((end + chunkSize - 1) / chunkSize);
+        if (nbChunks < chunks.size()) {
+            chunks.subList(nbChunks, chunks.size()).clear();
+            releaseChunks(nbChunks);
+        }
+    }
+
+    private void write(long position, byte[] src) {
+        int offset = 0;
+        while (offset < src.length) {
+            int inChunk = (int) (position % chunkSize);
+            int length = Math.min(src.length - offset, chunkSize - inChunk);
+            chunk((int) (position / chunkSize)).put(inChunk, src, offset, length);
+            offset += length;
+            position += length;
+        }
+    }
+
+    private byte[] read(long position, int length) {
+        byte[] dst = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            int inChunk = (int) (position % chunkSize);
+            int n = Math.min(length - offset, chunkSize - inChunk);
+            chunk((int) (position / chunkSize)).get(inChunk, dst, offset, n);
+            offset += n;
+            position += n;
+        }
+        return dst;
+    }
+
+    private ByteBuffer chunk(int chunkIndex) {
+        while (chunks.size() <= chunkIndex)
+            chunks.add(allocateChunk(chunks.size()));
+
+        return chunks.get(chunkIndex);
+    }
+
+    // Getters.
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized long getNbStoredBytes() {
+        return nbStoredBytes;
+    }
+
+    /**
+     * @return the number of allocated chunks.
+     */
+    public synchronized int getNbChunks() {
+        return chunks.size();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+}
@@ -0,0 +1,123 @@
+package sima.core.simulation.passivation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Optional;
+
+/**
+ * A {@link ChunkedPassivationStore} whose chunks are regions of a memory-mapped file. The operating system writes the cold states to the disk, the
+ * store only uses virtual memory. The content of the file is not meant to be read after the simulation. The file is truncated when the last chunks
+ * are released.
+ */
+public class MappedFilePassivationStore extends ChunkedPassivationStore {
+
+    // Variables.
+
+    private final Path file;
+
+    private final FileChannel fileChannel;
+
+    // Constructors.
+
+    /**
+     * @param file the file of the store, created if it does not exist and truncated if it exists
+     *
+     * @throws IllegalArgumentException if the file is null
+     * @throws UncheckedIOException     if the file cannot be opened
+     */
+    public MappedFilePassivationStore(Path file) {
+        this(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param file      the file of the store, created if it does not exist and truncated if it exists
+     * @param chunkSize the size in bytes of a chunk
+     *
+     * @throws IllegalArgumentException if the file is null or if the chunkSize is less than 1
+     * @throws UncheckedIOException     if the file cannot be opened
+     */
+    public MappedFilePassivationStore(Path file, int chunkSize) {
+        this(file, chunkSize, false);
+    }
+
+    private MappedFilePassivationStore(Path file, int chunkSize, boolean deleteOnClose) {
+        super(chunkSize);
+        this.file = Optional.ofNullable(file).orElseThrow(() -> new IllegalArgumentException("The file cannot be null"));
+        var options = EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (deleteOnClose)
+            options.add(StandardOpenOption.DELETE_ON_CLOSE);
+        try {
+            fileChannel = FileChannel.open(file, options);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Fail to open the passivation store " + file, e);
+        }
+    }
+
+    // Methods.
+
+    /**
+     * Creates a store in a new temporary file, the file is deleted when the store is closed.
+     *
+     * @return a new store in a temporary file.
+     *
+     * @throws UncheckedIOException if the temporary file cannot be created
+     */
+    public static MappedFilePassivationStore createTemporary() {
+        try {
+            return new MappedFilePassivationStore(Files.createTempFile("sima-passivation", ".bin"), DEFAULT_CHUNK_SIZE, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Fail to create the file of the passivation store", e);
+        }
+    }
+
+    @Override
+    protected ByteBuffer allocateChunk(int chunkIndex) {
+        try {
+            return fileChannel.map(FileChannel.MapMode.READ_WRITE, (long) chunkIndex * getChunkSize(), getChunkSize());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Fail to map the chunk " + chunkIndex + " of the passivation store", e);
+        }
+    }
+
+    /**
+     * Truncates the file after the kept chunks.
+     *
+     * @param nbChunks the number of chunks which are kept
+     *
+     * @throws UncheckedIOException if the file cannot be truncated
+     */
+    @Override
+    protected void releaseChunks(int nbChunks) {
+        try {
+            fileChannel.truncate((long) nbChunks * getChunkSize());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Fail to truncate the passivation store " + file, e);
+        }
+    }
+
+    /**
+     * Closes the file, and deletes it if it is a temporary file. The mapped chunks stay valid until they are garbage collected.
+     *
+     * @throws UncheckedIOException if the file cannot be closed
+     */
+    @Override
+    public void close() {
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Fail to close the passivation store", e);
+        }
+    }
+
+    // Getters.
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,31 @@
+package sima.core.simulation.passivation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link ChunkedPassivationStore} whose chunks are direct {@link ByteBuffer}. The chunks are freed when the store is garbage collected.
+ */
+public class OffHeapPassivationStore extends ChunkedPassivationStore {
+
+    // Constructors.
+
+    public OffHeapPassivationStore() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize the size in bytes of a chunk
+     *
+     * @throws IllegalArgumentException if the chunkSize is less than 1
+     */
+    public OffHeapPassivationStore(int chunkSize) {
+        super(chunkSize);
+    }
+
+    // Methods.
+
+    @Override
+    protected ByteBuffer allocateChunk(int chunkIndex) {
+        return ByteBuffer.allocateDirect(getChunkSize());
+    }
+}
@@ -0,0 +1,60 @@
+package sima.core.simulation.passivation;
+
+/**
+ * Stores the states of the passivated agents outside the heap, indexed by their agent handle. Implementations are thread safe.
+ */
+public interface PassivationStore extends AutoCloseable {
+
+    /**
+     * Stores the state of the agent. If a state is already stored for the agent, it is replaced.
+     *
+     * @param agentHandle the agent handle of the agent
+     * @param state       the state
+     *
+     * @throws IllegalArgumentException if the agentHandle is negative or if the state is null
+     */
+    void put(int agentHandle, byte[] state);
+
+    /**
+     * @param agentHandle the agent handle of the agent
+     *
+     * @return a copy of the state of the agent, null if no state is stored for the agent.
+     */
+    byte[] get(int agentHandle);
+
+    /**
+     * Removes the state of the agent. If no state is stored for the agent, nothing is done.
+     *
+     * @param agentHandle the agent handle of the agent
+     */
+    void remove(int agentHandle);
+
+    /**
+     * @return the number of stored states.
+     */
+    int size();
+
+    /**
+     * @return the number of bytes of the stored states.
+     */
+    long getNbStoredBytes();
+
+    /**
+     * Reclaims a part of the space of the removed and replaced states. Meant to be called regularly out of the passivation and the reactivation of
+     * the agents, the work is spread over several calls. The default implementation does nothing.
+     *
+     * @param maxMovedBytes the max number of bytes of states moved by this call
+     *
+     * @return true if the compaction is not finished and must be continued with another call, else false.
+     */
+    default boolean compact(long maxMovedBytes) {
+        return false;
+    }
+
+    /**
+     * Releases the resources of the store. The default implementation does nothing.
+     */
+    @Override
+    default void close() {
+    }
+}
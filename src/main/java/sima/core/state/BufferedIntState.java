@@ -0,0 +1,87 @@
+package sima.core.state;
+
+import java.util.Arrays;
+
+/**
+ * A {@link BufferedState} of int values.
+ */
+public final class BufferedIntState extends BufferedState {
+
+    // Variables.
+
+    private int[] current;
+
+    private int[] next;
+
+    // Constructors.
+
+    /**
+     * @param size         the number of values
+     * @param initialValue the initial value of all indexes
+     *
+     * @throws IllegalArgumentException if size is negative
+     */
+    public BufferedIntState(int size, int initialValue) {
+        super(size);
+        current = new int[size];
+        Arrays.fill(current, initialValue);
+        next = current.clone();
+    }
+
+    // Methods.
+
+    /**
+     * @param index the index
+     *
+     * @return the value of the index at the previous step.
+     *
+     * @throws IndexOutOfBoundsException if the index is not in [0; {@link #size()}[
+     */
+    public int get(int index) {
+        return current[index];
+    }
+
+    /**
+     * @param index the index
+     *
+     * @return the value of the index for the next step, the last value written during the current step or the current value if there is none.
+     *
+     * @throws IndexOutOfBoundsException if the index is not in [0; {@link #size()}[
+     */
+    public int getNext(int index) {
+        return next[index];
+    }
+
+    /**
+     * Writes the value of the index for the next step. The value returned by {@link #get(int)} does not change until the next swap.
+     *
+     * @param index the index
+     * @param value the new value
+     *
+     * @throws IndexOutOfBoundsException if the index is not in [0; {@link #size()}[
+     */
+    public void set(int index, int value) {
+        next[index] = value;
+    }
+
+    /**
+     * Sets the value of the index in both buffers. Must not be called during a step.
+     *
+     * @param index the index
+     * @param value the value
+     *
+     * @throws IndexOutOfBoundsException if the index is not in [0; {@link #size()}[
+     */
+    public void initialize(int index, int value) {
+        current[index] = value;
+        next[index] = value;
+    }
+
+    @Override
+    public void swap() {
+        int[] swapped = current;
+        current = next;
+        next = swapped;
+        System.arraycopy(current, 0, next, 0, current.length);
+    }
+}
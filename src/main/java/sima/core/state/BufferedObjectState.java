@@ -0,0 +1,92 @@
+package sima.core.state;
+
+import java.util.Arrays;
+
+/**
+ * A {@link BufferedState} of objects. The values are shared between the buffers by reference, therefore they must be immutable: a value which is
+ * modified in place is seen by the readers of the current step.
+ *
+ * @param <T> the type of the values
+ */
+public final class BufferedObjectState<T> extends BufferedState {
+
+    // Variables.
+
+    private Object[] current;
+
+    private Object[] next;
+
+    // Constructors.
+
+    /**
+     * @param size         the number of values
+     * @param initialValue the initial value of all indexes, can be null
+     *
+     * @throws IllegalArgumentException if size is negative
+     */
+    public BufferedObjectState(int size, T initialValue) {
+        super(size);
+        current = new Object[size];
+        Arrays.fill(current, initialValue);
+        next = current.clone();
+    }
+
+    // Methods.
+
+    /**
+     * @param index the index
+     *
+     * @return the value of the index at the previous step.
+     *
+     * @throws IndexOutOfBoundsException if the index is not in [0; {@link #size()}[
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) current[index];
+    }
+
+    /**
+     * @param index the index
+     *
+     * @return the value of the index for the next step, the last value written during the current step or the current value if there is none.
+     *
+     * @throws IndexOutOfBoundsException if the index is not in [0; {@link #size()}[
+     */
+    @SuppressWarnings("unchecked")
+    public T getNext(int index) {
+        return (T) next[index];
+    }
+
+    /**
+     * Writes the value of the index for the next step. The value returned by {@link #get(int)} does not change until the next swap.
+     *
+     * @param index the index
+     * @param value the new value, can be null
+     *
+     * @throws IndexOutOfBoundsException if the index is not in [0; {@link #size()}[
+     */
+    public void set(int index, T value) {
+        next[index] = value;
+    }
+
+    /**
+     * Sets the value of the index in both buffers. Must not be called during a step.
+     *
+     * @param index the index
+     * @param value the value, can be null
+     *
+     * @throws IndexOutOfBoundsException if the index is not in [0; {@link #size()}[
+     */
+    public void initialize(int index, T value) {
+        current[index] = value;
+        next[index] = value;
+    }
+
+    @Override
+    public void swap() {
+        Object[] swapped = current;
+        current = next;
+        next = swapped;
+        System.arraycopy(current, 0, next, 0, current.length);
+    }
+}
@@ -0,0 +1,61 @@
+package sima.core.state;
+
+import sima.core.scheduler.Scheduler;
+import sima.core.scheduler.multithread.DiscreteTimeMultiThreadScheduler;
+
+/**
+ * A state with one value per index (an agent, a cell, a member of a population...) stored in two buffers: the current buffer, frozen during a step,
+ * and the next buffer. During a step, the reads see the values of the previous step and the writes go to the next buffer, therefore the agents of a
+ * synchronous model can read the state of their neighbors and write their own state without lock, even if they are executed in parallel. Only one
+ * agent must write a given index during a step.
+ * <p>
+ * The buffers are swapped at the barrier between two steps of a {@link DiscreteTimeMultiThreadScheduler}, the state must be added with {@link
+ * DiscreteTimeMultiThreadScheduler#addStepBarrierListener(Scheduler.StepBarrierListener)}. After a swap, the next buffer starts with a copy of the
+ * current values, an index which is not written during a step keeps its value.
+ * <p>
+ * The step barrier orders the writes of a step before the reads of the next one, the buffers do not need volatile or synchronized accesses.
+ */
+public abstract class BufferedState implements Scheduler.StepBarrierListener {
+
+    // Variables.
+
+    private final int size;
+
+    // Constructors.
+
+    /**
+     * @param size the number of values
+     *
+     * @throws IllegalArgumentException if size is negative
+     */
+    protected BufferedState(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("The size cannot be negative");
+
+        this.size = size;
+    }
+
+    // Methods.
+
+    /**
+     * Swaps the buffers: the values written during the finished step become the current values.
+     */
+    @Override
+    public void onStepBarrier(long finishedStep) {
+        swap();
+    }
+
+    /**
+     * The next buffer becomes the current buffer, and the new next buffer starts with a copy of the new current values.
+     */
+    public abstract void swap();
+
+    // Getters.
+
+    /**
+     * @return the number of values.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,172 @@
+package sima.core.utils;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A hash map whose keys are primitive longs. The keys are not boxed and the entries are stored in two arrays with open addressing and linear
+ * probing, therefore a get, a put or a remove does not allocate.
+ * <p>
+ * The values cannot be null, a null value in the array marks an empty slot. The removal shifts back the next entries of the probe sequence, there
+ * are no tombstones.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @param <V> the type of the values
+ */
+public final class LongHashMap<V> {
+
+    // Static.
+
+    private static final int MIN_CAPACITY = 8;
+
+    // Variables.
+
+    private long[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    // Constructors.
+
+    public LongHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize the expected number of entries
+     */
+    public LongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        size = 0;
+    }
+
+    // Methods.
+
+    private static int hash(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int index = hash(key, mask);
+        while (values[index] != null && keys[index] != key)
+            index = (index + 1) & mask;
+        return index;
+    }
+
+    /**
+     * @param key the key
+     *
+     * @return the value mapped with the key, null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        return (V) values[indexOf(key)];
+    }
+
+    public boolean containsKey(long key) {
+        return values[indexOf(key)] != null;
+    }
+
+    /**
+     * @param key   the key
+     * @param value the value
+     *
+     * @return the previous value mapped with the key, null if there was none.
+     *
+     * @throws IllegalArgumentException if the value is null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        value = Optional.ofNullable(value).orElseThrow(() -> new IllegalArgumentException("The value cannot be null"));
+        int index = indexOf(key);
+        var previous = (V) values[index];
+        keys[index] = key;
+        values[index] = value;
+        if (previous == null && ++size * 2 > keys.length)
+            resize(keys.length << 1);
+        return previous;
+    }
+
+    /**
+     * @param key the key
+     *
+     * @return the value which was mapped with the key, null if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int index = indexOf(key);
+        var removed = (V) values[index];
+        if (removed == null)
+            return null;
+
+        values[index] = null;
+        size--;
+        shiftBack(index);
+        return removed;
+    }
+
+    /**
+     * Moves back the entries which follow the removed slot and whose probe sequence passes through it.
+     */
+    private void shiftBack(int removedIndex) {
+        int mask = keys.length - 1;
+        int hole = removedIndex;
+        int index = (hole + 1) & mask;
+        while (values[index] != null) {
+            int ideal = hash(keys[index], mask);
+            // The entry can fill the hole if the hole is between its ideal slot and its current slot (cyclically).
+            if (((index - ideal) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                values[index] = null;
+                hole = index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldKeys.length; i++)
+            if (oldValues[i] != null) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+    }
+
+    /**
+     * @param action the action to apply on each value
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Object value : values)
+            if (value != null)
+                action.accept((V) value);
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // Getters.
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
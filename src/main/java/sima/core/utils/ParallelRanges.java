@@ -0,0 +1,90 @@
+package sima.core.utils;
+
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Applies a {@link RangeTask} on disjoint ranges which cover an interval of indexes. The interval is split in two halves until a range has at most
+ * {@code threshold} indexes, and the ranges are applied in parallel in a {@link ForkJoinPool}.
+ */
+public final class ParallelRanges {
+
+    // Constructors.
+
+    private ParallelRanges() {
+    }
+
+    // Methods.
+
+    /**
+     * Applies the task on ranges which cover [from; to[. If the interval has at most {@code threshold} indexes, the task is applied once on the
+     * whole interval in the caller thread. The method returns when the task has been applied on all ranges, a {@link RuntimeException} thrown by
+     * the task is rethrown.
+     *
+     * @param pool      the pool where the ranges are applied
+     * @param from      the first index, inclusive
+     * @param to        the last index, exclusive
+     * @param threshold the maximum number of indexes of a range
+     * @param task      the task to apply on each range
+     *
+     * @throws IllegalArgumentException if the pool or the task is null or if the threshold is less than 1
+     */
+    public static void forEachRange(ForkJoinPool pool, int from, int to, int threshold, RangeTask task) {
+        pool = Optional.ofNullable(pool).orElseThrow(() -> new IllegalArgumentException("The pool cannot be null"));
+        task = Optional.ofNullable(task).orElseThrow(() -> new IllegalArgumentException("The task cannot be null"));
+        if (threshold < 1)
+            throw new IllegalArgumentException("The threshold must be greater or equal to 1");
+
+        if (to - from <= threshold)
+            task.apply(from, to);
+        else
+            pool.invoke(new SplitAction(task, from, to, threshold));
+    }
+
+    // Inner classes.
+
+    /**
+     * A task applied on a range of indexes.
+     */
+    @FunctionalInterface
+    public interface RangeTask {
+
+        /**
+         * @param from the first index of the range, inclusive
+         * @param to   the last index of the range, exclusive
+         */
+        void apply(int from, int to);
+    }
+
+    private static class SplitAction extends RecursiveAction {
+
+        // Variables.
+
+        private final transient RangeTask task;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        // Constructors.
+
+        SplitAction(RangeTask task, int from, int to, int threshold) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        // Methods.
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold)
+                task.apply(from, to);
+            else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SplitAction(task, from, middle, threshold), new SplitAction(task, middle, to, threshold));
+            }
+        }
+    }
+}
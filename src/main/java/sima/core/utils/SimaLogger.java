@@ -27,6 +27,17 @@ public class SimaLogger {
             logger.info(info);
     }
     
+    /**
+     * Formats the message with {@link String#format(String, Object...)} only if the info level is enabled.
+     *
+     * @param format the format of the message
+     * @param args   the arguments of the format
+     */
+    public void info(String format, Object... args) {
+        if (logger.isInfoEnabled())
+            logger.info(String.format(format, args));
+    }
+    
     public void error(String error) {
         if (logger.isErrorEnabled())
             logger.error(error);
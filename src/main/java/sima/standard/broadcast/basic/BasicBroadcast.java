@@ -97,14 +97,13 @@ public class BasicBroadcast extends Protocol implements MessageBroadcaster, Mess
     }
 
     /**
-     * Take all members of the group membership and send to each the specified {@link BroadcastMessage}.
+     * Take all members of the group membership and send to them the specified {@link BroadcastMessage} with only one multicast (see {@link
+     * MessageTransportProtocol#sendMulticast(java.util.Collection, Message)}).
      *
      * @param broadcastMessage the broadcast message to send
      */
     protected void sendToAll(BroadcastMessage broadcastMessage) {
-        for (AgentIdentifier agent : getGroupMemberShip()) {
-            messageTransport.send(agent, broadcastMessage);
-        }
+        messageTransport.sendMulticast(getGroupMemberShip(), broadcastMessage);
     }
 
     /**
@@ -190,6 +189,10 @@ public class BasicBroadcast extends Protocol implements MessageBroadcaster, Mess
         this.messageTransport = messageTransport;
     }
 
+    public Environment getEnvironment() {
+        return environment;
+    }
+
     public void setEnvironment(Environment environment) {
         this.environment = environment;
     }
@@ -49,7 +49,7 @@ public class BroadcastMessage extends Message {
     
     @Override
     public @NotNull BroadcastMessage duplicate() {
-        return new BroadcastMessage(this);
+        return isImmutable(getContent()) ? this : new BroadcastMessage(this);
     }
     
     // Getters.
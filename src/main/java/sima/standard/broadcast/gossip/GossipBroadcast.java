@@ -0,0 +1,340 @@
+package sima.standard.broadcast.gossip;
+
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.Environment;
+import sima.core.simulation.SimaSimulation;
+import sima.standard.broadcast.basic.BasicBroadcast;
+import sima.standard.broadcast.reliable.ReceivedSequences;
+import sima.standard.broadcast.reliable.ReliableBroadcast;
+import sima.standard.environment.message.Message;
+import sima.standard.transport.MessageTransportProtocol;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static sima.core.simulation.SimaSimulation.SimaLog;
+import static sima.core.simulation.SimaSimulationUtils.keyedRandom;
+
+/**
+ * A class which implements message broadcasting with a gossip (epidemic) protocol.
+ * <p>
+ * Contrary to {@link ReliableBroadcast} where each receiver re-sends the message to all members, each agent only exchanges with {@link
+ * #FANOUT_ARGS} random peers per round, during {@link #ROUNDS_ARGS} rounds separated by {@link #ROUND_PERIOD_ARGS}. With a fanout and a number of
+ * rounds in O(log N), a broadcast costs O(N log N) messages and reaches all members with a high probability. The reliability is probabilistic: a
+ * member can miss a message.
+ * <p>
+ * The variant is chosen with the argument {@link #MODE_ARGS}:
+ * <ul>
+ *     <li>{@link #PUSH_MODE} (default): an agent which learns a rumor sends it to random peers at once and at each of the next rounds</li>
+ *     <li>{@link #PULL_MODE}: an agent which learns a rumor asks random peers for their rumors at each of the next rounds. An agent which receives
+ *     a pull request for a rumor that it does not know begins to pull too</li>
+ *     <li>{@link #PUSH_PULL_MODE}: both</li>
+ * </ul>
+ * An agent always answers to a pull request with its active rumors, a rumor is active during {@link #ROUNDS_ARGS} rounds after its reception.
+ * <p>
+ * The peers are sampled with {@link Environment#sampleEvolvingAgents(int, AgentIdentifier, java.util.SplittableRandom)} which does not copy the
+ * group membership. Each sample uses a random stream keyed by the owner and its number of samples (see {@link
+ * sima.core.simulation.SimaSimulationUtils#keyedRandom(long, long)}), therefore the peers are the same at each run with the same seed whatever the
+ * thread which executes the round. The already received rumors are detected with their sender and their sequence number (see {@link
+ * ReceivedSequences}).
+ * <p>
+ * To send message, this class needs {@link MessageTransportProtocol} to transport message. The rounds are scheduled with {@link
+ * SimaSimulation#getScheduler()} only while the agent has active rumors or pull rounds to do.
+ */
+public class GossipBroadcast extends BasicBroadcast {
+
+    // Static.
+
+    public static final String MODE_ARGS = "mode";
+    public static final String FANOUT_ARGS = "fanout";
+    public static final String ROUNDS_ARGS = "rounds";
+    public static final String ROUND_PERIOD_ARGS = "roundPeriod";
+
+    public static final String PUSH_MODE = "push";
+    public static final String PULL_MODE = "pull";
+    public static final String PUSH_PULL_MODE = "pushPull";
+
+    public static final int DEFAULT_FANOUT = 3;
+    public static final int DEFAULT_ROUNDS = 4;
+    public static final long DEFAULT_ROUND_PERIOD = 10L;
+
+    // Variables.
+
+    private final boolean push;
+
+    private final boolean pull;
+
+    private final int fanout;
+
+    private final int rounds;
+
+    private final long roundPeriod;
+
+    private long sequence;
+
+    private final ReceivedSequences received;
+
+    private final List<ActiveRumor> activeRumors;
+
+    /**
+     * The rumor advertised in the pull requests, null if the pull requests do not advertise a rumor.
+     */
+    private GossipMessage pulledRumor;
+
+    private int pullRoundsLeft;
+
+    private boolean roundScheduled;
+
+    /**
+     * The number of samples of peers done by the owner, the sequence of the random stream of the next sample.
+     */
+    private long nbSamples;
+
+    // Constructors.
+
+    /**
+     * @param protocolTag the protocol tag
+     * @param agentOwner  the agent owner
+     * @param args        the arguments, can be null
+     *
+     * @throws IllegalArgumentException if the protocolTag or the agentOwner is null or if an argument is not valid
+     */
+    public GossipBroadcast(String protocolTag, SimaAgent agentOwner, Map<String, String> args) {
+        super(protocolTag, agentOwner, args);
+        Map<String, String> arguments = args != null ? args : Map.of();
+        String mode = arguments.getOrDefault(MODE_ARGS, PUSH_MODE);
+        switch (mode) {
+            case PUSH_MODE -> {
+                push = true;
+                pull = false;
+            }
+            case PULL_MODE -> {
+                push = false;
+                pull = true;
+            }
+            case PUSH_PULL_MODE -> {
+                push = true;
+                pull = true;
+            }
+            default -> throw new IllegalArgumentException("Unknown " + MODE_ARGS + " " + mode);
+        }
+        fanout = (int) parsePositive(arguments, FANOUT_ARGS, DEFAULT_FANOUT);
+        rounds = (int) parsePositive(arguments, ROUNDS_ARGS, DEFAULT_ROUNDS);
+        roundPeriod = parsePositive(arguments, ROUND_PERIOD_ARGS, DEFAULT_ROUND_PERIOD);
+
+        sequence = 0L;
+        received = new ReceivedSequences();
+        activeRumors = new ArrayList<>();
+        pulledRumor = null;
+        pullRoundsLeft = 0;
+        roundScheduled = false;
+        nbSamples = 0L;
+    }
+
+    // Methods.
+
+    private static long parsePositive(Map<String, String> args, String key, long defaultValue) {
+        String value = args.get(key);
+        if (value == null)
+            return defaultValue;
+
+        try {
+            long parsed = Long.parseLong(value);
+            if (parsed < 1 || parsed > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("The argument " + key + " must be in [1; " + Integer.MAX_VALUE + "]: " + value);
+
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The argument " + key + " is not a number: " + value, e);
+        }
+    }
+
+    /**
+     * Delivers the message to the owner and begins to gossip it.
+     *
+     * @param message the message to broadcast
+     *
+     * @throws IllegalArgumentException if the message to broadcast is null
+     */
+    @Override
+    public void broadcast(Message message) {
+        isNotNull(message);
+        if (ownerIsKilled()) {
+            SimaLog.info(getAgentOwner().getAgentIdentifier() + " cannot broadcast because it is killed.");
+            return;
+        }
+
+        GossipMessage rumor;
+        synchronized (this) {
+            var owner = getAgentOwner().getAgentIdentifier();
+            rumor = new GossipMessage(GossipMessage.Type.RUMOR, sequence++, owner, owner, message, getIdentifier());
+            received.markReceived(owner, rumor.getNumSequence());
+            activate(rumor);
+        }
+        deliver(rumor);
+    }
+
+    @Override
+    public void receive(Message message) {
+        if (isAcceptedEvent(message)) {
+            GossipMessage gossipMessage = acceptedMessageClass().cast(message);
+            if (gossipMessage.isPullRequest()) {
+                answerPullRequest(gossipMessage);
+            } else {
+                boolean isNew;
+                synchronized (this) {
+                    isNew = received.markReceived(gossipMessage.getSender(), gossipMessage.getNumSequence());
+                    if (isNew)
+                        activate(gossipMessage);
+                }
+                if (isNew)
+                    deliver(gossipMessage);
+            }
+        }
+    }
+
+    /**
+     * Sends back the active rumors to the requester. If the request advertises a rumor which has never been received, begins to pull.
+     */
+    private synchronized void answerPullRequest(GossipMessage pullRequest) {
+        var owner = getAgentOwner().getAgentIdentifier();
+        var requester = pullRequest.getRelay();
+        if (!requester.equals(owner))
+            for (ActiveRumor activeRumor : activeRumors)
+                getMessageTransport().send(requester, activeRumor.rumor.relayedBy(owner));
+
+        if (pull && pullRoundsLeft == 0 && pullRequest.getNumSequence() != GossipMessage.NO_SEQUENCE
+                && !received.isReceived(pullRequest.getSender(), pullRequest.getNumSequence())) {
+            // The agent pulls until it receives the rumor, its requests advertise nothing to not propagate the pulling without end.
+            pulledRumor = null;
+            pullRoundsLeft = rounds;
+            scheduleNextRound();
+        }
+    }
+
+    /**
+     * Pushes the new rumor at once and keeps it active for the next rounds.
+     */
+    private void activate(GossipMessage rumor) {
+        var relayed = rumor.relayedBy(getAgentOwner().getAgentIdentifier());
+        var activeRumor = new ActiveRumor(relayed, rounds);
+        activeRumors.add(activeRumor);
+        if (push) {
+            sendToPeers(relayed);
+            activeRumor.roundsLeft--;
+        }
+        if (pull) {
+            pulledRumor = relayed;
+            pullRoundsLeft = rounds;
+        }
+        scheduleNextRound();
+    }
+
+    private synchronized void executeRound() {
+        roundScheduled = false;
+        if (ownerIsKilled())
+            return;
+
+        Iterator<ActiveRumor> iterator = activeRumors.iterator();
+        while (iterator.hasNext()) {
+            var activeRumor = iterator.next();
+            if (activeRumor.roundsLeft <= 0) {
+                iterator.remove();
+            } else {
+                if (push)
+                    sendToPeers(activeRumor.rumor);
+                activeRumor.roundsLeft--;
+            }
+        }
+
+        if (pullRoundsLeft > 0) {
+            sendToPeers(createPullRequest());
+            pullRoundsLeft--;
+        }
+
+        scheduleNextRound();
+    }
+
+    private GossipMessage createPullRequest() {
+        var owner = getAgentOwner().getAgentIdentifier();
+        if (pulledRumor != null)
+            return new GossipMessage(GossipMessage.Type.PULL_REQUEST, pulledRumor.getNumSequence(), pulledRumor.getSender(), owner, null,
+                                     getIdentifier());
+        else
+            return new GossipMessage(GossipMessage.Type.PULL_REQUEST, GossipMessage.NO_SEQUENCE, owner, owner, null, getIdentifier());
+    }
+
+    private void scheduleNextRound() {
+        if (!roundScheduled && (!activeRumors.isEmpty() || pullRoundsLeft > 0)) {
+            roundScheduled = true;
+            scheduleExecutableOnce(this::executeRound, roundPeriod);
+        }
+    }
+
+    /**
+     * Sends the message to {@link #getFanout()} random members of the group membership, the owner excepted, with only one multicast.
+     *
+     * @param gossipMessage the message to send
+     */
+    private void sendToPeers(GossipMessage gossipMessage) {
+        var owner = getAgentOwner().getAgentIdentifier();
+        List<AgentIdentifier> peers = getEnvironment().sampleEvolvingAgents(fanout, owner, keyedRandom(owner.getAgentUniqueId(), nbSamples++));
+        if (!peers.isEmpty())
+            getMessageTransport().sendMulticast(peers, gossipMessage);
+    }
+
+    @Override
+    protected Class<? extends GossipMessage> acceptedMessageClass() {
+        return GossipMessage.class;
+    }
+
+    // Getters.
+
+    public boolean isPush() {
+        return push;
+    }
+
+    public boolean isPull() {
+        return pull;
+    }
+
+    public int getFanout() {
+        return fanout;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getRoundPeriod() {
+        return roundPeriod;
+    }
+
+    /**
+     * @return the number of rumors which are still gossiped or answered to the pull requests.
+     */
+    public synchronized int getNbActiveRumors() {
+        return activeRumors.size();
+    }
+
+    // Inner classes.
+
+    private static final class ActiveRumor {
+
+        // Variables.
+
+        private final GossipMessage rumor;
+
+        private int roundsLeft;
+
+        // Constructors.
+
+        ActiveRumor(GossipMessage rumor, int roundsLeft) {
+            this.rumor = rumor;
+            this.roundsLeft = roundsLeft;
+        }
+    }
+}
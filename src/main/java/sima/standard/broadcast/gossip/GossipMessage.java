@@ -0,0 +1,123 @@
+package sima.standard.broadcast.gossip;
+
+import org.jetbrains.annotations.NotNull;
+import sima.core.agent.AgentIdentifier;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.standard.broadcast.basic.BroadcastMessage;
+import sima.standard.environment.message.Message;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A message of the {@link GossipBroadcast}. It is either a {@link Type#RUMOR} which carries a broadcast message, or a {@link Type#PULL_REQUEST} which
+ * asks the receiver to send back its active rumors.
+ * <p>
+ * The sender of a rumor is the agent which has broadcast it and is kept when the rumor is relayed, the rumor is identified by its sender and its
+ * sequence number. The relay is the agent which has sent this copy of the message.
+ * <p>
+ * A pull request has no content. Its sender and its sequence number identify a rumor that the requester knows, or the sequence number is {@link
+ * #NO_SEQUENCE} if the requester does not advertise any rumor.
+ */
+public class GossipMessage extends BroadcastMessage {
+
+    // Static.
+
+    public static final long NO_SEQUENCE = -1L;
+
+    // Variables.
+
+    private final Type type;
+
+    private final long numSequence;
+
+    private final AgentIdentifier relay;
+
+    // Constructors.
+
+    /**
+     * @param type             the type of the message
+     * @param numSequence      the sequence number of the rumor
+     * @param sender           the agent which has broadcast the rumor
+     * @param relay            the agent which sends this copy of the message
+     * @param content          the content, null for a pull request
+     * @param intendedProtocol the intended protocol
+     *
+     * @throws NullPointerException     if the sender or the intended protocol is null
+     * @throws IllegalArgumentException if the type or the relay is null
+     */
+    public GossipMessage(Type type, long numSequence, AgentIdentifier sender, AgentIdentifier relay, Message content,
+                         ProtocolIdentifier intendedProtocol) {
+        super(sender, content, intendedProtocol);
+        this.type = Optional.ofNullable(type).orElseThrow(() -> new IllegalArgumentException("The type cannot be null"));
+        this.numSequence = numSequence;
+        this.relay = Optional.ofNullable(relay).orElseThrow(() -> new IllegalArgumentException("The relay cannot be null"));
+    }
+
+    private GossipMessage(GossipMessage other) {
+        this(other.type, other.numSequence, other.getSender(), other.relay, other.getMessage() != null ? other.getMessage().duplicate() : null,
+             other.getIntendedProtocol());
+    }
+
+    // Methods.
+
+    /**
+     * @param relay the agent which relays the rumor
+     *
+     * @return a copy of this message with the specified relay. The content is shared, it is duplicated by the transport.
+     */
+    public GossipMessage relayedBy(AgentIdentifier relay) {
+        return relay.equals(this.relay) ? this : new GossipMessage(type, numSequence, getSender(), relay, getMessage(), getIntendedProtocol());
+    }
+
+    public boolean isRumor() {
+        return type == Type.RUMOR;
+    }
+
+    public boolean isPullRequest() {
+        return type == Type.PULL_REQUEST;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GossipMessage that)) return false;
+        if (!super.equals(o)) return false;
+        return numSequence == that.numSequence && type == that.type && relay.equals(that.relay);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), type, numSequence, relay);
+    }
+
+    @Override
+    public @NotNull GossipMessage duplicate() {
+        return isImmutable(getMessage()) ? this : new GossipMessage(this);
+    }
+
+    @Override
+    public String toString() {
+        return "[GossipMessage - type=" + type + ", numSequence=" + numSequence + ", sender=" + getSender() + ", relay=" + relay + "]";
+    }
+
+    // Getters.
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getNumSequence() {
+        return numSequence;
+    }
+
+    public AgentIdentifier getRelay() {
+        return relay;
+    }
+
+    // Inner classes.
+
+    public enum Type {
+        RUMOR, PULL_REQUEST
+    }
+}
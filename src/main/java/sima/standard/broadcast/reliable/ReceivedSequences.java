@@ -0,0 +1,268 @@
+package sima.standard.broadcast.reliable;
+
+import sima.core.agent.AgentIdentifier;
+import sima.core.utils.LongHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Records the sequence numbers of the broadcast messages received from each sender, as {@link ReliableBroadcastMessage}.
+ * <p>
+ * The sequence numbers of a sender begin at 0 and are contiguous. For each sender, only a low watermark and a small bitmap are kept: all sequence
+ * numbers less than the low watermark have been received and the bitmap contains the sequence numbers received above it. When the message of the low
+ * watermark is received, the watermark advances over all the contiguous received sequence numbers and the bitmap is shifted. Therefore, the memory
+ * is O(number of senders) plus the size of the gaps of each sender, and a check is O(1) without hashing the message.
+ * <p>
+ * The bitmap of a sender covers at most the max window size sequence numbers above the low watermark. If a sequence number beyond the window is
+ * received, the low watermark jumps to keep this sequence number in the window: the sequence numbers skipped by the jump which have not been received
+ * are given up, they are counted in {@link #getNbSkippedSequences()} and will be considered as already received if they arrive later. Therefore, a
+ * large jump of sequence numbers never allocates more than the max window size.
+ * <p>
+ * The window of a sender is found with the unique id of its {@link AgentIdentifier}. The unique id is stable: unlike the agent handle, it is not
+ * unbound when the sender is removed from the simulation, therefore the messages of a killed sender still in flight are not delivered twice.
+ * <p>
+ * This class is not thread safe.
+ */
+public final class ReceivedSequences {
+
+    // Static.
+
+    private static final int INITIAL_NB_SENDERS = 16;
+
+    public static final int DEFAULT_MAX_WINDOW_SIZE = 1 << 16;
+
+    // Variables.
+
+    private final LongHashMap<SenderWindow> windows;
+
+    /**
+     * The max number of sequence numbers above the low watermark tracked for a sender, multiple of {@link Long#SIZE}.
+     */
+    private final long maxWindowSize;
+
+    private long nbSkippedSequences;
+
+    // Constructors.
+
+    public ReceivedSequences() {
+        this(DEFAULT_MAX_WINDOW_SIZE);
+    }
+
+    /**
+     * @param maxWindowSize the max number of sequence numbers above the low watermark tracked for a sender, rounded up to a multiple of {@link
+     *                      Long#SIZE}
+     *
+     * @throws IllegalArgumentException if the maxWindowSize is less than 1
+     */
+    public ReceivedSequences(int maxWindowSize) {
+        if (maxWindowSize < 1)
+            throw new IllegalArgumentException("The maxWindowSize cannot be less than 1");
+
+        windows = new LongHashMap<>(INITIAL_NB_SENDERS);
+        this.maxWindowSize = ((maxWindowSize + Long.SIZE - 1L) / Long.SIZE) * Long.SIZE;
+        nbSkippedSequences = 0L;
+    }
+
+    // Methods.
+
+    /**
+     * Records that the message of the sequence number has been received from the sender.
+     *
+     * @param sender   the sender of the message
+     * @param sequence the sequence number of the message
+     *
+     * @return true if the message had never been received, else false.
+     */
+    public boolean markReceived(AgentIdentifier sender, long sequence) {
+        var window = windowOf(sender);
+        if (sequence - window.lowWatermark > maxWindowSize)
+            nbSkippedSequences += window.skipTo(sequence - maxWindowSize);
+
+        return window.markReceived(sequence);
+    }
+
+    /**
+     * @param sender   the sender of the message
+     * @param sequence the sequence number of the message
+     *
+     * @return true if the message of the sequence number has already been received from the sender, else false.
+     */
+    public boolean isReceived(AgentIdentifier sender, long sequence) {
+        return windowOf(sender).isReceived(sequence);
+    }
+
+    private SenderWindow windowOf(AgentIdentifier sender) {
+        long uniqueId = sender.getAgentUniqueId();
+        var window = windows.get(uniqueId);
+        if (window == null) {
+            window = new SenderWindow();
+            windows.put(uniqueId, window);
+        }
+        return window;
+    }
+
+    /**
+     * @param sender the sender
+     *
+     * @return the low watermark of the sender, all sequence numbers less than it have been received.
+     */
+    public long getLowWatermark(AgentIdentifier sender) {
+        return windowOf(sender).lowWatermark;
+    }
+
+    /**
+     * @param sender the sender
+     *
+     * @return the number of longs of the bitmap of the sender.
+     */
+    public int getBitmapSize(AgentIdentifier sender) {
+        return windowOf(sender).bits.length;
+    }
+
+    public int getNbSenders() {
+        return windows.size();
+    }
+
+    /**
+     * @return the number of sequence numbers never received and given up because a sequence number beyond the window of their sender has been
+     * received.
+     */
+    public long getNbSkippedSequences() {
+        return nbSkippedSequences;
+    }
+
+    // Inner classes.
+
+    private static final class SenderWindow {
+
+        // Variables.
+
+        /**
+         * All sequence numbers less than lowWatermark have been received, lowWatermark has not been received.
+         */
+        private long lowWatermark;
+
+        /**
+         * The bit i is set if the sequence number lowWatermark + 1 + i has been received.
+         */
+        private long[] bits;
+
+        // Constructors.
+
+        SenderWindow() {
+            lowWatermark = 0L;
+            bits = new long[1];
+        }
+
+        // Methods.
+
+        boolean isReceived(long sequence) {
+            if (sequence < lowWatermark)
+                return true;
+            if (sequence == lowWatermark)
+                return false;
+
+            long offset = sequence - lowWatermark - 1;
+            long word = offset >>> 6;
+            return word < bits.length && (bits[(int) word] & (1L << offset)) != 0L;
+        }
+
+        boolean markReceived(long sequence) {
+            if (sequence < lowWatermark)
+                return false;
+
+            if (sequence == lowWatermark) {
+                advance();
+                return true;
+            }
+
+            // The window is bounded by the caller, the offset fits in an int.
+            long offset = sequence - lowWatermark - 1;
+            int word = (int) (offset >>> 6);
+            if (word >= bits.length)
+                bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length << 1));
+
+            long mask = 1L << offset;
+            if ((bits[word] & mask) != 0L)
+                return false;
+
+            bits[word] |= mask;
+            return true;
+        }
+
+        /**
+         * Moves the low watermark to the specified sequence number, or after it if it and the next ones have already been received.
+         *
+         * @param newLowWatermark the new low watermark, greater than the current low watermark
+         *
+         * @return the number of sequence numbers less than the new low watermark which have not been received.
+         */
+        long skipTo(long newLowWatermark) {
+            long shift = newLowWatermark - lowWatermark;
+            long trackedBits = (long) bits.length * Long.SIZE;
+            // The bit i is the sequence number lowWatermark + 1 + i, the new low watermark is the bit shift - 1.
+            long nbSkipped = shift - receivedBefore(Math.min(shift - 1, trackedBits));
+            boolean newLowWatermarkReceived = shift - 1 < trackedBits && (bits[(int) ((shift - 1) >>> 6)] & (1L << (shift - 1))) != 0L;
+
+            lowWatermark = newLowWatermark;
+            if (shift < trackedBits)
+                shiftRight((int) shift);
+            else
+                bits = new long[1];
+
+            if (newLowWatermarkReceived)
+                advance();
+
+            return nbSkipped;
+        }
+
+        /**
+         * @return the number of bits set among the nbBits first bits of the bitmap.
+         */
+        private long receivedBefore(long nbBits) {
+            long received = 0L;
+            int fullWords = (int) (nbBits >>> 6);
+            for (int i = 0; i < fullWords; i++)
+                received += Long.bitCount(bits[i]);
+            if ((nbBits & 63) != 0)
+                received += Long.bitCount(bits[fullWords] & ((1L << nbBits) - 1L));
+            return received;
+        }
+
+        /**
+         * The low watermark has been received, moves it after all the contiguous received sequence numbers.
+         */
+        private void advance() {
+            int shift = 1;
+            for (long word : bits) {
+                if (word == -1L) {
+                    shift += Long.SIZE;
+                } else {
+                    shift += Long.numberOfTrailingZeros(~word);
+                    break;
+                }
+            }
+
+            lowWatermark += shift;
+            shiftRight(shift);
+        }
+
+        private void shiftRight(int shift) {
+            int wordShift = shift >>> 6;
+            int bitShift = shift & 63;
+            int lastUsedWord = -1;
+            for (int i = 0; i < bits.length; i++) {
+                int source = i + wordShift;
+                long low = source < bits.length ? bits[source] : 0L;
+                long high = source + 1 < bits.length ? bits[source + 1] : 0L;
+                bits[i] = bitShift == 0 ? low : (low >>> bitShift) | (high << (Long.SIZE - bitShift));
+                if (bits[i] != 0L)
+                    lastUsedWord = i;
+            }
+
+            // The gap has been filled, the bitmap can be shrunk.
+            if (bits.length > 1 && lastUsedWord < bits.length / 4)
+                bits = Arrays.copyOf(bits, Math.max(1, lastUsedWord + 1));
+        }
+    }
+}
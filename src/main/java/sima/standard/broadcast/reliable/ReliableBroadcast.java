@@ -3,13 +3,12 @@ package sima.standard.broadcast.reliable;
 import sima.core.agent.AgentIdentifier;
 import sima.core.agent.SimaAgent;
 import sima.core.environment.Environment;
+import sima.core.environment.event.Event;
 import sima.standard.broadcast.basic.BasicBroadcast;
 import sima.standard.environment.message.Message;
 import sima.standard.transport.MessageTransportProtocol;
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 /**
  * A class which implement message broadcasting.
@@ -26,6 +25,9 @@ import java.util.Set;
  * A message broadcaster need to know the group membership which is the group of all processes "connected" together. The broadcast take each member
  * and send to him the message. In this implementation, the group membership is given by the class {@link Environment} with the method {@link
  * Environment#getEvolvingAgentIdentifiers()}. However in next version, the group membership will be provided by a dedicated class.
+ * <p>
+ * The already received messages are detected with their sender and their sequence number (see {@link ReceivedSequences}), the messages are never
+ * stored nor hashed.
  *
  * @see BasicBroadcast
  */
@@ -35,14 +37,14 @@ public class ReliableBroadcast extends BasicBroadcast {
 
     private long sequence;
 
-    private final Set<ReliableBroadcastMessage> messageReceived;
+    private final ReceivedSequences messageReceived;
 
     // Constructors.
 
     public ReliableBroadcast(String protocolTag, SimaAgent agentOwner, Map<String, String> args) {
         super(protocolTag, agentOwner, args);
         sequence = 0L;
-        messageReceived = new HashSet<>();
+        messageReceived = new ReceivedSequences();
     }
 
     // Methods.
@@ -60,7 +62,7 @@ public class ReliableBroadcast extends BasicBroadcast {
     public void receive(Message message) {
         if (isAcceptedEvent(message)) {
             ReliableBroadcastMessage reliableBroadcastMessage = acceptedMessageClass().cast(message);
-            if (messageReceived.add(reliableBroadcastMessage)) {
+            if (markReceived(reliableBroadcastMessage)) {
                 if (!reliableBroadcastMessage.getSender().equals(getAgentOwner().getAgentIdentifier())) {
                     // If we are not the sender of the broadcast message
                     reSendToAll(reliableBroadcastMessage);
@@ -70,17 +72,59 @@ public class ReliableBroadcast extends BasicBroadcast {
         }
     }
 
+    /**
+     * Deduplicates the whole batch before treating the messages which have never been received. Treats each new message as {@link
+     * #receive(Message)} does. The events which are not accepted are given to {@link #processEvent(Event)} after the new messages, therefore an
+     * exception thrown for one of them does not lose the new messages of the batch.
+     *
+     * @param events the events to process
+     */
+    @Override
+    public void processEvents(List<Event> events) {
+        List<ReliableBroadcastMessage> newMessages = new ArrayList<>(events.size());
+        List<Event> otherEvents = null;
+        for (Event event : events)
+            if (acceptedMessageClass().isInstance(event)) {
+                ReliableBroadcastMessage reliableBroadcastMessage = acceptedMessageClass().cast(event);
+                if (markReceived(reliableBroadcastMessage))
+                    newMessages.add(reliableBroadcastMessage);
+            } else {
+                if (otherEvents == null)
+                    otherEvents = new ArrayList<>();
+                otherEvents.add(event);
+            }
+
+        for (ReliableBroadcastMessage reliableBroadcastMessage : newMessages) {
+            if (!reliableBroadcastMessage.getSender().equals(getAgentOwner().getAgentIdentifier()))
+                reSendToAll(reliableBroadcastMessage);
+            deliver(reliableBroadcastMessage);
+        }
+
+        if (otherEvents != null)
+            for (Event event : otherEvents)
+                processEvent(event);
+    }
+
+    /**
+     * @param reliableBroadcastMessage the received message
+     *
+     * @return true if the message had never been received, else false.
+     */
+    private boolean markReceived(ReliableBroadcastMessage reliableBroadcastMessage) {
+        return messageReceived.markReceived(reliableBroadcastMessage.getSender(), reliableBroadcastMessage.getNumSequence());
+    }
+
     /**
      * Send the {@link sima.standard.broadcast.basic.BroadcastMessage} to all others members of the {@link #getGroupMemberShip()} excepted us.
      *
      * @param broadcastMessage the {@link sima.standard.broadcast.basic.BroadcastMessage} to resend
      */
     private void reSendToAll(ReliableBroadcastMessage broadcastMessage) {
-        for (AgentIdentifier agent : getGroupMemberShip()) {
-            if (!agent.equals(getAgentOwner().getAgentIdentifier())) {
-                getMessageTransport().send(agent, broadcastMessage);
-            }
-        }
+        var owner = getAgentOwner().getAgentIdentifier();
+        List<AgentIdentifier> others = new ArrayList<>(getGroupMemberShip());
+        others.removeIf(agent -> agent.equals(owner));
+        if (!others.isEmpty())
+            getMessageTransport().sendMulticast(others, broadcastMessage);
     }
 
     @Override
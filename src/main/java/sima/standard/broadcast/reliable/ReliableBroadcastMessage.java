@@ -54,6 +54,12 @@ public class ReliableBroadcastMessage extends BroadcastMessage {
 
     @Override
     public @NotNull ReliableBroadcastMessage duplicate() {
-        return new ReliableBroadcastMessage(this);
+        return isImmutable(getContent()) ? this : new ReliableBroadcastMessage(this);
+    }
+
+    // Getters.
+
+    public long getNumSequence() {
+        return numSequence;
     }
 }
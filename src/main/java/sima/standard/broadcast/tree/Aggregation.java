@@ -0,0 +1,34 @@
+package sima.standard.broadcast.tree;
+
+import sima.core.agent.SimaAgent;
+
+import java.io.Serializable;
+
+/**
+ * An aggregate query computed up a {@link SpanningTree} by {@link TreeBroadcast#aggregate(Aggregation, java.util.function.Consumer)}.
+ * <p>
+ * Each agent computes its local value, then combines it with the partial aggregates of its children before sending the result to its parent. The
+ * combine function must be associative and commutative because the partial aggregates are combined in their order of arrival. For example, a count
+ * is {@code localValue = 1} and {@code combine = Long::sum}, an average is a sum and a count combined together.
+ * <p>
+ * The {@link Aggregation} is sent down the tree in the query, therefore it must be {@link Serializable} as the events.
+ *
+ * @param <V> the type of the aggregated values
+ */
+public interface Aggregation<V extends Serializable> extends Serializable {
+
+    /**
+     * @param agent the agent which computes its value
+     *
+     * @return the value of the agent.
+     */
+    V localValue(SimaAgent agent);
+
+    /**
+     * @param v1 the first value
+     * @param v2 the second value
+     *
+     * @return the aggregate of the two values.
+     */
+    V combine(V v1, V v2);
+}
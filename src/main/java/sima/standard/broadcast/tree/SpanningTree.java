@@ -0,0 +1,207 @@
+package sima.standard.broadcast.tree;
+
+import sima.core.agent.AgentIdentifier;
+import sima.standard.environment.physical.graph.CSRGraph;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An immutable rooted spanning tree over a set of agents.
+ * <p>
+ * The tree is built one time by the root in O(number of agents) and shared by reference in the {@link TreeMessage}, therefore each agent finds its
+ * parent and its children in O(degree) without building anything. The children are stored as in a {@link CSRGraph}: one array of children and one
+ * array of offsets indexed by the position of the agent in the tree.
+ */
+public final class SpanningTree implements Serializable {
+
+    // Static.
+
+    public static final int NO_PARENT = -1;
+
+    // Variables.
+
+    /**
+     * The agents by position, the root is at the position 0.
+     */
+    private final AgentIdentifier[] members;
+
+    private final Map<AgentIdentifier, Integer> positions;
+
+    private final int[] parents;
+
+    private final int[] childOffsets;
+
+    private final int[] children;
+
+    // Constructors.
+
+    private SpanningTree(AgentIdentifier[] members, int[] parents) {
+        this.members = members;
+        this.parents = parents;
+        this.positions = new HashMap<>(members.length * 2);
+        for (int i = 0; i < members.length; i++)
+            positions.put(members[i], i);
+
+        childOffsets = new int[members.length + 1];
+        for (int i = 1; i < members.length; i++)
+            childOffsets[parents[i] + 1]++;
+        for (int i = 0; i < members.length; i++)
+            childOffsets[i + 1] += childOffsets[i];
+
+        children = new int[Math.max(0, members.length - 1)];
+        int[] next = Arrays.copyOf(childOffsets, members.length);
+        for (int i = 1; i < members.length; i++)
+            children[next[parents[i]]++] = i;
+    }
+
+    // Methods.
+
+    /**
+     * Builds a balanced tree where each agent has at most degree children. The height of the tree is O(log(number of agents) / log(degree)).
+     *
+     * @param root    the root of the tree
+     * @param members the agents of the tree, the root can be in it or not
+     * @param degree  the max number of children of an agent
+     *
+     * @return a new {@link SpanningTree} which contains the root and all members.
+     *
+     * @throws IllegalArgumentException if the root or members is null or if degree is less than 1
+     */
+    public static SpanningTree balanced(AgentIdentifier root, Collection<AgentIdentifier> members, int degree) {
+        verifyArgs(root, members);
+        if (degree < 1)
+            throw new IllegalArgumentException("The degree cannot be less than 1");
+
+        AgentIdentifier[] ordered = withRootFirst(root, members);
+        int[] parents = new int[ordered.length];
+        parents[0] = NO_PARENT;
+        for (int i = 1; i < ordered.length; i++)
+            parents[i] = (i - 1) / degree;
+
+        return new SpanningTree(ordered, parents);
+    }
+
+    /**
+     * Builds a breadth first tree over the links of a topology, the nodes of the graph are the agent unique ids. Only the members relay the
+     * messages, therefore the members which cannot be reached from the root through other members are not in the tree.
+     *
+     * @param root    the root of the tree
+     * @param members the agents of the tree, the root can be in it or not
+     * @param graph   the topology
+     *
+     * @return a new {@link SpanningTree} which contains the root and all members reachable from it.
+     *
+     * @throws IllegalArgumentException if the root, members or the graph is null
+     */
+    public static SpanningTree fromTopology(AgentIdentifier root, Collection<AgentIdentifier> members, CSRGraph graph) {
+        verifyArgs(root, members);
+        graph = Optional.ofNullable(graph).orElseThrow(() -> new IllegalArgumentException("The graph cannot be null"));
+
+        Map<Integer, AgentIdentifier> membersByNode = new HashMap<>(members.size() * 2);
+        for (AgentIdentifier member : members)
+            membersByNode.put(member.getAgentUniqueId(), member);
+        membersByNode.remove(root.getAgentUniqueId());
+
+        List<AgentIdentifier> ordered = new ArrayList<>(membersByNode.size() + 1);
+        int[] parents = new int[membersByNode.size() + 1];
+        ordered.add(root);
+        parents[0] = NO_PARENT;
+        for (int position = 0; position < ordered.size(); position++) {
+            int node = ordered.get(position).getAgentUniqueId();
+            if (!graph.containsNode(node))
+                continue;
+
+            for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+                var neighbor = membersByNode.remove(graph.getEdgeTarget(edge));
+                if (neighbor != null) {
+                    parents[ordered.size()] = position;
+                    ordered.add(neighbor);
+                }
+            }
+        }
+
+        return new SpanningTree(ordered.toArray(new AgentIdentifier[0]), Arrays.copyOf(parents, ordered.size()));
+    }
+
+    private static void verifyArgs(AgentIdentifier root, Collection<AgentIdentifier> members) {
+        if (root == null)
+            throw new IllegalArgumentException("The root cannot be null");
+        if (members == null)
+            throw new IllegalArgumentException("The members cannot be null");
+    }
+
+    private static AgentIdentifier[] withRootFirst(AgentIdentifier root, Collection<AgentIdentifier> members) {
+        Set<AgentIdentifier> ordered = new LinkedHashSet<>(members.size() * 2);
+        ordered.add(root);
+        ordered.addAll(members);
+        return ordered.toArray(new AgentIdentifier[0]);
+    }
+
+    /**
+     * @param agent the agent
+     *
+     * @return true if the agent is in the tree, else false.
+     */
+    public boolean contains(AgentIdentifier agent) {
+        return positions.containsKey(agent);
+    }
+
+    /**
+     * @param agent the agent
+     *
+     * @return the parent of the agent, null if the agent is the root or is not in the tree.
+     */
+    public AgentIdentifier getParent(AgentIdentifier agent) {
+        Integer position = positions.get(agent);
+        return position != null && parents[position] != NO_PARENT ? members[parents[position]] : null;
+    }
+
+    /**
+     * @param agent the agent
+     *
+     * @return the children of the agent, an empty list if the agent is a leaf or is not in the tree.
+     */
+    public List<AgentIdentifier> getChildren(AgentIdentifier agent) {
+        Integer position = positions.get(agent);
+        if (position == null)
+            return Collections.emptyList();
+
+        List<AgentIdentifier> agentChildren = new ArrayList<>(childOffsets[position + 1] - childOffsets[position]);
+        for (int i = childOffsets[position]; i < childOffsets[position + 1]; i++)
+            agentChildren.add(members[children[i]]);
+        return agentChildren;
+    }
+
+    /**
+     * @return the number of levels of the tree, 1 if the tree only contains the root.
+     */
+    public int getHeight() {
+        int[] depths = new int[members.length];
+        int height = 0;
+        for (int i = 1; i < members.length; i++) {
+            // The parent of an agent is always before it.
+            depths[i] = depths[parents[i]] + 1;
+            height = Math.max(height, depths[i]);
+        }
+        return height + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "[SpanningTree - root=" + getRoot() + ", size=" + size() + "]";
+    }
+
+    // Getters.
+
+    public AgentIdentifier getRoot() {
+        return members[0];
+    }
+
+    /**
+     * @return the number of agents in the tree, root included.
+     */
+    public int size() {
+        return members.length;
+    }
+}
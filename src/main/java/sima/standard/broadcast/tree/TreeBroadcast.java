@@ -0,0 +1,341 @@
+package sima.standard.broadcast.tree;
+
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.Environment;
+import sima.core.simulation.SimaSimulation;
+import sima.standard.broadcast.basic.BasicBroadcast;
+import sima.standard.environment.message.Message;
+import sima.standard.environment.physical.DynamicTopologyPhysicalLayer;
+import sima.standard.environment.physical.GraphTopologyPhysicalLayer;
+import sima.standard.environment.physical.graph.CSRGraph;
+import sima.standard.transport.MessageTransportProtocol;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static sima.core.simulation.SimaSimulation.SimaLog;
+
+/**
+ * A class which implements message broadcasting and aggregate queries over a {@link SpanningTree}.
+ * <p>
+ * A broadcast is sent down the tree: each agent delivers the message and forwards it to its children with only one multicast. An aggregation (see
+ * {@link #aggregate(Aggregation, Consumer)}) is sent down the tree in the same way, then each agent combines its local value with the partial
+ * aggregates of its children and sends the result to its parent. Therefore, each agent handles O(degree) messages and the root receives only the
+ * partial aggregates of its children instead of one reply per agent.
+ * <p>
+ * The tree is built by the root over the group membership (see {@link Environment#getEvolvingAgentIdentifiers()}):
+ * <ul>
+ *     <li>by default, a balanced tree where each agent has at most {@link #DEGREE_ARGS} children (see {@link SpanningTree#balanced(AgentIdentifier,
+ *     java.util.Collection, int)})</li>
+ *     <li>if the argument {@link #TOPOLOGY_LAYER_ARGS} names a {@link GraphTopologyPhysicalLayer} of the environment, a breadth first tree over its
+ *     links (see {@link SpanningTree#fromTopology(AgentIdentifier, java.util.Collection, CSRGraph)}). The {@link MessageTransportProtocol} should
+ *     use the same layer</li>
+ * </ul>
+ * The tree is kept by the root and rebuilt only when the membership or the topology has changed since its construction. A broadcast or a query
+ * carries its tree, therefore a change during a broadcast does not make the agents disagree on the tree.
+ * <p>
+ * If an agent of the tree is killed or leaves during an aggregation, its parent waits for it without end. With the argument {@link
+ * #AGGREGATION_TIMEOUT_ARGS}, an agent sends its partial aggregate to its parent after this timeout even if some children have not answered.
+ */
+public class TreeBroadcast extends BasicBroadcast {
+
+    // Static.
+
+    public static final String DEGREE_ARGS = "degree";
+    public static final String TOPOLOGY_LAYER_ARGS = "topologyLayer";
+    public static final String AGGREGATION_TIMEOUT_ARGS = "aggregationTimeout";
+
+    public static final int DEFAULT_DEGREE = 4;
+
+    /**
+     * The aggregations never time out.
+     */
+    public static final long NO_TIMEOUT = 0L;
+
+    // Variables.
+
+    private final int degree;
+
+    private final String topologyLayerName;
+
+    private final long aggregationTimeout;
+
+    private long sequence;
+
+    private SpanningTree tree;
+
+    private long treeMembershipVersion;
+
+    private CSRGraph treeGraph;
+
+    private final Map<AggregationKey, PendingAggregation> pendingAggregations;
+
+    // Constructors.
+
+    /**
+     * @param protocolTag the protocol tag
+     * @param agentOwner  the agent owner
+     * @param args        the arguments, can be null
+     *
+     * @throws IllegalArgumentException if the protocolTag or the agentOwner is null or if an argument is not valid
+     */
+    public TreeBroadcast(String protocolTag, SimaAgent agentOwner, Map<String, String> args) {
+        super(protocolTag, agentOwner, args);
+        Map<String, String> arguments = args != null ? args : Map.of();
+        degree = (int) parseLong(arguments, DEGREE_ARGS, DEFAULT_DEGREE, 1);
+        topologyLayerName = arguments.get(TOPOLOGY_LAYER_ARGS);
+        aggregationTimeout = parseLong(arguments, AGGREGATION_TIMEOUT_ARGS, NO_TIMEOUT, 0);
+
+        sequence = 0L;
+        pendingAggregations = new HashMap<>();
+    }
+
+    // Methods.
+
+    private static long parseLong(Map<String, String> args, String key, long defaultValue, long minValue) {
+        String value = args.get(key);
+        if (value == null)
+            return defaultValue;
+
+        try {
+            long parsed = Long.parseLong(value);
+            if (parsed < minValue || parsed > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("The argument " + key + " must be in [" + minValue + "; " + Integer.MAX_VALUE + "]: " + value);
+
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The argument " + key + " is not a number: " + value, e);
+        }
+    }
+
+    /**
+     * Delivers the message to the owner and sends it down the tree rooted at the owner.
+     *
+     * @param message the message to broadcast
+     *
+     * @throws IllegalArgumentException if the message to broadcast is null
+     */
+    @Override
+    public void broadcast(Message message) {
+        isNotNull(message);
+        if (ownerIsKilled()) {
+            SimaLog.info(getAgentOwner().getAgentIdentifier() + " cannot broadcast because it is killed.");
+            return;
+        }
+
+        TreeMessage treeMessage;
+        synchronized (this) {
+            treeMessage = TreeMessage.broadcastMessage(sequence++, currentTree(), message, getIdentifier());
+        }
+        deliver(treeMessage);
+        forwardToChildren(treeMessage);
+    }
+
+    /**
+     * Computes the aggregation over all agents of the tree rooted at the owner. The callback is called one time with the aggregate of all local
+     * values when the partial aggregates of all children of the owner have been received (or when the {@link #AGGREGATION_TIMEOUT_ARGS} has
+     * elapsed).
+     *
+     * @param aggregation the aggregation
+     * @param onResult    the callback which receives the aggregate
+     * @param <V>         the type of the aggregated values
+     *
+     * @throws IllegalArgumentException if the aggregation or onResult is null
+     */
+    public <V extends Serializable> void aggregate(Aggregation<V> aggregation, Consumer<V> onResult) {
+        aggregation = Optional.ofNullable(aggregation).orElseThrow(() -> new IllegalArgumentException("The aggregation cannot be null"));
+        onResult = Optional.ofNullable(onResult).orElseThrow(() -> new IllegalArgumentException("The onResult cannot be null"));
+        if (ownerIsKilled()) {
+            SimaLog.info(getAgentOwner().getAgentIdentifier() + " cannot aggregate because it is killed.");
+            return;
+        }
+
+        TreeMessage query;
+        synchronized (this) {
+            query = TreeMessage.queryMessage(sequence++, currentTree(), aggregation, getIdentifier());
+        }
+        startAggregation(query, onResult);
+    }
+
+    /**
+     * Returns the tree rooted at the owner, rebuilt if the membership or the topology has changed.
+     */
+    private SpanningTree currentTree() {
+        var environment = getEnvironment();
+        long membershipVersion = environment.getMembershipVersion();
+        CSRGraph graph = topologyGraph(environment);
+        if (tree == null || treeMembershipVersion != membershipVersion || treeGraph != graph) {
+            var owner = getAgentOwner().getAgentIdentifier();
+            List<AgentIdentifier> members = environment.getEvolvingAgentIdentifiers();
+            tree = graph != null ? SpanningTree.fromTopology(owner, members, graph) : SpanningTree.balanced(owner, members, degree);
+            treeMembershipVersion = membershipVersion;
+            treeGraph = graph;
+        }
+
+        return tree;
+    }
+
+    /**
+     * @return the current graph of the {@link #TOPOLOGY_LAYER_ARGS}, null if the tree must be balanced.
+     *
+     * @throws IllegalArgumentException if the layer does not exist or is not a {@link GraphTopologyPhysicalLayer}
+     */
+    private CSRGraph topologyGraph(Environment environment) {
+        if (topologyLayerName == null)
+            return null;
+
+        var layer = environment.getPhysicalConnectionLayer(topologyLayerName);
+        if (layer instanceof DynamicTopologyPhysicalLayer dynamicTopologyLayer)
+            return dynamicTopologyLayer.getCurrentGraph().toCSRGraph();
+        else if (layer instanceof GraphTopologyPhysicalLayer graphTopologyLayer)
+            return graphTopologyLayer.getGraph();
+        else
+            throw new IllegalArgumentException("The environment " + environment + " does not have a " + GraphTopologyPhysicalLayer.class +
+                                                       " mapped with the name " + topologyLayerName);
+    }
+
+    private void forwardToChildren(TreeMessage treeMessage) {
+        List<AgentIdentifier> children = treeMessage.getTree().getChildren(getAgentOwner().getAgentIdentifier());
+        if (!children.isEmpty())
+            getMessageTransport().sendMulticast(children, treeMessage);
+    }
+
+    @Override
+    public void receive(Message message) {
+        if (isAcceptedEvent(message)) {
+            TreeMessage treeMessage = acceptedMessageClass().cast(message);
+            switch (treeMessage.getType()) {
+                case BROADCAST -> {
+                    deliver(treeMessage);
+                    forwardToChildren(treeMessage);
+                }
+                case QUERY -> startAggregation(treeMessage, null);
+                case PARTIAL -> receivePartial(treeMessage);
+            }
+        }
+    }
+
+    /**
+     * Forwards the query to the children and waits for their partial aggregates. A leaf sends at once its local value to its parent.
+     *
+     * @param query    the query
+     * @param onResult the callback if the owner is the root, else null
+     */
+    @SuppressWarnings("unchecked")
+    private void startAggregation(TreeMessage query, Consumer<?> onResult) {
+        var owner = getAgentOwner().getAgentIdentifier();
+        List<AgentIdentifier> children = query.getTree().getChildren(owner);
+        var aggregation = (Aggregation<Serializable>) query.getAggregation();
+        var key = new AggregationKey(query.getSender(), query.getNumSequence());
+        var pending = new PendingAggregation(aggregation, query.getTree().getParent(owner), (Consumer<Serializable>) onResult, children.size(),
+                                             aggregation.localValue(getAgentOwner()));
+
+        if (children.isEmpty()) {
+            complete(key, pending);
+            return;
+        }
+
+        synchronized (this) {
+            pendingAggregations.put(key, pending);
+        }
+        getMessageTransport().sendMulticast(children, query);
+        if (aggregationTimeout != NO_TIMEOUT)
+            scheduleExecutableOnce(() -> timeout(key), aggregationTimeout);
+    }
+
+    private void receivePartial(TreeMessage partial) {
+        var key = new AggregationKey(partial.getSender(), partial.getNumSequence());
+        PendingAggregation completed = null;
+        synchronized (this) {
+            var pending = pendingAggregations.get(key);
+            if (pending != null) {
+                pending.value = pending.aggregation.combine(pending.value, partial.getValue());
+                if (--pending.nbMissingChildren == 0)
+                    completed = pendingAggregations.remove(key);
+            } // else the aggregation has timed out.
+        }
+
+        if (completed != null)
+            complete(key, completed);
+    }
+
+    private void timeout(AggregationKey key) {
+        PendingAggregation pending;
+        synchronized (this) {
+            pending = pendingAggregations.remove(key);
+        }
+
+        if (pending != null) {
+            SimaLog.info(getAgentOwner().getAgentIdentifier() + " aggregation timeout, " + pending.nbMissingChildren + " children have not answered");
+            complete(key, pending);
+        }
+    }
+
+    /**
+     * Sends the aggregate of the subtree to the parent, or gives it to the callback if the owner is the root.
+     */
+    private void complete(AggregationKey key, PendingAggregation pending) {
+        if (pending.onResult != null)
+            pending.onResult.accept(pending.value);
+        else if (pending.parent != null && !ownerIsKilled())
+            getMessageTransport().send(pending.parent, TreeMessage.partialMessage(key.numSequence(), key.root(), pending.value, getIdentifier()));
+    }
+
+    @Override
+    protected Class<? extends TreeMessage> acceptedMessageClass() {
+        return TreeMessage.class;
+    }
+
+    // Getters.
+
+    public int getDegree() {
+        return degree;
+    }
+
+    public long getAggregationTimeout() {
+        return aggregationTimeout;
+    }
+
+    /**
+     * @return the number of aggregations for which the owner waits for the partial aggregates of its children.
+     */
+    public synchronized int getNbPendingAggregations() {
+        return pendingAggregations.size();
+    }
+
+    // Inner classes.
+
+    private record AggregationKey(AgentIdentifier root, long numSequence) {
+    }
+
+    private static final class PendingAggregation {
+
+        // Variables.
+
+        private final Aggregation<Serializable> aggregation;
+
+        private final AgentIdentifier parent;
+
+        private final Consumer<Serializable> onResult;
+
+        private int nbMissingChildren;
+
+        private Serializable value;
+
+        // Constructors.
+
+        PendingAggregation(Aggregation<Serializable> aggregation, AgentIdentifier parent, Consumer<Serializable> onResult, int nbMissingChildren,
+                           Serializable value) {
+            this.aggregation = aggregation;
+            this.parent = parent;
+            this.onResult = onResult;
+            this.nbMissingChildren = nbMissingChildren;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package sima.standard.broadcast.tree;
+
+import org.jetbrains.annotations.NotNull;
+import sima.core.agent.AgentIdentifier;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.standard.broadcast.basic.BroadcastMessage;
+import sima.standard.environment.message.Message;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A message of the {@link TreeBroadcast}. The sender is always the root of the tree, a broadcast or an aggregation is identified by its root and its
+ * sequence number.
+ * <ul>
+ *     <li>{@link Type#BROADCAST}: carries the broadcast message and the {@link SpanningTree} down the tree</li>
+ *     <li>{@link Type#QUERY}: carries the {@link Aggregation} and the {@link SpanningTree} down the tree</li>
+ *     <li>{@link Type#PARTIAL}: carries the partial aggregate of a subtree up to the parent</li>
+ * </ul>
+ * The {@link SpanningTree} and the {@link Aggregation} are immutable, they are shared by all copies of the message.
+ */
+public class TreeMessage extends BroadcastMessage {
+
+    // Variables.
+
+    private final Type type;
+
+    private final long numSequence;
+
+    private final SpanningTree tree;
+
+    private final Aggregation<?> aggregation;
+
+    private final Serializable value;
+
+    // Constructors.
+
+    private TreeMessage(Type type, long numSequence, AgentIdentifier root, SpanningTree tree, Aggregation<?> aggregation, Serializable value,
+                        Message content, ProtocolIdentifier intendedProtocol) {
+        super(root, content, intendedProtocol);
+        this.type = type;
+        this.numSequence = numSequence;
+        this.tree = tree;
+        this.aggregation = aggregation;
+        this.value = value;
+    }
+
+    private TreeMessage(TreeMessage other) {
+        this(other.type, other.numSequence, other.getSender(), other.tree, other.aggregation, other.value,
+             other.getMessage() != null ? other.getMessage().duplicate() : null, other.getIntendedProtocol());
+    }
+
+    // Methods.
+
+    /**
+     * @param numSequence      the sequence number of the broadcast
+     * @param tree             the tree
+     * @param content          the broadcast message
+     * @param intendedProtocol the intended protocol
+     *
+     * @return a new {@link Type#BROADCAST} message whose sender is the root of the tree.
+     *
+     * @throws IllegalArgumentException if the tree or the content is null
+     */
+    public static TreeMessage broadcastMessage(long numSequence, SpanningTree tree, Message content, ProtocolIdentifier intendedProtocol) {
+        tree = Optional.ofNullable(tree).orElseThrow(() -> new IllegalArgumentException("The tree cannot be null"));
+        content = Optional.ofNullable(content).orElseThrow(() -> new IllegalArgumentException("The content cannot be null"));
+        return new TreeMessage(Type.BROADCAST, numSequence, tree.getRoot(), tree, null, null, content, intendedProtocol);
+    }
+
+    /**
+     * @param numSequence      the sequence number of the aggregation
+     * @param tree             the tree
+     * @param aggregation      the aggregation
+     * @param intendedProtocol the intended protocol
+     *
+     * @return a new {@link Type#QUERY} message whose sender is the root of the tree.
+     *
+     * @throws IllegalArgumentException if the tree or the aggregation is null
+     */
+    public static TreeMessage queryMessage(long numSequence, SpanningTree tree, Aggregation<?> aggregation, ProtocolIdentifier intendedProtocol) {
+        tree = Optional.ofNullable(tree).orElseThrow(() -> new IllegalArgumentException("The tree cannot be null"));
+        aggregation = Optional.ofNullable(aggregation).orElseThrow(() -> new IllegalArgumentException("The aggregation cannot be null"));
+        return new TreeMessage(Type.QUERY, numSequence, tree.getRoot(), tree, aggregation, null, null, intendedProtocol);
+    }
+
+    /**
+     * @param numSequence      the sequence number of the aggregation
+     * @param root             the root of the aggregation
+     * @param value            the partial aggregate, can be null
+     * @param intendedProtocol the intended protocol
+     *
+     * @return a new {@link Type#PARTIAL} message.
+     *
+     * @throws NullPointerException if the root is null
+     */
+    public static TreeMessage partialMessage(long numSequence, AgentIdentifier root, Serializable value, ProtocolIdentifier intendedProtocol) {
+        return new TreeMessage(Type.PARTIAL, numSequence, root, null, null, value, null, intendedProtocol);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TreeMessage that)) return false;
+        if (!super.equals(o)) return false;
+        return numSequence == that.numSequence && type == that.type && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), type, numSequence, value);
+    }
+
+    @Override
+    public @NotNull TreeMessage duplicate() {
+        return new TreeMessage(this);
+    }
+
+    @Override
+    public String toString() {
+        return "[TreeMessage - type=" + type + ", numSequence=" + numSequence + ", root=" + getSender() + "]";
+    }
+
+    // Getters.
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getNumSequence() {
+        return numSequence;
+    }
+
+    /**
+     * @return the tree, null for a {@link Type#PARTIAL} message.
+     */
+    public SpanningTree getTree() {
+        return tree;
+    }
+
+    /**
+     * @return the aggregation, null if the message is not a {@link Type#QUERY}.
+     */
+    public Aggregation<?> getAggregation() {
+        return aggregation;
+    }
+
+    /**
+     * @return the partial aggregate, null if the message is not a {@link Type#PARTIAL}.
+     */
+    public Serializable getValue() {
+        return value;
+    }
+
+    // Inner classes.
+
+    public enum Type {
+        BROADCAST, QUERY, PARTIAL
+    }
+}
@@ -0,0 +1,158 @@
+package sima.standard.codec;
+
+import sima.core.environment.event.Event;
+import sima.core.environment.event.codec.CodecRegistry;
+import sima.core.environment.event.codec.EventCodec;
+import sima.core.exception.EventCodecException;
+import sima.standard.broadcast.basic.BroadcastMessage;
+import sima.standard.broadcast.reliable.ReliableBroadcastMessage;
+import sima.standard.environment.message.Message;
+import sima.standard.environment.message.StringMessage;
+import sima.standard.environment.message.event.MessageReceptionEvent;
+import sima.standard.environment.message.event.physical.PhysicalMessageReceptionEvent;
+
+import java.nio.ByteBuffer;
+
+import static sima.core.environment.event.codec.Codecs.*;
+
+/**
+ * The {@link EventCodec} of the standard {@link Event} classes.
+ */
+public final class StandardCodecs {
+    
+    // Constructors.
+    
+    private StandardCodecs() {
+        throw new UnsupportedOperationException();
+    }
+    
+    // Methods.
+    
+    /**
+     * Registers the codecs of {@link Message}, {@link StringMessage}, {@link BroadcastMessage}, {@link ReliableBroadcastMessage}, {@link
+     * MessageReceptionEvent} and {@link PhysicalMessageReceptionEvent}, always in this order.
+     *
+     * @param registry the registry
+     *
+     * @return the registry.
+     *
+     * @throws IllegalArgumentException if the registry is null or if one of the classes already has a codec
+     */
+    public static CodecRegistry registerAll(CodecRegistry registry) {
+        if (registry == null)
+            throw new IllegalArgumentException("The registry cannot be null");
+        
+        registry.register(Message.class, new MessageCodec());
+        registry.register(StringMessage.class, new StringMessageCodec());
+        registry.register(BroadcastMessage.class, new BroadcastMessageCodec());
+        registry.register(ReliableBroadcastMessage.class, new ReliableBroadcastMessageCodec());
+        registry.register(MessageReceptionEvent.class, new MessageReceptionEventCodec());
+        registry.register(PhysicalMessageReceptionEvent.class, new PhysicalMessageReceptionEventCodec());
+        return registry;
+    }
+    
+    private static Message readMessage(ByteBuffer buffer, CodecRegistry registry) {
+        var event = registry.readEvent(buffer);
+        if (event != null && !(event instanceof Message))
+            throw new EventCodecException("The content " + event + " is not a " + Message.class);
+        return (Message) event;
+    }
+    
+    // Inner classes.
+    
+    private static final class MessageCodec implements EventCodec<Message> {
+        
+        @Override
+        public void encode(Message message, ByteBuffer buffer, CodecRegistry registry) {
+            registry.writeProtocolIdentifier(message.getIntendedProtocol(), buffer);
+            registry.writeEvent(message.getContent(), buffer);
+        }
+        
+        @Override
+        public Message decode(ByteBuffer buffer, CodecRegistry registry) {
+            var intendedProtocol = registry.readProtocolIdentifier(buffer);
+            return new Message(readMessage(buffer, registry), intendedProtocol);
+        }
+    }
+    
+    private static final class StringMessageCodec implements EventCodec<StringMessage> {
+        
+        @Override
+        public void encode(StringMessage message, ByteBuffer buffer, CodecRegistry registry) {
+            registry.writeProtocolIdentifier(message.getIntendedProtocol(), buffer);
+            writeString(buffer, message.getStringContent());
+        }
+        
+        @Override
+        public StringMessage decode(ByteBuffer buffer, CodecRegistry registry) {
+            var intendedProtocol = registry.readProtocolIdentifier(buffer);
+            return new StringMessage(readString(buffer), intendedProtocol);
+        }
+    }
+    
+    private static final class BroadcastMessageCodec implements EventCodec<BroadcastMessage> {
+        
+        @Override
+        public void encode(BroadcastMessage message, ByteBuffer buffer, CodecRegistry registry) {
+            registry.writeProtocolIdentifier(message.getIntendedProtocol(), buffer);
+            registry.writeAgentIdentifier(message.getSender(), buffer);
+            registry.writeEvent(message.getContent(), buffer);
+        }
+        
+        @Override
+        public BroadcastMessage decode(ByteBuffer buffer, CodecRegistry registry) {
+            var intendedProtocol = registry.readProtocolIdentifier(buffer);
+            var sender = registry.readAgentIdentifier(buffer);
+            return new BroadcastMessage(sender, readMessage(buffer, registry), intendedProtocol);
+        }
+    }
+    
+    private static final class ReliableBroadcastMessageCodec implements EventCodec<ReliableBroadcastMessage> {
+        
+        @Override
+        public void encode(ReliableBroadcastMessage message, ByteBuffer buffer, CodecRegistry registry) {
+            registry.writeProtocolIdentifier(message.getIntendedProtocol(), buffer);
+            registry.writeAgentIdentifier(message.getSender(), buffer);
+            writeSignedVarLong(buffer, message.getNumSequence());
+            registry.writeEvent(message.getContent(), buffer);
+        }
+        
+        @Override
+        public ReliableBroadcastMessage decode(ByteBuffer buffer, CodecRegistry registry) {
+            var intendedProtocol = registry.readProtocolIdentifier(buffer);
+            var sender = registry.readAgentIdentifier(buffer);
+            long numSequence = readSignedVarLong(buffer);
+            return new ReliableBroadcastMessage(numSequence, sender, readMessage(buffer, registry), intendedProtocol);
+        }
+    }
+    
+    private static final class MessageReceptionEventCodec implements EventCodec<MessageReceptionEvent> {
+        
+        @Override
+        public void encode(MessageReceptionEvent event, ByteBuffer buffer, CodecRegistry registry) {
+            registry.writeProtocolIdentifier(event.getIntendedProtocol(), buffer);
+            registry.writeEvent(event.getMessage(), buffer);
+        }
+        
+        @Override
+        public MessageReceptionEvent decode(ByteBuffer buffer, CodecRegistry registry) {
+            var intendedProtocol = registry.readProtocolIdentifier(buffer);
+            return new MessageReceptionEvent(readMessage(buffer, registry), intendedProtocol);
+        }
+    }
+    
+    private static final class PhysicalMessageReceptionEventCodec implements EventCodec<PhysicalMessageReceptionEvent> {
+        
+        @Override
+        public void encode(PhysicalMessageReceptionEvent event, ByteBuffer buffer, CodecRegistry registry) {
+            registry.writeProtocolIdentifier(event.getIntendedProtocol(), buffer);
+            registry.writeEvent(event.getContent(), buffer);
+        }
+        
+        @Override
+        public PhysicalMessageReceptionEvent decode(ByteBuffer buffer, CodecRegistry registry) {
+            var intendedProtocol = registry.readProtocolIdentifier(buffer);
+            return new PhysicalMessageReceptionEvent(readMessage(buffer, registry), intendedProtocol);
+        }
+    }
+}
@@ -39,4 +39,9 @@ public class SimpleEnvironment extends Environment {
     protected void scheduleEventProcess(AgentIdentifier target, Event event, long delay) {
         SimaSimulation.getScheduler().scheduleEvent(target, event, delay);
     }
+    
+    @Override
+    protected void scheduleEventProcess(int targetHandle, Event event, long delay) {
+        SimaSimulation.getScheduler().scheduleEvent(targetHandle, event, delay);
+    }
 }
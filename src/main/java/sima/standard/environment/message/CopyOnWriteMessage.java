@@ -0,0 +1,88 @@
+package sima.standard.environment.message;
+
+import org.jetbrains.annotations.NotNull;
+import sima.core.environment.event.ImmutableEvent;
+import sima.core.protocol.ProtocolIdentifier;
+
+/**
+ * A {@link Message} which shares a mutable content between its duplicates and copies it only at the first write.
+ * <p>
+ * The method {@link #duplicate()} does not copy the content while it has not been written, the duplicate shares the content. The receivers which
+ * only read the content use {@link #getMessage()} and must not modify it. A receiver which modifies the content uses {@link #getWritableMessage()},
+ * which duplicates the content one time for this message, therefore the other duplicates still see the content before the modification. The
+ * duplicate of a written message shares nothing with it: it receives a copy of the written content, therefore the next writes of the writer are not
+ * seen by the duplicate.
+ * <p>
+ * An {@link ImmutableEvent} content does not need this wrapper, it is never copied.
+ */
+public class CopyOnWriteMessage extends Message {
+
+    // Variables.
+
+    /**
+     * The private copy of the content, null until the first call of {@link #getWritableMessage()}.
+     */
+    private Message writableContent;
+
+    // Constructors.
+
+    /**
+     * @param content          the content, shared until the first write
+     * @param intendedProtocol the intended protocol
+     *
+     * @throws IllegalArgumentException if the content or the intended protocol is null
+     */
+    public CopyOnWriteMessage(Message content, ProtocolIdentifier intendedProtocol) {
+        super(verifyContent(content), intendedProtocol);
+        writableContent = null;
+    }
+
+    // Methods.
+
+    private static Message verifyContent(Message content) {
+        if (content == null)
+            throw new IllegalArgumentException("The content cannot be null");
+        return content;
+    }
+
+    /**
+     * @return a private copy of the content which can be modified, the copy is made only at the first call.
+     */
+    public synchronized Message getWritableMessage() {
+        if (writableContent == null)
+            writableContent = super.getContent().duplicate();
+        return writableContent;
+    }
+
+    /**
+     * @return a new {@link CopyOnWriteMessage} which shares the content of this message if it has not been written, else which has a copy of the
+     * written content.
+     */
+    @Override
+    public synchronized @NotNull CopyOnWriteMessage duplicate() {
+        var content = writableContent != null ? writableContent.duplicate() : super.getContent();
+        return new CopyOnWriteMessage(content, getIntendedProtocol());
+    }
+
+    @Override
+    public String toString() {
+        return "[CopyOnWriteMessage - copied=" + hasBeenCopied() + "]";
+    }
+
+    // Getters.
+
+    /**
+     * @return the private copy of the content if it has been written, else the shared content. It must not be modified.
+     */
+    @Override
+    public synchronized Message getContent() {
+        return writableContent != null ? writableContent : super.getContent();
+    }
+
+    /**
+     * @return true if the content has been copied by {@link #getWritableMessage()}, else false.
+     */
+    public synchronized boolean hasBeenCopied() {
+        return writableContent != null;
+    }
+}
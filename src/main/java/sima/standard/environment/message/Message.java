@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 import sima.core.environment.event.Event;
 import sima.core.protocol.IntendedToProtocol;
 import sima.core.protocol.ProtocolIdentifier;
+import sima.core.protocol.ProtocolSlots;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -26,6 +27,11 @@ public class Message extends Event implements IntendedToProtocol {
      */
     private final ProtocolIdentifier intendedProtocol;
 
+    /**
+     * The slot of the {@link #intendedProtocol}, resolved at the first call of {@link #getIntendedProtocolSlot()}.
+     */
+    private transient int intendedProtocolSlot = ProtocolSlots.NO_SLOT;
+
     // Constructors.
 
     /**
@@ -61,7 +67,7 @@ public class Message extends Event implements IntendedToProtocol {
 
     @Override
     public @NotNull Message duplicate() {
-        return new Message(this);
+        return isImmutable(getContent()) ? this : new Message(this);
     }
 
     // Getters and Setters.
@@ -84,4 +90,12 @@ public class Message extends Event implements IntendedToProtocol {
     public @NotNull ProtocolIdentifier getIntendedProtocol() {
         return intendedProtocol;
     }
+
+    @Override
+    public int getIntendedProtocolSlot() {
+        if (intendedProtocolSlot == ProtocolSlots.NO_SLOT)
+            intendedProtocolSlot = ProtocolSlots.slotOf(intendedProtocol);
+
+        return intendedProtocolSlot;
+    }
 }
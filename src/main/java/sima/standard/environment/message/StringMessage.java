@@ -1,11 +1,15 @@
 package sima.standard.environment.message;
 
 import org.jetbrains.annotations.NotNull;
+import sima.core.environment.event.ImmutableEvent;
 import sima.core.protocol.ProtocolIdentifier;
 
 import java.util.Objects;
 
-public class StringMessage extends Message {
+/**
+ * A {@link Message} which contains a string. It is an {@link ImmutableEvent}, therefore it is shared without copy.
+ */
+public class StringMessage extends Message implements ImmutableEvent {
 
     // Variables.
 
@@ -24,10 +28,6 @@ public class StringMessage extends Message {
         this.stringContent = stringContent;
     }
 
-    private StringMessage(StringMessage other) {
-        this(other.stringContent, other.getIntendedProtocol());
-    }
-
     // Methods.
 
     @Override
@@ -43,9 +43,12 @@ public class StringMessage extends Message {
         return Objects.hash(super.hashCode(), stringContent);
     }
 
+    /**
+     * @return this message, it is immutable.
+     */
     @Override
     public @NotNull StringMessage duplicate() {
-        return new StringMessage(this);
+        return this;
     }
 
     // Getters.
@@ -5,6 +5,7 @@ import sima.standard.environment.message.Message;
 import sima.core.environment.event.Event;
 import sima.core.protocol.IntendedToProtocol;
 import sima.core.protocol.ProtocolIdentifier;
+import sima.core.protocol.ProtocolSlots;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -15,6 +16,11 @@ public class MessageReceptionEvent extends Event implements IntendedToProtocol {
     
     private final ProtocolIdentifier intendedProtocol;
     
+    /**
+     * The slot of the {@link #intendedProtocol}, resolved at the first call of {@link #getIntendedProtocolSlot()}.
+     */
+    private transient int intendedProtocolSlot = ProtocolSlots.NO_SLOT;
+    
     // Constructors.
     
     /**
@@ -53,7 +59,7 @@ public class MessageReceptionEvent extends Event implements IntendedToProtocol {
 
     @Override
     public @NotNull MessageReceptionEvent duplicate() {
-        return new MessageReceptionEvent(this);
+        return isImmutable(getMessage()) ? this : new MessageReceptionEvent(this);
     }
     
     @Override
@@ -61,6 +67,14 @@ public class MessageReceptionEvent extends Event implements IntendedToProtocol {
         return intendedProtocol;
     }
     
+    @Override
+    public int getIntendedProtocolSlot() {
+        if (intendedProtocolSlot == ProtocolSlots.NO_SLOT)
+            intendedProtocolSlot = ProtocolSlots.slotOf(intendedProtocol);
+        
+        return intendedProtocolSlot;
+    }
+    
     /**
      * @return the {@link #getContent()} cast in {@link Message}.
      */
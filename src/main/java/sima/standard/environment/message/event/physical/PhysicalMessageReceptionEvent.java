@@ -6,6 +6,7 @@ import sima.core.environment.event.Event;
 import sima.core.environment.physical.PhysicalEvent;
 import sima.core.protocol.IntendedToProtocol;
 import sima.core.protocol.ProtocolIdentifier;
+import sima.core.protocol.ProtocolSlots;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -16,6 +17,11 @@ public class PhysicalMessageReceptionEvent extends PhysicalEvent implements Inte
     
     private final ProtocolIdentifier intendedProtocol;
     
+    /**
+     * The slot of the {@link #intendedProtocol}, resolved at the first call of {@link #getIntendedProtocolSlot()}.
+     */
+    private transient int intendedProtocolSlot = ProtocolSlots.NO_SLOT;
+    
     // Constructors.
     
     public PhysicalMessageReceptionEvent(Message content, ProtocolIdentifier intendedProtocol) {
@@ -49,11 +55,19 @@ public class PhysicalMessageReceptionEvent extends PhysicalEvent implements Inte
     
     @Override
     public @NotNull Event duplicate() {
-        return new PhysicalMessageReceptionEvent(this);
+        return isImmutable(getContent()) ? this : new PhysicalMessageReceptionEvent(this);
     }
     
     @Override
     public @NotNull ProtocolIdentifier getIntendedProtocol() {
         return intendedProtocol;
     }
+    
+    @Override
+    public int getIntendedProtocolSlot() {
+        if (intendedProtocolSlot == ProtocolSlots.NO_SLOT)
+            intendedProtocolSlot = ProtocolSlots.slotOf(intendedProtocol);
+        
+        return intendedProtocolSlot;
+    }
 }
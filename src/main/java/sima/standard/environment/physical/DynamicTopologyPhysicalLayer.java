@@ -0,0 +1,246 @@
+package sima.standard.environment.physical;
+
+import sima.core.environment.Environment;
+import sima.core.simulation.SimaSimulation;
+import sima.standard.environment.physical.graph.CSRGraph;
+import sima.standard.environment.physical.graph.DynamicGraph;
+import sima.standard.environment.physical.graph.TopologyUpdate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link GraphTopologyPhysicalLayer} whose links change over the simulation time.
+ * <p>
+ * The layer has a stream of {@link TopologyUpdate} sorted by time. The initial graph is described by the same arguments as {@link
+ * GraphTopologyPhysicalLayer} and the updates can be read from a trace file with the argument {@link #TRACE_FILE_ARGS} (see {@link
+ * TopologyUpdate#readTrace(Path)}) or scheduled with {@link #scheduleUpdates(Collection)}.
+ * <p>
+ * The topology is a {@link DynamicGraph}: each version is immutable and the current version is published with an {@link AtomicReference}. When a
+ * send happens at a time t, the layer uses the version which contains all updates whose time is less or equal to t. The first send of a time step
+ * which finds pending updates creates the next version and publishes it with a compare and set, all other sends of the step only read the published
+ * version. Therefore, sends executed concurrently during a step see the same consistent topology and never take a lock.
+ */
+public class DynamicTopologyPhysicalLayer extends GraphTopologyPhysicalLayer {
+
+    // Static.
+
+    public static final String TRACE_FILE_ARGS = "traceFile";
+
+    private static final Comparator<TopologyUpdate> BY_TIME = Comparator.comparingLong(TopologyUpdate::getTime);
+
+    // Variables.
+
+    private final AtomicReference<TopologyState> state;
+
+    // Constructors.
+
+    /**
+     * @param environment the environment
+     * @param args        the arguments which describe the initial graph and optionally the trace file
+     *
+     * @throws IllegalArgumentException if the environment or args is null, if an argument is not valid or if a file cannot be read
+     */
+    public DynamicTopologyPhysicalLayer(Environment environment, Map<String, String> args) {
+        super(environment, args);
+        var initialGraph = new DynamicGraph(getGraph(), Boolean.parseBoolean(args.get(DIRECTED_ARGS)));
+        state = new AtomicReference<>(new TopologyState(initialGraph, readTrace(args), 0));
+    }
+
+    /**
+     * @param environment  the environment
+     * @param graph        the initial graph
+     * @param directed     false if each update must be applied in both directions
+     * @param minSendDelay the min delay of links without latency
+     * @param maxSendDelay the max delay of links without latency
+     * @param updates      the updates to apply over the time
+     *
+     * @throws IllegalArgumentException if the environment, the graph or updates is null or if a delay is less than 1
+     */
+    public DynamicTopologyPhysicalLayer(Environment environment, CSRGraph graph, boolean directed, long minSendDelay, long maxSendDelay,
+                                        Collection<TopologyUpdate> updates) {
+        super(environment, graph, minSendDelay, maxSendDelay);
+        updates = Optional.ofNullable(updates).orElseThrow(() -> new IllegalArgumentException("The updates cannot be null"));
+        state = new AtomicReference<>(new TopologyState(new DynamicGraph(graph, directed), sortByTime(updates), 0));
+    }
+
+    // Methods.
+
+    private static TopologyUpdate[] readTrace(Map<String, String> args) {
+        String traceFile = args.get(TRACE_FILE_ARGS);
+        if (traceFile == null)
+            return new TopologyUpdate[0];
+
+        try {
+            return sortByTime(TopologyUpdate.readTrace(Path.of(traceFile)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the trace file " + traceFile, e);
+        }
+    }
+
+    /**
+     * Stable sort, the updates which have the same time keep their order.
+     */
+    private static TopologyUpdate[] sortByTime(Collection<TopologyUpdate> updates) {
+        var array = updates.toArray(new TopologyUpdate[0]);
+        for (TopologyUpdate update : array)
+            if (update == null)
+                throw new IllegalArgumentException("An update cannot be null");
+
+        Arrays.sort(array, BY_TIME);
+        return array;
+    }
+
+    /**
+     * Adds updates to the stream of updates. The updates whose time is already passed are applied at the next send.
+     *
+     * @param updates the updates to add
+     *
+     * @throws IllegalArgumentException if updates or one update is null
+     */
+    public void scheduleUpdates(Collection<TopologyUpdate> updates) {
+        var newUpdates = sortByTime(Optional.ofNullable(updates).orElseThrow(() -> new IllegalArgumentException("The updates cannot be null")));
+        if (newUpdates.length == 0)
+            return;
+
+        TopologyState current;
+        TopologyState next;
+        do {
+            current = state.get();
+            List<TopologyUpdate> merged = new ArrayList<>(current.nbPendingUpdates() + newUpdates.length);
+            merged.addAll(Arrays.asList(current.pendingUpdates).subList(current.nextIndex, current.pendingUpdates.length));
+            merged.addAll(Arrays.asList(newUpdates));
+            next = new TopologyState(current.graph, sortByTime(merged), 0);
+        } while (!state.compareAndSet(current, next));
+    }
+
+    /**
+     * @return the version of the topology for the current simulation time.
+     */
+    protected DynamicGraph currentGraph() {
+        var current = state.get();
+        if (current.nextUpdateTime == Long.MAX_VALUE)
+            return current.graph; // No pending update, the simulation time is not needed.
+
+        long now = SimaSimulation.getCurrentTime();
+        return current.nextUpdateTime > now ? current.graph : advanceTo(now);
+    }
+
+    /**
+     * Applies all pending updates whose time is less or equal to now and publishes the new version. If another thread publishes a version before,
+     * its version is used.
+     *
+     * @param now the current simulation time
+     *
+     * @return the version of the topology at the time now.
+     */
+    private DynamicGraph advanceTo(long now) {
+        while (true) {
+            var current = state.get();
+            if (current.nextUpdateTime > now)
+                return current.graph;
+
+            int end = current.nextIndex;
+            while (end < current.pendingUpdates.length && current.pendingUpdates[end].getTime() <= now)
+                end++;
+
+            var nextGraph = current.graph.apply(Arrays.asList(current.pendingUpdates).subList(current.nextIndex, end));
+            var next = new TopologyState(nextGraph, current.pendingUpdates, end);
+            if (state.compareAndSet(current, next)) {
+                onTopologyUpdated(current.graph, nextGraph, Arrays.asList(current.pendingUpdates).subList(current.nextIndex, end));
+                return nextGraph;
+            }
+        }
+    }
+
+    /**
+     * Called by the thread which publishes a new version of the topology, just after the publication. Other threads can already use the new
+     * version during the call, therefore an implementation must identify its state by version number and only update the state of the previous
+     * version: a state already built for the new version must not be discarded. The default implementation does nothing.
+     *
+     * @param previous the previous version
+     * @param next     the new version
+     * @param applied  the updates applied to create the new version, in the order of application
+     */
+    protected void onTopologyUpdated(DynamicGraph previous, DynamicGraph next, List<TopologyUpdate> applied) {
+        // Nothing by default.
+    }
+
+    @Override
+    protected boolean hasEdge(int from, int to) {
+        return currentGraph().hasEdge(from, to);
+    }
+
+    @Override
+    protected long getEdgeLatency(int from, int to) {
+        return currentGraph().getLatency(from, to);
+    }
+
+    /**
+     * @return always true because an update can add a latency at any time.
+     */
+    @Override
+    protected boolean hasLatencies() {
+        return true;
+    }
+
+    // Getters.
+
+    /**
+     * @return the version of the topology for the current simulation time.
+     */
+    public DynamicGraph getCurrentGraph() {
+        return currentGraph();
+    }
+
+    /**
+     * @return the number of updates which have not been applied yet.
+     */
+    public int getNbPendingUpdates() {
+        return state.get().nbPendingUpdates();
+    }
+
+    // Inner classes.
+
+    /**
+     * An immutable state of the layer: the last published version of the topology and the updates which are not in this version.
+     */
+    private static final class TopologyState {
+
+        // Variables.
+
+        private final DynamicGraph graph;
+
+        private final TopologyUpdate[] pendingUpdates;
+
+        private final int nextIndex;
+
+        /**
+         * The time of the next update to apply, {@link Long#MAX_VALUE} if there is no pending update.
+         */
+        private final long nextUpdateTime;
+
+        // Constructors.
+
+        TopologyState(DynamicGraph graph, TopologyUpdate[] pendingUpdates, int nextIndex) {
+            this.graph = graph;
+            this.pendingUpdates = pendingUpdates;
+            this.nextIndex = nextIndex;
+            this.nextUpdateTime = nextIndex < pendingUpdates.length ? pendingUpdates[nextIndex].getTime() : Long.MAX_VALUE;
+        }
+
+        // Methods.
+
+        int nbPendingUpdates() {
+            return pendingUpdates.length - nextIndex;
+        }
+    }
+}
@@ -3,14 +3,24 @@ package sima.standard.environment.physical;
 import org.jetbrains.annotations.NotNull;
 import sima.core.agent.AgentIdentifier;
 import sima.core.environment.Environment;
+import sima.core.environment.physical.DelayModel;
 import sima.core.environment.physical.PhysicalConnectionLayer;
 import sima.core.environment.physical.PhysicalEvent;
+import sima.core.environment.physical.SendSequences;
+import sima.standard.environment.physical.delay.DelayModels;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import static sima.core.simulation.SimaSimulationUtils.randomLong;
 
+/**
+ * A {@link PhysicalConnectionLayer} where all agents are connected.
+ * <p>
+ * The delay of an event is sampled from a {@link DelayModel} created by {@link DelayModels#fromArgs(Map, long, long)}, by default uniform in
+ * [{@link #MIN_SEND_DELAY_ARGS}; {@link #MAX_SEND_DELAY_ARGS}[. The sampling uses a random draw keyed by the sender and its number of sends,
+ * see {@link SendSequences}.
+ */
 public class FullyConnectedPhysicalLayer extends PhysicalConnectionLayer {
     
     // Static.
@@ -26,12 +36,23 @@ public class FullyConnectedPhysicalLayer extends PhysicalConnectionLayer {
     private long minSendDelay;
     private long maxSendDelay;
     
+    private DelayModel delayModel;
+    
+    private final SendSequences sendSequences = new SendSequences();
+    
     // Constructors.
     
+    /**
+     * @param environment the environment
+     * @param args        the arguments of the layer, can be null
+     *
+     * @throws IllegalArgumentException if the arguments of the delay model are not valid
+     */
     public FullyConnectedPhysicalLayer(Environment environment, Map<String, String> args) {
         super(environment, args);
         initSendDelay();
         processArgument(args);
+        delayModel = DelayModels.fromArgs(args, minSendDelay, maxSendDelay);
     }
     
     // Methods.
@@ -94,6 +115,11 @@ public class FullyConnectedPhysicalLayer extends PhysicalConnectionLayer {
         return physicalEvent;
     }
     
+    @Override
+    protected boolean decoratesPhysicalEvent() {
+        return false;
+    }
+    
     /**
      * @param a1 the agent a1
      * @param a2 the agent a2
@@ -113,9 +139,36 @@ public class FullyConnectedPhysicalLayer extends PhysicalConnectionLayer {
         return true;
     }
     
+    /**
+     * All agents are connected, therefore all targets are kept.
+     *
+     * @param initiator     the initiator of the {@link PhysicalEvent}
+     * @param targets       the targets of the {@link PhysicalEvent}
+     * @param physicalEvent the decorated {@link PhysicalEvent}
+     *
+     * @return the specified list of targets.
+     */
+    @Override
+    protected @NotNull List<AgentIdentifier> filterTargets(AgentIdentifier initiator, List<AgentIdentifier> targets, PhysicalEvent physicalEvent) {
+        return targets;
+    }
+    
+    private long delayOf(AgentIdentifier initiator, AgentIdentifier target) {
+        int from = initiator.getAgentUniqueId();
+        return delayModel.sampleDelay(from, target.getAgentUniqueId(), sendSequences.nextDraw(from));
+    }
+    
+    @Override
+    protected void scheduleInEnvironment(AgentIdentifier initiator, List<AgentIdentifier> targets, PhysicalEvent physicalEvent) {
+        getEnvironment().assignEventOn(initiator, targets, physicalEvent, target -> delayOf(initiator, target));
+    }
+    
     @Override
     protected void scheduleInEnvironment(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent) {
-        getEnvironment().assignEventOn(initiator, target, physicalEvent, randomLong(minSendDelay, maxSendDelay));
+        if (initiator.hasAgentHandle() && target.hasAgentHandle())
+            getEnvironment().assignEventOn(initiator.getAgentHandle(), target.getAgentHandle(), physicalEvent, delayOf(initiator, target));
+        else
+            getEnvironment().assignEventOn(initiator, target, physicalEvent, delayOf(initiator, target));
     }
     
     // Getters.
@@ -127,4 +180,17 @@ public class FullyConnectedPhysicalLayer extends PhysicalConnectionLayer {
     public long getMaxSendDelay() {
         return maxSendDelay;
     }
+    
+    public DelayModel getDelayModel() {
+        return delayModel;
+    }
+    
+    /**
+     * @param delayModel the new {@link DelayModel} of the layer
+     *
+     * @throws IllegalArgumentException if the delayModel is null
+     */
+    public void setDelayModel(DelayModel delayModel) {
+        this.delayModel = Optional.ofNullable(delayModel).orElseThrow(() -> new IllegalArgumentException("The delayModel cannot be null"));
+    }
 }
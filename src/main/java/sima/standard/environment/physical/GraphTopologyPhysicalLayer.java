@@ -0,0 +1,311 @@
+package sima.standard.environment.physical;
+
+import org.jetbrains.annotations.NotNull;
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.Environment;
+import sima.core.environment.physical.DelayModel;
+import sima.core.environment.physical.PhysicalConnectionLayer;
+import sima.core.environment.physical.PhysicalEvent;
+import sima.core.environment.physical.SendSequences;
+import sima.standard.environment.physical.delay.DelayModels;
+import sima.standard.environment.physical.delay.UniformDelayModel;
+import sima.standard.environment.physical.graph.CSRGraph;
+import sima.standard.environment.physical.graph.GraphGenerators;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static sima.core.simulation.SimaSimulationUtils.randomLong;
+
+/**
+ * A {@link PhysicalConnectionLayer} where agents are connected following a graph. Two agents have a physical connection only if there is an edge
+ * between them in the graph.
+ * <p>
+ * The node of an agent in the graph is its {@link AgentIdentifier#getAgentUniqueId()}. An agent whose unique id is not a node of the graph has no
+ * physical connection.
+ * <p>
+ * The graph is stored in a {@link CSRGraph}, therefore {@link #hasPhysicalConnection(AgentIdentifier, AgentIdentifier)} does not allocate. It is
+ * loaded from an edge list file or generated at the construction with the argument {@link #TOPOLOGY_ARGS}:
+ * <ul>
+ *     <li>{@link #EDGE_LIST_TOPOLOGY}: needs {@link #EDGE_LIST_FILE_ARGS}, optional {@link #NB_NODES_ARGS} and {@link #DIRECTED_ARGS}</li>
+ *     <li>{@link #ERDOS_RENYI_TOPOLOGY}: needs {@link #NB_NODES_ARGS} and {@link #PROBABILITY_ARGS}</li>
+ *     <li>{@link #WATTS_STROGATZ_TOPOLOGY}: needs {@link #NB_NODES_ARGS}, {@link #DEGREE_ARGS} and {@link #REWIRING_PROBABILITY_ARGS}</li>
+ *     <li>{@link #BARABASI_ALBERT_TOPOLOGY}: needs {@link #NB_NODES_ARGS} and {@link #ATTACHMENT_ARGS}</li>
+ * </ul>
+ * Generators use the optional argument {@link #SEED_ARGS}. Without seed, the seed is taken from {@link
+ * sima.core.simulation.SimaSimulationUtils#randomLong()}.
+ * <p>
+ * The delay of an event sent on an edge is the latency of the edge if the edge has one, else a delay sampled from the {@link DelayModel} of the
+ * layer like in {@link FullyConnectedPhysicalLayer}, by default uniform between {@link #MIN_SEND_DELAY_ARGS} and {@link #MAX_SEND_DELAY_ARGS}.
+ */
+public class GraphTopologyPhysicalLayer extends PhysicalConnectionLayer {
+
+    // Static.
+
+    public static final String TOPOLOGY_ARGS = "topology";
+    public static final String EDGE_LIST_FILE_ARGS = "edgeListFile";
+    public static final String DIRECTED_ARGS = "directed";
+    public static final String NB_NODES_ARGS = "nbNodes";
+    public static final String PROBABILITY_ARGS = "probability";
+    public static final String DEGREE_ARGS = "degree";
+    public static final String REWIRING_PROBABILITY_ARGS = "rewiringProbability";
+    public static final String ATTACHMENT_ARGS = "attachment";
+    public static final String SEED_ARGS = "seed";
+    public static final String MIN_SEND_DELAY_ARGS = FullyConnectedPhysicalLayer.MIN_SEND_DELAY_ARGS;
+    public static final String MAX_SEND_DELAY_ARGS = FullyConnectedPhysicalLayer.MAX_SEND_DELAY_ARGS;
+
+    public static final String EDGE_LIST_TOPOLOGY = "edgeList";
+    public static final String ERDOS_RENYI_TOPOLOGY = "erdosRenyi";
+    public static final String WATTS_STROGATZ_TOPOLOGY = "wattsStrogatz";
+    public static final String BARABASI_ALBERT_TOPOLOGY = "barabasiAlbert";
+
+    // Variables.
+
+    private final CSRGraph graph;
+
+    private final long minSendDelay;
+    private final long maxSendDelay;
+
+    private DelayModel delayModel;
+
+    private final SendSequences sendSequences = new SendSequences();
+
+    // Constructors.
+
+    /**
+     * @param environment the environment
+     * @param args        the arguments which describe the graph
+     *
+     * @throws IllegalArgumentException if the environment or args is null, if an argument is missing or is not valid or if the edge list file
+     *                                  cannot be read
+     */
+    public GraphTopologyPhysicalLayer(Environment environment, Map<String, String> args) {
+        super(environment, args);
+        args = Optional.ofNullable(args).orElseThrow(() -> new IllegalArgumentException("The args cannot be null"));
+        graph = createGraph(args);
+
+        long min = parseLong(args, MIN_SEND_DELAY_ARGS, FullyConnectedPhysicalLayer.DEFAULT_MIN_SEND_DELAY);
+        long max = parseLong(args, MAX_SEND_DELAY_ARGS, FullyConnectedPhysicalLayer.DEFAULT_MAX_SEND_DELAY);
+        if (min < 1 || max < 1)
+            throw new IllegalArgumentException("The delays cannot be less than 1");
+
+        minSendDelay = Math.min(min, max);
+        maxSendDelay = Math.max(min, max);
+        delayModel = DelayModels.fromArgs(args, minSendDelay, maxSendDelay);
+    }
+
+    /**
+     * Creates a {@link GraphTopologyPhysicalLayer} with an already built graph.
+     *
+     * @param environment  the environment
+     * @param graph        the graph
+     * @param minSendDelay the min delay of edges without latency
+     * @param maxSendDelay the max delay of edges without latency
+     *
+     * @throws IllegalArgumentException if the environment or the graph is null or if a delay is less than 1
+     */
+    public GraphTopologyPhysicalLayer(Environment environment, CSRGraph graph, long minSendDelay, long maxSendDelay) {
+        super(environment, null);
+        this.graph = Optional.ofNullable(graph).orElseThrow(() -> new IllegalArgumentException("The graph cannot be null"));
+        if (minSendDelay < 1 || maxSendDelay < 1)
+            throw new IllegalArgumentException("The delays cannot be less than 1");
+
+        this.minSendDelay = Math.min(minSendDelay, maxSendDelay);
+        this.maxSendDelay = Math.max(minSendDelay, maxSendDelay);
+        this.delayModel = new UniformDelayModel(this.minSendDelay, this.maxSendDelay);
+    }
+
+    // Methods.
+
+    private static CSRGraph createGraph(Map<String, String> args) {
+        String topology = Optional.ofNullable(args.get(TOPOLOGY_ARGS))
+                .orElseThrow(() -> new IllegalArgumentException("No " + TOPOLOGY_ARGS + " argument"));
+
+        return switch (topology) {
+            case EDGE_LIST_TOPOLOGY -> readEdgeList(args);
+            case ERDOS_RENYI_TOPOLOGY -> GraphGenerators.erdosRenyi(parseRequiredInt(args, NB_NODES_ARGS), parseRequiredDouble(args, PROBABILITY_ARGS),
+                                                                    createRandom(args));
+            case WATTS_STROGATZ_TOPOLOGY -> GraphGenerators.wattsStrogatz(parseRequiredInt(args, NB_NODES_ARGS), parseRequiredInt(args, DEGREE_ARGS),
+                                                                          parseRequiredDouble(args, REWIRING_PROBABILITY_ARGS), createRandom(args));
+            case BARABASI_ALBERT_TOPOLOGY -> GraphGenerators.barabasiAlbert(parseRequiredInt(args, NB_NODES_ARGS),
+                                                                            parseRequiredInt(args, ATTACHMENT_ARGS), createRandom(args));
+            default -> throw new IllegalArgumentException("Unknown " + TOPOLOGY_ARGS + " " + topology);
+        };
+    }
+
+    private static CSRGraph readEdgeList(Map<String, String> args) {
+        String file = Optional.ofNullable(args.get(EDGE_LIST_FILE_ARGS))
+                .orElseThrow(() -> new IllegalArgumentException("No " + EDGE_LIST_FILE_ARGS + " argument"));
+        int minNbNodes = args.containsKey(NB_NODES_ARGS) ? parseRequiredInt(args, NB_NODES_ARGS) : 0;
+        boolean directed = Boolean.parseBoolean(args.get(DIRECTED_ARGS));
+        try {
+            return GraphGenerators.readEdgeList(Path.of(file), minNbNodes, directed);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the edge list file " + file, e);
+        }
+    }
+
+    private static Random createRandom(Map<String, String> args) {
+        return args.containsKey(SEED_ARGS) ? new Random(parseLong(args, SEED_ARGS, 0L)) : new Random(randomLong());
+    }
+
+    private static int parseRequiredInt(Map<String, String> args, String key) {
+        String value = Optional.ofNullable(args.get(key)).orElseThrow(() -> new IllegalArgumentException("No " + key + " argument"));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The argument " + key + " is not an int: " + value, e);
+        }
+    }
+
+    private static double parseRequiredDouble(Map<String, String> args, String key) {
+        String value = Optional.ofNullable(args.get(key)).orElseThrow(() -> new IllegalArgumentException("No " + key + " argument"));
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The argument " + key + " is not a double: " + value, e);
+        }
+    }
+
+    private static long parseLong(Map<String, String> args, String key, long defaultValue) {
+        String value = args.get(key);
+        if (value == null)
+            return defaultValue;
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The argument " + key + " is not a long: " + value, e);
+        }
+    }
+
+    /**
+     * @param initiator the initiator
+     * @param target    the target
+     *
+     * @return the latency of the edge between the initiator and the target if it has one, else a delay sampled from the {@link DelayModel}.
+     */
+    protected long delayOf(AgentIdentifier initiator, AgentIdentifier target) {
+        int from = initiator.getAgentUniqueId();
+        int to = target.getAgentUniqueId();
+        long latency = getEdgeLatency(from, to);
+        return latency != CSRGraph.NO_LATENCY ? Math.max(1L, latency) : delayModel.sampleDelay(from, to, nextSendDraw(from));
+    }
+
+    /**
+     * @param sender the unique id of the sender
+     *
+     * @return a uniform random long for the next send of the sender, see {@link SendSequences#nextDraw(int)}.
+     */
+    protected long nextSendDraw(int sender) {
+        return sendSequences.nextDraw(sender);
+    }
+
+    /**
+     * Inherited classes can override this method to change the topology used by this layer.
+     *
+     * @param from the source node
+     * @param to   the target node
+     *
+     * @return true if there is an edge from the node from to the node to.
+     */
+    protected boolean hasEdge(int from, int to) {
+        return graph.hasEdge(from, to);
+    }
+
+    /**
+     * Inherited classes can override this method to change the topology used by this layer.
+     *
+     * @param from the source node
+     * @param to   the target node
+     *
+     * @return the latency of the edge from the node from to the node to, {@link CSRGraph#NO_LATENCY} if there is no edge or if the edge has not
+     * latency.
+     */
+    protected long getEdgeLatency(int from, int to) {
+        return graph.getLatency(from, to);
+    }
+
+    /**
+     * @return true if at least one edge can have a latency. If false, the delays are always random.
+     */
+    protected boolean hasLatencies() {
+        return graph.hasLatencies();
+    }
+
+    @Override
+    protected @NotNull PhysicalEvent decoratePhysicalEvent(PhysicalEvent physicalEvent) {
+        return physicalEvent;
+    }
+
+    @Override
+    protected boolean decoratesPhysicalEvent() {
+        return false;
+    }
+
+    /**
+     * @param a1 the agent a1
+     * @param a2 the agent a2
+     *
+     * @return true if a1 and a2 are equal or if there is an edge from a1 to a2 in the graph.
+     */
+    @Override
+    public boolean hasPhysicalConnection(AgentIdentifier a1, AgentIdentifier a2) {
+        if (a1 == null || a2 == null)
+            throw new IllegalArgumentException("a1 and a2 must be not null");
+
+        return a1.equals(a2) || hasEdge(a1.getAgentUniqueId(), a2.getAgentUniqueId());
+    }
+
+    @Override
+    protected boolean canBeSent(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent) {
+        return hasPhysicalConnection(initiator, target);
+    }
+
+    @Override
+    protected void scheduleInEnvironment(AgentIdentifier initiator, List<AgentIdentifier> targets, PhysicalEvent physicalEvent) {
+        getEnvironment().assignEventOn(initiator, targets, physicalEvent, target -> delayOf(initiator, target));
+    }
+
+    @Override
+    protected void scheduleInEnvironment(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent) {
+        if (initiator.hasAgentHandle() && target.hasAgentHandle())
+            getEnvironment().assignEventOn(initiator.getAgentHandle(), target.getAgentHandle(), physicalEvent, delayOf(initiator, target));
+        else
+            getEnvironment().assignEventOn(initiator, target, physicalEvent, delayOf(initiator, target));
+    }
+
+    // Getters.
+
+    public CSRGraph getGraph() {
+        return graph;
+    }
+
+    public long getMinSendDelay() {
+        return minSendDelay;
+    }
+
+    public long getMaxSendDelay() {
+        return maxSendDelay;
+    }
+
+    /**
+     * @return the {@link DelayModel} of the edges without latency.
+     */
+    public DelayModel getDelayModel() {
+        return delayModel;
+    }
+
+    /**
+     * @param delayModel the new {@link DelayModel} of the edges without latency
+     *
+     * @throws IllegalArgumentException if the delayModel is null
+     */
+    public void setDelayModel(DelayModel delayModel) {
+        this.delayModel = Optional.ofNullable(delayModel).orElseThrow(() -> new IllegalArgumentException("The delayModel cannot be null"));
+    }
+}
@@ -0,0 +1,382 @@
+package sima.standard.environment.physical;
+
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.Environment;
+import sima.core.environment.physical.PhysicalEvent;
+import sima.core.exception.KilledAgentException;
+import sima.core.exception.NotEvolvingAgentInEnvironmentException;
+import sima.core.simulation.SimaSimulation;
+import sima.core.simulation.SimaSimulationUtils;
+import sima.standard.environment.physical.graph.CSRGraph;
+import sima.standard.environment.physical.graph.DynamicGraph;
+import sima.standard.environment.physical.graph.ShortestPathTree;
+import sima.standard.environment.physical.graph.TopologyUpdate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link DynamicTopologyPhysicalLayer} which routes events over several hops. An event can be sent to any agent reachable in the topology, not
+ * only to the neighbors of the initiator.
+ * <p>
+ * The event follows the shortest path from the initiator to the target (see {@link ShortestPathTree}, the weight of a link is its latency or the
+ * mean of the send delays for links without latency). The route is computed once from the tree of the initiator and carried by the event with the
+ * version of the topology for which it has been computed. The event is forwarded hop by hop: each hop has the delay that the event would have with
+ * a direct send on this link. When the event reaches a node and the topology has a new version, the rest of the route is computed again from this
+ * node. Therefore, an event in flight follows the topology updates: it takes a new route if a link of its route is removed and is lost if the
+ * target is no longer reachable. The intermediate hops are scheduled as executables, the intermediate agents are not involved and only the last
+ * hop schedules the event in the environment.
+ * <p>
+ * The {@link ShortestPathTree} of a source is computed at the first send of this source and kept in a cache bounded by {@link
+ * #ROUTING_CACHE_SIZE_ARGS}, the least recently used tree is removed when the cache is full. With {@link #ROUTING_MODE_ARGS} equal to {@link
+ * #EAGER_ROUTING}, the trees of all nodes of the initial graph are computed at the construction and the cache is not bounded.
+ * <p>
+ * Each cached tree is tagged with the version of the topology for which it has been computed and is only used for this version. When the topology
+ * changes, the trees of the previous version which do not use a changed link and for which no new link gives a shorter path are tagged with the new
+ * version, the other trees of the previous version are removed. The trees already computed for a newer version are never touched.
+ * <p>
+ * {@link #hasPhysicalConnection(AgentIdentifier, AgentIdentifier)} still describes the direct links, an event can be sent if there is a path.
+ */
+public class RoutingPhysicalLayer extends DynamicTopologyPhysicalLayer {
+
+    // Static.
+
+    public static final String ROUTING_MODE_ARGS = "routingMode";
+    public static final String ROUTING_CACHE_SIZE_ARGS = "routingCacheSize";
+
+    public static final String LAZY_ROUTING = "lazy";
+    public static final String EAGER_ROUTING = "eager";
+
+    public static final int DEFAULT_ROUTING_CACHE_SIZE = 256;
+
+    // Variables.
+
+    private final int routingCacheSize;
+
+    /**
+     * The weight of links without latency in the {@link ShortestPathTree}.
+     */
+    private final long defaultWeight;
+
+    private final Map<Integer, CachedTree> routingCache;
+
+    // Constructors.
+
+    /**
+     * @param environment the environment
+     * @param args        the arguments which describe the initial graph, the trace file and the routing
+     *
+     * @throws IllegalArgumentException if the environment or args is null, if an argument is not valid or if a file cannot be read
+     */
+    public RoutingPhysicalLayer(Environment environment, Map<String, String> args) {
+        super(environment, args);
+        boolean eager = isEager(args.getOrDefault(ROUTING_MODE_ARGS, LAZY_ROUTING));
+        int cacheSize = parseRoutingCacheSize(args.get(ROUTING_CACHE_SIZE_ARGS));
+        defaultWeight = (getMinSendDelay() + getMaxSendDelay()) / 2;
+        routingCacheSize = eager ? Integer.MAX_VALUE : cacheSize;
+        routingCache = new ConcurrentHashMap<>();
+        if (eager)
+            computeAllTrees();
+    }
+
+    /**
+     * @param environment      the environment
+     * @param graph            the initial graph
+     * @param directed         false if each update must be applied in both directions
+     * @param minSendDelay     the min delay of links without latency
+     * @param maxSendDelay     the max delay of links without latency
+     * @param updates          the updates to apply over the time
+     * @param eager            true if the trees of all nodes must be computed at the construction
+     * @param routingCacheSize the max number of cached trees, ignored if eager is true
+     *
+     * @throws IllegalArgumentException if the environment, the graph or updates is null, if a delay is less than 1 or if the routingCacheSize is less
+     *                                  than 1
+     */
+    public RoutingPhysicalLayer(Environment environment, CSRGraph graph, boolean directed, long minSendDelay, long maxSendDelay,
+                                Collection<TopologyUpdate> updates, boolean eager, int routingCacheSize) {
+        super(environment, graph, directed, minSendDelay, maxSendDelay, updates);
+        if (routingCacheSize < 1)
+            throw new IllegalArgumentException("The routingCacheSize cannot be less than 1");
+
+        defaultWeight = (getMinSendDelay() + getMaxSendDelay()) / 2;
+        this.routingCacheSize = eager ? Integer.MAX_VALUE : routingCacheSize;
+        routingCache = new ConcurrentHashMap<>();
+        if (eager)
+            computeAllTrees();
+    }
+
+    // Methods.
+
+    private static boolean isEager(String routingMode) {
+        return switch (routingMode) {
+            case EAGER_ROUTING -> true;
+            case LAZY_ROUTING -> false;
+            default -> throw new IllegalArgumentException("Unknown " + ROUTING_MODE_ARGS + " " + routingMode);
+        };
+    }
+
+    private static int parseRoutingCacheSize(String value) {
+        if (value == null)
+            return DEFAULT_ROUTING_CACHE_SIZE;
+
+        try {
+            int routingCacheSize = Integer.parseInt(value);
+            if (routingCacheSize < 1)
+                throw new IllegalArgumentException("The " + ROUTING_CACHE_SIZE_ARGS + " cannot be less than 1");
+
+            return routingCacheSize;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The argument " + ROUTING_CACHE_SIZE_ARGS + " is not an int: " + value, e);
+        }
+    }
+
+    /**
+     * The initial graph is the version 0 of the topology.
+     */
+    private void computeAllTrees() {
+        var graph = getGraph();
+        for (int node = 0; node < graph.getNbNodes(); node++)
+            routingCache.put(node, new CachedTree(ShortestPathTree.compute(graph, node, defaultWeight), 0L));
+    }
+
+    /**
+     * Returns the cached {@link ShortestPathTree} of the source for this version of the topology or computes it.
+     *
+     * @param source the source node
+     * @param graph  the current version of the topology
+     *
+     * @return the {@link ShortestPathTree} of the source, null if the source is not in the graph.
+     */
+    private ShortestPathTree shortestPathTreeOf(int source, DynamicGraph graph) {
+        var cached = routingCache.get(source);
+        if (cached != null && cached.version == graph.getVersion()) {
+            cached.lastAccess = System.nanoTime();
+            return cached.tree;
+        }
+
+        var csrGraph = graph.toCSRGraph();
+        if (!csrGraph.containsNode(source))
+            return null;
+
+        var tree = ShortestPathTree.compute(csrGraph, source, defaultWeight);
+        long version = graph.getVersion();
+        // A slow thread must not replace a tree computed for a newer version.
+        routingCache.compute(source, (s, other) -> other != null && other.version > version ? other : new CachedTree(tree, version));
+        if (routingCache.size() > routingCacheSize)
+            evictLeastRecentlyUsed();
+
+        return tree;
+    }
+
+    /**
+     * O(cache size), only done after the computation of a tree which costs more.
+     */
+    private void evictLeastRecentlyUsed() {
+        Map.Entry<Integer, CachedTree> eldest = null;
+        for (Map.Entry<Integer, CachedTree> entry : routingCache.entrySet())
+            if (eldest == null || entry.getValue().lastAccess < eldest.getValue().lastAccess)
+                eldest = entry;
+
+        if (eldest != null)
+            routingCache.remove(eldest.getKey(), eldest.getValue());
+    }
+
+    /**
+     * Tags the cached trees of the previous version which are not invalidated by the updates with the next version and removes the other trees of
+     * the previous version. Other threads can already use the next version during the call, the trees of another version are not touched: a tree
+     * computed for the next version is kept and an older tree is simply never used again.
+     */
+    @Override
+    protected void onTopologyUpdated(DynamicGraph previous, DynamicGraph next, List<TopologyUpdate> applied) {
+        long previousVersion = previous.getVersion();
+        routingCache.forEach((source, cached) -> {
+            if (cached.version != previousVersion)
+                return;
+
+            if (cached.tree.isInvalidatedBy(applied, next.isDirected()))
+                routingCache.remove(source, cached);
+            else
+                cached.version = next.getVersion();
+        });
+    }
+
+    /**
+     * @param source the source node
+     * @param target the target node, different from the source
+     * @param graph  the current version of the topology
+     *
+     * @return the shortest route from the source to the target in this version of the topology, null if the target cannot be reached.
+     */
+    private Route routeOf(int source, int target, DynamicGraph graph) {
+        var tree = shortestPathTreeOf(source, graph);
+        if (tree == null || !tree.isReachable(target))
+            return null;
+
+        return new Route(tree.getPath(target), graph.getVersion());
+    }
+
+    /**
+     * @param initiator the initiator
+     * @param target    the target
+     *
+     * @return true if the target can be reached from the initiator in the current topology.
+     */
+    private boolean hasRoute(AgentIdentifier initiator, AgentIdentifier target) {
+        if (initiator.equals(target))
+            return true;
+
+        var tree = shortestPathTreeOf(initiator.getAgentUniqueId(), currentGraph());
+        return tree != null && tree.isReachable(target.getAgentUniqueId());
+    }
+
+    @Override
+    protected boolean canBeSent(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent) {
+        return hasRoute(initiator, target);
+    }
+
+    @Override
+    protected void scheduleInEnvironment(AgentIdentifier initiator, List<AgentIdentifier> targets, PhysicalEvent physicalEvent) {
+        for (AgentIdentifier target : targets)
+            scheduleInEnvironment(initiator, target, physicalEvent);
+    }
+
+    @Override
+    protected void scheduleInEnvironment(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent) {
+        if (initiator.equals(target) || initiator.getAgentUniqueId() == target.getAgentUniqueId())
+            super.scheduleInEnvironment(initiator, target, physicalEvent);
+        else {
+            int initiatorNode = initiator.getAgentUniqueId();
+            var route = routeOf(initiatorNode, target.getAgentUniqueId(), currentGraph());
+            if (route != null)
+                forward(initiator, target, physicalEvent, route, 0, nextSendDraw(initiatorNode));
+        }
+    }
+
+    /**
+     * Sends the event from the node at the index hop of the route to the next node of the route. If the topology has a new version since the
+     * computation of the route, the rest of the route is computed again from the node and the event is lost if the target cannot be reached from
+     * it. If the next node is the target, the event is scheduled in the environment, else the forward from the next node is scheduled after the
+     * delay of the hop.
+     *
+     * @param initiator     the initiator
+     * @param target        the target
+     * @param physicalEvent the event
+     * @param route         the route of the event, from the node which has computed it to the target
+     * @param hop           the index in the route of the node which currently holds the event
+     * @param draw          the random draw of the hop from the node, the next hops use the draws which follow it
+     */
+    private void forward(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent, Route route, int hop, long draw) {
+        var graph = currentGraph();
+        if (route.version != graph.getVersion()) {
+            route = routeOf(route.path[hop], target.getAgentUniqueId(), graph);
+            if (route == null)
+                return; // The route is broken, the event is lost.
+
+            hop = 0;
+        }
+
+        int node = route.path[hop];
+        int nextHop = hop + 1;
+        long delay = hopDelay(graph, node, route.path[nextHop], draw);
+        if (nextHop < route.path.length - 1) {
+            var nextRoute = route;
+            long nextDraw = SimaSimulationUtils.nextDraw(draw);
+            SimaSimulation.getScheduler()
+                    .scheduleExecutableOnce(() -> forwardInFlight(initiator, target, physicalEvent, nextRoute, nextHop, nextDraw), delay);
+        } else if (initiator.hasAgentHandle() && target.hasAgentHandle())
+            getEnvironment().assignEventOn(initiator.getAgentHandle(), target.getAgentHandle(), physicalEvent, delay);
+        else
+            getEnvironment().assignEventOn(initiator, target, physicalEvent, delay);
+    }
+
+    private void forwardInFlight(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent, Route route, int hop, long draw) {
+        try {
+            forward(initiator, target, physicalEvent, route, hop, draw);
+        } catch (KilledAgentException | NotEvolvingAgentInEnvironmentException e) {
+            // The initiator or the target has left the environment during the route, the event is lost.
+        }
+    }
+
+    /**
+     * @return the latency of the link if it has one, else a delay sampled from the {@link #getDelayModel()}.
+     */
+    private long hopDelay(DynamicGraph graph, int from, int to, long draw) {
+        long latency = graph.getLatency(from, to);
+        return latency != CSRGraph.NO_LATENCY ? Math.max(1L, latency) : getDelayModel().sampleDelay(from, to, draw);
+    }
+
+    // Getters.
+
+    /**
+     * @param initiator the initiator
+     * @param target    the target
+     *
+     * @return the unique ids of the agents of the shortest path from the initiator to the target in the current topology, initiator and target
+     * included. An empty array if there is no path.
+     *
+     * @throws IllegalArgumentException if the initiator or the target is null
+     */
+    public int[] getRoute(AgentIdentifier initiator, AgentIdentifier target) {
+        if (initiator == null || target == null)
+            throw new IllegalArgumentException("The initiator and the target cannot be null");
+
+        var tree = shortestPathTreeOf(initiator.getAgentUniqueId(), currentGraph());
+        return tree != null ? tree.getPath(target.getAgentUniqueId()) : new int[0];
+    }
+
+    /**
+     * @return the number of {@link ShortestPathTree} currently cached.
+     */
+    public int getNbCachedRoutes() {
+        return routingCache.size();
+    }
+
+    public int getRoutingCacheSize() {
+        return routingCacheSize;
+    }
+
+    // Inner classes.
+
+    /**
+     * The nodes of a shortest path and the version of the topology for which it has been computed.
+     */
+    private static final class Route {
+
+        // Variables.
+
+        private final int[] path;
+
+        private final long version;
+
+        // Constructors.
+
+        Route(int[] path, long version) {
+            this.path = path;
+            this.version = version;
+        }
+    }
+
+    private static final class CachedTree {
+
+        // Variables.
+
+        private final ShortestPathTree tree;
+
+        /**
+         * The version of the topology for which the tree is valid.
+         */
+        private volatile long version;
+
+        private volatile long lastAccess;
+
+        // Constructors.
+
+        CachedTree(ShortestPathTree tree, long version) {
+            this.tree = tree;
+            this.version = version;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+}
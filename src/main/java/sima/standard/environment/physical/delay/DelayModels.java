@@ -0,0 +1,101 @@
+package sima.standard.environment.physical.delay;
+
+import sima.core.environment.physical.DelayModel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Creates the {@link DelayModel} of a physical layer from its arguments. The model is chosen with the argument {@link #DELAY_MODEL_ARGS}:
+ * <ul>
+ *     <li>{@link #UNIFORM_DELAY_MODEL} (default): uniform in [minSendDelay; maxSendDelay[</li>
+ *     <li>{@link #EXPONENTIAL_DELAY_MODEL}: minSendDelay plus an exponential value of mean {@link #MEAN_DELAY_ARGS}</li>
+ *     <li>{@link #LOG_NORMAL_DELAY_MODEL}: log-normal of parameters {@link #LOG_MEAN_ARGS} and {@link #LOG_STD_DEV_ARGS}</li>
+ *     <li>{@link #EMPIRICAL_DELAY_MODEL}: empirical distribution read from {@link #DELAY_FILE_ARGS}</li>
+ *     <li>{@link #LINK_DELAY_MODEL}: fixed delays read from {@link #LINK_DELAY_FILE_ARGS}, uniform for the other links. Uses the argument
+ *     directed</li>
+ * </ul>
+ */
+public final class DelayModels {
+
+    // Static.
+
+    public static final String DELAY_MODEL_ARGS = "delayModel";
+    public static final String MEAN_DELAY_ARGS = "meanDelay";
+    public static final String LOG_MEAN_ARGS = "logMean";
+    public static final String LOG_STD_DEV_ARGS = "logStdDev";
+    public static final String DELAY_FILE_ARGS = "delayFile";
+    public static final String LINK_DELAY_FILE_ARGS = "linkDelayFile";
+    public static final String DIRECTED_ARGS = "directed";
+
+    public static final String UNIFORM_DELAY_MODEL = "uniform";
+    public static final String EXPONENTIAL_DELAY_MODEL = "exponential";
+    public static final String LOG_NORMAL_DELAY_MODEL = "logNormal";
+    public static final String EMPIRICAL_DELAY_MODEL = "empirical";
+    public static final String LINK_DELAY_MODEL = "link";
+
+    // Constructors.
+
+    private DelayModels() {
+    }
+
+    // Methods.
+
+    /**
+     * @param args         the arguments of the physical layer, can be null
+     * @param minSendDelay the min send delay of the layer
+     * @param maxSendDelay the max send delay of the layer
+     *
+     * @return the {@link DelayModel} described by the arguments, a {@link UniformDelayModel} in [minSendDelay; maxSendDelay[ if there is no {@link
+     * #DELAY_MODEL_ARGS}.
+     *
+     * @throws IllegalArgumentException if an argument is missing or is not valid or if a file cannot be read
+     */
+    public static DelayModel fromArgs(Map<String, String> args, long minSendDelay, long maxSendDelay) {
+        var uniform = new UniformDelayModel(minSendDelay, maxSendDelay);
+        if (args == null || !args.containsKey(DELAY_MODEL_ARGS))
+            return uniform;
+
+        String delayModel = args.get(DELAY_MODEL_ARGS);
+        return switch (delayModel) {
+            case UNIFORM_DELAY_MODEL -> uniform;
+            case EXPONENTIAL_DELAY_MODEL -> new ExponentialDelayModel(minSendDelay, parseRequiredDouble(args, MEAN_DELAY_ARGS));
+            case LOG_NORMAL_DELAY_MODEL -> new LogNormalDelayModel(parseRequiredDouble(args, LOG_MEAN_ARGS),
+                                                                   parseRequiredDouble(args, LOG_STD_DEV_ARGS));
+            case EMPIRICAL_DELAY_MODEL -> readEmpirical(args);
+            case LINK_DELAY_MODEL -> readLinkDelays(args, uniform);
+            default -> throw new IllegalArgumentException("Unknown " + DELAY_MODEL_ARGS + " " + delayModel);
+        };
+    }
+
+    private static DelayModel readEmpirical(Map<String, String> args) {
+        String file = Optional.ofNullable(args.get(DELAY_FILE_ARGS))
+                .orElseThrow(() -> new IllegalArgumentException("No " + DELAY_FILE_ARGS + " argument"));
+        try {
+            return EmpiricalDelayModel.readFrom(Path.of(file));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the delay file " + file, e);
+        }
+    }
+
+    private static DelayModel readLinkDelays(Map<String, String> args, DelayModel fallback) {
+        String file = Optional.ofNullable(args.get(LINK_DELAY_FILE_ARGS))
+                .orElseThrow(() -> new IllegalArgumentException("No " + LINK_DELAY_FILE_ARGS + " argument"));
+        try {
+            return LinkDelayModel.readFrom(Path.of(file), Boolean.parseBoolean(args.get(DIRECTED_ARGS)), fallback);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the link delay file " + file, e);
+        }
+    }
+
+    private static double parseRequiredDouble(Map<String, String> args, String key) {
+        String value = Optional.ofNullable(args.get(key)).orElseThrow(() -> new IllegalArgumentException("No " + key + " argument"));
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The argument " + key + " is not a double: " + value, e);
+        }
+    }
+}
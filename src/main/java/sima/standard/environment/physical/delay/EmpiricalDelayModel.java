@@ -0,0 +1,171 @@
+package sima.standard.environment.physical.delay;
+
+import sima.core.environment.physical.DelayModel;
+import sima.core.scheduler.Scheduler;
+import sima.core.simulation.SimaSimulationUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * A {@link DelayModel} whose delays follow an empirical distribution: a finite set of delays, each one with a weight.
+ * <p>
+ * The distribution is stored in an alias table (Vose's method) built in O(n) at the construction, therefore a delay is sampled in O(1) whatever the
+ * number of delays: one random column and one biased coin.
+ */
+public final class EmpiricalDelayModel implements DelayModel {
+
+    // Variables.
+
+    private final long[] delays;
+
+    /**
+     * Probability to keep the delay of the column instead of its alias.
+     */
+    private final double[] probabilities;
+
+    private final int[] aliases;
+
+    // Constructors.
+
+    /**
+     * @param delays  the possible delays
+     * @param weights the weight of each delay, not necessarily normalized
+     *
+     * @throws IllegalArgumentException if delays or weights is null or empty, if they do not have the same length, if a delay is less than {@link
+     *                                  Scheduler#NOW}, if a weight is negative or not finite or if the sum of weights is 0
+     */
+    public EmpiricalDelayModel(long[] delays, double[] weights) {
+        delays = Optional.ofNullable(delays).orElseThrow(() -> new IllegalArgumentException("The delays cannot be null"));
+        weights = Optional.ofNullable(weights).orElseThrow(() -> new IllegalArgumentException("The weights cannot be null"));
+        if (delays.length == 0 || delays.length != weights.length)
+            throw new IllegalArgumentException("The delays and the weights must be not empty and have the same length");
+
+        double sum = 0.0d;
+        for (int i = 0; i < delays.length; i++) {
+            if (delays[i] < Scheduler.NOW)
+                throw new IllegalArgumentException("A delay cannot be less than " + Scheduler.NOW);
+            if (!(weights[i] >= 0.0d) || Double.isInfinite(weights[i]))
+                throw new IllegalArgumentException("A weight must be positive and finite");
+            sum += weights[i];
+        }
+        if (sum <= 0.0d)
+            throw new IllegalArgumentException("The sum of the weights cannot be 0");
+
+        this.delays = delays.clone();
+        this.probabilities = new double[delays.length];
+        this.aliases = new int[delays.length];
+        buildAliasTable(weights, sum);
+    }
+
+    // Methods.
+
+    /**
+     * Reads an empirical distribution from a file. Each line is {@code delay [weight]} where the fields are separated by spaces or tabulations, the
+     * default weight is 1. Empty lines and lines which begin with {@code #} are ignored.
+     *
+     * @param file the file
+     *
+     * @return a new {@link EmpiricalDelayModel}.
+     *
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is malformed or if the distribution is not valid
+     */
+    public static EmpiricalDelayModel readFrom(Path file) throws IOException {
+        long[] delays = new long[16];
+        double[] weights = new double[16];
+        int size = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#"))
+                    continue;
+
+                String[] fields = trimmed.split("\\s+");
+                if (fields.length > 2)
+                    throw new IllegalArgumentException("Malformed delay at line " + lineNumber + ": " + line);
+
+                if (size == delays.length) {
+                    delays = Arrays.copyOf(delays, size << 1);
+                    weights = Arrays.copyOf(weights, size << 1);
+                }
+                try {
+                    delays[size] = Long.parseLong(fields[0]);
+                    weights[size] = fields.length == 2 ? Double.parseDouble(fields[1]) : 1.0d;
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed delay at line " + lineNumber + ": " + line, e);
+                }
+                size++;
+            }
+        }
+
+        return new EmpiricalDelayModel(Arrays.copyOf(delays, size), Arrays.copyOf(weights, size));
+    }
+
+    /**
+     * Vose's alias method. Each column i keeps its delay with the probability probabilities[i], else takes the delay of aliases[i].
+     */
+    private void buildAliasTable(double[] weights, double sum) {
+        int n = weights.length;
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int nbSmall = 0;
+        int nbLarge = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            if (scaled[i] < 1.0d)
+                small[nbSmall++] = i;
+            else
+                large[nbLarge++] = i;
+        }
+
+        while (nbSmall > 0 && nbLarge > 0) {
+            int less = small[--nbSmall];
+            int more = large[--nbLarge];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0d;
+            if (scaled[more] < 1.0d)
+                small[nbSmall++] = more;
+            else
+                large[nbLarge++] = more;
+        }
+
+        // The remaining columns have a probability of 1, the rounding errors are ignored.
+        while (nbLarge > 0) {
+            int column = large[--nbLarge];
+            probabilities[column] = 1.0d;
+            aliases[column] = column;
+        }
+        while (nbSmall > 0) {
+            int column = small[--nbSmall];
+            probabilities[column] = 1.0d;
+            aliases[column] = column;
+        }
+    }
+
+    @Override
+    public long sampleDelay(int from, int to, long draw) {
+        int column = (int) SimaSimulationUtils.boundedDraw(draw, 0L, delays.length);
+        return SimaSimulationUtils.unitDouble(SimaSimulationUtils.nextDraw(draw)) < probabilities[column] ? delays[column] : delays[aliases[column]];
+    }
+
+    @Override
+    public String toString() {
+        return "[EmpiricalDelayModel - nbDelays=" + delays.length + "]";
+    }
+
+    // Getters.
+
+    public int getNbDelays() {
+        return delays.length;
+    }
+}
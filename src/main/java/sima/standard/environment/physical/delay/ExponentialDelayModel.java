@@ -0,0 +1,59 @@
+package sima.standard.environment.physical.delay;
+
+import sima.core.environment.physical.DelayModel;
+import sima.core.scheduler.Scheduler;
+import sima.core.simulation.SimaSimulationUtils;
+
+/**
+ * A {@link DelayModel} whose delays are a min delay plus a value which follows an exponential distribution. The sampling is done by inversion in
+ * O(1).
+ */
+public final class ExponentialDelayModel implements DelayModel {
+
+    // Variables.
+
+    private final long minDelay;
+
+    private final double mean;
+
+    // Constructors.
+
+    /**
+     * @param minDelay the min delay, added to each sampled value
+     * @param mean     the mean of the exponential part of the delay
+     *
+     * @throws IllegalArgumentException if minDelay is less than {@link Scheduler#NOW} or if the mean is not strictly positive
+     */
+    public ExponentialDelayModel(long minDelay, double mean) {
+        if (minDelay < Scheduler.NOW)
+            throw new IllegalArgumentException("The minDelay cannot be less than " + Scheduler.NOW);
+        if (!(mean > 0.0d) || Double.isInfinite(mean))
+            throw new IllegalArgumentException("The mean must be strictly positive and finite");
+
+        this.minDelay = minDelay;
+        this.mean = mean;
+    }
+
+    // Methods.
+
+    @Override
+    public long sampleDelay(int from, int to, long draw) {
+        // 1 - unitDouble(draw) is in ]0; 1], therefore the log is finite.
+        return minDelay + Math.round(-mean * Math.log(1.0d - SimaSimulationUtils.unitDouble(draw)));
+    }
+
+    @Override
+    public String toString() {
+        return "[ExponentialDelayModel - minDelay=" + minDelay + ", mean=" + mean + "]";
+    }
+
+    // Getters.
+
+    public long getMinDelay() {
+        return minDelay;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+}
@@ -0,0 +1,241 @@
+package sima.standard.environment.physical.delay;
+
+import sima.core.environment.physical.DelayModel;
+import sima.core.scheduler.Scheduler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * A {@link DelayModel} where some links have a fixed delay. The delay of the other links is sampled from a fallback {@link DelayModel}.
+ * <p>
+ * The fixed delays are stored in an open addressing table of primitive arrays, therefore a lookup is O(1) and does not allocate. Instances are
+ * immutable and created with a {@link Builder}.
+ */
+public final class LinkDelayModel implements DelayModel {
+
+    // Static.
+
+    private static final long EMPTY_KEY = -1L;
+
+    // Variables.
+
+    private final long[] keys;
+
+    private final long[] linkDelays;
+
+    /**
+     * 64 - log2(capacity), used to take the high bits of the hash.
+     */
+    private final int shift;
+
+    private final int nbLinks;
+
+    private final DelayModel fallback;
+
+    // Constructors.
+
+    private LinkDelayModel(long[] keys, long[] linkDelays, int nbLinks, DelayModel fallback) {
+        this.keys = keys;
+        this.linkDelays = linkDelays;
+        this.shift = 64 - Integer.numberOfTrailingZeros(keys.length);
+        this.nbLinks = nbLinks;
+        this.fallback = fallback;
+    }
+
+    // Methods.
+
+    private static long key(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    private static int indexOf(long[] keys, int shift, long key) {
+        int mask = keys.length - 1;
+        int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        while (keys[index] != EMPTY_KEY && keys[index] != key)
+            index = (index + 1) & mask;
+        return index;
+    }
+
+    /**
+     * Reads fixed delays from a file. Each line is {@code from to delay} where the fields are separated by spaces or tabulations. Empty lines and
+     * lines which begin with {@code #} are ignored.
+     *
+     * @param file     the file
+     * @param directed false if each delay must be used in both directions
+     * @param fallback the {@link DelayModel} of the links which are not in the file
+     *
+     * @return a new {@link LinkDelayModel}.
+     *
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is malformed or if the fallback is null
+     */
+    public static LinkDelayModel readFrom(Path file, boolean directed, DelayModel fallback) throws IOException {
+        var builder = new Builder(directed);
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#"))
+                    continue;
+
+                String[] fields = trimmed.split("\\s+");
+                if (fields.length != 3)
+                    throw new IllegalArgumentException("Malformed link delay at line " + lineNumber + ": " + line);
+
+                try {
+                    builder.addLink(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), Long.parseLong(fields[2]));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed link delay at line " + lineNumber + ": " + line, e);
+                }
+            }
+        }
+
+        return builder.build(fallback);
+    }
+
+    /**
+     * @param from the source node
+     * @param to   the target node
+     *
+     * @return the fixed delay of the link, -1 if the link has no fixed delay.
+     */
+    public long getLinkDelay(int from, int to) {
+        if (from < 0 || to < 0)
+            return -1L;
+
+        int index = indexOf(keys, shift, key(from, to));
+        return keys[index] != EMPTY_KEY ? linkDelays[index] : -1L;
+    }
+
+    @Override
+    public long sampleDelay(int from, int to, long draw) {
+        long delay = getLinkDelay(from, to);
+        return delay != -1L ? delay : fallback.sampleDelay(from, to, draw);
+    }
+
+    @Override
+    public String toString() {
+        return "[LinkDelayModel - nbLinks=" + nbLinks + ", fallback=" + fallback + "]";
+    }
+
+    // Getters.
+
+    /**
+     * @return the number of directed links which have a fixed delay. An undirected link counts for two.
+     */
+    public int getNbLinks() {
+        return nbLinks;
+    }
+
+    public DelayModel getFallback() {
+        return fallback;
+    }
+
+    // Inner classes.
+
+    /**
+     * Collects the fixed delays and builds a {@link LinkDelayModel}. If a link is added several times, the last delay is kept.
+     */
+    public static final class Builder {
+
+        // Variables.
+
+        private final boolean directed;
+
+        private int nbLinks;
+
+        private int[] froms;
+
+        private int[] tos;
+
+        private long[] delays;
+
+        // Constructors.
+
+        /**
+         * @param directed false if each delay must be used in both directions
+         */
+        public Builder(boolean directed) {
+            this.directed = directed;
+            this.nbLinks = 0;
+            this.froms = new int[16];
+            this.tos = new int[16];
+            this.delays = new long[16];
+        }
+
+        // Methods.
+
+        /**
+         * @param from  the source node
+         * @param to    the target node
+         * @param delay the fixed delay of the link
+         *
+         * @return this builder.
+         *
+         * @throws IllegalArgumentException if a node is less than 0 or if the delay is less than {@link Scheduler#NOW}
+         */
+        public Builder addLink(int from, int to, long delay) {
+            if (from < 0 || to < 0)
+                throw new IllegalArgumentException("A node cannot be less than 0");
+            if (delay < Scheduler.NOW)
+                throw new IllegalArgumentException("The delay cannot be less than " + Scheduler.NOW);
+
+            if (nbLinks == froms.length) {
+                froms = Arrays.copyOf(froms, nbLinks << 1);
+                tos = Arrays.copyOf(tos, nbLinks << 1);
+                delays = Arrays.copyOf(delays, nbLinks << 1);
+            }
+
+            froms[nbLinks] = from;
+            tos[nbLinks] = to;
+            delays[nbLinks] = delay;
+            nbLinks++;
+            return this;
+        }
+
+        /**
+         * @param fallback the {@link DelayModel} of the links which have no fixed delay
+         *
+         * @return a new {@link LinkDelayModel} which contains all added links.
+         *
+         * @throws IllegalArgumentException if the fallback is null
+         */
+        public LinkDelayModel build(DelayModel fallback) {
+            fallback = Optional.ofNullable(fallback).orElseThrow(() -> new IllegalArgumentException("The fallback cannot be null"));
+
+            int maxNbKeys = directed ? nbLinks : 2 * nbLinks;
+            int capacity = Integer.highestOneBit(Math.max(4, maxNbKeys * 2 - 1)) << 1;
+            long[] keys = new long[capacity];
+            long[] linkDelays = new long[capacity];
+            Arrays.fill(keys, EMPTY_KEY);
+            int shift = 64 - Integer.numberOfTrailingZeros(capacity);
+
+            int nbKeys = 0;
+            for (int i = 0; i < nbLinks; i++) {
+                nbKeys += put(keys, linkDelays, shift, key(froms[i], tos[i]), delays[i]);
+                if (!directed)
+                    nbKeys += put(keys, linkDelays, shift, key(tos[i], froms[i]), delays[i]);
+            }
+
+            return new LinkDelayModel(keys, linkDelays, nbKeys, fallback);
+        }
+
+        /**
+         * @return 1 if the key is new, else 0.
+         */
+        private static int put(long[] keys, long[] linkDelays, int shift, long key, long delay) {
+            int index = indexOf(keys, shift, key);
+            int added = keys[index] == EMPTY_KEY ? 1 : 0;
+            keys[index] = key;
+            linkDelays[index] = delay;
+            return added;
+        }
+    }
+}
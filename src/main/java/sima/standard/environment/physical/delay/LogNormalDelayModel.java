@@ -0,0 +1,61 @@
+package sima.standard.environment.physical.delay;
+
+import sima.core.environment.physical.DelayModel;
+import sima.core.scheduler.Scheduler;
+import sima.core.simulation.SimaSimulationUtils;
+
+/**
+ * A {@link DelayModel} whose delays follow a log-normal distribution: the delay is {@code exp(mu + sigma * Z)} rounded where {@code Z} follows the
+ * standard normal distribution. {@code Z} is sampled with the Box-Muller transform in O(1). The delay is never less than {@link Scheduler#NOW}.
+ */
+public final class LogNormalDelayModel implements DelayModel {
+
+    // Variables.
+
+    private final double mu;
+
+    private final double sigma;
+
+    // Constructors.
+
+    /**
+     * @param mu    the mean of the logarithm of the delay
+     * @param sigma the standard deviation of the logarithm of the delay
+     *
+     * @throws IllegalArgumentException if mu is not finite or if sigma is negative or not finite
+     */
+    public LogNormalDelayModel(double mu, double sigma) {
+        if (!Double.isFinite(mu))
+            throw new IllegalArgumentException("The mu must be finite");
+        if (!(sigma >= 0.0d) || Double.isInfinite(sigma))
+            throw new IllegalArgumentException("The sigma must be positive and finite");
+
+        this.mu = mu;
+        this.sigma = sigma;
+    }
+
+    // Methods.
+
+    @Override
+    public long sampleDelay(int from, int to, long draw) {
+        double u1 = 1.0d - SimaSimulationUtils.unitDouble(draw); // In ]0; 1], therefore the log is finite.
+        double u2 = SimaSimulationUtils.unitDouble(SimaSimulationUtils.nextDraw(draw));
+        double z = Math.sqrt(-2.0d * Math.log(u1)) * Math.cos(2.0d * Math.PI * u2);
+        return Math.max(Scheduler.NOW, Math.round(Math.exp(mu + sigma * z)));
+    }
+
+    @Override
+    public String toString() {
+        return "[LogNormalDelayModel - mu=" + mu + ", sigma=" + sigma + "]";
+    }
+
+    // Getters.
+
+    public double getMu() {
+        return mu;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+}
@@ -0,0 +1,58 @@
+package sima.standard.environment.physical.delay;
+
+import sima.core.environment.physical.DelayModel;
+import sima.core.scheduler.Scheduler;
+import sima.core.simulation.SimaSimulationUtils;
+
+/**
+ * A {@link DelayModel} whose delays follow a uniform distribution in [min; max[. The sampling is not biased, contrary to a modulo on a random
+ * long.
+ */
+public final class UniformDelayModel implements DelayModel {
+
+    // Variables.
+
+    private final long minDelay;
+
+    private final long maxDelay;
+
+    // Constructors.
+
+    /**
+     * @param minDelay the min delay (include)
+     * @param maxDelay the max delay (exclude), if equal to minDelay, the delay is always minDelay
+     *
+     * @throws IllegalArgumentException if minDelay is less than {@link Scheduler#NOW} or if maxDelay is less than minDelay
+     */
+    public UniformDelayModel(long minDelay, long maxDelay) {
+        if (minDelay < Scheduler.NOW)
+            throw new IllegalArgumentException("The minDelay cannot be less than " + Scheduler.NOW);
+        if (maxDelay < minDelay)
+            throw new IllegalArgumentException("The maxDelay cannot be less than the minDelay");
+
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    // Methods.
+
+    @Override
+    public long sampleDelay(int from, int to, long draw) {
+        return minDelay == maxDelay ? minDelay : SimaSimulationUtils.boundedDraw(draw, minDelay, maxDelay);
+    }
+
+    @Override
+    public String toString() {
+        return "[UniformDelayModel - minDelay=" + minDelay + ", maxDelay=" + maxDelay + "]";
+    }
+
+    // Getters.
+
+    public long getMinDelay() {
+        return minDelay;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+}
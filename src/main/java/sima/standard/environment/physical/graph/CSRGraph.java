@@ -0,0 +1,408 @@
+package sima.standard.environment.physical.graph;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable graph stored in Compressed Sparse Row (CSR) format.
+ * <p>
+ * Nodes are the ints in [0; {@link #getNbNodes()}[. The neighbors of a node {@code u} are stored sorted in the edges between {@link
+ * #getEdgeStart(int)} (include) and {@link #getEdgeEnd(int)} (exclude). Each edge can carry a latency, {@link #NO_LATENCY} if the edge has not
+ * latency. All the graph is stored in primitive arrays, therefore {@link #hasEdge(int, int)} and the iteration over the neighbors of a node do not
+ * allocate:
+ *
+ * <pre>{@code
+ * for (int edge = graph.getEdgeStart(u); edge < graph.getEdgeEnd(u); edge++) {
+ *     int neighbor = graph.getEdgeTarget(edge);
+ *     long latency = graph.getEdgeLatency(edge);
+ * }
+ * }</pre>
+ * <p>
+ * Instances are created with a {@link Builder}. An undirected edge is stored as two directed edges.
+ */
+public final class CSRGraph {
+
+    // Static.
+
+    /**
+     * Latency of an edge which has not latency.
+     */
+    public static final int NO_LATENCY = -1;
+
+    // Variables.
+
+    private final int nbNodes;
+
+    /**
+     * The edges of the node {@code u} are in [offsets[u]; offsets[u + 1][.
+     */
+    private final int[] offsets;
+
+    private final int[] targets;
+
+    /**
+     * Null if no edge has latency.
+     */
+    private final int[] latencies;
+
+    // Constructors.
+
+    private CSRGraph(int nbNodes, int[] offsets, int[] targets, int[] latencies) {
+        this.nbNodes = nbNodes;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.latencies = latencies;
+    }
+
+    // Methods.
+
+    /**
+     * @param node the node
+     *
+     * @return true if the node is in [0; {@link #getNbNodes()}[, else false.
+     */
+    public boolean containsNode(int node) {
+        return node >= 0 && node < nbNodes;
+    }
+
+    /**
+     * @param from the source node
+     * @param to   the target node
+     *
+     * @return true if the graph has an edge from the node from to the node to, else false. Returns false if one node is not in the graph.
+     */
+    public boolean hasEdge(int from, int to) {
+        return findEdge(from, to) >= 0;
+    }
+
+    /**
+     * @param from the source node
+     * @param to   the target node
+     *
+     * @return the index of the edge from the node from to the node to, a negative value if there is no such edge.
+     */
+    public int findEdge(int from, int to) {
+        if (!containsNode(from) || !containsNode(to))
+            return -1;
+
+        int edge = Arrays.binarySearch(targets, offsets[from], offsets[from + 1], to);
+        return edge >= 0 ? edge : -1;
+    }
+
+    /**
+     * @param from the source node
+     * @param to   the target node
+     *
+     * @return the latency of the edge from the node from to the node to. Returns {@link #NO_LATENCY} if there is no such edge or if the edge has
+     * not latency.
+     */
+    public long getLatency(int from, int to) {
+        if (latencies == null)
+            return NO_LATENCY;
+
+        int edge = findEdge(from, to);
+        return edge >= 0 ? latencies[edge] : NO_LATENCY;
+    }
+
+    @Override
+    public String toString() {
+        return "[CSRGraph - nbNodes=" + nbNodes + ", nbEdges=" + getNbEdges() + ", hasLatencies=" + hasLatencies() + "]";
+    }
+
+    // Getters.
+
+    public int getNbNodes() {
+        return nbNodes;
+    }
+
+    /**
+     * @return the number of directed edges. An undirected edge counts for two.
+     */
+    public int getNbEdges() {
+        return targets.length;
+    }
+
+    /**
+     * @return true if at least one edge has been built with a latency.
+     */
+    public boolean hasLatencies() {
+        return latencies != null;
+    }
+
+    /**
+     * @param node the node
+     *
+     * @return the number of neighbors of the node.
+     *
+     * @throws IndexOutOfBoundsException if the node is not in the graph
+     */
+    public int getDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * @param node the node
+     *
+     * @return the index of the first edge of the node.
+     *
+     * @throws IndexOutOfBoundsException if the node is not in the graph
+     */
+    public int getEdgeStart(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * @param node the node
+     *
+     * @return the index after the last edge of the node.
+     *
+     * @throws IndexOutOfBoundsException if the node is not in the graph
+     */
+    public int getEdgeEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    /**
+     * @param edge the index of the edge
+     *
+     * @return the target node of the edge.
+     *
+     * @throws IndexOutOfBoundsException if the edge is not in the graph
+     */
+    public int getEdgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * @param edge the index of the edge
+     *
+     * @return the latency of the edge, {@link #NO_LATENCY} if the edge has not latency.
+     *
+     * @throws IndexOutOfBoundsException if the edge is not in the graph
+     */
+    public long getEdgeLatency(int edge) {
+        if (latencies == null) {
+            Objects.checkIndex(edge, targets.length);
+            return NO_LATENCY;
+        }
+
+        return latencies[edge];
+    }
+
+    // Inner classes.
+
+    /**
+     * Collects edges and builds a {@link CSRGraph}.
+     * <p>
+     * Self-loops are ignored. If an edge is added several times, only one is kept, the one with the smallest latency if the edge has latencies.
+     */
+    public static final class Builder {
+
+        // Static.
+
+        private static final int DEFAULT_CAPACITY = 16;
+
+        // Variables.
+
+        private final int minNbNodes;
+
+        private final boolean directed;
+
+        private int maxNode;
+
+        private int nbEdges;
+
+        private int[] froms;
+
+        private int[] tos;
+
+        /**
+         * Allocated at the first edge added with a latency.
+         */
+        private int[] edgeLatencies;
+
+        // Constructors.
+
+        /**
+         * @param minNbNodes the minimum number of nodes of the graph. The built graph has at least this number of nodes, more if an edge has a
+         *                   node greater or equal to it.
+         * @param directed   true if the added edges are directed, false if each edge must be added in both directions
+         *
+         * @throws IllegalArgumentException if minNbNodes is less than 0
+         */
+        public Builder(int minNbNodes, boolean directed) {
+            if (minNbNodes < 0)
+                throw new IllegalArgumentException("The minNbNodes cannot be less than 0");
+
+            this.minNbNodes = minNbNodes;
+            this.directed = directed;
+            this.maxNode = -1;
+            this.nbEdges = 0;
+            this.froms = new int[DEFAULT_CAPACITY];
+            this.tos = new int[DEFAULT_CAPACITY];
+        }
+
+        // Methods.
+
+        /**
+         * Adds an edge without latency.
+         *
+         * @param from the source node
+         * @param to   the target node
+         *
+         * @return this builder.
+         *
+         * @throws IllegalArgumentException if one node is less than 0
+         */
+        public Builder addEdge(int from, int to) {
+            return addEdge(from, to, NO_LATENCY);
+        }
+
+        /**
+         * Adds an edge with a latency.
+         *
+         * @param from    the source node
+         * @param to      the target node
+         * @param latency the latency of the edge, {@link #NO_LATENCY} if the edge has not latency
+         *
+         * @return this builder.
+         *
+         * @throws IllegalArgumentException if one node is less than 0 or if the latency is less than 0 and not equal to {@link #NO_LATENCY}
+         */
+        public Builder addEdge(int from, int to, int latency) {
+            if (from < 0 || to < 0)
+                throw new IllegalArgumentException("A node cannot be less than 0");
+            if (latency < 0 && latency != NO_LATENCY)
+                throw new IllegalArgumentException("The latency cannot be less than 0");
+
+            if (from == to)
+                return this; // Self-loops are ignored.
+
+            if (nbEdges == froms.length)
+                grow();
+
+            froms[nbEdges] = from;
+            tos[nbEdges] = to;
+            if (latency != NO_LATENCY && edgeLatencies == null) {
+                edgeLatencies = new int[froms.length];
+                Arrays.fill(edgeLatencies, NO_LATENCY);
+            }
+            if (edgeLatencies != null)
+                edgeLatencies[nbEdges] = latency;
+
+            nbEdges++;
+            maxNode = Math.max(maxNode, Math.max(from, to));
+            return this;
+        }
+
+        private void grow() {
+            int newCapacity = froms.length + (froms.length >> 1);
+            if (newCapacity < 0)
+                throw new IllegalStateException("Too many edges");
+
+            froms = Arrays.copyOf(froms, newCapacity);
+            tos = Arrays.copyOf(tos, newCapacity);
+            if (edgeLatencies != null) {
+                edgeLatencies = Arrays.copyOf(edgeLatencies, newCapacity);
+                Arrays.fill(edgeLatencies, nbEdges, newCapacity, NO_LATENCY);
+            }
+        }
+
+        /**
+         * @return a new {@link CSRGraph} which contains all added edges.
+         *
+         * @throws IllegalStateException if the graph has more than {@link Integer#MAX_VALUE} directed edges
+         */
+        public CSRGraph build() {
+            int nbNodes = Math.max(minNbNodes, maxNode + 1);
+            long nbArcs = directed ? nbEdges : 2L * nbEdges;
+            if (nbArcs > Integer.MAX_VALUE - 8)
+                throw new IllegalStateException("Too many edges");
+
+            // Counting sort of edges by source node.
+            int[] offsets = new int[nbNodes + 1];
+            for (int i = 0; i < nbEdges; i++) {
+                offsets[froms[i] + 1]++;
+                if (!directed)
+                    offsets[tos[i] + 1]++;
+            }
+            for (int node = 0; node < nbNodes; node++)
+                offsets[node + 1] += offsets[node];
+
+            int[] targets = new int[(int) nbArcs];
+            int[] latencies = edgeLatencies != null ? new int[(int) nbArcs] : null;
+            int[] cursors = Arrays.copyOf(offsets, nbNodes);
+            for (int i = 0; i < nbEdges; i++) {
+                place(cursors, targets, latencies, froms[i], tos[i], i);
+                if (!directed)
+                    place(cursors, targets, latencies, tos[i], froms[i], i);
+            }
+
+            int nbKeptArcs = sortAndRemoveDuplicates(nbNodes, offsets, targets, latencies);
+            if (nbKeptArcs < targets.length) {
+                targets = Arrays.copyOf(targets, nbKeptArcs);
+                if (latencies != null)
+                    latencies = Arrays.copyOf(latencies, nbKeptArcs);
+            }
+
+            return new CSRGraph(nbNodes, offsets, targets, latencies);
+        }
+
+        private void place(int[] cursors, int[] targets, int[] latencies, int from, int to, int edge) {
+            int position = cursors[from]++;
+            targets[position] = to;
+            if (latencies != null)
+                latencies[position] = edgeLatencies[edge];
+        }
+
+        /**
+         * Sorts the neighbors of each node and removes duplicated edges. The arrays are compacted in place and the offsets are updated.
+         *
+         * @return the number of kept edges.
+         */
+        private static int sortAndRemoveDuplicates(int nbNodes, int[] offsets, int[] targets, int[] latencies) {
+            long[] scratch = latencies != null ? new long[maxDegree(nbNodes, offsets)] : null;
+            int write = 0;
+            int start = offsets[0];
+            for (int node = 0; node < nbNodes; node++) {
+                int end = offsets[node + 1];
+                offsets[node] = write;
+
+                if (latencies == null) {
+                    Arrays.sort(targets, start, end);
+                    for (int i = start; i < end; i++)
+                        if (i == start || targets[i] != targets[i - 1])
+                            targets[write++] = targets[i];
+                } else {
+                    // Sort by target then by latency, NO_LATENCY is stored as the greatest unsigned value, therefore it is sorted at the end.
+                    int degree = end - start;
+                    for (int i = 0; i < degree; i++)
+                        scratch[i] = ((long) targets[start + i] << 32) | (latencies[start + i] & 0xFFFFFFFFL);
+                    Arrays.sort(scratch, 0, degree);
+                    int previousTarget = -1;
+                    for (int i = 0; i < degree; i++) {
+                        int target = (int) (scratch[i] >>> 32);
+                        if (target != previousTarget) {
+                            targets[write] = target;
+                            latencies[write] = (int) scratch[i];
+                            write++;
+                            previousTarget = target;
+                        }
+                    }
+                }
+
+                start = end;
+            }
+            offsets[nbNodes] = write;
+
+            return write;
+        }
+
+        private static int maxDegree(int nbNodes, int[] offsets) {
+            int max = 0;
+            for (int node = 0; node < nbNodes; node++)
+                max = Math.max(max, offsets[node + 1] - offsets[node]);
+            return max;
+        }
+    }
+}
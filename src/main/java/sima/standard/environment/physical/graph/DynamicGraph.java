@@ -0,0 +1,365 @@
+package sima.standard.environment.physical.graph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable version of a graph whose links change over time.
+ * <p>
+ * A {@link DynamicGraph} is a base {@link CSRGraph} plus a delta which contains the links added, removed or whose latency has changed since the
+ * base. The delta is a chain of immutable layers, each layer is an open addressing table of primitive arrays, therefore {@link #hasEdge(int, int)}
+ * and {@link #getLatency(int, int)} do not allocate. Applying updates with {@link #apply(List)} never modifies the {@link DynamicGraph}, it creates
+ * the next version whose delta is a new layer chained to the delta of this version: the previous layers are shared and not copied. A new layer is
+ * merged with the previous one while it is at least half as large, therefore each link is copied O(log(delta size)) times and the chain has
+ * O(log(delta size)) layers. When the delta becomes too large, the next version is compacted in a new base {@link CSRGraph}.
+ * <p>
+ * Because versions are immutable, a thread which reads one version always sees a consistent graph even if other threads create new versions at
+ * the same time.
+ */
+public final class DynamicGraph {
+
+    // Static.
+
+    /**
+     * The minimum size of the delta before a compaction.
+     */
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+
+    /**
+     * A compaction is done if the delta has more entries than the number of edges of the base divided by this value.
+     */
+    private static final int COMPACTION_RATIO = 8;
+
+    // Variables.
+
+    private final CSRGraph base;
+
+    private final boolean directed;
+
+    private final long version;
+
+    private final Delta delta;
+
+    /**
+     * The result of {@link #toCSRGraph()}, computed at the first call.
+     */
+    private volatile CSRGraph compacted;
+
+    // Constructors.
+
+    /**
+     * Creates the first version of a {@link DynamicGraph}.
+     *
+     * @param base     the initial graph
+     * @param directed false if each update must be applied in both directions. Must be consistent with the base, an undirected {@link CSRGraph}
+     *                 stores each edge in both directions.
+     *
+     * @throws IllegalArgumentException if the base is null
+     */
+    public DynamicGraph(CSRGraph base, boolean directed) {
+        this(Optional.ofNullable(base).orElseThrow(() -> new IllegalArgumentException("The base cannot be null")), directed, 0L, new Delta(0));
+    }
+
+    private DynamicGraph(CSRGraph base, boolean directed, long version, Delta delta) {
+        this.base = base;
+        this.directed = directed;
+        this.version = version;
+        this.delta = delta;
+    }
+
+    // Methods.
+
+    private static long key(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param from the source node
+     * @param to   the target node
+     *
+     * @return true if there is a link from the node from to the node to in this version.
+     */
+    public boolean hasEdge(int from, int to) {
+        if (from < 0 || to < 0)
+            return false;
+
+        int value = delta.get(key(from, to));
+        if (value != Delta.ABSENT)
+            return value != Delta.REMOVED;
+
+        return base.hasEdge(from, to);
+    }
+
+    /**
+     * @param from the source node
+     * @param to   the target node
+     *
+     * @return the latency of the link from the node from to the node to in this version, {@link CSRGraph#NO_LATENCY} if there is no link or if the
+     * link has not latency.
+     */
+    public long getLatency(int from, int to) {
+        if (from < 0 || to < 0)
+            return CSRGraph.NO_LATENCY;
+
+        int value = delta.get(key(from, to));
+        if (value != Delta.ABSENT)
+            return value != Delta.REMOVED ? value : CSRGraph.NO_LATENCY;
+
+        return base.getLatency(from, to);
+    }
+
+    /**
+     * Creates the next version of the graph by applying the updates in the order of the list. The time of the updates is not used.
+     *
+     * @param updates the updates to apply
+     *
+     * @return a new {@link DynamicGraph} whose version is the version of this graph plus one.
+     *
+     * @throws IllegalArgumentException if updates is null
+     */
+    public DynamicGraph apply(List<TopologyUpdate> updates) {
+        updates = Optional.ofNullable(updates).orElseThrow(() -> new IllegalArgumentException("The updates cannot be null"));
+
+        var layer = new Delta(2 * updates.size(), delta.size() == 0 ? null : delta);
+        for (TopologyUpdate update : updates) {
+            applyOn(layer, update.getType(), update.getFrom(), update.getTo(), update.getLatency());
+            if (!directed)
+                applyOn(layer, update.getType(), update.getTo(), update.getFrom(), update.getLatency());
+        }
+        // A version without change shares the delta, the chain does not grow with empty layers.
+        var nextDelta = layer.layerSize == 0 ? delta : layer.mergeWithSmallParents();
+
+        if (nextDelta.size() > Math.max(MIN_COMPACTION_THRESHOLD, base.getNbEdges() / COMPACTION_RATIO))
+            return new DynamicGraph(compact(nextDelta), directed, version + 1, new Delta(0));
+
+        var next = new DynamicGraph(base, directed, version + 1, nextDelta);
+        if (nextDelta == delta)
+            next.compacted = compacted; // Same links, the compacted graph of this version is reused.
+        return next;
+    }
+
+    private void applyOn(Delta nextDelta, TopologyUpdate.Type type, int from, int to, int latency) {
+        if (from == to)
+            return; // Self-loops are ignored like in CSRGraph.
+
+        long key = key(from, to);
+        switch (type) {
+            case ADD_LINK -> nextDelta.put(key, latency);
+            case REMOVE_LINK -> nextDelta.put(key, Delta.REMOVED);
+            case CHANGE_LATENCY -> {
+                int value = nextDelta.get(key);
+                boolean exists = value != Delta.ABSENT ? value != Delta.REMOVED : base.hasEdge(from, to);
+                if (exists)
+                    nextDelta.put(key, latency);
+            }
+        }
+    }
+
+    private CSRGraph compact(Delta nextDelta) {
+        var builder = new CSRGraph.Builder(base.getNbNodes(), true);
+        for (int node = 0; node < base.getNbNodes(); node++)
+            for (int edge = base.getEdgeStart(node); edge < base.getEdgeEnd(node); edge++) {
+                int target = base.getEdgeTarget(edge);
+                if (nextDelta.get(key(node, target)) == Delta.ABSENT)
+                    builder.addEdge(node, target, (int) base.getEdgeLatency(edge));
+            }
+
+        nextDelta.forEachPresent(builder);
+        return builder.build();
+    }
+
+    /**
+     * The {@link CSRGraph} is computed at the first call and then reused, also by the next versions created without change of the links.
+     *
+     * @return a {@link CSRGraph} which contains the same links as this version.
+     */
+    public CSRGraph toCSRGraph() {
+        var graph = compacted;
+        if (graph == null) {
+            graph = delta.size() == 0 ? base : compact(delta);
+            compacted = graph;
+        }
+        return graph;
+    }
+
+    @Override
+    public String toString() {
+        return "[DynamicGraph - version=" + version + ", base=" + base + ", deltaSize=" + delta.size() + "]";
+    }
+
+    // Getters.
+
+    /**
+     * @return the number of versions created before this version, 0 for the first version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * @return the base {@link CSRGraph} of this version. Does not contain the links of the delta.
+     */
+    public CSRGraph getBase() {
+        return base;
+    }
+
+    /**
+     * @return the number of entries of the layers of the delta. A link updated in several layers which are not yet merged is counted one time per
+     * layer.
+     */
+    public int getDeltaSize() {
+        return delta.size();
+    }
+
+    // Inner classes.
+
+    /**
+     * A layer of the delta: an open addressing hash table which maps the key of a link to its latency or to {@link #REMOVED}, chained to the
+     * layer of the previous version. The entries of a layer hide the entries of its parents. Mutated only before the creation of the {@link
+     * DynamicGraph} which owns it, the parents are never mutated.
+     */
+    private static final class Delta {
+
+        // Static.
+
+        private static final long EMPTY_KEY = -1L;
+
+        /**
+         * Value returned by {@link #get(long)} if the key is not in the table.
+         */
+        static final int ABSENT = Integer.MIN_VALUE;
+
+        /**
+         * Value of a removed link.
+         */
+        static final int REMOVED = Integer.MIN_VALUE + 1;
+
+        // Variables.
+
+        private final long[] keys;
+
+        private final int[] values;
+
+        /**
+         * 64 - log2(capacity), used to take the high bits of the hash.
+         */
+        private final int shift;
+
+        private final Delta parent;
+
+        /**
+         * The number of entries of this layer.
+         */
+        private int layerSize;
+
+        // Constructors.
+
+        Delta(int expectedSize) {
+            this(expectedSize, null);
+        }
+
+        Delta(int expectedSize, Delta parent) {
+            int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, EMPTY_KEY);
+            shift = 64 - Integer.numberOfTrailingZeros(capacity);
+            this.parent = parent;
+            layerSize = 0;
+        }
+
+        // Methods.
+
+        private int indexOf(long key) {
+            int mask = keys.length - 1;
+            int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+            while (keys[index] != EMPTY_KEY && keys[index] != key)
+                index = (index + 1) & mask;
+            return index;
+        }
+
+        private int getInLayer(long key) {
+            int index = indexOf(key);
+            return keys[index] == EMPTY_KEY ? ABSENT : values[index];
+        }
+
+        /**
+         * @return the value of the key in the first layer of the chain which contains it, {@link #ABSENT} if no layer contains it.
+         */
+        int get(long key) {
+            return getUntil(key, null);
+        }
+
+        /**
+         * @return the value of the key in the first layer which contains it among the layers from this layer to the specified ancestor excluded.
+         */
+        private int getUntil(long key, Delta ancestor) {
+            for (Delta layer = this; layer != ancestor; layer = layer.parent) {
+                int value = layer.getInLayer(key);
+                if (value != ABSENT)
+                    return value;
+            }
+            return ABSENT;
+        }
+
+        /**
+         * The table must have been created with enough capacity.
+         */
+        void put(long key, int value) {
+            int index = indexOf(key);
+            if (keys[index] == EMPTY_KEY) {
+                keys[index] = key;
+                layerSize++;
+            }
+            values[index] = value;
+        }
+
+        /**
+         * Merges this layer with its parents while the parent is not larger than twice this layer. The entries of this layer hide the entries of
+         * the merged parents.
+         *
+         * @return the first layer of the resulting chain, this layer if no parent is merged.
+         */
+        Delta mergeWithSmallParents() {
+            Delta layer = this;
+            while (layer.parent != null && layer.parent.layerSize <= 2 * layer.layerSize) {
+                var merged = new Delta(layer.parent.layerSize + layer.layerSize, layer.parent.parent);
+                merged.putAll(layer.parent);
+                merged.putAll(layer);
+                layer = merged;
+            }
+            return layer;
+        }
+
+        private void putAll(Delta layer) {
+            for (int i = 0; i < layer.keys.length; i++)
+                if (layer.keys[i] != EMPTY_KEY)
+                    put(layer.keys[i], layer.values[i]);
+        }
+
+        /**
+         * Adds to the builder the links present in the chain, each link with its value in the first layer which contains it.
+         */
+        void forEachPresent(CSRGraph.Builder builder) {
+            for (Delta layer = this; layer != null; layer = layer.parent)
+                for (int i = 0; i < layer.keys.length; i++)
+                    if (layer.keys[i] != EMPTY_KEY && layer.values[i] != REMOVED && getUntil(layer.keys[i], layer) == ABSENT)
+                        builder.addEdge((int) (layer.keys[i] >>> 32), (int) layer.keys[i], layer.values[i]);
+        }
+
+        /**
+         * @return the number of entries of all the layers of the chain.
+         */
+        int size() {
+            int size = 0;
+            for (Delta layer = this; layer != null; layer = layer.parent)
+                size += layer.layerSize;
+            return size;
+        }
+    }
+}
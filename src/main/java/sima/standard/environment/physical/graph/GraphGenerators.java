@@ -0,0 +1,237 @@
+package sima.standard.environment.physical.graph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Creates {@link CSRGraph}. The generated graphs are undirected and reproducible: the same {@link Random} seed gives the same graph.
+ */
+public final class GraphGenerators {
+
+    // Constructors.
+
+    private GraphGenerators() {
+    }
+
+    // Methods.
+
+    /**
+     * Generates an Erdős–Rényi G(n, p) graph: each of the n(n - 1) / 2 possible edges exists with the probability p.
+     * <p>
+     * The generation runs in O(n + m) where m is the number of edges thanks to the geometric skipping of Batagelj and Brandes, therefore sparse
+     * graphs with millions of nodes can be generated.
+     *
+     * @param nbNodes     the number of nodes
+     * @param probability the probability of each edge
+     * @param random      the random used to generate the graph
+     *
+     * @return a new undirected {@link CSRGraph}.
+     *
+     * @throws IllegalArgumentException if nbNodes is less than 0 or if the probability is not in [0; 1]
+     */
+    public static CSRGraph erdosRenyi(int nbNodes, double probability, Random random) {
+        if (nbNodes < 0)
+            throw new IllegalArgumentException("The nbNodes cannot be less than 0");
+        if (probability < 0.0d || probability > 1.0d)
+            throw new IllegalArgumentException("The probability must be in [0; 1]");
+
+        var builder = new CSRGraph.Builder(nbNodes, false);
+        if (probability == 0.0d)
+            return builder.build();
+
+        if (probability == 1.0d) {
+            for (int v = 1; v < nbNodes; v++)
+                for (int w = 0; w < v; w++)
+                    builder.addEdge(v, w);
+            return builder.build();
+        }
+
+        double logQ = Math.log(1.0d - probability);
+        double maxSkip = (double) nbNodes * nbNodes; // Enough to end the generation, avoids the overflow of w.
+        int v = 1;
+        long w = -1;
+        while (v < nbNodes) {
+            w += 1 + (long) Math.min(Math.floor(Math.log(1.0d - random.nextDouble()) / logQ), maxSkip);
+            while (w >= v && v < nbNodes) {
+                w -= v;
+                v++;
+            }
+            if (v < nbNodes)
+                builder.addEdge(v, (int) w);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Generates a Watts–Strogatz small-world graph. Each node is first connected to its degree / 2 next nodes on a ring, then each edge is
+     * rewired with the probability rewiringProbability to a random node.
+     * <p>
+     * A rewired edge which already exists is merged with the existing edge, therefore the graph can have slightly less than nbNodes * degree / 2
+     * edges.
+     *
+     * @param nbNodes             the number of nodes
+     * @param degree              the degree of each node in the ring lattice, must be even
+     * @param rewiringProbability the probability to rewire each edge
+     * @param random              the random used to generate the graph
+     *
+     * @return a new undirected {@link CSRGraph}.
+     *
+     * @throws IllegalArgumentException if nbNodes is less than 0, if the degree is odd, less than 0 or greater or equal to nbNodes or if the
+     *                                  rewiringProbability is not in [0; 1]
+     */
+    public static CSRGraph wattsStrogatz(int nbNodes, int degree, double rewiringProbability, Random random) {
+        if (nbNodes < 0)
+            throw new IllegalArgumentException("The nbNodes cannot be less than 0");
+        if (degree < 0 || degree % 2 != 0 || (nbNodes > 0 && degree >= nbNodes))
+            throw new IllegalArgumentException("The degree must be even, greater or equal to 0 and less than nbNodes");
+        if (rewiringProbability < 0.0d || rewiringProbability > 1.0d)
+            throw new IllegalArgumentException("The rewiringProbability must be in [0; 1]");
+
+        var builder = new CSRGraph.Builder(nbNodes, false);
+        for (int node = 0; node < nbNodes; node++)
+            for (int j = 1; j <= degree / 2; j++) {
+                int target = (node + j) % nbNodes;
+                if (random.nextDouble() < rewiringProbability) {
+                    do {
+                        target = random.nextInt(nbNodes);
+                    } while (target == node);
+                }
+                builder.addEdge(node, target);
+            }
+
+        return builder.build();
+    }
+
+    /**
+     * Generates a Barabási–Albert scale-free graph by preferential attachment. The first node which is added connects to the attachment first
+     * nodes, then each new node connects to attachment distinct nodes chosen with a probability proportional to their degree.
+     *
+     * @param nbNodes    the number of nodes
+     * @param attachment the number of edges added with each new node
+     * @param random     the random used to generate the graph
+     *
+     * @return a new undirected {@link CSRGraph} with attachment * (nbNodes - attachment) edges.
+     *
+     * @throws IllegalArgumentException if the attachment is less than 1 or if nbNodes is less or equal to the attachment
+     */
+    public static CSRGraph barabasiAlbert(int nbNodes, int attachment, Random random) {
+        if (attachment < 1)
+            throw new IllegalArgumentException("The attachment cannot be less than 1");
+        if (nbNodes <= attachment)
+            throw new IllegalArgumentException("The nbNodes must be greater than the attachment");
+
+        long nbEndpoints = 2L * attachment * (nbNodes - attachment);
+        if (nbEndpoints > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Too many edges");
+
+        var builder = new CSRGraph.Builder(nbNodes, false);
+
+        // Each edge puts its two nodes in the array, therefore a uniform pick in the array is proportional to the degree.
+        int[] endpoints = new int[(int) nbEndpoints];
+        int nbFilled = 0;
+        for (int target = 0; target < attachment; target++) {
+            builder.addEdge(attachment, target);
+            endpoints[nbFilled++] = attachment;
+            endpoints[nbFilled++] = target;
+        }
+
+        int[] chosen = new int[attachment];
+        for (int node = attachment + 1; node < nbNodes; node++) {
+            int nbChosen = 0;
+            int nbCandidates = nbFilled;
+            while (nbChosen < attachment) {
+                int candidate = endpoints[random.nextInt(nbCandidates)];
+                if (!contains(chosen, nbChosen, candidate))
+                    chosen[nbChosen++] = candidate;
+            }
+
+            for (int i = 0; i < attachment; i++) {
+                builder.addEdge(node, chosen[i]);
+                endpoints[nbFilled++] = node;
+                endpoints[nbFilled++] = chosen[i];
+            }
+        }
+
+        return builder.build();
+    }
+
+    private static boolean contains(int[] array, int length, int value) {
+        for (int i = 0; i < length; i++)
+            if (array[i] == value)
+                return true;
+        return false;
+    }
+
+    /**
+     * Reads an edge list file. Each line is an edge {@code from to [latency]} where the fields are separated by spaces or tabulations. Empty lines
+     * and lines which begin with {@code #} or {@code %} are ignored.
+     *
+     * @param file       the edge list file
+     * @param minNbNodes the minimum number of nodes of the graph, see {@link CSRGraph.Builder#Builder(int, boolean)}
+     * @param directed   true if the edges of the file are directed
+     *
+     * @return a new {@link CSRGraph} which contains all edges of the file.
+     *
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public static CSRGraph readEdgeList(Path file, int minNbNodes, boolean directed) throws IOException {
+        var builder = new CSRGraph.Builder(minNbNodes, directed);
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            long[] fields = new long[3];
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int nbFields = parseLine(line, fields, lineNumber);
+                if (nbFields == 0)
+                    continue;
+                if (nbFields < 2)
+                    throw new IllegalArgumentException("Malformed edge at line " + lineNumber + ": " + line);
+
+                builder.addEdge((int) fields[0], (int) fields[1], nbFields == 3 ? (int) fields[2] : CSRGraph.NO_LATENCY);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Parses the not negative integers of the line without allocation.
+     *
+     * @return the number of parsed fields, 0 if the line is empty or is a comment.
+     */
+    private static int parseLine(String line, long[] fields, int lineNumber) {
+        int nbFields = 0;
+        int i = 0;
+        int length = line.length();
+        while (i < length) {
+            char c = line.charAt(i);
+            if (c == ' ' || c == '\t') {
+                i++;
+            } else if (nbFields == 0 && (c == '#' || c == '%')) {
+                return 0;
+            } else if (c >= '0' && c <= '9') {
+                if (nbFields == fields.length)
+                    throw new IllegalArgumentException("Too many fields at line " + lineNumber + ": " + line);
+
+                long value = 0;
+                while (i < length && (c = line.charAt(i)) >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    if (value > Integer.MAX_VALUE)
+                        throw new IllegalArgumentException("Too large value at line " + lineNumber + ": " + line);
+                    i++;
+                }
+                fields[nbFields++] = value;
+            } else {
+                throw new IllegalArgumentException("Unexpected character '" + c + "' at line " + lineNumber + ": " + line);
+            }
+        }
+
+        return nbFields;
+    }
+}
@@ -0,0 +1,317 @@
+package sima.standard.environment.physical.graph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable tree of the shortest paths from one source node of a {@link CSRGraph} to all other nodes.
+ * <p>
+ * The weight of an edge is its latency if it has one, else a default weight. If the graph has no latency, all weights are equal and the tree is
+ * computed with a breadth first search in O(V + E), else with Dijkstra in O((V + E) log V). The tree stores for each node its predecessor on the
+ * shortest path and its distance from the source, therefore the path to a node is read backward from the node in O(path length).
+ * <p>
+ * The distances are kept to know if a tree is still valid after a change of links (see {@link #isInvalidatedBy(List, boolean)}): a tree is still
+ * valid if no link of the tree is removed or changed and if no added or changed link creates a shorter path.
+ */
+public final class ShortestPathTree {
+
+    // Static.
+
+    /**
+     * Predecessor of the source and of the nodes which cannot be reached.
+     */
+    public static final int NO_PREDECESSOR = -1;
+
+    /**
+     * Distance of the nodes which cannot be reached.
+     */
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    // Variables.
+
+    private final int source;
+
+    private final long defaultWeight;
+
+    private final int[] predecessors;
+
+    private final long[] distances;
+
+    // Constructors.
+
+    private ShortestPathTree(int source, long defaultWeight, int[] predecessors, long[] distances) {
+        this.source = source;
+        this.defaultWeight = defaultWeight;
+        this.predecessors = predecessors;
+        this.distances = distances;
+    }
+
+    // Methods.
+
+    /**
+     * Computes the shortest paths from the source to all nodes of the graph.
+     *
+     * @param graph         the graph
+     * @param source        the source node
+     * @param defaultWeight the weight of edges without latency
+     *
+     * @return the {@link ShortestPathTree} of the source.
+     *
+     * @throws IllegalArgumentException if the graph is null, if the source is not in the graph or if the default weight is less than 1
+     */
+    public static ShortestPathTree compute(CSRGraph graph, int source, long defaultWeight) {
+        graph = Optional.ofNullable(graph).orElseThrow(() -> new IllegalArgumentException("The graph cannot be null"));
+        if (!graph.containsNode(source))
+            throw new IllegalArgumentException("The source " + source + " is not in the graph");
+        if (defaultWeight < 1)
+            throw new IllegalArgumentException("The default weight cannot be less than 1");
+
+        int[] predecessors = new int[graph.getNbNodes()];
+        long[] distances = new long[graph.getNbNodes()];
+        Arrays.fill(predecessors, NO_PREDECESSOR);
+        Arrays.fill(distances, UNREACHABLE);
+        distances[source] = 0L;
+
+        if (graph.hasLatencies())
+            dijkstra(graph, source, defaultWeight, predecessors, distances);
+        else
+            breadthFirstSearch(graph, source, defaultWeight, predecessors, distances);
+
+        return new ShortestPathTree(source, defaultWeight, predecessors, distances);
+    }
+
+    private static void breadthFirstSearch(CSRGraph graph, int source, long weight, int[] predecessors, long[] distances) {
+        int[] queue = new int[graph.getNbNodes()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+                int neighbor = graph.getEdgeTarget(edge);
+                if (distances[neighbor] == UNREACHABLE) {
+                    distances[neighbor] = distances[node] + weight;
+                    predecessors[neighbor] = node;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    /**
+     * Dijkstra with a binary heap of nodes stored in primitive arrays. A node can be in the heap several times, the entries with an old distance
+     * are skipped.
+     */
+    private static void dijkstra(CSRGraph graph, int source, long defaultWeight, int[] predecessors, long[] distances) {
+        var heap = new NodeHeap(Math.max(16, graph.getNbNodes()));
+        boolean[] settled = new boolean[graph.getNbNodes()];
+        heap.push(source, 0L);
+        while (!heap.isEmpty()) {
+            long distance = heap.peekDistance();
+            int node = heap.pop();
+            if (settled[node] || distance > distances[node])
+                continue;
+
+            settled[node] = true;
+            for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+                int neighbor = graph.getEdgeTarget(edge);
+                long newDistance = distance + weightOf(graph.getEdgeLatency(edge), defaultWeight);
+                if (newDistance < distances[neighbor]) {
+                    distances[neighbor] = newDistance;
+                    predecessors[neighbor] = node;
+                    heap.push(neighbor, newDistance);
+                }
+            }
+        }
+    }
+
+    private static long weightOf(long latency, long defaultWeight) {
+        return latency != CSRGraph.NO_LATENCY ? latency : defaultWeight;
+    }
+
+    /**
+     * Verifies if the tree can be still used after the updates. The tree must be recomputed if a removed or changed link is in the tree or if an
+     * added or changed link gives a shorter path to a node. The tree is checked against each update independently, which is enough because the paths
+     * of a tree which is not invalidated still exist in the updated graph.
+     *
+     * @param updates  the updates applied on the graph of the tree
+     * @param directed false if the updates are applied in both directions
+     *
+     * @return true if the tree must be recomputed, else false.
+     *
+     * @throws IllegalArgumentException if updates is null
+     */
+    public boolean isInvalidatedBy(List<TopologyUpdate> updates, boolean directed) {
+        updates = Optional.ofNullable(updates).orElseThrow(() -> new IllegalArgumentException("The updates cannot be null"));
+
+        for (TopologyUpdate update : updates) {
+            if (isInvalidatedBy(update.getType(), update.getFrom(), update.getTo(), update.getLatency()))
+                return true;
+            if (!directed && isInvalidatedBy(update.getType(), update.getTo(), update.getFrom(), update.getLatency()))
+                return true;
+        }
+
+        return false;
+    }
+
+    private boolean isInvalidatedBy(TopologyUpdate.Type type, int from, int to, int latency) {
+        if (from == to)
+            return false;
+
+        if (to >= predecessors.length)
+            // A new node, it is reachable only if from is reachable.
+            return type == TopologyUpdate.Type.ADD_LINK && isReachable(from);
+
+        boolean inTree = predecessors[to] == from;
+        return switch (type) {
+            case REMOVE_LINK -> inTree;
+            case ADD_LINK, CHANGE_LATENCY -> inTree || isShorterPath(from, to, latency);
+        };
+    }
+
+    private boolean isShorterPath(int from, int to, int latency) {
+        return isReachable(from) && distances[from] + weightOf(latency, defaultWeight) < distances[to];
+    }
+
+    /**
+     * @param node the node
+     *
+     * @return true if there is a path from the source to the node, else false.
+     */
+    public boolean isReachable(int node) {
+        return node >= 0 && node < distances.length && distances[node] != UNREACHABLE;
+    }
+
+    /**
+     * @param node the node
+     *
+     * @return the sum of the weights of the shortest path from the source to the node, {@link #UNREACHABLE} if the node cannot be reached.
+     */
+    public long getDistance(int node) {
+        return node >= 0 && node < distances.length ? distances[node] : UNREACHABLE;
+    }
+
+    /**
+     * @param node the node
+     *
+     * @return the node before the node on the shortest path from the source, {@link #NO_PREDECESSOR} if the node is the source or cannot be reached.
+     */
+    public int getPredecessor(int node) {
+        return node >= 0 && node < predecessors.length ? predecessors[node] : NO_PREDECESSOR;
+    }
+
+    /**
+     * @param node the node
+     *
+     * @return the nodes of the shortest path from the source to the node, source and node included. An empty array if the node cannot be reached.
+     */
+    public int[] getPath(int node) {
+        if (!isReachable(node))
+            return new int[0];
+
+        int length = 1;
+        for (int current = node; current != source; current = predecessors[current])
+            length++;
+
+        int[] path = new int[length];
+        int current = node;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = current;
+            current = predecessors[current];
+        }
+
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "[ShortestPathTree - source=" + source + ", nbNodes=" + predecessors.length + "]";
+    }
+
+    // Getters.
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getNbNodes() {
+        return predecessors.length;
+    }
+
+    // Inner classes.
+
+    /**
+     * A binary min heap of (node, distance) pairs stored in primitive arrays.
+     */
+    private static final class NodeHeap {
+
+        // Variables.
+
+        private int[] nodes;
+
+        private long[] keys;
+
+        private int size;
+
+        // Constructors.
+
+        NodeHeap(int capacity) {
+            nodes = new int[capacity];
+            keys = new long[capacity];
+            size = 0;
+        }
+
+        // Methods.
+
+        void push(int node, long key) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size << 1);
+                keys = Arrays.copyOf(keys, size << 1);
+            }
+
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key)
+                    break;
+                nodes[i] = nodes[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            keys[i] = key;
+        }
+
+        long peekDistance() {
+            return keys[0];
+        }
+
+        int pop() {
+            int top = nodes[0];
+            size--;
+            int lastNode = nodes[size];
+            long lastKey = keys[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size)
+                    break;
+                if (child + 1 < size && keys[child + 1] < keys[child])
+                    child++;
+                if (keys[child] >= lastKey)
+                    break;
+                nodes[i] = nodes[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            keys[i] = lastKey;
+            return top;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
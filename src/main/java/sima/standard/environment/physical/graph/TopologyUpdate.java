@@ -0,0 +1,169 @@
+package sima.standard.environment.physical.graph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable update of a link of a {@link DynamicGraph} which must be applied at a specific simulation time.
+ */
+public final class TopologyUpdate {
+
+    // Variables.
+
+    private final long time;
+
+    private final Type type;
+
+    private final int from;
+
+    private final int to;
+
+    private final int latency;
+
+    // Constructors.
+
+    /**
+     * @param time    the simulation time from which the update is applied
+     * @param type    the type of the update
+     * @param from    the source node of the link
+     * @param to      the target node of the link
+     * @param latency the latency of the link, {@link CSRGraph#NO_LATENCY} if the link has not latency. Ignored for {@link Type#REMOVE_LINK}.
+     *
+     * @throws NullPointerException     if the type is null
+     * @throws IllegalArgumentException if the time or a node is less than 0, if the latency is less than 0 and not equal to {@link
+     *                                  CSRGraph#NO_LATENCY} or if the type is {@link Type#CHANGE_LATENCY} without latency
+     */
+    public TopologyUpdate(long time, Type type, int from, int to, int latency) {
+        this.type = Optional.of(type).get();
+        if (time < 0)
+            throw new IllegalArgumentException("The time cannot be less than 0");
+        if (from < 0 || to < 0)
+            throw new IllegalArgumentException("A node cannot be less than 0");
+        if (latency < 0 && latency != CSRGraph.NO_LATENCY)
+            throw new IllegalArgumentException("The latency cannot be less than 0");
+        if (type == Type.CHANGE_LATENCY && latency == CSRGraph.NO_LATENCY)
+            throw new IllegalArgumentException("A " + Type.CHANGE_LATENCY + " update needs a latency");
+
+        this.time = time;
+        this.from = from;
+        this.to = to;
+        this.latency = type == Type.REMOVE_LINK ? CSRGraph.NO_LATENCY : latency;
+    }
+
+    // Methods.
+
+    public static TopologyUpdate addLink(long time, int from, int to, int latency) {
+        return new TopologyUpdate(time, Type.ADD_LINK, from, to, latency);
+    }
+
+    public static TopologyUpdate addLink(long time, int from, int to) {
+        return new TopologyUpdate(time, Type.ADD_LINK, from, to, CSRGraph.NO_LATENCY);
+    }
+
+    public static TopologyUpdate removeLink(long time, int from, int to) {
+        return new TopologyUpdate(time, Type.REMOVE_LINK, from, to, CSRGraph.NO_LATENCY);
+    }
+
+    public static TopologyUpdate changeLatency(long time, int from, int to, int latency) {
+        return new TopologyUpdate(time, Type.CHANGE_LATENCY, from, to, latency);
+    }
+
+    /**
+     * Reads a trace file of {@link TopologyUpdate}. Each line is an update {@code time add from to [latency]}, {@code time remove from to} or {@code
+     * time latency from to latency} where the fields are separated by spaces or tabulations. Empty lines and lines which begin with {@code #} are
+     * ignored.
+     *
+     * @param file the trace file
+     *
+     * @return the list of updates in the order of the file.
+     *
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public static List<TopologyUpdate> readTrace(Path file) throws IOException {
+        List<TopologyUpdate> updates = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#"))
+                    continue;
+
+                updates.add(parseTraceLine(trimmed.split("\\s+"), lineNumber, line));
+            }
+        }
+
+        return updates;
+    }
+
+    private static TopologyUpdate parseTraceLine(String[] fields, int lineNumber, String line) {
+        try {
+            if (fields.length < 4 || fields.length > 5)
+                throw new IllegalArgumentException("Malformed update at line " + lineNumber + ": " + line);
+
+            long time = Long.parseLong(fields[0]);
+            int from = Integer.parseInt(fields[2]);
+            int to = Integer.parseInt(fields[3]);
+            int latency = fields.length == 5 ? Integer.parseInt(fields[4]) : CSRGraph.NO_LATENCY;
+            return switch (fields[1]) {
+                case "add" -> addLink(time, from, to, latency);
+                case "remove" -> removeLink(time, from, to);
+                case "latency" -> changeLatency(time, from, to, latency);
+                default -> throw new IllegalArgumentException("Unknown update " + fields[1] + " at line " + lineNumber + ": " + line);
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed update at line " + lineNumber + ": " + line, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[TopologyUpdate - time=" + time + ", type=" + type + ", from=" + from + ", to=" + to + ", latency=" + latency + "]";
+    }
+
+    // Getters.
+
+    public long getTime() {
+        return time;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    public int getLatency() {
+        return latency;
+    }
+
+    // Inner classes.
+
+    public enum Type {
+        /**
+         * Adds the link, or replaces its latency if the link already exists.
+         */
+        ADD_LINK,
+        /**
+         * Removes the link, nothing is done if the link does not exist.
+         */
+        REMOVE_LINK,
+        /**
+         * Changes the latency of the link, nothing is done if the link does not exist.
+         */
+        CHANGE_LATENCY
+    }
+}
@@ -0,0 +1,200 @@
+package sima.standard.pubsub;
+
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.Environment;
+import sima.core.environment.event.Event;
+import sima.core.exception.UnknownProtocolForAgentException;
+import sima.core.protocol.Protocol;
+import sima.core.protocol.ProtocolManipulator;
+import sima.standard.environment.message.Message;
+import sima.standard.environment.message.MessageReceiver;
+import sima.standard.transport.MessageTransportProtocol;
+
+import java.util.*;
+
+import static sima.core.simulation.SimaSimulation.SimaLog;
+
+/**
+ * A publish/subscribe protocol. An agent subscribes to topics and receives only the messages published on these topics, instead of receiving all
+ * broadcast messages of the group membership and discarding those it does not care about.
+ * <p>
+ * The subscriptions of all agents of the {@link Environment} are in its {@link TopicRegistry}. A publication takes the subscribers of the topic
+ * without copy and sends the {@link TopicMessage} to all of them with only one multicast (see {@link
+ * MessageTransportProtocol#sendMulticast(Collection, Message)}). If the publisher has subscribed to the topic, the message is delivered to it
+ * without transport, and the copy which it receives with the multicast is ignored.
+ * <p>
+ * When the owner is killed, all its subscriptions are removed.
+ */
+public class PubSubProtocol extends Protocol implements MessageReceiver {
+
+    // Variables.
+
+    private MessageTransportProtocol messageTransport;
+
+    private Environment environment;
+
+    /**
+     * The topics to which the owner has subscribed.
+     */
+    private final Set<String> subscriptions;
+
+    // Constructors.
+
+    public PubSubProtocol(String protocolTag, SimaAgent agentOwner, Map<String, String> args) {
+        super(protocolTag, agentOwner, args);
+        subscriptions = new HashSet<>();
+    }
+
+    // Methods.
+
+    @Override
+    public void onOwnerStart() {
+        // Nothing.
+    }
+
+    @Override
+    public synchronized void onOwnerKill() {
+        var registry = TopicRegistry.of(environment);
+        var owner = getAgentOwner().getAgentIdentifier();
+        for (String topic : subscriptions)
+            registry.unsubscribe(topic, owner);
+        subscriptions.clear();
+    }
+
+    /**
+     * @param topic the topic
+     *
+     * @return true if the owner was not already subscribed to the topic, else false.
+     *
+     * @throws IllegalArgumentException if the topic is null
+     */
+    public synchronized boolean subscribe(String topic) {
+        if (TopicRegistry.of(environment).subscribe(topic, getAgentOwner().getAgentIdentifier())) {
+            subscriptions.add(topic);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param topic the topic
+     *
+     * @return true if the owner was subscribed to the topic, else false.
+     *
+     * @throws IllegalArgumentException if the topic is null
+     */
+    public synchronized boolean unsubscribe(String topic) {
+        subscriptions.remove(topic);
+        return TopicRegistry.of(environment).unsubscribe(topic, getAgentOwner().getAgentIdentifier());
+    }
+
+    /**
+     * @param topic the topic
+     *
+     * @return true if the owner has subscribed to the topic, else false.
+     */
+    public synchronized boolean isSubscribed(String topic) {
+        return subscriptions.contains(topic);
+    }
+
+    /**
+     * Sends the message to all subscribers of the topic.
+     *
+     * @param topic   the topic
+     * @param message the message to publish
+     *
+     * @throws IllegalArgumentException if the topic or the message is null
+     */
+    public void publish(String topic, Message message) {
+        if (topic == null)
+            throw new IllegalArgumentException("The topic cannot be null");
+        message = Optional.ofNullable(message).orElseThrow(() -> new IllegalArgumentException(Message.class + " to publish must be not null"));
+        if (ownerIsKilled()) {
+            SimaLog.info(getAgentOwner().getAgentIdentifier() + " cannot publish because it is killed.");
+            return;
+        }
+
+        var owner = getAgentOwner().getAgentIdentifier();
+        var topicMessage = new TopicMessage(topic, owner, message, getIdentifier());
+        List<AgentIdentifier> subscribers = TopicRegistry.of(environment).getSubscribers(topic);
+        boolean selfSubscribed = isSubscribed(topic);
+        // The owner is not removed from the subscribers to not copy them, it ignores its own message at the reception.
+        if (subscribers.size() > (selfSubscribed ? 1 : 0))
+            messageTransport.sendMulticast(subscribers, topicMessage);
+        if (selfSubscribed)
+            deliver(topicMessage);
+    }
+
+    /**
+     * Delivers the {@link TopicMessage} if the owner is subscribed to its topic. A message published by the owner is ignored, it has already been
+     * delivered at the publication.
+     *
+     * @param message the received message
+     */
+    @Override
+    public void receive(Message message) {
+        if (isAcceptedEvent(message)) {
+            var topicMessage = (TopicMessage) message;
+            if (!topicMessage.getPublisher().equals(getAgentOwner().getAgentIdentifier()) && isSubscribed(topicMessage.getTopic()))
+                deliver(message);
+            // else the owner is the publisher or has unsubscribed since the publication.
+        }
+    }
+
+    /**
+     * Delivers the content of the {@link TopicMessage} to its intended protocol in the owner agent.
+     *
+     * @param message to deliver
+     *
+     * @throws UnknownProtocolForAgentException if the intended protocol is not known by the owner agent
+     */
+    @Override
+    public void deliver(Message message) {
+        if (isAcceptedEvent(message)) {
+            var content = message.getMessage();
+            var intendedProtocol = getAgentOwner().getProtocol(content.getIntendedProtocol());
+            if (intendedProtocol != null)
+                intendedProtocol.processEvent(content);
+            else
+                throw new UnknownProtocolForAgentException(
+                        "The agent " + getAgentOwner() + " does not know the protocol identify by " + content.getIntendedProtocol());
+        }
+    }
+
+    @Override
+    public void processEvent(Event event) {
+        if (isAcceptedEvent(event))
+            receive((TopicMessage) event);
+    }
+
+    private boolean isAcceptedEvent(Event event) {
+        if (event instanceof TopicMessage)
+            return true;
+        else
+            throw new UnsupportedOperationException(getClass() + " does not support other type of " + Event.class + " than " + TopicMessage.class);
+    }
+
+    @Override
+    protected ProtocolManipulator createDefaultProtocolManipulator() {
+        return new ProtocolManipulator.DefaultProtocolManipulator(this);
+    }
+
+    // Getters and setters.
+
+    public MessageTransportProtocol getMessageTransport() {
+        return messageTransport;
+    }
+
+    public void setMessageTransport(MessageTransportProtocol messageTransport) {
+        this.messageTransport = messageTransport;
+    }
+
+    public Environment getEnvironment() {
+        return environment;
+    }
+
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+}
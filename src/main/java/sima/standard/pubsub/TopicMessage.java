@@ -0,0 +1,76 @@
+package sima.standard.pubsub;
+
+import org.jetbrains.annotations.NotNull;
+import sima.core.agent.AgentIdentifier;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.standard.environment.message.Message;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A {@link Message} published on a topic by a {@link PubSubProtocol}. The content is the published message.
+ */
+public class TopicMessage extends Message {
+
+    // Variables.
+
+    private final String topic;
+
+    private final AgentIdentifier publisher;
+
+    // Constructors.
+
+    /**
+     * @param topic            the topic
+     * @param publisher        the publisher
+     * @param content          the published message
+     * @param intendedProtocol the intended protocol
+     *
+     * @throws IllegalArgumentException if the topic, the publisher or the intended protocol is null
+     */
+    public TopicMessage(String topic, AgentIdentifier publisher, Message content, ProtocolIdentifier intendedProtocol) {
+        super(content, intendedProtocol);
+        this.topic = Optional.ofNullable(topic).orElseThrow(() -> new IllegalArgumentException("The topic cannot be null"));
+        this.publisher = Optional.ofNullable(publisher).orElseThrow(() -> new IllegalArgumentException("The publisher cannot be null"));
+    }
+
+    private TopicMessage(TopicMessage other) {
+        this(other.topic, other.publisher, other.getMessage().duplicate(), other.getIntendedProtocol());
+    }
+
+    // Methods.
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TopicMessage that)) return false;
+        if (!super.equals(o)) return false;
+        return topic.equals(that.topic) && publisher.equals(that.publisher);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), topic, publisher);
+    }
+
+    @Override
+    public @NotNull TopicMessage duplicate() {
+        return isImmutable(getMessage()) ? this : new TopicMessage(this);
+    }
+
+    @Override
+    public String toString() {
+        return "[TopicMessage - topic=" + topic + ", publisher=" + publisher + "]";
+    }
+
+    // Getters.
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public AgentIdentifier getPublisher() {
+        return publisher;
+    }
+}
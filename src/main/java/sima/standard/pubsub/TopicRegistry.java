@@ -0,0 +1,152 @@
+package sima.standard.pubsub;
+
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.Environment;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The subscription index of the {@link PubSubProtocol} of an {@link Environment}: the subscribers of each topic.
+ * <p>
+ * The subscribers of a topic are stored in an array which is copied at each subscription or unsubscription and never modified after, therefore a
+ * publication reads the subscribers without lock nor copy, even if agents subscribe at the same time. The subscriptions are much less frequent
+ * than the publications.
+ * <p>
+ * There is one {@link TopicRegistry} per {@link Environment} (see {@link #of(Environment)}), it does not keep the {@link Environment} alive.
+ */
+public final class TopicRegistry {
+
+    // Static.
+
+    private static final AgentIdentifier[] NO_SUBSCRIBERS = new AgentIdentifier[0];
+
+    private static final Map<Environment, TopicRegistry> REGISTRIES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Variables.
+
+    private final WeakReference<Environment> environment;
+
+    private final Map<String, AgentIdentifier[]> subscribers;
+
+    // Constructors.
+
+    private TopicRegistry(Environment environment) {
+        this.environment = new WeakReference<>(environment);
+        this.subscribers = new ConcurrentHashMap<>();
+    }
+
+    // Methods.
+
+    /**
+     * @param environment the environment
+     *
+     * @return the {@link TopicRegistry} of the environment, created at the first call.
+     *
+     * @throws IllegalArgumentException if the environment is null
+     */
+    public static TopicRegistry of(Environment environment) {
+        if (environment == null)
+            throw new IllegalArgumentException("The environment cannot be null");
+
+        synchronized (REGISTRIES) {
+            var registry = REGISTRIES.get(environment);
+            // An equal environment of a previous simulation must not share its subscriptions.
+            if (registry == null || registry.environment.get() != environment) {
+                registry = new TopicRegistry(environment);
+                REGISTRIES.put(environment, registry);
+            }
+            return registry;
+        }
+    }
+
+    private static void verifyArgs(String topic, AgentIdentifier agent) {
+        if (topic == null)
+            throw new IllegalArgumentException("The topic cannot be null");
+        if (agent == null)
+            throw new IllegalArgumentException("The agent cannot be null");
+    }
+
+    /**
+     * @param topic the topic
+     * @param agent the subscriber
+     *
+     * @return true if the agent was not already subscribed to the topic, else false.
+     *
+     * @throws IllegalArgumentException if the topic or the agent is null
+     */
+    public boolean subscribe(String topic, AgentIdentifier agent) {
+        verifyArgs(topic, agent);
+        boolean[] added = new boolean[1];
+        subscribers.compute(topic, (t, current) -> {
+            if (current == null)
+                current = NO_SUBSCRIBERS;
+            for (AgentIdentifier subscriber : current)
+                if (subscriber.equals(agent))
+                    return current;
+
+            var next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = agent;
+            added[0] = true;
+            return next;
+        });
+        return added[0];
+    }
+
+    /**
+     * @param topic the topic
+     * @param agent the subscriber
+     *
+     * @return true if the agent was subscribed to the topic, else false.
+     *
+     * @throws IllegalArgumentException if the topic or the agent is null
+     */
+    public boolean unsubscribe(String topic, AgentIdentifier agent) {
+        verifyArgs(topic, agent);
+        boolean[] removed = new boolean[1];
+        subscribers.computeIfPresent(topic, (t, current) -> {
+            for (int i = 0; i < current.length; i++)
+                if (current[i].equals(agent)) {
+                    removed[0] = true;
+                    if (current.length == 1)
+                        return null;
+
+                    var next = new AgentIdentifier[current.length - 1];
+                    System.arraycopy(current, 0, next, 0, i);
+                    System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                    return next;
+                }
+            return current;
+        });
+        return removed[0];
+    }
+
+    /**
+     * @param topic the topic
+     *
+     * @return an unmodifiable view of the subscribers of the topic at the time of the call, never null. The view is not a copy and does not change
+     * with the next subscriptions.
+     */
+    public List<AgentIdentifier> getSubscribers(String topic) {
+        var current = topic != null ? subscribers.get(topic) : null;
+        return current != null ? Collections.unmodifiableList(Arrays.asList(current)) : Collections.emptyList();
+    }
+
+    /**
+     * @param topic the topic
+     *
+     * @return the number of subscribers of the topic.
+     */
+    public int getNbSubscribers(String topic) {
+        var current = topic != null ? subscribers.get(topic) : null;
+        return current != null ? current.length : 0;
+    }
+
+    /**
+     * @return the number of topics which have at least one subscriber.
+     */
+    public int getNbTopics() {
+        return subscribers.size();
+    }
+}
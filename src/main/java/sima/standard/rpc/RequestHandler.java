@@ -0,0 +1,20 @@
+package sima.standard.rpc;
+
+import sima.standard.environment.message.Message;
+
+/**
+ * Treats the requests received by a {@link RpcProtocol}.
+ */
+@FunctionalInterface
+public interface RequestHandler {
+
+    /**
+     * Treats the request. The handler returns the response at once, or returns null and replies later with {@link RpcProtocol#reply(RpcMessage,
+     * Message)}, for example after its own requests to other agents.
+     *
+     * @param request the received request, its content is the payload of the request
+     *
+     * @return the payload of the response, null if the response is sent later or if there is no response.
+     */
+    Message handleRequest(RpcMessage request);
+}
@@ -0,0 +1,96 @@
+package sima.standard.rpc;
+
+import org.jetbrains.annotations.NotNull;
+import sima.core.agent.AgentIdentifier;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.standard.environment.message.Message;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A request or a response of the {@link RpcProtocol}. The content is the payload of the request or of the response, it can be null. A response
+ * has the request id and the requester of its request.
+ */
+public class RpcMessage extends Message {
+
+    // Variables.
+
+    private final Type type;
+
+    private final long requestId;
+
+    private final AgentIdentifier requester;
+
+    // Constructors.
+
+    /**
+     * @param type             the type of the message
+     * @param requestId        the id of the request, unique for the requester
+     * @param requester        the agent which has sent the request
+     * @param content          the payload, can be null
+     * @param intendedProtocol the intended protocol
+     *
+     * @throws IllegalArgumentException if the type, the requester or the intended protocol is null
+     */
+    public RpcMessage(Type type, long requestId, AgentIdentifier requester, Message content, ProtocolIdentifier intendedProtocol) {
+        super(content, intendedProtocol);
+        this.type = Optional.ofNullable(type).orElseThrow(() -> new IllegalArgumentException("The type cannot be null"));
+        this.requestId = requestId;
+        this.requester = Optional.ofNullable(requester).orElseThrow(() -> new IllegalArgumentException("The requester cannot be null"));
+    }
+
+    private RpcMessage(RpcMessage other) {
+        this(other.type, other.requestId, other.requester, other.getMessage() != null ? other.getMessage().duplicate() : null,
+             other.getIntendedProtocol());
+    }
+
+    // Methods.
+
+    public boolean isRequest() {
+        return type == Type.REQUEST;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RpcMessage that)) return false;
+        if (!super.equals(o)) return false;
+        return requestId == that.requestId && type == that.type && requester.equals(that.requester);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), type, requestId, requester);
+    }
+
+    @Override
+    public @NotNull RpcMessage duplicate() {
+        return isImmutable(getMessage()) ? this : new RpcMessage(this);
+    }
+
+    @Override
+    public String toString() {
+        return "[RpcMessage - type=" + type + ", requestId=" + requestId + ", requester=" + requester + "]";
+    }
+
+    // Getters.
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public AgentIdentifier getRequester() {
+        return requester;
+    }
+
+    // Inner classes.
+
+    public enum Type {
+        REQUEST, RESPONSE
+    }
+}
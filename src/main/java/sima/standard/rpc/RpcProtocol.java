@@ -0,0 +1,305 @@
+package sima.standard.rpc;
+
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.event.Event;
+import sima.core.protocol.Protocol;
+import sima.core.protocol.ProtocolManipulator;
+import sima.core.scheduler.executor.CancellableExecutable;
+import sima.core.simulation.SimaSimulation;
+import sima.core.utils.LongHashMap;
+import sima.standard.environment.message.Message;
+import sima.standard.environment.message.MessageReceiver;
+import sima.standard.transport.MessageTransportProtocol;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static sima.core.simulation.SimaSimulation.SimaLog;
+
+/**
+ * A request/response protocol which does not block the requester. A request returns at once a {@link CompletableFuture} which is completed with the
+ * payload of the response, therefore the requester continues its behavior and chains its continuation on the future instead of waiting for the
+ * response in a blocked thread.
+ * <p>
+ * The pending requests are correlated with their response by a request id in a {@link LongHashMap}, there is no boxing and no scan. The future is
+ * completed in the executable which receives the response, therefore the continuation is executed by the scheduler as any other event of the
+ * agent.
+ * <p>
+ * If a request has a timeout, a timer is scheduled with {@link SimaSimulation#getScheduler()} and completes the future with a {@link
+ * TimeoutException} if the request is still pending at its end. When a request is completed or cancelled before the end of its timer, the timer is
+ * cancelled: it releases the request and is skipped by the scheduler. When the owner is killed, all pending requests are cancelled.
+ * <p>
+ * The requests are treated by the {@link RequestHandler} of the responder. An agent without handler ignores the requests.
+ */
+public class RpcProtocol extends Protocol implements MessageReceiver {
+
+    // Static.
+
+    public static final String REQUEST_TIMEOUT_ARGS = "requestTimeout";
+
+    /**
+     * The request never times out.
+     */
+    public static final long NO_TIMEOUT = 0L;
+
+    // Variables.
+
+    private MessageTransportProtocol messageTransport;
+
+    private RequestHandler requestHandler;
+
+    private final long defaultTimeout;
+
+    private long nextRequestId;
+
+    private final LongHashMap<CompletableFuture<Message>> pendingRequests;
+
+    // Constructors.
+
+    /**
+     * @param protocolTag the protocol tag
+     * @param agentOwner  the agent owner
+     * @param args        the arguments, can be null
+     *
+     * @throws IllegalArgumentException if the protocolTag or the agentOwner is null or if an argument is not valid
+     */
+    public RpcProtocol(String protocolTag, SimaAgent agentOwner, Map<String, String> args) {
+        super(protocolTag, agentOwner, args);
+        defaultTimeout = parseTimeout(args != null ? args.get(REQUEST_TIMEOUT_ARGS) : null);
+        nextRequestId = 0L;
+        pendingRequests = new LongHashMap<>();
+    }
+
+    // Methods.
+
+    private static long parseTimeout(String value) {
+        if (value == null)
+            return NO_TIMEOUT;
+
+        try {
+            long parsed = Long.parseLong(value);
+            if (parsed < 0)
+                throw new IllegalArgumentException("The argument " + REQUEST_TIMEOUT_ARGS + " cannot be negative: " + value);
+
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The argument " + REQUEST_TIMEOUT_ARGS + " is not a number: " + value, e);
+        }
+    }
+
+    @Override
+    public void onOwnerStart() {
+        // Nothing.
+    }
+
+    /**
+     * Cancels all pending requests.
+     */
+    @Override
+    public void onOwnerKill() {
+        List<CompletableFuture<Message>> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(pendingRequests.size());
+            pendingRequests.forEachValue(pending::add);
+            pendingRequests.clear();
+        }
+
+        for (CompletableFuture<Message> future : pending)
+            future.cancel(false);
+    }
+
+    /**
+     * Sends the request with the default timeout of the protocol (see {@link #REQUEST_TIMEOUT_ARGS}).
+     *
+     * @param target  the agent which treats the request
+     * @param request the payload of the request
+     *
+     * @return the future completed with the payload of the response.
+     *
+     * @throws IllegalArgumentException if the target or the request is null
+     * @see #request(AgentIdentifier, Message, long)
+     */
+    public CompletableFuture<Message> request(AgentIdentifier target, Message request) {
+        return request(target, request, defaultTimeout);
+    }
+
+    /**
+     * Sends the request and returns without waiting for the response.
+     * <p>
+     * The future is completed with the payload of the response, or exceptionally with a {@link TimeoutException} if there is no response after the
+     * timeout. If the owner is killed, the future is already cancelled. Cancelling the future forgets the request, a later response is ignored.
+     *
+     * @param target  the agent which treats the request
+     * @param request the payload of the request
+     * @param timeout the time to wait for the response, {@link #NO_TIMEOUT} to wait without end
+     *
+     * @return the future completed with the payload of the response.
+     *
+     * @throws IllegalArgumentException if the target or the request is null or if the timeout is negative
+     */
+    public CompletableFuture<Message> request(AgentIdentifier target, Message request, long timeout) {
+        target = Optional.ofNullable(target).orElseThrow(() -> new IllegalArgumentException("The target cannot be null"));
+        request = Optional.ofNullable(request).orElseThrow(() -> new IllegalArgumentException("The request cannot be null"));
+        if (timeout < 0)
+            throw new IllegalArgumentException("The timeout cannot be negative");
+
+        CompletableFuture<Message> future = new CompletableFuture<>();
+        if (ownerIsKilled()) {
+            SimaLog.info(getAgentOwner().getAgentIdentifier() + " cannot send a request because it is killed.");
+            future.cancel(false);
+            return future;
+        }
+
+        long requestId;
+        synchronized (this) {
+            requestId = nextRequestId++;
+            pendingRequests.put(requestId, future);
+        }
+        CancellableExecutable timer = timeout != NO_TIMEOUT ? scheduleExecutableOnce(() -> timeout(requestId, timeout), timeout) : null;
+        // Removes the request if the future is completed by another way than the response, for example cancelled by the requester.
+        future.whenComplete((response, exception) -> {
+            forget(requestId, future);
+            if (timer != null)
+                timer.cancel();
+        });
+
+        messageTransport.send(target, new RpcMessage(RpcMessage.Type.REQUEST, requestId, getAgentOwner().getAgentIdentifier(), request,
+                                                     getIdentifier()));
+
+        return future;
+    }
+
+    private synchronized void forget(long requestId, CompletableFuture<Message> future) {
+        if (pendingRequests.get(requestId) == future)
+            pendingRequests.remove(requestId);
+    }
+
+    private void timeout(long requestId, long timeout) {
+        CompletableFuture<Message> future;
+        synchronized (this) {
+            future = pendingRequests.remove(requestId);
+        }
+
+        if (future != null)
+            future.completeExceptionally(new TimeoutException("No response to the request " + requestId + " after " + timeout));
+        // else the request is already completed.
+    }
+
+    /**
+     * Sends the response of a request whose handler has returned null.
+     *
+     * @param request  the request received by the handler
+     * @param response the payload of the response
+     *
+     * @throws IllegalArgumentException if the request or the response is null or if the request is not a {@link RpcMessage.Type#REQUEST}
+     */
+    public void reply(RpcMessage request, Message response) {
+        request = Optional.ofNullable(request).orElseThrow(() -> new IllegalArgumentException("The request cannot be null"));
+        response = Optional.ofNullable(response).orElseThrow(() -> new IllegalArgumentException("The response cannot be null"));
+        if (!request.isRequest())
+            throw new IllegalArgumentException("Cannot reply to a response");
+        if (ownerIsKilled()) {
+            SimaLog.info(getAgentOwner().getAgentIdentifier() + " cannot reply because it is killed.");
+            return;
+        }
+
+        messageTransport.send(request.getRequester(), new RpcMessage(RpcMessage.Type.RESPONSE, request.getRequestId(), request.getRequester(),
+                                                                     response, getIdentifier()));
+    }
+
+    @Override
+    public void receive(Message message) {
+        if (isAcceptedEvent(message))
+            deliver(message);
+    }
+
+    /**
+     * Treats a request with the {@link RequestHandler} or completes the future of a pending request with the payload of the response.
+     *
+     * @param message the {@link RpcMessage} to deliver
+     */
+    @Override
+    public void deliver(Message message) {
+        if (isAcceptedEvent(message)) {
+            var rpcMessage = (RpcMessage) message;
+            if (rpcMessage.isRequest())
+                handleRequest(rpcMessage);
+            else
+                handleResponse(rpcMessage);
+        }
+    }
+
+    private void handleRequest(RpcMessage request) {
+        if (requestHandler == null) {
+            SimaLog.info(getAgentOwner().getAgentIdentifier() + " has no request handler, the request " + request + " is ignored.");
+            return;
+        }
+
+        var response = requestHandler.handleRequest(request);
+        if (response != null)
+            reply(request, response);
+    }
+
+    private void handleResponse(RpcMessage response) {
+        CompletableFuture<Message> future;
+        synchronized (this) {
+            future = pendingRequests.remove(response.getRequestId());
+        }
+
+        if (future != null)
+            future.complete(response.getMessage());
+        // else the request has timed out or has been cancelled.
+    }
+
+    @Override
+    public void processEvent(Event event) {
+        if (isAcceptedEvent(event))
+            receive((RpcMessage) event);
+    }
+
+    private boolean isAcceptedEvent(Event event) {
+        if (event instanceof RpcMessage)
+            return true;
+        else
+            throw new UnsupportedOperationException(getClass() + " does not support other type of " + Event.class + " than " + RpcMessage.class);
+    }
+
+    @Override
+    protected ProtocolManipulator createDefaultProtocolManipulator() {
+        return new ProtocolManipulator.DefaultProtocolManipulator(this);
+    }
+
+    // Getters and setters.
+
+    /**
+     * @return the number of requests which wait for their response.
+     */
+    public synchronized int getNbPendingRequests() {
+        return pendingRequests.size();
+    }
+
+    public long getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    public MessageTransportProtocol getMessageTransport() {
+        return messageTransport;
+    }
+
+    public void setMessageTransport(MessageTransportProtocol messageTransport) {
+        this.messageTransport = messageTransport;
+    }
+
+    public RequestHandler getRequestHandler() {
+        return requestHandler;
+    }
+
+    public void setRequestHandler(RequestHandler requestHandler) {
+        this.requestHandler = requestHandler;
+    }
+}
@@ -0,0 +1,72 @@
+package sima.standard.transport;
+
+import org.jetbrains.annotations.NotNull;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.standard.environment.message.Message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Several {@link Message} sent by the same agent to the same target and transported as one event by a {@link MessageTransportProtocol} in
+ * aggregation mode. The transport of the target unpacks the envelope and receives the messages in their send order.
+ */
+public class MessageEnvelope extends Message {
+
+    // Variables.
+
+    private final List<Message> messages;
+
+    // Constructors.
+
+    /**
+     * @param messages         the messages in their send order, the list is not copied
+     * @param intendedProtocol the {@link MessageTransportProtocol} which unpacks the envelope
+     *
+     * @throws IllegalArgumentException if messages or intendedProtocol is null
+     */
+    public MessageEnvelope(List<Message> messages, ProtocolIdentifier intendedProtocol) {
+        super(null, intendedProtocol);
+        this.messages = Optional.ofNullable(messages).orElseThrow(() -> new IllegalArgumentException("The messages cannot be null"));
+    }
+
+    // Methods.
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MessageEnvelope that)) return false;
+        if (!super.equals(o)) return false;
+        return messages.equals(that.messages);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), messages);
+    }
+
+    @Override
+    public @NotNull MessageEnvelope duplicate() {
+        List<Message> copies = new ArrayList<>(messages.size());
+        for (Message message : messages)
+            copies.add(message != null ? message.duplicate() : null);
+        return new MessageEnvelope(copies, getIntendedProtocol());
+    }
+
+    @Override
+    public String toString() {
+        return "[MessageEnvelope - nbMessages=" + messages.size() + "]";
+    }
+
+    // Getters.
+
+    /**
+     * @return the unmodifiable list of the messages in their send order.
+     */
+    public List<Message> getMessages() {
+        return Collections.unmodifiableList(messages);
+    }
+}
@@ -8,17 +8,40 @@ import sima.core.agent.SimaAgent;
 import sima.core.environment.Environment;
 import sima.core.environment.event.Event;
 import sima.core.environment.physical.PhysicalConnectionLayer;
+import sima.core.environment.physical.PhysicalConnectionLayerPipeline;
+import sima.core.exception.KilledAgentException;
 import sima.core.exception.NoPhysicalConnectionLayerFoundException;
 import sima.core.protocol.Protocol;
+import sima.core.scheduler.Scheduler;
+import sima.core.simulation.SimaSimulation;
 
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 
+/**
+ * A {@link Protocol} which transports {@link Message} with a {@link PhysicalConnectionLayer} of an {@link Environment}.
+ * <p>
+ * By default, each sent message is transported alone. With the argument {@link #ARG_AGGREGATION_MODE}, the messages sent to the same target are
+ * aggregated in one {@link MessageEnvelope}, therefore chatty protocols do only one {@link PhysicalConnectionLayer} traversal and one scheduled
+ * event per target instead of one per message:
+ * <ul>
+ *     <li>{@link AggregationMode#NONE}: no aggregation</li>
+ *     <li>{@link AggregationMode#STEP}: the messages sent during a time step are sent at the step boundary, one envelope per target</li>
+ *     <li>{@link AggregationMode#SIZE}: as {@link AggregationMode#STEP}, but the envelope of a target is sent as soon as it contains {@link
+ *     #ARG_AGGREGATION_SIZE} messages</li>
+ * </ul>
+ * The messages of a multicast are aggregated in the envelope of their group of targets, which is sent with one multicast. The messages of an
+ * envelope have the same delay and are received in their send order. The messages kept until the step boundary are sent {@link Scheduler#NOW} later
+ * than without aggregation. The sends are validated at once, as without aggregation, and the envelopes of a killed agent are never sent.
+ */
 public abstract class MessageTransportProtocol extends Protocol implements MessageReceiver {
     
     // Static.
     
     public static final String ARG_PHYSICAL_CONNECTION_LAYER_NAME = "physicalConnectionLayerName";
+    public static final String ARG_AGGREGATION_MODE = "aggregationMode";
+    public static final String ARG_AGGREGATION_SIZE = "aggregationSize";
+    
+    public static final int DEFAULT_AGGREGATION_SIZE = 16;
     
     // Variables.
     
@@ -26,6 +49,24 @@ public abstract class MessageTransportProtocol extends Protocol implements Messa
     
     private String physicalConnectionLayerName;
     
+    /**
+     * The {@link PhysicalConnectionLayerPipeline} compiled from the {@link PhysicalConnectionLayer} chain mapped with {@link
+     * #physicalConnectionLayerName} in the {@link Environment}. Compiled at the first send and compiled again when the chain has been modified.
+     */
+    private volatile PhysicalConnectionLayerPipeline physicalConnectionLayerPipeline;
+    
+    private AggregationMode aggregationMode;
+    
+    private int aggregationSize;
+    
+    /**
+     * The messages not yet sent in aggregation mode, by target (a list of one target) or group of targets of a multicast, in the order of their first
+     * message.
+     */
+    private final Map<List<AgentIdentifier>, List<Message>> pendingMessages;
+    
+    private boolean flushScheduled;
+    
     // Constructors.
     
     /**
@@ -36,11 +77,14 @@ public abstract class MessageTransportProtocol extends Protocol implements Messa
      * @param agentOwner  the agent owner
      * @param args        the arguments
      *
-     * @throws IllegalArgumentException if there is no {@link #ARG_PHYSICAL_CONNECTION_LAYER_NAME} argument in args.
+     * @throws IllegalArgumentException if there is no {@link #ARG_PHYSICAL_CONNECTION_LAYER_NAME} argument in args or if an aggregation argument is
+     *                                  not valid.
      */
     protected MessageTransportProtocol(String protocolTag, SimaAgent agentOwner, Map<String, String> args) {
         super(protocolTag, agentOwner, args);
         parseArgs(args);
+        pendingMessages = new LinkedHashMap<>();
+        flushScheduled = false;
     }
     
     // Methods.
@@ -58,37 +102,203 @@ public abstract class MessageTransportProtocol extends Protocol implements Messa
         physicalConnectionLayerName = args.get(ARG_PHYSICAL_CONNECTION_LAYER_NAME);
         if (physicalConnectionLayerName == null)
             throw new IllegalArgumentException("No " + ARG_PHYSICAL_CONNECTION_LAYER_NAME + " argument");
+        
+        aggregationMode = AggregationMode.parse(args.get(ARG_AGGREGATION_MODE));
+        aggregationSize = DEFAULT_AGGREGATION_SIZE;
+        var size = args.get(ARG_AGGREGATION_SIZE);
+        if (size != null)
+            try {
+                aggregationSize = Integer.parseInt(size);
+                if (aggregationSize < 1)
+                    throw new IllegalArgumentException("The argument " + ARG_AGGREGATION_SIZE + " must be greater or equal to 1: " + size);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The argument " + ARG_AGGREGATION_SIZE + " is not a number: " + size, e);
+            }
     }
     
     private PhysicalMessageReceptionEvent createMessageReception(Message message) {
         return new PhysicalMessageReceptionEvent(message, getIdentifier());
     }
     
+    /**
+     * Returns the cached {@link PhysicalConnectionLayerPipeline}. At the first call, or if the cached pipeline is no longer up to date (see {@link
+     * PhysicalConnectionLayerPipeline#isUpToDate()}), the {@link PhysicalConnectionLayer} chain mapped with {@link #physicalConnectionLayerName} is
+     * searched in the {@link Environment} and compiled.
+     *
+     * @return the {@link PhysicalConnectionLayerPipeline} used to transport messages, never null.
+     *
+     * @throws NoPhysicalConnectionLayerFoundException if the {@link Environment} does not have a {@link PhysicalConnectionLayer} mapped with
+     *                                                 {@link #physicalConnectionLayerName}
+     */
+    private PhysicalConnectionLayerPipeline getPhysicalConnectionLayerPipeline() {
+        var pipeline = physicalConnectionLayerPipeline;
+        if (pipeline == null || !pipeline.isUpToDate()) {
+            var physicalConnectionLayer = getEnvironment().getPhysicalConnectionLayer(physicalConnectionLayerName);
+            if (physicalConnectionLayer == null)
+                throw new NoPhysicalConnectionLayerFoundException("The environment " + getEnvironment() + " does not have a " +
+                        PhysicalConnectionLayer.class + " mapped with the name " + physicalConnectionLayerName);
+            
+            pipeline = PhysicalConnectionLayerPipeline.compile(physicalConnectionLayer);
+            physicalConnectionLayerPipeline = pipeline;
+        }
+        
+        return pipeline;
+    }
+    
     /**
      * Transport the {@link Message} to the target.
      * <p>
      * Take the linked {@link Environment} and get the {@link sima.core.environment.physical.PhysicalConnectionLayer} specified in args during
-     * the initialisation of the object ({@link #MessageTransportProtocol(String, SimaAgent, Map)}).
+     * the initialisation of the object ({@link #MessageTransportProtocol(String, SimaAgent, Map)}). The chain is compiled in a {@link
+     * PhysicalConnectionLayerPipeline} which is cached and used for all next sends while the chain is not modified.
      *
      * @param target  the target to transport message
      * @param message the message to transport
      *
-     * @throws IllegalArgumentException if target is null
+     * @throws IllegalArgumentException              if target is null
+     * @throws KilledAgentException                  if the agent owner is killed in aggregation mode
+     * @throws NoPhysicalConnectionLayerFoundException if the {@link Environment} does not have the {@link PhysicalConnectionLayer}
      */
     public void send(AgentIdentifier target, Message message) {
-        target = Optional.ofNullable(target).orElseThrow(() -> new IllegalArgumentException("The target cannot be null"));
-        var physicalConnectionLayer = getEnvironment().getPhysicalConnectionLayer(physicalConnectionLayerName);
-        if (physicalConnectionLayer != null)
-            physicalConnectionLayer.send(getAgentOwner().getAgentIdentifier(), target, createMessageReception(message));
+        if (target == null)
+            throw new IllegalArgumentException("The target cannot be null");
+        
+        if (aggregationMode != AggregationMode.NONE)
+            aggregate(List.of(target), message);
         else
-            throw new NoPhysicalConnectionLayerFoundException("The environment " + getEnvironment() + " does not have a " +
-                    PhysicalConnectionLayer.class + " mapped with the name " + physicalConnectionLayerName);
+            getPhysicalConnectionLayerPipeline().send(getAgentOwner().getAgentIdentifier(), target, createMessageReception(message));
+    }
+    
+    /**
+     * Same as {@link #send(AgentIdentifier, Message)} but the target is identified by its agent handle.
+     *
+     * @param targetHandle the agent handle of the target to transport message
+     * @param message      the message to transport
+     *
+     * @throws IllegalArgumentException              if the target is not found
+     * @throws KilledAgentException                  if the agent owner is killed in aggregation mode
+     * @throws NoPhysicalConnectionLayerFoundException if the {@link Environment} does not have the {@link PhysicalConnectionLayer}
+     * @see AgentIdentifier#getAgentHandle()
+     */
+    public void send(int targetHandle, Message message) {
+        if (aggregationMode != AggregationMode.NONE) {
+            var target = SimaSimulation.getAgentByHandle(targetHandle);
+            if (target == null)
+                throw new IllegalArgumentException("No agent with the handle " + targetHandle);
+            
+            aggregate(List.of(target.getAgentIdentifier()), message);
+            return;
+        }
+        
+        getPhysicalConnectionLayerPipeline().send(getAgentOwner().getAgentIdentifier().getAgentHandle(), targetHandle,
+                                                  createMessageReception(message));
+    }
+    
+    /**
+     * Transport the {@link Message} to all the targets with only one traversal of the {@link PhysicalConnectionLayer} chain (see {@link
+     * PhysicalConnectionLayerPipeline#sendMulticast(AgentIdentifier, Collection, sima.core.environment.physical.PhysicalEvent)}). All targets
+     * receive the same {@link PhysicalMessageReceptionEvent}. In aggregation mode, the message is added to the envelope of the group of targets,
+     * which is still sent with one multicast.
+     *
+     * @param targets the targets to transport message
+     * @param message the message to transport
+     *
+     * @throws IllegalArgumentException              if targets or one target is null
+     * @throws KilledAgentException                  if the agent owner is killed in aggregation mode
+     * @throws NoPhysicalConnectionLayerFoundException if the {@link Environment} does not have the {@link PhysicalConnectionLayer}
+     */
+    public void sendMulticast(Collection<AgentIdentifier> targets, Message message) {
+        if (targets == null)
+            throw new IllegalArgumentException("The targets cannot be null");
+        
+        if (aggregationMode != AggregationMode.NONE) {
+            for (AgentIdentifier target : targets)
+                if (target == null)
+                    throw new IllegalArgumentException("A target cannot be null");
+            
+            if (!targets.isEmpty())
+                aggregate(List.copyOf(targets), message);
+        } else
+            getPhysicalConnectionLayerPipeline().sendMulticast(getAgentOwner().getAgentIdentifier(), targets, createMessageReception(message));
     }
     
+    /**
+     * Adds the message to the envelope of the targets. Sends the envelope at once if it is full in {@link AggregationMode#SIZE}, else schedules
+     * the send of all envelopes at the step boundary if it is not already done.
+     * <p>
+     * The send is validated before the message is kept, therefore a send which would fail without aggregation fails at once and not at the step
+     * boundary.
+     *
+     * @param targets the target, or the group of targets of a multicast, not empty
+     */
+    private void aggregate(List<AgentIdentifier> targets, Message message) {
+        if (ownerIsKilled())
+            throw new KilledAgentException("A killed agent cannot send " + Message.class);
+        
+        getPhysicalConnectionLayerPipeline();
+        
+        List<Message> full = null;
+        boolean scheduleFlush = false;
+        synchronized (pendingMessages) {
+            var messages = pendingMessages.computeIfAbsent(targets, t -> new ArrayList<>());
+            messages.add(message);
+            if (aggregationMode == AggregationMode.SIZE && messages.size() >= aggregationSize)
+                full = pendingMessages.remove(targets);
+            else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+        
+        if (full != null)
+            sendEnvelope(targets, full);
+        if (scheduleFlush)
+            scheduleExecutableOnce(this::flush, Scheduler.NOW);
+    }
+    
+    /**
+     * Sends the envelopes of all targets. A target with only one message receives it without envelope. If the agent owner has been killed since the
+     * messages have been sent, the envelopes are dropped.
+     */
+    public void flush() {
+        List<Map.Entry<List<AgentIdentifier>, List<Message>>> envelopes;
+        synchronized (pendingMessages) {
+            envelopes = new ArrayList<>(pendingMessages.entrySet());
+            pendingMessages.clear();
+            flushScheduled = false;
+        }
+        
+        if (ownerIsKilled())
+            return;
+        
+        for (Map.Entry<List<AgentIdentifier>, List<Message>> envelope : envelopes)
+            sendEnvelope(envelope.getKey(), envelope.getValue());
+    }
+    
+    private void sendEnvelope(List<AgentIdentifier> targets, List<Message> messages) {
+        var content = messages.size() == 1 ? messages.get(0) : new MessageEnvelope(messages, getIdentifier());
+        if (targets.size() == 1)
+            getPhysicalConnectionLayerPipeline().send(getAgentOwner().getAgentIdentifier(), targets.get(0), createMessageReception(content));
+        else
+            getPhysicalConnectionLayerPipeline().sendMulticast(getAgentOwner().getAgentIdentifier(), targets, createMessageReception(content));
+    }
+    
+    /**
+     * Receives the content of the {@link PhysicalMessageReceptionEvent}. If the content is a {@link MessageEnvelope}, receives all its messages in
+     * their send order.
+     *
+     * @param event the event to process
+     *
+     * @throws UnsupportedOperationException if the event is not a {@link PhysicalMessageReceptionEvent}
+     */
     @Override
     public void processEvent(Event event) {
         if (event instanceof PhysicalMessageReceptionEvent physicalMessageReceptionEvent) {
-            receive(physicalMessageReceptionEvent.getContent());
+            if (physicalMessageReceptionEvent.getContent() instanceof MessageEnvelope envelope)
+                for (Message message : envelope.getMessages())
+                    receive(message);
+            else
+                receive(physicalMessageReceptionEvent.getContent());
         } else
             throw new UnsupportedOperationException(
                     getClass() + " does not support other " + Event.class + " than " + PhysicalMessageReceptionEvent.class);
@@ -96,6 +306,23 @@ public abstract class MessageTransportProtocol extends Protocol implements Messa
     
     // Getters and Setters.
     
+    public AggregationMode getAggregationMode() {
+        return aggregationMode;
+    }
+    
+    public int getAggregationSize() {
+        return aggregationSize;
+    }
+    
+    /**
+     * @return the number of envelopes not yet sent in aggregation mode, one per target and one per group of targets of a multicast.
+     */
+    public int getNbPendingEnvelopes() {
+        synchronized (pendingMessages) {
+            return pendingMessages.size();
+        }
+    }
+    
     public Environment getEnvironment() {
         return environment;
     }
@@ -109,4 +336,28 @@ public abstract class MessageTransportProtocol extends Protocol implements Messa
         if (this.environment == null && environment != null)
             this.environment = environment;
     }
+    
+    // Inner classes.
+    
+    public enum AggregationMode {
+        NONE, STEP, SIZE;
+        
+        /**
+         * @param value the value of the argument {@link #ARG_AGGREGATION_MODE}, case insensitive, can be null
+         *
+         * @return the mode, {@link #NONE} if the value is null.
+         *
+         * @throws IllegalArgumentException if the value is not a mode
+         */
+        private static AggregationMode parse(String value) {
+            if (value == null)
+                return NONE;
+            
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("The argument " + ARG_AGGREGATION_MODE + " must be none, step or size: " + value, e);
+            }
+        }
+    }
 }
@@ -1,11 +1,16 @@
 package sima.standard.transport.message;
 
 import sima.core.agent.SimaAgent;
+import sima.core.environment.event.Event;
 import sima.core.exception.UnknownProtocolForAgentException;
 import sima.core.protocol.ProtocolManipulator;
 import sima.standard.environment.message.Message;
+import sima.standard.environment.message.event.physical.PhysicalMessageReceptionEvent;
+import sima.standard.transport.MessageEnvelope;
 import sima.standard.transport.MessageTransportProtocol;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -55,6 +60,53 @@ public class SimpleMessageSenderProtocol extends MessageTransportProtocol {
             throw new UnsupportedOperationException("Cannot transfer content to intended protocol because message content is null");
     }
 
+    /**
+     * Extracts the content of all received {@link Message} and gives consecutive contents intended to the same protocol together to the method
+     * {@link sima.core.protocol.Protocol#processEvents(List)} of the intended protocol. The messages of a {@link MessageEnvelope} are extracted in
+     * their send order.
+     *
+     * @param events the events to process
+     */
+    @Override
+    public void processEvents(List<Event> events) {
+        List<Event> contents = new ArrayList<>(events.size());
+        for (Event event : events) {
+            if (event instanceof PhysicalMessageReceptionEvent physicalMessageReceptionEvent) {
+                if (physicalMessageReceptionEvent.getContent() instanceof MessageEnvelope envelope)
+                    for (Message message : envelope.getMessages())
+                        contents.add(extractContent(message));
+                else
+                    contents.add(extractContent(physicalMessageReceptionEvent.getContent()));
+            } else
+                throw new UnsupportedOperationException(
+                        getClass() + " does not support other " + Event.class + " than " + PhysicalMessageReceptionEvent.class);
+        }
+
+        var i = 0;
+        while (i < contents.size()) {
+            var content = (Message) contents.get(i);
+            int intendedProtocolSlot = content.getIntendedProtocolSlot();
+            var j = i + 1;
+            while (j < contents.size() && ((Message) contents.get(j)).getIntendedProtocolSlot() == intendedProtocolSlot)
+                j++;
+
+            var intendedProtocol = getAgentOwner().getProtocol(intendedProtocolSlot);
+            if (intendedProtocol == null)
+                throw new UnknownProtocolForAgentException(
+                        "The agent " + getAgentOwner() + " does not know the intendedProtocol identify by " + content.getIntendedProtocol());
+
+            intendedProtocol.processEvents(contents.subList(i, j));
+            i = j;
+        }
+    }
+
+    private static Message extractContent(Message message) {
+        var content = message.getMessage();
+        if (content == null)
+            throw new UnsupportedOperationException("Cannot transfer content to intended protocol because message content is null");
+        return content;
+    }
+
     @Override
     protected ProtocolManipulator createDefaultProtocolManipulator() {
         return new ProtocolManipulator.DefaultProtocolManipulator(this);
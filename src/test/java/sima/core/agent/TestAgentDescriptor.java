@@ -0,0 +1,97 @@
+package sima.core.agent;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sima.core.exception.AgentMaterializationException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestAgentDescriptor {
+
+    // Variables.
+
+    private AgentIdentifier agentIdentifier;
+
+    // Init.
+
+    @BeforeEach
+    void setUp() {
+        agentIdentifier = new AgentIdentifier("LAZY_AGENT", 2, 7);
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("AgentDescriptor.constructor")
+    @DisplayName("AgentDescriptor constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with a null agentIdentifier or a null agentClass")
+        void testConstructorWithNullArgs() {
+            assertThrows(IllegalArgumentException.class, () -> new AgentDescriptor(null, SimaAgent.class, null, null, null));
+            assertThrows(IllegalArgumentException.class, () -> new AgentDescriptor(agentIdentifier, null, null, null, null));
+        }
+
+        @Test
+        @DisplayName("Test if constructor does not instantiate the agent")
+        void testConstructorDoesNotMaterialize() {
+            var agentDescriptor = new AgentDescriptor(agentIdentifier, SimaAgent.class, null, List.of("ENV"), null);
+
+            assertThat(agentDescriptor.isMaterialized()).isFalse();
+            assertThat(agentDescriptor.getAgent()).isNull();
+            assertThat(agentDescriptor.getEnvironments()).containsExactly("ENV");
+        }
+
+    }
+
+    @Nested
+    @Tag("AgentDescriptor.materialize")
+    @DisplayName("AgentDescriptor materialize tests")
+    class MaterializeTest {
+
+        @Test
+        @DisplayName("Test if materialize instantiates and wires the agent once with the identifier and the handle of the descriptor")
+        void testMaterialize() {
+            var nbWirings = new AtomicInteger();
+            agentIdentifier.setAgentHandle(3);
+            var agentDescriptor = new AgentDescriptor(agentIdentifier, SimaAgent.class, Map.of("key", "value"), null,
+                                                      agent -> nbWirings.incrementAndGet());
+
+            SimaAgent agent = agentDescriptor.materialize();
+
+            assertThat(agent.getAgentIdentifier()).isEqualTo(agentIdentifier);
+            assertThat(agent.getAgentIdentifier().getAgentHandle()).isEqualTo(3);
+            assertThat(agent.isStarted()).isFalse();
+            assertThat(agentDescriptor.materialize()).isSameAs(agent);
+            assertThat(nbWirings.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Test if materialize throws an AgentMaterializationException if the agent class cannot be instantiated")
+        void testMaterializeWithNotInstantiableClass() {
+            var agentDescriptor = new AgentDescriptor(agentIdentifier, NotInstantiableAgent.class, null, null, null);
+
+            assertThrows(AgentMaterializationException.class, agentDescriptor::materialize);
+            assertThat(agentDescriptor.isMaterialized()).isFalse();
+        }
+
+    }
+
+    // Inner classes.
+
+    public static class NotInstantiableAgent extends SimaAgent {
+
+        public NotInstantiableAgent(String agentName) {
+            super(agentName, 0, 0, null);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package sima.core.agent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sima.core.simulation.LocalAgentManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestAgentHandleBinder {
+
+    // Tests.
+
+    @Nested
+    @Tag("AgentHandleBinder.getInstance")
+    @DisplayName("AgentHandleBinder getInstance tests")
+    class GetInstanceTest {
+
+        @Test
+        @DisplayName("Test if getInstance throws an IllegalCallerException if the caller is not an AgentManager")
+        void testGetInstanceWithNotAgentManagerCaller() {
+            assertThrows(IllegalCallerException.class, AgentHandleBinder::getInstance);
+        }
+
+        @Test
+        @DisplayName("Test if an AgentManager binds the agent handles with the binder")
+        void testGetInstanceWithAgentManagerCaller() {
+            var agent = new SimaAgent("AGENT", 0, 0, null);
+
+            new LocalAgentManager().addAgent(agent);
+
+            assertThat(agent.getAgentIdentifier().hasAgentHandle()).isTrue();
+        }
+
+    }
+}
@@ -142,4 +142,42 @@ public class TestAgentIdentifier {
         
     }
     
+    @Nested
+    @Tag("AgentIdentifier.agentHandle")
+    @DisplayName("AgentIdentifier agentHandle tests")
+    class AgentHandleTest {
+        
+        @Test
+        @DisplayName("Test if a new AgentIdentifier is not bound to an agent handle")
+        void testNewAgentIdentifierHasNoAgentHandle() {
+            assertFalse(agentIdentifier.hasAgentHandle());
+            assertEquals(AgentIdentifier.NO_HANDLE, agentIdentifier.getAgentHandle());
+        }
+        
+        @Test
+        @DisplayName("Test if setAgentHandle binds the AgentIdentifier to the agent handle")
+        void testSetAgentHandle() {
+            agentIdentifier.setAgentHandle(5);
+            assertTrue(agentIdentifier.hasAgentHandle());
+            assertEquals(5, agentIdentifier.getAgentHandle());
+        }
+        
+        @Test
+        @DisplayName("Test if setAgentHandle throws an IllegalArgumentException with a negative agent handle which is not NO_HANDLE")
+        void testSetAgentHandleWithNegativeAgentHandle() {
+            assertThrows(IllegalArgumentException.class, () -> agentIdentifier.setAgentHandle(-2));
+        }
+        
+        @Test
+        @DisplayName("Test if the agent handle is not used in equals and hashCode")
+        void testAgentHandleNotUsedInEqualsAndHashCode() {
+            AgentIdentifier other = new AgentIdentifier(agentIdentifier.getAgentName(), agentIdentifier.getAgentSequenceId(),
+                    agentIdentifier.getAgentUniqueId());
+            agentIdentifier.setAgentHandle(3);
+            assertEquals(other, agentIdentifier);
+            assertEquals(other.hashCode(), agentIdentifier.hashCode());
+        }
+        
+    }
+    
 }
@@ -11,8 +11,10 @@ import sima.core.exception.AgentNotStartedException;
 import sima.core.exception.AlreadyKilledAgentException;
 import sima.core.exception.AlreadyStartedAgentException;
 import sima.core.exception.KilledAgentException;
+import sima.core.exception.PassivatedAgentException;
 import sima.core.protocol.Protocol;
 import sima.core.protocol.ProtocolIdentifier;
+import sima.core.protocol.ProtocolSlots;
 import sima.core.simulation.SimaSimulation;
 import sima.standard.environment.message.event.MessageReceptionEvent;
 import sima.testing.behavior.NotPlayableBehavior;
@@ -262,6 +264,21 @@ public class TestSimaAgent {
             assertThat(p1.getOnOwnerStart()).isEqualByComparingTo(1);
         }
 
+        @Test
+        @DisplayName("Test if resume starts the agent without notifying the protocols and throws an AlreadyStartedAgentException if the agent is " +
+                "started")
+        void testResume() {
+            String tag0 = "TAG0";
+            simaAgent.addProtocol(CorrectProtocol0.class, tag0, null);
+
+            simaAgent.resume();
+
+            CorrectProtocol0 p0 = (CorrectProtocol0) simaAgent.getProtocol(new ProtocolIdentifier(CorrectProtocol0.class, tag0));
+            assertThat(simaAgent.isStarted()).isTrue();
+            assertThat(p0.getOnOwnerStart()).isEqualByComparingTo(0);
+            assertThrows(AlreadyStartedAgentException.class, () -> simaAgent.resume());
+        }
+
     }
 
     @Nested
@@ -383,6 +400,51 @@ public class TestSimaAgent {
         }
     }
 
+    @Nested
+    @Tag("SimpleAgent.passivate")
+    @DisplayName("SimpleAgent passivate tests")
+    class PassivateTest {
+
+        @Test
+        @DisplayName("Test if passivate throws an AgentNotStartedException if the agent is not started and a KilledAgentException if it is killed")
+        void testPassivateWithNotStartedOrKilledAgent() {
+            assertThrows(AgentNotStartedException.class, () -> simaAgent.passivate());
+
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simulationWithoutEnvironment(simaSimulationMockedStatic, simaAgent.getAgentIdentifier());
+                simaAgent.start();
+                simaAgent.kill();
+            }
+            assertThrows(KilledAgentException.class, () -> simaAgent.passivate());
+        }
+
+        @Test
+        @DisplayName("Test if a passivated agent is not started, cannot be started again and throws a PassivatedAgentException for events")
+        void testPassivatedAgent() {
+            simaAgent.start();
+
+            simaAgent.passivate();
+
+            assertThat(simaAgent.isPassivated()).isTrue();
+            assertThat(simaAgent.isStarted()).isFalse();
+            assertThrows(PassivatedAgentException.class, () -> simaAgent.start());
+            assertThrows(PassivatedAgentException.class, () -> simaAgent.processEvent(mockEvent));
+            assertThrows(PassivatedAgentException.class, () -> simaAgent.processEvents(List.of(mockEvent)));
+        }
+
+        @Test
+        @DisplayName("Test if getNbProcessedEvents counts the events given to the started agent")
+        void testGetNbProcessedEvents() {
+            simaAgent.start();
+
+            assertThrows(UnsupportedOperationException.class, () -> simaAgent.processEvent(mockEvent));
+            assertThrows(UnsupportedOperationException.class, () -> simaAgent.processEvents(List.of(mockEvent, mockEvent)));
+
+            assertThat(simaAgent.getNbProcessedEvents()).isEqualTo(3L);
+        }
+
+    }
+
     @Nested
     @Tag("SimpleAgent.Environment")
     @DisplayName("SimpleAgent environment methods tests")
@@ -830,6 +892,25 @@ public class TestSimaAgent {
                 var protocol1 = simaAgent.getProtocol(p1);
                 assertNotSame(protocol0, protocol1);
             }
+
+            @Test
+            @DisplayName("Test if getProtocol with a slot returns the same instance as getProtocol with the ProtocolIdentifier")
+            void testGetProtocolWithSlot() {
+                String protocolTag = "TAG";
+                simaAgent.addProtocol(CorrectProtocol0.class, protocolTag, null);
+                var p0 = new ProtocolIdentifier(CorrectProtocol0.class, protocolTag);
+                var protocol = simaAgent.getProtocol(ProtocolSlots.slotOf(p0));
+                assertNotNull(protocol);
+                assertSame(simaAgent.getProtocol(p0), protocol);
+            }
+
+            @Test
+            @DisplayName("Test if getProtocol with a slot returns null with NO_SLOT or a slot of a not added protocol")
+            void testGetProtocolWithNotAddedSlot() {
+                var p0 = new ProtocolIdentifier(CorrectProtocol0.class, "NOT_ADDED_TAG");
+                assertNull(simaAgent.getProtocol(ProtocolSlots.NO_SLOT));
+                assertNull(simaAgent.getProtocol(ProtocolSlots.slotOf(p0)));
+            }
         }
     }
 
@@ -892,6 +973,54 @@ public class TestSimaAgent {
 
     }
 
+    @Nested
+    @Tag("SimpleAgent.processEvents")
+    @DisplayName("SimpleAgent processEvents tests")
+    class ProcessEventsTest {
+
+        @Test
+        @DisplayName("Test if processEvents throws an AgentNotStartedException if the agent is not started")
+        void testProcessEventsWithNotStartedAgent() {
+            List<Event> events = List.of(mockEvent);
+            assertThrows(AgentNotStartedException.class, () -> simaAgent.processEvents(events));
+        }
+
+        @Test
+        @DisplayName("Test if processEvents throws an IllegalArgumentException if events have as intended protocol a protocol not added in the " +
+                "agent")
+        void testProcessEventsWithEventsWithNotAddedIntendedProtocolInTheAgent() {
+            var protocolIdentifier = new ProtocolIdentifier(CorrectProtocol0.class, "TAG");
+            List<Event> events = List.of(mockIntendedForProtocol, mockIntendedForProtocol);
+
+            // GIVEN
+            when(mockIntendedForProtocol.getIntendedProtocol()).thenReturn(protocolIdentifier);
+
+            // WHEN
+            simaAgent.start();
+            assertThrows(IllegalArgumentException.class, () -> simaAgent.processEvents(events));
+        }
+
+        @Test
+        @DisplayName("Test if processEvents does not throw an exception if events have an intended protocol added in the agent")
+        void testProcessEventsWithEventsWithIntendedProtocolAddedInTheAgent() {
+            String protocolTag = "TAG";
+            var protocolIdentifier = new ProtocolIdentifier(CorrectProtocol0.class, protocolTag);
+            List<Event> events = List.of(mockIntendedForProtocol, mockIntendedForProtocol, mockIntendedForProtocol);
+
+            // GIVEN
+            when(mockIntendedForProtocol.getIntendedProtocol()).thenReturn(protocolIdentifier);
+
+            // WHEN
+            simaAgent.start();
+            simaAgent.addProtocol(CorrectProtocol0.class, protocolTag, null);
+            assertDoesNotThrow(() -> simaAgent.processEvents(events));
+
+            // THEN
+            verify(mockIntendedForProtocol, times(3)).getIntendedProtocol();
+        }
+
+    }
+
     @Nested
     @Tag("SimpleAgent.getAgentIdentifier")
     @DisplayName("SimpleAgent getAgentIdentifier tests")
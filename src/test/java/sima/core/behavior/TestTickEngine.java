@@ -0,0 +1,273 @@
+package sima.core.behavior;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.SimaAgent;
+import sima.core.exception.BehaviorCannotBePlayedByAgentException;
+import sima.core.scheduler.Scheduler;
+import sima.core.scheduler.executor.Executable;
+import sima.core.scheduler.multithread.DiscreteTimeMultiThreadScheduler;
+import sima.core.simulation.SimaSimulation;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static sima.core.TestSima.mockSimaSimulation;
+
+@ExtendWith(MockitoExtension.class)
+public class TestTickEngine {
+
+    // Variables.
+
+    @Mock
+    private Scheduler mockScheduler;
+
+    @Mock
+    private SimaAgent mockAgent;
+
+    private MockedStatic<SimaSimulation> simaSimulationMockedStatic;
+
+    // Init.
+
+    @BeforeEach
+    void setUp() {
+        simaSimulationMockedStatic = mockSimaSimulation();
+        simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        simaSimulationMockedStatic.close();
+    }
+
+    private CountingTickBehavior startBehavior(long tickPeriod) throws BehaviorCannotBePlayedByAgentException {
+        Map<String, String> args = new HashMap<>();
+        args.put(TickBehavior.TICK_PERIOD_ARGS, String.valueOf(tickPeriod));
+        var behavior = new CountingTickBehavior(mockAgent, args);
+        behavior.startPlaying();
+        return behavior;
+    }
+
+    private Executable scheduledGroup(long waitingTime) {
+        ArgumentCaptor<Executable> captor = ArgumentCaptor.forClass(Executable.class);
+        verify(mockScheduler, atLeastOnce()).scheduleExecutableOnce(captor.capture(), eq(waitingTime));
+        return captor.getValue();
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("TickEngine.of")
+    @DisplayName("TickEngine of tests")
+    class OfTest {
+
+        @Test
+        @DisplayName("Test if of throws an IllegalArgumentException with a null scheduler")
+        void testOfWithNullScheduler() {
+            assertThrows(IllegalArgumentException.class, () -> TickEngine.of(null));
+        }
+
+        @Test
+        @DisplayName("Test if of returns the same engine for the same scheduler")
+        void testOfReturnsSameEngine() {
+            assertThat(TickEngine.of(mockScheduler)).isSameAs(TickEngine.of(mockScheduler));
+        }
+
+        @Test
+        @DisplayName("Test if the engine does not keep its scheduler alive")
+        void testOfDoesNotKeepScheduler() {
+            WeakReference<Scheduler> droppedScheduler = createEngineOfDroppedScheduler();
+
+            await().atMost(Duration.ofSeconds(10)).until(() -> {
+                System.gc();
+                return droppedScheduler.get() == null;
+            });
+        }
+
+        /**
+         * Creates the engine of a scheduler which is then only referenced by the engines.
+         */
+        private WeakReference<Scheduler> createEngineOfDroppedScheduler() {
+            Scheduler scheduler = new DiscreteTimeMultiThreadScheduler(10L, 1);
+            TickEngine.of(scheduler);
+            return new WeakReference<>(scheduler);
+        }
+
+    }
+
+    @Nested
+    @Tag("TickEngine.register")
+    @DisplayName("TickEngine register tests")
+    class RegisterTest {
+
+        @Test
+        @DisplayName("Test if the behaviors of the same period are scheduled with only one executable")
+        void testOneExecutablePerPeriod() throws BehaviorCannotBePlayedByAgentException {
+            for (int i = 0; i < 100; i++)
+                startBehavior(1);
+
+            verify(mockScheduler, times(1)).scheduleExecutableOnce(any(Executable.class), eq(Scheduler.NOW));
+            assertThat(TickEngine.of(mockScheduler).getNbTickingBehaviors()).isEqualTo(100);
+            assertThat(TickEngine.of(mockScheduler).isScheduled(1)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Test if the behaviors of different periods are in different groups")
+        void testOneGroupPerPeriod() throws BehaviorCannotBePlayedByAgentException {
+            startBehavior(1);
+            startBehavior(3);
+
+            verify(mockScheduler, times(2)).scheduleExecutableOnce(any(Executable.class), eq(Scheduler.NOW));
+            assertThat(TickEngine.of(mockScheduler).isScheduled(1)).isTrue();
+            assertThat(TickEngine.of(mockScheduler).isScheduled(3)).isTrue();
+            assertThat(TickEngine.of(mockScheduler).isScheduled(2)).isFalse();
+        }
+
+    }
+
+    @Nested
+    @Tag("TickEngine.tick")
+    @DisplayName("TickEngine tick tests")
+    class TickTest {
+
+        @Test
+        @DisplayName("Test if a tick calls onTick on all behaviors of the group and schedules the next tick after the period")
+        void testTick() throws BehaviorCannotBePlayedByAgentException {
+            when(mockScheduler.getCurrentTime()).thenReturn(7L);
+            var behavior1 = startBehavior(5);
+            var behavior2 = startBehavior(5);
+
+            scheduledGroup(Scheduler.NOW).execute();
+
+            assertThat(behavior1.ticks).containsExactly(7L);
+            assertThat(behavior2.ticks).containsExactly(7L);
+            verify(mockScheduler, times(1)).scheduleExecutableOnce(any(Executable.class), eq(5L));
+        }
+
+        @Test
+        @DisplayName("Test if a group larger than a chunk ticks each behavior exactly one time")
+        void testTickByChunks() throws BehaviorCannotBePlayedByAgentException {
+            List<CountingTickBehavior> behaviors = new ArrayList<>();
+            for (int i = 0; i < TickEngine.CHUNK_SIZE * 5 + 3; i++)
+                behaviors.add(startBehavior(1));
+
+            scheduledGroup(Scheduler.NOW).execute();
+
+            assertThat(behaviors).allMatch(behavior -> behavior.ticks.size() == 1);
+        }
+
+        @Test
+        @DisplayName("Test if a behavior which stops playing is not ticked and if an empty group is not scheduled anymore")
+        void testStopPlaying() throws BehaviorCannotBePlayedByAgentException {
+            var behavior = startBehavior(1);
+            behavior.stopPlaying();
+
+            scheduledGroup(Scheduler.NOW).execute();
+
+            assertThat(behavior.ticks).isEmpty();
+            assertThat(TickEngine.of(mockScheduler).getNbTickingBehaviors()).isZero();
+            assertThat(TickEngine.of(mockScheduler).isScheduled(1)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Test if a behavior which stops playing during a tick leaves the group after the tick")
+        void testStopPlayingDuringTick() throws BehaviorCannotBePlayedByAgentException {
+            var behavior = startBehavior(1);
+            behavior.onTickAction = behavior::stopPlaying;
+            var other = startBehavior(1);
+
+            scheduledGroup(Scheduler.NOW).execute();
+
+            assertThat(behavior.ticks).hasSize(1);
+            assertThat(other.ticks).hasSize(1);
+            assertThat(TickEngine.of(mockScheduler).getNbTickingBehaviors()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Test if a behavior which fails does not prevent the other behaviors to be ticked")
+        void testTickWithFailingBehavior() throws BehaviorCannotBePlayedByAgentException {
+            var failing = startBehavior(1);
+            failing.onTickAction = () -> {
+                throw new IllegalStateException("Fail");
+            };
+            var other = startBehavior(1);
+
+            scheduledGroup(Scheduler.NOW).execute();
+
+            assertThat(other.ticks).hasSize(1);
+            verify(mockScheduler, times(2)).scheduleExecutableOnce(any(Executable.class), eq(Scheduler.NOW));
+        }
+
+    }
+
+    @Nested
+    @Tag("TickBehavior.constructor")
+    @DisplayName("TickBehavior constructor tests")
+    class TickBehaviorConstructorTest {
+
+        @Test
+        @DisplayName("Test if the default tick period is 1")
+        void testDefaultTickPeriod() throws BehaviorCannotBePlayedByAgentException {
+            assertThat(new CountingTickBehavior(mockAgent, null).getTickPeriod()).isEqualTo(TickBehavior.DEFAULT_TICK_PERIOD);
+        }
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with a tick period less than 1 or not a number")
+        void testConstructorWithWrongTickPeriod() {
+            Map<String, String> args = new HashMap<>();
+            args.put(TickBehavior.TICK_PERIOD_ARGS, "0");
+            assertThrows(IllegalArgumentException.class, () -> new CountingTickBehavior(mockAgent, args));
+
+            args.put(TickBehavior.TICK_PERIOD_ARGS, "fast");
+            assertThrows(IllegalArgumentException.class, () -> new CountingTickBehavior(mockAgent, args));
+        }
+
+    }
+
+    // Inner classes.
+
+    private static class CountingTickBehavior extends TickBehavior {
+
+        // Variables.
+
+        private final List<Long> ticks = new ArrayList<>();
+
+        private Runnable onTickAction = () -> {
+        };
+
+        // Constructors.
+
+        CountingTickBehavior(SimaAgent agent, Map<String, String> args) throws BehaviorCannotBePlayedByAgentException {
+            super(agent, args);
+        }
+
+        // Methods.
+
+        @Override
+        public boolean canBePlayedBy(SimaAgent agent) {
+            return true;
+        }
+
+        @Override
+        public void onTick(long time) {
+            synchronized (ticks) {
+                ticks.add(time);
+            }
+            onTickAction.run();
+        }
+    }
+}
@@ -15,12 +15,17 @@ import sima.core.exception.NotEvolvingAgentInEnvironmentException;
 import sima.core.scheduler.Scheduler;
 import sima.core.simulation.SimaSimulation;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 import static sima.core.TestSima.mockSimaSimulation;
+import static sima.testing.simulation.HandleBindingAgentManager.bindAgentHandle;
 
 public abstract class TestEnvironment {
 
@@ -121,6 +126,35 @@ public abstract class TestEnvironment {
             assertTrue(isEvolving);
         }
 
+        @Test
+        @DisplayName("Test if isEvolving method with agent handle returns true if the agent is evolving and false after it leaves")
+        void testIsEvolvingWithAgentHandle() {
+            bindAgentHandle(agentInitiator, 0);
+            environment.acceptAgent(agentInitiator);
+            assertTrue(environment.isEvolving(0));
+
+            environment.leave(agentInitiator);
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(() -> SimaSimulation.getAgentByHandle(0)).thenReturn(null);
+                assertFalse(environment.isEvolving(0));
+            }
+        }
+
+        @Test
+        @DisplayName("Test if isEvolving method returns true for an agent bound to an agent handle after it has joined the environment")
+        void testIsEvolvingWithAgentBoundAfterJoin() {
+            environment.acceptAgent(agentInitiator);
+            bindAgentHandle(agentInitiator, 0);
+            assertTrue(environment.isEvolving(agentInitiator));
+            assertTrue(environment.isEvolving(0));
+        }
+
+        @Test
+        @DisplayName("Test if isEvolving method returns false with a negative agent handle")
+        void testIsEvolvingWithNegativeAgentHandle() {
+            assertFalse(environment.isEvolving(AgentIdentifier.NO_HANDLE));
+        }
+
     }
 
     @Nested
@@ -145,6 +179,96 @@ public abstract class TestEnvironment {
 
     }
 
+    @Nested
+    @Tag("Environment.sampleEvolvingAgents")
+    @DisplayName("Environment sampleEvolvingAgents tests")
+    class SampleEvolvingAgentsTest {
+
+        private List<AgentIdentifier> acceptAgents(int nbAgents) {
+            List<AgentIdentifier> agents = new ArrayList<>();
+            for (int i = 0; i < nbAgents; i++) {
+                var agent = new AgentIdentifier("SAMPLED_AGENT_" + i, i, 100 + i);
+                environment.acceptAgent(agent);
+                agents.add(agent);
+            }
+            return agents;
+        }
+
+        @Test
+        @DisplayName("Test if sampleEvolvingAgents throws IllegalArgumentException with negative nbAgents or null random")
+        void testSampleEvolvingAgentsWithWrongArgs() {
+            var random = new SplittableRandom(0);
+            assertThrows(IllegalArgumentException.class, () -> environment.sampleEvolvingAgents(-1, null, random));
+            assertThrows(IllegalArgumentException.class, () -> environment.sampleEvolvingAgents(1, null, null));
+        }
+
+        @Test
+        @DisplayName("Test if sampleEvolvingAgents returns distinct evolving agents without the excluded agent")
+        void testSampleEvolvingAgentsReturnsDistinctAgents() {
+            List<AgentIdentifier> agents = acceptAgents(50);
+            var random = new SplittableRandom(42);
+            for (int nbAgents : new int[]{1, 3, 30, 48}) {
+                List<AgentIdentifier> sample = environment.sampleEvolvingAgents(nbAgents, agents.get(0), random);
+                assertThat(sample).hasSize(nbAgents).doesNotHaveDuplicates().doesNotContain(agents.get(0));
+                assertThat(agents).containsAll(sample);
+            }
+        }
+
+        @Test
+        @DisplayName("Test if sampleEvolvingAgents returns all other agents if nbAgents is greater than the number of agents")
+        void testSampleEvolvingAgentsWithTooManyAgents() {
+            List<AgentIdentifier> agents = acceptAgents(5);
+            List<AgentIdentifier> sample = environment.sampleEvolvingAgents(10, agents.get(2), new SplittableRandom(0));
+            assertThat(sample).containsExactlyInAnyOrder(agents.get(0), agents.get(1), agents.get(3), agents.get(4));
+        }
+
+        @Test
+        @DisplayName("Test if sampleEvolvingAgents never returns an agent which has left the environment")
+        void testSampleEvolvingAgentsAfterLeave() {
+            List<AgentIdentifier> agents = acceptAgents(20);
+            environment.leave(agents.get(3));
+            environment.leave(agents.get(19));
+            assertThat(environment.getNbEvolvingAgents()).isEqualTo(18);
+
+            var random = new SplittableRandom(7);
+            for (int i = 0; i < 50; i++)
+                assertThat(environment.sampleEvolvingAgents(4, null, random)).doesNotContain(agents.get(3), agents.get(19));
+            assertThat(environment.getEvolvingAgentIdentifiers()).hasSize(18).doesNotContain(agents.get(3), agents.get(19));
+        }
+
+        @Test
+        @DisplayName("Test if sampleEvolvingAgents does not take the lock of the environment if the membership has not changed")
+        void testSampleEvolvingAgentsWithoutLock() throws InterruptedException {
+            List<AgentIdentifier> agents = acceptAgents(20);
+            var random = new SplittableRandom(3);
+            environment.sampleEvolvingAgents(2, null, random);
+
+            var locked = new CountDownLatch(1);
+            var release = new CountDownLatch(1);
+            var lockHolder = new Thread(() -> {
+                synchronized (environment) {
+                    locked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            lockHolder.start();
+            try {
+                locked.await();
+                List<AgentIdentifier> sample = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                                                                         () -> environment.sampleEvolvingAgents(3, agents.get(0), random));
+                assertThat(sample).hasSize(3).doesNotHaveDuplicates().doesNotContain(agents.get(0));
+            } finally {
+                release.countDown();
+                lockHolder.join();
+            }
+        }
+
+    }
+
     @Nested
     @Tag("Environment.assignEventOn")
     @DisplayName("Environment assignEventOn tests")
@@ -205,6 +329,69 @@ public abstract class TestEnvironment {
                 assertDoesNotThrow(() -> environment.assignEventOn(agentInitiator, agentTarget, mockEvent, arbitraryDelay));
             }
         }
+
+        @Test
+        @DisplayName("Test if assignEventOn with several targets throws a IllegalArgumentException if initiator, targets, event or delayOfTarget is " +
+                "null")
+        void testAssignEventOnSeveralTargetsWithNullArguments() {
+            List<AgentIdentifier> targets = List.of(agentTarget);
+            assertThrows(IllegalArgumentException.class, () -> environment.assignEventOn(null, targets, mockEvent, target -> arbitraryDelay));
+            assertThrows(IllegalArgumentException.class,
+                         () -> environment.assignEventOn(agentInitiator, (List<AgentIdentifier>) null, mockEvent, target -> arbitraryDelay));
+            assertThrows(IllegalArgumentException.class, () -> environment.assignEventOn(agentInitiator, targets, null, target -> arbitraryDelay));
+            assertThrows(IllegalArgumentException.class, () -> environment.assignEventOn(agentInitiator, targets, mockEvent, null));
+        }
+
+        @Test
+        @DisplayName("Test if assignEventOn with several targets skips a target which is not evolving in the Environment and schedules the others")
+        void testAssignEventOnSeveralTargetsWithOneNotEvolvingTarget() {
+            // WHEN
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simulationWithScheduler(simaSimulationMockedStatic);
+                simulationWithInitiatorAgent(simaSimulationMockedStatic, agentInitiator);
+                when(mockAgentInitiator.isKilled()).thenReturn(false);
+
+                environment.acceptAgent(agentInitiator);
+                environment.acceptAgent(agentTarget);
+                var agentOther = new AgentIdentifier("AGENT_OTHER", 2, 2);
+                List<AgentIdentifier> targets = List.of(agentOther, agentTarget);
+                List<AgentIdentifier> delayedTargets = new ArrayList<>();
+
+                // GIVEN
+                int nbScheduled = environment.assignEventOn(agentInitiator, targets, mockEvent, target -> {
+                    delayedTargets.add(target);
+                    return arbitraryDelay;
+                });
+                assertThat(nbScheduled).isEqualTo(1);
+                assertThat(delayedTargets).containsExactly(agentTarget);
+            }
+        }
+
+        @Test
+        @DisplayName("Test if assignEventOn with several targets asks the delay of each target with this target")
+        void testAssignEventOnSeveralTargetsWithEvolvingAgents() {
+            // WHEN
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simulationWithScheduler(simaSimulationMockedStatic);
+                simulationWithInitiatorAgent(simaSimulationMockedStatic, agentInitiator);
+                when(mockAgentInitiator.isKilled()).thenReturn(false);
+
+                environment.acceptAgent(agentInitiator);
+                environment.acceptAgent(agentTarget);
+                var agentOther = new AgentIdentifier("AGENT_OTHER", 2, 2);
+                environment.acceptAgent(agentOther);
+                List<AgentIdentifier> targets = List.of(agentTarget, agentOther);
+                List<AgentIdentifier> delayedTargets = new ArrayList<>();
+
+                // GIVEN
+                int nbScheduled = environment.assignEventOn(agentInitiator, targets, mockEvent, target -> {
+                    delayedTargets.add(target);
+                    return arbitraryDelay;
+                });
+                assertThat(nbScheduled).isEqualTo(targets.size());
+                assertThat(delayedTargets).containsExactlyElementsOf(targets);
+            }
+        }
     }
 
     @Nested
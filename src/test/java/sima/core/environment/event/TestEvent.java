@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public abstract class TestEvent {
     
@@ -21,10 +22,13 @@ public abstract class TestEvent {
     class DuplicateTest {
         
         @Test
-        @DisplayName("Test if duplicate returns a new instance of Event equals to the base Event")
+        @DisplayName("Test if duplicate returns a new instance of Event equals to the base Event, or the Event itself if it is immutable")
         void testDuplicate() {
             var duplicate = event.duplicate();
-            assertNotSame(event, duplicate);
+            if (Event.isImmutable(event))
+                assertSame(event, duplicate);
+            else
+                assertNotSame(event, duplicate);
         }
         
     }
@@ -0,0 +1,80 @@
+package sima.core.environment.event;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestImmutableEvent {
+
+    // Tests.
+
+    @Nested
+    @Tag("Event.isImmutable")
+    @DisplayName("Event isImmutable tests")
+    class IsImmutableTest {
+
+        @Test
+        @DisplayName("Test if isImmutable returns false with a null event or an event which is not an ImmutableEvent")
+        void testIsImmutableWithNotImmutableEvent() {
+            assertThat(Event.isImmutable(null)).isFalse();
+            assertThat(Event.isImmutable(new MutableEvent())).isFalse();
+        }
+
+        @Test
+        @DisplayName("Test if isImmutable returns true with an ImmutableEvent which has only final or transient fields")
+        void testIsImmutableWithImmutableEvent() {
+            assertThat(Event.isImmutable(new FinalFieldsEvent(1))).isTrue();
+        }
+
+        @Test
+        @DisplayName("Test if isImmutable throws IllegalStateException with an ImmutableEvent which has a not final field")
+        void testIsImmutableWithNotFinalField() {
+            var event = new NotFinalFieldEvent();
+            assertThrows(IllegalStateException.class, () -> Event.isImmutable(event));
+        }
+
+    }
+
+    // Inner classes.
+
+    private static class MutableEvent extends Event {
+
+        private int value;
+
+        MutableEvent() {
+            super(null);
+        }
+
+        @Override
+        public @NotNull Event duplicate() {
+            var copy = new MutableEvent();
+            copy.value = value;
+            return copy;
+        }
+    }
+
+    private static class FinalFieldsEvent extends Event implements ImmutableEvent {
+
+        private final int value;
+
+        private transient int cache;
+
+        FinalFieldsEvent(int value) {
+            super(null);
+            this.value = value;
+        }
+
+        @Override
+        public @NotNull Event duplicate() {
+            return this;
+        }
+    }
+
+    private static class NotFinalFieldEvent extends MutableEvent implements ImmutableEvent {
+    }
+}
@@ -0,0 +1,267 @@
+package sima.core.environment.event.codec;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.*;
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.event.Event;
+import sima.core.exception.EventCodecException;
+import sima.core.protocol.Protocol;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.core.simulation.AgentManager;
+import sima.core.simulation.LocalAgentManager;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestCodecRegistry {
+
+    // Variables.
+
+    protected CodecRegistry codecRegistry;
+
+    private final AgentIdentifier agent = new AgentIdentifier("AGENT", 3, 7);
+
+    private final ProtocolIdentifier protocol = new ProtocolIdentifier(Protocol.class, "TAG");
+
+    // Init.
+
+    @BeforeEach
+    public void setUp() {
+        codecRegistry = new CodecRegistry();
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("CodecRegistry.register")
+    @DisplayName("CodecRegistry register tests")
+    class RegisterTest {
+
+        @Test
+        @DisplayName("Test if register throws IllegalArgumentException with null args or an already registered class")
+        void testRegisterWithWrongArgs() {
+            assertThrows(IllegalArgumentException.class, () -> codecRegistry.register(null, new ValueEventCodec()));
+            assertThrows(IllegalArgumentException.class, () -> codecRegistry.register(ValueEvent.class, null));
+
+            codecRegistry.register(ValueEvent.class, new ValueEventCodec());
+            assertThrows(IllegalArgumentException.class, () -> codecRegistry.register(ValueEvent.class, new ValueEventCodec()));
+        }
+
+        @Test
+        @DisplayName("Test if register allocates dense type ids and the identifiers have dense ids")
+        void testRegisterAllocatesDenseIds() {
+            assertThat(codecRegistry.register(ValueEvent.class, new ValueEventCodec())).isEqualTo(2);
+            assertThat(codecRegistry.hasCodec(ValueEvent.class)).isTrue();
+            assertThat(codecRegistry.getNbCodecs()).isEqualTo(1);
+
+            assertThat(codecRegistry.registerAgent(agent)).isZero();
+            assertThat(codecRegistry.registerAgent(new AgentIdentifier("OTHER", 0, 0))).isEqualTo(1);
+            assertThat(codecRegistry.registerAgent(agent)).isZero();
+            assertThat(codecRegistry.registerProtocol(protocol)).isZero();
+        }
+
+    }
+
+    @Nested
+    @Tag("CodecRegistry.encode")
+    @DisplayName("CodecRegistry encode and decode tests")
+    class EncodeTest {
+
+        @Test
+        @DisplayName("Test if a registered event is decoded equal to the encoded event")
+        void testRoundTripWithCodec() {
+            codecRegistry.register(ValueEvent.class, new ValueEventCodec());
+            var event = new ValueEvent(42L, new ValueEvent(-1L, null));
+
+            assertThat(codecRegistry.decode(codecRegistry.encode(event))).isEqualTo(event);
+        }
+
+        @Test
+        @DisplayName("Test if an event without codec is encoded with Java serialization")
+        void testRoundTripWithoutCodec() {
+            var event = new ValueEvent(42L, null);
+            byte[] bytes = codecRegistry.encode(event);
+
+            assertThat(bytes[0]).isEqualTo((byte) CodecRegistry.SERIALIZED_TYPE_ID);
+            assertThat(codecRegistry.decode(bytes)).isEqualTo(event);
+        }
+
+        @Test
+        @DisplayName("Test if the codec is much more compact than Java serialization")
+        void testCodecIsCompact() {
+            var event = new ValueEvent(42L, null);
+            int serializedSize = codecRegistry.encode(event).length;
+
+            codecRegistry.register(ValueEvent.class, new ValueEventCodec());
+            assertThat(codecRegistry.encode(event).length).isLessThan(serializedSize / 10);
+        }
+
+        @Test
+        @DisplayName("Test if a null event is encoded in one byte")
+        void testNullEvent() {
+            assertThat(codecRegistry.encode(null)).containsExactly(CodecRegistry.NULL_TYPE_ID);
+            assertThat(codecRegistry.decode(new byte[]{CodecRegistry.NULL_TYPE_ID})).isNull();
+        }
+
+        @Test
+        @DisplayName("Test if decode throws EventCodecException with an unknown type id, truncated bytes or remaining bytes")
+        void testDecodeWithWrongBytes() {
+            codecRegistry.register(ValueEvent.class, new ValueEventCodec());
+            byte[] bytes = codecRegistry.encode(new ValueEvent(1000L, null));
+
+            assertThrows(EventCodecException.class, () -> codecRegistry.decode(new byte[]{9}));
+            assertThrows(EventCodecException.class, () -> codecRegistry.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+            assertThrows(EventCodecException.class, () -> codecRegistry.decode(Arrays.copyOf(bytes, bytes.length + 1)));
+            assertThrows(IllegalArgumentException.class, () -> codecRegistry.decode(null));
+        }
+
+    }
+
+    @Nested
+    @Tag("CodecRegistry.identifiers")
+    @DisplayName("CodecRegistry identifiers tests")
+    class IdentifiersTest {
+
+        @Test
+        @DisplayName("Test if the registered identifiers are written as one byte and the other ones with all their fields")
+        void testIdentifiers() {
+            var buffer = ByteBuffer.allocate(256);
+            codecRegistry.writeAgentIdentifier(agent, buffer);
+            codecRegistry.writeProtocolIdentifier(protocol, buffer);
+            int inlineSize = buffer.position();
+
+            codecRegistry.registerAgent(agent);
+            codecRegistry.registerProtocol(protocol);
+            codecRegistry.writeAgentIdentifier(agent, buffer);
+            codecRegistry.writeProtocolIdentifier(protocol, buffer);
+            codecRegistry.writeAgentIdentifier(null, buffer);
+            codecRegistry.writeProtocolIdentifier(null, buffer);
+            assertThat(buffer.position() - inlineSize).isEqualTo(4);
+
+            buffer.flip();
+            for (int i = 0; i < 2; i++) {
+                assertThat(codecRegistry.readAgentIdentifier(buffer)).isEqualTo(agent);
+                assertThat(codecRegistry.readProtocolIdentifier(buffer)).isEqualTo(protocol);
+            }
+            assertThat(codecRegistry.readAgentIdentifier(buffer)).isNull();
+            assertThat(codecRegistry.readProtocolIdentifier(buffer)).isNull();
+        }
+
+        @Test
+        @DisplayName("Test if an agent identifier bound to an agent handle is written with all its fields by default and read back by another " +
+                "registry")
+        void testAgentIdentifierWithHandleByDefault() {
+            var agentManager = new LocalAgentManager();
+            var managedAgent = new SimaAgent("MANAGED", 0, 11, null);
+            agentManager.addAgent(managedAgent);
+            var buffer = ByteBuffer.allocate(256);
+
+            codecRegistry.writeAgentIdentifier(managedAgent.getAgentIdentifier(), buffer);
+            agentManager.removeAgent(managedAgent);
+
+            buffer.flip();
+            assertThat(buffer.get(0)).isEqualTo((byte) 1);
+            assertThat(new CodecRegistry().readAgentIdentifier(buffer)).isEqualTo(managedAgent.getAgentIdentifier());
+        }
+
+        @Test
+        @DisplayName("Test if an agent identifier bound to an agent handle is written as its handle and its unique id and read back from the agent " +
+                "manager with a registry created with this agent manager")
+        void testAgentIdentifierWithHandle() {
+            var agentManager = new LocalAgentManager();
+            var managedAgent = new SimaAgent("MANAGED", 0, 11, null);
+            agentManager.addAgent(managedAgent);
+            var handleRegistry = new CodecRegistry(agentManager);
+            var buffer = ByteBuffer.allocate(256);
+
+            handleRegistry.writeAgentIdentifier(managedAgent.getAgentIdentifier(), buffer);
+            assertThat(buffer.position()).isEqualTo(3);
+
+            buffer.flip();
+            assertThat(handleRegistry.readAgentIdentifier(buffer)).isSameAs(managedAgent.getAgentIdentifier());
+
+            buffer.rewind();
+            assertThrows(EventCodecException.class, () -> codecRegistry.readAgentIdentifier(buffer));
+
+            buffer.rewind();
+            agentManager.removeAgent(managedAgent);
+            assertThrows(EventCodecException.class, () -> handleRegistry.readAgentIdentifier(buffer));
+        }
+
+        @Test
+        @DisplayName("Test if readAgentIdentifier throws EventCodecException with an agent handle whose agent has another unique id")
+        void testReadAgentHandleWithWrongUniqueId() {
+            var agentManager = new LocalAgentManager();
+            var managedAgent = new SimaAgent("MANAGED", 0, 11, null);
+            agentManager.addAgent(managedAgent);
+            var handleRegistry = new CodecRegistry(agentManager);
+            var buffer = ByteBuffer.wrap(new byte[]{2, (byte) managedAgent.getAgentIdentifier().getAgentHandle(), 12});
+
+            assertThrows(EventCodecException.class, () -> handleRegistry.readAgentIdentifier(buffer));
+        }
+
+        @Test
+        @DisplayName("Test if the constructor throws IllegalArgumentException with a null agent manager")
+        void testConstructorWithNullAgentManager() {
+            assertThrows(IllegalArgumentException.class, () -> new CodecRegistry((AgentManager) null));
+        }
+
+        @Test
+        @DisplayName("Test if readAgentIdentifier throws EventCodecException with a not registered dense id")
+        void testReadNotRegisteredAgent() {
+            var buffer = ByteBuffer.wrap(new byte[]{5});
+            assertThrows(EventCodecException.class, () -> codecRegistry.readAgentIdentifier(buffer));
+        }
+
+    }
+
+    // Inner classes.
+
+    private static class ValueEvent extends Event {
+
+        private final long value;
+
+        ValueEvent(long value, Event content) {
+            super(content);
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ValueEvent that)) return false;
+            if (!super.equals(o)) return false;
+            return value == that.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(super.hashCode(), value);
+        }
+
+        @Override
+        public @NotNull Event duplicate() {
+            return new ValueEvent(value, getContent());
+        }
+    }
+
+    private static class ValueEventCodec implements EventCodec<ValueEvent> {
+
+        @Override
+        public void encode(ValueEvent event, ByteBuffer buffer, CodecRegistry registry) {
+            Codecs.writeSignedVarLong(buffer, event.value);
+            registry.writeEvent(event.getContent(), buffer);
+        }
+
+        @Override
+        public ValueEvent decode(ByteBuffer buffer, CodecRegistry registry) {
+            long value = Codecs.readSignedVarLong(buffer);
+            return new ValueEvent(value, registry.readEvent(buffer));
+        }
+    }
+}
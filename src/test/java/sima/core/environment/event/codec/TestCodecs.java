@@ -0,0 +1,80 @@
+package sima.core.environment.event.codec;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sima.core.exception.EventCodecException;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestCodecs {
+
+    // Tests.
+
+    @Nested
+    @Tag("Codecs.varInt")
+    @DisplayName("Codecs variable length integer tests")
+    class VarIntTest {
+
+        @Test
+        @DisplayName("Test if the variable length ints and longs are read as they are written")
+        void testVarIntRoundTrip() {
+            var buffer = ByteBuffer.allocate(128);
+            int[] ints = {0, 1, 127, 128, 300, Integer.MAX_VALUE, -1};
+            long[] longs = {0L, 1L, Long.MAX_VALUE, -1L, Long.MIN_VALUE};
+            for (int value : ints)
+                Codecs.writeVarInt(buffer, value);
+            for (long value : longs)
+                Codecs.writeSignedVarLong(buffer, value);
+
+            buffer.flip();
+            for (int value : ints)
+                assertThat(Codecs.readVarInt(buffer)).isEqualTo(value);
+            for (long value : longs)
+                assertThat(Codecs.readSignedVarLong(buffer)).isEqualTo(value);
+            assertThat(buffer.hasRemaining()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Test if a small value takes only one byte")
+        void testSmallValueTakesOneByte() {
+            var buffer = ByteBuffer.allocate(16);
+            Codecs.writeVarInt(buffer, 127);
+            Codecs.writeSignedVarLong(buffer, -3L);
+            assertThat(buffer.position()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Test if readVarInt throws EventCodecException with a malformed value")
+        void testReadMalformedVarInt() {
+            var buffer = ByteBuffer.wrap(new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0});
+            assertThrows(EventCodecException.class, () -> Codecs.readVarInt(buffer));
+        }
+
+    }
+
+    @Nested
+    @Tag("Codecs.string")
+    @DisplayName("Codecs string tests")
+    class StringTest {
+
+        @Test
+        @DisplayName("Test if the strings, null included, are read as they are written")
+        void testStringRoundTrip() {
+            var buffer = ByteBuffer.allocate(64);
+            Codecs.writeString(buffer, "agent-é");
+            Codecs.writeString(buffer, null);
+            Codecs.writeString(buffer, "");
+
+            buffer.flip();
+            assertThat(Codecs.readString(buffer)).isEqualTo("agent-é");
+            assertThat(Codecs.readString(buffer)).isNull();
+            assertThat(Codecs.readString(buffer)).isEmpty();
+        }
+
+    }
+}
@@ -7,6 +7,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import sima.core.agent.AgentIdentifier;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -52,6 +56,42 @@ public abstract class TestPhysicalConnectionLayer {
         
     }
     
+    @Nested
+    @Tag("PhysicalConnectionLayer.sendMulticast")
+    @DisplayName("PhysicalConnectionLayer sendMulticast tests")
+    class SendMulticastTest {
+        
+        @Test
+        @DisplayName("Test if the method sendMulticast throws IllegalArgumentException if the initiator, the targets, one target or the physicalEvent is " +
+                "null")
+        void testSendMulticastWithNullArgs() {
+            List<AgentIdentifier> targetsWithNull = new ArrayList<>();
+            targetsWithNull.add(mockAgentTarget);
+            targetsWithNull.add(null);
+            
+            assertThrows(IllegalArgumentException.class,
+                         () -> physicalConnectionLayer.sendMulticast(null, List.of(mockAgentTarget), mockPhysicalEvent));
+            assertThrows(IllegalArgumentException.class, () -> physicalConnectionLayer.sendMulticast(mockAgentInitiator, null, mockPhysicalEvent));
+            assertThrows(IllegalArgumentException.class,
+                         () -> physicalConnectionLayer.sendMulticast(mockAgentInitiator, targetsWithNull, mockPhysicalEvent));
+            assertThrows(IllegalArgumentException.class,
+                         () -> physicalConnectionLayer.sendMulticast(mockAgentInitiator, List.of(mockAgentTarget), null));
+        }
+        
+        @Test
+        @DisplayName("Test if the method sendMulticast does not throw exception with not null args")
+        void testSendMulticastWithNotNullArgs() {
+            assertDoesNotThrow(() -> physicalConnectionLayer.sendMulticast(mockAgentInitiator, List.of(mockAgentTarget), mockPhysicalEvent));
+        }
+        
+        @Test
+        @DisplayName("Test if the method sendMulticast does not throw exception with empty targets")
+        void testSendMulticastWithEmptyTargets() {
+            assertDoesNotThrow(() -> physicalConnectionLayer.sendMulticast(mockAgentInitiator, Collections.emptyList(), mockPhysicalEvent));
+        }
+        
+    }
+    
     @Nested
     @Tag("PhysicalConnectionLayer.hasPhysicalConnection")
     @DisplayName("PhysicalConnectionLayer hasPhysicalConnection tests")
@@ -0,0 +1,275 @@
+package sima.core.environment.physical;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.Environment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class TestPhysicalConnectionLayerPipeline {
+
+    // Variables.
+
+    private AgentIdentifier initiator;
+
+    private AgentIdentifier target;
+
+    @Mock
+    private Environment mockEnvironment;
+
+    @Mock
+    private PhysicalEvent mockPhysicalEvent;
+
+    // Init.
+
+    @BeforeEach
+    void setUp() {
+        initiator = new AgentIdentifier("INITIATOR", 0, 0);
+        target = new AgentIdentifier("TARGET", 1, 1);
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("PhysicalConnectionLayerPipeline.compile")
+    @DisplayName("PhysicalConnectionLayerPipeline compile tests")
+    class CompileTest {
+
+        @Test
+        @DisplayName("Test if compile throws an IllegalArgumentException with a null head")
+        void testCompileWithNullHead() {
+            assertThrows(IllegalArgumentException.class, () -> PhysicalConnectionLayerPipeline.compile(null));
+        }
+
+        @Test
+        @DisplayName("Test if compile throws an IllegalArgumentException if the chain contains a cycle")
+        void testCompileWithCycle() {
+            var first = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            var second = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            first.setNext(second);
+            second.setNext(first);
+
+            assertThrows(IllegalArgumentException.class, () -> PhysicalConnectionLayerPipeline.compile(first));
+        }
+
+        @Test
+        @DisplayName("Test if compile creates one stage per PhysicalConnectionLayer of the chain")
+        void testCompileCreatesOneStagePerPhysicalConnectionLayer() {
+            var first = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            var second = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            first.setNext(second);
+
+            var pipeline = first.compile();
+
+            assertThat(pipeline.getNbStages()).isEqualTo(2);
+            assertThat(pipeline.getHead()).isSameAs(first);
+        }
+
+        @Test
+        @DisplayName("Test if isUpToDate returns false after that the chain has been modified")
+        void testIsUpToDateAfterChainModification() {
+            var first = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            var pipeline = first.compile();
+
+            assertThat(pipeline.isUpToDate()).isTrue();
+
+            first.setNext(new RecordingPhysicalConnectionLayer(mockEnvironment, true, true));
+
+            assertThat(pipeline.isUpToDate()).isFalse();
+            assertThat(first.compile().isUpToDate()).isTrue();
+        }
+
+    }
+
+    @Nested
+    @Tag("PhysicalConnectionLayerPipeline.send")
+    @DisplayName("PhysicalConnectionLayerPipeline send tests")
+    class SendTest {
+
+        @Test
+        @DisplayName("Test if send throws an IllegalArgumentException if the initiator, the target or the physicalEvent is null")
+        void testSendWithNullArgs() {
+            var pipeline = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true).compile();
+
+            assertThrows(IllegalArgumentException.class, () -> pipeline.send(null, target, mockPhysicalEvent));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.send(initiator, null, mockPhysicalEvent));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.send(initiator, target, null));
+        }
+
+        @Test
+        @DisplayName("Test if send runs all stages and only the last stage schedules the PhysicalEvent")
+        void testSendRunsAllStages() {
+            var first = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            var second = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            first.setNext(second);
+
+            first.compile().send(initiator, target, mockPhysicalEvent);
+
+            assertThat(first.nbDecorations).isEqualTo(1);
+            assertThat(second.nbDecorations).isEqualTo(1);
+            assertThat(first.scheduledTargets).isEmpty();
+            assertThat(second.scheduledTargets).containsExactly(target);
+        }
+
+        @Test
+        @DisplayName("Test if send does not decorate the PhysicalEvent with stages which do not decorate")
+        void testSendSkipsNotDecoratingStages() {
+            var first = new RecordingPhysicalConnectionLayer(mockEnvironment, false, true);
+            var second = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            first.setNext(second);
+
+            first.compile().send(initiator, target, mockPhysicalEvent);
+
+            assertThat(first.nbDecorations).isZero();
+            assertThat(second.nbDecorations).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Test if send stops the pipeline at the first stage which cannot send the PhysicalEvent")
+        void testSendStopsAtFirstRefusingStage() {
+            var first = new RecordingPhysicalConnectionLayer(mockEnvironment, true, false);
+            var second = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            first.setNext(second);
+
+            first.compile().send(initiator, target, mockPhysicalEvent);
+
+            assertThat(second.nbDecorations).isZero();
+            assertThat(second.scheduledTargets).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Test if send calls the send of the head if a stage overrides send")
+        void testSendWithOverriddenSend() {
+            var first = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            List<AgentIdentifier> overriddenSends = new ArrayList<>();
+            RecordingPhysicalConnectionLayer second = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true) {
+                @Override
+                public void send(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent) {
+                    overriddenSends.add(target);
+                }
+            };
+            first.setNext(second);
+
+            first.compile().send(initiator, target, mockPhysicalEvent);
+
+            assertThat(first.nbDecorations).isEqualTo(1);
+            assertThat(overriddenSends).containsExactly(target);
+            assertThat(second.scheduledTargets).isEmpty();
+        }
+
+    }
+
+    @Nested
+    @Tag("PhysicalConnectionLayerPipeline.sendMulticast")
+    @DisplayName("PhysicalConnectionLayerPipeline sendMulticast tests")
+    class SendMulticastTest {
+
+        @Test
+        @DisplayName("Test if sendMulticast throws an IllegalArgumentException if the initiator, the targets, one target or the physicalEvent is null")
+        void testSendMulticastWithNullArgs() {
+            var pipeline = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true).compile();
+            List<AgentIdentifier> targetsWithNull = new ArrayList<>();
+            targetsWithNull.add(null);
+
+            assertThrows(IllegalArgumentException.class, () -> pipeline.sendMulticast(null, List.of(target), mockPhysicalEvent));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.sendMulticast(initiator, null, mockPhysicalEvent));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.sendMulticast(initiator, targetsWithNull, mockPhysicalEvent));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.sendMulticast(initiator, List.of(target), null));
+        }
+
+        @Test
+        @DisplayName("Test if sendMulticast decorates one time per stage and the last stage schedules all targets")
+        void testSendMulticastRunsAllStages() {
+            var first = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            var second = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true);
+            first.setNext(second);
+            var other = new AgentIdentifier("OTHER", 2, 2);
+
+            first.compile().sendMulticast(initiator, List.of(target, other), mockPhysicalEvent);
+
+            assertThat(first.nbDecorations).isEqualTo(1);
+            assertThat(second.nbDecorations).isEqualTo(1);
+            assertThat(second.scheduledTargets).containsExactly(target, other);
+        }
+
+        @Test
+        @DisplayName("Test if sendMulticast calls the sendMulticast of the head if a stage overrides sendMulticast")
+        void testSendMulticastWithOverriddenSendMulticast() {
+            List<AgentIdentifier> overriddenSends = new ArrayList<>();
+            RecordingPhysicalConnectionLayer first = new RecordingPhysicalConnectionLayer(mockEnvironment, true, true) {
+                @Override
+                public void sendMulticast(AgentIdentifier initiator, Collection<AgentIdentifier> targets, PhysicalEvent physicalEvent) {
+                    overriddenSends.addAll(targets);
+                }
+            };
+
+            first.compile().sendMulticast(initiator, List.of(target), mockPhysicalEvent);
+
+            assertThat(overriddenSends).containsExactly(target);
+            assertThat(first.nbDecorations).isZero();
+        }
+
+    }
+
+    // Inner classes.
+
+    private static class RecordingPhysicalConnectionLayer extends PhysicalConnectionLayer {
+
+        // Variables.
+
+        private final boolean decorates;
+
+        private final boolean canBeSent;
+
+        private int nbDecorations;
+
+        private final List<AgentIdentifier> scheduledTargets = new ArrayList<>();
+
+        // Constructors.
+
+        RecordingPhysicalConnectionLayer(Environment environment, boolean decorates, boolean canBeSent) {
+            super(environment, Map.of());
+            this.decorates = decorates;
+            this.canBeSent = canBeSent;
+        }
+
+        // Methods.
+
+        @Override
+        protected @NotNull PhysicalEvent decoratePhysicalEvent(PhysicalEvent physicalEvent) {
+            nbDecorations++;
+            return physicalEvent;
+        }
+
+        @Override
+        protected boolean decoratesPhysicalEvent() {
+            return decorates;
+        }
+
+        @Override
+        public boolean hasPhysicalConnection(AgentIdentifier a1, AgentIdentifier a2) {
+            return canBeSent;
+        }
+
+        @Override
+        protected boolean canBeSent(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent) {
+            return canBeSent;
+        }
+
+        @Override
+        protected void scheduleInEnvironment(AgentIdentifier initiator, AgentIdentifier target, PhysicalEvent physicalEvent) {
+            scheduledTargets.add(target);
+        }
+    }
+}
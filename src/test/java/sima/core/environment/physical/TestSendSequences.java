@@ -0,0 +1,72 @@
+package sima.core.environment.physical;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sima.core.simulation.SimaSimulationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestSendSequences {
+
+    // Variables.
+
+    private SendSequences sendSequences;
+
+    // Init.
+
+    @BeforeEach
+    void setUp() {
+        sendSequences = new SendSequences();
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("SendSequences.next")
+    @DisplayName("SendSequences next tests")
+    class NextTest {
+
+        @Test
+        @DisplayName("Test if next throws an IllegalArgumentException with a negative sender")
+        void testNextWithNegativeSender() {
+            assertThrows(IllegalArgumentException.class, () -> sendSequences.next(-1));
+        }
+
+        @Test
+        @DisplayName("Test if next counts the sends of each sender independently")
+        void testNextPerSender() {
+            assertThat(sendSequences.next(0)).isZero();
+            assertThat(sendSequences.next(0)).isEqualTo(1L);
+            assertThat(sendSequences.next(5000)).isZero();
+            assertThat(sendSequences.next(0)).isEqualTo(2L);
+            assertThat(sendSequences.next(5000)).isEqualTo(1L);
+        }
+
+    }
+
+    @Nested
+    @Tag("SendSequences.nextDraw")
+    @DisplayName("SendSequences nextDraw tests")
+    class NextDrawTest {
+
+        @Test
+        @DisplayName("Test if nextDraw gives the same draws for the same seed and the same order of sends")
+        void testNextDrawIsReproducible() {
+            SimaSimulationUtils.setRandomSeed(42L);
+            long first = sendSequences.nextDraw(1);
+            long second = sendSequences.nextDraw(1);
+
+            SimaSimulationUtils.setRandomSeed(42L);
+            var other = new SendSequences();
+
+            assertThat(other.nextDraw(1)).isEqualTo(first);
+            assertThat(other.nextDraw(1)).isEqualTo(second);
+            assertThat(second).isNotEqualTo(first);
+        }
+
+    }
+}
@@ -0,0 +1,177 @@
+package sima.core.population;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestAgentPopulation {
+
+    // Variables.
+
+    private PopulationSchema schema;
+
+    private PopulationSchema.Field opinion;
+    private PopulationSchema.Field lastUpdate;
+    private PopulationSchema.Field energy;
+
+    // Init.
+
+    @BeforeEach
+    void setUp() {
+        schema = new PopulationSchema.Builder().intField("opinion").longField("lastUpdate").doubleField("energy").build();
+        opinion = schema.getField("opinion");
+        lastUpdate = schema.getField("lastUpdate");
+        energy = schema.getField("energy");
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("PopulationSchema.Builder")
+    @DisplayName("PopulationSchema Builder tests")
+    class SchemaTest {
+
+        @Test
+        @DisplayName("Test if the fields are in the declaration order with their type")
+        void testFields() {
+            assertThat(schema.getFields()).containsExactly(opinion, lastUpdate, energy);
+            assertThat(opinion.type()).isEqualTo(PopulationSchema.Type.INT);
+            assertThat(lastUpdate.type()).isEqualTo(PopulationSchema.Type.LONG);
+            assertThat(energy.type()).isEqualTo(PopulationSchema.Type.DOUBLE);
+            assertThat(schema.getMemberSize()).isEqualTo(Integer.BYTES + Long.BYTES + Double.BYTES);
+        }
+
+        @Test
+        @DisplayName("Test if the builder throws an IllegalArgumentException with a null or an already used name")
+        void testBuilderWithWrongName() {
+            var builder = new PopulationSchema.Builder().intField("opinion");
+            assertThrows(IllegalArgumentException.class, () -> builder.intField(null));
+            assertThrows(IllegalArgumentException.class, () -> builder.doubleField("opinion"));
+        }
+
+        @Test
+        @DisplayName("Test if getField throws an IllegalArgumentException with an unknown name")
+        void testGetFieldWithUnknownName() {
+            assertThrows(IllegalArgumentException.class, () -> schema.getField("unknown"));
+        }
+
+    }
+
+    @Nested
+    @Tag("AgentPopulation.constructor")
+    @DisplayName("AgentPopulation constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with a null schema, a null storage or a negative size")
+        void testConstructorWithWrongArgs() {
+            assertThrows(IllegalArgumentException.class, () -> new AgentPopulation(null, 10, AgentPopulation.Storage.HEAP));
+            assertThrows(IllegalArgumentException.class, () -> new AgentPopulation(schema, 10, null));
+            assertThrows(IllegalArgumentException.class, () -> new AgentPopulation(schema, -1, AgentPopulation.Storage.HEAP));
+        }
+
+    }
+
+    @Nested
+    @Tag("AgentPopulation.values")
+    @DisplayName("AgentPopulation values tests")
+    class ValuesTest {
+
+        @ParameterizedTest
+        @EnumSource(AgentPopulation.Storage.class)
+        @DisplayName("Test if the values of a member are stored in the columns of the population")
+        void testSetAndGetValues(AgentPopulation.Storage storage) {
+            var population = new AgentPopulation(schema, 100, storage);
+
+            population.setInt(opinion, 42, 7);
+            population.setLong(lastUpdate, 42, 1L << 40);
+            population.setDouble(energy, 42, 0.5d);
+
+            assertThat(population.getInt(opinion, 42)).isEqualTo(7);
+            assertThat(population.getLong(lastUpdate, 42)).isEqualTo(1L << 40);
+            assertThat(population.getDouble(energy, 42)).isEqualTo(0.5d);
+            assertThat(population.intColumn(opinion).get(42)).isEqualTo(7);
+            assertThat(population.getInt(opinion, 41)).isZero();
+        }
+
+        @Test
+        @DisplayName("Test if the accessors throw an IllegalArgumentException with a field of another type or of another schema")
+        void testAccessWithWrongField() {
+            var population = new AgentPopulation(schema, 10, AgentPopulation.Storage.HEAP);
+            var otherField = new PopulationSchema.Builder().intField("opinion").build().getField("opinion");
+
+            assertThrows(IllegalArgumentException.class, () -> population.getInt(energy, 0));
+            assertThrows(IllegalArgumentException.class, () -> population.doubleColumn(opinion));
+            assertThrows(IllegalArgumentException.class, () -> population.getInt(otherField, 0));
+        }
+
+        @Test
+        @DisplayName("Test if the accessors throw an IndexOutOfBoundsException with a member which is not in the population")
+        void testAccessWithWrongMember() {
+            var population = new AgentPopulation(schema, 10, AgentPopulation.Storage.HEAP);
+
+            assertThrows(IndexOutOfBoundsException.class, () -> population.getInt(opinion, 10));
+            assertThat(population.containsMember(10)).isFalse();
+            assertThat(population.containsMember(9)).isTrue();
+        }
+
+    }
+
+    @Nested
+    @Tag("AgentPopulation.forEachRange")
+    @DisplayName("AgentPopulation forEachRange tests")
+    class ForEachRangeTest {
+
+        @ParameterizedTest
+        @EnumSource(AgentPopulation.Storage.class)
+        @DisplayName("Test if forEachRange applies the kernel one time on each member")
+        void testForEachRange(AgentPopulation.Storage storage) {
+            int size = AgentPopulation.CHUNK_SIZE * 10 + 17;
+            var population = new AgentPopulation(schema, size, storage);
+            var opinions = population.intColumn(opinion);
+            var nbRanges = new AtomicInteger();
+
+            population.forEachRange((from, to) -> {
+                nbRanges.incrementAndGet();
+                for (int member = from; member < to; member++)
+                    opinions.put(member, opinions.get(member) + member);
+            });
+
+            for (int member = 0; member < size; member++)
+                assertThat(population.getInt(opinion, member)).isEqualTo(member);
+            assertThat(nbRanges.get()).isGreaterThan(1);
+        }
+
+        @Test
+        @DisplayName("Test if forEachRange applies the kernel on one range for a small population")
+        void testForEachRangeWithSmallPopulation() {
+            var population = new AgentPopulation(schema, 10, AgentPopulation.Storage.HEAP);
+            var nbRanges = new AtomicInteger();
+
+            population.forEachRange((from, to) -> {
+                assertThat(from).isZero();
+                assertThat(to).isEqualTo(10);
+                nbRanges.incrementAndGet();
+            });
+
+            assertThat(nbRanges.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Test if forEachRange throws an IllegalArgumentException with a null kernel")
+        void testForEachRangeWithNullKernel() {
+            var population = new AgentPopulation(schema, 10, AgentPopulation.Storage.HEAP);
+            assertThrows(IllegalArgumentException.class, () -> population.forEachRange(null));
+        }
+
+    }
+}
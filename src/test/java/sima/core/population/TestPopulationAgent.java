@@ -0,0 +1,143 @@
+package sima.core.population;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.environment.Environment;
+import sima.core.environment.event.Event;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.standard.environment.message.StringMessage;
+import sima.standard.pubsub.PubSubProtocol;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static sima.testing.simulation.HandleBindingAgentManager.bindAgentHandle;
+
+@ExtendWith(MockitoExtension.class)
+public class TestPopulationAgent {
+
+    // Variables.
+
+    private PopulationAgent populationAgent;
+
+    private final ProtocolIdentifier intendedProtocol = new ProtocolIdentifier(PubSubProtocol.class, "PUBSUB");
+
+    @Mock
+    private Environment mockEnvironment;
+
+    // Init.
+
+    @BeforeEach
+    void setUp() {
+        var schema = new PopulationSchema.Builder().intField("opinion").build();
+        populationAgent = new PopulationAgent("POPULATION", 0, 0, null, new AgentPopulation(schema, 100, AgentPopulation.Storage.HEAP));
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("PopulationAgent.memberHandle")
+    @DisplayName("PopulationAgent memberHandle tests")
+    class MemberHandleTest {
+
+        @Test
+        @DisplayName("Test if a member handle packs the agent handle and the member")
+        void testMemberHandle() {
+            long memberHandle = PopulationAgent.memberHandle(Integer.MAX_VALUE, 99);
+
+            assertThat(PopulationAgent.agentHandleOf(memberHandle)).isEqualTo(Integer.MAX_VALUE);
+            assertThat(PopulationAgent.memberOf(memberHandle)).isEqualTo(99);
+        }
+
+        @Test
+        @DisplayName("Test if memberHandle uses the agent handle of the population agent")
+        void testMemberHandleOfAgent() {
+            bindAgentHandle(populationAgent.getAgentIdentifier(), 3);
+
+            assertThat(PopulationAgent.agentHandleOf(populationAgent.memberHandle(5))).isEqualTo(3);
+            assertThat(PopulationAgent.memberOf(populationAgent.memberHandle(5))).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Test if memberHandle throws an exception if the member is not in the population or if the agent has no handle")
+        void testMemberHandleWithWrongState() {
+            assertThrows(IllegalStateException.class, () -> populationAgent.memberHandle(5));
+            bindAgentHandle(populationAgent.getAgentIdentifier(), 3);
+            assertThrows(IllegalArgumentException.class, () -> populationAgent.memberHandle(100));
+        }
+
+    }
+
+    @Nested
+    @Tag("PopulationAgent.sendToMember")
+    @DisplayName("PopulationAgent sendToMember tests")
+    class SendToMemberTest {
+
+        @Test
+        @DisplayName("Test if sendToMember assigns a MemberEvent on the population agent")
+        void testSendToMember() {
+            var event = new StringMessage("hello", intendedProtocol);
+
+            PopulationAgent.sendToMember(mockEnvironment, 1, PopulationAgent.memberHandle(3, 42), event, 5L);
+
+            verify(mockEnvironment).assignEventOn(eq(1), eq(3), eq(new MemberEvent(42, event)), eq(5L));
+        }
+
+    }
+
+    @Nested
+    @Tag("PopulationAgent.processEvent")
+    @DisplayName("PopulationAgent processEvent tests")
+    class ProcessEventTest {
+
+        @Test
+        @DisplayName("Test if a MemberEvent is given to the MemberEventHandler with its member")
+        void testProcessMemberEvent() {
+            List<Integer> members = new ArrayList<>();
+            List<Event> events = new ArrayList<>();
+            populationAgent.setMemberEventHandler((member, event) -> {
+                members.add(member);
+                events.add(event);
+            });
+            var event = new StringMessage("hello", intendedProtocol);
+            populationAgent.start();
+
+            populationAgent.processEvent(new MemberEvent(42, event));
+            populationAgent.processEvents(List.of(new MemberEvent(1, event), new MemberEvent(2, event)));
+
+            assertThat(members).containsExactly(42, 1, 2);
+            assertThat(events).containsOnly(event);
+        }
+
+        @Test
+        @DisplayName("Test if processEvent throws an exception if the member is not in the population or if there is no handler")
+        void testProcessMemberEventWithWrongState() {
+            var event = new StringMessage("hello", intendedProtocol);
+            populationAgent.start();
+
+            assertThrows(UnsupportedOperationException.class, () -> populationAgent.processEvent(new MemberEvent(1, event)));
+            populationAgent.setMemberEventHandler((member, memberEvent) -> {
+            });
+            assertThrows(IllegalArgumentException.class, () -> populationAgent.processEvent(new MemberEvent(100, event)));
+        }
+
+        @Test
+        @DisplayName("Test if MemberEvent throws an IllegalArgumentException with a negative member or a null event")
+        void testMemberEventWithWrongArgs() {
+            var event = new StringMessage("hello", intendedProtocol);
+            assertThrows(IllegalArgumentException.class, () -> new MemberEvent(-1, event));
+            assertThrows(IllegalArgumentException.class, () -> new MemberEvent(1, null));
+        }
+
+    }
+}
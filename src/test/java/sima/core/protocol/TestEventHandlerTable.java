@@ -0,0 +1,84 @@
+package sima.core.protocol;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.event.Event;
+import sima.standard.environment.message.Message;
+import sima.standard.environment.message.StringMessage;
+import sima.testing.protocol.CorrectProtocol0;
+import sima.testing.protocol.EventHandlerProtocol;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestEventHandlerTable {
+    
+    // Variables.
+    
+    private EventHandlerProtocol eventHandlerProtocol;
+    
+    @Mock
+    private SimaAgent mockSimaAgent;
+    
+    @Mock
+    private Event mockEvent;
+    
+    // Init.
+    
+    @BeforeEach
+    void setUp() {
+        eventHandlerProtocol = new EventHandlerProtocol("TAG", mockSimaAgent, null);
+    }
+    
+    // Tests.
+    
+    @Nested
+    @Tag("EventHandlerTable.of")
+    @DisplayName("EventHandlerTable of tests")
+    class OfTest {
+        
+        @Test
+        @DisplayName("Test if of returns the same table for the same protocol class")
+        void testOfWithSameProtocolClass() {
+            assertSame(EventHandlerTable.of(EventHandlerProtocol.class), EventHandlerTable.of(EventHandlerProtocol.class));
+        }
+        
+        @Test
+        @DisplayName("Test if of returns an empty table for a protocol class without EventHandler")
+        void testOfWithProtocolClassWithoutEventHandler() {
+            assertTrue(EventHandlerTable.of(CorrectProtocol0.class).isEmpty());
+            assertFalse(EventHandlerTable.of(EventHandlerProtocol.class).isEmpty());
+        }
+        
+    }
+    
+    @Nested
+    @Tag("EventHandlerTable.handle")
+    @DisplayName("EventHandlerTable handle tests")
+    class HandleTest {
+        
+        @Test
+        @DisplayName("Test if processEvent calls the handler with the most specific parameter type")
+        void testProcessEventCallsMostSpecificHandler() {
+            ProtocolIdentifier intendedProtocol = eventHandlerProtocol.getIdentifier();
+            
+            eventHandlerProtocol.processEvent(new Message(null, intendedProtocol));
+            eventHandlerProtocol.processEvent(new StringMessage("CONTENT", intendedProtocol));
+            eventHandlerProtocol.processEvent(new StringMessage("CONTENT", intendedProtocol));
+            
+            assertEquals(1, eventHandlerProtocol.getNbMessageHandled());
+            assertEquals(2, eventHandlerProtocol.getNbStringMessageHandled());
+        }
+        
+        @Test
+        @DisplayName("Test if processEvent throws an UnsupportedOperationException if there is no handler for the event")
+        void testProcessEventWithoutHandler() {
+            assertThrows(UnsupportedOperationException.class, () -> eventHandlerProtocol.processEvent(mockEvent));
+        }
+        
+    }
+    
+}
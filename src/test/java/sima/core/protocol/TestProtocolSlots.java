@@ -0,0 +1,50 @@
+package sima.core.protocol;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sima.testing.protocol.CorrectProtocol0;
+import sima.testing.protocol.CorrectProtocol1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestProtocolSlots {
+    
+    // Tests.
+    
+    @Nested
+    @Tag("ProtocolSlots.slotOf")
+    @DisplayName("ProtocolSlots slotOf tests")
+    class SlotOfTest {
+        
+        @Test
+        @DisplayName("Test if slotOf throws a NullPointerException with a null ProtocolIdentifier")
+        void testSlotOfWithNull() {
+            assertThrows(NullPointerException.class, () -> ProtocolSlots.slotOf(null));
+        }
+        
+        @Test
+        @DisplayName("Test if slotOf returns the same slot for two equal ProtocolIdentifier")
+        void testSlotOfWithEqualProtocolIdentifier() {
+            int slot0 = ProtocolSlots.slotOf(new ProtocolIdentifier(CorrectProtocol0.class, "TAG"));
+            int slot1 = ProtocolSlots.slotOf(new ProtocolIdentifier(CorrectProtocol0.class, "TAG"));
+            assertEquals(slot0, slot1);
+        }
+        
+        @Test
+        @DisplayName("Test if slotOf returns different slots for different ProtocolIdentifier which are never NO_SLOT")
+        void testSlotOfWithDifferentProtocolIdentifier() {
+            int slot0 = ProtocolSlots.slotOf(new ProtocolIdentifier(CorrectProtocol0.class, "TAG"));
+            int slot1 = ProtocolSlots.slotOf(new ProtocolIdentifier(CorrectProtocol1.class, "TAG"));
+            int slot2 = ProtocolSlots.slotOf(new ProtocolIdentifier(CorrectProtocol0.class, "OTHER_TAG"));
+            assertNotEquals(slot0, slot1);
+            assertNotEquals(slot0, slot2);
+            assertNotEquals(slot1, slot2);
+            assertNotEquals(ProtocolSlots.NO_SLOT, slot0);
+            assertTrue(slot2 < ProtocolSlots.slotBound());
+        }
+        
+    }
+    
+}
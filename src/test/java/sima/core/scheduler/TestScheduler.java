@@ -8,6 +8,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import sima.core.agent.AgentIdentifier;
 import sima.core.environment.event.Event;
 import sima.core.exception.*;
+import sima.core.scheduler.executor.CancellableExecutable;
 import sima.core.scheduler.executor.Executable;
 import sima.core.scheduler.executor.MultiThreadExecutor;
 
@@ -565,6 +566,23 @@ public abstract class TestScheduler {
                 assertThrows(IllegalArgumentException.class, () -> scheduler.scheduleExecutableOnce(mockExecutable, -1));
             }
 
+            @Test
+            @DisplayName("Test if a CancellableExecutable cancelled before its time is not executed")
+            void testScheduleExecutableOnceWithCancelledExecutable() {
+                // GIVEN
+                var cancellable = new CancellableExecutable(mockExecutable);
+
+                // WHEN
+                prepareSchedulerForWatchingItsKill();
+                scheduler.scheduleExecutableOnce(cancellable, Scheduler.NOW);
+                cancellable.cancel();
+                scheduler.start();
+
+                // THEN
+                waitSchedulerKill();
+                verify(mockExecutable, never()).execute();
+            }
+
         }
 
         @Nested
@@ -0,0 +1,76 @@
+package sima.core.scheduler.executor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestCancellableExecutable {
+
+    // Tests.
+
+    @Nested
+    @Tag("CancellableExecutable.constructor")
+    @DisplayName("CancellableExecutable constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with a null executable")
+        void testConstructorWithNullExecutable() {
+            assertThrows(IllegalArgumentException.class, () -> new CancellableExecutable(null));
+            assertThrows(IllegalArgumentException.class, () -> new CancellableExecutable(null, () -> {}));
+        }
+
+    }
+
+    @Nested
+    @Tag("CancellableExecutable.execute")
+    @DisplayName("CancellableExecutable execute tests")
+    class ExecuteTest {
+
+        @Test
+        @DisplayName("Test if execute executes the wrapped executable only once and a later cancel does nothing")
+        void testExecuteOnce() {
+            var nbExecutions = new AtomicInteger();
+            var nbCancels = new AtomicInteger();
+            var cancellable = new CancellableExecutable(nbExecutions::incrementAndGet, nbCancels::incrementAndGet);
+
+            cancellable.execute();
+            cancellable.execute();
+
+            assertThat(nbExecutions.get()).isEqualTo(1);
+            assertThat(cancellable.cancel()).isFalse();
+            assertThat(cancellable.isCancelled()).isFalse();
+            assertThat(nbCancels.get()).isZero();
+        }
+
+    }
+
+    @Nested
+    @Tag("CancellableExecutable.cancel")
+    @DisplayName("CancellableExecutable cancel tests")
+    class CancelTest {
+
+        @Test
+        @DisplayName("Test if a cancelled executable is never executed and calls its onCancel only once")
+        void testCancelBeforeExecution() {
+            var nbExecutions = new AtomicInteger();
+            var nbCancels = new AtomicInteger();
+            var cancellable = new CancellableExecutable(nbExecutions::incrementAndGet, nbCancels::incrementAndGet);
+
+            assertThat(cancellable.cancel()).isTrue();
+            assertThat(cancellable.cancel()).isFalse();
+            cancellable.execute();
+
+            assertThat(cancellable.isCancelled()).isTrue();
+            assertThat(nbExecutions.get()).isZero();
+            assertThat(nbCancels.get()).isEqualTo(1);
+        }
+
+    }
+}
@@ -1,13 +1,36 @@
 package sima.core.scheduler.multithread;
 
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.event.Event;
+import sima.core.exception.InboxOverflowException;
 import sima.core.scheduler.Scheduler;
+import sima.core.simulation.SimaSimulation;
+import sima.core.state.BufferedIntState;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static sima.core.TestSima.mockSimaSimulation;
+import static sima.testing.simulation.HandleBindingAgentManager.bindAgentHandle;
 
 @ExtendWith(MockitoExtension.class)
 public class TestDiscreteTimeMultiThreadScheduler extends TestMultiThreadScheduler {
@@ -16,6 +39,12 @@ public class TestDiscreteTimeMultiThreadScheduler extends TestMultiThreadSchedul
     
     protected DiscreteTimeMultiThreadScheduler discreteTimeMultiThreadScheduler;
     
+    @Mock
+    private SimaAgent mockSimaAgent;
+    
+    @Mock
+    private Event mockEvent;
+    
     // Init.
     
     @BeforeEach
@@ -66,4 +95,395 @@ public class TestDiscreteTimeMultiThreadScheduler extends TestMultiThreadSchedul
         
     }
     
+    @Nested
+    @Tag("DiscreteTimeMultiThreadScheduler.getNbPurgedEvents")
+    @DisplayName("DiscreteTimeMultiThreadScheduler getNbPurgedEvents tests")
+    class GetNbPurgedEventsTest {
+        
+        @ParameterizedTest
+        @EnumSource(Scheduler.EventDeliveryMode.class)
+        @DisplayName("Test if events scheduled for a killed agent are not delivered and are counted as purged")
+        void testEventsForKilledAgentArePurged(Scheduler.EventDeliveryMode eventDeliveryMode) {
+            AgentIdentifier agentIdentifier = new AgentIdentifier("AGENT", 0, 0);
+            discreteTimeMultiThreadScheduler = new DiscreteTimeMultiThreadScheduler(20L, 2);
+            discreteTimeMultiThreadScheduler.setEventDeliveryMode(eventDeliveryMode);
+            when(mockSimaAgent.isKilled()).thenReturn(true);
+            
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(() -> SimaSimulation.getAgent(any(AgentIdentifier.class))).thenReturn(mockSimaAgent);
+                
+                discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, mockEvent, 5);
+                discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, mockEvent, 5);
+                discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, mockEvent, 10);
+            }
+            
+            discreteTimeMultiThreadScheduler.start();
+            await().until(discreteTimeMultiThreadScheduler::isKilled);
+            
+            verify(mockSimaAgent, never()).processEvent(any());
+            verify(mockSimaAgent, never()).processEvents(anyList());
+            assertThat(discreteTimeMultiThreadScheduler.getNbPurgedEvents()).isEqualTo(3L);
+        }
+        
+    }
+    
+    @Nested
+    @Tag("DiscreteTimeMultiThreadScheduler.eventDeliveryMode")
+    @DisplayName("DiscreteTimeMultiThreadScheduler eventDeliveryMode tests")
+    class EventDeliveryModeTest {
+        
+        @Test
+        @DisplayName("Test if the default EventDeliveryMode is PER_EVENT")
+        void testDefaultEventDeliveryMode() {
+            assertThat(discreteTimeMultiThreadScheduler.getEventDeliveryMode()).isEqualTo(Scheduler.EventDeliveryMode.PER_EVENT);
+        }
+        
+        @Test
+        @DisplayName("Test if setEventDeliveryMode throws a NullPointerException with null EventDeliveryMode")
+        void testSetEventDeliveryModeWithNull() {
+            assertThrows(NullPointerException.class, () -> discreteTimeMultiThreadScheduler.setEventDeliveryMode(null));
+        }
+        
+        @Test
+        @DisplayName("Test if in BATCHED mode, events for the same agent at the same time are processed in one batch")
+        @SuppressWarnings("unchecked")
+        void testBatchedEventDelivery() {
+            AgentIdentifier agentIdentifier = new AgentIdentifier("AGENT", 0, 0);
+            discreteTimeMultiThreadScheduler = new DiscreteTimeMultiThreadScheduler(20L, 2);
+            discreteTimeMultiThreadScheduler.setEventDeliveryMode(Scheduler.EventDeliveryMode.BATCHED);
+            
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(() -> SimaSimulation.getAgent(any(AgentIdentifier.class))).thenReturn(mockSimaAgent);
+                
+                discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, mockEvent, 5);
+                discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, mockEvent, 5);
+                discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, mockEvent, 5);
+                discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, mockEvent, 10);
+            }
+            
+            discreteTimeMultiThreadScheduler.start();
+            await().until(discreteTimeMultiThreadScheduler::isKilled);
+            
+            verify(mockSimaAgent, times(1)).processEvents(argThat((List<Event> events) -> events.size() == 3));
+            verify(mockSimaAgent, times(1)).processEvent(mockEvent);
+        }
+        
+        @Test
+        @DisplayName("Test if in BATCHED mode, scheduleEvent throws an IllegalArgumentException if the target is not found or the waiting time is " +
+                "less than NOW")
+        void testBatchedEventDeliveryWithIllegalArguments() {
+            AgentIdentifier agentIdentifier = new AgentIdentifier("AGENT", 0, 0);
+            discreteTimeMultiThreadScheduler.setEventDeliveryMode(Scheduler.EventDeliveryMode.BATCHED);
+            
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(() -> SimaSimulation.getAgent(agentIdentifier)).thenReturn(null);
+                simaSimulationMockedStatic.when(() -> SimaSimulation.getAgentByHandle(0)).thenReturn(mockSimaAgent);
+                
+                assertThrows(IllegalArgumentException.class, () -> discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, mockEvent, 5));
+                assertThrows(IllegalArgumentException.class, () -> discreteTimeMultiThreadScheduler.scheduleEvent(0, mockEvent, 0));
+            }
+        }
+        
+        @ParameterizedTest
+        @EnumSource(Scheduler.EventDeliveryMode.class)
+        @DisplayName("Test if scheduleEvent does not search a not materialized agent, neither with its identifier nor with its agent handle")
+        void testScheduleEventForLazyAgent(Scheduler.EventDeliveryMode eventDeliveryMode) {
+            AgentIdentifier agentIdentifier = new AgentIdentifier("LAZY_AGENT", 0, 0);
+            bindAgentHandle(agentIdentifier, 3);
+            discreteTimeMultiThreadScheduler.setEventDeliveryMode(eventDeliveryMode);
+            
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(() -> SimaSimulation.getLazyAgentIdentifier(3)).thenReturn(agentIdentifier);
+                
+                discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, mockEvent, 5);
+                discreteTimeMultiThreadScheduler.scheduleEvent(3, mockEvent, 5);
+                
+                simaSimulationMockedStatic.verify(() -> SimaSimulation.getAgent(any(AgentIdentifier.class)), never());
+                simaSimulationMockedStatic.verify(() -> SimaSimulation.getAgentByHandle(anyInt()), never());
+            }
+        }
+        
+    }
+    
+    @Nested
+    @Tag("DiscreteTimeMultiThreadScheduler.inboxCapacity")
+    @DisplayName("DiscreteTimeMultiThreadScheduler inboxCapacity tests")
+    class InboxCapacityTest {
+        
+        private AgentIdentifier agentIdentifier;
+        
+        private Event event1;
+        private Event event2;
+        private Event event3;
+        
+        @BeforeEach
+        void setUp() {
+            agentIdentifier = new AgentIdentifier("AGENT", 0, 0);
+            lenient().when(mockSimaAgent.getAgentIdentifier()).thenReturn(agentIdentifier);
+            event1 = mock(Event.class);
+            event2 = mock(Event.class);
+            event3 = mock(Event.class);
+            discreteTimeMultiThreadScheduler = new DiscreteTimeMultiThreadScheduler(20L, 2);
+        }
+        
+        private void scheduleEvents(long... waitingTimes) {
+            Event[] events = {event1, event2, event3};
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(() -> SimaSimulation.getAgent(any(AgentIdentifier.class))).thenReturn(mockSimaAgent);
+                
+                for (int i = 0; i < waitingTimes.length; i++)
+                    discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, events[i], waitingTimes[i]);
+            }
+        }
+        
+        private void runSimulation() {
+            discreteTimeMultiThreadScheduler.start();
+            await().until(discreteTimeMultiThreadScheduler::isKilled);
+        }
+        
+        @Test
+        @DisplayName("Test if by default the inbox is unbounded and the overflow policy is DROP_NEWEST")
+        void testDefaultInboxBound() {
+            assertThat(discreteTimeMultiThreadScheduler.getInboxCapacity()).isEqualTo(Scheduler.UNBOUNDED_INBOX);
+            assertThat(discreteTimeMultiThreadScheduler.getInboxOverflowPolicy()).isEqualTo(Scheduler.InboxOverflowPolicy.DROP_NEWEST);
+        }
+        
+        @Test
+        @DisplayName("Test if setInboxCapacity throws an IllegalArgumentException with a negative capacity")
+        void testSetInboxCapacityWithNegativeCapacity() {
+            assertThrows(IllegalArgumentException.class, () -> discreteTimeMultiThreadScheduler.setInboxCapacity(-1));
+        }
+        
+        @Test
+        @DisplayName("Test if setInboxOverflowPolicy throws a NullPointerException with null policy")
+        void testSetInboxOverflowPolicyWithNull() {
+            assertThrows(NullPointerException.class, () -> discreteTimeMultiThreadScheduler.setInboxOverflowPolicy(null));
+        }
+        
+        @Test
+        @DisplayName("Test if getNbPendingEvents counts the scheduled events which are not yet delivered")
+        void testGetNbPendingEvents() {
+            discreteTimeMultiThreadScheduler.setInboxCapacity(5);
+            
+            scheduleEvents(5, 6);
+            
+            assertThat(discreteTimeMultiThreadScheduler.getNbPendingEvents(mockSimaAgent)).isEqualTo(2);
+            runSimulation();
+            assertThat(discreteTimeMultiThreadScheduler.getNbPendingEvents(mockSimaAgent)).isZero();
+        }
+        
+        @ParameterizedTest
+        @EnumSource(Scheduler.EventDeliveryMode.class)
+        @DisplayName("Test if with DROP_NEWEST, the events scheduled for a full inbox are dropped")
+        void testDropNewest(Scheduler.EventDeliveryMode eventDeliveryMode) {
+            discreteTimeMultiThreadScheduler.setEventDeliveryMode(eventDeliveryMode);
+            discreteTimeMultiThreadScheduler.setInboxCapacity(2);
+            
+            scheduleEvents(5, 6, 7);
+            runSimulation();
+            
+            verify(mockSimaAgent, times(1)).processEvent(event1);
+            verify(mockSimaAgent, times(1)).processEvent(event2);
+            verify(mockSimaAgent, never()).processEvent(event3);
+            assertThat(discreteTimeMultiThreadScheduler.getNbDroppedEvents()).isEqualTo(1L);
+            assertThat(discreteTimeMultiThreadScheduler.getNbDroppedEvents(mockSimaAgent)).isEqualTo(1L);
+        }
+        
+        @ParameterizedTest
+        @EnumSource(Scheduler.EventDeliveryMode.class)
+        @DisplayName("Test if with DROP_OLDEST, the oldest pending event is dropped to make room for the new one")
+        void testDropOldest(Scheduler.EventDeliveryMode eventDeliveryMode) {
+            discreteTimeMultiThreadScheduler.setEventDeliveryMode(eventDeliveryMode);
+            discreteTimeMultiThreadScheduler.setInboxCapacity(2);
+            discreteTimeMultiThreadScheduler.setInboxOverflowPolicy(Scheduler.InboxOverflowPolicy.DROP_OLDEST);
+            
+            scheduleEvents(5, 5, 6);
+            runSimulation();
+            
+            verify(mockSimaAgent, never()).processEvent(event1);
+            verify(mockSimaAgent, times(1)).processEvent(event2);
+            verify(mockSimaAgent, times(1)).processEvent(event3);
+            assertThat(discreteTimeMultiThreadScheduler.getNbDroppedEvents()).isEqualTo(1L);
+        }
+        
+        @Test
+        @DisplayName("Test if with DELAY_TO_NEXT_STEP, the event scheduled for a full inbox is delivered once the inbox has room")
+        void testDelayToNextStep() {
+            discreteTimeMultiThreadScheduler.setInboxCapacity(1);
+            discreteTimeMultiThreadScheduler.setInboxOverflowPolicy(Scheduler.InboxOverflowPolicy.DELAY_TO_NEXT_STEP);
+            
+            scheduleEvents(3, 1);
+            runSimulation();
+            
+            verify(mockSimaAgent, times(1)).processEvent(event1);
+            verify(mockSimaAgent, times(1)).processEvent(event2);
+            assertThat(discreteTimeMultiThreadScheduler.getNbDroppedEvents()).isZero();
+            assertThat(discreteTimeMultiThreadScheduler.getNbDelayedEvents()).isPositive();
+        }
+        
+        @Test
+        @DisplayName("Test if with DROP_OLDEST, the dropped event is released before its delivery time")
+        void testDropOldestReleasesDroppedEvent() {
+            discreteTimeMultiThreadScheduler.setInboxCapacity(1);
+            discreteTimeMultiThreadScheduler.setInboxOverflowPolicy(Scheduler.InboxOverflowPolicy.DROP_OLDEST);
+            
+            WeakReference<Event> droppedEvent = scheduleDroppedEvent();
+            
+            await().atMost(Duration.ofSeconds(10)).until(() -> {
+                System.gc();
+                return droppedEvent.get() == null;
+            });
+            assertThat(discreteTimeMultiThreadScheduler.getNbPendingEvents(mockSimaAgent)).isEqualTo(1);
+        }
+        
+        /**
+         * Schedules an event which is dropped by the next one. The dropped event is only referenced by the scheduler.
+         */
+        private WeakReference<Event> scheduleDroppedEvent() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(() -> SimaSimulation.getAgent(any(AgentIdentifier.class))).thenReturn(mockSimaAgent);
+                Event event = new Event(null) {
+                    @Override
+                    public @NotNull Event duplicate() {
+                        return this;
+                    }
+                };
+                discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, event, 5);
+                discreteTimeMultiThreadScheduler.scheduleEvent(agentIdentifier, event1, 5);
+                return new WeakReference<>(event);
+            }
+        }
+        
+        @Test
+        @DisplayName("Test if with DELAY_TO_NEXT_STEP, the events delayed for an agent during a step are scheduled again by only one executable")
+        void testDelayToNextStepCoalescesEvents() {
+            discreteTimeMultiThreadScheduler = spy(discreteTimeMultiThreadScheduler);
+            discreteTimeMultiThreadScheduler.setInboxCapacity(1);
+            discreteTimeMultiThreadScheduler.setInboxOverflowPolicy(Scheduler.InboxOverflowPolicy.DELAY_TO_NEXT_STEP);
+            
+            scheduleEvents(3, 5, 5);
+            verify(discreteTimeMultiThreadScheduler, times(1)).scheduleExecutableOnce(any(), eq(Scheduler.NOW));
+            assertThat(discreteTimeMultiThreadScheduler.getNbDelayedEvents()).isEqualTo(2L);
+            
+            runSimulation();
+            verify(mockSimaAgent, times(1)).processEvent(event1);
+            verify(mockSimaAgent, times(1)).processEvent(event2);
+            verify(mockSimaAgent, times(1)).processEvent(event3);
+        }
+        
+        @Test
+        @DisplayName("Test if releaseAgent forgets the inbox of the agent without cancelling its pending events")
+        void testReleaseAgent() {
+            discreteTimeMultiThreadScheduler.setInboxCapacity(5);
+            discreteTimeMultiThreadScheduler.setInboxOverflowPolicy(Scheduler.InboxOverflowPolicy.DROP_NEWEST);
+            
+            scheduleEvents(5, 6);
+            discreteTimeMultiThreadScheduler.releaseAgent(mockSimaAgent);
+            
+            assertThat(discreteTimeMultiThreadScheduler.getNbPendingEvents(mockSimaAgent)).isZero();
+            runSimulation();
+            verify(mockSimaAgent, times(1)).processEvent(event1);
+            verify(mockSimaAgent, times(1)).processEvent(event2);
+            assertThat(discreteTimeMultiThreadScheduler.getNbPendingEvents(mockSimaAgent)).isZero();
+        }
+        
+        @Test
+        @DisplayName("Test if an event scheduled for a killed agent is purged without creating its inbox")
+        void testScheduleEventForKilledAgent() {
+            discreteTimeMultiThreadScheduler.setInboxCapacity(5);
+            when(mockSimaAgent.isKilled()).thenReturn(true);
+            
+            scheduleEvents(5);
+            
+            assertThat(discreteTimeMultiThreadScheduler.getNbPendingEvents(mockSimaAgent)).isZero();
+            assertThat(discreteTimeMultiThreadScheduler.getNbPurgedEvents()).isEqualTo(1L);
+        }
+        
+        @Test
+        @DisplayName("Test if with FAIL_SENDER, scheduleEvent throws an InboxOverflowException for a full inbox")
+        void testFailSender() {
+            discreteTimeMultiThreadScheduler.setInboxCapacity(1);
+            discreteTimeMultiThreadScheduler.setInboxOverflowPolicy(Scheduler.InboxOverflowPolicy.FAIL_SENDER);
+            
+            scheduleEvents(5);
+            assertThrows(InboxOverflowException.class, () -> scheduleEvents(5, 5));
+            assertThat(discreteTimeMultiThreadScheduler.getNbDroppedEvents()).isEqualTo(1L);
+        }
+        
+    }
+    
+    @Nested
+    @Tag("DiscreteTimeMultiThreadScheduler.stepBarrierListener")
+    @DisplayName("DiscreteTimeMultiThreadScheduler stepBarrierListener tests")
+    class StepBarrierListenerTest {
+        
+        @BeforeEach
+        void setUp() {
+            discreteTimeMultiThreadScheduler = new DiscreteTimeMultiThreadScheduler(20L, 4);
+        }
+        
+        @Test
+        @DisplayName("Test if addStepBarrierListener returns false with a null or an already added listener")
+        void testAddStepBarrierListenerWithWrongListener() {
+            Scheduler.StepBarrierListener listener = finishedStep -> {
+            };
+            
+            assertThat(discreteTimeMultiThreadScheduler.addStepBarrierListener(null)).isFalse();
+            assertThat(discreteTimeMultiThreadScheduler.addStepBarrierListener(listener)).isTrue();
+            assertThat(discreteTimeMultiThreadScheduler.addStepBarrierListener(listener)).isFalse();
+        }
+        
+        @Test
+        @DisplayName("Test if the listener is notified once at the end of each step with executables")
+        void testListenerNotifiedAtEachStep() {
+            List<Long> finishedSteps = new CopyOnWriteArrayList<>();
+            discreteTimeMultiThreadScheduler.addStepBarrierListener(finishedSteps::add);
+            for (int i = 0; i < 10; i++) {
+                discreteTimeMultiThreadScheduler.scheduleExecutableOnce(() -> {
+                }, 2);
+            }
+            discreteTimeMultiThreadScheduler.scheduleExecutableOnce(() -> {
+            }, 5);
+            
+            discreteTimeMultiThreadScheduler.start();
+            await().until(discreteTimeMultiThreadScheduler::isKilled);
+            
+            assertThat(finishedSteps).isEqualTo(List.of(2L, 5L));
+        }
+        
+        @Test
+        @DisplayName("Test if a removed listener is not notified")
+        void testRemoveStepBarrierListener() {
+            List<Long> finishedSteps = new CopyOnWriteArrayList<>();
+            Scheduler.StepBarrierListener listener = finishedSteps::add;
+            discreteTimeMultiThreadScheduler.addStepBarrierListener(listener);
+            discreteTimeMultiThreadScheduler.removeStepBarrierListener(listener);
+            discreteTimeMultiThreadScheduler.scheduleExecutableOnce(() -> {
+            }, 2);
+            
+            discreteTimeMultiThreadScheduler.start();
+            await().until(discreteTimeMultiThreadScheduler::isKilled);
+            
+            assertThat(finishedSteps.isEmpty()).isTrue();
+        }
+        
+        @Test
+        @DisplayName("Test if the executables of a step read the BufferedState written at the previous step")
+        void testBufferedStateSwappedBetweenSteps() {
+            var state = new BufferedIntState(2, 0);
+            discreteTimeMultiThreadScheduler.addStepBarrierListener(state);
+            for (int step = 1; step <= 3; step++) {
+                discreteTimeMultiThreadScheduler.scheduleExecutableOnce(() -> state.set(0, state.get(1) + 1), step);
+                discreteTimeMultiThreadScheduler.scheduleExecutableOnce(() -> state.set(1, state.get(0) + 1), step);
+            }
+            
+            discreteTimeMultiThreadScheduler.start();
+            await().until(discreteTimeMultiThreadScheduler::isKilled);
+            
+            assertThat(state.get(0)).isEqualTo(3);
+            assertThat(state.get(1)).isEqualTo(3);
+        }
+        
+    }
+    
 }
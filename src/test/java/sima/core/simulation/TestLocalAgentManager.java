@@ -4,11 +4,29 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentDescriptor;
+import sima.core.agent.AgentIdentifier;
 import sima.core.agent.SimaAgent;
+import sima.core.exception.AgentMaterializationException;
+import sima.core.exception.ConfigurationException;
+import sima.core.simulation.passivation.AgentStateCodec;
+import sima.core.simulation.passivation.OffHeapPassivationStore;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class TestLocalAgentManager {
@@ -78,4 +96,479 @@ public class TestLocalAgentManager {
         }
     }
     
+    @Nested
+    @Tag("LocalAgentManager.removeAgent")
+    @DisplayName("LocalAgentManager removeAgent tests")
+    class RemoveAgentTest {
+        
+        @Test
+        @DisplayName("Test if removeAgent returns false with a null or not added agent")
+        void testRemoveAgentWithNullOrNotAddedAgent() {
+            assertThat(localAgentManager.removeAgent(null)).isFalse();
+            assertThat(localAgentManager.removeAgent(mockSimaAgent)).isFalse();
+        }
+        
+        @Test
+        @DisplayName("Test if removeAgent removes the agent, tombstones its agent handle and does not reuse it")
+        void testRemoveAgentWithAddedAgent() {
+            AgentIdentifier agentIdentifier = new AgentIdentifier("AGENT", 0, 0);
+            when(mockSimaAgent.getAgentIdentifier()).thenReturn(agentIdentifier);
+            localAgentManager.addAgent(mockSimaAgent);
+            int agentHandle = agentIdentifier.getAgentHandle();
+            
+            boolean removed = localAgentManager.removeAgent(mockSimaAgent);
+            
+            assertThat(removed).isTrue();
+            assertThat(agentIdentifier.hasAgentHandle()).isFalse();
+            assertThat(localAgentManager.getAgentByHandle(agentHandle)).isNull();
+            assertThat(localAgentManager.getAgent(agentIdentifier)).isNull();
+            assertThat(localAgentManager.getAllAgents()).isEmpty();
+            
+            SimaAgent other = mock(SimaAgent.class);
+            AgentIdentifier otherIdentifier = new AgentIdentifier("OTHER", 1, 1);
+            when(other.getAgentIdentifier()).thenReturn(otherIdentifier);
+            localAgentManager.addAgent(other);
+            assertThat(otherIdentifier.getAgentHandle()).isNotEqualTo(agentHandle);
+            assertThat(localAgentManager.getAllAgents()).containsExactly(other);
+        }
+        
+    }
+    
+    @Nested
+    @Tag("LocalAgentManager.addAllAgents")
+    @DisplayName("LocalAgentManager addAllAgents tests")
+    class AddAllAgentsTest {
+        
+        @Test
+        @DisplayName("Test if addAllAgents adds all agents, ignores null and already added agents and binds dense agent handles")
+        void testAddAllAgents() {
+            localAgentManager.addAgent(mockSimaAgent);
+            List<SimaAgent> agents = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                SimaAgent agent = mock(SimaAgent.class);
+                when(agent.getAgentIdentifier()).thenReturn(new AgentIdentifier("AGENT_" + i, i, i));
+                agents.add(agent);
+            }
+            agents.add(null);
+            agents.add(mockSimaAgent);
+            
+            int nbAdded = localAgentManager.addAllAgents(agents);
+            
+            assertThat(nbAdded).isEqualTo(100);
+            assertThat(localAgentManager.getAllAgents()).hasSize(101);
+            for (int i = 1; i <= 100; i++)
+                assertThat(localAgentManager.getAgentByHandle(i).getAgentIdentifier().getAgentHandle()).isEqualTo(i);
+        }
+        
+    }
+    
+    @Nested
+    @Tag("LocalAgentManager.getAgentByHandle")
+    @DisplayName("LocalAgentManager getAgentByHandle tests")
+    class GetAgentByHandleTest {
+        
+        @Test
+        @DisplayName("Test if addAgent binds the agent identifier to its agent handle and getAgentByHandle returns the agent")
+        void testGetAgentByHandleWithAddedAgent() {
+            AgentIdentifier agentIdentifier = new AgentIdentifier("AGENT", 0, 0);
+            when(mockSimaAgent.getAgentIdentifier()).thenReturn(agentIdentifier);
+            
+            localAgentManager.addAgent(mockSimaAgent);
+            
+            assertThat(agentIdentifier.hasAgentHandle()).isTrue();
+            assertThat(localAgentManager.getAgentByHandle(agentIdentifier.getAgentHandle())).isSameAs(mockSimaAgent);
+        }
+        
+        @Test
+        @DisplayName("Test if getAgentByHandle returns null with an unknown agent handle")
+        void testGetAgentByHandleWithUnknownAgentHandle() {
+            assertThat(localAgentManager.getAgentByHandle(AgentIdentifier.NO_HANDLE)).isNull();
+            assertThat(localAgentManager.getAgentByHandle(0)).isNull();
+            assertThat(localAgentManager.getAgentByHandle(Integer.MAX_VALUE)).isNull();
+        }
+        
+        @Test
+        @DisplayName("Test if the agent handles of several added agents are dense and distinct")
+        void testGetAgentByHandleWithSeveralAgents() {
+            int nbAgents = 200;
+            for (int i = 0; i < nbAgents; i++) {
+                SimaAgent agent = mock(SimaAgent.class);
+                when(agent.getAgentIdentifier()).thenReturn(new AgentIdentifier("AGENT_" + i, i, i));
+                localAgentManager.addAgent(agent);
+            }
+            
+            for (int i = 0; i < nbAgents; i++)
+                assertThat(localAgentManager.getAgentByHandle(i).getAgentIdentifier().getAgentHandle()).isEqualTo(i);
+            assertThat(localAgentManager.getAllAgents()).hasSize(nbAgents);
+        }
+        
+    }
+    
+    @Nested
+    @Tag("LocalAgentManager.getAgent")
+    @DisplayName("LocalAgentManager getAgent tests")
+    class GetAgentTest {
+        
+        @Test
+        @DisplayName("Test if getAgent returns null with a null agent identifier or an unknown agent identifier")
+        void testGetAgentWithNullAndUnknownAgentIdentifier() {
+            assertThat(localAgentManager.getAgent(null)).isNull();
+            assertThat(localAgentManager.getAgent(new AgentIdentifier("AGENT", 0, 0))).isNull();
+        }
+        
+        @Test
+        @DisplayName("Test if getAgent returns the agent with the bound agent identifier and with an equal not bound agent identifier")
+        void testGetAgentWithBoundAndNotBoundAgentIdentifier() {
+            AgentIdentifier agentIdentifier = new AgentIdentifier("AGENT", 0, 0);
+            when(mockSimaAgent.getAgentIdentifier()).thenReturn(agentIdentifier);
+            localAgentManager.addAgent(mockSimaAgent);
+            
+            assertThat(localAgentManager.getAgent(agentIdentifier)).isSameAs(mockSimaAgent);
+            assertThat(localAgentManager.getAgent(new AgentIdentifier("AGENT", 0, 0))).isSameAs(mockSimaAgent);
+        }
+        
+        @Test
+        @DisplayName("Test if getAgent finds the agent with its unique id and does not find it anymore after its removal")
+        void testGetAgentWithUniqueId() {
+            var agent = new SimaAgent("AGENT", 0, 42, null);
+            localAgentManager.addAgent(new SimaAgent("OTHER_AGENT", 0, 41, null));
+            localAgentManager.addAgent(agent);
+            
+            assertThat(localAgentManager.getAgent(42L)).isSameAs(agent);
+            assertThat(localAgentManager.getAgent(43L)).isNull();
+            
+            localAgentManager.removeAgent(agent);
+            
+            assertThat(localAgentManager.getAgent(42L)).isNull();
+        }
+        
+    }
+    
+    @Nested
+    @Tag("LocalAgentManager.addAgentDescriptor")
+    @DisplayName("LocalAgentManager addAgentDescriptor tests")
+    class AddAgentDescriptorTest {
+        
+        private AgentIdentifier agentIdentifier;
+        
+        private AgentDescriptor agentDescriptor;
+        
+        @BeforeEach
+        void setUp() {
+            agentIdentifier = new AgentIdentifier("LAZY_AGENT", 0, 0);
+            agentDescriptor = new AgentDescriptor(agentIdentifier, SimaAgent.class, null, null, null);
+        }
+        
+        @Test
+        @DisplayName("Test if addAgentDescriptor binds the agent identifier to an agent handle without materializing the agent")
+        void testAddAgentDescriptorDoesNotMaterialize() {
+            boolean added = localAgentManager.addAgentDescriptor(agentDescriptor);
+            
+            assertThat(added).isTrue();
+            assertThat(agentIdentifier.hasAgentHandle()).isTrue();
+            assertThat(agentDescriptor.isMaterialized()).isFalse();
+            assertThat(localAgentManager.getAllAgents()).isEmpty();
+            assertThat(localAgentManager.getNbLazyAgents()).isEqualTo(1);
+        }
+        
+        @Test
+        @DisplayName("Test if addAgentDescriptor returns false with a null descriptor or an already registered identifier")
+        void testAddAgentDescriptorWithNullOrAlreadyAddedDescriptor() {
+            localAgentManager.addAgentDescriptor(agentDescriptor);
+            var sameIdentifierDescriptor = new AgentDescriptor(new AgentIdentifier("LAZY_AGENT", 0, 0), SimaAgent.class, null, null, null);
+            
+            assertThat(localAgentManager.addAgentDescriptor(null)).isFalse();
+            assertThat(localAgentManager.addAgentDescriptor(agentDescriptor)).isFalse();
+            assertThat(localAgentManager.addAgentDescriptor(sameIdentifierDescriptor)).isFalse();
+            assertThat(localAgentManager.getNbLazyAgents()).isEqualTo(1);
+        }
+        
+        @Test
+        @DisplayName("Test if getAgentByHandle materializes and starts the agent once with the agent handle of the descriptor")
+        void testGetAgentByHandleMaterializesAgent() {
+            localAgentManager.addAgentDescriptor(agentDescriptor);
+            int agentHandle = agentIdentifier.getAgentHandle();
+            
+            SimaAgent agent = localAgentManager.getAgentByHandle(agentHandle);
+            
+            assertThat(agent).isNotNull();
+            assertThat(agent.isStarted()).isTrue();
+            assertThat(agent.getAgentIdentifier()).isEqualTo(agentIdentifier);
+            assertThat(agent.getAgentIdentifier().getAgentHandle()).isEqualTo(agentHandle);
+            assertThat(localAgentManager.getAgentByHandle(agentHandle)).isSameAs(agent);
+            assertThat(localAgentManager.getAllAgents()).containsExactly(agent);
+            assertThat(localAgentManager.getNbLazyAgents()).isZero();
+        }
+        
+        @Test
+        @DisplayName("Test if getAgent materializes the agent with a not bound agent identifier and with the unique id")
+        void testGetAgentMaterializesAgent() {
+            var otherDescriptor = new AgentDescriptor(new AgentIdentifier("LAZY_AGENT", 1, 1), SimaAgent.class, null, null, null);
+            localAgentManager.addAgentDescriptor(agentDescriptor);
+            localAgentManager.addAgentDescriptor(otherDescriptor);
+            
+            assertThat(localAgentManager.getAgent(new AgentIdentifier("LAZY_AGENT", 0, 0))).isSameAs(agentDescriptor.getAgent());
+            assertThat(localAgentManager.getAgent(1L)).isSameAs(otherDescriptor.getAgent());
+            assertThat(agentDescriptor.isMaterialized()).isTrue();
+            assertThat(otherDescriptor.isMaterialized()).isTrue();
+        }
+        
+        @Test
+        @DisplayName("Test if the agent is materialized only once when several threads search it at the same time")
+        void testConcurrentMaterialization() throws InterruptedException {
+            localAgentManager.addAgentDescriptor(agentDescriptor);
+            int agentHandle = agentIdentifier.getAgentHandle();
+            Set<SimaAgent> foundAgents = ConcurrentHashMap.newKeySet();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                threads.add(new Thread(() -> foundAgents.add(localAgentManager.getAgentByHandle(agentHandle))));
+            
+            threads.forEach(Thread::start);
+            for (Thread thread : threads)
+                thread.join();
+            
+            assertThat(foundAgents).hasSize(1);
+            assertThat(localAgentManager.getAllAgents()).hasSize(1);
+        }
+        
+        @Test
+        @DisplayName("Test if two agents materialized in parallel can search each other during their start")
+        void testMutualSearchDuringStart() throws InterruptedException {
+            MutualSearchAgent.agentManager = localAgentManager;
+            MutualSearchAgent.barrier = new CyclicBarrier(2);
+            MutualSearchAgent.foundAgents.clear();
+            var firstIdentifier = new AgentIdentifier("MUTUAL_AGENT", 0, 0);
+            var secondIdentifier = new AgentIdentifier("MUTUAL_AGENT", 1, 1);
+            localAgentManager.addAgentDescriptor(new AgentDescriptor(firstIdentifier, MutualSearchAgent.class, null, null, null));
+            localAgentManager.addAgentDescriptor(new AgentDescriptor(secondIdentifier, MutualSearchAgent.class, null, null, null));
+            List<Thread> threads = List.of(new Thread(() -> localAgentManager.getAgent(firstIdentifier)),
+                                           new Thread(() -> localAgentManager.getAgent(secondIdentifier)));
+            
+            threads.forEach(Thread::start);
+            for (Thread thread : threads)
+                thread.join(10_000L);
+            
+            assertThat(threads).noneMatch(Thread::isAlive);
+            assertThat(MutualSearchAgent.foundAgents.get(0)).isSameAs(localAgentManager.getAgent(secondIdentifier));
+            assertThat(MutualSearchAgent.foundAgents.get(1)).isSameAs(localAgentManager.getAgent(firstIdentifier));
+        }
+        
+        @Test
+        @DisplayName("Test if getLazyAgentIdentifier returns the identifier of a not materialized agent without materializing it")
+        void testGetLazyAgentIdentifier() {
+            localAgentManager.addAgentDescriptor(agentDescriptor);
+            int agentHandle = agentIdentifier.getAgentHandle();
+            
+            assertThat(localAgentManager.getLazyAgentIdentifier(agentHandle)).isSameAs(agentIdentifier);
+            assertThat(agentDescriptor.isMaterialized()).isFalse();
+            
+            localAgentManager.getAgentByHandle(agentHandle);
+            
+            assertThat(localAgentManager.getLazyAgentIdentifier(agentHandle)).isNull();
+            assertThat(localAgentManager.getLazyAgentIdentifier(-1)).isNull();
+        }
+        
+        @Test
+        @DisplayName("Test if a failed materialization throws an AgentMaterializationException and keeps the descriptor")
+        void testFailedMaterialization() {
+            var failingDescriptor = new AgentDescriptor(agentIdentifier, SimaAgent.class, null, null, agent -> {
+                throw new ConfigurationException("Wrong behavior");
+            });
+            localAgentManager.addAgentDescriptor(failingDescriptor);
+            
+            assertThrows(AgentMaterializationException.class, () -> localAgentManager.getAgentByHandle(agentIdentifier.getAgentHandle()));
+            assertThat(failingDescriptor.isMaterialized()).isFalse();
+            assertThat(localAgentManager.getNbLazyAgents()).isEqualTo(1);
+        }
+        
+    }
+    
+    @Nested
+    @Tag("LocalAgentManager.passivateAgent")
+    @DisplayName("LocalAgentManager passivateAgent tests")
+    class PassivateAgentTest {
+        
+        private AgentIdentifier agentIdentifier;
+        
+        private AgentDescriptor agentDescriptor;
+        
+        private OffHeapPassivationStore store;
+        
+        private final Map<SimaAgent, byte[]> decodedStates = new HashMap<>();
+        
+        private final AgentStateCodec agentStateCodec = new AgentStateCodec() {
+            @Override
+            public byte[] encode(SimaAgent agent) {
+                return new byte[]{(byte) agent.getUniqueId(), 42};
+            }
+            
+            @Override
+            public void decode(SimaAgent agent, byte[] state) {
+                decodedStates.put(agent, state);
+            }
+        };
+        
+        @BeforeEach
+        void setUp() {
+            agentIdentifier = new AgentIdentifier("LAZY_AGENT", 0, 7);
+            agentDescriptor = new AgentDescriptor(agentIdentifier, SimaAgent.class, null, null, null);
+            store = new OffHeapPassivationStore();
+        }
+        
+        @Test
+        @DisplayName("Test if passivateAgent removes the agent and a new instance with the restored state is materialized when it is searched")
+        void testPassivateAndReactivateAgent() {
+            localAgentManager.addAgentDescriptor(agentDescriptor);
+            int agentHandle = agentIdentifier.getAgentHandle();
+            SimaAgent agent = localAgentManager.getAgentByHandle(agentHandle);
+            
+            boolean passivated = localAgentManager.passivateAgent(agent, agentStateCodec, store);
+            
+            assertThat(passivated).isTrue();
+            assertThat(agent.isPassivated()).isTrue();
+            assertThat(localAgentManager.getAllAgents()).isEmpty();
+            assertThat(localAgentManager.getNbLazyAgents()).isEqualTo(1);
+            assertThat(localAgentManager.getNbPassivations()).isEqualTo(1);
+            assertThat(store.size()).isEqualTo(1);
+            
+            SimaAgent reactivated = localAgentManager.getAgentByHandle(agentHandle);
+            
+            assertThat(reactivated).isNotSameAs(agent);
+            assertThat(reactivated.isStarted()).isTrue();
+            assertThat(reactivated.getAgentIdentifier()).isEqualTo(agentIdentifier);
+            assertThat(reactivated.getAgentIdentifier().getAgentHandle()).isEqualTo(agentHandle);
+            assertThat(decodedStates.get(reactivated)).containsExactly(7, 42);
+            assertThat(store.size()).isZero();
+            assertThat(localAgentManager.getAgent(agentIdentifier)).isSameAs(reactivated);
+        }
+        
+        @Test
+        @DisplayName("Test if passivateAgent returns false for an agent added without descriptor or an already passivated agent")
+        void testPassivateAgentWithoutDescriptorOrNotStarted() {
+            var eagerAgent = new SimaAgent("EAGER_AGENT", 0, 1, null);
+            localAgentManager.addAgent(eagerAgent);
+            eagerAgent.start();
+            localAgentManager.addAgentDescriptor(agentDescriptor);
+            SimaAgent lazyAgent = localAgentManager.getAgentByHandle(agentIdentifier.getAgentHandle());
+            localAgentManager.passivateAgent(lazyAgent, agentStateCodec, store);
+            
+            assertThat(localAgentManager.passivateAgent(eagerAgent, agentStateCodec, store)).isFalse();
+            assertThat(localAgentManager.passivateAgent(lazyAgent, agentStateCodec, store)).isFalse();
+            assertThat(localAgentManager.passivateAgent(null, agentStateCodec, store)).isFalse();
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(localAgentManager.getNbPassivations()).isEqualTo(1);
+        }
+        
+        @Test
+        @DisplayName("Test if passivateAgent returns false and keeps the agent if the codec cannot encode its state")
+        void testPassivateAgentWithNotEncodableState() {
+            localAgentManager.addAgentDescriptor(agentDescriptor);
+            SimaAgent agent = localAgentManager.getAgentByHandle(agentIdentifier.getAgentHandle());
+            AgentStateCodec notEncodingCodec = mock(AgentStateCodec.class);
+            
+            assertThat(localAgentManager.passivateAgent(agent, notEncodingCodec, store)).isFalse();
+            assertThat(agent.isStarted()).isTrue();
+            assertThat(localAgentManager.getAllAgents()).containsExactly(agent);
+        }
+        
+        @Test
+        @DisplayName("Test if passivateAgent returns false and keeps the agent while it has pending tasks")
+        void testPassivateAgentWithPendingTasks() {
+            localAgentManager.addAgentDescriptor(agentDescriptor);
+            SimaAgent agent = localAgentManager.getAgentByHandle(agentIdentifier.getAgentHandle());
+            agent.addPendingTask();
+            
+            assertThat(localAgentManager.passivateAgent(agent, agentStateCodec, store)).isFalse();
+            assertThat(agent.isStarted()).isTrue();
+            assertThat(store.size()).isZero();
+            
+            agent.removePendingTask();
+            
+            assertThat(localAgentManager.passivateAgent(agent, agentStateCodec, store)).isTrue();
+        }
+        
+        @Test
+        @DisplayName("Test if onStart is called only once across a passivation and a reactivation")
+        void testReactivatedAgentIsNotStartedAgain() {
+            var countingDescriptor = new AgentDescriptor(agentIdentifier, StartCountingAgent.class, null, null, null);
+            localAgentManager.addAgentDescriptor(countingDescriptor);
+            int agentHandle = agentIdentifier.getAgentHandle();
+            SimaAgent agent = localAgentManager.getAgentByHandle(agentHandle);
+            
+            localAgentManager.passivateAgent(agent, agentStateCodec, store);
+            SimaAgent reactivated = localAgentManager.getAgentByHandle(agentHandle);
+            
+            assertThat(reactivated).isNotSameAs(agent);
+            assertThat(reactivated.isStarted()).isTrue();
+            assertThat(((StartCountingAgent) agent).getNbStarts()).isEqualTo(1);
+            assertThat(((StartCountingAgent) reactivated).getNbStarts()).isZero();
+        }
+        
+    }
+    
+    // Inner classes.
+    
+    /**
+     * Waits in its start for the start of another agent and then searches it with its unique id.
+     */
+    public static class MutualSearchAgent extends SimaAgent {
+        
+        // Static.
+        
+        private static LocalAgentManager agentManager;
+        
+        private static CyclicBarrier barrier;
+        
+        private static final Map<Integer, SimaAgent> foundAgents = new ConcurrentHashMap<>();
+        
+        // Constructors.
+        
+        public MutualSearchAgent(String agentName, int sequenceId, int uniqueId, Map<String, String> args) {
+            super(agentName, sequenceId, uniqueId, args);
+        }
+        
+        // Methods.
+        
+        @Override
+        protected void onStart() {
+            super.onStart();
+            try {
+                barrier.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                throw new IllegalStateException(e);
+            }
+            foundAgents.put(getUniqueId(), agentManager.getAgent(1L - getUniqueId()));
+        }
+    }
+    
+    /**
+     * Counts the calls of its onStart.
+     */
+    public static class StartCountingAgent extends SimaAgent {
+        
+        // Variables.
+        
+        private int nbStarts;
+        
+        // Constructors.
+        
+        public StartCountingAgent(String agentName, int sequenceId, int uniqueId, Map<String, String> args) {
+            super(agentName, sequenceId, uniqueId, args);
+        }
+        
+        // Methods.
+        
+        @Override
+        protected void onStart() {
+            super.onStart();
+            nbStarts++;
+        }
+        
+        // Getters.
+        
+        public int getNbStarts() {
+            return nbStarts;
+        }
+    }
+    
 }
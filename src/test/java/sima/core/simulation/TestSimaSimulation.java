@@ -15,9 +15,12 @@ import sima.core.scheduler.Scheduler;
 import sima.core.scheduler.executor.Executable;
 import sima.core.scheduler.multithread.DiscreteTimeMultiThreadScheduler;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -121,6 +124,142 @@ public class TestSimaSimulation {
 
     }
 
+    @Nested
+    @Tag("SimaSimulation.runSimulation(Scheduler, Set<SimpleAgent>, Set<Environment>, Class<SimulationSetup>, SimaWatcher, int)")
+    @DisplayName("SimaSimulation runSimulation(Scheduler, Set<SimpleAgent>, Set<Environment>, Class<SimulationSetup>, SimaWatcher, int) test")
+    class RunSimulationWithBootstrapParallelismTest {
+
+        @Test
+        @DisplayName("Test runSimulation throws a SimaSimulationFailToStartRunningException if the bootstrapParallelism is less than 1")
+        void testRunSimulationWithWrongBootstrapParallelism() {
+            Set<Environment> environments = new HashSet<>();
+            environments.add(mockEnvironment);
+            assertThrows(SimaSimulationFailToStartRunningException.class,
+                         () -> SimaSimulation.runSimulation(mockScheduler, null, environments, null, null, 0));
+            assertThat(SimaSimulation.simaSimulationIsRunning()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Test runSimulation with several threads registers and starts all agents and fills the BootstrapMetrics")
+        void testRunSimulationWithSeveralBootstrapThreads() {
+            Set<SimaAgent> agents = new HashSet<>();
+            for (int i = 0; i < 100; i++)
+                agents.add(new SimaAgent("Agent_" + i, i, i, null));
+            Set<Environment> environments = new HashSet<>();
+            environments.add(mockEnvironment);
+
+            AtomicReference<BootstrapMetrics> metrics = new AtomicReference<>();
+            Scheduler scheduler = new DiscreteTimeMultiThreadScheduler(1000L, 2);
+            scheduler.scheduleExecutableOnce(() -> {
+                metrics.set(SimaSimulation.getBootstrapMetrics());
+                SimaSimulation.killSimulation();
+            }, Scheduler.NOW);
+
+            try {
+                SimaSimulation.runSimulation(scheduler, agents, environments, null, null, 4);
+            } catch (SimaSimulationFailToStartRunningException e) {
+                fail(e);
+            } finally {
+                SimaSimulation.waitEndSimulation();
+            }
+
+            assertThat(agents).allMatch(SimaAgent::isStarted);
+            assertThat(agents).allMatch(agent -> agent.getAgentIdentifier().hasAgentHandle());
+            assertThat(metrics.get()).isNotNull();
+            assertThat(metrics.get().getNbAgents()).isEqualTo(100);
+            assertThat(metrics.get().getParallelism()).isEqualTo(4);
+            assertThat(metrics.get().getTotalDuration()).isGreaterThanOrEqualTo(
+                    metrics.get().getPhaseDuration(BootstrapMetrics.Phase.AGENT_START));
+            verify(mockEnvironment, times(1)).bindAgentHandles();
+        }
+
+        @Test
+        @DisplayName("Test if the agents started by several threads can call the methods of SimaSimulation which take its lock")
+        void testRunSimulationWithAgentsUsingSimulationInStart() {
+            Set<SimaAgent> agents = new HashSet<>();
+            AtomicInteger nbRunningSeen = new AtomicInteger();
+            for (int i = 0; i < 20; i++)
+                agents.add(new SimaAgent("Agent_" + i, i, i, null) {
+                    @Override
+                    protected void onStart() {
+                        if (SimaSimulation.simaSimulationIsRunning())
+                            nbRunningSeen.incrementAndGet();
+                    }
+                });
+            Set<Environment> environments = new HashSet<>();
+            environments.add(mockEnvironment);
+            Scheduler scheduler = new DiscreteTimeMultiThreadScheduler(1000L, 2);
+            scheduler.scheduleExecutableOnce(SimaSimulation::killSimulation, Scheduler.NOW);
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                try {
+                    SimaSimulation.runSimulation(scheduler, agents, environments, null, null, 4);
+                } finally {
+                    SimaSimulation.waitEndSimulation();
+                }
+            });
+
+            assertThat(nbRunningSeen.get()).isEqualTo(20);
+        }
+
+        @Test
+        @DisplayName("Test if runSimulation does not start the scheduler if an agent kills the simulation during its start")
+        void testRunSimulationKilledDuringAgentStart() throws SimaSimulationFailToStartRunningException {
+            Set<SimaAgent> agents = new HashSet<>();
+            agents.add(new SimaAgent("Agent_0", 0, 0, null) {
+                @Override
+                protected void onStart() {
+                    SimaSimulation.killSimulation();
+                }
+            });
+            Set<Environment> environments = new HashSet<>();
+            environments.add(mockEnvironment);
+
+            SimaSimulation.runSimulation(mockScheduler, agents, environments, null, null, 2);
+
+            assertThat(SimaSimulation.simaSimulationIsRunning()).isFalse();
+            verify(mockScheduler, never()).start();
+        }
+
+        @Test
+        @DisplayName("Test if getBootstrapMetrics throws a SimaSimulationIsNotRunningException if the simulation is not running")
+        void testGetBootstrapMetricsInNotRunningSimulation() {
+            assertThrows(SimaSimulationIsNotRunningException.class, SimaSimulation::getBootstrapMetrics);
+        }
+
+    }
+
+    @Nested
+    @Tag("SimaSimulation.reclaimAgent")
+    @DisplayName("SimaSimulation reclaimAgent tests")
+    class ReclaimAgentTest {
+
+        @Test
+        @DisplayName("Test if reclaimAgent does not throw exception if the simulation is not running")
+        void testReclaimAgentInNotRunningSimulation() {
+            assertDoesNotThrow(() -> SimaSimulation.reclaimAgent(simaAgent));
+        }
+
+        @Test
+        @DisplayName("Test if a killed agent is removed from the running simulation")
+        void testKilledAgentIsReclaimed() {
+            Set<SimaAgent> agents = new HashSet<>();
+            agents.add(simaAgent);
+            AtomicReference<SimaAgent> foundAgent = new AtomicReference<>(simaAgent);
+            AtomicReference<Long> nbReclaimedAgents = new AtomicReference<>();
+            createScheduledSimulationTest(agents, () -> {
+                simaAgent.kill();
+                foundAgent.set(SimaSimulation.getAgent(simaAgent.getAgentIdentifier()));
+                nbReclaimedAgents.set(SimaSimulation.getNbReclaimedAgents());
+            });
+
+            assertThat(foundAgent.get()).isNull();
+            assertThat(nbReclaimedAgents.get()).isEqualTo(1L);
+            assertThat(simaAgent.getAgentIdentifier().hasAgentHandle()).isFalse();
+        }
+
+    }
+
     @Nested
     @Tag("SimaSimulation.getScheduler")
     @DisplayName("SimaSimulation getScheduler tests")
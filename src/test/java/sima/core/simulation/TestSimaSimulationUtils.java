@@ -9,6 +9,8 @@ import org.junit.jupiter.api.function.ThrowingSupplier;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -206,4 +208,106 @@ public class TestSimaSimulationUtils {
         }
         
     }
+    
+    @Nested
+    @Tag("SimaSimulationUtils.threadRandom")
+    @DisplayName("SimaSimulationUtils threadRandom tests")
+    class ThreadRandomTest {
+        
+        @Test
+        @DisplayName("Test if threadRandom returns the same stream in the same thread and a different stream in another thread")
+        void testThreadRandomIsPerThread() throws InterruptedException {
+            var stream = SimaSimulationUtils.threadRandom();
+            AtomicReference<SplittableRandom> otherStream = new AtomicReference<>();
+            Thread thread = new Thread(() -> otherStream.set(SimaSimulationUtils.threadRandom()));
+            thread.start();
+            thread.join();
+            
+            assertThat(SimaSimulationUtils.threadRandom()).isSameAs(stream);
+            assertThat(otherStream.get()).isNotNull().isNotSameAs(stream);
+        }
+        
+        @Test
+        @DisplayName("Test if setRandomSeed makes the streams reproducible")
+        void testThreadRandomIsReproducible() {
+            List<Long> firstGeneration = new ArrayList<>();
+            List<Long> secondGeneration = new ArrayList<>();
+            
+            SimaSimulationUtils.setRandomSeed(seed);
+            for (int i = 0; i < repetitions; i++) {
+                firstGeneration.add(SimaSimulationUtils.threadRandom().nextLong());
+            }
+            
+            SimaSimulationUtils.setRandomSeed(seed);
+            for (int i = 0; i < repetitions; i++) {
+                secondGeneration.add(SimaSimulationUtils.threadRandom().nextLong());
+            }
+            
+            assertThat(secondGeneration).containsExactlyElementsOf(firstGeneration);
+        }
+        
+    }
+    
+    @Nested
+    @Tag("SimaSimulationUtils.keyedRandom")
+    @DisplayName("SimaSimulationUtils keyedRandom tests")
+    class KeyedRandomTest {
+        
+        @Test
+        @DisplayName("Test if keyedRandom gives the same stream for the same seed, key and sequence whatever the thread")
+        void testKeyedRandomIsReproducible() throws InterruptedException {
+            SimaSimulationUtils.setRandomSeed(seed);
+            long first = SimaSimulationUtils.keyedRandom(3L, 7L).nextLong();
+            
+            SimaSimulationUtils.setRandomSeed(seed);
+            AtomicReference<Long> fromOtherThread = new AtomicReference<>();
+            Thread thread = new Thread(() -> fromOtherThread.set(SimaSimulationUtils.keyedRandom(3L, 7L).nextLong()));
+            thread.start();
+            thread.join();
+            
+            assertThat(fromOtherThread.get()).isEqualTo(first);
+        }
+        
+        @Test
+        @DisplayName("Test if keyedRandom gives different streams for different keys or sequences")
+        void testKeyedRandomDependsOnKeyAndSequence() {
+            SimaSimulationUtils.setRandomSeed(seed);
+            long value = SimaSimulationUtils.keyedRandom(3L, 7L).nextLong();
+            
+            assertThat(SimaSimulationUtils.keyedRandom(3L, 8L).nextLong()).isNotEqualTo(value);
+            assertThat(SimaSimulationUtils.keyedRandom(4L, 7L).nextLong()).isNotEqualTo(value);
+        }
+        
+    }
+    
+    @Nested
+    @Tag("SimaSimulationUtils.keyedDraw")
+    @DisplayName("SimaSimulationUtils keyedDraw tests")
+    class KeyedDrawTest {
+        
+        @Test
+        @DisplayName("Test if keyedDraw is the seed of the stream given by keyedRandom and nextDraw follows this stream")
+        void testKeyedDrawFollowsKeyedRandom() {
+            SimaSimulationUtils.setRandomSeed(seed);
+            long draw = SimaSimulationUtils.keyedDraw(3L, 7L);
+            var random = new SplittableRandom(draw);
+            
+            assertThat(SimaSimulationUtils.keyedDraw(3L, 7L)).isEqualTo(draw);
+            assertThat(SimaSimulationUtils.nextDraw(draw)).isEqualTo(random.nextLong());
+        }
+        
+        @Test
+        @DisplayName("Test if boundedDraw returns values in [origin; bound[ and unitDouble values in [0; 1[")
+        void testBoundedDrawAndUnitDouble() {
+            var random = new SplittableRandom(seed);
+            for (int i = 0; i < 10_000; i++) {
+                long draw = random.nextLong();
+                
+                assertThat(SimaSimulationUtils.boundedDraw(draw, 5L, 12L)).isBetween(5L, 11L);
+                assertThat(SimaSimulationUtils.boundedDraw(draw, Long.MIN_VALUE + 1L, Long.MAX_VALUE)).isLessThan(Long.MAX_VALUE);
+                assertThat(SimaSimulationUtils.unitDouble(draw)).isGreaterThanOrEqualTo(0.0d).isLessThan(1.0d);
+            }
+        }
+        
+    }
 }
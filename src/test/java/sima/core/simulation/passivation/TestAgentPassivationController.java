@@ -0,0 +1,192 @@
+package sima.core.simulation.passivation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.simulation.SimaSimulation;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.when;
+import static sima.core.TestSima.mockSimaSimulation;
+import static sima.testing.simulation.HandleBindingAgentManager.bindAgentHandle;
+
+@ExtendWith(MockitoExtension.class)
+public class TestAgentPassivationController {
+
+    // Variables.
+
+    @TempDir
+    Path tempDir;
+
+    private AgentPassivationController agentPassivationController;
+
+    private PassivationStore store;
+
+    @Mock
+    private AgentStateCodec mockAgentStateCodec;
+
+    @Mock
+    private SimaAgent mockSimaAgent;
+
+    // Init.
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapPassivationStore(64);
+        agentPassivationController = new AgentPassivationController(10L, mockAgentStateCodec, store);
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("AgentPassivationController.constructor")
+    @DisplayName("AgentPassivationController constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor uses the default idle period and an off heap store if they are not specified")
+        void testConstructorWithDefaultArgs() {
+            var controller = new AgentPassivationController(Map.of(AgentPassivationController.CODEC_CLASS_ARGS, TestCodec.class.getName()));
+
+            assertThat(controller.getIdlePeriod()).isEqualTo(AgentPassivationController.DEFAULT_IDLE_PERIOD);
+            assertThat(controller.getAgentStateCodec()).isInstanceOf(TestCodec.class);
+            assertThat(controller.getStore()).isInstanceOf(OffHeapPassivationStore.class);
+        }
+
+        @Test
+        @DisplayName("Test if constructor creates a mapped file store in the specified file")
+        void testConstructorWithMappedFileStore() {
+            Path storeFile = tempDir.resolve("passivation.bin");
+            var controller = new AgentPassivationController(Map.of(AgentPassivationController.CODEC_CLASS_ARGS, TestCodec.class.getName(),
+                                                                   AgentPassivationController.IDLE_PERIOD_ARGS, "50",
+                                                                   AgentPassivationController.STORAGE_ARGS, "MAPPED_FILE",
+                                                                   AgentPassivationController.STORE_FILE_ARGS, storeFile.toString()));
+
+            assertThat(controller.getIdlePeriod()).isEqualTo(50L);
+            assertThat(controller.getStore()).isInstanceOf(MappedFilePassivationStore.class);
+            assertThat(storeFile).exists();
+            controller.getStore().close();
+        }
+
+        @Test
+        @DisplayName("Test if constructor creates a mapped file store in a temporary file deleted when the store is closed if no file is specified")
+        void testConstructorWithTemporaryMappedFileStore() {
+            var controller = new AgentPassivationController(Map.of(AgentPassivationController.CODEC_CLASS_ARGS, TestCodec.class.getName(),
+                                                                   AgentPassivationController.STORAGE_ARGS, "MAPPED_FILE"));
+            var mappedFileStore = (MappedFilePassivationStore) controller.getStore();
+            mappedFileStore.put(0, new byte[]{1, 2, 3});
+
+            assertThat(mappedFileStore.get(0)).containsExactly(1, 2, 3);
+
+            mappedFileStore.close();
+
+            assertThat(mappedFileStore.getFile()).doesNotExist();
+        }
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with null args, a missing codec, a wrong idle period or an unknown " +
+                "storage")
+        void testConstructorWithWrongArgs() {
+            String codec = TestCodec.class.getName();
+            assertThrows(IllegalArgumentException.class, () -> new AgentPassivationController(null));
+            assertThrows(IllegalArgumentException.class, () -> new AgentPassivationController(Map.of()));
+            assertThrows(IllegalArgumentException.class,
+                         () -> new AgentPassivationController(Map.of(AgentPassivationController.CODEC_CLASS_ARGS, "NotAClass")));
+            assertThrows(IllegalArgumentException.class, () -> new AgentPassivationController(
+                    Map.of(AgentPassivationController.CODEC_CLASS_ARGS, codec, AgentPassivationController.IDLE_PERIOD_ARGS, "wrong")));
+            assertThrows(IllegalArgumentException.class, () -> new AgentPassivationController(
+                    Map.of(AgentPassivationController.CODEC_CLASS_ARGS, codec, AgentPassivationController.IDLE_PERIOD_ARGS, "0")));
+            assertThrows(IllegalArgumentException.class, () -> new AgentPassivationController(
+                    Map.of(AgentPassivationController.CODEC_CLASS_ARGS, codec, AgentPassivationController.STORAGE_ARGS, "UNKNOWN")));
+            assertThrows(IllegalArgumentException.class, () -> new AgentPassivationController(10L, null, store));
+            assertThrows(IllegalArgumentException.class, () -> new AgentPassivationController(10L, mockAgentStateCodec, null));
+        }
+
+    }
+
+    @Nested
+    @Tag("AgentPassivationController.execute")
+    @DisplayName("AgentPassivationController execute tests")
+    class ExecuteTest {
+
+        private AgentIdentifier agentIdentifier;
+
+        @BeforeEach
+        void setUp() {
+            agentIdentifier = new AgentIdentifier("AGENT", 0, 0);
+            bindAgentHandle(agentIdentifier, 2);
+            when(mockSimaAgent.getAgentIdentifier()).thenReturn(agentIdentifier);
+        }
+
+        private void executeAt(MockedStatic<SimaSimulation> simaSimulationMockedStatic, long now) {
+            simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(now);
+            agentPassivationController.execute();
+        }
+
+        @Test
+        @DisplayName("Test if execute passivates an agent which has not processed any event since the idle period")
+        void testExecutePassivatesIdleAgent() {
+            when(mockSimaAgent.getNbProcessedEvents()).thenReturn(3L);
+
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getAllAgents).thenReturn(List.of(mockSimaAgent));
+                simaSimulationMockedStatic.when(() -> SimaSimulation.passivateAgent(any(), any(), any())).thenReturn(true);
+
+                executeAt(simaSimulationMockedStatic, 0L);
+                executeAt(simaSimulationMockedStatic, 9L);
+                simaSimulationMockedStatic.verify(() -> SimaSimulation.passivateAgent(any(), any(), any()), never());
+
+                executeAt(simaSimulationMockedStatic, 10L);
+                simaSimulationMockedStatic.verify(() -> SimaSimulation.passivateAgent(mockSimaAgent, mockAgentStateCodec, store));
+            }
+        }
+
+        @Test
+        @DisplayName("Test if execute does not passivate an agent which processes events")
+        void testExecuteDoesNotPassivateActiveAgent() {
+            when(mockSimaAgent.getNbProcessedEvents()).thenReturn(1L, 2L, 3L);
+
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getAllAgents).thenReturn(List.of(mockSimaAgent));
+
+                executeAt(simaSimulationMockedStatic, 0L);
+                executeAt(simaSimulationMockedStatic, 10L);
+                executeAt(simaSimulationMockedStatic, 20L);
+
+                simaSimulationMockedStatic.verify(() -> SimaSimulation.passivateAgent(any(), any(), any()), never());
+            }
+        }
+
+    }
+
+    // Inner classes.
+
+    public static class TestCodec implements AgentStateCodec {
+
+        @Override
+        public byte[] encode(SimaAgent agent) {
+            return new byte[0];
+        }
+
+        @Override
+        public void decode(SimaAgent agent, byte[] state) {
+            // Nothing.
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package sima.core.simulation.passivation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestPassivationStore {
+
+    // Static.
+
+    private static final int CHUNK_SIZE = 16;
+
+    // Variables.
+
+    @TempDir
+    Path tempDir;
+
+    private ChunkedPassivationStore store;
+
+    // Init.
+
+    @AfterEach
+    void tearDown() {
+        if (store != null)
+            store.close();
+    }
+
+    private ChunkedPassivationStore createStore(AgentPassivationController.Storage storage) {
+        store = switch (storage) {
+            case OFF_HEAP -> new OffHeapPassivationStore(CHUNK_SIZE);
+            case MAPPED_FILE -> new MappedFilePassivationStore(tempDir.resolve("store.bin"), CHUNK_SIZE);
+        };
+        return store;
+    }
+
+    private static byte[] state(int length, int seed) {
+        byte[] state = new byte[length];
+        for (int i = 0; i < length; i++)
+            state[i] = (byte) (seed + i);
+        return state;
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("ChunkedPassivationStore.constructor")
+    @DisplayName("ChunkedPassivationStore constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with a chunkSize less than 1 or a null file")
+        void testConstructorWithWrongArgs() {
+            assertThrows(IllegalArgumentException.class, () -> new OffHeapPassivationStore(0));
+            assertThrows(IllegalArgumentException.class, () -> new MappedFilePassivationStore(null));
+        }
+
+    }
+
+    @Nested
+    @Tag("ChunkedPassivationStore.put")
+    @DisplayName("ChunkedPassivationStore put tests")
+    class PutTest {
+
+        @ParameterizedTest
+        @EnumSource(AgentPassivationController.Storage.class)
+        @DisplayName("Test if get returns a copy of the stored states, even for states written across several chunks")
+        void testPutAndGet(AgentPassivationController.Storage storage) {
+            var passivationStore = createStore(storage);
+
+            passivationStore.put(3, state(10, 1));
+            passivationStore.put(0, state(40, 2));
+
+            assertThat(passivationStore.get(3)).isEqualTo(state(10, 1));
+            assertThat(passivationStore.get(0)).isEqualTo(state(40, 2));
+            assertThat(passivationStore.get(1)).isNull();
+            assertThat(passivationStore.size()).isEqualTo(2);
+            assertThat(passivationStore.getNbStoredBytes()).isEqualTo(50L);
+            assertThat(passivationStore.getNbChunks()).isGreaterThan(1);
+        }
+
+        @Test
+        @DisplayName("Test if put replaces the state already stored for the agent")
+        void testPutReplacesState() {
+            var passivationStore = createStore(AgentPassivationController.Storage.OFF_HEAP);
+
+            passivationStore.put(0, state(10, 1));
+            passivationStore.put(0, state(5, 7));
+
+            assertThat(passivationStore.get(0)).isEqualTo(state(5, 7));
+            assertThat(passivationStore.size()).isEqualTo(1);
+            assertThat(passivationStore.getNbStoredBytes()).isEqualTo(5L);
+        }
+
+        @Test
+        @DisplayName("Test if put throws an IllegalArgumentException with a negative agent handle or a null state")
+        void testPutWithWrongArgs() {
+            var passivationStore = createStore(AgentPassivationController.Storage.OFF_HEAP);
+
+            assertThrows(IllegalArgumentException.class, () -> passivationStore.put(-1, new byte[1]));
+            assertThrows(IllegalArgumentException.class, () -> passivationStore.put(0, null));
+        }
+
+    }
+
+    @Nested
+    @Tag("ChunkedPassivationStore.remove")
+    @DisplayName("ChunkedPassivationStore remove tests")
+    class RemoveTest {
+
+        @Test
+        @DisplayName("Test if remove does nothing for an agent without state")
+        void testRemoveWithoutState() {
+            var passivationStore = createStore(AgentPassivationController.Storage.OFF_HEAP);
+
+            passivationStore.remove(-1);
+            passivationStore.remove(10);
+
+            assertThat(passivationStore.size()).isZero();
+        }
+
+    }
+
+    @Nested
+    @Tag("ChunkedPassivationStore.compact")
+    @DisplayName("ChunkedPassivationStore compact tests")
+    class CompactTest {
+
+        @ParameterizedTest
+        @EnumSource(AgentPassivationController.Storage.class)
+        @DisplayName("Test if the live states are kept after the compaction of the removed states and the trailing chunks are released")
+        void testCompactReleasesTrailingChunks(AgentPassivationController.Storage storage) {
+            var passivationStore = createStore(storage);
+            for (int agentHandle = 0; agentHandle < 20; agentHandle++)
+                passivationStore.put(agentHandle, state(7, agentHandle));
+
+            for (int agentHandle = 0; agentHandle < 20; agentHandle++)
+                if (agentHandle % 5 != 0)
+                    passivationStore.remove(agentHandle);
+            passivationStore.put(20, state(30, 20));
+
+            assertThat(passivationStore.getNbChunks()).isEqualTo(11);
+            assertThat(passivationStore.compact(Long.MAX_VALUE)).isFalse();
+
+            for (int agentHandle = 0; agentHandle < 20; agentHandle += 5)
+                assertThat(passivationStore.get(agentHandle)).isEqualTo(state(7, agentHandle));
+            assertThat(passivationStore.get(20)).isEqualTo(state(30, 20));
+            assertThat(passivationStore.get(1)).isNull();
+            assertThat(passivationStore.size()).isEqualTo(5);
+            assertThat(passivationStore.getNbStoredBytes()).isEqualTo(58L);
+            assertThat(passivationStore.getNbChunks()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Test if a compaction is done in several calls with a small budget and keeps the states written during the compaction")
+        void testIncrementalCompact() {
+            var passivationStore = createStore(AgentPassivationController.Storage.OFF_HEAP);
+            for (int agentHandle = 0; agentHandle < 20; agentHandle++)
+                passivationStore.put(agentHandle, state(7, agentHandle));
+            for (int agentHandle = 0; agentHandle < 20; agentHandle += 2)
+                passivationStore.remove(agentHandle);
+            passivationStore.remove(1);
+
+            assertThat(passivationStore.compact(1L)).isTrue();
+            passivationStore.put(21, state(9, 21));
+            passivationStore.remove(3);
+            var nbCalls = 1;
+            while (passivationStore.compact(1L))
+                nbCalls++;
+
+            assertThat(nbCalls).isGreaterThan(1);
+            for (int agentHandle = 5; agentHandle < 20; agentHandle += 2)
+                assertThat(passivationStore.get(agentHandle)).isEqualTo(state(7, agentHandle));
+            assertThat(passivationStore.get(21)).isEqualTo(state(9, 21));
+            assertThat(passivationStore.get(3)).isNull();
+            assertThat(passivationStore.size()).isEqualTo(9);
+            assertThat(passivationStore.getNbChunks()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Test if compact does nothing when the store does not need a compaction")
+        void testCompactWithoutDeadStates() {
+            var passivationStore = createStore(AgentPassivationController.Storage.OFF_HEAP);
+            passivationStore.put(0, state(40, 0));
+            passivationStore.remove(0);
+            passivationStore.put(1, state(40, 1));
+
+            assertThat(passivationStore.compact(Long.MAX_VALUE)).isFalse();
+            assertThat(passivationStore.getNbChunks()).isEqualTo(5);
+        }
+
+    }
+}
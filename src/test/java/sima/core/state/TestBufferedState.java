@@ -0,0 +1,99 @@
+package sima.core.state;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestBufferedState {
+
+    // Tests.
+
+    @Nested
+    @Tag("BufferedState.constructor")
+    @DisplayName("BufferedState constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with a negative size")
+        void testConstructorWithNegativeSize() {
+            assertThrows(IllegalArgumentException.class, () -> new BufferedIntState(-1, 0));
+            assertThrows(IllegalArgumentException.class, () -> new BufferedLongState(-1, 0L));
+            assertThrows(IllegalArgumentException.class, () -> new BufferedDoubleState(-1, 0d));
+            assertThrows(IllegalArgumentException.class, () -> new BufferedObjectState<String>(-1, null));
+        }
+
+        @Test
+        @DisplayName("Test if all indexes start with the initial value in both buffers")
+        void testInitialValue() {
+            var state = new BufferedLongState(10, 7L);
+
+            assertThat(state.size()).isEqualTo(10);
+            for (int i = 0; i < state.size(); i++) {
+                assertThat(state.get(i)).isEqualTo(7L);
+                assertThat(state.getNext(i)).isEqualTo(7L);
+            }
+        }
+
+    }
+
+    @Nested
+    @Tag("BufferedState.swap")
+    @DisplayName("BufferedState swap tests")
+    class SwapTest {
+
+        @Test
+        @DisplayName("Test if a written value is only read after the swap")
+        void testSetIsVisibleAfterSwap() {
+            var state = new BufferedDoubleState(3, 0d);
+
+            state.set(1, 0.5d);
+
+            assertThat(state.get(1)).isZero();
+            assertThat(state.getNext(1)).isEqualTo(0.5d);
+            state.swap();
+            assertThat(state.get(1)).isEqualTo(0.5d);
+        }
+
+        @Test
+        @DisplayName("Test if an index which is not written keeps its value after several swaps")
+        void testUnwrittenIndexKeepsItsValue() {
+            var state = new BufferedIntState(2, 0);
+
+            state.set(0, 1);
+            state.swap();
+            state.set(1, 2);
+            state.swap();
+
+            assertThat(state.get(0)).isEqualTo(1);
+            assertThat(state.get(1)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Test if onStepBarrier swaps the buffers")
+        void testOnStepBarrier() {
+            var state = new BufferedObjectState<String>(1, "A");
+
+            state.set(0, "B");
+            state.onStepBarrier(1L);
+
+            assertThat(state.get(0)).isEqualTo("B");
+            assertThat(state.getNext(0)).isEqualTo("B");
+        }
+
+        @Test
+        @DisplayName("Test if initialize sets the value in both buffers")
+        void testInitialize() {
+            var state = new BufferedIntState(1, 0);
+
+            state.initialize(0, 5);
+
+            assertThat(state.get(0)).isEqualTo(5);
+            assertThat(state.getNext(0)).isEqualTo(5);
+        }
+
+    }
+}
@@ -0,0 +1,115 @@
+package sima.core.utils;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestLongHashMap {
+
+    // Variables.
+
+    protected LongHashMap<String> map;
+
+    // Init.
+
+    @BeforeEach
+    public void setUp() {
+        map = new LongHashMap<>();
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("LongHashMap.put")
+    @DisplayName("LongHashMap put tests")
+    class PutTest {
+
+        @Test
+        @DisplayName("Test if put throws IllegalArgumentException with a null value")
+        void testPutWithNullValue() {
+            assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+        }
+
+        @Test
+        @DisplayName("Test if put maps the value and returns the previous value")
+        void testPut() {
+            assertThat(map.put(1L, "A")).isNull();
+            assertThat(map.put(1L, "B")).isEqualTo("A");
+            assertThat(map.get(1L)).isEqualTo("B");
+            assertThat(map.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Test if put keeps all entries after several resizes")
+        void testPutWithResize() {
+            for (long key = -500; key < 500; key++)
+                map.put(key * 1024, String.valueOf(key));
+
+            assertThat(map.size()).isEqualTo(1000);
+            for (long key = -500; key < 500; key++)
+                assertThat(map.get(key * 1024)).isEqualTo(String.valueOf(key));
+            assertThat(map.containsKey(1L)).isFalse();
+        }
+
+    }
+
+    @Nested
+    @Tag("LongHashMap.remove")
+    @DisplayName("LongHashMap remove tests")
+    class RemoveTest {
+
+        @Test
+        @DisplayName("Test if remove returns null if the key is not mapped")
+        void testRemoveNotMappedKey() {
+            assertThat(map.remove(1L)).isNull();
+            assertThat(map.isEmpty()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Test if remove keeps the other entries reachable")
+        void testRemoveKeepsOtherEntries() {
+            var random = new SplittableRandom(42);
+            Map<Long, String> expected = new HashMap<>();
+            for (int i = 0; i < 5000; i++) {
+                long key = random.nextInt(256);
+                if (random.nextBoolean()) {
+                    assertThat(map.put(key, "V" + i)).isEqualTo(expected.put(key, "V" + i));
+                } else
+                    assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            }
+
+            assertThat(map.size()).isEqualTo(expected.size());
+            for (long key = 0; key < 256; key++)
+                assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+
+    }
+
+    @Nested
+    @Tag("LongHashMap.forEachValue")
+    @DisplayName("LongHashMap forEachValue and clear tests")
+    class ForEachValueTest {
+
+        @Test
+        @DisplayName("Test if forEachValue visits all values and clear removes them")
+        void testForEachValueAndClear() {
+            map.put(1L, "A");
+            map.put(2L, "B");
+            List<String> values = new ArrayList<>();
+            map.forEachValue(values::add);
+            assertThat(values).containsExactlyInAnyOrder("A", "B");
+
+            map.clear();
+            assertThat(map.isEmpty()).isTrue();
+            assertThat(map.get(1L)).isNull();
+        }
+
+    }
+}
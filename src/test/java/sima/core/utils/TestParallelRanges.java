@@ -0,0 +1,68 @@
+package sima.core.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestParallelRanges {
+
+    // Tests.
+
+    @Nested
+    @Tag("ParallelRanges.forEachRange")
+    @DisplayName("ParallelRanges forEachRange tests")
+    class ForEachRangeTest {
+
+        @Test
+        @DisplayName("Test if forEachRange applies the task one time on each index with ranges of at most threshold indexes")
+        void testForEachRange() {
+            var nbApplications = new AtomicIntegerArray(1000);
+            var nbRanges = new AtomicInteger();
+
+            ParallelRanges.forEachRange(ForkJoinPool.commonPool(), 0, 1000, 10, (from, to) -> {
+                assertThat(to - from).isLessThanOrEqualTo(10);
+                nbRanges.incrementAndGet();
+                for (int i = from; i < to; i++)
+                    nbApplications.incrementAndGet(i);
+            });
+
+            for (int i = 0; i < 1000; i++)
+                assertThat(nbApplications.get(i)).isEqualTo(1);
+            assertThat(nbRanges.get()).isGreaterThan(1);
+        }
+
+        @Test
+        @DisplayName("Test if forEachRange applies the task once on the whole interval if it has at most threshold indexes")
+        void testForEachRangeWithSmallInterval() {
+            var nbRanges = new AtomicInteger();
+
+            ParallelRanges.forEachRange(ForkJoinPool.commonPool(), 5, 15, 10, (from, to) -> {
+                assertThat(from).isEqualTo(5);
+                assertThat(to).isEqualTo(15);
+                nbRanges.incrementAndGet();
+            });
+
+            assertThat(nbRanges.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Test if forEachRange throws an IllegalArgumentException with a null pool, a null task or a threshold less than 1")
+        void testForEachRangeWithWrongArgs() {
+            var pool = ForkJoinPool.commonPool();
+            assertThrows(IllegalArgumentException.class, () -> ParallelRanges.forEachRange(null, 0, 10, 1, (from, to) -> {
+            }));
+            assertThrows(IllegalArgumentException.class, () -> ParallelRanges.forEachRange(pool, 0, 10, 1, null));
+            assertThrows(IllegalArgumentException.class, () -> ParallelRanges.forEachRange(pool, 0, 10, 0, (from, to) -> {
+            }));
+        }
+
+    }
+}
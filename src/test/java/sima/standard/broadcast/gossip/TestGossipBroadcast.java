@@ -0,0 +1,305 @@
+package sima.standard.broadcast.gossip;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.Environment;
+import sima.core.protocol.Protocol;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.core.protocol.TestProtocol;
+import sima.core.scheduler.Scheduler;
+import sima.core.scheduler.executor.Executable;
+import sima.core.simulation.SimaSimulation;
+import sima.core.simulation.SimaSimulationUtils;
+import sima.standard.environment.message.Message;
+import sima.standard.transport.MessageTransportProtocol;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+import static sima.core.TestSima.mockSimaSimulation;
+
+@ExtendWith(MockitoExtension.class)
+public class TestGossipBroadcast extends TestProtocol {
+
+    // Variables.
+
+    protected GossipBroadcast gossipBroadcast;
+
+    @Mock
+    private SimaAgent mockAgentOwner;
+
+    @Mock
+    private AgentIdentifier mockOwnerIdentifier;
+
+    @Mock
+    private AgentIdentifier mockOtherIdentifier;
+
+    @Mock
+    private AgentIdentifier mockPeerIdentifier;
+
+    @Mock
+    private MessageTransportProtocol mockMessageTransport;
+
+    @Mock
+    private Environment mockEnvironment;
+
+    @Mock
+    private Scheduler mockScheduler;
+
+    @Mock
+    private Protocol mockProtocol;
+
+    @Mock
+    private ProtocolIdentifier mockProtocolIdentifier;
+
+    @Mock
+    private Message mockMessage;
+
+    // Init.
+
+    @BeforeEach
+    public void setUp() {
+        gossipBroadcast = new GossipBroadcast("GB_P", mockAgentOwner, new HashMap<>());
+        protocol = gossipBroadcast;
+    }
+
+    private GossipBroadcast createGossipBroadcast(String mode, int rounds) {
+        Map<String, String> args = new HashMap<>();
+        args.put(GossipBroadcast.MODE_ARGS, mode);
+        args.put(GossipBroadcast.ROUNDS_ARGS, String.valueOf(rounds));
+        var gossip = new GossipBroadcast("GB_P", mockAgentOwner, args);
+        gossip.setEnvironment(mockEnvironment);
+        gossip.setMessageTransport(mockMessageTransport);
+        return gossip;
+    }
+
+    private void ownerCanDeliver() {
+        when(mockMessage.getIntendedProtocol()).thenReturn(mockProtocolIdentifier);
+        when(mockAgentOwner.getProtocol(mockProtocolIdentifier)).thenReturn(mockProtocol);
+    }
+
+    /**
+     * Executes the last scheduled round.
+     */
+    private void executeScheduledRound(int nbScheduledRounds) {
+        ArgumentCaptor<Executable> captor = ArgumentCaptor.forClass(Executable.class);
+        verify(mockScheduler, times(nbScheduledRounds)).scheduleExecutableOnce(captor.capture(), eq(GossipBroadcast.DEFAULT_ROUND_PERIOD));
+        captor.getValue().execute();
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("GossipBroadcast.constructor")
+    @DisplayName("GossipBroadcast constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor uses the default arguments with null args")
+        void testConstructorWithNullArgs() {
+            var gossip = assertDoesNotThrow(() -> new GossipBroadcast("GB_P", mockAgentOwner, null));
+            assertThat(gossip.isPush()).isTrue();
+            assertThat(gossip.isPull()).isFalse();
+            assertThat(gossip.getFanout()).isEqualTo(GossipBroadcast.DEFAULT_FANOUT);
+            assertThat(gossip.getRounds()).isEqualTo(GossipBroadcast.DEFAULT_ROUNDS);
+            assertThat(gossip.getRoundPeriod()).isEqualTo(GossipBroadcast.DEFAULT_ROUND_PERIOD);
+        }
+
+        @Test
+        @DisplayName("Test if constructor parses the mode, the fanout, the rounds and the round period")
+        void testConstructorWithArgs() {
+            Map<String, String> args = new HashMap<>();
+            args.put(GossipBroadcast.MODE_ARGS, GossipBroadcast.PUSH_PULL_MODE);
+            args.put(GossipBroadcast.FANOUT_ARGS, "5");
+            args.put(GossipBroadcast.ROUNDS_ARGS, "7");
+            args.put(GossipBroadcast.ROUND_PERIOD_ARGS, "20");
+            var gossip = new GossipBroadcast("GB_P", mockAgentOwner, args);
+            assertThat(gossip.isPush()).isTrue();
+            assertThat(gossip.isPull()).isTrue();
+            assertThat(gossip.getFanout()).isEqualTo(5);
+            assertThat(gossip.getRounds()).isEqualTo(7);
+            assertThat(gossip.getRoundPeriod()).isEqualTo(20L);
+        }
+
+        @Test
+        @DisplayName("Test if constructor throws IllegalArgumentException with an unknown mode or a wrong fanout")
+        void testConstructorWithWrongArgs() {
+            Map<String, String> wrongMode = Map.of(GossipBroadcast.MODE_ARGS, "flood");
+            Map<String, String> zeroFanout = Map.of(GossipBroadcast.FANOUT_ARGS, "0");
+            Map<String, String> notNumberFanout = Map.of(GossipBroadcast.FANOUT_ARGS, "three");
+            assertThrows(IllegalArgumentException.class, () -> new GossipBroadcast("GB_P", mockAgentOwner, wrongMode));
+            assertThrows(IllegalArgumentException.class, () -> new GossipBroadcast("GB_P", mockAgentOwner, zeroFanout));
+            assertThrows(IllegalArgumentException.class, () -> new GossipBroadcast("GB_P", mockAgentOwner, notNumberFanout));
+        }
+    }
+
+    @Nested
+    @Tag("GossipBroadcast.broadcast")
+    @DisplayName("GossipBroadcast broadcast tests")
+    class BroadcastTest {
+
+        @Test
+        @DisplayName("Test if broadcast throws IllegalArgumentException if the message is null")
+        void testBroadcastWithNullMessage() {
+            assertThrows(IllegalArgumentException.class, () -> gossipBroadcast.broadcast(null));
+        }
+
+        @Test
+        @DisplayName("Test if broadcast in push mode delivers the message, pushes it to fanout peers during the rounds and then stops")
+        void testBroadcastInPushMode() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                // WHEN
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                when(mockAgentOwner.getAgentIdentifier()).thenReturn(mockOwnerIdentifier);
+                when(mockEnvironment.sampleEvolvingAgents(eq(GossipBroadcast.DEFAULT_FANOUT), eq(mockOwnerIdentifier), any()))
+                        .thenReturn(List.of(mockPeerIdentifier));
+                ownerCanDeliver();
+                var gossip = createGossipBroadcast(GossipBroadcast.PUSH_MODE, 2);
+
+                // GIVEN
+                gossip.broadcast(mockMessage);
+                verify(mockProtocol, times(1)).processEvent(mockMessage);
+                verify(mockMessageTransport, times(1)).sendMulticast(eq(List.of(mockPeerIdentifier)), any(GossipMessage.class));
+
+                executeScheduledRound(1);
+                verify(mockMessageTransport, times(2)).sendMulticast(eq(List.of(mockPeerIdentifier)), any(GossipMessage.class));
+
+                executeScheduledRound(2);
+                verify(mockMessageTransport, times(2)).sendMulticast(eq(List.of(mockPeerIdentifier)), any(GossipMessage.class));
+                assertThat(gossip.getNbActiveRumors()).isZero();
+                verify(mockScheduler, times(2)).scheduleExecutableOnce(any(), anyLong());
+            }
+        }
+
+        @Test
+        @DisplayName("Test if the peers are sampled with random streams keyed by the owner and its number of samples")
+        void testPeersAreSampledWithKeyedStreams() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                // WHEN
+                SimaSimulationUtils.setRandomSeed(42L);
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                when(mockAgentOwner.getAgentIdentifier()).thenReturn(mockOwnerIdentifier);
+                when(mockOwnerIdentifier.getAgentUniqueId()).thenReturn(5);
+                when(mockEnvironment.sampleEvolvingAgents(anyInt(), eq(mockOwnerIdentifier), any())).thenReturn(List.of(mockPeerIdentifier));
+                ownerCanDeliver();
+                var gossip = createGossipBroadcast(GossipBroadcast.PUSH_MODE, 2);
+
+                // GIVEN
+                gossip.broadcast(mockMessage);
+                executeScheduledRound(1);
+
+                // THEN
+                ArgumentCaptor<SplittableRandom> captor = ArgumentCaptor.forClass(SplittableRandom.class);
+                verify(mockEnvironment, times(2)).sampleEvolvingAgents(anyInt(), eq(mockOwnerIdentifier), captor.capture());
+                assertThat(captor.getAllValues().get(0).nextLong()).isEqualTo(SimaSimulationUtils.keyedRandom(5L, 0L).nextLong());
+                assertThat(captor.getAllValues().get(1).nextLong()).isEqualTo(SimaSimulationUtils.keyedRandom(5L, 1L).nextLong());
+            }
+        }
+
+    }
+
+    @Nested
+    @Tag("GossipBroadcast.receive")
+    @DisplayName("GossipBroadcast receive tests")
+    class ReceiveTest {
+
+        @Test
+        @DisplayName("Test if receive throws UnsupportedOperationException if the message is not a GossipMessage")
+        void testReceiveWithNotGossipMessage() {
+            assertThrows(UnsupportedOperationException.class, () -> gossipBroadcast.receive(mockMessage));
+        }
+
+        @Test
+        @DisplayName("Test if receive delivers and pushes a rumor only one time")
+        void testReceiveDeliversOnlyOneTime() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                // WHEN
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                when(mockAgentOwner.getAgentIdentifier()).thenReturn(mockOwnerIdentifier);
+                when(mockEnvironment.sampleEvolvingAgents(anyInt(), eq(mockOwnerIdentifier), any())).thenReturn(List.of(mockPeerIdentifier));
+                ownerCanDeliver();
+                var gossip = createGossipBroadcast(GossipBroadcast.PUSH_MODE, 2);
+                var rumor = new GossipMessage(GossipMessage.Type.RUMOR, 0, mockOtherIdentifier, mockOtherIdentifier, mockMessage,
+                                              gossip.getIdentifier());
+
+                // GIVEN
+                gossip.receive(rumor);
+                gossip.receive(rumor.duplicate());
+                gossip.processEvent(rumor.relayedBy(mockPeerIdentifier));
+                verify(mockProtocol, times(1)).processEvent(mockMessage);
+                verify(mockMessageTransport, times(1)).sendMulticast(any(), any(GossipMessage.class));
+                assertThat(gossip.getNbActiveRumors()).isEqualTo(1);
+            }
+        }
+
+        @Test
+        @DisplayName("Test if receive of a pull request sends back the active rumors to the requester")
+        void testReceivePullRequestSendsBackActiveRumors() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                // WHEN
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                when(mockAgentOwner.getAgentIdentifier()).thenReturn(mockOwnerIdentifier);
+                ownerCanDeliver();
+                var gossip = createGossipBroadcast(GossipBroadcast.PULL_MODE, 2);
+                gossip.broadcast(mockMessage);
+
+                // GIVEN
+                gossip.receive(new GossipMessage(GossipMessage.Type.PULL_REQUEST, GossipMessage.NO_SEQUENCE, mockPeerIdentifier, mockPeerIdentifier,
+                                                 null, gossip.getIdentifier()));
+                ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+                verify(mockMessageTransport, times(1)).send(eq(mockPeerIdentifier), captor.capture());
+                var answer = (GossipMessage) captor.getValue();
+                assertThat(answer.isRumor()).isTrue();
+                assertThat(answer.getSender()).isSameAs(mockOwnerIdentifier);
+                assertThat(answer.getMessage()).isSameAs(mockMessage);
+                verify(mockMessageTransport, never()).sendMulticast(any(), any());
+            }
+        }
+
+        @Test
+        @DisplayName("Test if receive of a pull request which advertises an unknown rumor begins to pull in pull mode")
+        void testReceivePullRequestWithUnknownRumorBeginsToPull() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                // WHEN
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                when(mockAgentOwner.getAgentIdentifier()).thenReturn(mockOwnerIdentifier);
+                when(mockEnvironment.sampleEvolvingAgents(anyInt(), eq(mockOwnerIdentifier), any())).thenReturn(List.of(mockPeerIdentifier));
+                var gossip = createGossipBroadcast(GossipBroadcast.PULL_MODE, 1);
+
+                // GIVEN
+                gossip.receive(new GossipMessage(GossipMessage.Type.PULL_REQUEST, 0, mockOtherIdentifier, mockOtherIdentifier, null,
+                                                 gossip.getIdentifier()));
+                executeScheduledRound(1);
+                ArgumentCaptor<GossipMessage> captor = ArgumentCaptor.forClass(GossipMessage.class);
+                verify(mockMessageTransport, times(1)).sendMulticast(eq(List.of(mockPeerIdentifier)), captor.capture());
+                assertThat(captor.getValue().isPullRequest()).isTrue();
+                assertThat(captor.getValue().getNumSequence()).isEqualTo(GossipMessage.NO_SEQUENCE);
+                assertThat(captor.getValue().getRelay()).isSameAs(mockOwnerIdentifier);
+                verify(mockScheduler, times(1)).scheduleExecutableOnce(any(), anyLong());
+            }
+        }
+
+        @Test
+        @DisplayName("Test if receive of a pull request does not begin to pull in push mode")
+        void testReceivePullRequestInPushMode() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(mockOwnerIdentifier);
+            var gossip = createGossipBroadcast(GossipBroadcast.PUSH_MODE, 1);
+            gossip.receive(new GossipMessage(GossipMessage.Type.PULL_REQUEST, 0, mockOtherIdentifier, mockOtherIdentifier, null,
+                                             gossip.getIdentifier()));
+            verifyNoInteractions(mockMessageTransport, mockScheduler);
+        }
+
+    }
+}
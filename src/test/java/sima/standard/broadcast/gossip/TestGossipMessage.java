@@ -0,0 +1,123 @@
+package sima.standard.broadcast.gossip;
+
+import org.junit.jupiter.api.*;
+import org.mockito.Mock;
+import sima.core.agent.AgentIdentifier;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.standard.environment.message.TestMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestGossipMessage extends TestMessage {
+
+    // Variables.
+
+    protected GossipMessage gossipMessage;
+
+    @Mock
+    private AgentIdentifier mockAgentSender;
+
+    @Mock
+    private AgentIdentifier mockAgentRelay;
+
+    @Mock
+    private AgentIdentifier mockAgentRelayOther;
+
+    @Mock
+    private ProtocolIdentifier mockProtocolIdentifier;
+
+    // Inits.
+
+    @BeforeEach
+    @Override
+    protected void setUp() {
+        gossipMessage = new GossipMessage(GossipMessage.Type.RUMOR, 0, mockAgentSender, mockAgentRelay, mockContentMessage, mockProtocolIdentifier);
+        message = gossipMessage;
+    }
+
+    // Tests
+
+    @Nested
+    @Tag("GossipMessage.constructor")
+    @DisplayName("GossipMessage constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws NullPointerException with null sender")
+        void testConstructorWithNullSender() {
+            assertThrows(NullPointerException.class,
+                         () -> new GossipMessage(GossipMessage.Type.RUMOR, 0, null, mockAgentRelay, mockContentMessage, mockProtocolIdentifier));
+        }
+
+        @Test
+        @DisplayName("Test if constructor throws IllegalArgumentException with null type or null relay")
+        void testConstructorWithNullTypeOrRelay() {
+            assertThrows(IllegalArgumentException.class,
+                         () -> new GossipMessage(null, 0, mockAgentSender, mockAgentRelay, mockContentMessage, mockProtocolIdentifier));
+            assertThrows(IllegalArgumentException.class,
+                         () -> new GossipMessage(GossipMessage.Type.RUMOR, 0, mockAgentSender, null, mockContentMessage, mockProtocolIdentifier));
+        }
+
+        @Test
+        @DisplayName("Test if constructor does not throw exception with a pull request without content")
+        void testConstructorWithPullRequest() {
+            assertDoesNotThrow(() -> new GossipMessage(GossipMessage.Type.PULL_REQUEST, GossipMessage.NO_SEQUENCE, mockAgentSender, mockAgentRelay,
+                                                       null, mockProtocolIdentifier));
+        }
+    }
+
+    @Nested
+    @Tag("GossipMessage.duplicate")
+    @DisplayName("GossipMessage duplicate tests")
+    class DuplicateTest {
+
+        @Test
+        @DisplayName("Test if duplicate returns an equal pull request without content")
+        void testDuplicatePullRequest() {
+            var pullRequest = new GossipMessage(GossipMessage.Type.PULL_REQUEST, 3, mockAgentSender, mockAgentRelay, null, mockProtocolIdentifier);
+            var duplicate = pullRequest.duplicate();
+            assertThat(duplicate).isEqualTo(pullRequest).isNotSameAs(pullRequest);
+            assertThat(duplicate.isPullRequest()).isTrue();
+            assertThat(duplicate.getMessage()).isNull();
+        }
+
+    }
+
+    @Nested
+    @Tag("GossipMessage.equals")
+    @DisplayName("GossipMessage equals tests")
+    class EqualsTest {
+
+        @Test
+        @DisplayName("Test if equals returns false with a different type, sequence number or relay")
+        void testEqualsWithTwoNotEqualsMessage() {
+            var m2 = new GossipMessage(GossipMessage.Type.PULL_REQUEST, 0, mockAgentSender, mockAgentRelay, mockContentMessage,
+                                       mockProtocolIdentifier);
+            var m3 = new GossipMessage(GossipMessage.Type.RUMOR, 1, mockAgentSender, mockAgentRelay, mockContentMessage, mockProtocolIdentifier);
+            var m4 = new GossipMessage(GossipMessage.Type.RUMOR, 0, mockAgentSender, mockAgentRelayOther, mockContentMessage,
+                                       mockProtocolIdentifier);
+            assertThat(gossipMessage).isNotEqualTo(m2).isNotEqualTo(m3).isNotEqualTo(m4);
+        }
+
+    }
+
+    @Nested
+    @Tag("GossipMessage.relayedBy")
+    @DisplayName("GossipMessage relayedBy tests")
+    class RelayedByTest {
+
+        @Test
+        @DisplayName("Test if relayedBy keeps the sender, the sequence number and the content and changes the relay")
+        void testRelayedBy() {
+            var relayed = gossipMessage.relayedBy(mockAgentRelayOther);
+            assertThat(relayed.getRelay()).isSameAs(mockAgentRelayOther);
+            assertThat(relayed.getSender()).isSameAs(mockAgentSender);
+            assertThat(relayed.getNumSequence()).isZero();
+            assertThat(relayed.getMessage()).isSameAs(mockContentMessage);
+            assertThat(gossipMessage.relayedBy(mockAgentRelay)).isSameAs(gossipMessage);
+        }
+
+    }
+}
@@ -0,0 +1,162 @@
+package sima.standard.broadcast.reliable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.simulation.LocalAgentManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static sima.testing.simulation.HandleBindingAgentManager.bindAgentHandle;
+
+public class TestReceivedSequences {
+
+    // Variables.
+
+    private ReceivedSequences receivedSequences;
+
+    private AgentIdentifier sender;
+
+    // Init.
+
+    @BeforeEach
+    void setUp() {
+        receivedSequences = new ReceivedSequences();
+        sender = new AgentIdentifier("A", 0, 0);
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("ReceivedSequences.constructor")
+    @DisplayName("ReceivedSequences constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if the constructor throws an IllegalArgumentException with a max window size less than 1")
+        void testConstructorWithWrongMaxWindowSize() {
+            assertThrows(IllegalArgumentException.class, () -> new ReceivedSequences(0));
+        }
+
+    }
+
+    @Nested
+    @Tag("ReceivedSequences.markReceived")
+    @DisplayName("ReceivedSequences markReceived tests")
+    class MarkReceivedTest {
+
+        @Test
+        @DisplayName("Test if markReceived returns true only the first time a sequence number is received")
+        void testMarkReceivedDetectsDuplicates() {
+            assertThat(receivedSequences.markReceived(sender, 0L)).isTrue();
+            assertThat(receivedSequences.markReceived(sender, 0L)).isFalse();
+            assertThat(receivedSequences.markReceived(sender, 2L)).isTrue();
+            assertThat(receivedSequences.markReceived(sender, 2L)).isFalse();
+            assertThat(receivedSequences.markReceived(sender, 1L)).isTrue();
+            assertThat(receivedSequences.getLowWatermark(sender)).isEqualTo(3L);
+        }
+
+        @Test
+        @DisplayName("Test if the senders are tracked independently")
+        void testMarkReceivedPerSender() {
+            var otherSender = new AgentIdentifier("A", 1, 1);
+            bindAgentHandle(otherSender, 3);
+
+            assertThat(receivedSequences.markReceived(sender, 0L)).isTrue();
+            assertThat(receivedSequences.markReceived(otherSender, 0L)).isTrue();
+            assertThat(receivedSequences.markReceived(otherSender, 0L)).isFalse();
+            assertThat(receivedSequences.getNbSenders()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Test if the bitmap grows with a large gap and shrinks when the gap is filled")
+        void testBitmapFollowsGaps() {
+            for (long sequence = 1000L; sequence > 0L; sequence--)
+                assertThat(receivedSequences.markReceived(sender, sequence)).isTrue();
+
+            assertThat(receivedSequences.getBitmapSize(sender)).isGreaterThan(1);
+
+            assertThat(receivedSequences.markReceived(sender, 0L)).isTrue();
+            assertThat(receivedSequences.getLowWatermark(sender)).isEqualTo(1001L);
+            assertThat(receivedSequences.getBitmapSize(sender)).isEqualTo(1);
+            for (long sequence = 0L; sequence <= 1000L; sequence++)
+                assertThat(receivedSequences.markReceived(sender, sequence)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Test if out of order sequence numbers across word boundaries are tracked")
+        void testOutOfOrderAcrossWords() {
+            assertThat(receivedSequences.markReceived(sender, 130L)).isTrue();
+            assertThat(receivedSequences.markReceived(sender, 64L)).isTrue();
+            for (long sequence = 0L; sequence < 64L; sequence++)
+                assertThat(receivedSequences.markReceived(sender, sequence)).isTrue();
+
+            assertThat(receivedSequences.getLowWatermark(sender)).isEqualTo(65L);
+            assertThat(receivedSequences.markReceived(sender, 130L)).isFalse();
+            assertThat(receivedSequences.markReceived(sender, 129L)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Test if a message delivered after that its sender has been killed is detected as already received")
+        void testMarkReceivedAfterSenderKilled() {
+            var agent = new SimaAgent("KILLED", 0, 7, null);
+            var agentManager = new LocalAgentManager();
+            agentManager.addAgent(agent);
+            var killedSender = agent.getAgentIdentifier();
+
+            assertThat(receivedSequences.markReceived(killedSender, 0L)).isTrue();
+            assertThat(receivedSequences.markReceived(killedSender, 2L)).isTrue();
+
+            agentManager.removeAgent(agent);
+
+            assertThat(killedSender.hasAgentHandle()).isFalse();
+            assertThat(receivedSequences.markReceived(killedSender, 0L)).isFalse();
+            assertThat(receivedSequences.markReceived(killedSender, 2L)).isFalse();
+            assertThat(receivedSequences.markReceived(new AgentIdentifier("KILLED", 0, 7), 2L)).isFalse();
+            assertThat(receivedSequences.getNbSenders()).isEqualTo(1);
+        }
+
+    }
+
+    @Nested
+    @Tag("ReceivedSequences.window")
+    @DisplayName("ReceivedSequences bounded window tests")
+    class WindowTest {
+
+        @Test
+        @DisplayName("Test if a very large jump of sequence number does not throw and does not grow the bitmap beyond the window")
+        void testMarkReceivedWithLargeJump() {
+            assertThat(receivedSequences.markReceived(sender, 0L)).isTrue();
+            assertThat(receivedSequences.markReceived(sender, Long.MAX_VALUE / 2)).isTrue();
+
+            assertThat(receivedSequences.getBitmapSize(sender)).isLessThanOrEqualTo(ReceivedSequences.DEFAULT_MAX_WINDOW_SIZE / Long.SIZE);
+            assertThat(receivedSequences.getLowWatermark(sender)).isEqualTo(Long.MAX_VALUE / 2 - ReceivedSequences.DEFAULT_MAX_WINDOW_SIZE);
+            assertThat(receivedSequences.getNbSkippedSequences()).isEqualTo(Long.MAX_VALUE / 2 - ReceivedSequences.DEFAULT_MAX_WINDOW_SIZE - 1);
+            assertThat(receivedSequences.markReceived(sender, Long.MAX_VALUE / 2)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Test if a sequence number beyond the window advances the low watermark and gives up only the missing sequence numbers")
+        void testMarkReceivedBeyondWindow() {
+            var boundedSequences = new ReceivedSequences(64);
+            assertThat(boundedSequences.markReceived(sender, 1L)).isTrue();
+            assertThat(boundedSequences.markReceived(sender, 3L)).isTrue();
+            assertThat(boundedSequences.markReceived(sender, 5L)).isTrue();
+
+            assertThat(boundedSequences.markReceived(sender, 68L)).isTrue();
+
+            // The window is ]4; 68], 0 and 2 are given up.
+            assertThat(boundedSequences.getLowWatermark(sender)).isEqualTo(4L);
+            assertThat(boundedSequences.getNbSkippedSequences()).isEqualTo(2L);
+            assertThat(boundedSequences.markReceived(sender, 2L)).isFalse();
+            assertThat(boundedSequences.markReceived(sender, 68L)).isFalse();
+            assertThat(boundedSequences.markReceived(sender, 4L)).isTrue();
+            assertThat(boundedSequences.getLowWatermark(sender)).isEqualTo(6L);
+        }
+
+    }
+}
@@ -23,7 +23,7 @@ import java.util.Map;
 
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class TestReliableBroadcast extends TestProtocol {
@@ -158,6 +158,36 @@ public class TestReliableBroadcast extends TestProtocol {
                                                                                             reliableBroadcast.getIdentifier())));
         }
 
+        @Test
+        @DisplayName("Test if receive delivers a message only one time")
+        void testReceiveDeliversOnlyOneTime() {
+            // WHEN
+            when(mockMessage.getIntendedProtocol()).thenReturn(mockProtocolIdentifier);
+            when(mockAgentOwner.getProtocol(mockProtocolIdentifier)).thenReturn(mockProtocol);
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(mockOwnerIdentifier);
+            var message = new ReliableBroadcastMessage(0, mockOwnerIdentifier, mockMessage, reliableBroadcast.getIdentifier());
+
+            // GIVEN
+            reliableBroadcast.receive(message);
+            reliableBroadcast.receive(message.duplicate());
+            reliableBroadcast.processEvents(List.of(message, message.duplicate()));
+            verify(mockProtocol, times(1)).processEvent(mockMessage);
+        }
+
+        @Test
+        @DisplayName("Test if processEvents gives the not accepted events to processEvent after the delivery of the new messages")
+        void testProcessEventsWithNotAcceptedEvent() {
+            // WHEN
+            when(mockMessage.getIntendedProtocol()).thenReturn(mockProtocolIdentifier);
+            when(mockAgentOwner.getProtocol(mockProtocolIdentifier)).thenReturn(mockProtocol);
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(mockOwnerIdentifier);
+            var message = new ReliableBroadcastMessage(0, mockOwnerIdentifier, mockMessage, reliableBroadcast.getIdentifier());
+
+            // GIVEN
+            assertThrows(UnsupportedOperationException.class, () -> reliableBroadcast.processEvents(List.of(mockEvent, message)));
+            verify(mockProtocol, times(1)).processEvent(mockMessage);
+        }
+
     }
 
     @Nested
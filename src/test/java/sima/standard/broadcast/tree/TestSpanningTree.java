@@ -0,0 +1,114 @@
+package sima.standard.broadcast.tree;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sima.core.agent.AgentIdentifier;
+import sima.standard.environment.physical.graph.CSRGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestSpanningTree {
+
+    // Methods.
+
+    private static List<AgentIdentifier> agents(int nbAgents) {
+        List<AgentIdentifier> agents = new ArrayList<>();
+        for (int i = 0; i < nbAgents; i++)
+            agents.add(new AgentIdentifier("AGENT_" + i, i, i));
+        return agents;
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("SpanningTree.balanced")
+    @DisplayName("SpanningTree balanced tests")
+    class BalancedTest {
+
+        @Test
+        @DisplayName("Test if balanced throws an IllegalArgumentException with a null root, null members or a degree less than 1")
+        void testBalancedWithWrongArgs() {
+            var agents = agents(3);
+            assertThrows(IllegalArgumentException.class, () -> SpanningTree.balanced(null, agents, 2));
+            assertThrows(IllegalArgumentException.class, () -> SpanningTree.balanced(agents.get(0), null, 2));
+            assertThrows(IllegalArgumentException.class, () -> SpanningTree.balanced(agents.get(0), agents, 0));
+        }
+
+        @Test
+        @DisplayName("Test if balanced builds a tree where each agent has at most degree children and all agents are reached")
+        void testBalanced() {
+            var agents = agents(10);
+            var tree = SpanningTree.balanced(agents.get(3), agents, 3);
+
+            assertThat(tree.size()).isEqualTo(10);
+            assertThat(tree.getRoot()).isEqualTo(agents.get(3));
+            assertThat(tree.getParent(agents.get(3))).isNull();
+            assertThat(tree.getHeight()).isEqualTo(3);
+
+            int nbChildren = 0;
+            for (AgentIdentifier agent : agents) {
+                var children = tree.getChildren(agent);
+                assertThat(children).hasSizeLessThanOrEqualTo(3);
+                for (AgentIdentifier child : children)
+                    assertThat(tree.getParent(child)).isEqualTo(agent);
+                nbChildren += children.size();
+            }
+            assertThat(nbChildren).isEqualTo(9);
+        }
+
+        @Test
+        @DisplayName("Test if balanced adds the root if it is not in the members")
+        void testBalancedWithRootNotInMembers() {
+            var agents = agents(4);
+            var tree = SpanningTree.balanced(agents.get(0), agents.subList(1, 4), 1);
+
+            assertThat(tree.size()).isEqualTo(4);
+            assertThat(tree.getHeight()).isEqualTo(4);
+            assertThat(tree.getChildren(agents.get(0))).containsExactly(agents.get(1));
+        }
+
+    }
+
+    @Nested
+    @Tag("SpanningTree.fromTopology")
+    @DisplayName("SpanningTree fromTopology tests")
+    class FromTopologyTest {
+
+        @Test
+        @DisplayName("Test if fromTopology builds a breadth first tree over the links between members")
+        void testFromTopology() {
+            // 0 - 1 - 2 - 3, 0 - 4 - 3 and 5 - 6, agent 6 is not a member.
+            var graph = new CSRGraph.Builder(7, false).addEdge(0, 1).addEdge(1, 2).addEdge(2, 3).addEdge(0, 4).addEdge(4, 3).addEdge(5, 6)
+                    .build();
+            var agents = agents(7);
+            var tree = SpanningTree.fromTopology(agents.get(0), agents.subList(0, 6), graph);
+
+            assertThat(tree.size()).isEqualTo(5);
+            assertThat(tree.getChildren(agents.get(0))).containsExactlyInAnyOrder(agents.get(1), agents.get(4));
+            assertThat(tree.getParent(agents.get(2))).isEqualTo(agents.get(1));
+            assertThat(tree.getParent(agents.get(3))).isIn(agents.get(2), agents.get(4));
+            assertThat(tree.contains(agents.get(5))).isFalse();
+            assertThat(tree.getChildren(agents.get(5))).isEmpty();
+            assertThat(tree.getHeight()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Test if fromTopology does not relay through agents which are not members")
+        void testFromTopologyWithoutRelayThroughNotMembers() {
+            // 0 - 1 - 2, agent 1 is not a member.
+            var graph = new CSRGraph.Builder(3, false).addEdge(0, 1).addEdge(1, 2).build();
+            var agents = agents(3);
+            var tree = SpanningTree.fromTopology(agents.get(0), List.of(agents.get(0), agents.get(2)), graph);
+
+            assertThat(tree.size()).isEqualTo(1);
+            assertThat(tree.contains(agents.get(2))).isFalse();
+        }
+
+    }
+}
@@ -0,0 +1,234 @@
+package sima.standard.broadcast.tree;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.Environment;
+import sima.core.protocol.Protocol;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.core.protocol.TestProtocol;
+import sima.standard.environment.message.Message;
+import sima.standard.transport.MessageTransportProtocol;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestTreeBroadcast extends TestProtocol {
+
+    // Variables.
+
+    protected TreeBroadcast treeBroadcast;
+
+    @Mock
+    private SimaAgent mockAgentOwner;
+
+    @Mock
+    private MessageTransportProtocol mockMessageTransport;
+
+    @Mock
+    private Environment mockEnvironment;
+
+    @Mock
+    private Protocol mockProtocol;
+
+    @Mock
+    private ProtocolIdentifier mockProtocolIdentifier;
+
+    @Mock
+    private Message mockMessage;
+
+    private List<AgentIdentifier> agents;
+
+    private Map<AgentIdentifier, TreeBroadcast> treeBroadcasts;
+
+    // Init.
+
+    @BeforeEach
+    public void setUp() {
+        treeBroadcast = new TreeBroadcast("TB_P", mockAgentOwner, new HashMap<>());
+        protocol = treeBroadcast;
+    }
+
+    /**
+     * Creates one {@link TreeBroadcast} per agent. All share the same transport which gives at once the message to the {@link TreeBroadcast} of
+     * the target.
+     */
+    private void createAgents(int nbAgents, int degree) {
+        agents = new ArrayList<>();
+        treeBroadcasts = new HashMap<>();
+        for (int i = 0; i < nbAgents; i++) {
+            var agentIdentifier = new AgentIdentifier("AGENT_" + i, i, i);
+            var agent = mock(SimaAgent.class);
+            lenient().when(agent.getAgentIdentifier()).thenReturn(agentIdentifier);
+            var tree = new TreeBroadcast("TB_P", agent, Map.of(TreeBroadcast.DEGREE_ARGS, String.valueOf(degree)));
+            tree.setEnvironment(mockEnvironment);
+            tree.setMessageTransport(mockMessageTransport);
+            agents.add(agentIdentifier);
+            treeBroadcasts.put(agentIdentifier, tree);
+        }
+        when(mockEnvironment.getEvolvingAgentIdentifiers()).thenReturn(agents);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void transportMulticastsDirectly() {
+        doAnswer(invocation -> {
+            Collection<AgentIdentifier> targets = invocation.getArgument(0);
+            for (AgentIdentifier target : targets)
+                treeBroadcasts.get(target).processEvent(invocation.getArgument(1));
+            return null;
+        }).when(mockMessageTransport).sendMulticast(anyCollection(), any(Message.class));
+    }
+
+    private void transportSendsDirectly() {
+        doAnswer(invocation -> {
+            treeBroadcasts.get((AgentIdentifier) invocation.getArgument(0)).processEvent(invocation.getArgument(1));
+            return null;
+        }).when(mockMessageTransport).send(any(AgentIdentifier.class), any(Message.class));
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("TreeBroadcast.constructor")
+    @DisplayName("TreeBroadcast constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor uses the default arguments with null args")
+        void testConstructorWithNullArgs() {
+            var tree = assertDoesNotThrow(() -> new TreeBroadcast("TB_P", mockAgentOwner, null));
+            assertThat(tree.getDegree()).isEqualTo(TreeBroadcast.DEFAULT_DEGREE);
+            assertThat(tree.getAggregationTimeout()).isEqualTo(TreeBroadcast.NO_TIMEOUT);
+        }
+
+        @Test
+        @DisplayName("Test if constructor throws IllegalArgumentException with a wrong degree or a negative timeout")
+        void testConstructorWithWrongArgs() {
+            Map<String, String> zeroDegree = Map.of(TreeBroadcast.DEGREE_ARGS, "0");
+            Map<String, String> negativeTimeout = Map.of(TreeBroadcast.AGGREGATION_TIMEOUT_ARGS, "-1");
+            assertThrows(IllegalArgumentException.class, () -> new TreeBroadcast("TB_P", mockAgentOwner, zeroDegree));
+            assertThrows(IllegalArgumentException.class, () -> new TreeBroadcast("TB_P", mockAgentOwner, negativeTimeout));
+        }
+    }
+
+    @Nested
+    @Tag("TreeBroadcast.broadcast")
+    @DisplayName("TreeBroadcast broadcast tests")
+    class BroadcastTest {
+
+        @Test
+        @DisplayName("Test if broadcast throws IllegalArgumentException if the message is null")
+        void testBroadcastWithNullMessage() {
+            assertThrows(IllegalArgumentException.class, () -> treeBroadcast.broadcast(null));
+        }
+
+        @Test
+        @DisplayName("Test if broadcast delivers the message one time to each agent and each agent sends at most one multicast to its children")
+        void testBroadcastDeliversToAllAgents() {
+            // WHEN
+            createAgents(10, 2);
+            transportMulticastsDirectly();
+            when(mockMessage.getIntendedProtocol()).thenReturn(mockProtocolIdentifier);
+            for (AgentIdentifier agent : agents)
+                when(treeBroadcasts.get(agent).getAgentOwner().getProtocol(mockProtocolIdentifier)).thenReturn(mockProtocol);
+
+            // GIVEN
+            treeBroadcasts.get(agents.get(0)).broadcast(mockMessage);
+            verify(mockProtocol, times(10)).processEvent(mockMessage);
+            // The agents 0 to 4 have children.
+            verify(mockMessageTransport, times(5)).sendMulticast(anyCollection(), any(TreeMessage.class));
+        }
+
+        @Test
+        @DisplayName("Test if broadcast reuses the tree while the membership does not change")
+        void testBroadcastReusesTree() {
+            // WHEN
+            createAgents(1, 2);
+            when(mockMessage.getIntendedProtocol()).thenReturn(mockProtocolIdentifier);
+            when(treeBroadcasts.get(agents.get(0)).getAgentOwner().getProtocol(mockProtocolIdentifier)).thenReturn(mockProtocol);
+
+            // GIVEN
+            var root = treeBroadcasts.get(agents.get(0));
+            root.broadcast(mockMessage);
+            root.broadcast(mockMessage);
+            verify(mockEnvironment, times(1)).getEvolvingAgentIdentifiers();
+            verify(mockProtocol, times(2)).processEvent(mockMessage);
+        }
+
+    }
+
+    @Nested
+    @Tag("TreeBroadcast.aggregate")
+    @DisplayName("TreeBroadcast aggregate tests")
+    class AggregateTest {
+
+        @Test
+        @DisplayName("Test if aggregate throws IllegalArgumentException with a null aggregation or a null callback")
+        void testAggregateWithNullArgs() {
+            assertThrows(IllegalArgumentException.class, () -> treeBroadcast.aggregate(null, value -> {
+            }));
+            assertThrows(IllegalArgumentException.class, () -> treeBroadcast.aggregate(new CountAggregation(), null));
+        }
+
+        @Test
+        @DisplayName("Test if aggregate combines the values of all agents and each agent sends one partial aggregate to its parent")
+        void testAggregateCombinesAllValues() {
+            // WHEN
+            createAgents(13, 3);
+            transportMulticastsDirectly();
+            transportSendsDirectly();
+            List<Long> results = new ArrayList<>();
+
+            // GIVEN
+            treeBroadcasts.get(agents.get(0)).aggregate(new CountAggregation(), results::add);
+            assertThat(results).containsExactly(13L);
+            verify(mockMessageTransport, times(12)).send(any(AgentIdentifier.class), any(TreeMessage.class));
+            for (TreeBroadcast tree : treeBroadcasts.values())
+                assertThat(tree.getNbPendingAggregations()).isZero();
+        }
+
+        @Test
+        @DisplayName("Test if aggregate waits for the partial aggregates of all children")
+        void testAggregateWaitsForChildren() {
+            // WHEN
+            createAgents(3, 2);
+            List<Long> results = new ArrayList<>();
+
+            // GIVEN
+            var root = treeBroadcasts.get(agents.get(0));
+            root.aggregate(new CountAggregation(), results::add);
+            assertThat(results).isEmpty();
+            assertThat(root.getNbPendingAggregations()).isEqualTo(1);
+
+            root.processEvent(TreeMessage.partialMessage(0, agents.get(0), 1L, root.getIdentifier()));
+            assertThat(results).isEmpty();
+            root.processEvent(TreeMessage.partialMessage(0, agents.get(0), 1L, root.getIdentifier()));
+            assertThat(results).containsExactly(3L);
+            assertThat(root.getNbPendingAggregations()).isZero();
+        }
+
+    }
+
+    // Inner classes.
+
+    private static final class CountAggregation implements Aggregation<Long> {
+
+        @Override
+        public Long localValue(SimaAgent agent) {
+            return 1L;
+        }
+
+        @Override
+        public Long combine(Long v1, Long v2) {
+            return v1 + v2;
+        }
+    }
+}
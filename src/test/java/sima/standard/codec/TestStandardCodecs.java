@@ -0,0 +1,110 @@
+package sima.standard.codec;
+
+import org.junit.jupiter.api.*;
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.event.Event;
+import sima.core.environment.event.codec.CodecRegistry;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.standard.broadcast.basic.BasicBroadcast;
+import sima.standard.broadcast.basic.BroadcastMessage;
+import sima.standard.broadcast.reliable.ReliableBroadcast;
+import sima.standard.broadcast.reliable.ReliableBroadcastMessage;
+import sima.standard.environment.message.Message;
+import sima.standard.environment.message.StringMessage;
+import sima.standard.environment.message.event.MessageReceptionEvent;
+import sima.standard.environment.message.event.physical.PhysicalMessageReceptionEvent;
+import sima.standard.transport.message.SimpleMessageSenderProtocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestStandardCodecs {
+
+    // Variables.
+
+    protected CodecRegistry codecRegistry;
+
+    private final AgentIdentifier sender = new AgentIdentifier("SENDER", 1, 1);
+
+    private final ProtocolIdentifier transportProtocol = new ProtocolIdentifier(SimpleMessageSenderProtocol.class, "TRANSPORT");
+
+    private final ProtocolIdentifier broadcastProtocol = new ProtocolIdentifier(BasicBroadcast.class, "BROADCAST");
+
+    private final ProtocolIdentifier reliableProtocol = new ProtocolIdentifier(ReliableBroadcast.class, "RELIABLE");
+
+    // Init.
+
+    @BeforeEach
+    public void setUp() {
+        codecRegistry = StandardCodecs.registerAll(new CodecRegistry());
+    }
+
+    private List<Event> standardEvents() {
+        var stringMessage = new StringMessage("hello", broadcastProtocol);
+        return List.of(new Message(stringMessage, transportProtocol),
+                       stringMessage,
+                       new StringMessage(null, broadcastProtocol),
+                       new BroadcastMessage(sender, stringMessage, broadcastProtocol),
+                       new ReliableBroadcastMessage(-5L, sender, stringMessage, reliableProtocol),
+                       new MessageReceptionEvent(stringMessage, broadcastProtocol),
+                       new PhysicalMessageReceptionEvent(new Message(new BroadcastMessage(sender, stringMessage, broadcastProtocol),
+                                                                     transportProtocol), transportProtocol));
+    }
+
+    private static int serializedSize(Event event) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(event);
+        }
+        return bytes.size();
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("StandardCodecs.registerAll")
+    @DisplayName("StandardCodecs registerAll tests")
+    class RegisterAllTest {
+
+        @Test
+        @DisplayName("Test if registerAll throws IllegalArgumentException with a null registry or a registry which already has the codecs")
+        void testRegisterAllWithWrongRegistry() {
+            assertThrows(IllegalArgumentException.class, () -> StandardCodecs.registerAll(null));
+            assertThrows(IllegalArgumentException.class, () -> StandardCodecs.registerAll(codecRegistry));
+        }
+
+        @Test
+        @DisplayName("Test if all standard events are decoded equal to the encoded events")
+        void testRoundTrip() {
+            for (Event event : standardEvents())
+                assertThat(codecRegistry.decode(codecRegistry.encode(event))).isEqualTo(event).isExactlyInstanceOf(event.getClass());
+        }
+
+        @Test
+        @DisplayName("Test if the encoded events are smaller than the serialized events, even more with registered identifiers")
+        void testEncodedEventsAreCompact() throws IOException {
+            var events = standardEvents();
+            int[] inlineSizes = new int[events.size()];
+            for (int i = 0; i < events.size(); i++) {
+                inlineSizes[i] = codecRegistry.encode(events.get(i)).length;
+                assertThat(inlineSizes[i]).isLessThan(serializedSize(events.get(i)) / 3);
+            }
+
+            codecRegistry.registerAgent(sender);
+            codecRegistry.registerProtocol(transportProtocol);
+            codecRegistry.registerProtocol(broadcastProtocol);
+            codecRegistry.registerProtocol(reliableProtocol);
+            for (int i = 0; i < events.size(); i++) {
+                byte[] bytes = codecRegistry.encode(events.get(i));
+                assertThat(bytes.length).isLessThan(inlineSizes[i]);
+                assertThat(codecRegistry.decode(bytes)).isEqualTo(events.get(i));
+            }
+        }
+
+    }
+}
@@ -0,0 +1,106 @@
+package sima.standard.environment.message;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.protocol.ProtocolIdentifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestCopyOnWriteMessage {
+
+    // Variables.
+
+    protected CopyOnWriteMessage copyOnWriteMessage;
+
+    @Mock
+    private ProtocolIdentifier mockIntendedProtocol;
+
+    @Mock
+    private Message mockContentMessage;
+
+    @Mock
+    private Message mockContentMessageCopy;
+
+    @Mock
+    private Message mockContentMessageSnapshot;
+
+    // Init.
+
+    @BeforeEach
+    public void setUp() {
+        copyOnWriteMessage = new CopyOnWriteMessage(mockContentMessage, mockIntendedProtocol);
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("CopyOnWriteMessage.constructor")
+    @DisplayName("CopyOnWriteMessage constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws IllegalArgumentException with a null content or a null intended protocol")
+        void testConstructorWithNullArgs() {
+            assertThrows(IllegalArgumentException.class, () -> new CopyOnWriteMessage(null, mockIntendedProtocol));
+            assertThrows(IllegalArgumentException.class, () -> new CopyOnWriteMessage(mockContentMessage, null));
+        }
+
+    }
+
+    @Nested
+    @Tag("CopyOnWriteMessage.duplicate")
+    @DisplayName("CopyOnWriteMessage duplicate tests")
+    class DuplicateTest {
+
+        @Test
+        @DisplayName("Test if duplicate shares the content without copy")
+        void testDuplicateSharesContent() {
+            var duplicate = copyOnWriteMessage.duplicate();
+            assertThat(duplicate).isNotSameAs(copyOnWriteMessage);
+            assertThat(duplicate.getMessage()).isSameAs(mockContentMessage);
+            verify(mockContentMessage, never()).duplicate();
+        }
+
+        @Test
+        @DisplayName("Test if duplicate does not share the written content of the message")
+        void testDuplicateAfterWrite() {
+            when(mockContentMessage.duplicate()).thenReturn(mockContentMessageCopy);
+            when(mockContentMessageCopy.duplicate()).thenReturn(mockContentMessageSnapshot);
+            var writableContent = copyOnWriteMessage.getWritableMessage();
+
+            var duplicate = copyOnWriteMessage.duplicate();
+            assertThat(duplicate.getMessage()).isSameAs(mockContentMessageSnapshot).isNotSameAs(writableContent);
+            assertThat(duplicate.hasBeenCopied()).isFalse();
+            assertThat(copyOnWriteMessage.getWritableMessage()).isSameAs(writableContent);
+            assertThat(duplicate.getMessage()).isSameAs(mockContentMessageSnapshot);
+        }
+
+    }
+
+    @Nested
+    @Tag("CopyOnWriteMessage.getWritableMessage")
+    @DisplayName("CopyOnWriteMessage getWritableMessage tests")
+    class GetWritableMessageTest {
+
+        @Test
+        @DisplayName("Test if getWritableMessage copies the content only one time and does not modify the duplicates")
+        void testGetWritableMessage() {
+            when(mockContentMessage.duplicate()).thenReturn(mockContentMessageCopy);
+            var duplicate = copyOnWriteMessage.duplicate();
+
+            assertThat(copyOnWriteMessage.hasBeenCopied()).isFalse();
+            assertThat(copyOnWriteMessage.getWritableMessage()).isSameAs(mockContentMessageCopy);
+            assertThat(copyOnWriteMessage.getWritableMessage()).isSameAs(mockContentMessageCopy);
+            assertThat(copyOnWriteMessage.getMessage()).isSameAs(mockContentMessageCopy);
+            assertThat(copyOnWriteMessage.hasBeenCopied()).isTrue();
+            assertThat(duplicate.getMessage()).isSameAs(mockContentMessage);
+            verify(mockContentMessage, times(1)).duplicate();
+        }
+
+    }
+}
@@ -4,7 +4,12 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.event.Event;
 import sima.core.protocol.ProtocolIdentifier;
+import sima.standard.broadcast.basic.BroadcastMessage;
+import sima.standard.broadcast.reliable.ReliableBroadcastMessage;
+import sima.standard.environment.message.event.physical.PhysicalMessageReceptionEvent;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -109,6 +114,46 @@ public class TestStringMessage extends TestMessage {
 
     }
 
+    @Nested
+    @Tag("StringMessage.duplicate")
+    @DisplayName("StringMessage duplicate tests")
+    class DuplicateImmutableTest {
+
+        private final AgentIdentifier sender = new AgentIdentifier("SENDER", 0, 0);
+
+        @Test
+        @DisplayName("Test if duplicate returns the StringMessage itself because it is immutable")
+        void testDuplicateReturnsItself() {
+            assertThat(Event.isImmutable(stringMessage)).isTrue();
+            assertThat(stringMessage.duplicate()).isSameAs(stringMessage);
+        }
+
+        @Test
+        @DisplayName("Test if the messages which contain a StringMessage are shared without copy")
+        void testDuplicateWrappersOfImmutableContent() {
+            var broadcastMessage = new BroadcastMessage(sender, stringMessage, mockIntendedProtocol);
+            var reliableBroadcastMessage = new ReliableBroadcastMessage(1L, sender, stringMessage, mockIntendedProtocol);
+            var receptionEvent = new PhysicalMessageReceptionEvent(stringMessage, mockIntendedProtocol);
+
+            assertThat(broadcastMessage.duplicate()).isSameAs(broadcastMessage);
+            assertThat(reliableBroadcastMessage.duplicate()).isSameAs(reliableBroadcastMessage);
+            assertThat(receptionEvent.duplicate()).isSameAs(receptionEvent);
+        }
+
+        @Test
+        @DisplayName("Test if a message whose content is not immutable is copied but shares the immutable content of its content")
+        void testDuplicateWrapperOfMutableContent() {
+            var broadcastMessage = new BroadcastMessage(sender, stringMessage, mockIntendedProtocol);
+            var receptionEvent = new PhysicalMessageReceptionEvent(new CopyOnWriteMessage(broadcastMessage, mockIntendedProtocol),
+                                                                   mockIntendedProtocol);
+
+            var duplicate = (PhysicalMessageReceptionEvent) receptionEvent.duplicate();
+            assertThat(duplicate).isNotSameAs(receptionEvent).isEqualTo(receptionEvent);
+            assertThat(duplicate.getContent().getMessage()).isSameAs(broadcastMessage);
+        }
+
+    }
+
     @Nested
     @Tag("StringMessage.getStringContent")
     @DisplayName("StringMessage getStringContent tests")
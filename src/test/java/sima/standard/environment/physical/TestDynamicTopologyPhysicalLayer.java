@@ -0,0 +1,128 @@
+package sima.standard.environment.physical;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.Environment;
+import sima.core.environment.physical.TestPhysicalConnectionLayer;
+import sima.core.simulation.SimaSimulation;
+import sima.standard.environment.physical.graph.CSRGraph;
+import sima.standard.environment.physical.graph.TopologyUpdate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static sima.core.TestSima.mockSimaSimulation;
+
+@ExtendWith(MockitoExtension.class)
+public class TestDynamicTopologyPhysicalLayer extends TestPhysicalConnectionLayer {
+
+    // Variables.
+
+    protected DynamicTopologyPhysicalLayer dynamicTopologyPhysicalLayer;
+
+    @Mock
+    private Environment mockEnvironment;
+
+    private AgentIdentifier a0;
+
+    private AgentIdentifier a1;
+
+    private AgentIdentifier a2;
+
+    // Init.
+
+    @BeforeEach
+    void setUp() {
+        var graph = new CSRGraph.Builder(3, false).addEdge(0, 1).build();
+        dynamicTopologyPhysicalLayer = new DynamicTopologyPhysicalLayer(mockEnvironment, graph, false, 10L, 15L, List.of());
+        physicalConnectionLayer = dynamicTopologyPhysicalLayer;
+
+        a0 = new AgentIdentifier("A", 0, 0);
+        a1 = new AgentIdentifier("A", 1, 1);
+        a2 = new AgentIdentifier("A", 2, 2);
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("DynamicTopologyPhysicalLayer.constructor")
+    @DisplayName("DynamicTopologyPhysicalLayer constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with null updates")
+        void testConstructorWithNullUpdates() {
+            var graph = new CSRGraph.Builder(3, false).build();
+            assertThrows(IllegalArgumentException.class, () -> new DynamicTopologyPhysicalLayer(mockEnvironment, graph, false, 10L, 15L, null));
+        }
+
+        @Test
+        @DisplayName("Test if constructor reads the updates of the trace file")
+        void testConstructorReadsTraceFile(@TempDir Path tempDir) throws IOException {
+            var edgeList = tempDir.resolve("edges.txt");
+            Files.writeString(edgeList, "0 1\n");
+            var trace = tempDir.resolve("trace.txt");
+            Files.writeString(trace, "# time type from to [latency]\n10 add 1 2 5\n5 remove 0 1\n20 latency 1 2 7\n");
+            Map<String, String> args = Map.of(GraphTopologyPhysicalLayer.TOPOLOGY_ARGS, GraphTopologyPhysicalLayer.EDGE_LIST_TOPOLOGY,
+                                              GraphTopologyPhysicalLayer.EDGE_LIST_FILE_ARGS, edgeList.toString(),
+                                              DynamicTopologyPhysicalLayer.TRACE_FILE_ARGS, trace.toString());
+
+            var layer = new DynamicTopologyPhysicalLayer(mockEnvironment, args);
+
+            assertThat(layer.getNbPendingUpdates()).isEqualTo(3);
+        }
+
+    }
+
+    @Nested
+    @Tag("DynamicTopologyPhysicalLayer.hasPhysicalConnection")
+    @DisplayName("DynamicTopologyPhysicalLayer hasPhysicalConnection over time tests")
+    class HasPhysicalConnectionOverTimeTest {
+
+        @Test
+        @DisplayName("Test if hasPhysicalConnection sees the updates whose time is less or equal to the current time")
+        void testHasPhysicalConnectionFollowsUpdates() {
+            dynamicTopologyPhysicalLayer.scheduleUpdates(List.of(TopologyUpdate.addLink(10, 1, 2), TopologyUpdate.removeLink(20, 0, 1)));
+
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(5L);
+                assertThat(dynamicTopologyPhysicalLayer.hasPhysicalConnection(a1, a2)).isFalse();
+                assertThat(dynamicTopologyPhysicalLayer.hasPhysicalConnection(a0, a1)).isTrue();
+
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(10L);
+                assertThat(dynamicTopologyPhysicalLayer.hasPhysicalConnection(a1, a2)).isTrue();
+                assertThat(dynamicTopologyPhysicalLayer.hasPhysicalConnection(a0, a1)).isTrue();
+                assertThat(dynamicTopologyPhysicalLayer.getNbPendingUpdates()).isEqualTo(1);
+
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(25L);
+                assertThat(dynamicTopologyPhysicalLayer.hasPhysicalConnection(a0, a1)).isFalse();
+                assertThat(dynamicTopologyPhysicalLayer.getNbPendingUpdates()).isZero();
+                assertThat(dynamicTopologyPhysicalLayer.getCurrentGraph().getVersion()).isEqualTo(2);
+            }
+        }
+
+        @Test
+        @DisplayName("Test if all updates of the same time are applied in one version")
+        void testUpdatesOfSameTimeAreAppliedTogether() {
+            dynamicTopologyPhysicalLayer.scheduleUpdates(List.of(TopologyUpdate.addLink(10, 1, 2), TopologyUpdate.removeLink(10, 0, 1)));
+
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(10L);
+                assertThat(dynamicTopologyPhysicalLayer.hasPhysicalConnection(a1, a2)).isTrue();
+                assertThat(dynamicTopologyPhysicalLayer.hasPhysicalConnection(a0, a1)).isFalse();
+                assertThat(dynamicTopologyPhysicalLayer.getCurrentGraph().getVersion()).isEqualTo(1);
+            }
+        }
+
+    }
+}
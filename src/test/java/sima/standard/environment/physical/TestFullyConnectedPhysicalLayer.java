@@ -4,13 +4,17 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
 import sima.core.environment.Environment;
+import sima.core.environment.physical.PhysicalEvent;
 import sima.core.environment.physical.TestPhysicalConnectionLayer;
+import sima.standard.environment.physical.delay.UniformDelayModel;
 
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class TestFullyConnectedPhysicalLayer extends TestPhysicalConnectionLayer {
@@ -136,6 +140,40 @@ public class TestFullyConnectedPhysicalLayer extends TestPhysicalConnectionLayer
         
     }
     
+    @Nested
+    @Tag("FullyConnectedPhysicalLayer.delayModel")
+    @DisplayName("FullyConnectedPhysicalLayer delay model tests")
+    class DelayModelTest {
+        
+        @Test
+        @DisplayName("Test if the default delay model is uniform between the min and the max send delays")
+        void testDefaultDelayModel() {
+            var delayModel = (UniformDelayModel) fullyConnectedPhysicalLayer.getDelayModel();
+            assertEquals(10L, delayModel.getMinDelay());
+            assertEquals(15L, delayModel.getMaxDelay());
+        }
+        
+        @Test
+        @DisplayName("Test if send uses the delay of the delay model")
+        void testSendUsesDelayModel() {
+            var a0 = new AgentIdentifier("A", 0, 0);
+            var a1 = new AgentIdentifier("A", 1, 1);
+            var physicalEvent = mock(PhysicalEvent.class);
+            fullyConnectedPhysicalLayer.setDelayModel((from, to, random) -> 42L);
+            
+            fullyConnectedPhysicalLayer.send(a0, a1, physicalEvent);
+            
+            verify(mockEnvironment, times(1)).assignEventOn(a0, a1, physicalEvent, 42L);
+        }
+        
+        @Test
+        @DisplayName("Test if setDelayModel throws an IllegalArgumentException with a null delay model")
+        void testSetNullDelayModel() {
+            assertThrows(IllegalArgumentException.class, () -> fullyConnectedPhysicalLayer.setDelayModel(null));
+        }
+        
+    }
+    
     private Map<String, String> createMapArgs(String minSendDelay, String maxSendDelay) {
         Map<String, String> args = new HashMap<>();
         if (minSendDelay != null)
@@ -0,0 +1,153 @@
+package sima.standard.environment.physical;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.Environment;
+import sima.core.environment.physical.PhysicalEvent;
+import sima.core.environment.physical.TestPhysicalConnectionLayer;
+import sima.standard.environment.physical.graph.CSRGraph;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestGraphTopologyPhysicalLayer extends TestPhysicalConnectionLayer {
+
+    // Variables.
+
+    protected GraphTopologyPhysicalLayer graphTopologyPhysicalLayer;
+
+    @Mock
+    private Environment mockEnvironment;
+
+    @Mock
+    private PhysicalEvent mockPhysicalEvent;
+
+    private AgentIdentifier a0;
+
+    private AgentIdentifier a1;
+
+    private AgentIdentifier a2;
+
+    // Init.
+
+    @BeforeEach
+    void setUp() {
+        var graph = new CSRGraph.Builder(3, false).addEdge(0, 1, 5).addEdge(1, 2).build();
+        graphTopologyPhysicalLayer = new GraphTopologyPhysicalLayer(mockEnvironment, graph, 10L, 15L);
+        physicalConnectionLayer = graphTopologyPhysicalLayer;
+
+        a0 = new AgentIdentifier("A", 0, 0);
+        a1 = new AgentIdentifier("A", 1, 1);
+        a2 = new AgentIdentifier("A", 2, 2);
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("GraphTopologyPhysicalLayer.constructor")
+    @DisplayName("GraphTopologyPhysicalLayer constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with null args, missing topology or unknown topology")
+        void testConstructorWithWrongArgs() {
+            Map<String, String> noTopology = new HashMap<>();
+            Map<String, String> unknownTopology = Map.of(GraphTopologyPhysicalLayer.TOPOLOGY_ARGS, "UNKNOWN");
+
+            assertThrows(IllegalArgumentException.class, () -> new GraphTopologyPhysicalLayer(mockEnvironment, (Map<String, String>) null));
+            assertThrows(IllegalArgumentException.class, () -> new GraphTopologyPhysicalLayer(mockEnvironment, noTopology));
+            assertThrows(IllegalArgumentException.class, () -> new GraphTopologyPhysicalLayer(mockEnvironment, unknownTopology));
+        }
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException if an argument of the generator is missing")
+        void testConstructorWithMissingGeneratorArgs() {
+            Map<String, String> args = Map.of(GraphTopologyPhysicalLayer.TOPOLOGY_ARGS, GraphTopologyPhysicalLayer.ERDOS_RENYI_TOPOLOGY,
+                                              GraphTopologyPhysicalLayer.NB_NODES_ARGS, "10");
+
+            assertThrows(IllegalArgumentException.class, () -> new GraphTopologyPhysicalLayer(mockEnvironment, args));
+        }
+
+        @Test
+        @DisplayName("Test if constructor generates the graph described by the args")
+        void testConstructorGeneratesGraph() {
+            Map<String, String> args = Map.of(GraphTopologyPhysicalLayer.TOPOLOGY_ARGS, GraphTopologyPhysicalLayer.WATTS_STROGATZ_TOPOLOGY,
+                                              GraphTopologyPhysicalLayer.NB_NODES_ARGS, "100",
+                                              GraphTopologyPhysicalLayer.DEGREE_ARGS, "4",
+                                              GraphTopologyPhysicalLayer.REWIRING_PROBABILITY_ARGS, "0.1",
+                                              GraphTopologyPhysicalLayer.SEED_ARGS, "1");
+
+            var layer = new GraphTopologyPhysicalLayer(mockEnvironment, args);
+
+            assertThat(layer.getGraph().getNbNodes()).isEqualTo(100);
+            assertThat(layer.getMinSendDelay()).isEqualTo(FullyConnectedPhysicalLayer.DEFAULT_MIN_SEND_DELAY);
+            assertThat(layer.getMaxSendDelay()).isEqualTo(FullyConnectedPhysicalLayer.DEFAULT_MAX_SEND_DELAY);
+        }
+
+    }
+
+    @Nested
+    @Tag("GraphTopologyPhysicalLayer.hasPhysicalConnection")
+    @DisplayName("GraphTopologyPhysicalLayer hasPhysicalConnection tests")
+    class HasPhysicalConnectionGraphTest {
+
+        @Test
+        @DisplayName("Test if hasPhysicalConnection returns true only for agents linked by an edge")
+        void testHasPhysicalConnectionFollowsGraph() {
+            assertThat(graphTopologyPhysicalLayer.hasPhysicalConnection(a0, a1)).isTrue();
+            assertThat(graphTopologyPhysicalLayer.hasPhysicalConnection(a2, a1)).isTrue();
+            assertThat(graphTopologyPhysicalLayer.hasPhysicalConnection(a0, a2)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Test if hasPhysicalConnection returns false for an agent which is not a node of the graph")
+        void testHasPhysicalConnectionWithUnknownNode() {
+            var unknown = new AgentIdentifier("A", 10, 10);
+            assertThat(graphTopologyPhysicalLayer.hasPhysicalConnection(a0, unknown)).isFalse();
+        }
+
+    }
+
+    @Nested
+    @Tag("GraphTopologyPhysicalLayer.sendGraph")
+    @DisplayName("GraphTopologyPhysicalLayer send on graph tests")
+    class SendGraphTest {
+
+        @Test
+        @DisplayName("Test if send uses the latency of the edge as delay")
+        void testSendUsesEdgeLatency() {
+            graphTopologyPhysicalLayer.send(a0, a1, mockPhysicalEvent);
+
+            verify(mockEnvironment, times(1)).assignEventOn(a0, a1, mockPhysicalEvent, 5L);
+        }
+
+        @Test
+        @DisplayName("Test if send does not schedule the event if there is no edge")
+        void testSendWithoutEdge() {
+            graphTopologyPhysicalLayer.send(a0, a2, mockPhysicalEvent);
+
+            verifyNoInteractions(mockEnvironment);
+        }
+
+        @Test
+        @DisplayName("Test if sendMulticast schedules the event only for neighbors")
+        void testSendMulticastOnlyToNeighbors() {
+            graphTopologyPhysicalLayer.sendMulticast(a1, List.of(a0, a2), mockPhysicalEvent);
+            graphTopologyPhysicalLayer.sendMulticast(a0, List.of(a1, a2), mockPhysicalEvent);
+
+            verify(mockEnvironment, times(1)).assignEventOn(eq(a1), eq(List.of(a0, a2)), eq(mockPhysicalEvent), any());
+            verify(mockEnvironment, times(1)).assignEventOn(eq(a0), eq(List.of(a1)), eq(mockPhysicalEvent), any());
+        }
+
+    }
+}
@@ -0,0 +1,245 @@
+package sima.standard.environment.physical;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.Environment;
+import sima.core.environment.physical.PhysicalEvent;
+import sima.core.environment.physical.TestPhysicalConnectionLayer;
+import sima.core.scheduler.Scheduler;
+import sima.core.scheduler.executor.Executable;
+import sima.core.simulation.SimaSimulation;
+import sima.standard.environment.physical.graph.CSRGraph;
+import sima.standard.environment.physical.graph.TopologyUpdate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+import static sima.core.TestSima.mockSimaSimulation;
+
+@ExtendWith(MockitoExtension.class)
+public class TestRoutingPhysicalLayer extends TestPhysicalConnectionLayer {
+
+    // Variables.
+
+    protected RoutingPhysicalLayer routingPhysicalLayer;
+
+    @Mock
+    private Environment mockEnvironment;
+
+    @Mock
+    private PhysicalEvent mockPhysicalEvent;
+
+    @Mock
+    private Scheduler mockScheduler;
+
+    private AgentIdentifier a0;
+
+    private AgentIdentifier a1;
+
+    private AgentIdentifier a3;
+
+    private AgentIdentifier a4;
+
+    // Init.
+
+    /**
+     * Line 0 - 1 - 2 - 3 with latencies 2, 3 and 4, node 4 is isolated.
+     */
+    @BeforeEach
+    void setUp() {
+        var graph = new CSRGraph.Builder(5, false).addEdge(0, 1, 2).addEdge(1, 2, 3).addEdge(2, 3, 4).build();
+        routingPhysicalLayer = new RoutingPhysicalLayer(mockEnvironment, graph, false, 10L, 15L, List.of(), false, 2);
+        physicalConnectionLayer = routingPhysicalLayer;
+
+        a0 = new AgentIdentifier("A", 0, 0);
+        a1 = new AgentIdentifier("A", 1, 1);
+        a3 = new AgentIdentifier("A", 3, 3);
+        a4 = new AgentIdentifier("A", 4, 4);
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("RoutingPhysicalLayer.constructor")
+    @DisplayName("RoutingPhysicalLayer constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with a routingCacheSize less than 1")
+        void testConstructorWithWrongCacheSize() {
+            var graph = new CSRGraph.Builder(2, false).build();
+            assertThrows(IllegalArgumentException.class, () -> new RoutingPhysicalLayer(mockEnvironment, graph, false, 10L, 15L, List.of(), false, 0));
+        }
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with an unknown routing mode")
+        void testConstructorWithUnknownRoutingMode() {
+            Map<String, String> args = Map.of(GraphTopologyPhysicalLayer.TOPOLOGY_ARGS, GraphTopologyPhysicalLayer.ERDOS_RENYI_TOPOLOGY,
+                                              GraphTopologyPhysicalLayer.NB_NODES_ARGS, "10", GraphTopologyPhysicalLayer.PROBABILITY_ARGS, "0.5",
+                                              RoutingPhysicalLayer.ROUTING_MODE_ARGS, "unknown");
+            assertThrows(IllegalArgumentException.class, () -> new RoutingPhysicalLayer(mockEnvironment, args));
+        }
+
+        @Test
+        @DisplayName("Test if the eager routing mode computes the routes of all nodes at the construction")
+        void testConstructorEagerRouting() {
+            Map<String, String> args = Map.of(GraphTopologyPhysicalLayer.TOPOLOGY_ARGS, GraphTopologyPhysicalLayer.ERDOS_RENYI_TOPOLOGY,
+                                              GraphTopologyPhysicalLayer.NB_NODES_ARGS, "10", GraphTopologyPhysicalLayer.PROBABILITY_ARGS, "0.5",
+                                              GraphTopologyPhysicalLayer.SEED_ARGS, "42",
+                                              RoutingPhysicalLayer.ROUTING_MODE_ARGS, RoutingPhysicalLayer.EAGER_ROUTING);
+
+            var layer = new RoutingPhysicalLayer(mockEnvironment, args);
+
+            assertThat(layer.getNbCachedRoutes()).isEqualTo(10);
+        }
+
+    }
+
+    @Nested
+    @Tag("RoutingPhysicalLayer.send")
+    @DisplayName("RoutingPhysicalLayer send over several hops tests")
+    class SendRoutingTest {
+
+        @Test
+        @DisplayName("Test if send forwards the event hop by hop and delivers it to a non neighbor with the latency of the last link")
+        void testSendToNonNeighbor() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+
+                routingPhysicalLayer.send(a0, a3, mockPhysicalEvent);
+                runScheduledHop(2L);
+                runScheduledHop(3L);
+
+                verify(mockEnvironment, times(1)).assignEventOn(a0, a3, mockPhysicalEvent, 4L);
+                assertThat(routingPhysicalLayer.hasPhysicalConnection(a0, a3)).isFalse();
+                assertThat(routingPhysicalLayer.getRoute(a0, a3)).containsExactly(0, 1, 2, 3);
+            }
+        }
+
+        @Test
+        @DisplayName("Test if the route is computed only at the initiator when the topology does not change during the forward")
+        void testSendComputesRouteOnlyAtInitiator() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+
+                routingPhysicalLayer.send(a0, a3, mockPhysicalEvent);
+                runScheduledHop(2L);
+                runScheduledHop(3L);
+
+                verify(mockEnvironment, times(1)).assignEventOn(a0, a3, mockPhysicalEvent, 4L);
+                assertThat(routingPhysicalLayer.getNbCachedRoutes()).isEqualTo(1);
+            }
+        }
+
+        @Test
+        @DisplayName("Test if an event in flight takes a new route when a shorter link is added")
+        void testSendInFlightFollowsTopologyUpdates() {
+            routingPhysicalLayer.scheduleUpdates(List.of(TopologyUpdate.addLink(10, 1, 3, 1)));
+
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(0L);
+
+                routingPhysicalLayer.send(a0, a3, mockPhysicalEvent);
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(10L);
+                runScheduledHop(2L);
+
+                verify(mockEnvironment, times(1)).assignEventOn(a0, a3, mockPhysicalEvent, 1L);
+            }
+        }
+
+        @Test
+        @DisplayName("Test if an event in flight is lost when the target is no longer reachable")
+        void testSendInFlightWithBrokenRoute() {
+            routingPhysicalLayer.scheduleUpdates(List.of(TopologyUpdate.removeLink(10, 2, 3)));
+
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(0L);
+
+                routingPhysicalLayer.send(a0, a3, mockPhysicalEvent);
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(10L);
+                runScheduledHop(2L);
+
+                verifyNoInteractions(mockEnvironment);
+                verifyNoMoreInteractions(mockScheduler);
+            }
+        }
+
+        @Test
+        @DisplayName("Test if send does not schedule the event if the target cannot be reached")
+        void testSendToUnreachableTarget() {
+            routingPhysicalLayer.send(a0, a4, mockPhysicalEvent);
+
+            verifyNoInteractions(mockEnvironment);
+            assertThat(routingPhysicalLayer.getRoute(a0, a4)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Test if the routes are cached and the least recently used route is removed when the cache is full")
+        void testRoutingCacheIsBounded() {
+            routingPhysicalLayer.getRoute(a0, a3);
+            routingPhysicalLayer.getRoute(a1, a3);
+            routingPhysicalLayer.getRoute(a3, a0);
+
+            assertThat(routingPhysicalLayer.getNbCachedRoutes()).isEqualTo(2);
+        }
+
+    }
+
+    @Nested
+    @Tag("RoutingPhysicalLayer.invalidation")
+    @DisplayName("RoutingPhysicalLayer route invalidation tests")
+    class InvalidationTest {
+
+        @Test
+        @DisplayName("Test if a route is updated when a link of the route is removed or a shorter link is added")
+        void testRouteFollowsTopologyUpdates() {
+            routingPhysicalLayer.scheduleUpdates(List.of(TopologyUpdate.addLink(10, 0, 3, 1), TopologyUpdate.removeLink(20, 0, 3)));
+
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(5L);
+                assertThat(routingPhysicalLayer.getRoute(a0, a3)).containsExactly(0, 1, 2, 3);
+
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(10L);
+                assertThat(routingPhysicalLayer.getRoute(a0, a3)).containsExactly(0, 3);
+
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(20L);
+                assertThat(routingPhysicalLayer.getRoute(a0, a3)).containsExactly(0, 1, 2, 3);
+            }
+        }
+
+        @Test
+        @DisplayName("Test if a cached route which is not affected by the updates is kept")
+        void testUnaffectedRouteIsKept() {
+            routingPhysicalLayer.getRoute(a0, a3);
+            routingPhysicalLayer.getRoute(a4, a0);
+            routingPhysicalLayer.scheduleUpdates(List.of(TopologyUpdate.addLink(10, 1, 3, 100)));
+
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getCurrentTime).thenReturn(10L);
+                assertThat(routingPhysicalLayer.getCurrentGraph().getVersion()).isEqualTo(1);
+                assertThat(routingPhysicalLayer.getNbCachedRoutes()).isEqualTo(2);
+                assertThat(routingPhysicalLayer.getRoute(a0, a3)).containsExactly(0, 1, 2, 3);
+            }
+        }
+
+    }
+
+    // Methods.
+
+    private void runScheduledHop(long delay) {
+        ArgumentCaptor<Executable> hopCaptor = ArgumentCaptor.forClass(Executable.class);
+        verify(mockScheduler).scheduleExecutableOnce(hopCaptor.capture(), eq(delay));
+        clearInvocations(mockScheduler);
+        hopCaptor.getValue().execute();
+    }
+}
@@ -0,0 +1,69 @@
+package sima.standard.environment.physical.delay;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestDelayModels {
+
+    // Tests.
+
+    @Nested
+    @Tag("DelayModels.fromArgs")
+    @DisplayName("DelayModels fromArgs tests")
+    class FromArgsTest {
+
+        @Test
+        @DisplayName("Test if fromArgs returns a uniform model without delayModel argument")
+        void testFromArgsDefault() {
+            var model = DelayModels.fromArgs(null, 10L, 20L);
+
+            assertThat(model).isInstanceOf(UniformDelayModel.class);
+            assertThat(((UniformDelayModel) model).getMinDelay()).isEqualTo(10L);
+            assertThat(((UniformDelayModel) model).getMaxDelay()).isEqualTo(20L);
+        }
+
+        @Test
+        @DisplayName("Test if fromArgs creates the model of the delayModel argument")
+        void testFromArgsCreatesModel(@TempDir Path tempDir) throws IOException {
+            var delayFile = tempDir.resolve("delays.txt");
+            Files.writeString(delayFile, "5 1\n");
+            var linkDelayFile = tempDir.resolve("links.txt");
+            Files.writeString(linkDelayFile, "0 1 5\n");
+
+            assertThat(DelayModels.fromArgs(Map.of(DelayModels.DELAY_MODEL_ARGS, DelayModels.EXPONENTIAL_DELAY_MODEL,
+                                                   DelayModels.MEAN_DELAY_ARGS, "4.5"), 10L, 20L)).isInstanceOf(ExponentialDelayModel.class);
+            assertThat(DelayModels.fromArgs(Map.of(DelayModels.DELAY_MODEL_ARGS, DelayModels.LOG_NORMAL_DELAY_MODEL,
+                                                   DelayModels.LOG_MEAN_ARGS, "2", DelayModels.LOG_STD_DEV_ARGS, "0.5"), 10L, 20L))
+                    .isInstanceOf(LogNormalDelayModel.class);
+            assertThat(DelayModels.fromArgs(Map.of(DelayModels.DELAY_MODEL_ARGS, DelayModels.EMPIRICAL_DELAY_MODEL,
+                                                   DelayModels.DELAY_FILE_ARGS, delayFile.toString()), 10L, 20L))
+                    .isInstanceOf(EmpiricalDelayModel.class);
+            assertThat(DelayModels.fromArgs(Map.of(DelayModels.DELAY_MODEL_ARGS, DelayModels.LINK_DELAY_MODEL,
+                                                   DelayModels.LINK_DELAY_FILE_ARGS, linkDelayFile.toString()), 10L, 20L))
+                    .isInstanceOf(LinkDelayModel.class);
+        }
+
+        @Test
+        @DisplayName("Test if fromArgs throws an IllegalArgumentException with an unknown model or a missing argument")
+        void testFromArgsWithWrongArgs() {
+            assertThrows(IllegalArgumentException.class, () -> DelayModels.fromArgs(Map.of(DelayModels.DELAY_MODEL_ARGS, "unknown"), 10L, 20L));
+            assertThrows(IllegalArgumentException.class,
+                         () -> DelayModels.fromArgs(Map.of(DelayModels.DELAY_MODEL_ARGS, DelayModels.EXPONENTIAL_DELAY_MODEL), 10L, 20L));
+            assertThrows(IllegalArgumentException.class,
+                         () -> DelayModels.fromArgs(Map.of(DelayModels.DELAY_MODEL_ARGS, DelayModels.EMPIRICAL_DELAY_MODEL,
+                                                           DelayModels.DELAY_FILE_ARGS, "not/a/file"), 10L, 20L));
+        }
+
+    }
+}
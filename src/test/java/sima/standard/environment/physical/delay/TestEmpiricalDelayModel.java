@@ -0,0 +1,92 @@
+package sima.standard.environment.physical.delay;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestEmpiricalDelayModel {
+
+    // Tests.
+
+    @Nested
+    @Tag("EmpiricalDelayModel.constructor")
+    @DisplayName("EmpiricalDelayModel constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with a not valid distribution")
+        void testConstructorWithWrongArgs() {
+            assertThrows(IllegalArgumentException.class, () -> new EmpiricalDelayModel(null, new double[]{1.0d}));
+            assertThrows(IllegalArgumentException.class, () -> new EmpiricalDelayModel(new long[0], new double[0]));
+            assertThrows(IllegalArgumentException.class, () -> new EmpiricalDelayModel(new long[]{1L, 2L}, new double[]{1.0d}));
+            assertThrows(IllegalArgumentException.class, () -> new EmpiricalDelayModel(new long[]{0L}, new double[]{1.0d}));
+            assertThrows(IllegalArgumentException.class, () -> new EmpiricalDelayModel(new long[]{1L}, new double[]{-1.0d}));
+            assertThrows(IllegalArgumentException.class, () -> new EmpiricalDelayModel(new long[]{1L}, new double[]{0.0d}));
+        }
+
+    }
+
+    @Nested
+    @Tag("EmpiricalDelayModel.sampleDelay")
+    @DisplayName("EmpiricalDelayModel sampleDelay tests")
+    class SampleDelayTest {
+
+        @Test
+        @DisplayName("Test if sampleDelay follows the weights of the distribution")
+        void testSampleDelayFollowsWeights() {
+            var model = new EmpiricalDelayModel(new long[]{5L, 10L, 20L, 40L}, new double[]{1.0d, 2.0d, 0.0d, 5.0d});
+            var random = new SplittableRandom(42L);
+            int nbSamples = 80_000;
+            int[] counts = new int[4];
+            for (int i = 0; i < nbSamples; i++) {
+                long delay = model.sampleDelay(0, 1, random.nextLong());
+                counts[delay == 5L ? 0 : delay == 10L ? 1 : delay == 20L ? 2 : 3]++;
+            }
+
+            assertThat((double) counts[0] / nbSamples).isCloseTo(1.0d / 8.0d, within(0.01d));
+            assertThat((double) counts[1] / nbSamples).isCloseTo(2.0d / 8.0d, within(0.01d));
+            assertThat(counts[2]).isZero();
+            assertThat((double) counts[3] / nbSamples).isCloseTo(5.0d / 8.0d, within(0.01d));
+        }
+
+    }
+
+    @Nested
+    @Tag("EmpiricalDelayModel.readFrom")
+    @DisplayName("EmpiricalDelayModel readFrom tests")
+    class ReadFromTest {
+
+        @Test
+        @DisplayName("Test if readFrom reads the delays and ignores comments")
+        void testReadFrom(@TempDir Path tempDir) throws IOException {
+            var file = tempDir.resolve("delays.txt");
+            Files.writeString(file, "# delay weight\n7\n\n9 0\n");
+
+            var model = EmpiricalDelayModel.readFrom(file);
+
+            assertThat(model.getNbDelays()).isEqualTo(2);
+            assertThat(model.sampleDelay(0, 1, new SplittableRandom().nextLong())).isEqualTo(7L);
+        }
+
+        @Test
+        @DisplayName("Test if readFrom throws an IllegalArgumentException with a malformed line")
+        void testReadFromMalformedLine(@TempDir Path tempDir) throws IOException {
+            var file = tempDir.resolve("delays.txt");
+            Files.writeString(file, "7 1 2\n");
+
+            assertThrows(IllegalArgumentException.class, () -> EmpiricalDelayModel.readFrom(file));
+        }
+
+    }
+}
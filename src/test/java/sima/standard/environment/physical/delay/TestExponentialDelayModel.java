@@ -0,0 +1,55 @@
+package sima.standard.environment.physical.delay;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestExponentialDelayModel {
+
+    // Tests.
+
+    @Nested
+    @Tag("ExponentialDelayModel.constructor")
+    @DisplayName("ExponentialDelayModel constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with a min delay less than NOW or a mean not strictly positive")
+        void testConstructorWithWrongArgs() {
+            assertThrows(IllegalArgumentException.class, () -> new ExponentialDelayModel(0L, 5.0d));
+            assertThrows(IllegalArgumentException.class, () -> new ExponentialDelayModel(1L, 0.0d));
+            assertThrows(IllegalArgumentException.class, () -> new ExponentialDelayModel(1L, Double.NaN));
+        }
+
+    }
+
+    @Nested
+    @Tag("ExponentialDelayModel.sampleDelay")
+    @DisplayName("ExponentialDelayModel sampleDelay tests")
+    class SampleDelayTest {
+
+        @Test
+        @DisplayName("Test if sampleDelay returns delays greater or equal to the min delay with the expected mean")
+        void testSampleDelayMean() {
+            var model = new ExponentialDelayModel(10L, 20.0d);
+            var random = new SplittableRandom(42L);
+            int nbSamples = 100_000;
+            double sum = 0.0d;
+            for (int i = 0; i < nbSamples; i++) {
+                long delay = model.sampleDelay(0, 1, random.nextLong());
+                assertThat(delay).isGreaterThanOrEqualTo(10L);
+                sum += delay;
+            }
+
+            assertThat(sum / nbSamples).isCloseTo(30.0d, within(1.0d));
+        }
+
+    }
+}
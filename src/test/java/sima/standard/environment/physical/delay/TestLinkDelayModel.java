@@ -0,0 +1,101 @@
+package sima.standard.environment.physical.delay;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestLinkDelayModel {
+
+    // Tests.
+
+    @Nested
+    @Tag("LinkDelayModel.build")
+    @DisplayName("LinkDelayModel build tests")
+    class BuildTest {
+
+        @Test
+        @DisplayName("Test if build throws an IllegalArgumentException with a null fallback")
+        void testBuildWithNullFallback() {
+            var builder = new LinkDelayModel.Builder(false);
+            assertThrows(IllegalArgumentException.class, () -> builder.build(null));
+        }
+
+        @Test
+        @DisplayName("Test if addLink throws an IllegalArgumentException with a negative node or a delay less than NOW")
+        void testAddLinkWithWrongArgs() {
+            var builder = new LinkDelayModel.Builder(false);
+            assertThrows(IllegalArgumentException.class, () -> builder.addLink(-1, 0, 5L));
+            assertThrows(IllegalArgumentException.class, () -> builder.addLink(0, 1, 0L));
+        }
+
+    }
+
+    @Nested
+    @Tag("LinkDelayModel.sampleDelay")
+    @DisplayName("LinkDelayModel sampleDelay tests")
+    class SampleDelayTest {
+
+        @Test
+        @DisplayName("Test if sampleDelay returns the fixed delay of the link or samples the fallback")
+        void testSampleDelay() {
+            var model = new LinkDelayModel.Builder(false).addLink(0, 1, 5L).addLink(0, 1, 6L).addLink(1, 2, 8L)
+                    .build(new UniformDelayModel(100L, 100L));
+            var random = new SplittableRandom();
+
+            assertThat(model.getNbLinks()).isEqualTo(4);
+            assertThat(model.sampleDelay(0, 1, random.nextLong())).isEqualTo(6L);
+            assertThat(model.sampleDelay(1, 0, random.nextLong())).isEqualTo(6L);
+            assertThat(model.sampleDelay(2, 1, random.nextLong())).isEqualTo(8L);
+            assertThat(model.sampleDelay(0, 2, random.nextLong())).isEqualTo(100L);
+        }
+
+        @Test
+        @DisplayName("Test if a directed model uses the fixed delay only in one direction")
+        void testSampleDelayDirected() {
+            var model = new LinkDelayModel.Builder(true).addLink(0, 1, 5L).build(new UniformDelayModel(100L, 100L));
+            var random = new SplittableRandom();
+
+            assertThat(model.sampleDelay(0, 1, random.nextLong())).isEqualTo(5L);
+            assertThat(model.sampleDelay(1, 0, random.nextLong())).isEqualTo(100L);
+        }
+
+    }
+
+    @Nested
+    @Tag("LinkDelayModel.readFrom")
+    @DisplayName("LinkDelayModel readFrom tests")
+    class ReadFromTest {
+
+        @Test
+        @DisplayName("Test if readFrom reads the fixed delays and ignores comments")
+        void testReadFrom(@TempDir Path tempDir) throws IOException {
+            var file = tempDir.resolve("links.txt");
+            Files.writeString(file, "# from to delay\n0 1 4\n");
+
+            var model = LinkDelayModel.readFrom(file, true, new UniformDelayModel(100L, 100L));
+
+            assertThat(model.getLinkDelay(0, 1)).isEqualTo(4L);
+            assertThat(model.getLinkDelay(1, 0)).isEqualTo(-1L);
+        }
+
+        @Test
+        @DisplayName("Test if readFrom throws an IllegalArgumentException with a malformed line")
+        void testReadFromMalformedLine(@TempDir Path tempDir) throws IOException {
+            var file = tempDir.resolve("links.txt");
+            Files.writeString(file, "0 1\n");
+
+            assertThrows(IllegalArgumentException.class, () -> LinkDelayModel.readFrom(file, false, new UniformDelayModel(1L, 1L)));
+        }
+
+    }
+}
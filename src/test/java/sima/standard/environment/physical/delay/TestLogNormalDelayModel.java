@@ -0,0 +1,52 @@
+package sima.standard.environment.physical.delay;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestLogNormalDelayModel {
+
+    // Tests.
+
+    @Nested
+    @Tag("LogNormalDelayModel.constructor")
+    @DisplayName("LogNormalDelayModel constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with a mu not finite or a negative sigma")
+        void testConstructorWithWrongArgs() {
+            assertThrows(IllegalArgumentException.class, () -> new LogNormalDelayModel(Double.POSITIVE_INFINITY, 1.0d));
+            assertThrows(IllegalArgumentException.class, () -> new LogNormalDelayModel(1.0d, -1.0d));
+        }
+
+    }
+
+    @Nested
+    @Tag("LogNormalDelayModel.sampleDelay")
+    @DisplayName("LogNormalDelayModel sampleDelay tests")
+    class SampleDelayTest {
+
+        @Test
+        @DisplayName("Test if the median of the sampled delays is close to exp(mu)")
+        void testSampleDelayMedian() {
+            var model = new LogNormalDelayModel(Math.log(50.0d), 0.5d);
+            var random = new SplittableRandom(42L);
+            long[] delays = new long[10_001];
+            for (int i = 0; i < delays.length; i++)
+                delays[i] = model.sampleDelay(0, 1, random.nextLong());
+
+            Arrays.sort(delays);
+            assertThat(delays[0]).isGreaterThanOrEqualTo(1L);
+            assertThat(delays[delays.length / 2]).isBetween(48L, 52L);
+        }
+
+    }
+}
@@ -0,0 +1,58 @@
+package sima.standard.environment.physical.delay;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestUniformDelayModel {
+
+    // Tests.
+
+    @Nested
+    @Tag("UniformDelayModel.constructor")
+    @DisplayName("UniformDelayModel constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if constructor throws an IllegalArgumentException with a min delay less than NOW or a max less than the min")
+        void testConstructorWithWrongDelays() {
+            assertThrows(IllegalArgumentException.class, () -> new UniformDelayModel(0L, 10L));
+            assertThrows(IllegalArgumentException.class, () -> new UniformDelayModel(10L, 5L));
+        }
+
+    }
+
+    @Nested
+    @Tag("UniformDelayModel.sampleDelay")
+    @DisplayName("UniformDelayModel sampleDelay tests")
+    class SampleDelayTest {
+
+        @Test
+        @DisplayName("Test if sampleDelay returns delays in [min; max[ and reaches all values")
+        void testSampleDelayInBounds() {
+            var model = new UniformDelayModel(10L, 13L);
+            var random = new SplittableRandom(42L);
+            boolean[] seen = new boolean[3];
+            for (int i = 0; i < 1000; i++) {
+                long delay = model.sampleDelay(0, 1, random.nextLong());
+                assertThat(delay).isBetween(10L, 12L);
+                seen[(int) (delay - 10L)] = true;
+            }
+
+            assertThat(seen).containsOnly(true);
+        }
+
+        @Test
+        @DisplayName("Test if sampleDelay always returns the min delay if the min is equal to the max")
+        void testSampleDelayWithEqualBounds() {
+            assertThat(new UniformDelayModel(7L, 7L).sampleDelay(0, 1, new SplittableRandom().nextLong())).isEqualTo(7L);
+        }
+
+    }
+}
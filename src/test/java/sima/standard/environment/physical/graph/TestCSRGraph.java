@@ -0,0 +1,95 @@
+package sima.standard.environment.physical.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestCSRGraph {
+
+    // Tests.
+
+    @Nested
+    @Tag("CSRGraph.Builder")
+    @DisplayName("CSRGraph Builder tests")
+    class BuilderTest {
+
+        @Test
+        @DisplayName("Test if the Builder throws an IllegalArgumentException with negative minNbNodes, negative node or negative latency")
+        void testBuilderWithWrongArgs() {
+            assertThrows(IllegalArgumentException.class, () -> new CSRGraph.Builder(-1, false));
+
+            var builder = new CSRGraph.Builder(0, false);
+            assertThrows(IllegalArgumentException.class, () -> builder.addEdge(-1, 0));
+            assertThrows(IllegalArgumentException.class, () -> builder.addEdge(0, -1));
+            assertThrows(IllegalArgumentException.class, () -> builder.addEdge(0, 1, -2));
+        }
+
+        @Test
+        @DisplayName("Test if build creates a graph with the max between minNbNodes and the greatest node plus one")
+        void testBuildNbNodes() {
+            assertThat(new CSRGraph.Builder(10, false).addEdge(0, 1).build().getNbNodes()).isEqualTo(10);
+            assertThat(new CSRGraph.Builder(1, false).addEdge(0, 4).build().getNbNodes()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Test if an undirected edge is stored in both directions and a directed edge only in one")
+        void testBuildDirection() {
+            var undirected = new CSRGraph.Builder(0, false).addEdge(0, 1).build();
+            assertThat(undirected.hasEdge(0, 1)).isTrue();
+            assertThat(undirected.hasEdge(1, 0)).isTrue();
+            assertThat(undirected.getNbEdges()).isEqualTo(2);
+
+            var directed = new CSRGraph.Builder(0, true).addEdge(0, 1).build();
+            assertThat(directed.hasEdge(0, 1)).isTrue();
+            assertThat(directed.hasEdge(1, 0)).isFalse();
+            assertThat(directed.getNbEdges()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Test if build ignores self-loops, removes duplicated edges and sorts neighbors")
+        void testBuildRemovesDuplicatesAndSorts() {
+            var graph = new CSRGraph.Builder(0, true).addEdge(0, 3).addEdge(0, 1).addEdge(0, 3).addEdge(0, 0).addEdge(0, 2).build();
+
+            assertThat(graph.getDegree(0)).isEqualTo(3);
+            assertThat(graph.hasEdge(0, 0)).isFalse();
+            int previous = -1;
+            for (int edge = graph.getEdgeStart(0); edge < graph.getEdgeEnd(0); edge++) {
+                assertThat(graph.getEdgeTarget(edge)).isGreaterThan(previous);
+                previous = graph.getEdgeTarget(edge);
+            }
+        }
+
+        @Test
+        @DisplayName("Test if build keeps the smallest latency of duplicated edges and NO_LATENCY for edges without latency")
+        void testBuildLatencies() {
+            var graph = new CSRGraph.Builder(0, true).addEdge(0, 1, 7).addEdge(0, 1, 3).addEdge(0, 2).build();
+
+            assertThat(graph.hasLatencies()).isTrue();
+            assertThat(graph.getLatency(0, 1)).isEqualTo(3);
+            assertThat(graph.getLatency(0, 2)).isEqualTo(CSRGraph.NO_LATENCY);
+            assertThat(graph.getLatency(1, 0)).isEqualTo(CSRGraph.NO_LATENCY);
+        }
+
+    }
+
+    @Nested
+    @Tag("CSRGraph.hasEdge")
+    @DisplayName("CSRGraph hasEdge tests")
+    class HasEdgeTest {
+
+        @Test
+        @DisplayName("Test if hasEdge returns false for nodes which are not in the graph")
+        void testHasEdgeWithUnknownNodes() {
+            var graph = new CSRGraph.Builder(0, false).addEdge(0, 1).build();
+
+            assertThat(graph.hasEdge(-1, 0)).isFalse();
+            assertThat(graph.hasEdge(0, 2)).isFalse();
+            assertThat(graph.hasEdge(5, 0)).isFalse();
+        }
+
+    }
+}
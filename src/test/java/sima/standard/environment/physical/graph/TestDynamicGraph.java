@@ -0,0 +1,122 @@
+package sima.standard.environment.physical.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestDynamicGraph {
+
+    // Tests.
+
+    @Nested
+    @Tag("DynamicGraph.apply")
+    @DisplayName("DynamicGraph apply tests")
+    class ApplyTest {
+
+        @Test
+        @DisplayName("Test if apply throws an IllegalArgumentException with null updates")
+        void testApplyWithNullUpdates() {
+            var graph = new DynamicGraph(new CSRGraph.Builder(2, false).build(), false);
+            assertThrows(IllegalArgumentException.class, () -> graph.apply(null));
+        }
+
+        @Test
+        @DisplayName("Test if apply creates a new version and does not modify the previous version")
+        void testApplyDoesNotModifyPreviousVersion() {
+            var v0 = new DynamicGraph(new CSRGraph.Builder(0, false).addEdge(0, 1).build(), false);
+            var v1 = v0.apply(List.of(TopologyUpdate.removeLink(0, 0, 1), TopologyUpdate.addLink(0, 1, 2, 4)));
+
+            assertThat(v1.getVersion()).isEqualTo(v0.getVersion() + 1);
+            assertThat(v0.hasEdge(0, 1)).isTrue();
+            assertThat(v0.hasEdge(1, 2)).isFalse();
+            assertThat(v1.hasEdge(0, 1)).isFalse();
+            assertThat(v1.hasEdge(1, 0)).isFalse();
+            assertThat(v1.hasEdge(2, 1)).isTrue();
+            assertThat(v1.getLatency(1, 2)).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Test if a directed graph applies updates only in one direction")
+        void testApplyOnDirectedGraph() {
+            var v1 = new DynamicGraph(new CSRGraph.Builder(2, true).build(), true).apply(List.of(TopologyUpdate.addLink(0, 0, 1)));
+
+            assertThat(v1.hasEdge(0, 1)).isTrue();
+            assertThat(v1.hasEdge(1, 0)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Test if changeLatency changes only existing links")
+        void testApplyChangeLatency() {
+            var v0 = new DynamicGraph(new CSRGraph.Builder(0, false).addEdge(0, 1, 3).build(), false);
+            var v1 = v0.apply(List.of(TopologyUpdate.changeLatency(0, 0, 1, 9), TopologyUpdate.changeLatency(0, 1, 2, 9)));
+
+            assertThat(v1.getLatency(0, 1)).isEqualTo(9);
+            assertThat(v1.getLatency(1, 0)).isEqualTo(9);
+            assertThat(v1.hasEdge(1, 2)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Test if apply compacts a large delta in a new base which contains the same links")
+        void testApplyCompactsLargeDelta() {
+            var v0 = new DynamicGraph(new CSRGraph.Builder(0, false).addEdge(0, 1).build(), false);
+            List<TopologyUpdate> updates = new ArrayList<>();
+            for (int node = 2; node < 2000; node++)
+                updates.add(TopologyUpdate.addLink(0, node - 1, node));
+            updates.add(TopologyUpdate.removeLink(0, 0, 1));
+
+            var v1 = v0.apply(updates);
+
+            assertThat(v1.getDeltaSize()).isZero();
+            assertThat(v1.getBase()).isNotSameAs(v0.getBase());
+            assertThat(v1.hasEdge(0, 1)).isFalse();
+            assertThat(v1.hasEdge(1998, 1999)).isTrue();
+            assertThat(v1.hasEdge(1999, 1998)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Test if a chain of versions keeps each version unchanged and merges the delta layers")
+        void testApplyChainsVersions() {
+            var v0 = new DynamicGraph(new CSRGraph.Builder(0, true).addEdge(0, 1, 1).build(), true);
+            List<DynamicGraph> versions = new ArrayList<>();
+            versions.add(v0);
+            for (int i = 1; i <= 64; i++)
+                versions.add(versions.get(i - 1).apply(List.of(TopologyUpdate.changeLatency(0, 0, 1, i + 1),
+                                                                TopologyUpdate.addLink(0, i, i + 1, i))));
+
+            for (int i = 0; i <= 64; i++) {
+                var version = versions.get(i);
+                assertThat(version.getLatency(0, 1)).isEqualTo(i + 1);
+                assertThat(version.hasEdge(i, i + 1)).isTrue();
+                assertThat(version.hasEdge(i + 1, i + 2)).isFalse();
+            }
+
+            var last = versions.get(64);
+            assertThat(last.getDeltaSize()).isLessThan(2 * 65);
+            var graph = last.toCSRGraph();
+            assertThat(graph.getNbEdges()).isEqualTo(65);
+            assertThat(graph.getLatency(0, 1)).isEqualTo(65);
+            assertThat(graph.getLatency(64, 65)).isEqualTo(64);
+        }
+
+        @Test
+        @DisplayName("Test if apply without update shares the delta and the compacted graph of the previous version")
+        void testApplyWithoutUpdate() {
+            var v1 = new DynamicGraph(new CSRGraph.Builder(2, true).build(), true).apply(List.of(TopologyUpdate.addLink(0, 0, 1)));
+            var compacted = v1.toCSRGraph();
+            var v2 = v1.apply(List.of());
+
+            assertThat(v2.getVersion()).isEqualTo(2);
+            assertThat(v2.getDeltaSize()).isEqualTo(v1.getDeltaSize());
+            assertThat(v2.hasEdge(0, 1)).isTrue();
+            assertThat(v2.toCSRGraph()).isSameAs(compacted);
+        }
+
+    }
+}
@@ -0,0 +1,156 @@
+package sima.standard.environment.physical.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestGraphGenerators {
+
+    // Tests.
+
+    @Nested
+    @Tag("GraphGenerators.erdosRenyi")
+    @DisplayName("GraphGenerators erdosRenyi tests")
+    class ErdosRenyiTest {
+
+        @Test
+        @DisplayName("Test if erdosRenyi throws an IllegalArgumentException with negative nbNodes or probability not in [0; 1]")
+        void testErdosRenyiWithWrongArgs() {
+            var random = new Random(0);
+            assertThrows(IllegalArgumentException.class, () -> GraphGenerators.erdosRenyi(-1, 0.5d, random));
+            assertThrows(IllegalArgumentException.class, () -> GraphGenerators.erdosRenyi(10, -0.1d, random));
+            assertThrows(IllegalArgumentException.class, () -> GraphGenerators.erdosRenyi(10, 1.1d, random));
+        }
+
+        @Test
+        @DisplayName("Test if erdosRenyi creates an empty graph with probability 0 and a complete graph with probability 1")
+        void testErdosRenyiLimits() {
+            assertThat(GraphGenerators.erdosRenyi(10, 0.0d, new Random(0)).getNbEdges()).isZero();
+            assertThat(GraphGenerators.erdosRenyi(10, 1.0d, new Random(0)).getNbEdges()).isEqualTo(10 * 9);
+        }
+
+        @Test
+        @DisplayName("Test if erdosRenyi creates a graph with approximately p * n * (n - 1) / 2 edges")
+        void testErdosRenyiNbEdges() {
+            int nbNodes = 2000;
+            double probability = 0.01d;
+            var graph = GraphGenerators.erdosRenyi(nbNodes, probability, new Random(42));
+
+            double expected = probability * nbNodes * (nbNodes - 1);
+            assertThat((double) graph.getNbEdges()).isBetween(expected * 0.9d, expected * 1.1d);
+        }
+
+        @Test
+        @DisplayName("Test if erdosRenyi creates the same graph with the same seed")
+        void testErdosRenyiIsReproducible() {
+            var g1 = GraphGenerators.erdosRenyi(500, 0.05d, new Random(7));
+            var g2 = GraphGenerators.erdosRenyi(500, 0.05d, new Random(7));
+
+            assertThat(g1.getNbEdges()).isEqualTo(g2.getNbEdges());
+            for (int node = 0; node < g1.getNbNodes(); node++)
+                for (int edge = g1.getEdgeStart(node); edge < g1.getEdgeEnd(node); edge++)
+                    assertThat(g2.hasEdge(node, g1.getEdgeTarget(edge))).isTrue();
+        }
+
+    }
+
+    @Nested
+    @Tag("GraphGenerators.wattsStrogatz")
+    @DisplayName("GraphGenerators wattsStrogatz tests")
+    class WattsStrogatzTest {
+
+        @Test
+        @DisplayName("Test if wattsStrogatz throws an IllegalArgumentException with odd degree or degree greater or equal to nbNodes")
+        void testWattsStrogatzWithWrongArgs() {
+            var random = new Random(0);
+            assertThrows(IllegalArgumentException.class, () -> GraphGenerators.wattsStrogatz(10, 3, 0.1d, random));
+            assertThrows(IllegalArgumentException.class, () -> GraphGenerators.wattsStrogatz(10, 10, 0.1d, random));
+            assertThrows(IllegalArgumentException.class, () -> GraphGenerators.wattsStrogatz(10, 4, 2.0d, random));
+        }
+
+        @Test
+        @DisplayName("Test if wattsStrogatz without rewiring creates a ring lattice")
+        void testWattsStrogatzWithoutRewiring() {
+            var graph = GraphGenerators.wattsStrogatz(20, 4, 0.0d, new Random(0));
+
+            for (int node = 0; node < graph.getNbNodes(); node++) {
+                assertThat(graph.getDegree(node)).isEqualTo(4);
+                assertThat(graph.hasEdge(node, (node + 1) % 20)).isTrue();
+                assertThat(graph.hasEdge(node, (node + 2) % 20)).isTrue();
+            }
+        }
+
+    }
+
+    @Nested
+    @Tag("GraphGenerators.barabasiAlbert")
+    @DisplayName("GraphGenerators barabasiAlbert tests")
+    class BarabasiAlbertTest {
+
+        @Test
+        @DisplayName("Test if barabasiAlbert throws an IllegalArgumentException with attachment less than 1 or nbNodes less or equal to attachment")
+        void testBarabasiAlbertWithWrongArgs() {
+            var random = new Random(0);
+            assertThrows(IllegalArgumentException.class, () -> GraphGenerators.barabasiAlbert(10, 0, random));
+            assertThrows(IllegalArgumentException.class, () -> GraphGenerators.barabasiAlbert(3, 3, random));
+        }
+
+        @Test
+        @DisplayName("Test if barabasiAlbert creates attachment * (nbNodes - attachment) edges and each node has at least attachment neighbors")
+        void testBarabasiAlbertNbEdges() {
+            int nbNodes = 1000;
+            int attachment = 3;
+            var graph = GraphGenerators.barabasiAlbert(nbNodes, attachment, new Random(0));
+
+            assertThat(graph.getNbEdges()).isEqualTo(2 * attachment * (nbNodes - attachment));
+            for (int node = attachment; node < nbNodes; node++)
+                assertThat(graph.getDegree(node)).isGreaterThanOrEqualTo(attachment);
+        }
+
+    }
+
+    @Nested
+    @Tag("GraphGenerators.readEdgeList")
+    @DisplayName("GraphGenerators readEdgeList tests")
+    class ReadEdgeListTest {
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        @DisplayName("Test if readEdgeList reads edges with and without latency and ignores comments and empty lines")
+        void testReadEdgeList() throws IOException {
+            var file = tempDir.resolve("edges.txt");
+            Files.writeString(file, "# comment\n0 1\n\n1\t2 15\n% other comment\n");
+
+            var graph = GraphGenerators.readEdgeList(file, 0, false);
+
+            assertThat(graph.getNbNodes()).isEqualTo(3);
+            assertThat(graph.hasEdge(0, 1)).isTrue();
+            assertThat(graph.hasEdge(2, 1)).isTrue();
+            assertThat(graph.hasEdge(0, 2)).isFalse();
+            assertThat(graph.getLatency(1, 2)).isEqualTo(15);
+            assertThat(graph.getLatency(0, 1)).isEqualTo(CSRGraph.NO_LATENCY);
+        }
+
+        @Test
+        @DisplayName("Test if readEdgeList throws an IllegalArgumentException with a malformed line")
+        void testReadEdgeListWithMalformedLine() throws IOException {
+            var file = tempDir.resolve("malformed.txt");
+            Files.writeString(file, "0 a\n");
+
+            assertThrows(IllegalArgumentException.class, () -> GraphGenerators.readEdgeList(file, 0, false));
+        }
+
+    }
+}
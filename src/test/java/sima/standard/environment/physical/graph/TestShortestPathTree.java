@@ -0,0 +1,110 @@
+package sima.standard.environment.physical.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestShortestPathTree {
+
+    // Tests.
+
+    @Nested
+    @Tag("ShortestPathTree.compute")
+    @DisplayName("ShortestPathTree compute tests")
+    class ComputeTest {
+
+        @Test
+        @DisplayName("Test if compute throws an IllegalArgumentException with a null graph, a source not in the graph or a default weight less than 1")
+        void testComputeWithWrongArgs() {
+            var graph = new CSRGraph.Builder(3, false).build();
+            assertThrows(IllegalArgumentException.class, () -> ShortestPathTree.compute(null, 0, 1L));
+            assertThrows(IllegalArgumentException.class, () -> ShortestPathTree.compute(graph, 3, 1L));
+            assertThrows(IllegalArgumentException.class, () -> ShortestPathTree.compute(graph, 0, 0L));
+        }
+
+        @Test
+        @DisplayName("Test if compute finds the paths with the fewest hops in a graph without latency")
+        void testComputeWithoutLatency() {
+            // 0 - 1 - 2 - 3 and 0 - 4 - 3, node 5 is isolated.
+            var graph = new CSRGraph.Builder(6, false).addEdge(0, 1).addEdge(1, 2).addEdge(2, 3).addEdge(0, 4).addEdge(4, 3).build();
+
+            var tree = ShortestPathTree.compute(graph, 0, 10L);
+
+            assertThat(tree.getPath(3)).containsExactly(0, 4, 3);
+            assertThat(tree.getDistance(3)).isEqualTo(20L);
+            assertThat(tree.getPath(0)).containsExactly(0);
+            assertThat(tree.isReachable(5)).isFalse();
+            assertThat(tree.getPath(5)).isEmpty();
+            assertThat(tree.getDistance(5)).isEqualTo(ShortestPathTree.UNREACHABLE);
+            assertThat(tree.getPredecessor(0)).isEqualTo(ShortestPathTree.NO_PREDECESSOR);
+        }
+
+        @Test
+        @DisplayName("Test if compute finds the paths with the smallest latency in a graph with latencies")
+        void testComputeWithLatencies() {
+            var graph = new CSRGraph.Builder(4, false).addEdge(0, 1, 1).addEdge(1, 2, 1).addEdge(2, 3, 1).addEdge(0, 3, 10).build();
+
+            var tree = ShortestPathTree.compute(graph, 0, 5L);
+
+            assertThat(tree.getPath(3)).containsExactly(0, 1, 2, 3);
+            assertThat(tree.getDistance(3)).isEqualTo(3L);
+        }
+
+        @Test
+        @DisplayName("Test if compute follows the direction of the edges in a directed graph")
+        void testComputeOnDirectedGraph() {
+            var graph = new CSRGraph.Builder(3, true).addEdge(0, 1).addEdge(1, 2).build();
+
+            assertThat(ShortestPathTree.compute(graph, 0, 1L).getPath(2)).containsExactly(0, 1, 2);
+            assertThat(ShortestPathTree.compute(graph, 2, 1L).isReachable(0)).isFalse();
+        }
+
+    }
+
+    @Nested
+    @Tag("ShortestPathTree.isInvalidatedBy")
+    @DisplayName("ShortestPathTree isInvalidatedBy tests")
+    class IsInvalidatedByTest {
+
+        // 0 - 1 - 2 - 3 and 0 - 4, node 5 is isolated.
+        private final CSRGraph graph = new CSRGraph.Builder(6, false).addEdge(0, 1).addEdge(1, 2).addEdge(2, 3).addEdge(0, 4).build();
+
+        private final ShortestPathTree tree = ShortestPathTree.compute(graph, 0, 1L);
+
+        @Test
+        @DisplayName("Test if isInvalidatedBy throws an IllegalArgumentException with null updates")
+        void testIsInvalidatedByWithNullUpdates() {
+            assertThrows(IllegalArgumentException.class, () -> tree.isInvalidatedBy(null, false));
+        }
+
+        @Test
+        @DisplayName("Test if the removal of a link of the tree invalidates the tree")
+        void testRemovalOfTreeLink() {
+            assertThat(tree.isInvalidatedBy(List.of(TopologyUpdate.removeLink(0, 2, 1)), false)).isTrue();
+            assertThat(tree.isInvalidatedBy(List.of(TopologyUpdate.removeLink(0, 2, 1)), true)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Test if the removal of a link which is not in the tree does not invalidate the tree")
+        void testRemovalOfOtherLink() {
+            assertThat(tree.isInvalidatedBy(List.of(TopologyUpdate.removeLink(0, 3, 5)), false)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Test if the addition of a link invalidates the tree only if it gives a shorter path")
+        void testAdditionOfLink() {
+            assertThat(tree.isInvalidatedBy(List.of(TopologyUpdate.addLink(0, 4, 3)), false)).isTrue();
+            assertThat(tree.isInvalidatedBy(List.of(TopologyUpdate.addLink(0, 3, 4)), true)).isFalse();
+            assertThat(tree.isInvalidatedBy(List.of(TopologyUpdate.addLink(0, 3, 5)), false)).isTrue();
+            assertThat(tree.isInvalidatedBy(List.of(TopologyUpdate.addLink(0, 3, 10)), false)).isTrue();
+            assertThat(tree.isInvalidatedBy(List.of(TopologyUpdate.addLink(0, 10, 11)), false)).isFalse();
+        }
+
+    }
+}
@@ -2,23 +2,41 @@ package sima.standard.message_sender;
 
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.Environment;
+import sima.core.environment.event.Event;
+import sima.core.scheduler.Scheduler;
+import sima.core.scheduler.executor.Executable;
+import sima.core.simulation.SimaSimulation;
 import sima.standard.environment.message.Message;
+import sima.standard.environment.message.event.physical.PhysicalMessageReceptionEvent;
+import sima.standard.environment.physical.FullyConnectedPhysicalLayer;
+import sima.standard.transport.MessageEnvelope;
 import sima.standard.transport.MessageTransportProtocol;
 import sima.standard.transport.TestMessageTransportProtocol;
 import sima.core.agent.SimaAgent;
+import sima.core.exception.KilledAgentException;
+import sima.core.exception.NoPhysicalConnectionLayerFoundException;
 import sima.core.exception.UnknownProtocolForAgentException;
 import sima.core.protocol.Protocol;
 import sima.core.protocol.ProtocolIdentifier;
 import sima.standard.transport.message.SimpleMessageSenderProtocol;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.ToLongFunction;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static sima.core.TestSima.mockSimaSimulation;
 
 @ExtendWith(MockitoExtension.class)
 public class TestSimpleMessageSenderProtocol extends TestMessageTransportProtocol {
@@ -137,4 +155,198 @@ public class TestSimpleMessageSenderProtocol extends TestMessageTransportProtoco
         }
         
     }
+    
+    @Nested
+    @Tag("SimpleMessageSenderProtocol.aggregation")
+    @DisplayName("SimpleMessageSenderProtocol aggregation tests")
+    class AggregationTest {
+        
+        @Mock
+        private Environment mockEnvironment;
+        
+        @Mock
+        private Scheduler mockScheduler;
+        
+        @Mock
+        private Message mockOtherMessage;
+        
+        private final AgentIdentifier owner = new AgentIdentifier("OWNER", 0, 0);
+        
+        private final AgentIdentifier target = new AgentIdentifier("TARGET", 1, 1);
+        
+        private final AgentIdentifier otherTarget = new AgentIdentifier("OTHER_TARGET", 2, 2);
+        
+        private SimpleMessageSenderProtocol aggregatingProtocol(String mode, String size) {
+            Map<String, String> args = new HashMap<>(correctArgs);
+            args.put(MessageTransportProtocol.ARG_AGGREGATION_MODE, mode);
+            if (size != null)
+                args.put(MessageTransportProtocol.ARG_AGGREGATION_SIZE, size);
+            
+            var aggregatingProtocol = new SimpleMessageSenderProtocol(protocolTag, mockAgentOwner, args);
+            aggregatingProtocol.setEnvironment(mockEnvironment);
+            lenient().when(mockEnvironment.getPhysicalConnectionLayer(any(String.class)))
+                    .thenReturn(new FullyConnectedPhysicalLayer(mockEnvironment, new HashMap<>()));
+            lenient().when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            return aggregatingProtocol;
+        }
+        
+        private List<Event> sentEvents(AgentIdentifier target, int nbSent) {
+            ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+            verify(mockEnvironment, times(nbSent)).assignEventOn(eq(owner), eq(target), captor.capture(), anyLong());
+            return captor.getAllValues();
+        }
+        
+        private void executeFlush() {
+            ArgumentCaptor<Executable> captor = ArgumentCaptor.forClass(Executable.class);
+            verify(mockScheduler, times(1)).scheduleExecutableOnce(captor.capture(), eq(Scheduler.NOW));
+            captor.getValue().execute();
+        }
+        
+        @Test
+        @DisplayName("Test if the constructor throws IllegalArgumentException with a wrong aggregation mode or size")
+        void testConstructorWithWrongAggregationArgs() {
+            assertThrows(IllegalArgumentException.class, () -> aggregatingProtocol("WRONG", null));
+            assertThrows(IllegalArgumentException.class, () -> aggregatingProtocol("size", "0"));
+            assertThrows(IllegalArgumentException.class, () -> aggregatingProtocol("size", "X"));
+        }
+        
+        @Test
+        @DisplayName("Test if the aggregation is disabled by default")
+        void testNoAggregationByDefault() {
+            assertThat(simpleMessageSenderProtocol.getAggregationMode()).isEqualTo(MessageTransportProtocol.AggregationMode.NONE);
+            assertThat(aggregatingProtocol("Step", null).getAggregationMode()).isEqualTo(MessageTransportProtocol.AggregationMode.STEP);
+        }
+        
+        @SuppressWarnings("unchecked")
+        private List<Event> sentMulticastEvents(List<AgentIdentifier> targets, int nbSent) {
+            ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+            verify(mockEnvironment, times(nbSent)).assignEventOn(eq(owner), eq(targets), captor.capture(), any(ToLongFunction.class));
+            return captor.getAllValues();
+        }
+        
+        @Test
+        @DisplayName("Test if the step mode sends one envelope per target at the step boundary")
+        void testStepAggregation() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                var aggregatingProtocol = aggregatingProtocol("step", null);
+                
+                aggregatingProtocol.send(target, mockMessage);
+                aggregatingProtocol.send(target, mockOtherMessage);
+                aggregatingProtocol.send(otherTarget, mockOtherMessage);
+                verify(mockEnvironment, never()).assignEventOn(any(AgentIdentifier.class), any(AgentIdentifier.class), any(), anyLong());
+                assertThat(aggregatingProtocol.getNbPendingEnvelopes()).isEqualTo(2);
+                
+                executeFlush();
+                var envelope = ((PhysicalMessageReceptionEvent) sentEvents(target, 1).get(0)).getContent();
+                assertThat(envelope).isInstanceOf(MessageEnvelope.class);
+                assertThat(((MessageEnvelope) envelope).getMessages()).containsExactly(mockMessage, mockOtherMessage);
+                // Only one message for the other target, it is sent without envelope.
+                assertThat(((PhysicalMessageReceptionEvent) sentEvents(otherTarget, 1).get(0)).getContent()).isSameAs(mockOtherMessage);
+                assertThat(aggregatingProtocol.getNbPendingEnvelopes()).isZero();
+            }
+        }
+        
+        @Test
+        @DisplayName("Test if the multicasts to the same targets are aggregated and sent with one multicast")
+        void testMulticastAggregation() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                var aggregatingProtocol = aggregatingProtocol("step", null);
+                var targets = List.of(target, otherTarget);
+                
+                aggregatingProtocol.send(target, mockMessage);
+                aggregatingProtocol.sendMulticast(targets, mockMessage);
+                aggregatingProtocol.sendMulticast(targets, mockOtherMessage);
+                assertThat(aggregatingProtocol.getNbPendingEnvelopes()).isEqualTo(2);
+                
+                executeFlush();
+                var envelope = (MessageEnvelope) ((PhysicalMessageReceptionEvent) sentMulticastEvents(targets, 1).get(0)).getContent();
+                assertThat(envelope.getMessages()).containsExactly(mockMessage, mockOtherMessage);
+                assertThat(((PhysicalMessageReceptionEvent) sentEvents(target, 1).get(0)).getContent()).isSameAs(mockMessage);
+                verify(mockEnvironment, never()).assignEventOn(eq(owner), eq(otherTarget), any(), anyLong());
+            }
+        }
+        
+        @Test
+        @DisplayName("Test if a send in aggregation mode is validated at once")
+        void testAggregationValidatesAtOnce() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                var aggregatingProtocol = aggregatingProtocol("step", null);
+                when(mockEnvironment.getPhysicalConnectionLayer(any(String.class))).thenReturn(null);
+                
+                assertThrows(NoPhysicalConnectionLayerFoundException.class, () -> aggregatingProtocol.send(target, mockMessage));
+                assertThrows(NoPhysicalConnectionLayerFoundException.class, () -> aggregatingProtocol.sendMulticast(List.of(target), mockMessage));
+                
+                when(mockAgentOwner.isKilled()).thenReturn(true);
+                assertThrows(KilledAgentException.class, () -> aggregatingProtocol.send(target, mockMessage));
+                assertThat(aggregatingProtocol.getNbPendingEnvelopes()).isZero();
+                verify(mockScheduler, never()).scheduleExecutableOnce(any(), anyLong());
+            }
+        }
+        
+        @Test
+        @DisplayName("Test if flush drops the envelopes if the agent owner has been killed")
+        void testFlushWithKilledOwner() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                var aggregatingProtocol = aggregatingProtocol("step", null);
+                
+                aggregatingProtocol.send(target, mockMessage);
+                when(mockAgentOwner.isKilled()).thenReturn(true);
+                executeFlush();
+                
+                verify(mockEnvironment, never()).assignEventOn(any(AgentIdentifier.class), any(AgentIdentifier.class), any(), anyLong());
+                assertThat(aggregatingProtocol.getNbPendingEnvelopes()).isZero();
+            }
+        }
+        
+        @Test
+        @DisplayName("Test if the size mode sends the envelope of a target as soon as it is full")
+        void testSizeAggregation() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                var aggregatingProtocol = aggregatingProtocol("size", "2");
+                
+                aggregatingProtocol.send(target, mockMessage);
+                aggregatingProtocol.send(target, mockOtherMessage);
+                var envelope = (MessageEnvelope) ((PhysicalMessageReceptionEvent) sentEvents(target, 1).get(0)).getContent();
+                assertThat(envelope.getMessages()).containsExactly(mockMessage, mockOtherMessage);
+                
+                aggregatingProtocol.send(target, mockMessage);
+                executeFlush();
+                assertThat(((PhysicalMessageReceptionEvent) sentEvents(target, 2).get(1)).getContent()).isSameAs(mockMessage);
+            }
+        }
+        
+        @Test
+        @DisplayName("Test if processEvent receives the messages of an envelope in their send order")
+        void testProcessEventWithEnvelope() {
+            var receivingProtocol = spy(simpleMessageSenderProtocol);
+            doNothing().when(receivingProtocol).receive(any());
+            var envelope = new MessageEnvelope(List.of(mockMessage, mockOtherMessage), receivingProtocol.getIdentifier());
+            
+            receivingProtocol.processEvent(new PhysicalMessageReceptionEvent(envelope, receivingProtocol.getIdentifier()));
+            var inOrder = inOrder(receivingProtocol);
+            inOrder.verify(receivingProtocol).receive(mockMessage);
+            inOrder.verify(receivingProtocol).receive(mockOtherMessage);
+        }
+        
+        @Test
+        @DisplayName("Test if processEvents delivers the contents of an envelope in their send order")
+        void testProcessEventsWithEnvelope() {
+            when(mockMessage.getMessage()).thenReturn(mockMessage);
+            when(mockOtherMessage.getMessage()).thenReturn(mockOtherMessage);
+            when(mockMessage.getIntendedProtocolSlot()).thenReturn(0);
+            when(mockOtherMessage.getIntendedProtocolSlot()).thenReturn(0);
+            when(mockAgentOwner.getProtocol(0)).thenReturn(mockIntendedProtocol);
+            var transportId = simpleMessageSenderProtocol.getIdentifier();
+            var envelope = new MessageEnvelope(List.of(mockMessage, mockOtherMessage), transportId);
+            
+            simpleMessageSenderProtocol.processEvents(List.of(new PhysicalMessageReceptionEvent(envelope, transportId)));
+            verify(mockIntendedProtocol, times(1)).processEvents(List.of(mockMessage, mockOtherMessage));
+        }
+        
+    }
 }
@@ -0,0 +1,187 @@
+package sima.standard.pubsub;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.environment.Environment;
+import sima.core.protocol.Protocol;
+import sima.core.protocol.ProtocolIdentifier;
+import sima.core.protocol.TestProtocol;
+import sima.standard.environment.message.Message;
+import sima.standard.transport.MessageTransportProtocol;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestPubSubProtocol extends TestProtocol {
+
+    // Variables.
+
+    protected PubSubProtocol pubSubProtocol;
+
+    @Mock
+    private SimaAgent mockAgentOwner;
+
+    @Mock
+    private MessageTransportProtocol mockMessageTransport;
+
+    @Mock
+    private Environment mockEnvironment;
+
+    @Mock
+    private Protocol mockProtocol;
+
+    @Mock
+    private ProtocolIdentifier mockProtocolIdentifier;
+
+    @Mock
+    private Message mockMessage;
+
+    private final AgentIdentifier owner = new AgentIdentifier("OWNER", 0, 0);
+
+    private final AgentIdentifier subscriber = new AgentIdentifier("SUBSCRIBER", 1, 1);
+
+    // Init.
+
+    @BeforeEach
+    public void setUp() {
+        pubSubProtocol = new PubSubProtocol("PS_P", mockAgentOwner, new HashMap<>());
+        pubSubProtocol.setEnvironment(mockEnvironment);
+        pubSubProtocol.setMessageTransport(mockMessageTransport);
+        protocol = pubSubProtocol;
+    }
+
+    private void ownerCanDeliver() {
+        when(mockMessage.getIntendedProtocol()).thenReturn(mockProtocolIdentifier);
+        when(mockAgentOwner.getProtocol(mockProtocolIdentifier)).thenReturn(mockProtocol);
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("PubSubProtocol.publish")
+    @DisplayName("PubSubProtocol publish tests")
+    class PublishTest {
+
+        @Test
+        @DisplayName("Test if publish throws IllegalArgumentException with a null topic or a null message")
+        void testPublishWithNullArgs() {
+            assertThrows(IllegalArgumentException.class, () -> pubSubProtocol.publish(null, mockMessage));
+            assertThrows(IllegalArgumentException.class, () -> pubSubProtocol.publish("T", null));
+        }
+
+        @Test
+        @DisplayName("Test if publish sends one multicast to the subscribers of the topic only")
+        void testPublishSendsToSubscribers() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            TopicRegistry.of(mockEnvironment).subscribe("T", subscriber);
+            TopicRegistry.of(mockEnvironment).subscribe("OTHER", new AgentIdentifier("OTHER", 2, 2));
+
+            pubSubProtocol.publish("T", mockMessage);
+            verify(mockMessageTransport, times(1)).sendMulticast(eq(List.of(subscriber)), any(TopicMessage.class));
+        }
+
+        @Test
+        @DisplayName("Test if publish does not send anything if the topic has no subscriber")
+        void testPublishWithoutSubscriber() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            pubSubProtocol.publish("T", mockMessage);
+            verifyNoInteractions(mockMessageTransport);
+        }
+
+        @Test
+        @DisplayName("Test if publish delivers the message to the publisher without transport if it has subscribed to the topic and sends the "
+                + "subscribers without copy")
+        void testPublishWithSelfSubscription() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            ownerCanDeliver();
+            pubSubProtocol.subscribe("T");
+            TopicRegistry.of(mockEnvironment).subscribe("T", subscriber);
+
+            pubSubProtocol.publish("T", mockMessage);
+            verify(mockMessageTransport, times(1)).sendMulticast(eq(List.of(owner, subscriber)), any(TopicMessage.class));
+            verify(mockProtocol, times(1)).processEvent(mockMessage);
+        }
+
+        @Test
+        @DisplayName("Test if publish does not send anything if the publisher is the only subscriber of the topic")
+        void testPublishWithOnlySelfSubscription() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            ownerCanDeliver();
+            pubSubProtocol.subscribe("T");
+
+            pubSubProtocol.publish("T", mockMessage);
+            verifyNoInteractions(mockMessageTransport);
+            verify(mockProtocol, times(1)).processEvent(mockMessage);
+        }
+
+    }
+
+    @Nested
+    @Tag("PubSubProtocol.receive")
+    @DisplayName("PubSubProtocol receive tests")
+    class ReceiveTest {
+
+        @Test
+        @DisplayName("Test if receive delivers the message only if the owner is subscribed to the topic")
+        void testReceive() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            ownerCanDeliver();
+            var topicMessage = new TopicMessage("T", subscriber, mockMessage, pubSubProtocol.getIdentifier());
+
+            pubSubProtocol.processEvent(topicMessage);
+            verifyNoInteractions(mockProtocol);
+
+            pubSubProtocol.subscribe("T");
+            pubSubProtocol.processEvent(topicMessage);
+            pubSubProtocol.unsubscribe("T");
+            pubSubProtocol.processEvent(topicMessage);
+            verify(mockProtocol, times(1)).processEvent(mockMessage);
+        }
+
+        @Test
+        @DisplayName("Test if receive ignores a message published by the owner, it has already been delivered at the publication")
+        void testReceiveOwnMessage() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            pubSubProtocol.subscribe("T");
+
+            pubSubProtocol.processEvent(new TopicMessage("T", owner, mockMessage, pubSubProtocol.getIdentifier()));
+            verifyNoInteractions(mockProtocol);
+        }
+
+        @Test
+        @DisplayName("Test if processEvent throws UnsupportedOperationException if the event is not a TopicMessage")
+        void testProcessEventWithNotTopicMessage() {
+            assertThrows(UnsupportedOperationException.class, () -> pubSubProtocol.processEvent(mockMessage));
+        }
+
+    }
+
+    @Nested
+    @Tag("PubSubProtocol.onOwnerKill")
+    @DisplayName("PubSubProtocol onOwnerKill tests")
+    class OnOwnerKillTest {
+
+        @Test
+        @DisplayName("Test if onOwnerKill removes all subscriptions of the owner")
+        void testOnOwnerKill() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            pubSubProtocol.subscribe("T1");
+            pubSubProtocol.subscribe("T2");
+            assertThat(TopicRegistry.of(mockEnvironment).getSubscribers("T1")).containsExactly(owner);
+
+            pubSubProtocol.onOwnerKill();
+            assertThat(TopicRegistry.of(mockEnvironment).getNbTopics()).isZero();
+            assertThat(pubSubProtocol.isSubscribed("T1")).isFalse();
+        }
+
+    }
+}
@@ -0,0 +1,132 @@
+package sima.standard.pubsub;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.environment.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class TestTopicRegistry {
+
+    // Variables.
+
+    private TopicRegistry topicRegistry;
+
+    @Mock
+    private Environment mockEnvironment;
+
+    @Mock
+    private Environment mockEnvironmentOther;
+
+    private final AgentIdentifier agent0 = new AgentIdentifier("AGENT_0", 0, 0);
+
+    private final AgentIdentifier agent1 = new AgentIdentifier("AGENT_1", 1, 1);
+
+    // Init.
+
+    @BeforeEach
+    void setUp() {
+        topicRegistry = TopicRegistry.of(mockEnvironment);
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("TopicRegistry.of")
+    @DisplayName("TopicRegistry of tests")
+    class OfTest {
+
+        @Test
+        @DisplayName("Test if of returns the same registry for the same environment and another registry for another environment")
+        void testOf() {
+            assertThat(TopicRegistry.of(mockEnvironment)).isSameAs(topicRegistry);
+            assertThat(TopicRegistry.of(mockEnvironmentOther)).isNotSameAs(topicRegistry);
+            assertThrows(IllegalArgumentException.class, () -> TopicRegistry.of(null));
+        }
+
+    }
+
+    @Nested
+    @Tag("TopicRegistry.subscribe")
+    @DisplayName("TopicRegistry subscribe tests")
+    class SubscribeTest {
+
+        @Test
+        @DisplayName("Test if subscribe adds an agent one time to the topic")
+        void testSubscribe() {
+            assertThat(topicRegistry.subscribe("T", agent0)).isTrue();
+            assertThat(topicRegistry.subscribe("T", agent0)).isFalse();
+            assertThat(topicRegistry.subscribe("T", agent1)).isTrue();
+            assertThat(topicRegistry.getSubscribers("T")).containsExactly(agent0, agent1);
+            assertThat(topicRegistry.getNbSubscribers("T")).isEqualTo(2);
+            assertThat(topicRegistry.getSubscribers("OTHER")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Test if subscribe throws IllegalArgumentException with a null topic or a null agent")
+        void testSubscribeWithNullArgs() {
+            assertThrows(IllegalArgumentException.class, () -> topicRegistry.subscribe(null, agent0));
+            assertThrows(IllegalArgumentException.class, () -> topicRegistry.subscribe("T", null));
+        }
+
+        @Test
+        @DisplayName("Test if subscribe does not change the subscribers previously returned")
+        void testSubscribeDoesNotChangePreviousSubscribers() {
+            topicRegistry.subscribe("T", agent0);
+            List<AgentIdentifier> subscribers = topicRegistry.getSubscribers("T");
+            topicRegistry.subscribe("T", agent1);
+            topicRegistry.unsubscribe("T", agent0);
+            assertThat(subscribers).containsExactly(agent0);
+            assertThrows(UnsupportedOperationException.class, () -> subscribers.set(0, agent1));
+        }
+
+        @Test
+        @DisplayName("Test if concurrent subscriptions are all kept")
+        void testConcurrentSubscribe() throws InterruptedException {
+            List<AgentIdentifier> agents = new ArrayList<>();
+            for (int i = 0; i < 200; i++)
+                agents.add(new AgentIdentifier("AGENT_" + i, i, i));
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            for (AgentIdentifier agent : agents)
+                executor.execute(() -> topicRegistry.subscribe("T", agent));
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(topicRegistry.getSubscribers("T")).containsExactlyInAnyOrderElementsOf(agents);
+        }
+
+    }
+
+    @Nested
+    @Tag("TopicRegistry.unsubscribe")
+    @DisplayName("TopicRegistry unsubscribe tests")
+    class UnsubscribeTest {
+
+        @Test
+        @DisplayName("Test if unsubscribe removes the agent and the topic when it has no more subscriber")
+        void testUnsubscribe() {
+            topicRegistry.subscribe("T", agent0);
+            topicRegistry.subscribe("T", agent1);
+            assertThat(topicRegistry.unsubscribe("T", agent0)).isTrue();
+            assertThat(topicRegistry.unsubscribe("T", agent0)).isFalse();
+            assertThat(topicRegistry.getSubscribers("T")).containsExactly(agent1);
+
+            assertThat(topicRegistry.unsubscribe("T", agent1)).isTrue();
+            assertThat(topicRegistry.getNbTopics()).isZero();
+            assertThat(topicRegistry.unsubscribe("OTHER", agent1)).isFalse();
+        }
+
+    }
+}
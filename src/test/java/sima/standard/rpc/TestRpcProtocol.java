@@ -0,0 +1,305 @@
+package sima.standard.rpc;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.protocol.TestProtocol;
+import sima.core.scheduler.Scheduler;
+import sima.core.scheduler.executor.CancellableExecutable;
+import sima.core.scheduler.executor.Executable;
+import sima.core.simulation.SimaSimulation;
+import sima.standard.environment.message.Message;
+import sima.standard.transport.MessageTransportProtocol;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static sima.core.TestSima.mockSimaSimulation;
+
+@ExtendWith(MockitoExtension.class)
+public class TestRpcProtocol extends TestProtocol {
+
+    // Variables.
+
+    protected RpcProtocol rpcProtocol;
+
+    @Mock
+    private SimaAgent mockAgentOwner;
+
+    @Mock
+    private MessageTransportProtocol mockMessageTransport;
+
+    @Mock
+    private Scheduler mockScheduler;
+
+    @Mock
+    private Message mockRequest;
+
+    @Mock
+    private Message mockResponse;
+
+    private final AgentIdentifier owner = new AgentIdentifier("OWNER", 0, 0);
+
+    private final AgentIdentifier target = new AgentIdentifier("TARGET", 1, 1);
+
+    // Init.
+
+    @BeforeEach
+    public void setUp() {
+        rpcProtocol = new RpcProtocol("RPC_P", mockAgentOwner, new HashMap<>());
+        rpcProtocol.setMessageTransport(mockMessageTransport);
+        protocol = rpcProtocol;
+    }
+
+    private RpcMessage sentMessage(int nbSent) {
+        ArgumentCaptor<RpcMessage> captor = ArgumentCaptor.forClass(RpcMessage.class);
+        verify(mockMessageTransport, times(nbSent)).send(any(AgentIdentifier.class), captor.capture());
+        return captor.getValue();
+    }
+
+    private RpcMessage responseTo(RpcMessage request) {
+        return new RpcMessage(RpcMessage.Type.RESPONSE, request.getRequestId(), request.getRequester(), mockResponse, rpcProtocol.getIdentifier());
+    }
+
+    // Tests.
+
+    @Nested
+    @Tag("RpcProtocol.constructor")
+    @DisplayName("RpcProtocol constructor tests")
+    class ConstructorTest {
+
+        @Test
+        @DisplayName("Test if the constructor throws IllegalArgumentException with a negative or not numeric timeout")
+        void testConstructorWithWrongTimeout() {
+            assertThrows(IllegalArgumentException.class,
+                         () -> new RpcProtocol("RPC_P", mockAgentOwner, Map.of(RpcProtocol.REQUEST_TIMEOUT_ARGS, "-1")));
+            assertThrows(IllegalArgumentException.class,
+                         () -> new RpcProtocol("RPC_P", mockAgentOwner, Map.of(RpcProtocol.REQUEST_TIMEOUT_ARGS, "X")));
+        }
+
+        @Test
+        @DisplayName("Test if the constructor parses the default timeout")
+        void testConstructorParsesTimeout() {
+            assertThat(rpcProtocol.getDefaultTimeout()).isEqualTo(RpcProtocol.NO_TIMEOUT);
+            assertThat(new RpcProtocol("RPC_P", mockAgentOwner, Map.of(RpcProtocol.REQUEST_TIMEOUT_ARGS, "15")).getDefaultTimeout()).isEqualTo(15L);
+        }
+
+    }
+
+    @Nested
+    @Tag("RpcProtocol.request")
+    @DisplayName("RpcProtocol request tests")
+    class RequestTest {
+
+        @Test
+        @DisplayName("Test if request throws IllegalArgumentException with null args or a negative timeout")
+        void testRequestWithWrongArgs() {
+            assertThrows(IllegalArgumentException.class, () -> rpcProtocol.request(null, mockRequest));
+            assertThrows(IllegalArgumentException.class, () -> rpcProtocol.request(target, null));
+            assertThrows(IllegalArgumentException.class, () -> rpcProtocol.request(target, mockRequest, -1));
+        }
+
+        @Test
+        @DisplayName("Test if request sends the request without waiting and the response completes the future")
+        void testRequestCompletedByResponse() throws ExecutionException, InterruptedException {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            CompletableFuture<Message> future = rpcProtocol.request(target, mockRequest);
+
+            var request = sentMessage(1);
+            verify(mockMessageTransport).send(eq(target), any(RpcMessage.class));
+            assertThat(request.isRequest()).isTrue();
+            assertThat(request.getRequester()).isEqualTo(owner);
+            assertThat(request.getMessage()).isSameAs(mockRequest);
+            assertThat(future).isNotDone();
+            assertThat(rpcProtocol.getNbPendingRequests()).isEqualTo(1);
+
+            rpcProtocol.processEvent(responseTo(request));
+            assertThat(future.get()).isSameAs(mockResponse);
+            assertThat(rpcProtocol.getNbPendingRequests()).isZero();
+        }
+
+        @Test
+        @DisplayName("Test if the responses are correlated with their request by the request id")
+        void testResponsesCorrelatedById() throws ExecutionException, InterruptedException {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            CompletableFuture<Message> first = rpcProtocol.request(target, mockRequest);
+            var firstRequest = sentMessage(1);
+            CompletableFuture<Message> second = rpcProtocol.request(target, mockRequest);
+            var secondRequest = sentMessage(2);
+            assertThat(firstRequest.getRequestId()).isNotEqualTo(secondRequest.getRequestId());
+
+            rpcProtocol.processEvent(responseTo(secondRequest));
+            assertThat(second.get()).isSameAs(mockResponse);
+            assertThat(first).isNotDone();
+        }
+
+        @Test
+        @DisplayName("Test if a cancelled request is forgotten and its response is ignored")
+        void testCancelledRequest() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            CompletableFuture<Message> future = rpcProtocol.request(target, mockRequest);
+            var request = sentMessage(1);
+
+            future.cancel(false);
+            assertThat(rpcProtocol.getNbPendingRequests()).isZero();
+            rpcProtocol.processEvent(responseTo(request));
+            assertThat(future).isCancelled();
+        }
+
+        @Test
+        @DisplayName("Test if request returns a cancelled future if the owner is killed")
+        void testRequestWithKilledOwner() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            when(mockAgentOwner.isKilled()).thenReturn(true);
+
+            assertThat(rpcProtocol.request(target, mockRequest)).isCancelled();
+            verifyNoInteractions(mockMessageTransport);
+        }
+
+    }
+
+    @Nested
+    @Tag("RpcProtocol.timeout")
+    @DisplayName("RpcProtocol timeout tests")
+    class TimeoutTest {
+
+        @Test
+        @DisplayName("Test if the timer completes the future with a TimeoutException if the request is still pending")
+        void testTimeout() {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+                CompletableFuture<Message> future = rpcProtocol.request(target, mockRequest, 10L);
+
+                ArgumentCaptor<Executable> captor = ArgumentCaptor.forClass(Executable.class);
+                verify(mockScheduler, times(1)).scheduleExecutableOnce(captor.capture(), eq(10L));
+                captor.getValue().execute();
+
+                var exception = assertThrows(ExecutionException.class, future::get);
+                assertThat(exception.getCause()).isInstanceOf(TimeoutException.class);
+                assertThat(rpcProtocol.getNbPendingRequests()).isZero();
+            }
+        }
+
+        @Test
+        @DisplayName("Test if the timer is cancelled and does nothing if the response has been received")
+        void testTimeoutAfterResponse() throws ExecutionException, InterruptedException {
+            try (MockedStatic<SimaSimulation> simaSimulationMockedStatic = mockSimaSimulation()) {
+                simaSimulationMockedStatic.when(SimaSimulation::getScheduler).thenReturn(mockScheduler);
+                when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+                CompletableFuture<Message> future = rpcProtocol.request(target, mockRequest, 10L);
+                rpcProtocol.processEvent(responseTo(sentMessage(1)));
+
+                ArgumentCaptor<Executable> captor = ArgumentCaptor.forClass(Executable.class);
+                verify(mockScheduler, times(1)).scheduleExecutableOnce(captor.capture(), eq(10L));
+                assertThat(captor.getValue()).isInstanceOf(CancellableExecutable.class);
+                assertThat(((CancellableExecutable) captor.getValue()).isCancelled()).isTrue();
+                verify(mockAgentOwner, times(1)).removePendingTask();
+
+                captor.getValue().execute();
+                assertThat(future.get()).isSameAs(mockResponse);
+                verify(mockAgentOwner, times(1)).removePendingTask();
+            }
+        }
+
+        @Test
+        @DisplayName("Test if a request without timeout does not schedule any timer")
+        void testRequestWithoutTimeout() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            rpcProtocol.request(target, mockRequest, RpcProtocol.NO_TIMEOUT);
+            verifyNoInteractions(mockScheduler);
+        }
+
+    }
+
+    @Nested
+    @Tag("RpcProtocol.receive")
+    @DisplayName("RpcProtocol receive tests")
+    class ReceiveTest {
+
+        @Test
+        @DisplayName("Test if a request is answered with the response of the handler")
+        void testReceiveRequest() {
+            rpcProtocol.setRequestHandler(request -> mockResponse);
+            var request = new RpcMessage(RpcMessage.Type.REQUEST, 7L, target, mockRequest, rpcProtocol.getIdentifier());
+
+            rpcProtocol.processEvent(request);
+            var response = sentMessage(1);
+            verify(mockMessageTransport).send(eq(target), any(RpcMessage.class));
+            assertThat(response.isRequest()).isFalse();
+            assertThat(response.getRequestId()).isEqualTo(7L);
+            assertThat(response.getMessage()).isSameAs(mockResponse);
+        }
+
+        @Test
+        @DisplayName("Test if a handler which returns null can reply later")
+        void testReceiveRequestWithLaterReply() {
+            RpcMessage[] received = new RpcMessage[1];
+            rpcProtocol.setRequestHandler(request -> {
+                received[0] = request;
+                return null;
+            });
+
+            rpcProtocol.processEvent(new RpcMessage(RpcMessage.Type.REQUEST, 7L, target, mockRequest, rpcProtocol.getIdentifier()));
+            verifyNoInteractions(mockMessageTransport);
+
+            rpcProtocol.reply(received[0], mockResponse);
+            assertThat(sentMessage(1).getRequestId()).isEqualTo(7L);
+        }
+
+        @Test
+        @DisplayName("Test if a request is ignored without handler")
+        void testReceiveRequestWithoutHandler() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            rpcProtocol.processEvent(new RpcMessage(RpcMessage.Type.REQUEST, 7L, target, mockRequest, rpcProtocol.getIdentifier()));
+            verifyNoInteractions(mockMessageTransport);
+        }
+
+        @Test
+        @DisplayName("Test if reply throws IllegalArgumentException with a response as request")
+        void testReplyToResponse() {
+            var response = new RpcMessage(RpcMessage.Type.RESPONSE, 7L, target, mockResponse, rpcProtocol.getIdentifier());
+            assertThrows(IllegalArgumentException.class, () -> rpcProtocol.reply(response, mockResponse));
+        }
+
+        @Test
+        @DisplayName("Test if processEvent throws UnsupportedOperationException if the event is not a RpcMessage")
+        void testProcessEventWithNotRpcMessage() {
+            assertThrows(UnsupportedOperationException.class, () -> rpcProtocol.processEvent(mockRequest));
+        }
+
+    }
+
+    @Nested
+    @Tag("RpcProtocol.onOwnerKill")
+    @DisplayName("RpcProtocol onOwnerKill tests")
+    class OnOwnerKillTest {
+
+        @Test
+        @DisplayName("Test if onOwnerKill cancels all pending requests")
+        void testOnOwnerKill() {
+            when(mockAgentOwner.getAgentIdentifier()).thenReturn(owner);
+            CompletableFuture<Message> first = rpcProtocol.request(target, mockRequest);
+            CompletableFuture<Message> second = rpcProtocol.request(target, mockRequest);
+
+            rpcProtocol.onOwnerKill();
+            assertThat(first).isCancelled();
+            assertThat(second).isCancelled();
+            assertThat(rpcProtocol.getNbPendingRequests()).isZero();
+        }
+
+    }
+}
@@ -10,11 +10,13 @@ import sima.core.exception.NoPhysicalConnectionLayerFoundException;
 import sima.core.protocol.TestProtocol;
 import sima.standard.environment.message.Message;
 
+import java.util.List;
+
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public abstract class TestMessageTransportProtocol extends TestProtocol {
 
@@ -34,6 +36,9 @@ public abstract class TestMessageTransportProtocol extends TestProtocol {
     @Mock
     private AgentIdentifier mockTarget;
 
+    @Mock
+    private AgentIdentifier mockInitiator;
+
     @Mock
     private Message mockMessage;
 
@@ -90,9 +95,62 @@ public abstract class TestMessageTransportProtocol extends TestProtocol {
             assertDoesNotThrow(() -> messageTransportProtocol.send(mockTarget, mockMessage));
         }
 
+        @Test
+        @DisplayName("Test if send searches the physicalLayer in the Environment only one time")
+        void testSendSearchesPhysicalLayerOnlyOneTime() {
+            // WHEN
+            sendMockConfig(mockPhysicalLayer);
+
+            // GIVEN
+            assertDoesNotThrow(() -> messageTransportProtocol.send(mockTarget, mockMessage));
+            assertDoesNotThrow(() -> messageTransportProtocol.send(mockTarget, mockMessage));
+            verify(mockEnvironment, times(1)).getPhysicalConnectionLayer(any(String.class));
+        }
+
         private void sendMockConfig(PhysicalConnectionLayer mockPhysicalLayer) {
             messageTransportProtocol.setEnvironment(mockEnvironment);
             when(mockEnvironment.getPhysicalConnectionLayer(any(String.class))).thenReturn(mockPhysicalLayer);
+            lenient().when(messageTransportProtocol.getAgentOwner().getAgentIdentifier()).thenReturn(mockInitiator);
+        }
+    }
+
+    @Nested
+    @Tag("MessageTransportProtocol.sendMulticast")
+    @DisplayName("MessageTransportProtocol sendMulticast tests")
+    class SendMulticastTest {
+
+        @Test
+        @DisplayName("Test if sendMulticast throws IllegalArgumentException if the targets are null")
+        void testSendMulticastWithNullTargets() {
+            assertThrows(IllegalArgumentException.class, () -> messageTransportProtocol.sendMulticast(null, mockMessage));
+        }
+
+        @Test
+        @DisplayName("Test if sendMulticast throws NoPhysicalConnectionLayerFoundException if the Environment does not have the physicalLayer")
+        void testSendMulticastWithPhysicalLayerNotFound() {
+            // WHEN
+            sendMulticastMockConfig(null);
+
+            // GIVEN
+            List<AgentIdentifier> targets = List.of(mockTarget);
+            assertThrows(NoPhysicalConnectionLayerFoundException.class, () -> messageTransportProtocol.sendMulticast(targets, mockMessage));
+        }
+
+        @Test
+        @DisplayName("Test if sendMulticast does not throw Exception if the Environment have the physicalLayer")
+        void testSendMulticastWithPhysicalLayerFound() {
+            // WHEN
+            sendMulticastMockConfig(mockPhysicalLayer);
+
+            // GIVEN
+            List<AgentIdentifier> targets = List.of(mockTarget, mockTarget);
+            assertDoesNotThrow(() -> messageTransportProtocol.sendMulticast(targets, mockMessage));
+        }
+
+        private void sendMulticastMockConfig(PhysicalConnectionLayer mockPhysicalLayer) {
+            messageTransportProtocol.setEnvironment(mockEnvironment);
+            when(mockEnvironment.getPhysicalConnectionLayer(any(String.class))).thenReturn(mockPhysicalLayer);
+            lenient().when(messageTransportProtocol.getAgentOwner().getAgentIdentifier()).thenReturn(mockInitiator);
         }
     }
 
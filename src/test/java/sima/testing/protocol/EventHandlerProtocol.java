@@ -0,0 +1,71 @@
+package sima.testing.protocol;
+
+import sima.core.agent.SimaAgent;
+import sima.core.environment.event.Event;
+import sima.core.protocol.EventHandler;
+import sima.core.protocol.Protocol;
+import sima.core.protocol.ProtocolManipulator;
+import sima.standard.environment.message.Message;
+import sima.standard.environment.message.StringMessage;
+
+import java.util.Map;
+
+/**
+ * A {@link Protocol} which declares {@link EventHandler} and dispatches the events to them.
+ */
+public class EventHandlerProtocol extends Protocol {
+
+    // Variables.
+
+    private int nbMessageHandled;
+
+    private int nbStringMessageHandled;
+
+    // Constructors.
+
+    public EventHandlerProtocol(String protocolTag, SimaAgent agentOwner, Map<String, String> args) {
+        super(protocolTag, agentOwner, args);
+    }
+
+    // Methods.
+
+    @Override
+    public void onOwnerStart() {
+        // Nothing.
+    }
+
+    @Override
+    public void onOwnerKill() {
+        // Nothing.
+    }
+
+    @Override
+    public void processEvent(Event event) {
+        dispatchToEventHandler(event);
+    }
+
+    @EventHandler
+    private void handleMessage(Message message) {
+        nbMessageHandled++;
+    }
+
+    @EventHandler
+    public void handleStringMessage(StringMessage stringMessage) {
+        nbStringMessageHandled++;
+    }
+
+    @Override
+    protected ProtocolManipulator createDefaultProtocolManipulator() {
+        return new ProtocolManipulator.DefaultProtocolManipulator(this);
+    }
+
+    // Getters.
+
+    public int getNbMessageHandled() {
+        return nbMessageHandled;
+    }
+
+    public int getNbStringMessageHandled() {
+        return nbStringMessageHandled;
+    }
+}
@@ -0,0 +1,35 @@
+package sima.testing.simulation;
+
+import sima.core.agent.AgentHandleBinder;
+import sima.core.agent.AgentIdentifier;
+import sima.core.agent.SimaAgent;
+import sima.core.simulation.AgentManager;
+
+import java.util.List;
+
+/**
+ * An {@link AgentManager} which manages no agent, used by the tests to bind an {@link AgentIdentifier} to an agent handle without registering the
+ * agent.
+ */
+public class HandleBindingAgentManager implements AgentManager {
+
+    // Static.
+
+    private static final AgentHandleBinder HANDLE_BINDER = AgentHandleBinder.getInstance();
+
+    // Methods.
+
+    public static void bindAgentHandle(AgentIdentifier agentIdentifier, int agentHandle) {
+        HANDLE_BINDER.bind(agentIdentifier, agentHandle);
+    }
+
+    @Override
+    public boolean addAgent(SimaAgent agent) {
+        return false;
+    }
+
+    @Override
+    public List<SimaAgent> getAllAgents() {
+        return List.of();
+    }
+}